@@ -0,0 +1,38 @@
+package com.example.enshitrafficplatform.analytics;
+
+/**
+ * 交通立方体维度
+ * 查询时通过分组维度控制上卷粒度，未参与分组的维度会被汇总
+ */
+public enum CubeDimension {
+
+    /**
+     * 路段
+     */
+    ROAD_SECTION,
+
+    /**
+     * 周内小时（0-167）
+     */
+    HOUR_OF_WEEK,
+
+    /**
+     * 星期几（由周内小时上卷）
+     */
+    DAY_OF_WEEK,
+
+    /**
+     * 一天中的小时（由周内小时上卷）
+     */
+    HOUR_OF_DAY,
+
+    /**
+     * 天气类别
+     */
+    WEATHER,
+
+    /**
+     * 车型
+     */
+    VEHICLE_CLASS
+}
@@ -0,0 +1,46 @@
+package com.example.enshitrafficplatform.analytics;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 交通立方体查询条件
+ * 过滤条件为空表示该维度不做切片；groupBy 为空表示全部上卷为一行
+ */
+@Data
+@Builder
+public class CubeQuery {
+
+    /**
+     * 路段ID过滤
+     */
+    private Set<Long> roadSectionIds;
+
+    /**
+     * 星期几过滤（1-7，1表示周一）
+     */
+    private Set<Integer> daysOfWeek;
+
+    /**
+     * 小时过滤（0-23）
+     */
+    private Set<Integer> hoursOfDay;
+
+    /**
+     * 天气类别过滤
+     */
+    private Set<WeatherCategory> weatherCategories;
+
+    /**
+     * 车型过滤，影响车辆数量度量
+     */
+    private Set<VehicleClass> vehicleClasses;
+
+    /**
+     * 分组维度
+     */
+    private List<CubeDimension> groupBy;
+}
@@ -0,0 +1,54 @@
+package com.example.enshitrafficplatform.analytics;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * 交通立方体查询结果行
+ * 未参与分组的维度字段为null
+ */
+@Data
+@Builder
+public class CubeRow {
+
+    private Long roadSectionId;
+
+    private Integer hourOfWeek;
+
+    /**
+     * 星期几（1-7，1表示周一）
+     */
+    private Integer dayOfWeek;
+
+    private Integer hourOfDay;
+
+    private WeatherCategory weather;
+
+    private VehicleClass vehicleClass;
+
+    /**
+     * 样本记录数
+     */
+    private long sampleCount;
+
+    /**
+     * 平均车流量（辆/小时）
+     */
+    private Double averageFlowRate;
+
+    /**
+     * 平均车速（公里/小时）
+     */
+    private Double averageSpeed;
+
+    /**
+     * 所选车型的车辆总数
+     */
+    private long vehicleCount;
+
+    private long largeVehicleCount;
+
+    private long mediumVehicleCount;
+
+    private long smallVehicleCount;
+}
@@ -0,0 +1,513 @@
+package com.example.enshitrafficplatform.analytics;
+
+import com.example.enshitrafficplatform.dto.FlowReading;
+import com.example.enshitrafficplatform.util.DateUtils;
+import com.example.enshitrafficplatform.util.VarIntUtils;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 交通流量内存立方体（路段 × 周内小时 × 天气类别 × 车型）
+ * 每个单元格以基本类型数组保存样本数、流量和、车速和及各车型数量，
+ * 支持增量累加、切片/切块/上卷查询以及紧凑的二进制快照
+ */
+public class TrafficCube {
+
+    public static final int HOURS = DateUtils.HOURS_PER_WEEK;
+
+    public static final int WEATHERS = WeatherCategory.values().length;
+
+    public static final int VEHICLE_CLASSES = VehicleClass.values().length;
+
+    private static final int CELLS_PER_SECTION = HOURS * WEATHERS;
+
+    private static final int INITIAL_SECTION_CAPACITY = 64;
+
+    private static final int SNAPSHOT_MAGIC = 0x45544342;
+
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<Long, Integer> sectionSlots = new HashMap<>();
+
+    private long[] slotSectionIds = new long[INITIAL_SECTION_CAPACITY];
+
+    private int sectionCount;
+
+    private long[] sampleCounts = new long[INITIAL_SECTION_CAPACITY * CELLS_PER_SECTION];
+
+    private long[] flowSums = new long[INITIAL_SECTION_CAPACITY * CELLS_PER_SECTION];
+
+    private long[] flowSamples = new long[INITIAL_SECTION_CAPACITY * CELLS_PER_SECTION];
+
+    private double[] speedSums = new double[INITIAL_SECTION_CAPACITY * CELLS_PER_SECTION];
+
+    private long[] speedSamples = new long[INITIAL_SECTION_CAPACITY * CELLS_PER_SECTION];
+
+    /**
+     * 车型数量，下标为 单元格 * VEHICLE_CLASSES + 车型序号
+     */
+    private long[] classCounts = new long[INITIAL_SECTION_CAPACITY * CELLS_PER_SECTION * VEHICLE_CLASSES];
+
+    /**
+     * 已累加记录的最大ID，用于重启后从数据库补齐
+     */
+    private long maxRecordId;
+
+    /**
+     * 累加一条读数
+     * @param reading 流量读数
+     * @return 是否累加成功，未知路段的读数会被忽略
+     */
+    public boolean add(FlowReading reading) {
+        if (reading.getRoadSectionId() <= 0) {
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            accumulate(reading);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 批量累加读数
+     * @param readings 流量读数
+     * @return 成功累加的读数数量
+     */
+    public int addAll(Collection<FlowReading> readings) {
+        int added = 0;
+        lock.writeLock().lock();
+        try {
+            for (FlowReading reading : readings) {
+                if (reading.getRoadSectionId() > 0) {
+                    accumulate(reading);
+                    added++;
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return added;
+    }
+
+    private void accumulate(FlowReading reading) {
+        int slot = slotFor(reading.getRoadSectionId());
+        int weather = reading.getWeatherCategory().ordinal();
+        int cell = cellIndex(slot, DateUtils.hourOfWeek(reading.getEpochSecond()), weather);
+
+        sampleCounts[cell]++;
+        if (reading.getFlowRate() != FlowReading.MISSING_INT) {
+            flowSums[cell] += reading.getFlowRate();
+            flowSamples[cell]++;
+        }
+        if (!Double.isNaN(reading.getAverageSpeed())) {
+            speedSums[cell] += reading.getAverageSpeed();
+            speedSamples[cell]++;
+        }
+        int classBase = cell * VEHICLE_CLASSES;
+        if (reading.getLargeVehicleCount() > 0) {
+            classCounts[classBase] += reading.getLargeVehicleCount();
+        }
+        if (reading.getMediumVehicleCount() > 0) {
+            classCounts[classBase + 1] += reading.getMediumVehicleCount();
+        }
+        if (reading.getSmallVehicleCount() > 0) {
+            classCounts[classBase + 2] += reading.getSmallVehicleCount();
+        }
+        if (reading.getRecordId() > maxRecordId) {
+            maxRecordId = reading.getRecordId();
+        }
+    }
+
+    private int slotFor(long sectionId) {
+        Integer slot = sectionSlots.get(sectionId);
+        if (slot != null) {
+            return slot;
+        }
+        if (sectionCount == slotSectionIds.length) {
+            grow(slotSectionIds.length * 2);
+        }
+        int newSlot = sectionCount++;
+        slotSectionIds[newSlot] = sectionId;
+        sectionSlots.put(sectionId, newSlot);
+        return newSlot;
+    }
+
+    private void grow(int sectionCapacity) {
+        int cells = sectionCapacity * CELLS_PER_SECTION;
+        slotSectionIds = Arrays.copyOf(slotSectionIds, sectionCapacity);
+        sampleCounts = Arrays.copyOf(sampleCounts, cells);
+        flowSums = Arrays.copyOf(flowSums, cells);
+        flowSamples = Arrays.copyOf(flowSamples, cells);
+        speedSums = Arrays.copyOf(speedSums, cells);
+        speedSamples = Arrays.copyOf(speedSamples, cells);
+        classCounts = Arrays.copyOf(classCounts, cells * VEHICLE_CLASSES);
+    }
+
+    private static int cellIndex(int slot, int hourOfWeek, int weather) {
+        return (slot * HOURS + hourOfWeek) * WEATHERS + weather;
+    }
+
+    /**
+     * 执行切片、切块与上卷查询
+     * @param query 查询条件
+     * @return 按分组维度排序的结果行
+     */
+    public List<CubeRow> query(CubeQuery query) {
+        boolean[] hourMask = hourMask(query.getDaysOfWeek(), query.getHoursOfDay());
+        boolean[] weatherMask = weatherMask(query.getWeatherCategories());
+        boolean[] classMask = classMask(query.getVehicleClasses());
+        Set<CubeDimension> groupBy = query.getGroupBy() == null || query.getGroupBy().isEmpty()
+                ? EnumSet.noneOf(CubeDimension.class)
+                : EnumSet.copyOf(query.getGroupBy());
+        boolean byClass = groupBy.contains(CubeDimension.VEHICLE_CLASS);
+
+        Map<Long, GroupAccumulator> groups = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            for (int slot : selectSlots(query.getRoadSectionIds())) {
+                for (int hour = 0; hour < HOURS; hour++) {
+                    if (!hourMask[hour]) {
+                        continue;
+                    }
+                    int hourCell = (slot * HOURS + hour) * WEATHERS;
+                    for (int weather = 0; weather < WEATHERS; weather++) {
+                        int cell = hourCell + weather;
+                        if (!weatherMask[weather] || sampleCounts[cell] == 0) {
+                            continue;
+                        }
+                        if (byClass) {
+                            for (int vehicleClass = 0; vehicleClass < VEHICLE_CLASSES; vehicleClass++) {
+                                if (classMask[vehicleClass]) {
+                                    groupFor(groups, groupBy, slot, hour, weather, vehicleClass)
+                                            .add(this, cell, classMask, vehicleClass);
+                                }
+                            }
+                        } else {
+                            groupFor(groups, groupBy, slot, hour, weather, -1)
+                                    .add(this, cell, classMask, -1);
+                        }
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<GroupAccumulator> sorted = new ArrayList<>(groups.values());
+        sorted.sort(Comparator.comparingLong(group -> group.key));
+        List<CubeRow> rows = new ArrayList<>(sorted.size());
+        for (GroupAccumulator group : sorted) {
+            rows.add(group.toRow(groupBy));
+        }
+        return rows;
+    }
+
+    private GroupAccumulator groupFor(Map<Long, GroupAccumulator> groups, Set<CubeDimension> groupBy,
+                                      int slot, int hour, int weather, int vehicleClass) {
+        long sectionPart = groupBy.contains(CubeDimension.ROAD_SECTION) ? slot + 1 : 0;
+        int hourPart;
+        boolean byDay = groupBy.contains(CubeDimension.DAY_OF_WEEK);
+        boolean byHourOfDay = groupBy.contains(CubeDimension.HOUR_OF_DAY);
+        if (groupBy.contains(CubeDimension.HOUR_OF_WEEK) || (byDay && byHourOfDay)) {
+            hourPart = hour + 1;
+        } else if (byDay) {
+            hourPart = (hour / 24) * 24 + 1;
+        } else if (byHourOfDay) {
+            hourPart = hour % 24 + 1;
+        } else {
+            hourPart = 0;
+        }
+        int weatherPart = groupBy.contains(CubeDimension.WEATHER) ? weather + 1 : 0;
+        int classPart = vehicleClass + 1;
+        long key = ((sectionPart * 256 + hourPart) * 16 + weatherPart) * 4 + classPart;
+
+        GroupAccumulator group = groups.get(key);
+        if (group == null) {
+            group = new GroupAccumulator(key, slotSectionIds[slot], hour, weather, vehicleClass);
+            groups.put(key, group);
+        }
+        return group;
+    }
+
+    private List<Integer> selectSlots(Set<Long> roadSectionIds) {
+        List<Integer> slots = new ArrayList<>();
+        if (roadSectionIds == null || roadSectionIds.isEmpty()) {
+            for (int slot = 0; slot < sectionCount; slot++) {
+                slots.add(slot);
+            }
+            return slots;
+        }
+        for (Long sectionId : roadSectionIds) {
+            Integer slot = sectionSlots.get(sectionId);
+            if (slot != null) {
+                slots.add(slot);
+            }
+        }
+        return slots;
+    }
+
+    private static boolean[] hourMask(Set<Integer> daysOfWeek, Set<Integer> hoursOfDay) {
+        boolean[] mask = new boolean[HOURS];
+        for (int hour = 0; hour < HOURS; hour++) {
+            boolean dayMatch = daysOfWeek == null || daysOfWeek.isEmpty() || daysOfWeek.contains(hour / 24 + 1);
+            boolean hourMatch = hoursOfDay == null || hoursOfDay.isEmpty() || hoursOfDay.contains(hour % 24);
+            mask[hour] = dayMatch && hourMatch;
+        }
+        return mask;
+    }
+
+    private static boolean[] weatherMask(Set<WeatherCategory> categories) {
+        boolean[] mask = new boolean[WEATHERS];
+        for (int weather = 0; weather < WEATHERS; weather++) {
+            mask[weather] = categories == null || categories.isEmpty()
+                    || categories.contains(WeatherCategory.ofOrdinal(weather));
+        }
+        return mask;
+    }
+
+    private static boolean[] classMask(Set<VehicleClass> vehicleClasses) {
+        boolean[] mask = new boolean[VEHICLE_CLASSES];
+        for (VehicleClass vehicleClass : VehicleClass.values()) {
+            mask[vehicleClass.ordinal()] = vehicleClasses == null || vehicleClasses.isEmpty()
+                    || vehicleClasses.contains(vehicleClass);
+        }
+        return mask;
+    }
+
+    /**
+     * 获取已收录的路段数量
+     * @return 路段数量
+     */
+    public int getSectionCount() {
+        lock.readLock().lock();
+        try {
+            return sectionCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 获取累加的样本总数
+     * @return 样本总数
+     */
+    public long getTotalSamples() {
+        lock.readLock().lock();
+        try {
+            long total = 0;
+            int cells = sectionCount * CELLS_PER_SECTION;
+            for (int cell = 0; cell < cells; cell++) {
+                total += sampleCounts[cell];
+            }
+            return total;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 获取已累加记录的最大ID
+     * @return 最大记录ID
+     */
+    public long getMaxRecordId() {
+        lock.readLock().lock();
+        try {
+            return maxRecordId;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 将立方体写出为二进制快照
+     * 仅写出非空单元格，单元格下标与计数均采用变长整数编码
+     * @param output 输出流，调用方负责关闭
+     * @throws IOException 写入失败
+     */
+    public void writeTo(OutputStream output) throws IOException {
+        DataOutputStream out = new DataOutputStream(output);
+        lock.readLock().lock();
+        try {
+            out.writeInt(SNAPSHOT_MAGIC);
+            out.writeShort(SNAPSHOT_VERSION);
+            out.writeShort(HOURS);
+            out.writeShort(WEATHERS);
+            out.writeShort(VEHICLE_CLASSES);
+            out.writeLong(maxRecordId);
+            out.writeInt(sectionCount);
+            for (int slot = 0; slot < sectionCount; slot++) {
+                out.writeLong(slotSectionIds[slot]);
+            }
+
+            int cells = sectionCount * CELLS_PER_SECTION;
+            int nonEmpty = 0;
+            for (int cell = 0; cell < cells; cell++) {
+                if (sampleCounts[cell] != 0) {
+                    nonEmpty++;
+                }
+            }
+            out.writeInt(nonEmpty);
+
+            int previous = -1;
+            for (int cell = 0; cell < cells; cell++) {
+                if (sampleCounts[cell] == 0) {
+                    continue;
+                }
+                VarIntUtils.writeUnsignedVarLong(out, cell - previous);
+                previous = cell;
+                VarIntUtils.writeUnsignedVarLong(out, sampleCounts[cell]);
+                VarIntUtils.writeVarLong(out, flowSums[cell]);
+                VarIntUtils.writeUnsignedVarLong(out, flowSamples[cell]);
+                out.writeDouble(speedSums[cell]);
+                VarIntUtils.writeUnsignedVarLong(out, speedSamples[cell]);
+                int classBase = cell * VEHICLE_CLASSES;
+                for (int vehicleClass = 0; vehicleClass < VEHICLE_CLASSES; vehicleClass++) {
+                    VarIntUtils.writeUnsignedVarLong(out, classCounts[classBase + vehicleClass]);
+                }
+            }
+            out.flush();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 从二进制快照恢复立方体
+     * @param input 输入流，调用方负责关闭
+     * @return 恢复的立方体
+     * @throws IOException 读取失败或快照格式不兼容
+     */
+    public static TrafficCube readFrom(InputStream input) throws IOException {
+        DataInputStream in = new DataInputStream(input);
+        if (in.readInt() != SNAPSHOT_MAGIC) {
+            throw new IOException("不是交通立方体快照文件");
+        }
+        int version = in.readShort();
+        int hours = in.readShort();
+        int weathers = in.readShort();
+        int classes = in.readShort();
+        if (version != SNAPSHOT_VERSION || hours != HOURS || weathers != WEATHERS || classes != VEHICLE_CLASSES) {
+            throw new IOException("交通立方体快照版本或维度不兼容");
+        }
+
+        TrafficCube cube = new TrafficCube();
+        cube.maxRecordId = in.readLong();
+        int sections = in.readInt();
+        cube.grow(Math.max(INITIAL_SECTION_CAPACITY, sections));
+        for (int slot = 0; slot < sections; slot++) {
+            cube.slotFor(in.readLong());
+        }
+
+        int nonEmpty = in.readInt();
+        int cells = sections * CELLS_PER_SECTION;
+        int cell = -1;
+        for (int i = 0; i < nonEmpty; i++) {
+            // 增量按 long 读取后再比较，过大的增量截断为 int 后会回绕成负数或重复的下标
+            long delta = VarIntUtils.readUnsignedVarLong(in);
+            if (delta <= 0 || delta >= cells - cell) {
+                throw new IOException("交通立方体快照单元格下标越界");
+            }
+            cell += (int) delta;
+            cube.sampleCounts[cell] = VarIntUtils.readUnsignedVarLong(in);
+            cube.flowSums[cell] = VarIntUtils.readVarLong(in);
+            cube.flowSamples[cell] = VarIntUtils.readUnsignedVarLong(in);
+            cube.speedSums[cell] = in.readDouble();
+            cube.speedSamples[cell] = VarIntUtils.readUnsignedVarLong(in);
+            int classBase = cell * VEHICLE_CLASSES;
+            for (int vehicleClass = 0; vehicleClass < VEHICLE_CLASSES; vehicleClass++) {
+                cube.classCounts[classBase + vehicleClass] = VarIntUtils.readUnsignedVarLong(in);
+            }
+        }
+        return cube;
+    }
+
+    /**
+     * 分组累加器
+     */
+    private static final class GroupAccumulator {
+
+        private final long key;
+
+        private final long sectionId;
+
+        private final int hourOfWeek;
+
+        private final int weather;
+
+        private final int vehicleClass;
+
+        private long samples;
+
+        private long flowSum;
+
+        private long flowCount;
+
+        private double speedSum;
+
+        private long speedCount;
+
+        private final long[] classTotals = new long[VEHICLE_CLASSES];
+
+        private GroupAccumulator(long key, long sectionId, int hourOfWeek, int weather, int vehicleClass) {
+            this.key = key;
+            this.sectionId = sectionId;
+            this.hourOfWeek = hourOfWeek;
+            this.weather = weather;
+            this.vehicleClass = vehicleClass;
+        }
+
+        private void add(TrafficCube cube, int cell, boolean[] classMask, int onlyClass) {
+            samples += cube.sampleCounts[cell];
+            flowSum += cube.flowSums[cell];
+            flowCount += cube.flowSamples[cell];
+            speedSum += cube.speedSums[cell];
+            speedCount += cube.speedSamples[cell];
+            int classBase = cell * VEHICLE_CLASSES;
+            for (int i = 0; i < VEHICLE_CLASSES; i++) {
+                if (classMask[i] && (onlyClass < 0 || onlyClass == i)) {
+                    classTotals[i] += cube.classCounts[classBase + i];
+                }
+            }
+        }
+
+        private CubeRow toRow(Set<CubeDimension> groupBy) {
+            boolean byHourOfWeek = groupBy.contains(CubeDimension.HOUR_OF_WEEK);
+            boolean byDay = byHourOfWeek || groupBy.contains(CubeDimension.DAY_OF_WEEK);
+            boolean byHour = byHourOfWeek || groupBy.contains(CubeDimension.HOUR_OF_DAY);
+            return CubeRow.builder()
+                    .roadSectionId(groupBy.contains(CubeDimension.ROAD_SECTION) ? sectionId : null)
+                    .hourOfWeek(byHourOfWeek ? hourOfWeek : null)
+                    .dayOfWeek(byDay ? hourOfWeek / 24 + 1 : null)
+                    .hourOfDay(byHour ? hourOfWeek % 24 : null)
+                    .weather(groupBy.contains(CubeDimension.WEATHER) ? WeatherCategory.ofOrdinal(weather) : null)
+                    .vehicleClass(vehicleClass >= 0 ? VehicleClass.values()[vehicleClass] : null)
+                    .sampleCount(samples)
+                    .averageFlowRate(flowCount > 0 ? (double) flowSum / flowCount : null)
+                    .averageSpeed(speedCount > 0 ? speedSum / speedCount : null)
+                    .largeVehicleCount(classTotals[VehicleClass.LARGE.ordinal()])
+                    .mediumVehicleCount(classTotals[VehicleClass.MEDIUM.ordinal()])
+                    .smallVehicleCount(classTotals[VehicleClass.SMALL.ordinal()])
+                    .vehicleCount(classTotals[0] + classTotals[1] + classTotals[2])
+                    .build();
+        }
+    }
+}
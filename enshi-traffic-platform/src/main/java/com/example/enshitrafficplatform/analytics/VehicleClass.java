@@ -0,0 +1,23 @@
+package com.example.enshitrafficplatform.analytics;
+
+/**
+ * 车型分类，对应流量记录中的大、中、小型车辆计数
+ */
+public enum VehicleClass {
+
+    LARGE("大型车"),
+
+    MEDIUM("中型车"),
+
+    SMALL("小型车");
+
+    private final String label;
+
+    VehicleClass(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
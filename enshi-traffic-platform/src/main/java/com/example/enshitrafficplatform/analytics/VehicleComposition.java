@@ -0,0 +1,82 @@
+package com.example.enshitrafficplatform.analytics;
+
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 车型构成统计结果
+ */
+@Data
+@Builder
+public class VehicleComposition {
+
+    /**
+     * 统计对象ID（路段ID或监测点ID）
+     */
+    private Long targetId;
+
+    /**
+     * 时间桶起点，仅趋势统计时有值
+     */
+    private LocalDateTime bucketStart;
+
+    /**
+     * 含车型数据的记录数
+     */
+    private long recordCount;
+
+    private long largeVehicleCount;
+
+    private long mediumVehicleCount;
+
+    private long smallVehicleCount;
+
+    private long totalVehicleCount;
+
+    /**
+     * 大型车辆占比（%）
+     */
+    private double largeVehiclePercentage;
+
+    /**
+     * 中型车辆占比（%）
+     */
+    private double mediumVehiclePercentage;
+
+    /**
+     * 小型车辆占比（%）
+     */
+    private double smallVehiclePercentage;
+
+    /**
+     * 大中型车辆（重型车辆）占比（%）
+     */
+    private double heavyVehiclePercentage;
+
+    /**
+     * 从累加器的槽位构造统计结果
+     * @param accumulator 累加器
+     * @param slot 槽位
+     * @param targetId 统计对象ID
+     * @param bucketStart 时间桶起点，可为null
+     * @return 统计结果
+     */
+    public static VehicleComposition of(VehicleCompositionAccumulator accumulator, int slot,
+                                        Long targetId, LocalDateTime bucketStart) {
+        return VehicleComposition.builder()
+                .targetId(targetId)
+                .bucketStart(bucketStart)
+                .recordCount(accumulator.getRecordCount(slot))
+                .largeVehicleCount(accumulator.getCount(slot, VehicleClass.LARGE))
+                .mediumVehicleCount(accumulator.getCount(slot, VehicleClass.MEDIUM))
+                .smallVehicleCount(accumulator.getCount(slot, VehicleClass.SMALL))
+                .totalVehicleCount(accumulator.getTotalCount(slot))
+                .largeVehiclePercentage(accumulator.getPercentage(slot, VehicleClass.LARGE))
+                .mediumVehiclePercentage(accumulator.getPercentage(slot, VehicleClass.MEDIUM))
+                .smallVehiclePercentage(accumulator.getPercentage(slot, VehicleClass.SMALL))
+                .heavyVehiclePercentage(accumulator.getHeavyVehiclePercentage(slot))
+                .build();
+    }
+}
@@ -0,0 +1,163 @@
+package com.example.enshitrafficplatform.analytics;
+
+import java.util.Arrays;
+
+/**
+ * 车型构成累加器
+ * 按槽位（路段、监测点或时间桶）以基本类型数组累计大、中、小型车辆数量，
+ * 累加过程不创建任何对象，可直接处理流式扫描的逐行数据或列式存储的整段数组。
+ * 车型计数小于0视为缺失，按0计；三种车型全部缺失的记录不计入记录数。
+ * 非线程安全，并行统计时每个线程使用独立实例再调用 {@link #merge(VehicleCompositionAccumulator)}
+ */
+public class VehicleCompositionAccumulator {
+
+    private final long[] large;
+
+    private final long[] medium;
+
+    private final long[] small;
+
+    private final long[] records;
+
+    /**
+     * @param slotCount 槽位数量
+     */
+    public VehicleCompositionAccumulator(int slotCount) {
+        if (slotCount < 0) {
+            throw new IllegalArgumentException("槽位数量不能为负数");
+        }
+        this.large = new long[slotCount];
+        this.medium = new long[slotCount];
+        this.small = new long[slotCount];
+        this.records = new long[slotCount];
+    }
+
+    /**
+     * 累加一条记录
+     * @param slot 槽位
+     * @param largeCount 大型车辆数量，小于0表示缺失
+     * @param mediumCount 中型车辆数量，小于0表示缺失
+     * @param smallCount 小型车辆数量，小于0表示缺失
+     */
+    public void add(int slot, int largeCount, int mediumCount, int smallCount) {
+        if ((largeCount & mediumCount & smallCount) < 0) {
+            // 三个计数均为负数，即全部缺失
+            return;
+        }
+        large[slot] += Math.max(largeCount, 0);
+        medium[slot] += Math.max(mediumCount, 0);
+        small[slot] += Math.max(smallCount, 0);
+        records[slot]++;
+    }
+
+    /**
+     * 累加列式数组中 [from, to) 区间的全部记录
+     * @param slot 槽位
+     * @param largeCounts 大型车辆数量列
+     * @param mediumCounts 中型车辆数量列
+     * @param smallCounts 小型车辆数量列
+     * @param from 起始下标（含）
+     * @param to 结束下标（不含）
+     */
+    public void addColumns(int slot, int[] largeCounts, int[] mediumCounts, int[] smallCounts, int from, int to) {
+        long largeSum = 0;
+        long mediumSum = 0;
+        long smallSum = 0;
+        long recordSum = 0;
+        for (int i = from; i < to; i++) {
+            int l = largeCounts[i];
+            int m = mediumCounts[i];
+            int s = smallCounts[i];
+            if ((l & m & s) < 0) {
+                continue;
+            }
+            largeSum += Math.max(l, 0);
+            mediumSum += Math.max(m, 0);
+            smallSum += Math.max(s, 0);
+            recordSum++;
+        }
+        large[slot] += largeSum;
+        medium[slot] += mediumSum;
+        small[slot] += smallSum;
+        records[slot] += recordSum;
+    }
+
+    /**
+     * 合并另一个槽位数量相同的累加器
+     * @param other 另一个累加器
+     */
+    public void merge(VehicleCompositionAccumulator other) {
+        if (other.records.length != records.length) {
+            throw new IllegalArgumentException("槽位数量不一致，无法合并");
+        }
+        for (int i = 0; i < records.length; i++) {
+            large[i] += other.large[i];
+            medium[i] += other.medium[i];
+            small[i] += other.small[i];
+            records[i] += other.records[i];
+        }
+    }
+
+    /**
+     * 清空全部槽位
+     */
+    public void reset() {
+        Arrays.fill(large, 0);
+        Arrays.fill(medium, 0);
+        Arrays.fill(small, 0);
+        Arrays.fill(records, 0);
+    }
+
+    public int getSlotCount() {
+        return records.length;
+    }
+
+    public long getRecordCount(int slot) {
+        return records[slot];
+    }
+
+    /**
+     * 获取槽位内某一车型的车辆数
+     * @param slot 槽位
+     * @param vehicleClass 车型
+     * @return 车辆数
+     */
+    public long getCount(int slot, VehicleClass vehicleClass) {
+        switch (vehicleClass) {
+            case LARGE:
+                return large[slot];
+            case MEDIUM:
+                return medium[slot];
+            default:
+                return small[slot];
+        }
+    }
+
+    public long getTotalCount(int slot) {
+        return large[slot] + medium[slot] + small[slot];
+    }
+
+    /**
+     * 计算槽位内某一车型的占比，与 TrafficFlowRecord 的占比计算口径一致
+     * @param slot 槽位
+     * @param vehicleClass 车型
+     * @return 占比（百分比），无车辆时为0
+     */
+    public double getPercentage(int slot, VehicleClass vehicleClass) {
+        return percentage(getCount(slot, vehicleClass), getTotalCount(slot));
+    }
+
+    /**
+     * 计算槽位内大中型车辆（重型车辆）占比
+     * @param slot 槽位
+     * @return 占比（百分比），无车辆时为0
+     */
+    public double getHeavyVehiclePercentage(int slot) {
+        return percentage(large[slot] + medium[slot], getTotalCount(slot));
+    }
+
+    private static double percentage(long count, long total) {
+        if (total == 0) return 0.0;
+        return (double) count / total * 100;
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.enshitrafficplatform.analytics;
+
+/**
+ * 交通立方体使用的天气类别
+ * 将流量记录中的天气描述归并为少量类别，作为立方体的天气维度
+ */
+public enum WeatherCategory {
+
+    UNKNOWN("未知"),
+
+    SUNNY("晴"),
+
+    CLOUDY("多云/阴"),
+
+    RAIN("雨"),
+
+    SNOW_ICE("雪/冰"),
+
+    FOG("雾"),
+
+    OTHER("其他");
+
+    private static final WeatherCategory[] VALUES = values();
+
+    private final String label;
+
+    WeatherCategory(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * 根据序号获取天气类别
+     * @param ordinal 序号
+     * @return 天气类别
+     */
+    public static WeatherCategory ofOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    /**
+     * 将天气描述归类
+     * @param weatherCondition 天气描述，如：晴、小雨、大雾
+     * @return 天气类别
+     */
+    public static WeatherCategory classify(String weatherCondition) {
+        if (weatherCondition == null || weatherCondition.isEmpty()) {
+            return UNKNOWN;
+        }
+        if (weatherCondition.contains("雪") || weatherCondition.contains("冰")) {
+            return SNOW_ICE;
+        }
+        if (weatherCondition.contains("雨")) {
+            return RAIN;
+        }
+        if (weatherCondition.contains("雾")) {
+            return FOG;
+        }
+        if (weatherCondition.contains("晴")) {
+            return SUNNY;
+        }
+        if (weatherCondition.contains("云") || weatherCondition.contains("阴")) {
+            return CLOUDY;
+        }
+        return OTHER;
+    }
+}
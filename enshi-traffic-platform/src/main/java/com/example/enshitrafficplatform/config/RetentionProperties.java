@@ -0,0 +1,53 @@
+package com.example.enshitrafficplatform.config;
+
+import com.example.enshitrafficplatform.retention.RetentionDataType;
+import com.example.enshitrafficplatform.retention.RetentionTier;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 分层保留策略配置（app.retention）
+ * policies 按 数据类型 → 层级 → 保留天数 声明，0表示永久保留，未声明的层级永久保留
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.retention")
+public class RetentionProperties {
+
+    /**
+     * 每批删除的行数
+     */
+    private int batchSize = 5000;
+
+    /**
+     * 每次运行每个层级最多处理的天数
+     */
+    private int maxDaysPerRun = 31;
+
+    /**
+     * 增量降采样回看的天数，用于吸收迟到的数据
+     */
+    private int downsampleLookbackDays = 2;
+
+    private Map<RetentionDataType, Map<RetentionTier, Integer>> policies = defaultPolicies();
+
+    private static Map<RetentionDataType, Map<RetentionTier, Integer>> defaultPolicies() {
+        Map<RetentionDataType, Map<RetentionTier, Integer>> policies = new EnumMap<>(RetentionDataType.class);
+        policies.put(RetentionDataType.FLOW_RECORDS, tiers(RetentionTier.RAW, 30, RetentionTier.FIVE_MINUTE, 365));
+        policies.put(RetentionDataType.WEATHER_RECORDS, tiers(RetentionTier.RAW, 30, RetentionTier.HOURLY, 0));
+        policies.put(RetentionDataType.STATISTICS, tiers(RetentionTier.RAW, 365, RetentionTier.DAILY, 0));
+        return policies;
+    }
+
+    private static Map<RetentionTier, Integer> tiers(RetentionTier first, int firstDays,
+                                                     RetentionTier second, int secondDays) {
+        Map<RetentionTier, Integer> tiers = new EnumMap<>(RetentionTier.class);
+        tiers.put(first, firstDays);
+        tiers.put(second, secondDays);
+        return tiers;
+    }
+}
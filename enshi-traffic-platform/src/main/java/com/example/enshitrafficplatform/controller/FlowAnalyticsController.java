@@ -0,0 +1,59 @@
+package com.example.enshitrafficplatform.controller;
+
+import com.example.enshitrafficplatform.dto.FlowReading;
+import com.example.enshitrafficplatform.dto.response.SectionCurrentTrafficResponse;
+import com.example.enshitrafficplatform.service.FlowAnalyticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 近期流量分析接口
+ * 热存储预热未完成时由服务回退到数据库查询
+ */
+@RestController
+@RequestMapping("/analytics/flow")
+@RequiredArgsConstructor
+public class FlowAnalyticsController {
+
+    private final FlowAnalyticsService flowAnalyticsService;
+
+    /**
+     * 监测点最近7天的交通异常
+     * @param monitoringPointId 监测点ID
+     * @return 异常事件列表
+     */
+    @GetMapping("/points/{monitoringPointId}/anomalies")
+    public ResponseEntity<List<Map<String, Object>>> getAnomalies(@PathVariable Long monitoringPointId) {
+        return ResponseEntity.ok(flowAnalyticsService.detectTrafficAnomalies(monitoringPointId));
+    }
+
+    /**
+     * 监测点最新读数
+     * @param monitoringPointId 监测点ID
+     * @return 最新读数，无数据时返回404
+     */
+    @GetMapping("/points/{monitoringPointId}/latest")
+    public ResponseEntity<FlowReading> getLatestReading(@PathVariable Long monitoringPointId) {
+        FlowReading latest = flowAnalyticsService.getLatestReading(monitoringPointId);
+        return latest != null ? ResponseEntity.ok(latest) : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * 路段实时交通流量与平均速度
+     * @param roadSectionId 路段ID
+     * @return 实时交通状况
+     */
+    @GetMapping("/sections/{roadSectionId}/current")
+    public ResponseEntity<SectionCurrentTrafficResponse> getSectionCurrent(@PathVariable Long roadSectionId) {
+        return ResponseEntity.ok(new SectionCurrentTrafficResponse(roadSectionId,
+                flowAnalyticsService.getCurrentTrafficFlow(roadSectionId),
+                flowAnalyticsService.getCurrentAverageSpeed(roadSectionId)));
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.enshitrafficplatform.controller;
+
+import com.example.enshitrafficplatform.service.FlowExportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedOutputStream;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 流量历史批量导出接口
+ * 响应体为列式二进制流，格式见 {@link com.example.enshitrafficplatform.export.FlowColumnarWriter}
+ */
+@RestController
+@RequestMapping("/export/flow")
+@RequiredArgsConstructor
+public class FlowExportController {
+
+    private final FlowExportService flowExportService;
+
+    /**
+     * 导出监测点或路段在时间范围内的流量记录
+     * @param pointIds 监测点ID列表
+     * @param sectionIds 路段ID列表
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     * @return 列式二进制流，未指定监测点和路段或时间范围无效时返回400
+     */
+    @GetMapping
+    public ResponseEntity<StreamingResponseBody> export(
+            @RequestParam(required = false) List<Long> pointIds,
+            @RequestParam(required = false) List<Long> sectionIds,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime) {
+        boolean noPoints = pointIds == null || pointIds.isEmpty();
+        boolean noSections = sectionIds == null || sectionIds.isEmpty();
+        if ((noPoints && noSections) || !startTime.isBefore(endTime)) {
+            return ResponseEntity.badRequest().build();
+        }
+        StreamingResponseBody body = outputStream -> {
+            OutputStream out = new BufferedOutputStream(outputStream, 1 << 16);
+            flowExportService.export(pointIds, sectionIds, startTime, endTime, out);
+            out.flush();
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"traffic-flow.etfc\"")
+                .body(body);
+    }
+}
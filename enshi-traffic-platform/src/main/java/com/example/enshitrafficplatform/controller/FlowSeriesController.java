@@ -0,0 +1,37 @@
+package com.example.enshitrafficplatform.controller;
+
+import com.example.enshitrafficplatform.dto.request.FlowSeriesRequest;
+import com.example.enshitrafficplatform.dto.response.FlowSeriesResponse;
+import com.example.enshitrafficplatform.service.FlowSeriesService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 流量时间序列查询接口
+ * 数据可能来自热存储、原始记录、归档块或冷数据段文件，由服务按时间边界自动路由
+ */
+@RestController
+@RequestMapping("/analytics/flow/series")
+@RequiredArgsConstructor
+public class FlowSeriesController {
+
+    private final FlowSeriesService flowSeriesService;
+
+    /**
+     * 查询监测点或路段在时间范围内的流量读数
+     * @param request 查询请求
+     * @return 按监测点、时间排序的读数与各层级的读取情况，时间范围无效时返回400
+     */
+    @PostMapping
+    public ResponseEntity<FlowSeriesResponse> query(@Valid @RequestBody FlowSeriesRequest request) {
+        if (!request.getStartTime().isBefore(request.getEndTime())) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(flowSeriesService.query(request));
+    }
+}
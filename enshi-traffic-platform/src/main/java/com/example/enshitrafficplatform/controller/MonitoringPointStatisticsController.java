@@ -0,0 +1,34 @@
+package com.example.enshitrafficplatform.controller;
+
+import com.example.enshitrafficplatform.dto.response.PointFlowSummaryResponse;
+import com.example.enshitrafficplatform.service.PointHourlyBucketService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * 监测点流量统计接口
+ */
+@RestController
+@RequestMapping("/analytics/points")
+@RequiredArgsConstructor
+public class MonitoringPointStatisticsController {
+
+    private final PointHourlyBucketService pointHourlyBucketService;
+
+    /**
+     * 查询监测点日均流量与峰谷比
+     * @param monitoringPointId 监测点ID
+     * @return 流量概况
+     */
+    @GetMapping("/{monitoringPointId}/flow-summary")
+    public ResponseEntity<PointFlowSummaryResponse> getFlowSummary(@PathVariable Long monitoringPointId) {
+        return ResponseEntity.ok(new PointFlowSummaryResponse(
+                monitoringPointId,
+                pointHourlyBucketService.getAverageDailyTrafficFlow(monitoringPointId),
+                pointHourlyBucketService.getPeakValleyRatio(monitoringPointId)));
+    }
+}
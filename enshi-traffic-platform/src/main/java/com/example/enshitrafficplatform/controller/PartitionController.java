@@ -0,0 +1,59 @@
+package com.example.enshitrafficplatform.controller;
+
+import com.example.enshitrafficplatform.repository.TablePartitionRepository.MonthPartition;
+import com.example.enshitrafficplatform.service.PartitionMaintenanceService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * 按月分区运维接口
+ */
+@RestController
+@RequestMapping("/partitions")
+@RequiredArgsConstructor
+public class PartitionController {
+
+    private final PartitionMaintenanceService partitionMaintenanceService;
+
+    /**
+     * 查询表的月分区
+     * @param table 表名
+     * @return 按月份升序的分区
+     */
+    @GetMapping("/{table}")
+    public ResponseEntity<List<MonthPartition>> getPartitions(@PathVariable String table) {
+        if (!isPartitionTable(table)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(partitionMaintenanceService.getPartitions(table));
+    }
+
+    /**
+     * 把未分区的表转换为按月分区，删除外键并重建整表，请求会一直等待到转换完成
+     * @param table 表名
+     * @return 转换后的分区，表已分区时返回409
+     */
+    @PostMapping("/{table}/convert")
+    public ResponseEntity<List<MonthPartition>> convert(@PathVariable String table) {
+        if (!isPartitionTable(table)) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (!partitionMaintenanceService.convertToMonthlyPartitions(table)) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+        return ResponseEntity.ok(partitionMaintenanceService.getPartitions(table));
+    }
+
+    private static boolean isPartitionTable(String table) {
+        return PartitionMaintenanceService.TRAFFIC_FLOW_RECORDS.equals(table)
+                || PartitionMaintenanceService.WEATHER_RECORDS.equals(table);
+    }
+}
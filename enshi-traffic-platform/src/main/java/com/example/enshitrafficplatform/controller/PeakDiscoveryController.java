@@ -0,0 +1,54 @@
+package com.example.enshitrafficplatform.controller;
+
+import com.example.enshitrafficplatform.dto.response.PeakDiscoveryReport;
+import com.example.enshitrafficplatform.service.PeakDiscoveryService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+
+/**
+ * 高峰期时段发现接口
+ * 根据历史流量给出高峰期规则建议及其与现有规则的差异，不会修改规则
+ */
+@RestController
+@RequestMapping("/analytics/peak/discovery")
+@RequiredArgsConstructor
+public class PeakDiscoveryController {
+
+    private final PeakDiscoveryService peakDiscoveryService;
+
+    /**
+     * 分析日期范围内的历史流量
+     * @param startDate 开始日期（含）
+     * @param endDate 结束日期（不含）
+     * @param flowThreshold 车流量阈值（辆/小时），不传时使用现有规则的阈值或百分位
+     * @return 发现报告，日期范围无效时返回400
+     */
+    @PostMapping
+    public ResponseEntity<PeakDiscoveryReport> discover(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @RequestParam(required = false) Integer flowThreshold) {
+        if (!startDate.isBefore(endDate) || (flowThreshold != null && flowThreshold <= 0)) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(peakDiscoveryService.discover(startDate, endDate, flowThreshold));
+    }
+
+    /**
+     * 获取最近一次的发现报告
+     * @return 报告，尚未执行过时返回404
+     */
+    @GetMapping("/latest")
+    public ResponseEntity<PeakDiscoveryReport> getLatestReport() {
+        PeakDiscoveryReport report = peakDiscoveryService.getLatestReport();
+        return report != null ? ResponseEntity.ok(report) : ResponseEntity.notFound().build();
+    }
+}
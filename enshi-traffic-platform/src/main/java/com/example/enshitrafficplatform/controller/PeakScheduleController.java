@@ -0,0 +1,84 @@
+package com.example.enshitrafficplatform.controller;
+
+import com.example.enshitrafficplatform.dto.response.SectionPeakStatusResponse;
+import com.example.enshitrafficplatform.peak.CompiledPeakRule;
+import com.example.enshitrafficplatform.service.PeakScheduleService;
+import com.example.enshitrafficplatform.service.PeakTransitionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+
+/**
+ * 路段高峰期时间表接口
+ */
+@RestController
+@RequestMapping("/analytics/peak/sections")
+@RequiredArgsConstructor
+public class PeakScheduleController {
+
+    private final PeakScheduleService peakScheduleService;
+
+    private final PeakTransitionService peakTransitionService;
+
+    /**
+     * 查询路段在某一时刻的高峰期状态
+     * @param roadSectionId 路段ID
+     * @param time 时间，默认为当前时间
+     * @return 高峰期状态与起主导作用的规则，时间表尚未构建时返回503
+     */
+    @GetMapping("/{roadSectionId}")
+    public ResponseEntity<SectionPeakStatusResponse> getStatus(
+            @PathVariable Long roadSectionId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime time) {
+        if (!peakScheduleService.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        LocalDateTime at = time != null ? time : LocalDateTime.now();
+        CompiledPeakRule rule = peakScheduleService.getGoverningRule(roadSectionId, at);
+        return ResponseEntity.ok(new SectionPeakStatusResponse(roadSectionId, at, rule != null,
+                rule != null ? rule.getRuleId() : null, rule != null ? rule.getPriority() : null));
+    }
+
+    /**
+     * 统计路段在时间范围内处于高峰期的分钟数
+     * @param roadSectionId 路段ID
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     * @return 分钟数，时间范围无效时返回400，时间表尚未构建时返回503
+     */
+    @GetMapping("/{roadSectionId}/minutes")
+    public ResponseEntity<Long> countPeakMinutes(
+            @PathVariable Long roadSectionId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime) {
+        if (!startTime.isBefore(endTime)) {
+            return ResponseEntity.badRequest().build();
+        }
+        if (!peakScheduleService.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok(peakScheduleService.countPeakMinutes(roadSectionId, startTime, endTime));
+    }
+
+    /**
+     * 查询路段下一次进入或离开高峰期的时刻
+     * @param roadSectionId 路段ID
+     * @return 时刻，一年内没有变化时返回404，时间表尚未构建时返回503
+     */
+    @GetMapping("/{roadSectionId}/next-transition")
+    public ResponseEntity<LocalDateTime> getNextTransition(@PathVariable Long roadSectionId) {
+        if (!peakScheduleService.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        LocalDateTime next = peakTransitionService.getNextTransition(roadSectionId);
+        return next != null ? ResponseEntity.ok(next) : ResponseEntity.notFound().build();
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.enshitrafficplatform.controller;
+
+import com.example.enshitrafficplatform.dto.response.RetentionRunReport;
+import com.example.enshitrafficplatform.retention.RetentionPolicy;
+import com.example.enshitrafficplatform.service.RetentionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * 分层保留策略接口
+ */
+@RestController
+@RequestMapping("/retention")
+@RequiredArgsConstructor
+public class RetentionController {
+
+    private final RetentionService retentionService;
+
+    /**
+     * 查询当前生效的保留策略
+     * @return 保留策略
+     */
+    @GetMapping("/policies")
+    public ResponseEntity<List<RetentionPolicy>> getPolicies() {
+        return ResponseEntity.ok(retentionService.getPolicies());
+    }
+
+    /**
+     * 查询最近一次执行报告
+     * @return 执行报告，尚未执行时返回204
+     */
+    @GetMapping("/last-run")
+    public ResponseEntity<RetentionRunReport> getLastRun() {
+        RetentionRunReport report = retentionService.getLastReport();
+        return report != null ? ResponseEntity.ok(report) : ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,135 @@
+package com.example.enshitrafficplatform.controller;
+
+import com.example.enshitrafficplatform.dto.response.SectionWeatherResponse;
+import com.example.enshitrafficplatform.dto.response.SpeedAdvisoryResponse;
+import com.example.enshitrafficplatform.entity.WeatherRecord;
+import com.example.enshitrafficplatform.service.LandslideRiskService;
+import com.example.enshitrafficplatform.service.SectionWeatherService;
+import com.example.enshitrafficplatform.service.SpeedAdvisoryService;
+import com.example.enshitrafficplatform.service.WeatherImpactService;
+import com.example.enshitrafficplatform.weather.SectionLandslideRisk;
+import com.example.enshitrafficplatform.weather.SectionWeatherImpact;
+import com.example.enshitrafficplatform.weather.SectionWeatherJoin;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 路段天气接口
+ */
+@RestController
+@RequestMapping("/analytics/weather/sections")
+@RequiredArgsConstructor
+public class SectionWeatherController {
+
+    private final SectionWeatherService sectionWeatherService;
+
+    private final WeatherImpactService weatherImpactService;
+
+    private final SpeedAdvisoryService speedAdvisoryService;
+
+    private final LandslideRiskService landslideRiskService;
+
+    /**
+     * 查询路段按最近观测站插值的当前天气
+     * @param roadSectionId 路段ID
+     * @return 路段天气，路段没有坐标或附近没有观测站时返回404，关联尚未构建时返回503
+     */
+    @GetMapping("/{roadSectionId}")
+    public ResponseEntity<SectionWeatherResponse> getWeather(@PathVariable Long roadSectionId) {
+        if (!sectionWeatherService.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        SectionWeatherJoin join = sectionWeatherService.getJoin();
+        SectionWeatherJoin.Neighbors neighbors = join.neighbors(roadSectionId);
+        if (neighbors == null) {
+            return ResponseEntity.notFound().build();
+        }
+        List<SectionWeatherResponse.StationWeight> stations = new ArrayList<>(neighbors.stations().length);
+        for (int i = 0; i < neighbors.stations().length; i++) {
+            WeatherRecord station = join.getStation(neighbors.stations()[i]);
+            stations.add(SectionWeatherResponse.StationWeight.builder()
+                    .weatherRecordId(station.getId())
+                    .longitude(station.getLongitude())
+                    .latitude(station.getLatitude())
+                    .recordTime(station.getRecordTime())
+                    .distanceKm(neighbors.distancesKm()[i])
+                    .weight(neighbors.weights()[i])
+                    .build());
+        }
+        return ResponseEntity.ok(SectionWeatherResponse.builder()
+                .roadSectionId(roadSectionId)
+                .weatherCondition(join.getStation(neighbors.stations()[0]).getWeatherCondition())
+                .temperature(interpolate(join, neighbors, WeatherRecord::getTemperature))
+                .precipitation(interpolate(join, neighbors, WeatherRecord::getPrecipitation))
+                .visibility(interpolate(join, neighbors, WeatherRecord::getVisibility))
+                .windSpeed(interpolate(join, neighbors, WeatherRecord::getWindSpeed))
+                .stations(stations)
+                .build());
+    }
+
+    /**
+     * 查询路段的天气影响评分
+     * @param roadSectionId 路段ID
+     * @return 评分，路段没有坐标或附近没有观测站时返回404，尚未计算时返回503
+     */
+    @GetMapping("/{roadSectionId}/impact")
+    public ResponseEntity<SectionWeatherImpact> getImpact(@PathVariable Long roadSectionId) {
+        if (!weatherImpactService.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        SectionWeatherImpact impact = weatherImpactService.getTable().get(roadSectionId);
+        return impact != null ? ResponseEntity.ok(impact) : ResponseEntity.notFound().build();
+    }
+
+    /**
+     * 查询路段按当前天气的建议车速
+     * @param roadSectionId 路段ID
+     * @return 建议车速，路段附近没有观测站或所属道路没有限速时返回404，尚未评估时返回503
+     */
+    @GetMapping("/{roadSectionId}/speed-advisory")
+    public ResponseEntity<SpeedAdvisoryResponse> getSpeedAdvisory(@PathVariable Long roadSectionId) {
+        if (!speedAdvisoryService.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        Integer advisedSpeed = speedAdvisoryService.getAdvisedSpeed(roadSectionId);
+        if (advisedSpeed == null) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity.ok(SpeedAdvisoryResponse.builder()
+                .roadSectionId(roadSectionId)
+                .advisedSpeed(advisedSpeed)
+                .build());
+    }
+
+    /**
+     * 查询路段按累计降水量评估的滑坡风险
+     * @param roadSectionId 路段ID
+     * @return 风险评估，路段不是易发路段或附近没有观测站时返回404，尚未载入时返回503
+     */
+    @GetMapping("/{roadSectionId}/landslide-risk")
+    public ResponseEntity<SectionLandslideRisk> getLandslideRisk(@PathVariable Long roadSectionId) {
+        if (!landslideRiskService.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        SectionLandslideRisk risk = landslideRiskService.getRisk(roadSectionId);
+        return risk != null ? ResponseEntity.ok(risk) : ResponseEntity.notFound().build();
+    }
+
+    private static Double interpolate(SectionWeatherJoin join, SectionWeatherJoin.Neighbors neighbors,
+                                      Function<WeatherRecord, Double> field) {
+        double value = join.interpolate(neighbors, record -> {
+            Double v = field.apply(record);
+            return v != null ? v : Double.NaN;
+        });
+        return Double.isNaN(value) ? null : value;
+    }
+}
@@ -0,0 +1,42 @@
+package com.example.enshitrafficplatform.controller;
+
+import com.example.enshitrafficplatform.analytics.CubeRow;
+import com.example.enshitrafficplatform.dto.request.CubeQueryRequest;
+import com.example.enshitrafficplatform.dto.response.CubeQueryResponse;
+import com.example.enshitrafficplatform.service.TrafficCubeService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+/**
+ * 交通流量立方体查询接口
+ */
+@RestController
+@RequestMapping("/analytics/cube")
+@RequiredArgsConstructor
+public class TrafficCubeController {
+
+    private final TrafficCubeService trafficCubeService;
+
+    /**
+     * 按路段、星期、小时、天气、车型切片与上卷
+     * @param request 查询请求
+     * @return 查询结果，立方体加载未完成时返回503
+     */
+    @PostMapping("/query")
+    public ResponseEntity<CubeQueryResponse> query(@RequestBody CubeQueryRequest request) {
+        if (!trafficCubeService.isReady()) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        long startNanos = System.nanoTime();
+        List<CubeRow> rows = trafficCubeService.query(request.toQuery());
+        double elapsedMillis = (System.nanoTime() - startNanos) / 1_000_000.0;
+        return ResponseEntity.ok(new CubeQueryResponse(elapsedMillis, rows));
+    }
+}
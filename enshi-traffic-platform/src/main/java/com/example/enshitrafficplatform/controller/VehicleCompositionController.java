@@ -0,0 +1,74 @@
+package com.example.enshitrafficplatform.controller;
+
+import com.example.enshitrafficplatform.analytics.VehicleComposition;
+import com.example.enshitrafficplatform.service.VehicleCompositionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 车型构成统计接口
+ */
+@RestController
+@RequestMapping("/analytics/vehicle-composition")
+@RequiredArgsConstructor
+public class VehicleCompositionController {
+
+    private final VehicleCompositionService vehicleCompositionService;
+
+    /**
+     * 路段车型构成
+     * @param ids 路段ID列表
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     * @return 每个路段的车型构成
+     */
+    @GetMapping("/sections")
+    public ResponseEntity<List<VehicleComposition>> getSectionComposition(
+            @RequestParam List<Long> ids,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime) {
+        return ResponseEntity.ok(vehicleCompositionService.getSectionComposition(ids, startTime, endTime));
+    }
+
+    /**
+     * 监测点车型构成
+     * @param ids 监测点ID列表
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     * @return 每个监测点的车型构成
+     */
+    @GetMapping("/points")
+    public ResponseEntity<List<VehicleComposition>> getPointComposition(
+            @RequestParam List<Long> ids,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime) {
+        return ResponseEntity.ok(vehicleCompositionService.getPointComposition(ids, startTime, endTime));
+    }
+
+    /**
+     * 路段重型车辆占比趋势
+     * @param roadSectionId 路段ID
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     * @param bucketMinutes 时间桶长度（分钟），默认60
+     * @return 按时间桶的车型构成
+     */
+    @GetMapping("/sections/{roadSectionId}/heavy-trend")
+    public ResponseEntity<List<VehicleComposition>> getHeavyVehicleTrend(
+            @PathVariable Long roadSectionId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startTime,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endTime,
+            @RequestParam(defaultValue = "60") int bucketMinutes) {
+        return ResponseEntity.ok(vehicleCompositionService.getHeavyVehicleTrend(
+                roadSectionId, startTime, endTime, bucketMinutes));
+    }
+}
@@ -0,0 +1,91 @@
+package com.example.enshitrafficplatform.dictionary;
+
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 枚举字典：编码与中文描述的双向映射
+ * 编码到取值按数组下标查找，描述到取值按哈希表查找，未知的编码或描述映射为默认值
+ * @param <E> 字典枚举类型
+ */
+public final class CodeDictionary<E extends Enum<E> & DictionaryCode> {
+
+    private final Object[] byCode = new Object[256];
+
+    private final Map<String, E> byLabel = new HashMap<>();
+
+    private final E defaultValue;
+
+    /**
+     * @param type 字典枚举类型
+     * @param defaultValue 未知编码或描述对应的取值
+     * @throws IllegalStateException 编码或描述重复
+     */
+    public CodeDictionary(Class<E> type, E defaultValue) {
+        this.defaultValue = defaultValue;
+        for (E value : EnumSet.allOf(type)) {
+            int index = value.getCode() & 0xFF;
+            if (byCode[index] != null) {
+                throw new IllegalStateException(type.getSimpleName() + "编码重复：" + index);
+            }
+            byCode[index] = value;
+            if (byLabel.put(value.getLabel(), value) != null) {
+                throw new IllegalStateException(type.getSimpleName() + "描述重复：" + value.getLabel());
+            }
+        }
+    }
+
+    /**
+     * 按编码查找
+     * @param code 编码
+     * @return 取值，未知编码时为默认值
+     */
+    @SuppressWarnings("unchecked")
+    public E fromCode(int code) {
+        Object value = byCode[code & 0xFF];
+        return value != null ? (E) value : defaultValue;
+    }
+
+    /**
+     * 按中文描述查找
+     * @param label 描述，可为null
+     * @return 取值，为null或未知描述时为默认值
+     */
+    public E fromLabel(String label) {
+        if (label == null) {
+            return defaultValue;
+        }
+        return byLabel.getOrDefault(label, defaultValue);
+    }
+
+    /**
+     * 描述是否在字典中
+     * @param label 描述
+     * @return 是否已知
+     */
+    public boolean contains(String label) {
+        return label != null && byLabel.containsKey(label);
+    }
+
+    /**
+     * 描述到编码的映射，用于在SQL中批量转换描述列
+     * @return 按编码升序的只读映射
+     */
+    public Map<String, Byte> labelCodes() {
+        Map<String, Byte> codes = new LinkedHashMap<>();
+        for (Object value : byCode) {
+            if (value != null) {
+                DictionaryCode entry = (DictionaryCode) value;
+                codes.put(entry.getLabel(), entry.getCode());
+            }
+        }
+        return Collections.unmodifiableMap(codes);
+    }
+
+    public E getDefaultValue() {
+        return defaultValue;
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.enshitrafficplatform.dictionary;
+
+/**
+ * 交通拥堵级别，编码随拥堵程度递增
+ */
+public enum CongestionLevel implements DictionaryCode {
+
+    UNKNOWN(0, "未知"),
+
+    FREE(1, "畅通"),
+
+    LIGHT(2, "轻度拥堵"),
+
+    MODERATE(3, "中度拥堵"),
+
+    SEVERE(4, "严重拥堵");
+
+    private static final CodeDictionary<CongestionLevel> DICTIONARY = new CodeDictionary<>(CongestionLevel.class, UNKNOWN);
+
+    private final byte code;
+
+    private final String label;
+
+    CongestionLevel(int code, String label) {
+        this.code = (byte) code;
+        this.label = label;
+    }
+
+    @Override
+    public byte getCode() {
+        return code;
+    }
+
+    @Override
+    public String getLabel() {
+        return label;
+    }
+
+    public static CongestionLevel fromCode(int code) {
+        return DICTIONARY.fromCode(code);
+    }
+
+    public static CongestionLevel fromLabel(String label) {
+        return DICTIONARY.fromLabel(label);
+    }
+
+    public static CodeDictionary<CongestionLevel> dictionary() {
+        return DICTIONARY;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.enshitrafficplatform.dictionary;
+
+/**
+ * 日期类型
+ * 按法定节假日安排区分工作日、周末、节假日和调休上班日；编码即高峰期规则日期类型掩码中的位序号
+ */
+public enum DayType implements DictionaryCode {
+
+    WORKDAY(0, "工作日"),
+
+    WEEKEND(1, "周末"),
+
+    HOLIDAY(2, "节假日"),
+
+    MAKEUP_WORKDAY(3, "调休上班");
+
+    private static final CodeDictionary<DayType> DICTIONARY = new CodeDictionary<>(DayType.class, WORKDAY);
+
+    private final byte code;
+
+    private final String label;
+
+    DayType(int code, String label) {
+        this.code = (byte) code;
+        this.label = label;
+    }
+
+    @Override
+    public byte getCode() {
+        return code;
+    }
+
+    @Override
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * 是否需要上班：工作日、调休上班日
+     * @return 是否上班
+     */
+    public boolean isWorkingDay() {
+        return this == WORKDAY || this == MAKEUP_WORKDAY;
+    }
+
+    /**
+     * 日期类型在掩码中对应的位
+     * @return 位掩码
+     */
+    public int mask() {
+        return 1 << code;
+    }
+
+    public static DayType fromCode(int code) {
+        return DICTIONARY.fromCode(code);
+    }
+
+    public static DayType fromLabel(String label) {
+        return DICTIONARY.fromLabel(label);
+    }
+
+    public static CodeDictionary<DayType> dictionary() {
+        return DICTIONARY;
+    }
+}
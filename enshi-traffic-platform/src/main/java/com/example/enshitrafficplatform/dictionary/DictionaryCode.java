@@ -0,0 +1,21 @@
+package com.example.enshitrafficplatform.dictionary;
+
+/**
+ * 字典编码的取值
+ * 低基数的中文描述字段（方向、拥堵级别、天气、事件状态等）在内存与新增的编码列中以单字节编码表示，
+ * 只在接口边界转换为中文描述
+ */
+public interface DictionaryCode {
+
+    /**
+     * 单字节编码，同一字典内唯一，写入数据库后不能修改
+     * @return 编码
+     */
+    byte getCode();
+
+    /**
+     * 中文描述
+     * @return 描述
+     */
+    String getLabel();
+}
@@ -0,0 +1,48 @@
+package com.example.enshitrafficplatform.dictionary;
+
+/**
+ * 通行方向
+ */
+public enum Direction implements DictionaryCode {
+
+    UNKNOWN(0, "未知"),
+
+    UP(1, "上行"),
+
+    DOWN(2, "下行"),
+
+    BOTH(3, "双向");
+
+    private static final CodeDictionary<Direction> DICTIONARY = new CodeDictionary<>(Direction.class, UNKNOWN);
+
+    private final byte code;
+
+    private final String label;
+
+    Direction(int code, String label) {
+        this.code = (byte) code;
+        this.label = label;
+    }
+
+    @Override
+    public byte getCode() {
+        return code;
+    }
+
+    @Override
+    public String getLabel() {
+        return label;
+    }
+
+    public static Direction fromCode(int code) {
+        return DICTIONARY.fromCode(code);
+    }
+
+    public static Direction fromLabel(String label) {
+        return DICTIONARY.fromLabel(label);
+    }
+
+    public static CodeDictionary<Direction> dictionary() {
+        return DICTIONARY;
+    }
+}
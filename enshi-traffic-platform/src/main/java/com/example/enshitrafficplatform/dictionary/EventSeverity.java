@@ -0,0 +1,50 @@
+package com.example.enshitrafficplatform.dictionary;
+
+/**
+ * 交通事件严重程度，编码即严重等级：1-轻微，2-一般，3-严重，4-极其严重
+ */
+public enum EventSeverity implements DictionaryCode {
+
+    UNKNOWN(0, "未知"),
+
+    MINOR(1, "轻微"),
+
+    GENERAL(2, "一般"),
+
+    SERIOUS(3, "严重"),
+
+    CRITICAL(4, "极其严重");
+
+    private static final CodeDictionary<EventSeverity> DICTIONARY = new CodeDictionary<>(EventSeverity.class, UNKNOWN);
+
+    private final byte code;
+
+    private final String label;
+
+    EventSeverity(int code, String label) {
+        this.code = (byte) code;
+        this.label = label;
+    }
+
+    @Override
+    public byte getCode() {
+        return code;
+    }
+
+    @Override
+    public String getLabel() {
+        return label;
+    }
+
+    public static EventSeverity fromCode(int code) {
+        return DICTIONARY.fromCode(code);
+    }
+
+    public static EventSeverity fromLabel(String label) {
+        return DICTIONARY.fromLabel(label);
+    }
+
+    public static CodeDictionary<EventSeverity> dictionary() {
+        return DICTIONARY;
+    }
+}
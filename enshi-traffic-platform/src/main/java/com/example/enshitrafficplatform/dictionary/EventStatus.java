@@ -0,0 +1,66 @@
+package com.example.enshitrafficplatform.dictionary;
+
+/**
+ * 交通事件状态
+ */
+public enum EventStatus implements DictionaryCode {
+
+    UNKNOWN(0, "未知"),
+
+    PENDING(1, "待处理"),
+
+    PROCESSING(2, "处理中"),
+
+    RESOLVED(3, "已解决"),
+
+    CLOSED(4, "已关闭");
+
+    private static final CodeDictionary<EventStatus> DICTIONARY = new CodeDictionary<>(EventStatus.class, UNKNOWN);
+
+    private final byte code;
+
+    private final String label;
+
+    EventStatus(int code, String label) {
+        this.code = (byte) code;
+        this.label = label;
+    }
+
+    @Override
+    public byte getCode() {
+        return code;
+    }
+
+    @Override
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * 是否为活跃状态：待处理、处理中
+     * @return 是否活跃
+     */
+    public boolean isActive() {
+        return this == PENDING || this == PROCESSING;
+    }
+
+    /**
+     * 是否为终结状态：已解决、已关闭
+     * @return 是否终结
+     */
+    public boolean isFinished() {
+        return this == RESOLVED || this == CLOSED;
+    }
+
+    public static EventStatus fromCode(int code) {
+        return DICTIONARY.fromCode(code);
+    }
+
+    public static EventStatus fromLabel(String label) {
+        return DICTIONARY.fromLabel(label);
+    }
+
+    public static CodeDictionary<EventStatus> dictionary() {
+        return DICTIONARY;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.enshitrafficplatform.dictionary;
+
+/**
+ * 交通事件类型
+ */
+public enum EventType implements DictionaryCode {
+
+    OTHER(0, "其他"),
+
+    ACCIDENT(1, "交通事故"),
+
+    CONSTRUCTION(2, "道路施工"),
+
+    CONTROL(3, "交通管制"),
+
+    CLOSURE(4, "临时封路"),
+
+    NATURAL_DISASTER(5, "自然灾害");
+
+    private static final CodeDictionary<EventType> DICTIONARY = new CodeDictionary<>(EventType.class, OTHER);
+
+    private final byte code;
+
+    private final String label;
+
+    EventType(int code, String label) {
+        this.code = (byte) code;
+        this.label = label;
+    }
+
+    @Override
+    public byte getCode() {
+        return code;
+    }
+
+    @Override
+    public String getLabel() {
+        return label;
+    }
+
+    public static EventType fromCode(int code) {
+        return DICTIONARY.fromCode(code);
+    }
+
+    public static EventType fromLabel(String label) {
+        return DICTIONARY.fromLabel(label);
+    }
+
+    public static CodeDictionary<EventType> dictionary() {
+        return DICTIONARY;
+    }
+}
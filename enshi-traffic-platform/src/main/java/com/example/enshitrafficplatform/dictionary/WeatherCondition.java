@@ -0,0 +1,102 @@
+package com.example.enshitrafficplatform.dictionary;
+
+import com.example.enshitrafficplatform.analytics.WeatherCategory;
+
+/**
+ * 天气状况
+ * 覆盖气象数据源常见的天气描述，每个取值预先归入立方体使用的天气类别；
+ * 字典之外的描述编码为 {@link #OTHER}，需要保留原始描述时由调用方另行保存
+ */
+public enum WeatherCondition implements DictionaryCode {
+
+    UNKNOWN(0, "未知", WeatherCategory.UNKNOWN),
+
+    OTHER(1, "其他", WeatherCategory.OTHER),
+
+    SUNNY(2, "晴", WeatherCategory.SUNNY),
+
+    PARTLY_CLOUDY(3, "多云", WeatherCategory.CLOUDY),
+
+    OVERCAST(4, "阴", WeatherCategory.CLOUDY),
+
+    SHOWER(5, "阵雨", WeatherCategory.RAIN),
+
+    THUNDER_SHOWER(6, "雷阵雨", WeatherCategory.RAIN),
+
+    LIGHT_RAIN(7, "小雨", WeatherCategory.RAIN),
+
+    MODERATE_RAIN(8, "中雨", WeatherCategory.RAIN),
+
+    HEAVY_RAIN(9, "大雨", WeatherCategory.RAIN),
+
+    RAINSTORM(10, "暴雨", WeatherCategory.RAIN),
+
+    FREEZING_RAIN(11, "冻雨", WeatherCategory.RAIN),
+
+    SLEET(12, "雨夹雪", WeatherCategory.SNOW_ICE),
+
+    LIGHT_SNOW(13, "小雪", WeatherCategory.SNOW_ICE),
+
+    MODERATE_SNOW(14, "中雪", WeatherCategory.SNOW_ICE),
+
+    HEAVY_SNOW(15, "大雪", WeatherCategory.SNOW_ICE),
+
+    SNOWSTORM(16, "暴雪", WeatherCategory.SNOW_ICE),
+
+    HAIL(17, "冰雹", WeatherCategory.SNOW_ICE),
+
+    FOG(18, "雾", WeatherCategory.FOG),
+
+    DENSE_FOG(19, "大雾", WeatherCategory.FOG),
+
+    HAZE(20, "霾", WeatherCategory.OTHER);
+
+    private static final CodeDictionary<WeatherCondition> DICTIONARY =
+            new CodeDictionary<>(WeatherCondition.class, OTHER);
+
+    private final byte code;
+
+    private final String label;
+
+    private final WeatherCategory category;
+
+    WeatherCondition(int code, String label, WeatherCategory category) {
+        this.code = (byte) code;
+        this.label = label;
+        this.category = category;
+    }
+
+    @Override
+    public byte getCode() {
+        return code;
+    }
+
+    @Override
+    public String getLabel() {
+        return label;
+    }
+
+    public WeatherCategory getCategory() {
+        return category;
+    }
+
+    public static WeatherCondition fromCode(int code) {
+        return DICTIONARY.fromCode(code);
+    }
+
+    /**
+     * 按天气描述查找
+     * @param label 天气描述
+     * @return 为null或空串时为 {@link #UNKNOWN}，字典之外的描述为 {@link #OTHER}
+     */
+    public static WeatherCondition fromLabel(String label) {
+        if (label == null || label.isEmpty()) {
+            return UNKNOWN;
+        }
+        return DICTIONARY.fromLabel(label);
+    }
+
+    public static CodeDictionary<WeatherCondition> dictionary() {
+        return DICTIONARY;
+    }
+}
@@ -0,0 +1,232 @@
+package com.example.enshitrafficplatform.dto;
+
+import com.example.enshitrafficplatform.analytics.WeatherCategory;
+import com.example.enshitrafficplatform.dictionary.CongestionLevel;
+import com.example.enshitrafficplatform.dictionary.Direction;
+import com.example.enshitrafficplatform.dictionary.WeatherCondition;
+import com.example.enshitrafficplatform.entity.TrafficFlowRecord;
+import com.example.enshitrafficplatform.util.DateUtils;
+import lombok.AccessLevel;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * 交通流量读数
+ * 以基本类型表示的一条流量记录，供内存统计结构增量更新和批量扫描使用。
+ * 整型缺失值用 {@link #MISSING_INT} 表示，浮点缺失值用 {@link Double#NaN} 表示。
+ * 天气以 {@link WeatherCondition} 字典编码保存，只有字典之外的描述才保留原始字符串；
+ * 通行方向与拥堵级别只保存字典编码。
+ * 批量扫描时同一实例会被重复填充，需要保留时请调用 {@link #copy()}
+ */
+@Data
+@NoArgsConstructor
+public class FlowReading {
+
+    /**
+     * 整型字段缺失值
+     */
+    public static final int MISSING_INT = -1;
+
+    /**
+     * 原始记录ID，未持久化时为0
+     */
+    private long recordId;
+
+    /**
+     * 监测点ID
+     */
+    private long monitoringPointId;
+
+    /**
+     * 路段ID，未知时为0
+     */
+    private long roadSectionId;
+
+    /**
+     * 记录时间（平台纪元秒）
+     */
+    private long epochSecond;
+
+    /**
+     * 车流量（辆/小时）
+     */
+    private int flowRate = MISSING_INT;
+
+    /**
+     * 平均车速（公里/小时）
+     */
+    private double averageSpeed = Double.NaN;
+
+    /**
+     * 道路占有率（%）
+     */
+    private double occupancyRate = Double.NaN;
+
+    /**
+     * 大型车辆数量
+     */
+    private int largeVehicleCount = MISSING_INT;
+
+    /**
+     * 中型车辆数量
+     */
+    private int mediumVehicleCount = MISSING_INT;
+
+    /**
+     * 小型车辆数量
+     */
+    private int smallVehicleCount = MISSING_INT;
+
+    /**
+     * 车辆间距（米）
+     */
+    private double headway = Double.NaN;
+
+    /**
+     * 数据质量评分（0-100）
+     */
+    private int dataQuality = MISSING_INT;
+
+    /**
+     * 天气状况编码，见 {@link WeatherCondition}
+     */
+    @Setter(AccessLevel.NONE)
+    private byte weatherCode = WeatherCondition.UNKNOWN.getCode();
+
+    /**
+     * 字典之外的天气描述，编码为 {@link WeatherCondition#OTHER} 时才有值
+     */
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private String otherWeatherCondition;
+
+    /**
+     * 通行方向编码，见 {@link Direction}
+     */
+    private byte directionCode = Direction.UNKNOWN.getCode();
+
+    /**
+     * 拥堵级别编码，见 {@link CongestionLevel}
+     */
+    private byte congestionLevelCode = CongestionLevel.UNKNOWN.getCode();
+
+    /**
+     * 从流量记录实体构造读数
+     * @param record 流量记录
+     * @param roadSectionId 记录所属路段ID
+     * @return 读数
+     */
+    public static FlowReading of(TrafficFlowRecord record, long roadSectionId) {
+        FlowReading reading = new FlowReading();
+        reading.recordId = record.getId() != null ? record.getId() : 0L;
+        reading.monitoringPointId = record.getMonitoringPoint() != null && record.getMonitoringPoint().getId() != null
+                ? record.getMonitoringPoint().getId() : 0L;
+        reading.roadSectionId = roadSectionId;
+        reading.epochSecond = DateUtils.toEpochSecond(record.getRecordTime());
+        reading.flowRate = intOrMissing(record.getFlowRate());
+        reading.averageSpeed = doubleOrNaN(record.getAverageSpeed());
+        reading.occupancyRate = doubleOrNaN(record.getOccupancyRate());
+        reading.largeVehicleCount = intOrMissing(record.getLargeVehicleCount());
+        reading.mediumVehicleCount = intOrMissing(record.getMediumVehicleCount());
+        reading.smallVehicleCount = intOrMissing(record.getSmallVehicleCount());
+        reading.headway = doubleOrNaN(record.getHeadway());
+        reading.dataQuality = intOrMissing(record.getDataQuality());
+        reading.setWeatherCondition(record.getWeatherCondition());
+        reading.directionCode = record.getDirectionCode() != null
+                ? record.getDirectionCode() : Direction.fromLabel(record.getDirection()).getCode();
+        reading.congestionLevelCode = record.congestionLevel().getCode();
+        return reading;
+    }
+
+    /**
+     * 复制当前读数
+     * @return 新的读数实例
+     */
+    public FlowReading copy() {
+        FlowReading copy = new FlowReading();
+        copy.recordId = recordId;
+        copy.monitoringPointId = monitoringPointId;
+        copy.roadSectionId = roadSectionId;
+        copy.epochSecond = epochSecond;
+        copy.flowRate = flowRate;
+        copy.averageSpeed = averageSpeed;
+        copy.occupancyRate = occupancyRate;
+        copy.largeVehicleCount = largeVehicleCount;
+        copy.mediumVehicleCount = mediumVehicleCount;
+        copy.smallVehicleCount = smallVehicleCount;
+        copy.headway = headway;
+        copy.dataQuality = dataQuality;
+        copy.weatherCode = weatherCode;
+        copy.otherWeatherCondition = otherWeatherCondition;
+        copy.directionCode = directionCode;
+        copy.congestionLevelCode = congestionLevelCode;
+        return copy;
+    }
+
+    /**
+     * 将所有测量字段重置为缺失值，供扫描器复用实例
+     */
+    public void reset() {
+        recordId = 0L;
+        monitoringPointId = 0L;
+        roadSectionId = 0L;
+        epochSecond = 0L;
+        flowRate = MISSING_INT;
+        averageSpeed = Double.NaN;
+        occupancyRate = Double.NaN;
+        largeVehicleCount = MISSING_INT;
+        mediumVehicleCount = MISSING_INT;
+        smallVehicleCount = MISSING_INT;
+        headway = Double.NaN;
+        dataQuality = MISSING_INT;
+        weatherCode = WeatherCondition.UNKNOWN.getCode();
+        otherWeatherCondition = null;
+        directionCode = Direction.UNKNOWN.getCode();
+        congestionLevelCode = CongestionLevel.UNKNOWN.getCode();
+    }
+
+    /**
+     * 获取天气描述，字典内的描述返回字典常量，不产生新字符串
+     * @return 天气描述，未知时为null
+     */
+    public String getWeatherCondition() {
+        if (weatherCode == WeatherCondition.UNKNOWN.getCode()) {
+            return null;
+        }
+        if (otherWeatherCondition != null) {
+            return otherWeatherCondition;
+        }
+        return WeatherCondition.fromCode(weatherCode).getLabel();
+    }
+
+    /**
+     * 设置天气描述，转换为字典编码
+     * @param weatherCondition 天气描述
+     */
+    public void setWeatherCondition(String weatherCondition) {
+        WeatherCondition condition = WeatherCondition.fromLabel(weatherCondition);
+        weatherCode = condition.getCode();
+        otherWeatherCondition = condition == WeatherCondition.OTHER ? weatherCondition : null;
+    }
+
+    /**
+     * 获取天气类别，字典内的天气按编码直接查表
+     * @return 天气类别
+     */
+    public WeatherCategory getWeatherCategory() {
+        if (otherWeatherCondition != null) {
+            return WeatherCategory.classify(otherWeatherCondition);
+        }
+        return WeatherCondition.fromCode(weatherCode).getCategory();
+    }
+
+    private static int intOrMissing(Integer value) {
+        return value != null ? value : MISSING_INT;
+    }
+
+    private static double doubleOrNaN(Double value) {
+        return value != null ? value : Double.NaN;
+    }
+}
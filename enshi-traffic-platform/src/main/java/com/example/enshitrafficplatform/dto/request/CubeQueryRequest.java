@@ -0,0 +1,63 @@
+package com.example.enshitrafficplatform.dto.request;
+
+import com.example.enshitrafficplatform.analytics.CubeDimension;
+import com.example.enshitrafficplatform.analytics.CubeQuery;
+import com.example.enshitrafficplatform.analytics.VehicleClass;
+import com.example.enshitrafficplatform.analytics.WeatherCategory;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 交通立方体查询请求
+ */
+@Data
+public class CubeQueryRequest {
+
+    /**
+     * 路段ID过滤
+     */
+    private Set<Long> roadSectionIds;
+
+    /**
+     * 星期几过滤（1-7，1表示周一）
+     */
+    private Set<Integer> daysOfWeek;
+
+    /**
+     * 小时过滤（0-23）
+     */
+    private Set<Integer> hoursOfDay;
+
+    /**
+     * 天气类别过滤
+     */
+    private Set<WeatherCategory> weatherCategories;
+
+    /**
+     * 车型过滤
+     */
+    private Set<VehicleClass> vehicleClasses;
+
+    /**
+     * 分组维度，为空时汇总为一行
+     */
+    private List<CubeDimension> groupBy = new ArrayList<>();
+
+    /**
+     * 转换为立方体查询条件
+     * @return 查询条件
+     */
+    public CubeQuery toQuery() {
+        return CubeQuery.builder()
+                .roadSectionIds(roadSectionIds)
+                .daysOfWeek(daysOfWeek)
+                .hoursOfDay(hoursOfDay)
+                .weatherCategories(weatherCategories)
+                .vehicleClasses(vehicleClasses)
+                .groupBy(groupBy != null ? groupBy : List.of())
+                .build();
+    }
+}
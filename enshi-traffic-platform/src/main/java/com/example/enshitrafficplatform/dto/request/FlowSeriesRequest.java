@@ -0,0 +1,42 @@
+package com.example.enshitrafficplatform.dto.request;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * 流量时间序列查询请求
+ * 监测点与路段取并集，路段展开为其下的全部监测点
+ */
+@Data
+public class FlowSeriesRequest {
+
+    /**
+     * 监测点ID
+     */
+    private Set<Long> monitoringPointIds;
+
+    /**
+     * 路段ID
+     */
+    private Set<Long> roadSectionIds;
+
+    /**
+     * 开始时间（含）
+     */
+    @NotNull(message = "开始时间不能为空")
+    private LocalDateTime startTime;
+
+    /**
+     * 结束时间（不含）
+     */
+    @NotNull(message = "结束时间不能为空")
+    private LocalDateTime endTime;
+
+    /**
+     * 最多返回的读数数量，为空时使用 app.flow-series.max-rows
+     */
+    private Integer maxRows;
+}
@@ -0,0 +1,25 @@
+package com.example.enshitrafficplatform.dto.response;
+
+import com.example.enshitrafficplatform.analytics.CubeRow;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * 交通立方体查询响应
+ */
+@Data
+@AllArgsConstructor
+public class CubeQueryResponse {
+
+    /**
+     * 查询耗时（毫秒）
+     */
+    private double elapsedMillis;
+
+    /**
+     * 结果行
+     */
+    private List<CubeRow> rows;
+}
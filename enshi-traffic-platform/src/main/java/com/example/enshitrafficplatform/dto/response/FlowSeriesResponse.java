@@ -0,0 +1,81 @@
+package com.example.enshitrafficplatform.dto.response;
+
+import com.example.enshitrafficplatform.dto.FlowReading;
+import com.example.enshitrafficplatform.storage.StorageTier;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 流量时间序列查询结果
+ * 读数按 监测点、时间 排序，各层级的读取情况见 tiers
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlowSeriesResponse {
+
+    /**
+     * 合并后的读数，流式读取时为null
+     */
+    private List<FlowReading> readings;
+
+    /**
+     * 合并后输出的读数数量
+     */
+    private long rowCount;
+
+    /**
+     * 多个层级重复、被丢弃的读数数量
+     */
+    private long duplicateCount;
+
+    /**
+     * 是否因超过最大读数数量而截断
+     */
+    private boolean truncated;
+
+    /**
+     * 总耗时（毫秒）
+     */
+    private double elapsedMillis;
+
+    private List<TierRead> tiers;
+
+    /**
+     * 单个层级的读取情况
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TierRead {
+
+        private StorageTier tier;
+
+        /**
+         * 该层级负责的时间范围起点（含）
+         */
+        private LocalDateTime startTime;
+
+        /**
+         * 该层级负责的时间范围终点（不含）
+         */
+        private LocalDateTime endTime;
+
+        /**
+         * 读取的读数数量
+         */
+        private long rowCount;
+
+        /**
+         * 读取耗时（毫秒）
+         */
+        private double elapsedMillis;
+    }
+}
@@ -0,0 +1,52 @@
+package com.example.enshitrafficplatform.dto.response;
+
+import com.example.enshitrafficplatform.peak.SectionPeakDiscovery;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 高峰期时段发现报告
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PeakDiscoveryReport {
+
+    /**
+     * 分析开始日期（含）
+     */
+    private LocalDate startDate;
+
+    /**
+     * 分析结束日期（不含）
+     */
+    private LocalDate endDate;
+
+    private LocalDateTime generatedAt;
+
+    /**
+     * 读取的路段小时数
+     */
+    private long hourRows;
+
+    private int proposalCount;
+
+    /**
+     * 缺乏历史流量支持的现有规则数
+     */
+    private int unsupportedRuleCount;
+
+    private long elapsedMillis;
+
+    /**
+     * 按路段ID排序的发现结果
+     */
+    private List<SectionPeakDiscovery> sections;
+}
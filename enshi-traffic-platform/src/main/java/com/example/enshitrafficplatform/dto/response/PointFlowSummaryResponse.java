@@ -0,0 +1,24 @@
+package com.example.enshitrafficplatform.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 监测点流量概况响应
+ */
+@Data
+@AllArgsConstructor
+public class PointFlowSummaryResponse {
+
+    private Long monitoringPointId;
+
+    /**
+     * 近30天日均交通流量
+     */
+    private Integer averageDailyTrafficFlow;
+
+    /**
+     * 近7天峰谷比
+     */
+    private Double peakValleyRatio;
+}
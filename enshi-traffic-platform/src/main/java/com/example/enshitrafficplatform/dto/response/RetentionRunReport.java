@@ -0,0 +1,77 @@
+package com.example.enshitrafficplatform.dto.response;
+
+import com.example.enshitrafficplatform.retention.RetentionDataType;
+import com.example.enshitrafficplatform.retention.RetentionTier;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 保留策略执行报告
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RetentionRunReport {
+
+    private LocalDateTime startTime;
+
+    private LocalDateTime endTime;
+
+    private List<TierResult> tiers;
+
+    /**
+     * 本次估算回收的字节数
+     */
+    private long bytesReclaimed;
+
+    /**
+     * 单个层级的执行结果
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class TierResult {
+
+        private RetentionDataType dataType;
+
+        private RetentionTier tier;
+
+        /**
+         * 保留天数，0表示永久保留
+         */
+        private int retentionDays;
+
+        /**
+         * 降采样到下一层级的天数
+         */
+        private int downsampledDays;
+
+        /**
+         * 删除的行数
+         */
+        private long purgedRows;
+
+        /**
+         * 按表的平均行大小估算回收的字节数
+         */
+        private long bytesReclaimed;
+
+        /**
+         * 下一层级校验未通过、停止清理的日期
+         */
+        private LocalDate blockedDate;
+
+        /**
+         * 执行失败时的错误信息
+         */
+        private String error;
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.enshitrafficplatform.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+/**
+ * 路段实时交通状况响应
+ */
+@Data
+@AllArgsConstructor
+public class SectionCurrentTrafficResponse {
+
+    private Long roadSectionId;
+
+    /**
+     * 当前交通流量（辆/小时）
+     */
+    private Integer currentTrafficFlow;
+
+    /**
+     * 当前平均速度（公里/小时）
+     */
+    private Double currentAverageSpeed;
+}
@@ -0,0 +1,33 @@
+package com.example.enshitrafficplatform.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * 路段高峰期状态响应
+ */
+@Data
+@AllArgsConstructor
+public class SectionPeakStatusResponse {
+
+    private Long roadSectionId;
+
+    private LocalDateTime time;
+
+    /**
+     * 是否处于高峰期
+     */
+    private boolean peak;
+
+    /**
+     * 起主导作用的规则ID，不处于高峰期时为null
+     */
+    private Long ruleId;
+
+    /**
+     * 起主导作用的规则优先级，不处于高峰期时为null
+     */
+    private Integer priority;
+}
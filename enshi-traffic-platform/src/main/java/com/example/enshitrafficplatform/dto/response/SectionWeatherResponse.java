@@ -0,0 +1,83 @@
+package com.example.enshitrafficplatform.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 路段天气响应
+ * 数值项为关联观测站按反距离权重插值的结果，天气状况取最近的观测站
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SectionWeatherResponse {
+
+    private Long roadSectionId;
+
+    /**
+     * 最近观测站的天气状况
+     */
+    private String weatherCondition;
+
+    /**
+     * 温度（摄氏度），没有观测值时为null
+     */
+    private Double temperature;
+
+    /**
+     * 降水量（毫米），没有观测值时为null
+     */
+    private Double precipitation;
+
+    /**
+     * 能见度（米），没有观测值时为null
+     */
+    private Double visibility;
+
+    /**
+     * 风速（米/秒），没有观测值时为null
+     */
+    private Double windSpeed;
+
+    /**
+     * 关联的观测站，按距离从近到远排列
+     */
+    private List<StationWeight> stations;
+
+    /**
+     * 关联的观测站及权重
+     */
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class StationWeight {
+
+        /**
+         * 该观测站当前观测的天气记录ID
+         */
+        private Long weatherRecordId;
+
+        private Double longitude;
+
+        private Double latitude;
+
+        private LocalDateTime recordTime;
+
+        /**
+         * 与路段中心点的距离（公里）
+         */
+        private double distanceKm;
+
+        /**
+         * 归一化的反距离权重
+         */
+        private double weight;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.enshitrafficplatform.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * 路段建议车速响应
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class SpeedAdvisoryResponse {
+
+    private Long roadSectionId;
+
+    /**
+     * 按当前天气的建议车速（公里/小时）
+     */
+    private Integer advisedSpeed;
+}
@@ -0,0 +1,47 @@
+package com.example.enshitrafficplatform.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 天气API轮询报告
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WeatherPollReport {
+
+    private LocalDateTime startTime;
+
+    /**
+     * 查询的区域数
+     */
+    private int regions;
+
+    /**
+     * 有新观测并已入库的区域数
+     */
+    private int changed;
+
+    /**
+     * 返回了响应但观测未变化的区域数
+     */
+    private int unchanged;
+
+    /**
+     * 服务端返回304的区域数
+     */
+    private int notModified;
+
+    /**
+     * 请求、解析、校验或入库失败的区域数
+     */
+    private int failed;
+
+    private long elapsedMillis;
+}
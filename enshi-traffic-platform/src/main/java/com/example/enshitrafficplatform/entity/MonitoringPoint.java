@@ -477,6 +477,7 @@ public class MonitoringPoint {
     
     /**
      * 计算当前监测点的平均日车流量（基于过去30天数据）
+     * 接口查询请使用 PointHourlyBucketService#getAverageDailyTrafficFlow，直接读取小时桶
      * @return 平均日车流量
      */
     public Integer calculateAverageDailyTrafficFlow() {
@@ -513,6 +514,7 @@ public class MonitoringPoint {
     
     /**
      * 计算峰谷比（高峰期流量与低谷期流量的比值）
+     * 接口查询请使用 PointHourlyBucketService#getPeakValleyRatio，直接读取小时桶
      * @return 峰谷比
      */
     public Double calculatePeakValleyRatio() {
@@ -558,6 +560,7 @@ public class MonitoringPoint {
     
     /**
      * 识别最近7天内的交通异常事件
+     * 接口查询请使用 FlowAnalyticsService#detectTrafficAnomalies，直接读取热存储
      * @return 异常事件列表
      */
     public List<Map<String, Object>> detectTrafficAnomalies() {
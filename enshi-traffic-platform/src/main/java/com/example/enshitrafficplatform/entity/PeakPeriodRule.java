@@ -1,5 +1,13 @@
 package com.example.enshitrafficplatform.entity;
 
+import com.example.enshitrafficplatform.dictionary.DayType;
+import com.example.enshitrafficplatform.event.PeakRulesChangeListener;
+import com.example.enshitrafficplatform.peak.CompiledPeakRule;
+import com.example.enshitrafficplatform.peak.HolidayCalendar;
+import com.example.enshitrafficplatform.peak.PeakTransitionScheduler;
+import com.example.enshitrafficplatform.peak.PeakWeekBitmap;
+import com.example.enshitrafficplatform.peak.SectionPeakSchedule;
+import com.example.enshitrafficplatform.util.DateUtils;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
@@ -11,7 +19,6 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -27,6 +34,7 @@ import java.util.Set;
  */
 @Entity
 @Table(name = "peak_period_rules")
+@EntityListeners(PeakRulesChangeListener.class)
 @Data
 @Builder
 @NoArgsConstructor
@@ -73,6 +81,13 @@ public class PeakPeriodRule {
     @Column(name = "applicable_days")
     private Integer applicableDays;
 
+    /**
+     * 适用日期类型（按 DayType 编码的二进制位表示，如0b1001表示工作日和调休上班日），
+     * 设置后取代适用星期，按节假日日历判定
+     */
+    @Column(name = "day_types")
+    private Integer dayTypes;
+
     /**
      * 规则开始日期
      */
@@ -149,6 +164,8 @@ public class PeakPeriodRule {
         if (roadSections == null) {
             roadSections = new HashSet<>();
         }
+        // 只修改关联集合时实体本身不脏，更新时间使规则写入并触发时间表重建
+        this.updatedAt = LocalDateTime.now();
         return roadSections.add(roadSection);
     }
 
@@ -161,6 +178,7 @@ public class PeakPeriodRule {
         if (roadSections == null) {
             return false;
         }
+        this.updatedAt = LocalDateTime.now();
         return roadSections.remove(roadSection);
     }
 
@@ -182,24 +200,31 @@ public class PeakPeriodRule {
             return false;
         }
         
-        // 检查星期是否适用
-        if (applicableDays != null) {
-            int dayBit = 1 << (dateTime.getDayOfWeek().getValue() - 1);
-            if ((applicableDays & dayBit) == 0) {
-                return false;
-            }
+        // 检查日期类型或星期是否适用
+        if (!isDayApplicable(dateTime.toLocalDate())) {
+            return false;
         }
         
-        // 检查时间是否在范围内
-        LocalTime time = dateTime.toLocalTime();
-        
-        // 如果结束时间小于开始时间，表示跨天
-        if (endTime.isBefore(startTime)) {
-            return time.isAfter(startTime) || time.equals(startTime) || time.isBefore(endTime);
-        } else {
-            return (time.isAfter(startTime) || time.equals(startTime)) && 
-                   (time.isBefore(endTime) || time.equals(endTime));
-        }
+        // 检查时间是否在范围内，结束时间小于开始时间表示跨天
+        return PeakWeekBitmap.containsTime(startTime.toNanoOfDay(), endTime.toNanoOfDay(),
+                dateTime.toLocalTime().toNanoOfDay());
+    }
+
+    /**
+     * 编译为周内分钟位图形式的规则，用于高频判定
+     * 规则字段修改后需重新编译
+     * @return 编译后的规则
+     */
+    public CompiledPeakRule compile() {
+        return compile(0L);
+    }
+
+    private CompiledPeakRule compile(long offsetNanos) {
+        // 按日期类型适用的规则每天的时段相同，日期类型在判定时查节假日日历
+        Integer weekDays = dayTypes != null ? null : applicableDays;
+        return new CompiledPeakRule(id, priority != null ? priority : 0, effectiveFrom, effectiveTo,
+                dayTypes != null ? dayTypes : CompiledPeakRule.ALL_DAY_TYPES,
+                PeakWeekBitmap.compile(startTime, endTime, weekDays, offsetNanos));
     }
 
     /**
@@ -215,6 +240,18 @@ public class PeakPeriodRule {
      * @return 适用星期的文本描述
      */
     public String getApplicableDaysText() {
+        if (dayTypes != null) {
+            StringBuilder result = new StringBuilder();
+            for (DayType dayType : DayType.values()) {
+                if ((dayTypes & dayType.mask()) != 0) {
+                    if (result.length() > 0) {
+                        result.append(", ");
+                    }
+                    result.append(dayType.getLabel());
+                }
+            }
+            return result.length() > 0 ? result.toString() : "无适用日期";
+        }
         if (applicableDays == null) {
             return "所有日期";
         }
@@ -353,62 +390,38 @@ public class PeakPeriodRule {
 
     /**
      * 获取下次高峰期的开始时间
+     * 在编译后的位图上按分钟粒度逐日查找，最多向后查找 {@link PeakTransitionScheduler#LOOKAHEAD_DAYS} 天；
+     * 当前处于高峰期时返回本次高峰结束后的下一次开始时间
      * @return 下次高峰期的开始时间，如果规则不适用则返回null
      */
     public LocalDateTime getNextPeakPeriodStart() {
         if (startTime == null || "非活跃".equals(status)) {
             return null;
         }
-        
-        LocalDateTime now = LocalDateTime.now();
-        LocalDate today = now.toLocalDate();
-        
-        // 检查日期是否在有效期内
-        if (effectiveFrom != null && today.isBefore(effectiveFrom)) {
-            LocalDateTime nextStart = LocalDateTime.of(effectiveFrom, startTime);
-            // 找到effectiveFrom后第一个适用的星期几
-            while (!isDayApplicable(nextStart.getDayOfWeek())) {
-                nextStart = nextStart.plusDays(1);
-            }
-            return nextStart;
-        }
-        
-        if (effectiveTo != null && today.isAfter(effectiveTo)) {
-            return null; // 规则已过期
-        }
-        
-        // 先检查今天的高峰期
-        LocalDateTime todayStart = LocalDateTime.of(today, startTime);
-        if (now.isBefore(todayStart) && isDayApplicable(today.getDayOfWeek())) {
-            return todayStart;
-        }
-        
-        // 查找未来7天内的下一个高峰期
-        for (int i = 1; i <= 7; i++) {
-            LocalDate nextDate = today.plusDays(i);
-            if (effectiveTo != null && nextDate.isAfter(effectiveTo)) {
-                return null; // 规则在此期间结束
-            }
-            
-            if (isDayApplicable(nextDate.getDayOfWeek())) {
-                return LocalDateTime.of(nextDate, startTime);
-            }
+        SectionPeakSchedule schedule = SectionPeakSchedule.of(List.of(compile()));
+        long now = DateUtils.toEpochSecond(LocalDateTime.now());
+        long next = schedule.nextTransition(now, PeakTransitionScheduler.LOOKAHEAD_DAYS);
+        if (next >= 0 && schedule.isPeak(now)) {
+            next = schedule.nextTransition(next, PeakTransitionScheduler.LOOKAHEAD_DAYS);
         }
-        
-        return null; // 未来7天内没有适用的高峰期
+        return next >= 0 ? DateUtils.fromEpochSecond(next) : null;
     }
 
     /**
-     * 判断指定星期几是否适用于此规则
-     * @param dayOfWeek 星期几
+     * 判断指定日期是否适用于此规则
+     * 设置了适用日期类型时按节假日日历判定，否则按适用星期判定
+     * @param date 日期
      * @return 是否适用
      */
-    private boolean isDayApplicable(DayOfWeek dayOfWeek) {
+    private boolean isDayApplicable(LocalDate date) {
+        if (dayTypes != null) {
+            return (dayTypes & HolidayCalendar.getDefault().dayType(date).mask()) != 0;
+        }
         if (applicableDays == null) {
             return true;
         }
         
-        int dayBit = 1 << (dayOfWeek.getValue() - 1);
+        int dayBit = 1 << (date.getDayOfWeek().getValue() - 1);
         return (applicableDays & dayBit) != 0;
     }
 
@@ -451,21 +464,13 @@ public class PeakPeriodRule {
      * @return 重叠的高峰期时长（分钟）
      */
     public long calculateOverlappingPeakPeriodMinutes(LocalDateTime from, LocalDateTime to) {
-        if (from == null || to == null || from.isAfter(to)) {
+        if (from == null || to == null || from.isAfter(to) || startTime == null || endTime == null) {
             return 0;
         }
         
-        long totalMinutes = 0;
-        LocalDateTime current = from;
-        
-        while (!current.isAfter(to)) {
-            if (isInPeakPeriod(current)) {
-                totalMinutes++;
-            }
-            current = current.plusMinutes(1);
-        }
-        
-        return totalMinutes;
+        // 从 from 起每分钟采样一次，统计落在高峰期内的采样点；按周循环整周计数，与范围长度无关
+        long offsetNanos = from.toLocalTime().toNanoOfDay() % 60_000_000_000L;
+        return compile(offsetNanos).countPeakMinutes(from, to);
     }
 
     /**
@@ -480,23 +485,21 @@ public class PeakPeriodRule {
             return false;
         }
         
-        // 检查星期是否适用
-        if (applicableDays != null) {
+        // 检查星期是否适用；按日期类型适用的规则在没有具体日期时按周一至周五为工作日、周末为周末判定
+        if (dayTypes != null) {
+            DayType dayType = dayOfWeek >= 6 ? DayType.WEEKEND : DayType.WORKDAY;
+            if ((dayTypes & dayType.mask()) == 0) {
+                return false;
+            }
+        } else if (applicableDays != null) {
             int dayBit = 1 << (dayOfWeek - 1);
             if ((applicableDays & dayBit) == 0) {
                 return false;
             }
         }
         
-        // 检查时间是否在范围内
-        LocalTime time = LocalTime.of(hour, minute);
-        
-        // 如果结束时间小于开始时间，表示跨天
-        if (endTime.isBefore(startTime)) {
-            return time.isAfter(startTime) || time.equals(startTime) || time.isBefore(endTime);
-        } else {
-            return (time.isAfter(startTime) || time.equals(startTime)) && 
-                   (time.isBefore(endTime) || time.equals(endTime));
-        }
+        // 检查时间是否在范围内，结束时间小于开始时间表示跨天
+        return PeakWeekBitmap.containsTime(startTime.toNanoOfDay(), endTime.toNanoOfDay(),
+                (hour * 60L + minute) * 60_000_000_000L);
     }
 } 
\ No newline at end of file
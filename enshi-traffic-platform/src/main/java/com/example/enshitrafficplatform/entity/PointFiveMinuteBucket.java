@@ -0,0 +1,139 @@
+package com.example.enshitrafficplatform.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 监测点5分钟流量桶实体类
+ * 流量记录保留层级中的5分钟聚合层，由原始流量记录按 监测点 × 5分钟 降采样生成，
+ * 原始记录超过保留期被清理后，由该表提供一年内的细粒度流量、速度、占有率与车型构成
+ */
+@Entity
+@Table(name = "point_five_minute_buckets",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_point_five_minute_bucket", columnNames = {"monitoring_point_id", "bucket_start"})
+    },
+    indexes = {
+        @Index(name = "idx_point_five_minute_bucket_start", columnList = "bucket_start")
+    })
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PointFiveMinuteBucket {
+
+    /**
+     * 主键ID
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * 监测点ID
+     */
+    @NotNull(message = "监测点ID不能为空")
+    @Column(name = "monitoring_point_id", nullable = false)
+    private Long monitoringPointId;
+
+    /**
+     * 5分钟区间起点
+     */
+    @NotNull(message = "区间起点不能为空")
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    /**
+     * 原始记录数，用于校验降采样是否完整
+     */
+    @Column(name = "record_count", nullable = false)
+    private Integer recordCount;
+
+    /**
+     * 车流量总和
+     */
+    @Column(name = "flow_sum", nullable = false)
+    private Long flowSum;
+
+    /**
+     * 含车流量数据的记录数
+     */
+    @Column(name = "flow_count", nullable = false)
+    private Integer flowCount;
+
+    /**
+     * 最大车流量
+     */
+    @Column(name = "flow_max")
+    private Integer flowMax;
+
+    /**
+     * 平均车速总和
+     */
+    @Column(name = "speed_sum", nullable = false)
+    private Double speedSum;
+
+    /**
+     * 含平均车速数据的记录数
+     */
+    @Column(name = "speed_count", nullable = false)
+    private Integer speedCount;
+
+    /**
+     * 道路占有率总和
+     */
+    @Column(name = "occupancy_sum", nullable = false)
+    private Double occupancySum;
+
+    /**
+     * 含道路占有率数据的记录数
+     */
+    @Column(name = "occupancy_count", nullable = false)
+    private Integer occupancyCount;
+
+    /**
+     * 大型车辆数量总和
+     */
+    @Column(name = "large_vehicle_sum", nullable = false)
+    private Long largeVehicleSum;
+
+    /**
+     * 中型车辆数量总和
+     */
+    @Column(name = "medium_vehicle_sum", nullable = false)
+    private Long mediumVehicleSum;
+
+    /**
+     * 小型车辆数量总和
+     */
+    @Column(name = "small_vehicle_sum", nullable = false)
+    private Long smallVehicleSum;
+
+    /**
+     * 计算区间的平均车流量
+     * @return 平均车流量，无样本时为null
+     */
+    public Double getAverageFlowRate() {
+        if (flowCount == null || flowCount == 0) {
+            return null;
+        }
+        return (double) flowSum / flowCount;
+    }
+
+    /**
+     * 计算区间的平均车速
+     * @return 平均车速，无样本时为null
+     */
+    public Double getAverageSpeed() {
+        if (speedCount == null || speedCount == 0) {
+            return null;
+        }
+        return speedSum / speedCount;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.enshitrafficplatform.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 监测点小时流量桶实体类
+ * 按 监测点 × 整点小时 预聚合车流量的总和、样本数与最大值，由流量入库时同步累加，
+ * 供日均流量、峰谷比等统计直接读取，无需加载原始流量记录
+ */
+@Entity
+@Table(name = "point_hourly_buckets",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_point_hourly_bucket", columnNames = {"monitoring_point_id", "bucket_start"})
+    },
+    indexes = {
+        @Index(name = "idx_point_hourly_bucket_start", columnList = "bucket_start")
+    })
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PointHourlyBucket {
+
+    /**
+     * 主键ID
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * 监测点ID
+     */
+    @NotNull(message = "监测点ID不能为空")
+    @Column(name = "monitoring_point_id", nullable = false)
+    private Long monitoringPointId;
+
+    /**
+     * 小时起点（整点）
+     */
+    @NotNull(message = "小时起点不能为空")
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    /**
+     * 车流量总和
+     */
+    @Column(name = "flow_sum", nullable = false)
+    private Long flowSum;
+
+    /**
+     * 含车流量数据的记录数
+     */
+    @Column(name = "flow_count", nullable = false)
+    private Integer flowCount;
+
+    /**
+     * 最大车流量
+     */
+    @Column(name = "flow_max", nullable = false)
+    private Integer flowMax;
+
+    /**
+     * 计算该小时的平均车流量
+     * @return 平均车流量，无样本时为null
+     */
+    public Double getAverageFlowRate() {
+        if (flowCount == null || flowCount == 0) {
+            return null;
+        }
+        return (double) flowSum / flowCount;
+    }
+}
@@ -1,5 +1,7 @@
 package com.example.enshitrafficplatform.entity;
 
+import com.example.enshitrafficplatform.event.PeakRulesChangeListener;
+import com.example.enshitrafficplatform.event.RoadNetworkChangeListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -17,6 +19,7 @@ import java.util.Set;
  */
 @Entity
 @Table(name = "regions")
+@EntityListeners({PeakRulesChangeListener.class, RoadNetworkChangeListener.class})
 @Data
 @Builder
 @NoArgsConstructor
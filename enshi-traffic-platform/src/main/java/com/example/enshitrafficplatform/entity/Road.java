@@ -1,5 +1,7 @@
 package com.example.enshitrafficplatform.entity;
 
+import com.example.enshitrafficplatform.event.PeakRulesChangeListener;
+import com.example.enshitrafficplatform.event.RoadNetworkChangeListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -25,6 +27,7 @@ import java.util.stream.Collectors;
     @Index(name = "idx_road_level", columnList = "level"),
     @Index(name = "idx_road_type", columnList = "type")
 })
+@EntityListeners({PeakRulesChangeListener.class, RoadNetworkChangeListener.class})
 @Data
 @Builder
 @NoArgsConstructor
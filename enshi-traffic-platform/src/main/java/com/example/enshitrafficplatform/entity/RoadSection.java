@@ -1,5 +1,9 @@
 package com.example.enshitrafficplatform.entity;
 
+import com.example.enshitrafficplatform.event.PeakRulesChangeListener;
+import com.example.enshitrafficplatform.event.RoadNetworkChangeListener;
+import com.example.enshitrafficplatform.peak.PeakScheduleTable;
+import com.example.enshitrafficplatform.peak.SectionPeakSchedule;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -27,6 +31,7 @@ import java.util.stream.Collectors;
     @Index(name = "idx_road_section_road", columnList = "road_id"),
     @Index(name = "idx_road_section_risk", columnList = "risk_level")
 })
+@EntityListeners({PeakRulesChangeListener.class, RoadNetworkChangeListener.class})
 @Data
 @Builder
 @NoArgsConstructor
@@ -346,6 +351,7 @@ public class RoadSection {
     /**
      * 获取当前路段的实时交通流量
      * 从监测点的最新记录中获取
+     * 接口查询请使用 FlowAnalyticsService#getCurrentTrafficFlow，直接读取热存储
      * @return 当前交通流量（辆/小时）或null如果没有数据
      */
     public Integer getCurrentTrafficFlow() {
@@ -375,6 +381,7 @@ public class RoadSection {
 
     /**
      * 获取当前路段的实时平均速度
+     * 接口查询请使用 FlowAnalyticsService#getCurrentAverageSpeed，直接读取热存储
      * @return 当前平均速度（公里/小时）或null如果没有数据
      */
     public Double getCurrentAverageSpeed() {
@@ -581,22 +588,25 @@ public class RoadSection {
     
     /**
      * 判断当前是否为该路段的高峰期
+     * 各规则编译为周内分钟位图并按生效日期合并，判定只需一次位运算
      * @return 是否为高峰期
      */
     public boolean isCurrentlyPeakPeriod() {
-        LocalDateTime now = LocalDateTime.now();
-        int hour = now.getHour();
-        int minute = now.getMinute();
-        int dayOfWeek = now.getDayOfWeek().getValue(); // 1-7, Monday-Sunday
-        
-        // 检查所有高峰期规则
-        for (PeakPeriodRule rule : peakPeriodRules) {
-            if (rule.appliesTo(dayOfWeek, hour, minute)) {
-                return true;
-            }
+        return peakSchedule().isPeak(LocalDateTime.now());
+    }
+
+    /**
+     * 获取路段的高峰期时间表
+     * 有效时间表已由 PeakScheduleService 构建时使用其结果（含继承自区域的规则和全局规则），
+     * 否则每次按路段自身当前的规则编译，规则的修改立即生效；依赖的全局实例见 {@link PeakScheduleTable}
+     * @return 时间表
+     */
+    public SectionPeakSchedule peakSchedule() {
+        PeakScheduleTable table = PeakScheduleTable.getDefault();
+        if (id != null && table.isLoaded()) {
+            return table.get(id);
         }
-        
-        return false;
+        return SectionPeakSchedule.compile(peakPeriodRules);
     }
     
     /**
@@ -1,5 +1,8 @@
 package com.example.enshitrafficplatform.entity;
 
+import com.example.enshitrafficplatform.dictionary.EventSeverity;
+import com.example.enshitrafficplatform.dictionary.EventStatus;
+import com.example.enshitrafficplatform.dictionary.EventType;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -16,9 +19,9 @@ import java.time.temporal.ChronoUnit;
  */
 @Entity
 @Table(name = "traffic_events", indexes = {
-    @Index(name = "idx_traffic_event_type", columnList = "event_type"),
-    @Index(name = "idx_traffic_event_status", columnList = "status"),
-    @Index(name = "idx_traffic_event_severity", columnList = "severity"),
+    @Index(name = "idx_traffic_event_type_code", columnList = "event_type_code"),
+    @Index(name = "idx_traffic_event_status_code", columnList = "status_code"),
+    @Index(name = "idx_traffic_event_severity_code", columnList = "severity_code"),
     @Index(name = "idx_traffic_event_start_time", columnList = "start_time"),
     @Index(name = "idx_traffic_event_end_time", columnList = "end_time")
 })
@@ -42,6 +45,12 @@ public class TrafficEvent {
     @Column(name = "event_type", nullable = false, length = 50)
     private String eventType;
 
+    /**
+     * 事件类型编码，见 {@link EventType}
+     */
+    @Column(name = "event_type_code", columnDefinition = "TINYINT")
+    private Byte eventTypeCode;
+
     /**
      * 事件描述
      */
@@ -67,12 +76,24 @@ public class TrafficEvent {
     @Column(name = "status", length = 20)
     private String status;
 
+    /**
+     * 事件状态编码，见 {@link EventStatus}
+     */
+    @Column(name = "status_code", columnDefinition = "TINYINT")
+    private Byte statusCode;
+
     /**
      * 事件严重程度：轻微、一般、严重、极其严重
      */
     @Column(name = "severity", length = 20)
     private String severity;
 
+    /**
+     * 严重程度编码，即严重等级，见 {@link EventSeverity}
+     */
+    @Column(name = "severity_code", columnDefinition = "TINYINT")
+    private Byte severityCode;
+
     /**
      * 位置描述
      */
@@ -128,6 +149,40 @@ public class TrafficEvent {
     @JoinColumn(name = "road_section_id")
     private RoadSection roadSection;
 
+    public void setEventType(String eventType) {
+        this.eventType = eventType;
+        this.eventTypeCode = eventType != null ? EventType.fromLabel(eventType).getCode() : null;
+    }
+
+    public void setStatus(String status) {
+        this.status = status;
+        this.statusCode = status != null ? EventStatus.fromLabel(status).getCode() : null;
+    }
+
+    public void setSeverity(String severity) {
+        this.severity = severity;
+        this.severityCode = severity != null ? EventSeverity.fromLabel(severity).getCode() : null;
+    }
+
+    /**
+     * 获取事件状态，优先使用编码，构建器直接赋值尚未同步编码时按描述查找
+     * @return 事件状态，未设置时为 {@link EventStatus#UNKNOWN}
+     */
+    public EventStatus eventStatus() {
+        return statusCode != null ? EventStatus.fromCode(statusCode) : EventStatus.fromLabel(status);
+    }
+
+    /**
+     * 写入前根据中文描述同步字典编码，覆盖通过构建器直接赋值的情况
+     */
+    @PrePersist
+    @PreUpdate
+    void syncDictionaryCodes() {
+        setEventType(eventType);
+        setStatus(status);
+        setSeverity(severity);
+    }
+
     /**
      * 获取事件持续时间（分钟）
      * @return 持续时间
@@ -146,11 +201,7 @@ public class TrafficEvent {
      * @return 是否活跃
      */
     public boolean isActive() {
-        if (status == null) {
-            return false;
-        }
-        
-        return "待处理".equals(status) || "处理中".equals(status);
+        return eventStatus().isActive();
     }
 
     /**
@@ -169,7 +220,7 @@ public class TrafficEvent {
      * 关闭事件，设置结束时间和状态
      */
     public void closeEvent() {
-        this.status = "已关闭";
+        setStatus(EventStatus.CLOSED.getLabel());
         if (this.endTime == null) {
             this.endTime = LocalDateTime.now();
         }
@@ -245,17 +296,7 @@ public class TrafficEvent {
      * @return 严重等级的数值：1-轻微，2-一般，3-严重，4-极其严重
      */
     public int getSeverityLevel() {
-        if (severity == null) {
-            return 0;
-        }
-        
-        switch (severity) {
-            case "轻微": return 1;
-            case "一般": return 2;
-            case "严重": return 3;
-            case "极其严重": return 4;
-            default: return 0;
-        }
+        return severityCode != null ? severityCode : EventSeverity.fromLabel(severity).getCode();
     }
 
     /**
@@ -283,6 +324,6 @@ public class TrafficEvent {
             return false;
         }
         
-        return LocalDateTime.now().isAfter(endTime) || "已关闭".equals(status) || "已解决".equals(status);
+        return LocalDateTime.now().isAfter(endTime) || eventStatus().isFinished();
     }
 } 
\ No newline at end of file
@@ -0,0 +1,90 @@
+package com.example.enshitrafficplatform.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 交通流量归档块实体类
+ * 单个监测点一天的流量读数经 FlowBlockCodec 压缩后的数据块，用于长期保存历史数据
+ */
+@Entity
+@Table(name = "traffic_flow_archive_blocks",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_archive_block_point_date", columnNames = {"monitoring_point_id", "block_date"})
+    },
+    indexes = {
+        @Index(name = "idx_archive_block_date", columnList = "block_date")
+    })
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class TrafficFlowArchiveBlock {
+
+    /**
+     * 主键ID
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * 监测点ID
+     */
+    @NotNull(message = "监测点ID不能为空")
+    @Column(name = "monitoring_point_id", nullable = false)
+    private Long monitoringPointId;
+
+    /**
+     * 数据日期
+     */
+    @NotNull(message = "数据日期不能为空")
+    @Column(name = "block_date", nullable = false)
+    private LocalDate blockDate;
+
+    /**
+     * 块内记录数
+     */
+    @Column(name = "record_count", nullable = false)
+    private Integer recordCount;
+
+    /**
+     * 块内最早记录时间
+     */
+    @Column(name = "first_record_time")
+    private LocalDateTime firstRecordTime;
+
+    /**
+     * 块内最晚记录时间
+     */
+    @Column(name = "last_record_time")
+    private LocalDateTime lastRecordTime;
+
+    /**
+     * 编码版本
+     */
+    @Column(name = "codec_version", nullable = false)
+    private Integer codecVersion;
+
+    /**
+     * 压缩后的数据
+     */
+    @Lob
+    @ToString.Exclude
+    @Column(name = "payload", nullable = false, columnDefinition = "MEDIUMBLOB")
+    private byte[] payload;
+
+    /**
+     * 创建时间
+     */
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+}
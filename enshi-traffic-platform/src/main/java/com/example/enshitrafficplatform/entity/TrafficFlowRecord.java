@@ -1,5 +1,9 @@
 package com.example.enshitrafficplatform.entity;
 
+import com.example.enshitrafficplatform.dictionary.CongestionLevel;
+import com.example.enshitrafficplatform.dictionary.Direction;
+import com.example.enshitrafficplatform.dictionary.WeatherCondition;
+import com.example.enshitrafficplatform.peak.HolidayCalendar;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -11,13 +15,16 @@ import java.time.LocalDateTime;
 
 /**
  * 交通流量记录实体类
- * 表示监测点采集的交通流量数据
+ * 表示监测点采集的交通流量数据。
+ * 表按 record_time 按月分区（见 PartitionMaintenanceService），主键为 (id, record_time)，
+ * 分区表不支持外键，关联列不建外键约束；查询应始终带 record_time 范围以便分区裁剪。
+ * 方向、拥堵级别和天气在中文描述列之外另存单字节字典编码（见 dictionary 包），索引建在编码列上
  */
 @Entity
 @Table(name = "traffic_flow_records", indexes = {
     @Index(name = "idx_traffic_flow_record_time", columnList = "record_time"),
-    @Index(name = "idx_traffic_flow_direction", columnList = "direction"),
-    @Index(name = "idx_traffic_flow_congestion_level", columnList = "congestion_level")
+    @Index(name = "idx_traffic_flow_direction_code", columnList = "direction_code"),
+    @Index(name = "idx_traffic_flow_congestion_code", columnList = "congestion_level_code")
 })
 @Data
 @Builder
@@ -63,12 +70,24 @@ public class TrafficFlowRecord {
     @Column(name = "direction", length = 20)
     private String direction;
 
+    /**
+     * 通行方向编码，见 {@link Direction}
+     */
+    @Column(name = "direction_code", columnDefinition = "TINYINT")
+    private Byte directionCode;
+
     /**
      * 交通拥堵级别：畅通、轻度拥堵、中度拥堵、严重拥堵
      */
     @Column(name = "congestion_level", length = 20)
     private String congestionLevel;
 
+    /**
+     * 拥堵级别编码，见 {@link CongestionLevel}
+     */
+    @Column(name = "congestion_level_code", columnDefinition = "TINYINT")
+    private Byte congestionLevelCode;
+
     /**
      * 大型车辆数量
      */
@@ -111,6 +130,12 @@ public class TrafficFlowRecord {
     @Column(name = "weather_condition", length = 50)
     private String weatherCondition;
 
+    /**
+     * 天气状况编码，见 {@link WeatherCondition}
+     */
+    @Column(name = "weather_code", columnDefinition = "TINYINT")
+    private Byte weatherCode;
+
     /**
      * 能见度（米）
      */
@@ -127,26 +152,58 @@ public class TrafficFlowRecord {
      * 所属监测点
      */
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "monitoring_point_id", nullable = false)
+    @JoinColumn(name = "monitoring_point_id", nullable = false,
+            foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private MonitoringPoint monitoringPoint;
 
     /**
      * 所属路段
      */
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "road_section_id")
+    @JoinColumn(name = "road_section_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private RoadSection roadSection;
 
+    public void setDirection(String direction) {
+        this.direction = direction;
+        this.directionCode = direction != null ? Direction.fromLabel(direction).getCode() : null;
+    }
+
+    public void setCongestionLevel(String congestionLevel) {
+        this.congestionLevel = congestionLevel;
+        this.congestionLevelCode = congestionLevel != null ? CongestionLevel.fromLabel(congestionLevel).getCode() : null;
+    }
+
+    public void setWeatherCondition(String weatherCondition) {
+        this.weatherCondition = weatherCondition;
+        this.weatherCode = weatherCondition != null ? WeatherCondition.fromLabel(weatherCondition).getCode() : null;
+    }
+
+    /**
+     * 获取拥堵级别
+     * @return 拥堵级别，未设置时为 {@link CongestionLevel#UNKNOWN}
+     */
+    public CongestionLevel congestionLevel() {
+        return congestionLevelCode != null
+                ? CongestionLevel.fromCode(congestionLevelCode) : CongestionLevel.fromLabel(congestionLevel);
+    }
+
+    /**
+     * 写入前根据中文描述同步字典编码，覆盖通过构建器直接赋值的情况
+     */
+    @PrePersist
+    @PreUpdate
+    void syncDictionaryCodes() {
+        setDirection(direction);
+        setCongestionLevel(congestionLevel);
+        setWeatherCondition(weatherCondition);
+    }
+
     /**
      * 计算车辆总数
      * @return 车辆总数
      */
     public Integer getTotalVehicleCount() {
-        int total = 0;
-        if (largeVehicleCount != null) total += largeVehicleCount;
-        if (mediumVehicleCount != null) total += mediumVehicleCount;
-        if (smallVehicleCount != null) total += smallVehicleCount;
-        return total;
+        return totalVehicleCount();
     }
 
     /**
@@ -154,9 +211,7 @@ public class TrafficFlowRecord {
      * @return 大型车辆占比（百分比）
      */
     public Double getLargeVehiclePercentage() {
-        Integer total = getTotalVehicleCount();
-        if (total == 0 || largeVehicleCount == null) return 0.0;
-        return (double) largeVehicleCount / total * 100;
+        return vehiclePercentage(largeVehicleCount);
     }
 
     /**
@@ -164,9 +219,7 @@ public class TrafficFlowRecord {
      * @return 中型车辆占比（百分比）
      */
     public Double getMediumVehiclePercentage() {
-        Integer total = getTotalVehicleCount();
-        if (total == 0 || mediumVehicleCount == null) return 0.0;
-        return (double) mediumVehicleCount / total * 100;
+        return vehiclePercentage(mediumVehicleCount);
     }
 
     /**
@@ -174,9 +227,32 @@ public class TrafficFlowRecord {
      * @return 小型车辆占比（百分比）
      */
     public Double getSmallVehiclePercentage() {
-        Integer total = getTotalVehicleCount();
-        if (total == 0 || smallVehicleCount == null) return 0.0;
-        return (double) smallVehicleCount / total * 100;
+        return vehiclePercentage(smallVehicleCount);
+    }
+
+    /**
+     * 以基本类型计算车辆总数，缺失的车型按0计
+     * @return 车辆总数
+     */
+    private int totalVehicleCount() {
+        int total = 0;
+        if (largeVehicleCount != null) total += largeVehicleCount;
+        if (mediumVehicleCount != null) total += mediumVehicleCount;
+        if (smallVehicleCount != null) total += smallVehicleCount;
+        return total;
+    }
+
+    /**
+     * 计算某一车型的占比
+     * 批量统计请使用 VehicleCompositionService，避免逐条记录装箱
+     * @param count 车型数量
+     * @return 占比（百分比）
+     */
+    private double vehiclePercentage(Integer count) {
+        if (count == null) return 0.0;
+        int total = totalVehicleCount();
+        if (total == 0) return 0.0;
+        return (double) count / total * 100;
     }
 
     /**
@@ -199,7 +275,7 @@ public class TrafficFlowRecord {
     public String evaluateCongestionLevel() {
         // 根据车流量和平均车速判断拥堵程度
         if (averageSpeed == null || occupancyRate == null) {
-            return "未知";
+            return CongestionLevel.UNKNOWN.getLabel();
         }
         
         // 占有率阈值
@@ -209,19 +285,19 @@ public class TrafficFlowRecord {
         
         // 在山区道路条件下，根据占有率和平均车速综合判断
         if (occupancyRate >= severeThreshold || (occupancyRate >= moderateThreshold && averageSpeed <= 20)) {
-            return "严重拥堵";
+            return CongestionLevel.SEVERE.getLabel();
         } else if (occupancyRate >= moderateThreshold || (occupancyRate >= lightThreshold && averageSpeed <= 30)) {
-            return "中度拥堵";
+            return CongestionLevel.MODERATE.getLabel();
         } else if (occupancyRate >= lightThreshold || averageSpeed <= 40) {
-            return "轻度拥堵";
+            return CongestionLevel.LIGHT.getLabel();
         } else {
-            return "畅通";
+            return CongestionLevel.FREE.getLabel();
         }
     }
 
     /**
      * 判断该时段是否为高峰期
-     * 根据记录时间（工作日7:00-9:00, 17:00-19:00）判断
+     * 根据记录时间（工作日7:00-9:00, 17:00-19:00）判断，工作日按节假日日历计算，含调休上班日、不含法定节假日
      * @return 是否为高峰期
      */
     public boolean isPeakHour() {
@@ -230,10 +306,7 @@ public class TrafficFlowRecord {
         }
         
         int hour = recordTime.getHour();
-        int dayOfWeek = recordTime.getDayOfWeek().getValue();
-        
-        // 工作日（周一到周五）
-        boolean isWeekday = dayOfWeek >= 1 && dayOfWeek <= 5;
+        boolean isWeekday = HolidayCalendar.getDefault().isWorkingDay(recordTime.toLocalDate());
         
         // 早高峰7:00-9:00，晚高峰17:00-19:00
         boolean isMorningPeak = hour >= 7 && hour < 9;
@@ -271,7 +344,7 @@ public class TrafficFlowRecord {
      * 根据当前数据自动计算并更新拥堵级别
      */
     public void updateCongestionLevel() {
-        this.congestionLevel = evaluateCongestionLevel();
+        setCongestionLevel(evaluateCongestionLevel());
     }
 
     /**
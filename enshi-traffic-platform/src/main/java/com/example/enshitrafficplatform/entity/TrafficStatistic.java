@@ -1,5 +1,7 @@
 package com.example.enshitrafficplatform.entity;
 
+import com.example.enshitrafficplatform.dictionary.DayType;
+import com.example.enshitrafficplatform.peak.HolidayCalendar;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -9,7 +11,6 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
-import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -319,12 +320,19 @@ public class TrafficStatistic {
     }
 
     /**
-     * 判断统计日期是否为工作日
+     * 判断统计日期是否为工作日，按节假日日历计算，含调休上班日、不含法定节假日
      * @return 是否为工作日
      */
     public boolean isWeekday() {
-        DayOfWeek dayOfWeek = statisticDate.getDayOfWeek();
-        return dayOfWeek != DayOfWeek.SATURDAY && dayOfWeek != DayOfWeek.SUNDAY;
+        return HolidayCalendar.getDefault().isWorkingDay(statisticDate);
+    }
+
+    /**
+     * 获取统计日期的日期类型
+     * @return 日期类型
+     */
+    public DayType getDayType() {
+        return HolidayCalendar.getDefault().dayType(statisticDate);
     }
 
     /**
@@ -377,6 +385,7 @@ public class TrafficStatistic {
             case "evening_peak": return "晚高峰";
             case "weekday": return "工作日";
             case "weekend": return "周末";
+            case "holiday": return "节假日";
             default: return timeType;
         }
     }
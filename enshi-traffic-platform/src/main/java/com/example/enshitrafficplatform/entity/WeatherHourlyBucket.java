@@ -0,0 +1,116 @@
+package com.example.enshitrafficplatform.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 区域小时天气桶实体类
+ * 天气记录保留层级中的小时聚合层，由原始天气记录按 行政区域 × 整点小时 降采样生成，永久保留
+ */
+@Entity
+@Table(name = "weather_hourly_buckets",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uk_weather_hourly_bucket", columnNames = {"region_id", "bucket_start"})
+    },
+    indexes = {
+        @Index(name = "idx_weather_hourly_bucket_start", columnList = "bucket_start")
+    })
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WeatherHourlyBucket {
+
+    /**
+     * 主键ID
+     */
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /**
+     * 行政区域ID，未关联区域的记录为0
+     */
+    @NotNull(message = "区域ID不能为空")
+    @Column(name = "region_id", nullable = false)
+    private Long regionId;
+
+    /**
+     * 小时起点（整点）
+     */
+    @NotNull(message = "小时起点不能为空")
+    @Column(name = "bucket_start", nullable = false)
+    private LocalDateTime bucketStart;
+
+    /**
+     * 原始记录数，用于校验降采样是否完整
+     */
+    @Column(name = "record_count", nullable = false)
+    private Integer recordCount;
+
+    /**
+     * 该小时出现最多的天气状况
+     */
+    @Column(name = "weather_condition", length = 50)
+    private String weatherCondition;
+
+    /**
+     * 平均温度（摄氏度）
+     */
+    @Column(name = "temperature_avg")
+    private Double temperatureAvg;
+
+    /**
+     * 平均湿度（%）
+     */
+    @Column(name = "humidity_avg")
+    private Double humidityAvg;
+
+    /**
+     * 平均降水量（毫米）
+     */
+    @Column(name = "precipitation_avg")
+    private Double precipitationAvg;
+
+    /**
+     * 最大降水量（毫米）
+     */
+    @Column(name = "precipitation_max")
+    private Double precipitationMax;
+
+    /**
+     * 最低能见度（米）
+     */
+    @Column(name = "visibility_min")
+    private Double visibilityMin;
+
+    /**
+     * 最大风速（米/秒）
+     */
+    @Column(name = "wind_speed_max")
+    private Double windSpeedMax;
+
+    /**
+     * 有雾的记录数
+     */
+    @Column(name = "foggy_count", nullable = false)
+    private Integer foggyCount;
+
+    /**
+     * 有冰雪的记录数
+     */
+    @Column(name = "snow_ice_count", nullable = false)
+    private Integer snowIceCount;
+
+    /**
+     * 有雷暴的记录数
+     */
+    @Column(name = "thunderstorm_count", nullable = false)
+    private Integer thunderstormCount;
+}
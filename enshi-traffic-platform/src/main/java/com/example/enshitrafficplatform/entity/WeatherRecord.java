@@ -1,5 +1,7 @@
 package com.example.enshitrafficplatform.entity;
 
+import com.example.enshitrafficplatform.dictionary.WeatherCondition;
+import com.example.enshitrafficplatform.event.WeatherRecordListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.AllArgsConstructor;
@@ -15,17 +17,20 @@ import java.util.Map;
 
 /**
  * 天气记录实体类
- * 表示特定时间和地点的天气状况
+ * 表示特定时间和地点的天气状况。
+ * 表按 record_time 按月分区（见 PartitionMaintenanceService），主键为 (id, record_time)，关联列不建外键约束；
+ * 天气状况另存单字节字典编码 weather_code，索引建在编码列上
  */
 @Entity
 @Table(name = "weather_records", indexes = {
     @Index(name = "idx_weather_record_time", columnList = "record_time"),
-    @Index(name = "idx_weather_condition", columnList = "weather_condition"),
+    @Index(name = "idx_weather_code", columnList = "weather_code"),
     @Index(name = "idx_weather_location", columnList = "longitude,latitude"),
     @Index(name = "idx_weather_region", columnList = "region_id"),
     @Index(name = "idx_weather_visibility", columnList = "visibility"),
     @Index(name = "idx_weather_precipitation", columnList = "precipitation")
 })
+@EntityListeners(WeatherRecordListener.class)
 @Data
 @Builder
 @NoArgsConstructor
@@ -55,6 +60,12 @@ public class WeatherRecord {
     @Column(name = "weather_condition", nullable = false, length = 50)
     private String weatherCondition;
 
+    /**
+     * 天气状况编码，见 {@link WeatherCondition}
+     */
+    @Column(name = "weather_code", columnDefinition = "TINYINT")
+    private Byte weatherCode;
+
     /**
      * 温度（摄氏度）
      */
@@ -190,9 +201,23 @@ public class WeatherRecord {
      * 所属行政区域
      */
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "region_id")
+    @JoinColumn(name = "region_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     private Region region;
 
+    public void setWeatherCondition(String weatherCondition) {
+        this.weatherCondition = weatherCondition;
+        this.weatherCode = weatherCondition != null ? WeatherCondition.fromLabel(weatherCondition).getCode() : null;
+    }
+
+    /**
+     * 写入前根据天气描述同步字典编码，覆盖通过构建器直接赋值的情况
+     */
+    @PrePersist
+    @PreUpdate
+    void syncDictionaryCodes() {
+        setWeatherCondition(weatherCondition);
+    }
+
     /**
      * 获取当前天气年龄（分钟）
      * @return 天气记录的年龄（分钟）
@@ -267,6 +292,15 @@ public class WeatherRecord {
         }
     }
 
+    /**
+     * 获取数据源记录的风力等级
+     * {@link #getWindForce()} 按风速换算，影响指数等计算使用的是记录值
+     * @return 风力等级，未记录时为null
+     */
+    public Integer getRecordedWindForce() {
+        return windForce;
+    }
+
     /**
      * 获取空气质量等级描述
      * @return 空气质量等级描述
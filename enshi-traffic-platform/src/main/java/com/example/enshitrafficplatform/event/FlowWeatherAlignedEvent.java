@@ -0,0 +1,30 @@
+package com.example.enshitrafficplatform.event;
+
+import com.example.enshitrafficplatform.dto.FlowReading;
+import com.example.enshitrafficplatform.weather.WeatherSample;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 流量读数天气对齐事件
+ * 新入库的读数与其路段最近观测站的最新天气对齐后发布，只包含对齐成功的读数
+ */
+@Getter
+public class FlowWeatherAlignedEvent {
+
+    /**
+     * 对齐成功的读数
+     */
+    private final List<FlowReading> readings;
+
+    /**
+     * 与读数一一对应的天气
+     */
+    private final List<WeatherSample> weather;
+
+    public FlowWeatherAlignedEvent(List<FlowReading> readings, List<WeatherSample> weather) {
+        this.readings = List.copyOf(readings);
+        this.weather = List.copyOf(weather);
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.enshitrafficplatform.event;
+
+import com.example.enshitrafficplatform.peak.HolidayCalendar;
+import lombok.Getter;
+
+/**
+ * 节假日日历重新加载完成事件
+ * 新日历已安装为全局默认日历后发布；按日期类型适用的高峰期规则需按新日历重新判定
+ */
+@Getter
+public class HolidayCalendarReloadedEvent {
+
+    private final HolidayCalendar calendar;
+
+    public HolidayCalendarReloadedEvent(HolidayCalendar calendar) {
+        this.calendar = calendar;
+    }
+}
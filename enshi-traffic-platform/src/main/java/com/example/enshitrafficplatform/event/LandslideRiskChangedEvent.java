@@ -0,0 +1,45 @@
+package com.example.enshitrafficplatform.event;
+
+import com.example.enshitrafficplatform.weather.LandslideRisk;
+import lombok.Getter;
+
+/**
+ * 路段滑坡风险等级变化事件
+ * 风险上升或解除时在滑坡风险跟踪线程上同步发布，监听器应尽快返回
+ */
+@Getter
+public class LandslideRiskChangedEvent {
+
+    private final Long roadSectionId;
+
+    private final LandslideRisk previous;
+
+    private final LandslideRisk current;
+
+    /**
+     * 变化时的24小时累计降水量（毫米）
+     */
+    private final double rainfall24h;
+
+    /**
+     * 变化时的72小时累计降水量（毫米）
+     */
+    private final double rainfall72h;
+
+    public LandslideRiskChangedEvent(Long roadSectionId, LandslideRisk previous, LandslideRisk current,
+                                     double rainfall24h, double rainfall72h) {
+        this.roadSectionId = roadSectionId;
+        this.previous = previous;
+        this.current = current;
+        this.rainfall24h = rainfall24h;
+        this.rainfall72h = rainfall72h;
+    }
+
+    /**
+     * 风险是否上升
+     * @return 是否上升
+     */
+    public boolean isRaised() {
+        return current.compareTo(previous) > 0;
+    }
+}
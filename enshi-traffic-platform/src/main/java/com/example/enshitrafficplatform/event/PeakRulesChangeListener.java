@@ -0,0 +1,27 @@
+package com.example.enshitrafficplatform.event;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * 高峰期规则相关实体的JPA监听器
+ * 注册在高峰期规则、路段、道路和区域实体上，写入后发布 {@link PeakRulesChangedEvent}；
+ * 监听器实例由Spring创建，可注入事件发布器
+ */
+public class PeakRulesChangeListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public PeakRulesChangeListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        eventPublisher.publishEvent(new PeakRulesChangedEvent(entity.getClass()));
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.enshitrafficplatform.event;
+
+import lombok.Getter;
+
+/**
+ * 高峰期规则或其挂接对象变更事件
+ * 规则、路段、道路或区域写入后发布，用于触发路段有效高峰期时间表的重建
+ */
+@Getter
+public class PeakRulesChangedEvent {
+
+    /**
+     * 发生变更的实体类型
+     */
+    private final Class<?> entityType;
+
+    public PeakRulesChangedEvent(Class<?> entityType) {
+        this.entityType = entityType;
+    }
+}
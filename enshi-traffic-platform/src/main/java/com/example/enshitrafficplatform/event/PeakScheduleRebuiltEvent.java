@@ -0,0 +1,18 @@
+package com.example.enshitrafficplatform.event;
+
+import com.example.enshitrafficplatform.peak.PeakScheduleTable;
+import lombok.Getter;
+
+/**
+ * 路段有效高峰期时间表重建完成事件
+ * 新表已安装为全局实例后发布；规则未变的路段沿用旧表中的时间表实例
+ */
+@Getter
+public class PeakScheduleRebuiltEvent {
+
+    private final PeakScheduleTable table;
+
+    public PeakScheduleRebuiltEvent(PeakScheduleTable table) {
+        this.table = table;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.enshitrafficplatform.event;
+
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * 路段高峰期状态变化事件
+ * 在路段进入或离开高峰期的时刻由 PeakTransitionScheduler 的定时线程同步发布，
+ * 监听器应尽快返回，耗时处理请转交其他线程
+ */
+@Getter
+public class PeakTransitionEvent {
+
+    private final Long roadSectionId;
+
+    /**
+     * true 表示进入高峰期，false 表示离开高峰期
+     */
+    private final boolean peak;
+
+    /**
+     * 状态变化的时刻
+     */
+    private final LocalDateTime time;
+
+    /**
+     * 进入高峰期时起主导作用的规则ID，离开高峰期时为null
+     */
+    private final Long ruleId;
+
+    public PeakTransitionEvent(Long roadSectionId, boolean peak, LocalDateTime time, Long ruleId) {
+        this.roadSectionId = roadSectionId;
+        this.peak = peak;
+        this.time = time;
+        this.ruleId = ruleId;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.enshitrafficplatform.event;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * 路网实体的JPA监听器
+ * 注册在区域、道路和路段实体上，写入后发布 {@link RoadNetworkChangedEvent}；
+ * 监听器实例由Spring创建，可注入事件发布器
+ */
+public class RoadNetworkChangeListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public RoadNetworkChangeListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        eventPublisher.publishEvent(new RoadNetworkChangedEvent(entity.getClass()));
+    }
+}
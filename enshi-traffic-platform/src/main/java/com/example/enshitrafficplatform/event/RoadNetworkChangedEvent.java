@@ -0,0 +1,20 @@
+package com.example.enshitrafficplatform.event;
+
+import lombok.Getter;
+
+/**
+ * 路网变更事件
+ * 区域、道路或路段写入后发布，用于刷新依赖路段几何、限速等路网属性的缓存
+ */
+@Getter
+public class RoadNetworkChangedEvent {
+
+    /**
+     * 发生变更的实体类型
+     */
+    private final Class<?> entityType;
+
+    public RoadNetworkChangedEvent(Class<?> entityType) {
+        this.entityType = entityType;
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.enshitrafficplatform.event;
+
+import com.example.enshitrafficplatform.weather.SectionWeatherJoin;
+import lombok.Getter;
+
+/**
+ * 路段天气关联刷新事件
+ * 新的 {@link SectionWeatherJoin} 安装后发布，供按路段天气计算的下游结构更新
+ */
+@Getter
+public class SectionWeatherRefreshedEvent {
+
+    /**
+     * 刷新后的空间关联
+     */
+    private final SectionWeatherJoin join;
+
+    /**
+     * 观测站的当前观测是否更新；为false时只是路段关联变化
+     */
+    private final boolean stationsChanged;
+
+    public SectionWeatherRefreshedEvent(SectionWeatherJoin join, boolean stationsChanged) {
+        this.join = join;
+        this.stationsChanged = stationsChanged;
+    }
+}
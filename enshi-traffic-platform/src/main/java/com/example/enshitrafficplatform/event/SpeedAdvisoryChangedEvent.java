@@ -0,0 +1,30 @@
+package com.example.enshitrafficplatform.event;
+
+import lombok.Getter;
+
+/**
+ * 路段建议车速变化事件
+ * 只在路段的建议车速与上一次发布的不同时发布，供情报板等下游推送；
+ * 在天气评分或建议车速矩阵的更新线程上同步发布，监听器应尽快返回
+ */
+@Getter
+public class SpeedAdvisoryChangedEvent {
+
+    private final Long roadSectionId;
+
+    /**
+     * 变化前的建议车速（公里/小时），此前没有建议时为null
+     */
+    private final Integer previousSpeed;
+
+    /**
+     * 新的建议车速（公里/小时），路段不再有建议（如附近没有观测站）时为null
+     */
+    private final Integer advisedSpeed;
+
+    public SpeedAdvisoryChangedEvent(Long roadSectionId, Integer previousSpeed, Integer advisedSpeed) {
+        this.roadSectionId = roadSectionId;
+        this.previousSpeed = previousSpeed;
+        this.advisedSpeed = advisedSpeed;
+    }
+}
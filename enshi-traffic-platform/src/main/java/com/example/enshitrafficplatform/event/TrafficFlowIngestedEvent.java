@@ -0,0 +1,23 @@
+package com.example.enshitrafficplatform.event;
+
+import com.example.enshitrafficplatform.dto.FlowReading;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 交通流量记录入库事件
+ * 在流量记录持久化后发布，携带基本类型形式的读数，供内存统计结构增量更新
+ */
+@Getter
+public class TrafficFlowIngestedEvent {
+
+    /**
+     * 本次入库的读数
+     */
+    private final List<FlowReading> readings;
+
+    public TrafficFlowIngestedEvent(List<FlowReading> readings) {
+        this.readings = List.copyOf(readings);
+    }
+}
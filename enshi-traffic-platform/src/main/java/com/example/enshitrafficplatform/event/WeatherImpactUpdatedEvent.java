@@ -0,0 +1,21 @@
+package com.example.enshitrafficplatform.event;
+
+import com.example.enshitrafficplatform.weather.WeatherImpactTable;
+import lombok.Getter;
+
+/**
+ * 路段天气影响评分表更新事件
+ * 新的 {@link WeatherImpactTable} 安装后发布
+ */
+@Getter
+public class WeatherImpactUpdatedEvent {
+
+    /**
+     * 更新后的评分表
+     */
+    private final WeatherImpactTable table;
+
+    public WeatherImpactUpdatedEvent(WeatherImpactTable table) {
+        this.table = table;
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.enshitrafficplatform.event;
+
+import com.example.enshitrafficplatform.entity.WeatherRecord;
+import jakarta.persistence.PostPersist;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * 天气记录实体的JPA监听器
+ * 新记录写入后发布 {@link WeatherRecordedEvent}；监听器实例由Spring创建，可注入事件发布器
+ */
+public class WeatherRecordListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public WeatherRecordListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    public void onPersist(WeatherRecord record) {
+        eventPublisher.publishEvent(new WeatherRecordedEvent(record));
+    }
+}
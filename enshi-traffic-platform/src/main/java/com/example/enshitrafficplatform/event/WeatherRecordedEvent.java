@@ -0,0 +1,21 @@
+package com.example.enshitrafficplatform.event;
+
+import com.example.enshitrafficplatform.entity.WeatherRecord;
+import lombok.Getter;
+
+/**
+ * 天气记录入库事件
+ * 天气记录持久化后发布，用于触发路段天气关联等内存结构的刷新
+ */
+@Getter
+public class WeatherRecordedEvent {
+
+    /**
+     * 新入库的天气记录
+     */
+    private final WeatherRecord record;
+
+    public WeatherRecordedEvent(WeatherRecord record) {
+        this.record = record;
+    }
+}
@@ -0,0 +1,83 @@
+package com.example.enshitrafficplatform.export;
+
+/**
+ * 列式导出的列定义
+ * 列的顺序即批次内各列数据的写入顺序；缺失值沿用 FlowReading 的约定：整型为-1，浮点为NaN
+ */
+public enum FlowColumn {
+
+    RECORD_ID("record_id", ColumnType.INT64),
+
+    MONITORING_POINT_ID("monitoring_point_id", ColumnType.INT64),
+
+    ROAD_SECTION_ID("road_section_id", ColumnType.INT64),
+
+    EPOCH_SECOND("epoch_second", ColumnType.INT64),
+
+    FLOW_RATE("flow_rate", ColumnType.INT32),
+
+    AVERAGE_SPEED("average_speed", ColumnType.FLOAT64),
+
+    OCCUPANCY_RATE("occupancy_rate", ColumnType.FLOAT64),
+
+    LARGE_VEHICLE_COUNT("large_vehicle_count", ColumnType.INT32),
+
+    MEDIUM_VEHICLE_COUNT("medium_vehicle_count", ColumnType.INT32),
+
+    SMALL_VEHICLE_COUNT("small_vehicle_count", ColumnType.INT32),
+
+    HEADWAY("headway", ColumnType.FLOAT64),
+
+    DATA_QUALITY("data_quality", ColumnType.INT32),
+
+    WEATHER_CODE("weather_code", ColumnType.INT8),
+
+    DIRECTION_CODE("direction_code", ColumnType.INT8),
+
+    CONGESTION_LEVEL_CODE("congestion_level_code", ColumnType.INT8);
+
+    private final String columnName;
+
+    private final ColumnType type;
+
+    FlowColumn(String columnName, ColumnType type) {
+        this.columnName = columnName;
+        this.type = type;
+    }
+
+    public String getColumnName() {
+        return columnName;
+    }
+
+    public ColumnType getType() {
+        return type;
+    }
+
+    /**
+     * 列的物理类型
+     */
+    public enum ColumnType {
+
+        INT8(1),
+
+        INT32(4),
+
+        INT64(8),
+
+        FLOAT64(8);
+
+        private final int width;
+
+        ColumnType(int width) {
+            this.width = width;
+        }
+
+        /**
+         * 每个值占用的字节数
+         * @return 字节数
+         */
+        public int getWidth() {
+            return width;
+        }
+    }
+}
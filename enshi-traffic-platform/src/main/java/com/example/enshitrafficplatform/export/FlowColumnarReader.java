@@ -0,0 +1,242 @@
+package com.example.enshitrafficplatform.export;
+
+import com.example.enshitrafficplatform.dto.FlowReading;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 流量读数列式导出读取器
+ * 读取 {@link FlowColumnarWriter} 写出的流，逐批次装载到复用的列数组中。非线程安全
+ */
+public class FlowColumnarReader {
+
+    private final DataInputStream in;
+
+    private final Map<String, Map<Byte, String>> dictionaries = new HashMap<>();
+
+    private long[] recordIds = new long[0];
+
+    private long[] monitoringPointIds = new long[0];
+
+    private long[] roadSectionIds = new long[0];
+
+    private long[] epochSeconds = new long[0];
+
+    private int[] flowRates = new int[0];
+
+    private double[] averageSpeeds = new double[0];
+
+    private double[] occupancyRates = new double[0];
+
+    private int[] largeVehicleCounts = new int[0];
+
+    private int[] mediumVehicleCounts = new int[0];
+
+    private int[] smallVehicleCounts = new int[0];
+
+    private double[] headways = new double[0];
+
+    private int[] dataQualities = new int[0];
+
+    private byte[] weatherCodes = new byte[0];
+
+    private byte[] directionCodes = new byte[0];
+
+    private byte[] congestionLevelCodes = new byte[0];
+
+    private byte[] batchBytes = new byte[0];
+
+    private int rowWidth;
+
+    private int size;
+
+    private long totalRows = -1;
+
+    /**
+     * 创建读取器并读取文件头
+     * @param input 输入流，调用方负责关闭
+     * @throws IOException 读取失败或格式不兼容
+     */
+    public FlowColumnarReader(InputStream input) throws IOException {
+        this.in = new DataInputStream(input);
+        readHeader();
+    }
+
+    /**
+     * 读取下一个批次
+     * @return 批次行数，已到结束标记时返回-1
+     * @throws IOException 读取失败或内容不完整
+     */
+    public int nextBatch() throws IOException {
+        if (totalRows >= 0) {
+            return -1;
+        }
+        int marker = Integer.reverseBytes(in.readInt());
+        if (marker == FlowColumnarWriter.END_MARKER) {
+            totalRows = Long.reverseBytes(in.readLong());
+            size = 0;
+            return -1;
+        }
+        if (marker != FlowColumnarWriter.BATCH_MARKER) {
+            throw new IOException("列式导出批次标记错误：" + marker);
+        }
+        int rows = Integer.reverseBytes(in.readInt());
+        if (rows < 0) {
+            throw new IOException("列式导出批次行数错误：" + rows);
+        }
+        ensureCapacity(rows);
+        int length = rows * rowWidth;
+        in.readFully(batchBytes, 0, length);
+        ByteBuffer buffer = ByteBuffer.wrap(batchBytes, 0, length).order(ByteOrder.LITTLE_ENDIAN);
+        getLongs(buffer, recordIds, rows);
+        getLongs(buffer, monitoringPointIds, rows);
+        getLongs(buffer, roadSectionIds, rows);
+        getLongs(buffer, epochSeconds, rows);
+        getInts(buffer, flowRates, rows);
+        getDoubles(buffer, averageSpeeds, rows);
+        getDoubles(buffer, occupancyRates, rows);
+        getInts(buffer, largeVehicleCounts, rows);
+        getInts(buffer, mediumVehicleCounts, rows);
+        getInts(buffer, smallVehicleCounts, rows);
+        getDoubles(buffer, headways, rows);
+        getInts(buffer, dataQualities, rows);
+        buffer.get(weatherCodes, 0, rows);
+        buffer.get(directionCodes, 0, rows);
+        buffer.get(congestionLevelCodes, 0, rows);
+        size = rows;
+        return rows;
+    }
+
+    /**
+     * 将当前批次的一行填充到读数
+     * @param row 行号
+     * @param target 目标读数
+     */
+    public void read(int row, FlowReading target) {
+        if (row >= size) {
+            throw new IndexOutOfBoundsException("行号越界：" + row);
+        }
+        target.reset();
+        target.setRecordId(recordIds[row]);
+        target.setMonitoringPointId(monitoringPointIds[row]);
+        target.setRoadSectionId(roadSectionIds[row]);
+        target.setEpochSecond(epochSeconds[row]);
+        target.setFlowRate(flowRates[row]);
+        target.setAverageSpeed(averageSpeeds[row]);
+        target.setOccupancyRate(occupancyRates[row]);
+        target.setLargeVehicleCount(largeVehicleCounts[row]);
+        target.setMediumVehicleCount(mediumVehicleCounts[row]);
+        target.setSmallVehicleCount(smallVehicleCounts[row]);
+        target.setHeadway(headways[row]);
+        target.setDataQuality(dataQualities[row]);
+        target.setWeatherCondition(dictionaries.get(FlowColumn.WEATHER_CODE.getColumnName()).get(weatherCodes[row]));
+        target.setDirectionCode(directionCodes[row]);
+        target.setCongestionLevelCode(congestionLevelCodes[row]);
+    }
+
+    /**
+     * 文件头中的枚举编码字典
+     * @param column 列
+     * @return 编码到描述的映射，该列无字典时为空映射
+     */
+    public Map<Byte, String> getDictionary(FlowColumn column) {
+        return dictionaries.getOrDefault(column.getColumnName(), Map.of());
+    }
+
+    /**
+     * 结束标记中记录的总行数
+     * @return 总行数，尚未读到结束标记时为-1
+     */
+    public long getTotalRows() {
+        return totalRows;
+    }
+
+    private void readHeader() throws IOException {
+        if (Integer.reverseBytes(in.readInt()) != FlowColumnarWriter.MAGIC) {
+            throw new IOException("不是流量列式导出文件");
+        }
+        int version = Short.reverseBytes(in.readShort());
+        if (version != FlowColumnarWriter.VERSION) {
+            throw new IOException("不支持的列式导出版本：" + version);
+        }
+        FlowColumn[] columns = FlowColumn.values();
+        int columnCount = Short.reverseBytes(in.readShort());
+        if (columnCount != columns.length) {
+            throw new IOException("列式导出列数不兼容：" + columnCount);
+        }
+        for (FlowColumn column : columns) {
+            String name = readString();
+            int type = in.readByte();
+            if (!column.getColumnName().equals(name) || type != column.getType().ordinal()) {
+                throw new IOException("列式导出列定义不兼容：" + name);
+            }
+            rowWidth += column.getType().getWidth();
+        }
+        int dictionaryCount = Short.reverseBytes(in.readShort());
+        for (int i = 0; i < dictionaryCount; i++) {
+            String columnName = readString();
+            int entries = Short.reverseBytes(in.readShort());
+            Map<Byte, String> dictionary = new LinkedHashMap<>();
+            for (int j = 0; j < entries; j++) {
+                byte code = in.readByte();
+                dictionary.put(code, readString());
+            }
+            dictionaries.put(columnName, Collections.unmodifiableMap(dictionary));
+        }
+    }
+
+    private String readString() throws IOException {
+        byte[] bytes = new byte[Short.toUnsignedInt(Short.reverseBytes(in.readShort()))];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private void ensureCapacity(int rows) {
+        if (rows <= recordIds.length) {
+            return;
+        }
+        recordIds = new long[rows];
+        monitoringPointIds = new long[rows];
+        roadSectionIds = new long[rows];
+        epochSeconds = new long[rows];
+        flowRates = new int[rows];
+        averageSpeeds = new double[rows];
+        occupancyRates = new double[rows];
+        largeVehicleCounts = new int[rows];
+        mediumVehicleCounts = new int[rows];
+        smallVehicleCounts = new int[rows];
+        headways = new double[rows];
+        dataQualities = new int[rows];
+        weatherCodes = new byte[rows];
+        directionCodes = new byte[rows];
+        congestionLevelCodes = new byte[rows];
+        batchBytes = new byte[rows * rowWidth];
+    }
+
+    private static void getLongs(ByteBuffer buffer, long[] values, int rows) {
+        for (int i = 0; i < rows; i++) {
+            values[i] = buffer.getLong();
+        }
+    }
+
+    private static void getInts(ByteBuffer buffer, int[] values, int rows) {
+        for (int i = 0; i < rows; i++) {
+            values[i] = buffer.getInt();
+        }
+    }
+
+    private static void getDoubles(ByteBuffer buffer, double[] values, int rows) {
+        for (int i = 0; i < rows; i++) {
+            values[i] = buffer.getDouble();
+        }
+    }
+}
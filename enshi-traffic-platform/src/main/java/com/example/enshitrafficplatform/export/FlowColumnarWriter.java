@@ -0,0 +1,251 @@
+package com.example.enshitrafficplatform.export;
+
+import com.example.enshitrafficplatform.dictionary.CongestionLevel;
+import com.example.enshitrafficplatform.dictionary.DictionaryCode;
+import com.example.enshitrafficplatform.dictionary.Direction;
+import com.example.enshitrafficplatform.dictionary.WeatherCondition;
+import com.example.enshitrafficplatform.dto.FlowReading;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+/**
+ * 流量读数列式导出写入器
+ * 按批次把读数写为列式二进制流，结构与 Arrow IPC 流类似：先写模式，再写若干记录批次，最后写结束标记。
+ * 所有数值均为小端序：
+ * <pre>
+ * 文件头：魔数 int32、版本 int16、列数 int16，每列为 名称（int16长度 + UTF-8）、类型 int8；
+ *        字典数 int16，每个字典为 列名、条目数 int16，每条为 编码 int8、描述
+ * 批次：  标记 int32 = 1、行数 int32，随后按列顺序依次为各列的定长值数组
+ * 结束：  标记 int32 = 0、总行数 int64
+ * </pre>
+ * 天气、通行方向与拥堵级别只导出字典编码，天气字典之外的描述统一为“其他”。
+ * 读数写入后立即复制到列数组，调用方可复用读数实例；写入过程不为每行创建对象。非线程安全
+ */
+public class FlowColumnarWriter implements Consumer<FlowReading> {
+
+    public static final int MAGIC = 0x43465445;
+
+    public static final int VERSION = 2;
+
+    static final int BATCH_MARKER = 1;
+
+    static final int END_MARKER = 0;
+
+    private final OutputStream out;
+
+    private final int batchRows;
+
+    private final long[] recordIds;
+
+    private final long[] monitoringPointIds;
+
+    private final long[] roadSectionIds;
+
+    private final long[] epochSeconds;
+
+    private final int[] flowRates;
+
+    private final double[] averageSpeeds;
+
+    private final double[] occupancyRates;
+
+    private final int[] largeVehicleCounts;
+
+    private final int[] mediumVehicleCounts;
+
+    private final int[] smallVehicleCounts;
+
+    private final double[] headways;
+
+    private final int[] dataQualities;
+
+    private final byte[] weatherCodes;
+
+    private final byte[] directionCodes;
+
+    private final byte[] congestionLevelCodes;
+
+    private final ByteBuffer batchBuffer;
+
+    private int size;
+
+    private long totalRows;
+
+    private long bytesWritten;
+
+    /**
+     * 创建写入器并立即写出文件头
+     * @param out 输出流，调用方负责关闭
+     * @param batchRows 每个批次的行数
+     * @throws IOException 写入失败
+     */
+    public FlowColumnarWriter(OutputStream out, int batchRows) throws IOException {
+        if (batchRows <= 0) {
+            throw new IllegalArgumentException("批次行数必须大于0");
+        }
+        this.out = out;
+        this.batchRows = batchRows;
+        this.recordIds = new long[batchRows];
+        this.monitoringPointIds = new long[batchRows];
+        this.roadSectionIds = new long[batchRows];
+        this.epochSeconds = new long[batchRows];
+        this.flowRates = new int[batchRows];
+        this.averageSpeeds = new double[batchRows];
+        this.occupancyRates = new double[batchRows];
+        this.largeVehicleCounts = new int[batchRows];
+        this.mediumVehicleCounts = new int[batchRows];
+        this.smallVehicleCounts = new int[batchRows];
+        this.headways = new double[batchRows];
+        this.dataQualities = new int[batchRows];
+        this.weatherCodes = new byte[batchRows];
+        this.directionCodes = new byte[batchRows];
+        this.congestionLevelCodes = new byte[batchRows];
+        int rowWidth = 0;
+        for (FlowColumn column : FlowColumn.values()) {
+            rowWidth += column.getType().getWidth();
+        }
+        this.batchBuffer = ByteBuffer.allocate(8 + batchRows * rowWidth).order(ByteOrder.LITTLE_ENDIAN);
+        writeHeader();
+    }
+
+    @Override
+    public void accept(FlowReading reading) {
+        int row = size++;
+        recordIds[row] = reading.getRecordId();
+        monitoringPointIds[row] = reading.getMonitoringPointId();
+        roadSectionIds[row] = reading.getRoadSectionId();
+        epochSeconds[row] = reading.getEpochSecond();
+        flowRates[row] = reading.getFlowRate();
+        averageSpeeds[row] = reading.getAverageSpeed();
+        occupancyRates[row] = reading.getOccupancyRate();
+        largeVehicleCounts[row] = reading.getLargeVehicleCount();
+        mediumVehicleCounts[row] = reading.getMediumVehicleCount();
+        smallVehicleCounts[row] = reading.getSmallVehicleCount();
+        headways[row] = reading.getHeadway();
+        dataQualities[row] = reading.getDataQuality();
+        weatherCodes[row] = reading.getWeatherCode();
+        directionCodes[row] = reading.getDirectionCode();
+        congestionLevelCodes[row] = reading.getCongestionLevelCode();
+        if (size == batchRows) {
+            try {
+                writeBatch();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /**
+     * 写出剩余的批次与结束标记
+     * @return 写出的总行数
+     * @throws IOException 写入失败
+     */
+    public long finish() throws IOException {
+        if (size > 0) {
+            writeBatch();
+        }
+        ByteBuffer end = ByteBuffer.allocate(12).order(ByteOrder.LITTLE_ENDIAN);
+        end.putInt(END_MARKER).putLong(totalRows);
+        write(end);
+        out.flush();
+        return totalRows;
+    }
+
+    public long getTotalRows() {
+        return totalRows;
+    }
+
+    /**
+     * 已写出的字节数
+     * @return 字节数
+     */
+    public long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    private void writeHeader() throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(4096).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC);
+        header.putShort((short) VERSION);
+        header.putShort((short) FlowColumn.values().length);
+        for (FlowColumn column : FlowColumn.values()) {
+            putString(header, column.getColumnName());
+            header.put((byte) column.getType().ordinal());
+        }
+        // 枚举编码列的字典
+        header.putShort((short) 3);
+        putDictionary(header, FlowColumn.WEATHER_CODE, WeatherCondition.values());
+        putDictionary(header, FlowColumn.DIRECTION_CODE, Direction.values());
+        putDictionary(header, FlowColumn.CONGESTION_LEVEL_CODE, CongestionLevel.values());
+        write(header);
+    }
+
+    private static void putDictionary(ByteBuffer header, FlowColumn column, DictionaryCode[] values) {
+        putString(header, column.getColumnName());
+        header.putShort((short) values.length);
+        for (DictionaryCode value : values) {
+            header.put(value.getCode());
+            putString(header, value.getLabel());
+        }
+    }
+
+    private void writeBatch() throws IOException {
+        ByteBuffer buffer = batchBuffer;
+        buffer.clear();
+        buffer.putInt(BATCH_MARKER);
+        buffer.putInt(size);
+        putLongs(buffer, recordIds);
+        putLongs(buffer, monitoringPointIds);
+        putLongs(buffer, roadSectionIds);
+        putLongs(buffer, epochSeconds);
+        putInts(buffer, flowRates);
+        putDoubles(buffer, averageSpeeds);
+        putDoubles(buffer, occupancyRates);
+        putInts(buffer, largeVehicleCounts);
+        putInts(buffer, mediumVehicleCounts);
+        putInts(buffer, smallVehicleCounts);
+        putDoubles(buffer, headways);
+        putInts(buffer, dataQualities);
+        buffer.put(weatherCodes, 0, size);
+        buffer.put(directionCodes, 0, size);
+        buffer.put(congestionLevelCodes, 0, size);
+        write(buffer);
+        totalRows += size;
+        size = 0;
+    }
+
+    private void putLongs(ByteBuffer buffer, long[] values) {
+        for (int i = 0; i < size; i++) {
+            buffer.putLong(values[i]);
+        }
+    }
+
+    private void putInts(ByteBuffer buffer, int[] values) {
+        for (int i = 0; i < size; i++) {
+            buffer.putInt(values[i]);
+        }
+    }
+
+    private void putDoubles(ByteBuffer buffer, double[] values) {
+        for (int i = 0; i < size; i++) {
+            buffer.putDouble(values[i]);
+        }
+    }
+
+    private static void putString(ByteBuffer buffer, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        buffer.putShort((short) bytes.length);
+        buffer.put(bytes);
+    }
+
+    private void write(ByteBuffer buffer) throws IOException {
+        out.write(buffer.array(), 0, buffer.position());
+        bytesWritten += buffer.position();
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.enshitrafficplatform.export;
+
+import com.example.enshitrafficplatform.dto.FlowReading;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * 流量历史列式导出命令行工具
+ * 从导出接口下载列式流到本地文件，再完整解析一遍，分别输出下载与解析的吞吐（行/秒）。
+ * 用法：FlowExportCli 服务地址 开始时间 结束时间 路段ID列表 [输出文件]，服务地址需包含上下文路径，
+ * 例如 FlowExportCli http://localhost:8080/api 2024-01-01T00:00:00 2024-02-01T00:00:00 1,2,3 flow.etfc
+ */
+public final class FlowExportCli {
+
+    private FlowExportCli() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        if (args.length < 4) {
+            System.err.println("用法：FlowExportCli 服务地址 开始时间 结束时间 路段ID列表 [输出文件]");
+            System.exit(1);
+        }
+        Path output = Paths.get(args.length > 4 ? args[4] : "traffic-flow.etfc");
+        URI uri = URI.create(args[0] + "/export/flow"
+                + "?startTime=" + encode(args[1])
+                + "&endTime=" + encode(args[2])
+                + "&sectionIds=" + encode(args[3]));
+
+        long downloadStart = System.nanoTime();
+        HttpResponse<Path> response = HttpClient.newHttpClient()
+                .send(HttpRequest.newBuilder(uri).GET().build(), HttpResponse.BodyHandlers.ofFile(output));
+        long downloadNanos = System.nanoTime() - downloadStart;
+        if (response.statusCode() != 200) {
+            System.err.println("导出失败，HTTP状态码：" + response.statusCode());
+            System.exit(2);
+        }
+
+        long parseStart = System.nanoTime();
+        long rows = 0;
+        FlowReading reading = new FlowReading();
+        try (InputStream in = new BufferedInputStream(Files.newInputStream(output), 1 << 16)) {
+            FlowColumnarReader reader = new FlowColumnarReader(in);
+            int batch;
+            while ((batch = reader.nextBatch()) >= 0) {
+                for (int row = 0; row < batch; row++) {
+                    reader.read(row, reading);
+                }
+                rows += batch;
+            }
+            if (reader.getTotalRows() != rows) {
+                throw new IOException("导出文件行数不一致：" + rows + "/" + reader.getTotalRows());
+            }
+        }
+        long parseNanos = System.nanoTime() - parseStart;
+
+        System.out.printf("导出%d行，%d字节，写入 %s%n", rows, Files.size(output), output.toAbsolutePath());
+        System.out.printf("下载耗时%dms，%d行/秒%n", downloadNanos / 1_000_000, rowsPerSecond(rows, downloadNanos));
+        System.out.printf("解析耗时%dms，%d行/秒%n", parseNanos / 1_000_000, rowsPerSecond(rows, parseNanos));
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static long rowsPerSecond(long rows, long elapsedNanos) {
+        return elapsedNanos > 0 ? rows * 1_000_000_000L / elapsedNanos : rows;
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.enshitrafficplatform.peak;
+
+import com.example.enshitrafficplatform.util.DateUtils;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Objects;
+
+/**
+ * 编译后的高峰期规则
+ * 时段与适用星期编译为周内分钟位图，生效日期转换为本地纪元日区间，判定时不再创建时间对象。
+ * 与 PeakPeriodRule 的判定口径一致：生效日期、星期与日期类型均按被判定时刻所在的日期计算，规则状态不参与判定。
+ * 按日期类型适用的规则位图中每天的时段相同，日期类型在判定时查 {@link HolidayCalendar#getDefault()}
+ */
+@Getter
+public final class CompiledPeakRule {
+
+    /**
+     * 不按日期类型过滤的掩码
+     */
+    public static final int ALL_DAY_TYPES = -1;
+
+    private final Long ruleId;
+
+    private final int priority;
+
+    /**
+     * 生效起始纪元日（含），不限制时为 Long.MIN_VALUE
+     */
+    private final long fromEpochDay;
+
+    /**
+     * 生效结束纪元日（含），不限制时为 Long.MAX_VALUE
+     */
+    private final long toEpochDay;
+
+    /**
+     * 适用日期类型掩码，第 n 位对应编码为 n 的日期类型；不过滤时为 {@link #ALL_DAY_TYPES}
+     */
+    private final int dayTypeMask;
+
+    private final PeakWeekBitmap bitmap;
+
+    public CompiledPeakRule(Long ruleId, int priority, LocalDate effectiveFrom, LocalDate effectiveTo,
+                            int dayTypeMask, PeakWeekBitmap bitmap) {
+        this.ruleId = ruleId;
+        this.priority = priority;
+        this.fromEpochDay = effectiveFrom != null ? effectiveFrom.toEpochDay() : Long.MIN_VALUE;
+        this.toEpochDay = effectiveTo != null ? effectiveTo.toEpochDay() : Long.MAX_VALUE;
+        this.dayTypeMask = dayTypeMask;
+        this.bitmap = bitmap;
+    }
+
+    /**
+     * 是否按日期类型适用
+     * @return 是否需要查节假日日历
+     */
+    public boolean hasDayTypeFilter() {
+        return dayTypeMask != ALL_DAY_TYPES;
+    }
+
+    /**
+     * 判断规则是否适用于某一日期类型
+     * @param dayTypeCode 日期类型编码
+     * @return 是否适用
+     */
+    public boolean appliesToDayType(int dayTypeCode) {
+        return (dayTypeMask & (1 << dayTypeCode)) != 0;
+    }
+
+    private boolean matchesDayType(long epochDay) {
+        return !hasDayTypeFilter() || appliesToDayType(HolidayCalendar.getDefault().dayTypeCode(epochDay));
+    }
+
+    /**
+     * 判断规则在某一本地纪元日是否生效
+     * @param epochDay 本地纪元日
+     * @return 是否生效
+     */
+    public boolean isEffectiveOn(long epochDay) {
+        return epochDay >= fromEpochDay && epochDay <= toEpochDay;
+    }
+
+    /**
+     * 判断本地时间是否处于高峰期，按分钟粒度判定
+     * @param dateTime 本地时间
+     * @return 是否处于高峰期
+     */
+    public boolean isPeak(LocalDateTime dateTime) {
+        long epochDay = dateTime.toLocalDate().toEpochDay();
+        return isEffectiveOn(epochDay) && bitmap.get(DateUtils.minuteOfWeek(dateTime)) && matchesDayType(epochDay);
+    }
+
+    /**
+     * 统计从 from 起每隔一分钟采样、直到 to（含）为止的采样点中处于高峰期的个数，即重叠的高峰期分钟数
+     * 采样点的周内分钟按周循环，整周部分直接相乘，再按位统计首尾不足一周的部分，并裁剪到生效日期，
+     * 耗时与时间范围长度无关。位图须以 from 的分钟内偏移编译
+     * @param from 开始时间
+     * @param to 结束时间
+     * @return 高峰期分钟数
+     */
+    public long countPeakMinutes(LocalDateTime from, LocalDateTime to) {
+        long fromSecond = DateUtils.toEpochSecond(from);
+        long lastSample = ChronoUnit.MINUTES.between(from, to);
+        // 采样点与 from 的亚秒部分相同，比较整秒即可判断是否落在生效日期的日界之内
+        long first = 0;
+        if (fromEpochDay != Long.MIN_VALUE) {
+            first = Math.max(first, ceilMinutes(DateUtils.startOfEpochDay(fromEpochDay) - fromSecond));
+        }
+        long last = lastSample;
+        if (toEpochDay != Long.MAX_VALUE) {
+            last = Math.min(last, ceilMinutes(DateUtils.startOfEpochDay(toEpochDay + 1) - fromSecond) - 1);
+        }
+        if (first > last) {
+            return 0L;
+        }
+        if (hasDayTypeFilter()) {
+            return countByDayType(fromSecond, first, last);
+        }
+        int start = (int) ((DateUtils.minuteOfWeek(from) + first) % DateUtils.MINUTES_PER_WEEK);
+        return bitmap.countCyclic(start, last - first + 1);
+    }
+
+    /**
+     * 按日期类型统计采样点：首尾两天按位统计，中间整天数由节假日日历的前缀计数得出，乘以每天的高峰分钟数
+     */
+    private long countByDayType(long fromSecond, long first, long last) {
+        HolidayCalendar calendar = HolidayCalendar.getDefault();
+        int minutesPerDay = PeakWeekBitmap.MINUTES_PER_DAY;
+        long fromMinute = Math.floorDiv(fromSecond + DateUtils.ZONE_OFFSET_SECONDS, 60L);
+        long firstDay = Math.floorDiv(fromMinute + first, minutesPerDay);
+        long lastDay = Math.floorDiv(fromMinute + last, minutesPerDay);
+        int firstMinute = (int) Math.floorMod(fromMinute + first, minutesPerDay);
+        int lastMinute = (int) Math.floorMod(fromMinute + last, minutesPerDay);
+        boolean firstMatches = appliesToDayType(calendar.dayTypeCode(firstDay));
+        if (firstDay == lastDay) {
+            return firstMatches ? bitmap.count(firstMinute, lastMinute + 1) : 0L;
+        }
+        long count = firstMatches ? bitmap.count(firstMinute, minutesPerDay) : 0L;
+        if (appliesToDayType(calendar.dayTypeCode(lastDay))) {
+            count += bitmap.count(0, lastMinute + 1);
+        }
+        return count + (long) bitmap.count(0, minutesPerDay) * calendar.countDays(firstDay + 1, lastDay, dayTypeMask);
+    }
+
+    /**
+     * 判断纪元秒（UTC+8）是否处于高峰期，按分钟粒度判定
+     * @param epochSecond 纪元秒
+     * @return 是否处于高峰期
+     */
+    public boolean isPeak(long epochSecond) {
+        long epochDay = DateUtils.localEpochDay(epochSecond);
+        return isEffectiveOn(epochDay) && bitmap.get(DateUtils.minuteOfWeek(epochSecond)) && matchesDayType(epochDay);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof CompiledPeakRule)) return false;
+        CompiledPeakRule that = (CompiledPeakRule) o;
+        return priority == that.priority && fromEpochDay == that.fromEpochDay && toEpochDay == that.toEpochDay
+                && dayTypeMask == that.dayTypeMask && Objects.equals(ruleId, that.ruleId)
+                && bitmap.equals(that.bitmap);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(ruleId, priority, fromEpochDay, toEpochDay, dayTypeMask, bitmap);
+    }
+
+    private static long ceilMinutes(long seconds) {
+        return -Math.floorDiv(-seconds, 60L);
+    }
+}
@@ -0,0 +1,248 @@
+package com.example.enshitrafficplatform.peak;
+
+import com.example.enshitrafficplatform.dictionary.DayType;
+import com.example.enshitrafficplatform.util.DateUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 节假日日历
+ * 为若干整年预先计算每一天的日期类型，以字节数组按纪元日下标存放，查询为一次数组访问；
+ * 同时按日期类型保存前缀计数，区间内某类日期的天数可在常数时间内算出。
+ * 表外的日期按周一至周五为工作日、周六周日为周末处理。
+ * 实例不可变，全局默认日历由 HolidayCalendarService 加载节假日文件后替换，实体对全局实例的依赖见 {@link PeakScheduleTable}
+ */
+public final class HolidayCalendar {
+
+    private static final DayType[] DAY_TYPES = DayType.values();
+
+    private static final HolidayCalendar WEEKENDS_ONLY = new HolidayCalendar(0L, new byte[0], Map.of());
+
+    private static volatile HolidayCalendar defaultCalendar = WEEKENDS_ONLY;
+
+    private final long firstEpochDay;
+
+    private final byte[] dayTypes;
+
+    /**
+     * 每种日期类型的前缀计数，prefixCounts[类型][i] 为表内前 i 天中该类型的天数
+     */
+    private final int[][] prefixCounts;
+
+    private final Map<Long, String> holidayNames;
+
+    private HolidayCalendar(long firstEpochDay, byte[] dayTypes, Map<Long, String> holidayNames) {
+        this.firstEpochDay = firstEpochDay;
+        this.dayTypes = dayTypes;
+        this.holidayNames = holidayNames;
+        this.prefixCounts = new int[DAY_TYPES.length][dayTypes.length + 1];
+        for (int i = 0; i < dayTypes.length; i++) {
+            for (int type = 0; type < DAY_TYPES.length; type++) {
+                prefixCounts[type][i + 1] = prefixCounts[type][i] + (dayTypes[i] == type ? 1 : 0);
+            }
+        }
+    }
+
+    public static HolidayCalendar getDefault() {
+        return defaultCalendar;
+    }
+
+    public static void setDefault(HolidayCalendar calendar) {
+        defaultCalendar = calendar != null ? calendar : WEEKENDS_ONLY;
+    }
+
+    /**
+     * 只区分工作日与周末、不含节假日的日历
+     * @return 日历
+     */
+    public static HolidayCalendar weekendsOnly() {
+        return WEEKENDS_ONLY;
+    }
+
+    /**
+     * 解析节假日文件并生成 [firstYear, lastYear] 的日期类型表
+     * 文件每行一条：日期或日期区间（yyyy-MM-dd 或 yyyy-MM-dd~yyyy-MM-dd）、日期类型、名称，以英文逗号分隔；
+     * 日期类型为 {@link DayType} 的中文描述或枚举名，通常只需列出节假日和调休上班日；空行和以 # 开头的行忽略
+     * @param reader 文件内容
+     * @param firstYear 起始年份（含）
+     * @param lastYear 结束年份（含）
+     * @return 日历
+     * @throws IOException 读取失败
+     * @throws IllegalArgumentException 行格式错误
+     */
+    public static HolidayCalendar parse(BufferedReader reader, int firstYear, int lastYear) throws IOException {
+        if (lastYear < firstYear) {
+            throw new IllegalArgumentException("结束年份不能早于起始年份");
+        }
+        long first = LocalDate.of(firstYear, 1, 1).toEpochDay();
+        long end = LocalDate.of(lastYear + 1, 1, 1).toEpochDay();
+        byte[] types = new byte[(int) (end - first)];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = weekdayType(first + i).getCode();
+        }
+        Map<Long, String> names = new HashMap<>();
+
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split(",", 3);
+            if (parts.length < 2) {
+                throw new IllegalArgumentException("节假日文件第" + lineNumber + "行格式错误：" + line);
+            }
+            long from;
+            long to;
+            try {
+                String[] range = parts[0].trim().split("~", 2);
+                from = LocalDate.parse(range[0].trim()).toEpochDay();
+                to = range.length > 1 ? LocalDate.parse(range[1].trim()).toEpochDay() : from;
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("节假日文件第" + lineNumber + "行日期错误：" + line, e);
+            }
+            DayType type = parseDayType(parts[1].trim(), lineNumber);
+            String name = parts.length > 2 ? parts[2].trim() : null;
+            for (long day = Math.max(from, first); day <= Math.min(to, end - 1); day++) {
+                types[(int) (day - first)] = type.getCode();
+                if (name != null && !name.isEmpty()) {
+                    names.put(day, name);
+                }
+            }
+        }
+        return new HolidayCalendar(first, types, Collections.unmodifiableMap(names));
+    }
+
+    private static DayType parseDayType(String value, int lineNumber) {
+        if (DayType.dictionary().contains(value)) {
+            return DayType.fromLabel(value);
+        }
+        try {
+            return DayType.valueOf(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("节假日文件第" + lineNumber + "行日期类型错误：" + value, e);
+        }
+    }
+
+    private static DayType weekdayType(long epochDay) {
+        // 1970-01-01为周四，序号5、6为周六、周日
+        return Math.floorMod(epochDay + 3, 7) >= 5 ? DayType.WEEKEND : DayType.WORKDAY;
+    }
+
+    /**
+     * 获取本地纪元日的日期类型编码
+     * @param epochDay 本地纪元日
+     * @return 日期类型编码
+     */
+    public int dayTypeCode(long epochDay) {
+        long index = epochDay - firstEpochDay;
+        if (index >= 0 && index < dayTypes.length) {
+            return dayTypes[(int) index];
+        }
+        return weekdayType(epochDay).getCode();
+    }
+
+    public DayType dayType(long epochDay) {
+        return DAY_TYPES[dayTypeCode(epochDay)];
+    }
+
+    public DayType dayType(LocalDate date) {
+        return dayType(date.toEpochDay());
+    }
+
+    /**
+     * 获取纪元秒（UTC+8）所在日期的日期类型
+     * @param epochSecond 纪元秒
+     * @return 日期类型
+     */
+    public DayType dayTypeOfEpochSecond(long epochSecond) {
+        return dayType(DateUtils.localEpochDay(epochSecond));
+    }
+
+    public boolean isWorkingDay(LocalDate date) {
+        return dayType(date).isWorkingDay();
+    }
+
+    /**
+     * 获取节假日或调休安排的名称
+     * @param date 日期
+     * @return 名称，无安排时为null
+     */
+    public String getHolidayName(LocalDate date) {
+        return holidayNames.get(date.toEpochDay());
+    }
+
+    /**
+     * 统计纪元日区间 [fromEpochDay, toEpochDay) 中日期类型属于掩码的天数
+     * @param fromEpochDay 起始纪元日（含）
+     * @param toEpochDay 结束纪元日（不含）
+     * @param typeMask 日期类型掩码，第 n 位对应编码为 n 的日期类型
+     * @return 天数
+     */
+    public long countDays(long fromEpochDay, long toEpochDay, int typeMask) {
+        if (fromEpochDay >= toEpochDay) {
+            return 0L;
+        }
+        long tableEnd = firstEpochDay + dayTypes.length;
+        long count = 0;
+        // 表前、表后部分按星期计算
+        count += countWeekdayDays(fromEpochDay, Math.min(toEpochDay, firstEpochDay), typeMask);
+        count += countWeekdayDays(Math.max(fromEpochDay, tableEnd), toEpochDay, typeMask);
+        long from = Math.max(fromEpochDay, firstEpochDay);
+        long to = Math.min(toEpochDay, tableEnd);
+        if (from < to) {
+            int start = (int) (from - firstEpochDay);
+            int end = (int) (to - firstEpochDay);
+            for (int type = 0; type < DAY_TYPES.length; type++) {
+                if ((typeMask & (1 << type)) != 0) {
+                    count += prefixCounts[type][end] - prefixCounts[type][start];
+                }
+            }
+        }
+        return count;
+    }
+
+    private static long countWeekdayDays(long from, long to, int typeMask) {
+        if (from >= to) {
+            return 0L;
+        }
+        boolean workdays = (typeMask & DayType.WORKDAY.mask()) != 0;
+        boolean weekends = (typeMask & DayType.WEEKEND.mask()) != 0;
+        if (!workdays && !weekends) {
+            return 0L;
+        }
+        long days = to - from;
+        long count = days / 7 * ((workdays ? 5 : 0) + (weekends ? 2 : 0));
+        for (long day = from + days / 7 * 7; day < to; day++) {
+            DayType type = weekdayType(day);
+            if (type == DayType.WORKDAY ? workdays : weekends) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 日期类型表覆盖的起始纪元日
+     * @return 纪元日
+     */
+    public long getFirstEpochDay() {
+        return firstEpochDay;
+    }
+
+    /**
+     * 日期类型表覆盖的天数
+     * @return 天数，仅区分周末的日历为0
+     */
+    public int getDayCount() {
+        return dayTypes.length;
+    }
+}
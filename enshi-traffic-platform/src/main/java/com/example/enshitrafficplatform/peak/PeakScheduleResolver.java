@@ -0,0 +1,100 @@
+package com.example.enshitrafficplatform.peak;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 路段有效高峰期时间表的计算
+ * 一条规则可以直接挂在路段上、通过 peak_rule_road_sections 关联多个路段、挂在区域上，或不挂任何对象作为全局规则。
+ * 路段的有效规则为：直接或关联到该路段的规则、路段所在区域及其各级上级区域的规则、全局规则。
+ * 每个路段的规则按优先级从高到低、作用范围从具体到宽泛、规则ID从小到大排序后编译为时间表，
+ * 时间表中排在前面且命中的规则即该时刻起主导作用的规则
+ */
+public final class PeakScheduleResolver {
+
+    /**
+     * 区域层级的上限，防止区域父子关系成环
+     */
+    private static final int MAX_REGION_DEPTH = 32;
+
+    /**
+     * 全局规则的作用范围序号，排在所有区域之后
+     */
+    private static final int GLOBAL_SCOPE = Integer.MAX_VALUE;
+
+    private PeakScheduleResolver() {
+    }
+
+    /**
+     * 计算每个路段的有效时间表
+     * @param bindings 规则及其挂接对象
+     * @param sectionRegions 路段ID到所在区域ID的映射，区域可为null
+     * @param regionParents 区域ID到上级区域ID的映射，上级可为null
+     * @return 路段ID到时间表的映射，没有任何有效规则的路段不在其中
+     */
+    public static Map<Long, SectionPeakSchedule> resolve(Collection<RuleBinding> bindings,
+                                                         Map<Long, Long> sectionRegions,
+                                                         Map<Long, Long> regionParents) {
+        Map<Long, Map<CompiledPeakRule, Integer>> candidates = new HashMap<>();
+        Map<Long, List<CompiledPeakRule>> regionRules = new HashMap<>();
+        List<CompiledPeakRule> globalRules = new ArrayList<>();
+        for (RuleBinding binding : bindings) {
+            for (Long sectionId : binding.sectionIds()) {
+                addCandidate(candidates, sectionId, binding.rule(), 0);
+            }
+            if (binding.regionId() != null) {
+                regionRules.computeIfAbsent(binding.regionId(), id -> new ArrayList<>()).add(binding.rule());
+            } else if (binding.sectionIds().isEmpty()) {
+                globalRules.add(binding.rule());
+            }
+        }
+
+        for (Map.Entry<Long, Long> entry : sectionRegions.entrySet()) {
+            Long sectionId = entry.getKey();
+            Set<Long> visited = new HashSet<>();
+            Long regionId = entry.getValue();
+            for (int depth = 0; regionId != null && depth < MAX_REGION_DEPTH && visited.add(regionId); depth++) {
+                for (CompiledPeakRule rule : regionRules.getOrDefault(regionId, List.of())) {
+                    addCandidate(candidates, sectionId, rule, depth + 1);
+                }
+                regionId = regionParents.get(regionId);
+            }
+            for (CompiledPeakRule rule : globalRules) {
+                addCandidate(candidates, sectionId, rule, GLOBAL_SCOPE);
+            }
+        }
+
+        Map<Long, SectionPeakSchedule> schedules = new HashMap<>(candidates.size() * 2);
+        for (Map.Entry<Long, Map<CompiledPeakRule, Integer>> entry : candidates.entrySet()) {
+            Map<CompiledPeakRule, Integer> scopes = entry.getValue();
+            List<CompiledPeakRule> rules = new ArrayList<>(scopes.keySet());
+            rules.sort(Comparator.comparingInt(CompiledPeakRule::getPriority).reversed()
+                    .thenComparingInt(scopes::get)
+                    .thenComparing(CompiledPeakRule::getRuleId, Comparator.nullsLast(Comparator.naturalOrder())));
+            schedules.put(entry.getKey(), SectionPeakSchedule.of(rules));
+        }
+        return schedules;
+    }
+
+    private static void addCandidate(Map<Long, Map<CompiledPeakRule, Integer>> candidates, Long sectionId,
+                                     CompiledPeakRule rule, int scope) {
+        // 同一规则经多条途径作用于路段时按最具体的途径计
+        candidates.computeIfAbsent(sectionId, id -> new LinkedHashMap<>()).merge(rule, scope, Math::min);
+    }
+
+    /**
+     * 规则及其挂接对象
+     * @param rule 编译后的规则
+     * @param regionId 所属区域ID，可为null
+     * @param sectionIds 直接挂接和通过关联表挂接的路段ID
+     */
+    public record RuleBinding(CompiledPeakRule rule, Long regionId, Set<Long> sectionIds) {
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.enshitrafficplatform.peak;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 全部路段的有效高峰期时间表
+ * 实例不可变，由 PeakScheduleService 在规则或路段变更后整体重建并替换全局实例。
+ *
+ * 实体无法注入服务，高峰期与日期类型判定依赖以下两个全局实例，均以volatile引用整体替换：
+ * 1. 本类的 {@link #getDefault()}：供 RoadSection#peakSchedule 与 isCurrentlyPeakPeriod 使用。
+ *    PeakScheduleService 在启动完成后安装，规则、路段、道路或区域变更后替换；
+ *    安装前为未加载的空表，实体每次按自身当前的规则编译。
+ * 2. {@link HolidayCalendar#getDefault()}：供 PeakPeriodRule、CompiledPeakRule、SectionPeakSchedule 的日期类型判定，
+ *    以及 TrafficStatistic、TrafficFlowRecord 的工作日判定使用。
+ *    HolidayCalendarService 初始化时安装并定期重新加载；安装前为只区分周末的日历。
+ * 脱离Spring容器使用实体时（如单元测试），可通过两者的 setDefault 安装所需实例
+ */
+public final class PeakScheduleTable {
+
+    private static final PeakScheduleTable EMPTY = new PeakScheduleTable(Map.of(), false);
+
+    private static volatile PeakScheduleTable defaultTable = EMPTY;
+
+    private final Map<Long, SectionPeakSchedule> schedules;
+
+    private final boolean loaded;
+
+    private PeakScheduleTable(Map<Long, SectionPeakSchedule> schedules, boolean loaded) {
+        this.schedules = schedules;
+        this.loaded = loaded;
+    }
+
+    public static PeakScheduleTable of(Map<Long, SectionPeakSchedule> schedules) {
+        return new PeakScheduleTable(Map.copyOf(schedules), true);
+    }
+
+    /**
+     * 以新的时间表构建一张表，规则未变的路段沿用本表中的时间表实例，
+     * 使调用方可以按实例是否相同判断哪些路段的时间表发生了变化
+     * @param schedules 路段ID到新时间表的映射
+     * @return 新表
+     */
+    public PeakScheduleTable withSchedules(Map<Long, SectionPeakSchedule> schedules) {
+        Map<Long, SectionPeakSchedule> merged = new HashMap<>(schedules.size() * 2);
+        for (Map.Entry<Long, SectionPeakSchedule> entry : schedules.entrySet()) {
+            SectionPeakSchedule previous = this.schedules.get(entry.getKey());
+            boolean unchanged = previous != null && previous.getRules().equals(entry.getValue().getRules());
+            merged.put(entry.getKey(), unchanged ? previous : entry.getValue());
+        }
+        return of(merged);
+    }
+
+    public static PeakScheduleTable getDefault() {
+        return defaultTable;
+    }
+
+    public static void setDefault(PeakScheduleTable table) {
+        defaultTable = table != null ? table : EMPTY;
+    }
+
+    /**
+     * 获取路段的时间表
+     * @param roadSectionId 路段ID
+     * @return 时间表，路段没有有效规则时为空时间表
+     */
+    public SectionPeakSchedule get(Long roadSectionId) {
+        SectionPeakSchedule schedule = roadSectionId != null ? schedules.get(roadSectionId) : null;
+        return schedule != null ? schedule : SectionPeakSchedule.empty();
+    }
+
+    /**
+     * 是否已由服务加载；未加载时实体回退到按自身规则编译
+     * @return 是否已加载
+     */
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    /**
+     * 获取有时间表的路段ID
+     * @return 路段ID集合，不可修改
+     */
+    public Set<Long> getSectionIds() {
+        return schedules.keySet();
+    }
+
+    public int getSectionCount() {
+        return schedules.size();
+    }
+}
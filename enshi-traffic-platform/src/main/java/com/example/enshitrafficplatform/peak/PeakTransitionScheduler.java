@@ -0,0 +1,282 @@
+package com.example.enshitrafficplatform.peak;
+
+import com.example.enshitrafficplatform.event.PeakTransitionEvent;
+import com.example.enshitrafficplatform.util.DateUtils;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.LongSupplier;
+
+/**
+ * 路段高峰期状态变化的定时调度器
+ * 全部路段的下一个状态变化时刻放在同一个优先队列中，单个定时线程睡眠到队首时刻后触发事件，
+ * 再只为该路段计算下一个变化时刻入队，不轮询。
+ * 时间表更新时只为时间表实例发生变化的路段重新计算（见 {@link PeakScheduleTable#withSchedules}），
+ * 被替换的队列项留在队列中、出队时按路段当前的队列项识别并丢弃。
+ * 节假日日历重新加载后时间表实例不变，由 {@link #replanDayTypeSections} 为依赖日历的路段重新计算。
+ * 首次加载只记录各路段的当前状态；之后规则变更使路段状态立即改变时，在更新时刻触发事件
+ */
+@Slf4j
+public final class PeakTransitionScheduler {
+
+    /**
+     * 向后查找状态变化的天数；范围内没有变化的路段在范围末尾重新查找
+     */
+    public static final int LOOKAHEAD_DAYS = 400;
+
+    private final LongSupplier clock;
+
+    private final Consumer<PeakTransitionEvent> publisher;
+
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final Condition changed = lock.newCondition();
+
+    private final PriorityQueue<Entry> queue = new PriorityQueue<>(Comparator.comparingLong(Entry::time));
+
+    /**
+     * 各路段当前有效的队列项
+     */
+    private final Map<Long, Entry> pending = new HashMap<>();
+
+    /**
+     * 当前处于高峰期的路段
+     */
+    private final Set<Long> peakSections = new HashSet<>();
+
+    private PeakScheduleTable table;
+
+    private Thread timer;
+
+    /**
+     * @param clock 当前时间（纪元毫秒）
+     * @param publisher 事件发布回调，在定时线程或调用 update 的线程上调用，不持有调度器的锁
+     */
+    public PeakTransitionScheduler(LongSupplier clock, Consumer<PeakTransitionEvent> publisher) {
+        this.clock = clock;
+        this.publisher = publisher;
+    }
+
+    /**
+     * 启动定时线程
+     */
+    public void start() {
+        lock.lock();
+        try {
+            if (timer != null) {
+                return;
+            }
+            timer = new Thread(this::run, "peak-transition-timer");
+            timer.setDaemon(true);
+            timer.start();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 停止定时线程
+     */
+    public void stop() {
+        Thread running;
+        lock.lock();
+        try {
+            running = timer;
+            timer = null;
+        } finally {
+            lock.unlock();
+        }
+        if (running != null) {
+            running.interrupt();
+        }
+    }
+
+    /**
+     * 更新时间表，只为时间表实例变化的路段重新安排
+     * @param newTable 新的时间表
+     */
+    public void update(PeakScheduleTable newTable) {
+        publishAll(update(newTable, clock.getAsLong() / 1000));
+    }
+
+    List<PeakTransitionEvent> update(PeakScheduleTable newTable, long nowEpochSecond) {
+        List<PeakTransitionEvent> events = new ArrayList<>();
+        lock.lock();
+        try {
+            PeakScheduleTable previous = table;
+            table = newTable;
+            Set<Long> sectionIds = new HashSet<>(newTable.getSectionIds());
+            if (previous != null) {
+                sectionIds.addAll(previous.getSectionIds());
+            }
+            for (Long sectionId : sectionIds) {
+                if (previous == null || previous.get(sectionId) != newTable.get(sectionId)) {
+                    schedule(sectionId, nowEpochSecond, previous != null, events);
+                }
+            }
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        return events;
+    }
+
+    /**
+     * 节假日日历变化后为含日期类型规则的路段重新安排，日历变化使路段状态立即改变时触发事件
+     */
+    public void replanDayTypeSections() {
+        publishAll(replanDayTypeSections(clock.getAsLong() / 1000));
+    }
+
+    List<PeakTransitionEvent> replanDayTypeSections(long nowEpochSecond) {
+        List<PeakTransitionEvent> events = new ArrayList<>();
+        lock.lock();
+        try {
+            if (table == null) {
+                return events;
+            }
+            for (Long sectionId : table.getSectionIds()) {
+                if (table.get(sectionId).isDayTypeAware()) {
+                    schedule(sectionId, nowEpochSecond, true, events);
+                }
+            }
+            changed.signalAll();
+        } finally {
+            lock.unlock();
+        }
+        return events;
+    }
+
+    /**
+     * 获取路段的下一个状态变化时刻
+     * @param roadSectionId 路段ID
+     * @return 纪元秒，没有已安排的变化时为-1
+     */
+    public long nextTransition(Long roadSectionId) {
+        lock.lock();
+        try {
+            Entry entry = pending.get(roadSectionId);
+            return entry != null && !entry.recheck() ? entry.time() : -1L;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 获取已安排的路段数
+     * @return 路段数
+     */
+    public int getScheduledCount() {
+        lock.lock();
+        try {
+            return pending.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 处理时刻不晚于 now 的全部队列项；错过多个变化时按时间顺序逐个触发
+     * @param nowEpochSecond 当前纪元秒
+     * @return 触发的事件
+     */
+    List<PeakTransitionEvent> fireDue(long nowEpochSecond) {
+        List<PeakTransitionEvent> events = new ArrayList<>();
+        lock.lock();
+        try {
+            while (!queue.isEmpty() && queue.peek().time() <= nowEpochSecond) {
+                Entry entry = queue.poll();
+                if (pending.get(entry.sectionId()) == entry) {
+                    pending.remove(entry.sectionId());
+                    schedule(entry.sectionId(), entry.time(), true, events);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+        return events;
+    }
+
+    /**
+     * 判定路段在 at 时刻的状态，状态变化时记录事件，再安排下一个变化时刻。调用方须持有锁
+     */
+    private void schedule(Long sectionId, long at, boolean notify, List<PeakTransitionEvent> events) {
+        SectionPeakSchedule schedule = table.get(sectionId);
+        boolean peak = schedule.isPeak(at);
+        boolean changedState = peak ? peakSections.add(sectionId) : peakSections.remove(sectionId);
+        if (changedState && notify) {
+            CompiledPeakRule rule = peak ? schedule.governingRule(DateUtils.fromEpochSecond(at)) : null;
+            events.add(new PeakTransitionEvent(sectionId, peak, DateUtils.fromEpochSecond(at),
+                    rule != null ? rule.getRuleId() : null));
+        }
+        Entry previous = pending.remove(sectionId);
+        if (schedule.isEmpty()) {
+            return;
+        }
+        long next = schedule.nextTransition(at, LOOKAHEAD_DAYS);
+        Entry entry = next >= 0
+                ? new Entry(sectionId, next, false)
+                : new Entry(sectionId, at + (long) LOOKAHEAD_DAYS * DateUtils.SECONDS_PER_DAY, true);
+        pending.put(sectionId, entry);
+        queue.add(entry);
+        if (previous != null && queue.size() > pending.size() * 2 + 64) {
+            // 被替换的队列项过多时重建队列，避免频繁编辑使队列无限增长
+            queue.clear();
+            queue.addAll(pending.values());
+        }
+    }
+
+    private void run() {
+        while (!Thread.currentThread().isInterrupted()) {
+            List<PeakTransitionEvent> events;
+            lock.lock();
+            try {
+                long nowMillis = clock.getAsLong();
+                events = fireDue(nowMillis / 1000);
+                if (events.isEmpty()) {
+                    Entry head = queue.peek();
+                    if (head == null) {
+                        changed.await();
+                    } else {
+                        changed.await(head.time() * 1000 - nowMillis, TimeUnit.MILLISECONDS);
+                    }
+                }
+            } catch (InterruptedException e) {
+                return;
+            } finally {
+                lock.unlock();
+            }
+            publishAll(events);
+        }
+    }
+
+    private void publishAll(List<PeakTransitionEvent> events) {
+        for (PeakTransitionEvent event : events) {
+            try {
+                publisher.accept(event);
+            } catch (RuntimeException e) {
+                log.warn("路段{}高峰期状态变化事件处理失败", event.getRoadSectionId(), e);
+            }
+        }
+    }
+
+    /**
+     * 队列项
+     * @param sectionId 路段ID
+     * @param time 纪元秒
+     * @param recheck 是否只是查找范围末尾的重新查找，而非状态变化
+     */
+    private record Entry(Long sectionId, long time, boolean recheck) {
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.enshitrafficplatform.peak;
+
+import com.example.enshitrafficplatform.util.DateUtils;
+
+import java.time.LocalTime;
+import java.util.Arrays;
+
+/**
+ * 周内分钟位图
+ * 一周 10080 分钟各占一位，第 (星期序号 * 1440 + 小时 * 60 + 分钟) 位表示该分钟是否处于高峰期，
+ * 某一时刻是否处于高峰期只需一次位运算。位图按分钟粒度判定，即时刻截断到分钟后判定
+ */
+public final class PeakWeekBitmap {
+
+    public static final int MINUTES_PER_DAY = 1440;
+
+    private static final int WORD_COUNT = (DateUtils.MINUTES_PER_WEEK + 63) >>> 6;
+
+    private static final long NANOS_PER_MINUTE = 60_000_000_000L;
+
+    private final long[] words;
+
+    public PeakWeekBitmap() {
+        this.words = new long[WORD_COUNT];
+    }
+
+    private PeakWeekBitmap(long[] words) {
+        this.words = words;
+    }
+
+    /**
+     * 按高峰期规则的时段和适用星期编译位图
+     * 每一分钟以该分钟起点按 {@link #containsTime(long, long, long)} 判定，与 PeakPeriodRule 的逐次判定结果一致；
+     * 跨天时段凌晨部分按其所在当天的星期判定
+     * @param startTime 开始时间
+     * @param endTime 结束时间
+     * @param applicableDays 适用星期位掩码（第0位为周一），为null时适用所有日期
+     * @return 位图，时间为空时为空位图
+     */
+    public static PeakWeekBitmap compile(LocalTime startTime, LocalTime endTime, Integer applicableDays) {
+        return compile(startTime, endTime, applicableDays, 0L);
+    }
+
+    /**
+     * 按高峰期规则编译位图，每一分钟以分钟起点加上偏移的时刻判定
+     * 用于按分钟步进、但起点不在整分钟上的采样序列
+     * @param startTime 开始时间
+     * @param endTime 结束时间
+     * @param applicableDays 适用星期位掩码（第0位为周一），为null时适用所有日期
+     * @param offsetNanos 分钟内偏移（纳秒，小于一分钟）
+     * @return 位图，时间为空时为空位图
+     */
+    public static PeakWeekBitmap compile(LocalTime startTime, LocalTime endTime, Integer applicableDays,
+                                         long offsetNanos) {
+        PeakWeekBitmap bitmap = new PeakWeekBitmap();
+        if (startTime == null || endTime == null) {
+            return bitmap;
+        }
+        long startNanos = startTime.toNanoOfDay();
+        long endNanos = endTime.toNanoOfDay();
+        boolean[] dayMinutes = new boolean[MINUTES_PER_DAY];
+        for (int minute = 0; minute < MINUTES_PER_DAY; minute++) {
+            dayMinutes[minute] = containsTime(startNanos, endNanos, minute * NANOS_PER_MINUTE + offsetNanos);
+        }
+        for (int day = 0; day < 7; day++) {
+            if (applicableDays != null && (applicableDays & (1 << day)) == 0) {
+                continue;
+            }
+            int base = day * MINUTES_PER_DAY;
+            for (int minute = 0; minute < MINUTES_PER_DAY; minute++) {
+                if (dayMinutes[minute]) {
+                    bitmap.set(base + minute);
+                }
+            }
+        }
+        return bitmap;
+    }
+
+    /**
+     * 判断一天内的时刻是否落在时段内
+     * 结束时间早于开始时间表示跨天，此时结束时刻不含；否则开始、结束时刻均包含
+     * @param startNanos 开始时间（当天纳秒）
+     * @param endNanos 结束时间（当天纳秒）
+     * @param timeNanos 要判断的时刻（当天纳秒）
+     * @return 是否在时段内
+     */
+    public static boolean containsTime(long startNanos, long endNanos, long timeNanos) {
+        if (endNanos < startNanos) {
+            return timeNanos >= startNanos || timeNanos < endNanos;
+        }
+        return timeNanos >= startNanos && timeNanos <= endNanos;
+    }
+
+    public void set(int minuteOfWeek) {
+        words[minuteOfWeek >>> 6] |= 1L << minuteOfWeek;
+    }
+
+    public boolean get(int minuteOfWeek) {
+        return (words[minuteOfWeek >>> 6] & (1L << minuteOfWeek)) != 0;
+    }
+
+    /**
+     * 按位或合并另一个位图
+     * @param other 另一个位图
+     */
+    public void or(PeakWeekBitmap other) {
+        for (int i = 0; i < WORD_COUNT; i++) {
+            words[i] |= other.words[i];
+        }
+    }
+
+    /**
+     * 统计一周内的高峰分钟数
+     * @return 分钟数
+     */
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * 统计周内分钟区间 [from, to) 中的高峰分钟数
+     * @param from 起始周内分钟（含）
+     * @param to 结束周内分钟（不含）
+     * @return 分钟数
+     */
+    public int count(int from, int to) {
+        if (from >= to) {
+            return 0;
+        }
+        int firstWord = from >>> 6;
+        int lastWord = (to - 1) >>> 6;
+        long firstMask = -1L << from;
+        long lastMask = -1L >>> (63 - ((to - 1) & 63));
+        if (firstWord == lastWord) {
+            return Long.bitCount(words[firstWord] & firstMask & lastMask);
+        }
+        int count = Long.bitCount(words[firstWord] & firstMask);
+        for (int i = firstWord + 1; i < lastWord; i++) {
+            count += Long.bitCount(words[i]);
+        }
+        return count + Long.bitCount(words[lastWord] & lastMask);
+    }
+
+    /**
+     * 查找周内分钟区间 [from, to) 中第一个状态为 peak 的分钟，按字跳过
+     * @param from 起始周内分钟（含）
+     * @param to 结束周内分钟（不含）
+     * @param peak 要查找的状态
+     * @return 周内分钟序号，没有时为-1
+     */
+    public int nextMinute(int from, int to, boolean peak) {
+        for (int minute = from; minute < to; ) {
+            int wordIndex = minute >>> 6;
+            long word = (peak ? words[wordIndex] : ~words[wordIndex]) & (-1L << minute);
+            if (word != 0) {
+                int found = (wordIndex << 6) + Long.numberOfTrailingZeros(word);
+                return found < to ? found : -1;
+            }
+            minute = (wordIndex + 1) << 6;
+        }
+        return -1;
+    }
+
+    /**
+     * 统计从周内分钟 from 开始、按周循环的连续 length 分钟中的高峰分钟数
+     * 整周部分按一周的高峰分钟数相乘，剩余部分按位统计，耗时与长度无关
+     * @param from 起始周内分钟
+     * @param length 分钟数
+     * @return 高峰分钟数
+     */
+    public long countCyclic(int from, long length) {
+        if (length <= 0) {
+            return 0L;
+        }
+        int week = DateUtils.MINUTES_PER_WEEK;
+        long count = length / week * cardinality();
+        int rest = (int) (length % week);
+        if (from + rest <= week) {
+            return count + count(from, from + rest);
+        }
+        return count + count(from, week) + count(0, from + rest - week);
+    }
+
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public PeakWeekBitmap copy() {
+        return new PeakWeekBitmap(words.clone());
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof PeakWeekBitmap)) return false;
+        return Arrays.equals(words, ((PeakWeekBitmap) o).words);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(words);
+    }
+}
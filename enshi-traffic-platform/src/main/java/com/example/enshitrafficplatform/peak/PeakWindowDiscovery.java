@@ -0,0 +1,363 @@
+package com.example.enshitrafficplatform.peak;
+
+import com.example.enshitrafficplatform.dictionary.DayType;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * 从路段小时流量中发现高峰期时段
+ * 按节假日日历把日期分为上班日（工作日、调休上班）和休息日（周末、节假日）两组分别分析：
+ * 每个自然月计算组内各小时的平均车流量，平均值高于阈值的连续小时构成一个时段（可跨越午夜）；
+ * 相邻月份的时段完全相同时合并，时段随学期、旅游季变化时各自成为带生效日期的建议。
+ * 阈值优先使用给定的车流量阈值，未给定时取该路段组内全部小时车流量的百分位数。
+ * 实例不可变，可在多个线程间共享
+ */
+public final class PeakWindowDiscovery {
+
+    public static final int WORKING_DAYS = DayType.WORKDAY.mask() | DayType.MAKEUP_WORKDAY.mask();
+
+    public static final int REST_DAYS = DayType.WEEKEND.mask() | DayType.HOLIDAY.mask();
+
+    private static final int[] DAY_GROUPS = {WORKING_DAYS, REST_DAYS};
+
+    private static final int HOURS = SectionHourlyFlow.HOURS_PER_DAY;
+
+    private final HolidayCalendar calendar;
+
+    private final double percentile;
+
+    private final int minWindowHours;
+
+    private final int maxWindowHours;
+
+    private final int minDaysPerMonth;
+
+    private final double unchangedRatio;
+
+    /**
+     * @param calendar 节假日日历
+     * @param percentile 未给定阈值时使用的百分位（0-1）
+     * @param minWindowHours 时段最短小时数
+     * @param maxWindowHours 时段最长小时数，更长的连续高流量视为常态而非高峰
+     * @param minDaysPerMonth 组内有数据的天数少于该值的月份不单独判定，沿用前一个月的时段
+     * @param unchangedRatio 吻合度不低于该值时视为与现有规则一致
+     */
+    public PeakWindowDiscovery(HolidayCalendar calendar, double percentile, int minWindowHours, int maxWindowHours,
+                               int minDaysPerMonth, double unchangedRatio) {
+        if (percentile <= 0 || percentile >= 1) {
+            throw new IllegalArgumentException("百分位必须在0和1之间");
+        }
+        if (minWindowHours < 1 || maxWindowHours < minWindowHours || maxWindowHours >= HOURS) {
+            throw new IllegalArgumentException("时段小时数范围无效");
+        }
+        this.calendar = calendar;
+        this.percentile = percentile;
+        this.minWindowHours = minWindowHours;
+        this.maxWindowHours = maxWindowHours;
+        this.minDaysPerMonth = Math.max(minDaysPerMonth, 1);
+        this.unchangedRatio = unchangedRatio;
+    }
+
+    /**
+     * 分析一个路段
+     * @param flow 路段小时流量
+     * @param flowThreshold 车流量阈值（辆/小时），为null时按百分位计算
+     * @param active 路段现有的有效时间表，用于比对
+     * @return 发现结果
+     */
+    public SectionPeakDiscovery discover(SectionHourlyFlow flow, Double flowThreshold, SectionPeakSchedule active) {
+        int dayCount = flow.getDayCount();
+        int[] dayTypeMasks = new int[dayCount];
+        for (int day = 0; day < dayCount; day++) {
+            dayTypeMasks[day] = calendar.dayType(flow.getFirstEpochDay() + day).mask();
+        }
+        boolean[] proposed = new boolean[dayCount * HOURS];
+        List<PeakWindowProposal> proposals = new ArrayList<>();
+        for (int group : DAY_GROUPS) {
+            double threshold = flowThreshold != null ? flowThreshold : percentile(flow, dayTypeMasks, group);
+            if (Double.isNaN(threshold)) {
+                continue;
+            }
+            for (Segment segment : segments(flow, dayTypeMasks, group, threshold)) {
+                for (Window window : segment.windows) {
+                    proposals.add(propose(flow, dayTypeMasks, group, threshold, segment, window, active, proposed));
+                }
+            }
+        }
+        return new SectionPeakDiscovery(flow.getRoadSectionId(), countObserved(flow), proposals,
+                ruleSupports(flow, active, proposed));
+    }
+
+    /**
+     * 按自然月划分并合并时段相同的相邻月份
+     */
+    private List<Segment> segments(SectionHourlyFlow flow, int[] dayTypeMasks, int group, double threshold) {
+        List<Segment> segments = new ArrayList<>();
+        Segment current = null;
+        int monthStart = 0;
+        while (monthStart < flow.getDayCount()) {
+            LocalDate date = LocalDate.ofEpochDay(flow.getFirstEpochDay() + monthStart);
+            int monthEnd = Math.min(flow.getDayCount(), monthStart + date.lengthOfMonth() - date.getDayOfMonth() + 1);
+            List<Window> windows = monthWindows(flow, dayTypeMasks, group, threshold, monthStart, monthEnd);
+            if (current != null && (windows == null || windows.equals(current.windows))) {
+                current.endDay = monthEnd;
+            } else if (windows != null) {
+                current = new Segment(monthStart, monthEnd, windows);
+                segments.add(current);
+            }
+            monthStart = monthEnd;
+        }
+        if (!segments.isEmpty()) {
+            // 开头数据不足的月份并入第一个区段
+            segments.get(0).startDay = 0;
+        }
+        return segments;
+    }
+
+    /**
+     * 计算一个月内组内各小时的平均车流量并找出时段
+     * @return 时段列表，组内有数据的天数不足时为null
+     */
+    private List<Window> monthWindows(SectionHourlyFlow flow, int[] dayTypeMasks, int group, double threshold,
+                                      int fromDay, int toDay) {
+        double[] sums = new double[HOURS];
+        int[] counts = new int[HOURS];
+        int observedDays = 0;
+        for (int day = fromDay; day < toDay; day++) {
+            if ((dayTypeMasks[day] & group) == 0) {
+                continue;
+            }
+            boolean observed = false;
+            for (int hour = 0; hour < HOURS; hour++) {
+                float value = flow.get(day, hour);
+                if (!Float.isNaN(value)) {
+                    sums[hour] += value;
+                    counts[hour]++;
+                    observed = true;
+                }
+            }
+            if (observed) {
+                observedDays++;
+            }
+        }
+        if (observedDays < minDaysPerMonth) {
+            return null;
+        }
+        boolean[] above = new boolean[HOURS];
+        for (int hour = 0; hour < HOURS; hour++) {
+            above[hour] = counts[hour] > 0 && sums[hour] / counts[hour] > threshold;
+        }
+        return windows(above);
+    }
+
+    /**
+     * 找出环形24小时中连续的高流量小时段
+     * @param above 各小时是否高于阈值
+     * @return 按开始小时排序的时段，全天都高于阈值时为空
+     */
+    List<Window> windows(boolean[] above) {
+        int origin = -1;
+        for (int hour = 0; hour < HOURS; hour++) {
+            if (!above[hour]) {
+                origin = hour;
+                break;
+            }
+        }
+        if (origin < 0) {
+            return List.of();
+        }
+        List<Window> windows = new ArrayList<>();
+        int runStart = -1;
+        // 从一个低流量小时开始绕一圈，跨越午夜的时段不会被拆开
+        for (int offset = 1; offset <= HOURS; offset++) {
+            int hour = (origin + offset) % HOURS;
+            if (above[hour] && runStart < 0) {
+                runStart = hour;
+            } else if (!above[hour] && runStart >= 0) {
+                int length = Math.floorMod(hour - runStart, HOURS);
+                if (length >= minWindowHours && length <= maxWindowHours) {
+                    windows.add(new Window(runStart, length));
+                }
+                runStart = -1;
+            }
+        }
+        windows.sort((a, b) -> Integer.compare(a.startHour, b.startHour));
+        return windows;
+    }
+
+    private PeakWindowProposal propose(SectionHourlyFlow flow, int[] dayTypeMasks, int group, double threshold,
+                                       Segment segment, Window window, SectionPeakSchedule active,
+                                       boolean[] proposed) {
+        int slots = 0;
+        int observed = 0;
+        int aboveThreshold = 0;
+        double flowSum = 0;
+        int matched = 0;
+        int activeOnly = 0;
+        Set<Long> overlappingRuleIds = new LinkedHashSet<>();
+        for (int day = segment.startDay; day < segment.endDay; day++) {
+            if ((dayTypeMasks[day] & group) == 0) {
+                continue;
+            }
+            activeOnly += adjacentActiveHours(flow, day, window, active);
+            for (int hour = window.startHour; hour < window.startHour + window.hours; hour++) {
+                int hourOfDay = hour % HOURS;
+                long epochSecond = flow.midHourEpochSecond(day, hourOfDay);
+                slots++;
+                proposed[day * HOURS + hourOfDay] = true;
+                float value = flow.get(day, hourOfDay);
+                if (!Float.isNaN(value)) {
+                    observed++;
+                    flowSum += value;
+                    if (value > threshold) {
+                        aboveThreshold++;
+                    }
+                }
+                if (active.isPeak(epochSecond)) {
+                    matched++;
+                    for (CompiledPeakRule rule : active.getRules()) {
+                        if (rule.isPeak(epochSecond)) {
+                            overlappingRuleIds.add(rule.getRuleId());
+                        }
+                    }
+                }
+            }
+        }
+        double matchRatio = slots + activeOnly > 0 ? (double) matched / (slots + activeOnly) : 0.0;
+        PeakWindowProposal.Change change = matched == 0 ? PeakWindowProposal.Change.NEW
+                : matchRatio >= unchangedRatio ? PeakWindowProposal.Change.UNCHANGED
+                : PeakWindowProposal.Change.ADJUSTED;
+        return PeakWindowProposal.builder()
+                .roadSectionId(flow.getRoadSectionId())
+                .dayTypes(group)
+                .startTime(LocalTime.of(window.startHour, 0))
+                .endTime(LocalTime.of((window.startHour + window.hours) % HOURS, 0))
+                .effectiveFrom(segment.startDay > 0 ? dateOf(flow, segment.startDay) : null)
+                .effectiveTo(segment.endDay < flow.getDayCount() ? dateOf(flow, segment.endDay - 1) : null)
+                .flowThreshold(threshold)
+                .averageFlow(observed > 0 ? flowSum / observed : 0.0)
+                .confidence(slots > 0 ? (double) aboveThreshold / slots : 0.0)
+                .change(change)
+                .matchRatio(matchRatio)
+                .overlappingRuleIds(new ArrayList<>(overlappingRuleIds))
+                .build();
+    }
+
+    /**
+     * 统计现有时间表当天紧接在时段前后、连续处于高峰的小时数，即现有高峰超出建议时段的部分
+     */
+    private static int adjacentActiveHours(SectionHourlyFlow flow, int day, Window window,
+                                           SectionPeakSchedule active) {
+        int outside = HOURS - window.hours;
+        int after = 0;
+        while (after < outside && active.isPeak(flow.midHourEpochSecond(day,
+                (window.startHour + window.hours + after) % HOURS))) {
+            after++;
+        }
+        int before = 0;
+        while (before < outside - after && active.isPeak(flow.midHourEpochSecond(day,
+                Math.floorMod(window.startHour - 1 - before, HOURS)))) {
+            before++;
+        }
+        return after + before;
+    }
+
+    private static List<SectionPeakDiscovery.RuleSupport> ruleSupports(SectionHourlyFlow flow,
+                                                                      SectionPeakSchedule active,
+                                                                      boolean[] proposed) {
+        List<SectionPeakDiscovery.RuleSupport> supports = new ArrayList<>();
+        for (CompiledPeakRule rule : active.getRules()) {
+            int activeHours = 0;
+            int supportedHours = 0;
+            for (int day = 0; day < flow.getDayCount(); day++) {
+                for (int hour = 0; hour < HOURS; hour++) {
+                    if (Float.isNaN(flow.get(day, hour)) || !rule.isPeak(flow.midHourEpochSecond(day, hour))) {
+                        continue;
+                    }
+                    activeHours++;
+                    if (proposed[day * HOURS + hour]) {
+                        supportedHours++;
+                    }
+                }
+            }
+            supports.add(new SectionPeakDiscovery.RuleSupport(rule.getRuleId(), activeHours, supportedHours));
+        }
+        return supports;
+    }
+
+    /**
+     * 组内全部有数据小时车流量的百分位数（最近秩法）
+     * @return 百分位数，组内没有数据时为 NaN
+     */
+    private double percentile(SectionHourlyFlow flow, int[] dayTypeMasks, int group) {
+        float[] values = new float[flow.getDayCount() * HOURS];
+        int count = 0;
+        for (int day = 0; day < flow.getDayCount(); day++) {
+            if ((dayTypeMasks[day] & group) == 0) {
+                continue;
+            }
+            for (int hour = 0; hour < HOURS; hour++) {
+                float value = flow.get(day, hour);
+                if (!Float.isNaN(value)) {
+                    values[count++] = value;
+                }
+            }
+        }
+        if (count == 0) {
+            return Double.NaN;
+        }
+        Arrays.sort(values, 0, count);
+        int rank = (int) Math.ceil(percentile * count);
+        return values[Math.min(Math.max(rank, 1), count) - 1];
+    }
+
+    private static int countObserved(SectionHourlyFlow flow) {
+        int observed = 0;
+        for (int day = 0; day < flow.getDayCount(); day++) {
+            for (int hour = 0; hour < HOURS; hour++) {
+                if (!Float.isNaN(flow.get(day, hour))) {
+                    observed++;
+                }
+            }
+        }
+        return observed;
+    }
+
+    private static LocalDate dateOf(SectionHourlyFlow flow, int dayIndex) {
+        return LocalDate.ofEpochDay(flow.getFirstEpochDay() + dayIndex);
+    }
+
+    /**
+     * 一天中的时段：从 startHour 起连续 hours 个小时，可跨越午夜
+     */
+    record Window(int startHour, int hours) {
+
+        boolean contains(int hour) {
+            return Math.floorMod(hour - startHour, HOURS) < hours;
+        }
+    }
+
+    /**
+     * 时段相同的连续日期区段 [startDay, endDay)
+     */
+    private static final class Segment {
+
+        private int startDay;
+
+        private int endDay;
+
+        private final List<Window> windows;
+
+        private Segment(int startDay, int endDay, List<Window> windows) {
+            this.startDay = startDay;
+            this.endDay = endDay;
+            this.windows = windows;
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.example.enshitrafficplatform.peak;
+
+import lombok.Builder;
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+/**
+ * 由历史流量发现的高峰期时段建议
+ * 字段与 PeakPeriodRule 对应，可直接据此创建规则；同时给出置信度和与现有有效规则的比对结果
+ */
+@Getter
+@Builder
+public class PeakWindowProposal {
+
+    private final long roadSectionId;
+
+    /**
+     * 适用日期类型掩码，对应 PeakPeriodRule#dayTypes
+     */
+    private final int dayTypes;
+
+    private final LocalTime startTime;
+
+    /**
+     * 结束时间，早于开始时间表示跨越午夜
+     */
+    private final LocalTime endTime;
+
+    /**
+     * 生效开始日期，为null表示从分析范围开始一直适用
+     */
+    private final LocalDate effectiveFrom;
+
+    /**
+     * 生效结束日期，为null表示一直适用到分析范围结束
+     */
+    private final LocalDate effectiveTo;
+
+    /**
+     * 判定高峰所用的车流量阈值（辆/小时）
+     */
+    private final double flowThreshold;
+
+    /**
+     * 时段内的平均车流量（辆/小时）
+     */
+    private final double averageFlow;
+
+    /**
+     * 置信度（0-1）：时段内高于阈值的小时占比 × 有数据的小时占比
+     */
+    private final double confidence;
+
+    private final Change change;
+
+    /**
+     * 与现有时间表的吻合度（0-1）：时段内现有时间表为高峰的小时数 /（时段小时数 + 现有高峰在时段前后延伸的小时数）
+     */
+    private final double matchRatio;
+
+    /**
+     * 与该时段重叠的现有规则ID
+     */
+    private final List<Long> overlappingRuleIds;
+
+    /**
+     * 与现有有效规则的比对结果
+     */
+    public enum Change {
+
+        /**
+         * 现有时间表在该时段没有任何高峰
+         */
+        NEW,
+
+        /**
+         * 现有时间表与该时段基本一致
+         */
+        UNCHANGED,
+
+        /**
+         * 现有时间表与该时段部分重叠，建议调整
+         */
+        ADJUSTED
+    }
+}
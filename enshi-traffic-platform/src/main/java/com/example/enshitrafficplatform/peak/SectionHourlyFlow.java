@@ -0,0 +1,69 @@
+package com.example.enshitrafficplatform.peak;
+
+import com.example.enshitrafficplatform.util.DateUtils;
+import lombok.AccessLevel;
+import lombok.Getter;
+
+import java.util.Arrays;
+
+/**
+ * 单个路段按 日 × 小时 排列的平均车流量
+ * 以连续的 float 数组存放，缺失的小时为 NaN，一年约 35KB
+ */
+@Getter
+public final class SectionHourlyFlow {
+
+    public static final int HOURS_PER_DAY = 24;
+
+    private final long roadSectionId;
+
+    /**
+     * 第一天的本地纪元日
+     */
+    private final long firstEpochDay;
+
+    private final int dayCount;
+
+    @Getter(AccessLevel.NONE)
+    private final float[] flows;
+
+    public SectionHourlyFlow(long roadSectionId, long firstEpochDay, int dayCount) {
+        this.roadSectionId = roadSectionId;
+        this.firstEpochDay = firstEpochDay;
+        this.dayCount = dayCount;
+        this.flows = new float[dayCount * HOURS_PER_DAY];
+        Arrays.fill(flows, Float.NaN);
+    }
+
+    /**
+     * 写入一个小时的平均车流量，范围外的小时忽略
+     * @param hourStartEpochSecond 小时起点的纪元秒（UTC+8）
+     * @param averageFlow 平均车流量（辆/小时）
+     */
+    public void set(long hourStartEpochSecond, double averageFlow) {
+        long dayIndex = DateUtils.localEpochDay(hourStartEpochSecond) - firstEpochDay;
+        if (dayIndex >= 0 && dayIndex < dayCount) {
+            flows[(int) dayIndex * HOURS_PER_DAY + DateUtils.hourOfDay(hourStartEpochSecond)] = (float) averageFlow;
+        }
+    }
+
+    /**
+     * 读取一个小时的平均车流量
+     * @param dayIndex 第几天（从0开始）
+     * @param hour 小时（0-23）
+     * @return 平均车流量，缺失时为 NaN
+     */
+    public float get(int dayIndex, int hour) {
+        return flows[dayIndex * HOURS_PER_DAY + hour];
+    }
+
+    /**
+     * 获取某个小时中点的纪元秒，用于与时间表按小时比对
+     * @param dayIndex 第几天（从0开始）
+     * @param hour 小时（0-23）
+     * @return 纪元秒（UTC+8）
+     */
+    public long midHourEpochSecond(int dayIndex, int hour) {
+        return DateUtils.startOfEpochDay(firstEpochDay + dayIndex) + hour * 3600L + 1800L;
+    }
+}
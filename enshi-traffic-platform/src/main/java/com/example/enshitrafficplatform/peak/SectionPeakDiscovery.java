@@ -0,0 +1,51 @@
+package com.example.enshitrafficplatform.peak;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * 单个路段的高峰期发现结果：时段建议，以及现有有效规则各自得到历史流量支持的程度
+ */
+@Getter
+@AllArgsConstructor
+public class SectionPeakDiscovery {
+
+    private final long roadSectionId;
+
+    /**
+     * 参与分析的有数据小时数
+     */
+    private final int observedHours;
+
+    private final List<PeakWindowProposal> proposals;
+
+    private final List<RuleSupport> ruleSupports;
+
+    /**
+     * 现有规则的历史流量支持程度
+     * @param ruleId 规则ID
+     * @param activeHours 规则生效且有数据的小时数
+     * @param supportedHours 其中落在建议时段内的小时数
+     */
+    public record RuleSupport(Long ruleId, int activeHours, int supportedHours) {
+
+        /**
+         * 支持率低于该值的规则视为缺乏历史流量支持
+         */
+        public static final double MIN_SUPPORT = 0.2;
+
+        public double getSupport() {
+            return activeHours > 0 ? (double) supportedHours / activeHours : 0.0;
+        }
+
+        /**
+         * 规则在分析范围内生效，但大多数生效小时不在任何建议时段内
+         * @return 是否建议复核或停用
+         */
+        public boolean isUnsupported() {
+            return activeHours > 0 && getSupport() < MIN_SUPPORT;
+        }
+    }
+}
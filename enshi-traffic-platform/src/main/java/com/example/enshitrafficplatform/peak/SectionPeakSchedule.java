@@ -0,0 +1,248 @@
+package com.example.enshitrafficplatform.peak;
+
+import com.example.enshitrafficplatform.dictionary.DayType;
+import com.example.enshitrafficplatform.entity.PeakPeriodRule;
+import com.example.enshitrafficplatform.util.DateUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+
+/**
+ * 路段高峰期时间表
+ * 按各规则的生效日期把时间轴切分为若干区段，每个区段内生效的规则按位或合并为一个周内分钟位图，
+ * 判定时先二分查找日期所在区段，再做一次位运算。
+ * 含按日期类型适用的规则时，每个区段按日期类型各保存一个位图，判定时先查节假日日历得到日期类型。
+ * 任一规则命中即处于高峰期，优先级不影响判定，与逐条规则判定的结果一致
+ */
+public final class SectionPeakSchedule {
+
+    private static final SectionPeakSchedule EMPTY = new SectionPeakSchedule(List.of());
+
+    private final List<CompiledPeakRule> rules;
+
+    /**
+     * 区段分界纪元日，升序；第 i 个区段为 [boundaries[i-1], boundaries[i])
+     */
+    private final long[] boundaries;
+
+    /**
+     * 各区段按日期类型编码的位图；不含按日期类型适用的规则时同一区段的各日期类型共用一个位图
+     */
+    private final PeakWeekBitmap[][] segments;
+
+    private final boolean dayTypeAware;
+
+    private SectionPeakSchedule(List<CompiledPeakRule> rules) {
+        this.rules = List.copyOf(rules);
+        TreeSet<Long> days = new TreeSet<>();
+        for (CompiledPeakRule rule : rules) {
+            if (rule.getFromEpochDay() != Long.MIN_VALUE) {
+                days.add(rule.getFromEpochDay());
+            }
+            if (rule.getToEpochDay() != Long.MAX_VALUE) {
+                days.add(rule.getToEpochDay() + 1);
+            }
+        }
+        this.boundaries = days.stream().mapToLong(Long::longValue).toArray();
+        this.dayTypeAware = rules.stream().anyMatch(CompiledPeakRule::hasDayTypeFilter);
+        int dayTypeCount = DayType.values().length;
+        this.segments = new PeakWeekBitmap[boundaries.length + 1][dayTypeCount];
+        for (int i = 0; i < segments.length; i++) {
+            long segmentStart = i == 0 ? Long.MIN_VALUE : boundaries[i - 1];
+            PeakWeekBitmap common = new PeakWeekBitmap();
+            for (CompiledPeakRule rule : rules) {
+                if (!rule.hasDayTypeFilter() && rule.isEffectiveOn(segmentStart)) {
+                    common.or(rule.getBitmap());
+                }
+            }
+            for (int type = 0; type < dayTypeCount; type++) {
+                PeakWeekBitmap bitmap = common;
+                if (dayTypeAware) {
+                    bitmap = common.copy();
+                    for (CompiledPeakRule rule : rules) {
+                        if (rule.hasDayTypeFilter() && rule.appliesToDayType(type)
+                                && rule.isEffectiveOn(segmentStart)) {
+                            bitmap.or(rule.getBitmap());
+                        }
+                    }
+                }
+                segments[i][type] = bitmap;
+            }
+        }
+    }
+
+    /**
+     * 编译一组高峰期规则
+     * @param rules 高峰期规则
+     * @return 路段时间表
+     */
+    public static SectionPeakSchedule compile(Collection<PeakPeriodRule> rules) {
+        if (rules == null || rules.isEmpty()) {
+            return EMPTY;
+        }
+        List<CompiledPeakRule> compiled = new ArrayList<>(rules.size());
+        for (PeakPeriodRule rule : rules) {
+            compiled.add(rule.compile());
+        }
+        return of(compiled);
+    }
+
+    /**
+     * 由已编译的规则构建时间表
+     * @param rules 已编译的规则
+     * @return 路段时间表
+     */
+    public static SectionPeakSchedule of(Collection<CompiledPeakRule> rules) {
+        return rules.isEmpty() ? EMPTY : new SectionPeakSchedule(new ArrayList<>(rules));
+    }
+
+    public static SectionPeakSchedule empty() {
+        return EMPTY;
+    }
+
+    /**
+     * 获取某一本地纪元日生效的合并位图
+     * @param epochDay 本地纪元日
+     * @return 周内分钟位图，调用方不应修改
+     */
+    public PeakWeekBitmap bitmapOn(long epochDay) {
+        int index = Arrays.binarySearch(boundaries, epochDay);
+        int dayType = dayTypeAware ? HolidayCalendar.getDefault().dayTypeCode(epochDay) : 0;
+        return segments[index >= 0 ? index + 1 : -index - 1][dayType];
+    }
+
+    /**
+     * 判断本地时间是否处于高峰期，按分钟粒度判定
+     * @param dateTime 本地时间
+     * @return 是否处于高峰期
+     */
+    public boolean isPeak(LocalDateTime dateTime) {
+        return bitmapOn(dateTime.toLocalDate().toEpochDay()).get(DateUtils.minuteOfWeek(dateTime));
+    }
+
+    /**
+     * 判断纪元秒（UTC+8）是否处于高峰期，按分钟粒度判定
+     * @param epochSecond 纪元秒
+     * @return 是否处于高峰期
+     */
+    public boolean isPeak(long epochSecond) {
+        return bitmapOn(DateUtils.localEpochDay(epochSecond)).get(DateUtils.minuteOfWeek(epochSecond));
+    }
+
+    /**
+     * 获取某一时刻起主导作用的规则：按规则列表顺序返回第一条命中的规则
+     * 由 PeakScheduleResolver 构建的时间表中规则已按优先级从高到低、作用范围从具体到宽泛排序
+     * @param dateTime 本地时间
+     * @return 规则，不处于高峰期时为null
+     */
+    public CompiledPeakRule governingRule(LocalDateTime dateTime) {
+        if (!isPeak(dateTime)) {
+            return null;
+        }
+        for (CompiledPeakRule rule : rules) {
+            if (rule.isPeak(dateTime)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 统计 [from, to) 内处于高峰期的分钟数，时刻截断到分钟
+     * 逐个区段统计：不含按日期类型适用的规则时整周部分直接相乘，否则逐日按位统计
+     * @param from 开始时间（含）
+     * @param to 结束时间（不含）
+     * @return 高峰期分钟数
+     */
+    public long countPeakMinutes(LocalDateTime from, LocalDateTime to) {
+        long fromMinute = localMinute(from);
+        long toMinute = localMinute(to);
+        long count = 0;
+        for (int i = 0; i < segments.length && fromMinute < toMinute; i++) {
+            long segmentEnd = i < boundaries.length ? boundaries[i] * PeakWeekBitmap.MINUTES_PER_DAY : Long.MAX_VALUE;
+            long end = Math.min(toMinute, segmentEnd);
+            if (fromMinute >= end) {
+                continue;
+            }
+            count += dayTypeAware ? countByDay(i, fromMinute, end) : segments[i][0].countCyclic(
+                    minuteOfWeek(fromMinute), end - fromMinute);
+            fromMinute = end;
+        }
+        return count;
+    }
+
+    /**
+     * 查找 epochSecond 之后高峰状态第一次变化的时刻，按分钟粒度、逐日按字跳过查找
+     * @param epochSecond 纪元秒（UTC+8）
+     * @param maxDays 最多向后查找的天数
+     * @return 状态变化所在分钟起点的纪元秒，查找范围内没有变化时为-1
+     */
+    public long nextTransition(long epochSecond, int maxDays) {
+        if (rules.isEmpty()) {
+            return -1L;
+        }
+        int minutesPerDay = PeakWeekBitmap.MINUTES_PER_DAY;
+        long minute = Math.floorDiv(epochSecond + DateUtils.ZONE_OFFSET_SECONDS, 60L);
+        long firstDay = Math.floorDiv(minute, minutesPerDay);
+        boolean peak = isPeak(epochSecond);
+        for (long day = firstDay; day <= firstDay + maxDays; day++) {
+            int base = (int) Math.floorMod(day + 3, 7) * minutesPerDay;
+            int from = day == firstDay ? (int) (minute - day * minutesPerDay) + 1 : 0;
+            int found = bitmapOn(day).nextMinute(base + from, base + minutesPerDay, !peak);
+            if (found >= 0) {
+                return DateUtils.startOfEpochDay(day) + (found - base) * 60L;
+            }
+        }
+        return -1L;
+    }
+
+    private long countByDay(int segment, long from, long to) {
+        HolidayCalendar calendar = HolidayCalendar.getDefault();
+        int minutesPerDay = PeakWeekBitmap.MINUTES_PER_DAY;
+        long count = 0;
+        while (from < to) {
+            long day = Math.floorDiv(from, minutesPerDay);
+            long dayEnd = Math.min(to, (day + 1) * minutesPerDay);
+            int base = (int) Math.floorMod(day + 3, 7) * minutesPerDay;
+            int start = (int) (from - day * minutesPerDay);
+            int end = (int) (dayEnd - day * minutesPerDay);
+            count += segments[segment][calendar.dayTypeCode(day)].count(base + start, base + end);
+            from = dayEnd;
+        }
+        return count;
+    }
+
+    /**
+     * 本地时间对应的本地纪元分钟序号
+     */
+    private static long localMinute(LocalDateTime dateTime) {
+        return Math.floorDiv(DateUtils.toEpochSecond(dateTime) + DateUtils.ZONE_OFFSET_SECONDS, 60L);
+    }
+
+    private static int minuteOfWeek(long localMinute) {
+        long day = Math.floorDiv(localMinute, PeakWeekBitmap.MINUTES_PER_DAY);
+        // 1970-01-01为周四
+        return (int) Math.floorMod(day + 3, 7) * PeakWeekBitmap.MINUTES_PER_DAY
+                + (int) Math.floorMod(localMinute, PeakWeekBitmap.MINUTES_PER_DAY);
+    }
+
+    public List<CompiledPeakRule> getRules() {
+        return rules;
+    }
+
+    public boolean isEmpty() {
+        return rules.isEmpty();
+    }
+
+    /**
+     * 是否含按日期类型适用的规则，这类时间表的判定依赖节假日日历
+     * @return 是否依赖节假日日历
+     */
+    public boolean isDayTypeAware() {
+        return dayTypeAware;
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.enshitrafficplatform.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * 字典编码列的回填
+ * 新增的编码列对历史记录为NULL，按主键区间分批把中文描述列转换为编码，
+ * 每批只更新一个ID区间，不会长时间锁表
+ */
+@Repository
+public class DictionaryCodeRepository {
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DictionaryCodeRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * 查询编码列为NULL、描述列不为NULL的最小ID
+     * @param table 表名
+     * @param labelColumn 描述列
+     * @param codeColumn 编码列
+     * @return 最小ID，没有需要回填的记录时为null
+     */
+    public Long findFirstUncodedId(String table, String labelColumn, String codeColumn) {
+        return jdbcTemplate.queryForObject(
+                "SELECT MIN(id) FROM " + identifier(table) + " WHERE " + identifier(codeColumn) + " IS NULL AND "
+                + identifier(labelColumn) + " IS NOT NULL", Long.class);
+    }
+
+    /**
+     * 查询表的最大ID
+     * @param table 表名
+     * @return 最大ID，无记录时为0
+     */
+    public long findMaxId(String table) {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + identifier(table), Long.class);
+        return maxId != null ? maxId : 0L;
+    }
+
+    /**
+     * 回填ID区间内的编码列
+     * @param table 表名
+     * @param labelColumn 描述列
+     * @param codeColumn 编码列
+     * @param labelCodes 描述到编码的映射
+     * @param defaultCode 字典之外的描述使用的编码
+     * @param afterId 起始ID（不含）
+     * @param untilId 截止ID（含）
+     * @return 更新的行数
+     */
+    public int backfill(String table, String labelColumn, String codeColumn, Map<String, Byte> labelCodes,
+                        byte defaultCode, long afterId, long untilId) {
+        StringBuilder sql = new StringBuilder("UPDATE ").append(identifier(table))
+                .append(" SET ").append(identifier(codeColumn)).append(" = CASE ").append(identifier(labelColumn));
+        List<Object> args = new ArrayList<>(labelCodes.size() * 2 + 3);
+        for (Map.Entry<String, Byte> entry : labelCodes.entrySet()) {
+            sql.append(" WHEN ? THEN ?");
+            args.add(entry.getKey());
+            args.add(entry.getValue());
+        }
+        sql.append(" ELSE ? END WHERE id > ? AND id <= ? AND ")
+                .append(identifier(codeColumn)).append(" IS NULL AND ")
+                .append(identifier(labelColumn)).append(" IS NOT NULL");
+        args.add(defaultCode);
+        args.add(afterId);
+        args.add(untilId);
+        return jdbcTemplate.update(sql.toString(), args.toArray());
+    }
+
+    private static String identifier(String name) {
+        if (!IDENTIFIER.matcher(name).matches()) {
+            throw new IllegalArgumentException("非法的标识符：" + name);
+        }
+        return name;
+    }
+}
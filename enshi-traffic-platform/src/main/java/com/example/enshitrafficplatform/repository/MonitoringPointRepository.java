@@ -0,0 +1,33 @@
+package com.example.enshitrafficplatform.repository;
+
+import com.example.enshitrafficplatform.entity.MonitoringPoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 监测点数据访问接口
+ */
+@Repository
+public interface MonitoringPointRepository extends JpaRepository<MonitoringPoint, Long> {
+
+    /**
+     * 查询路段下所有监测点的ID
+     * @param roadSectionIds 路段ID集合
+     * @return 监测点ID列表
+     */
+    @Query("select p.id from MonitoringPoint p where p.roadSection.id in :roadSectionIds")
+    List<Long> findIdsByRoadSectionIds(@Param("roadSectionIds") Collection<Long> roadSectionIds);
+
+    /**
+     * 查询监测点所属的路段ID
+     * @param ids 监测点ID集合
+     * @return 每行为 [监测点ID, 路段ID]，路段ID可能为null
+     */
+    @Query("select p.id, s.id from MonitoringPoint p left join p.roadSection s where p.id in :ids")
+    List<Object[]> findRoadSectionIdsByIds(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,29 @@
+package com.example.enshitrafficplatform.repository;
+
+import com.example.enshitrafficplatform.entity.PeakPeriodRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * 高峰期规则数据访问接口
+ */
+@Repository
+public interface PeakPeriodRuleRepository extends JpaRepository<PeakPeriodRule, Long> {
+
+    /**
+     * 查询规则直接挂接的区域和路段
+     * @return 每行为 [规则ID, 区域ID, 路段ID]，区域ID和路段ID可能为null
+     */
+    @Query("select r.id, g.id, s.id from PeakPeriodRule r left join r.region g left join r.roadSection s")
+    List<Object[]> findOwnerIds();
+
+    /**
+     * 查询规则通过 peak_rule_road_sections 关联的路段
+     * @return 每行为 [规则ID, 路段ID]
+     */
+    @Query("select r.id, s.id from PeakPeriodRule r join r.roadSections s")
+    List<Object[]> findLinkedRoadSectionIds();
+}
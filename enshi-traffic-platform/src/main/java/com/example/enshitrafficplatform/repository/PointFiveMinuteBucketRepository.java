@@ -0,0 +1,104 @@
+package com.example.enshitrafficplatform.repository;
+
+import com.example.enshitrafficplatform.entity.PointFiveMinuteBucket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 监测点5分钟流量桶数据访问接口
+ */
+@Repository
+public interface PointFiveMinuteBucketRepository extends JpaRepository<PointFiveMinuteBucket, Long> {
+
+    /**
+     * 查询监测点在时间范围内的5分钟桶
+     * @param monitoringPointId 监测点ID
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     * @return 按时间升序的5分钟桶
+     */
+    List<PointFiveMinuteBucket> findByMonitoringPointIdAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartAsc(
+            Long monitoringPointId, LocalDateTime startTime, LocalDateTime endTime);
+
+    /**
+     * 由原始流量记录重建时间范围内的5分钟桶
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     * @return 写入行数
+     */
+    @Modifying
+    @Query(value = "INSERT INTO point_five_minute_buckets (monitoring_point_id, bucket_start, record_count, "
+            + "flow_sum, flow_count, flow_max, speed_sum, speed_count, occupancy_sum, occupancy_count, "
+            + "large_vehicle_sum, medium_vehicle_sum, small_vehicle_sum) "
+            + "SELECT r.monitoring_point_id, "
+            + "TIMESTAMP(DATE_FORMAT(r.record_time, '%Y-%m-%d %H:00:00')) + INTERVAL (MINUTE(r.record_time) DIV 5 * 5) MINUTE "
+            + "AS five_minute_start, COUNT(*), "
+            + "COALESCE(SUM(r.flow_rate), 0), COUNT(r.flow_rate), MAX(r.flow_rate), "
+            + "COALESCE(SUM(r.average_speed), 0), COUNT(r.average_speed), "
+            + "COALESCE(SUM(r.occupancy_rate), 0), COUNT(r.occupancy_rate), "
+            + "COALESCE(SUM(r.large_vehicle_count), 0), COALESCE(SUM(r.medium_vehicle_count), 0), "
+            + "COALESCE(SUM(r.small_vehicle_count), 0) "
+            + "FROM traffic_flow_records r "
+            + "WHERE r.record_time >= :startTime AND r.record_time < :endTime "
+            + "GROUP BY r.monitoring_point_id, five_minute_start", nativeQuery = true)
+    int rebuildFromRecords(@Param("startTime") LocalDateTime startTime,
+                           @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * 删除时间范围内的5分钟桶
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     * @return 删除行数
+     */
+    @Modifying
+    @Query(value = "DELETE FROM point_five_minute_buckets WHERE bucket_start >= :startTime AND bucket_start < :endTime",
+            nativeQuery = true)
+    int deleteByBucketStartRange(@Param("startTime") LocalDateTime startTime,
+                                 @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * 分批删除时间范围内的5分钟桶
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     * @param limit 本批最多删除的行数
+     * @return 删除行数
+     */
+    @Modifying
+    @Query(value = "DELETE FROM point_five_minute_buckets WHERE bucket_start >= :startTime AND bucket_start < :endTime "
+            + "LIMIT :limit", nativeQuery = true)
+    int deleteBatch(@Param("startTime") LocalDateTime startTime, @Param("endTime") LocalDateTime endTime,
+                    @Param("limit") int limit);
+
+    /**
+     * 汇总时间范围内5分钟桶的原始记录数
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     * @return 原始记录数
+     */
+    @Query(value = "SELECT COALESCE(SUM(record_count), 0) FROM point_five_minute_buckets "
+            + "WHERE bucket_start >= :startTime AND bucket_start < :endTime", nativeQuery = true)
+    long sumRecordCount(@Param("startTime") LocalDateTime startTime, @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * 汇总时间范围内5分钟桶的车流量样本数
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     * @return 车流量样本数
+     */
+    @Query(value = "SELECT COALESCE(SUM(flow_count), 0) FROM point_five_minute_buckets "
+            + "WHERE bucket_start >= :startTime AND bucket_start < :endTime", nativeQuery = true)
+    long sumFlowCount(@Param("startTime") LocalDateTime startTime, @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * 查询最早的5分钟桶起点
+     * @return 最早起点，无数据时为null
+     */
+    @Query("select min(b.bucketStart) from PointFiveMinuteBucket b")
+    LocalDateTime findMinBucketStart();
+}
@@ -0,0 +1,155 @@
+package com.example.enshitrafficplatform.repository;
+
+import com.example.enshitrafficplatform.entity.PointHourlyBucket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 监测点小时流量桶数据访问接口
+ */
+@Repository
+public interface PointHourlyBucketRepository extends JpaRepository<PointHourlyBucket, Long> {
+
+    /**
+     * 累加一个小时桶，不存在时插入
+     * @param monitoringPointId 监测点ID
+     * @param bucketStart 小时起点
+     * @param flowSum 车流量总和增量
+     * @param flowCount 样本数增量
+     * @param flowMax 本批次最大车流量
+     * @return 影响行数
+     */
+    @Modifying
+    @Query(value = "INSERT INTO point_hourly_buckets (monitoring_point_id, bucket_start, flow_sum, flow_count, flow_max) "
+            + "VALUES (:monitoringPointId, :bucketStart, :flowSum, :flowCount, :flowMax) "
+            + "ON DUPLICATE KEY UPDATE flow_sum = flow_sum + VALUES(flow_sum), "
+            + "flow_count = flow_count + VALUES(flow_count), "
+            + "flow_max = GREATEST(flow_max, VALUES(flow_max))", nativeQuery = true)
+    int accumulate(@Param("monitoringPointId") Long monitoringPointId,
+                   @Param("bucketStart") LocalDateTime bucketStart,
+                   @Param("flowSum") long flowSum,
+                   @Param("flowCount") int flowCount,
+                   @Param("flowMax") int flowMax);
+
+    /**
+     * 查询监测点在时间范围内的小时桶
+     * @param monitoringPointId 监测点ID
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     * @return 按时间升序的小时桶
+     */
+    List<PointHourlyBucket> findByMonitoringPointIdAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartAsc(
+            Long monitoringPointId, LocalDateTime startTime, LocalDateTime endTime);
+
+    /**
+     * 删除时间范围内的小时桶
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     * @return 删除行数
+     */
+    @Modifying
+    @Query(value = "DELETE FROM point_hourly_buckets WHERE bucket_start >= :startTime AND bucket_start < :endTime",
+            nativeQuery = true)
+    int deleteByBucketStartRange(@Param("startTime") LocalDateTime startTime,
+                                 @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * 由原始流量记录重建时间范围内的小时桶
+     * @param startTime 开始时间（含，整点）
+     * @param endTime 结束时间（不含，整点）
+     * @return 写入行数
+     */
+    @Modifying
+    @Query(value = "INSERT INTO point_hourly_buckets (monitoring_point_id, bucket_start, flow_sum, flow_count, flow_max) "
+            + "SELECT r.monitoring_point_id, TIMESTAMP(DATE_FORMAT(r.record_time, '%Y-%m-%d %H:00:00')) AS hour_start, "
+            + "SUM(r.flow_rate), COUNT(*), MAX(r.flow_rate) "
+            + "FROM traffic_flow_records r "
+            + "WHERE r.record_time >= :startTime AND r.record_time < :endTime AND r.flow_rate IS NOT NULL "
+            + "GROUP BY r.monitoring_point_id, hour_start", nativeQuery = true)
+    int rebuildFromRecords(@Param("startTime") LocalDateTime startTime,
+                           @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * 按日期汇总监测点的小时桶
+     * @param monitoringPointId 监测点ID
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     * @return 每行为 [日期, 车流量总和, 样本数]
+     */
+    @Query(value = "SELECT DATE(b.bucket_start) AS bucket_date, SUM(b.flow_sum), SUM(b.flow_count) "
+            + "FROM point_hourly_buckets b "
+            + "WHERE b.monitoring_point_id = :monitoringPointId "
+            + "AND b.bucket_start >= :startTime AND b.bucket_start < :endTime "
+            + "GROUP BY bucket_date", nativeQuery = true)
+    List<Object[]> sumByDate(@Param("monitoringPointId") Long monitoringPointId,
+                             @Param("startTime") LocalDateTime startTime,
+                             @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * 按一天中的小时汇总监测点的小时桶
+     * @param monitoringPointId 监测点ID
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     * @return 每行为 [小时(0-23), 车流量总和, 样本数]
+     */
+    @Query(value = "SELECT HOUR(b.bucket_start) AS bucket_hour, SUM(b.flow_sum), SUM(b.flow_count) "
+            + "FROM point_hourly_buckets b "
+            + "WHERE b.monitoring_point_id = :monitoringPointId "
+            + "AND b.bucket_start >= :startTime AND b.bucket_start < :endTime "
+            + "GROUP BY bucket_hour", nativeQuery = true)
+    List<Object[]> sumByHourOfDay(@Param("monitoringPointId") Long monitoringPointId,
+                                  @Param("startTime") LocalDateTime startTime,
+                                  @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * 由5分钟桶重建时间范围内的小时桶，用于原始记录已清理的时段
+     * @param startTime 开始时间（含，整点）
+     * @param endTime 结束时间（不含，整点）
+     * @return 写入行数
+     */
+    @Modifying
+    @Query(value = "INSERT INTO point_hourly_buckets (monitoring_point_id, bucket_start, flow_sum, flow_count, flow_max) "
+            + "SELECT f.monitoring_point_id, TIMESTAMP(DATE_FORMAT(f.bucket_start, '%Y-%m-%d %H:00:00')) AS hour_start, "
+            + "SUM(f.flow_sum), SUM(f.flow_count), MAX(f.flow_max) "
+            + "FROM point_five_minute_buckets f "
+            + "WHERE f.bucket_start >= :startTime AND f.bucket_start < :endTime AND f.flow_count > 0 "
+            + "GROUP BY f.monitoring_point_id, hour_start", nativeQuery = true)
+    int rebuildFromFiveMinuteBuckets(@Param("startTime") LocalDateTime startTime,
+                                     @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * 汇总时间范围内小时桶的车流量样本数
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     * @return 车流量样本数
+     */
+    @Query(value = "SELECT COALESCE(SUM(flow_count), 0) FROM point_hourly_buckets "
+            + "WHERE bucket_start >= :startTime AND bucket_start < :endTime", nativeQuery = true)
+    long sumFlowCount(@Param("startTime") LocalDateTime startTime, @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * 分批删除时间范围内的小时桶
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     * @param limit 本批最多删除的行数
+     * @return 删除行数
+     */
+    @Modifying
+    @Query(value = "DELETE FROM point_hourly_buckets WHERE bucket_start >= :startTime AND bucket_start < :endTime "
+            + "LIMIT :limit", nativeQuery = true)
+    int deleteBatch(@Param("startTime") LocalDateTime startTime, @Param("endTime") LocalDateTime endTime,
+                    @Param("limit") int limit);
+
+    /**
+     * 查询最早的小时桶起点
+     * @return 最早起点，无数据时为null
+     */
+    @Query("select min(b.bucketStart) from PointHourlyBucket b")
+    LocalDateTime findMinBucketStart();
+}
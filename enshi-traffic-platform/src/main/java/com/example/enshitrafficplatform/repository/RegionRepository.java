@@ -0,0 +1,30 @@
+package com.example.enshitrafficplatform.repository;
+
+import com.example.enshitrafficplatform.entity.Region;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * 行政区域数据访问接口
+ */
+@Repository
+public interface RegionRepository extends JpaRepository<Region, Long> {
+
+    /**
+     * 查询全部区域的上级区域
+     * @return 每行为 [区域ID, 上级区域ID]，上级区域ID可能为null
+     */
+    @Query("select r.id, p.id from Region r left join r.parent p")
+    List<Object[]> findParentIds();
+
+    /**
+     * 查询有中心点坐标的区域
+     * @return 每行为 [区域ID, 经度, 纬度]
+     */
+    @Query("select r.id, r.longitude, r.latitude from Region r "
+            + "where r.longitude is not null and r.latitude is not null")
+    List<Object[]> findLocated();
+}
@@ -0,0 +1,45 @@
+package com.example.enshitrafficplatform.repository;
+
+import com.example.enshitrafficplatform.entity.RoadSection;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * 道路路段数据访问接口
+ */
+@Repository
+public interface RoadSectionRepository extends JpaRepository<RoadSection, Long> {
+
+    /**
+     * 查询全部路段所在道路的区域
+     * @return 每行为 [路段ID, 区域ID]，区域ID可能为null
+     */
+    @Query("select s.id, g.id from RoadSection s left join s.road r left join r.region g")
+    List<Object[]> findRegionIds();
+
+    /**
+     * 查询起终点坐标完整的路段的中心点
+     * @return 每行为 [路段ID, 中心点经度, 中心点纬度]
+     */
+    @Query("select s.id, (s.startLongitude + s.endLongitude) / 2, (s.startLatitude + s.endLatitude) / 2 "
+            + "from RoadSection s where s.startLongitude is not null and s.endLongitude is not null "
+            + "and s.startLatitude is not null and s.endLatitude is not null")
+    List<Object[]> findMidpoints();
+
+    /**
+     * 查询全部路段影响建议车速的属性
+     * @return 每行为 [路段ID, 所属道路限速, 平均坡度, 平均曲率]
+     */
+    @Query("select s.id, r.speedLimit, s.averageSlope, s.averageCurvature from RoadSection s left join s.road r")
+    List<Object[]> findSpeedProfiles();
+
+    /**
+     * 查询全部路段影响滑坡易发程度的属性
+     * @return 每行为 [路段ID, 地质风险描述, 平均坡度, 最大坡度]
+     */
+    @Query("select s.id, s.geologicalRisk, s.averageSlope, s.maxSlope from RoadSection s")
+    List<Object[]> findTerrainProfiles();
+}
@@ -0,0 +1,76 @@
+package com.example.enshitrafficplatform.repository;
+
+import com.example.enshitrafficplatform.util.DateUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * 路段小时流量流式扫描器
+ * 把 point_hourly_buckets 按 路段 × 整点小时 汇总后以流式结果集逐行返回，不加载实体
+ */
+@Repository
+public class SectionHourlyFlowScanner {
+
+    /**
+     * MySQL驱动按行流式返回结果集所需的fetchSize
+     */
+    private static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
+    private static final String SQL = "SELECT p.road_section_id, "
+            + "TIMESTAMPDIFF(SECOND, " + DateUtils.SQL_EPOCH_ORIGIN + ", b.bucket_start), "
+            + "SUM(b.flow_sum), SUM(b.flow_count) "
+            + "FROM point_hourly_buckets b JOIN monitoring_points p ON p.id = b.monitoring_point_id "
+            + "WHERE b.bucket_start >= ? AND b.bucket_start < ? AND b.flow_count > 0 "
+            + "GROUP BY p.road_section_id, b.bucket_start "
+            + "ORDER BY p.road_section_id, b.bucket_start";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SectionHourlyFlowScanner(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(STREAMING_FETCH_SIZE);
+    }
+
+    /**
+     * 按路段、时间顺序扫描时间范围内各路段每小时的车流量
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     * @param handler 小时流量回调
+     * @return 扫描的行数
+     */
+    public long scan(LocalDateTime startTime, LocalDateTime endTime, SectionHourHandler handler) {
+        long[] rows = new long[1];
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    SQL, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            statement.setTimestamp(1, Timestamp.valueOf(startTime));
+            statement.setTimestamp(2, Timestamp.valueOf(endTime));
+            return statement;
+        }, rs -> {
+            handler.accept(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getLong(4));
+            rows[0]++;
+        });
+        return rows[0];
+    }
+
+    /**
+     * 小时流量回调，以基本类型传递每行数据
+     */
+    @FunctionalInterface
+    public interface SectionHourHandler {
+
+        /**
+         * @param roadSectionId 路段ID
+         * @param hourStartEpochSecond 小时起点的纪元秒
+         * @param flowSum 该小时路段内全部监测点的车流量总和
+         * @param flowCount 该小时路段内含车流量数据的记录数
+         */
+        void accept(long roadSectionId, long hourStartEpochSecond, long flowSum, long flowCount);
+    }
+}
@@ -0,0 +1,258 @@
+package com.example.enshitrafficplatform.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.ResultSetMetaData;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * 按月范围分区的管理
+ * 分区表以 RANGE COLUMNS(record_time) 按月划分，分区名为 pYYYYMM，另有一个 pmax 分区容纳未来数据；
+ * 新增月份时拆分空的 pmax 分区，删除月份时直接删除分区，均不逐行操作。
+ * MySQL分区表不支持外键，且主键必须包含分区列，因此转换时会删除外键并把主键改为 (id, record_time)。
+ * 另提供按表统计信息估算单行存储字节数，用于估算清理回收的空间
+ */
+@Repository
+public class TablePartitionRepository {
+
+    /**
+     * 容纳未来数据的分区名
+     */
+    public static final String MAX_PARTITION = "pmax";
+
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMM");
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TablePartitionRepository(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    /**
+     * 表是否已分区
+     * @param table 表名
+     * @return 是否已分区
+     */
+    public boolean isPartitioned(String table) {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.PARTITIONS "
+                + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL",
+                Integer.class, table);
+        return count != null && count > 0;
+    }
+
+    /**
+     * 查询表中最早的记录时间
+     * 分区表按分区顺序逐个查询，在第一个有记录的分区处停止，不会访问较新的月分区；未分区的表直接查询整表
+     * @param table 表名
+     * @return 最早记录时间，无记录时为null
+     */
+    public LocalDateTime findMinRecordTime(String table) {
+        checkIdentifier(table);
+        List<String> partitions = jdbcTemplate.queryForList("SELECT PARTITION_NAME FROM information_schema.PARTITIONS "
+                + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL "
+                + "ORDER BY PARTITION_ORDINAL_POSITION", String.class, table);
+        if (partitions.isEmpty()) {
+            return jdbcTemplate.queryForObject(minRecordTimeSql(table, null), LocalDateTime.class);
+        }
+        for (String partition : partitions) {
+            LocalDateTime minRecordTime = jdbcTemplate.queryForObject(
+                    minRecordTimeSql(table, checkIdentifier(partition)), LocalDateTime.class);
+            if (minRecordTime != null) {
+                return minRecordTime;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 按 information_schema 的统计信息估算表中每行占用的字节数（含索引）
+     * @param table 表名
+     * @return 每行字节数，表为空或无统计信息时为0
+     */
+    public long estimateRowBytes(String table) {
+        List<Long> bytes = jdbcTemplate.queryForList(
+                "SELECT COALESCE((DATA_LENGTH + INDEX_LENGTH) DIV NULLIF(TABLE_ROWS, 0), 0) "
+                + "FROM information_schema.TABLES WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ?", Long.class, table);
+        return bytes.isEmpty() || bytes.get(0) == null ? 0L : bytes.get(0);
+    }
+
+    /**
+     * 列出表的月分区，不含 pmax
+     * @param table 表名
+     * @return 按月份升序的分区
+     */
+    public List<MonthPartition> listMonthPartitions(String table) {
+        List<MonthPartition> partitions = new ArrayList<>();
+        jdbcTemplate.query("SELECT PARTITION_NAME, TABLE_ROWS, DATA_LENGTH + INDEX_LENGTH "
+                + "FROM information_schema.PARTITIONS "
+                + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND PARTITION_NAME IS NOT NULL "
+                + "ORDER BY PARTITION_ORDINAL_POSITION", rs -> {
+            YearMonth month = parseMonth(rs.getString(1));
+            if (month != null) {
+                partitions.add(new MonthPartition(rs.getString(1), month, rs.getLong(2), rs.getLong(3)));
+            }
+        }, table);
+        return partitions;
+    }
+
+    /**
+     * 把未分区的表转换为按月分区，包含 [首月, 末月] 的每个月及 pmax；大表上会整表重建，耗时较长
+     * @param table 表名
+     * @param firstMonth 首月
+     * @param lastMonth 末月
+     */
+    public void convertToMonthlyPartitions(String table, YearMonth firstMonth, YearMonth lastMonth) {
+        checkIdentifier(table);
+        List<String> foreignKeys = jdbcTemplate.queryForList(
+                "SELECT CONSTRAINT_NAME FROM information_schema.TABLE_CONSTRAINTS "
+                + "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND CONSTRAINT_TYPE = 'FOREIGN KEY'",
+                String.class, table);
+        for (String foreignKey : foreignKeys) {
+            jdbcTemplate.execute("ALTER TABLE " + table + " DROP FOREIGN KEY " + checkIdentifier(foreignKey));
+        }
+        // 主键调整与分区在同一条语句中完成，只重建一次整表
+        StringBuilder sql = new StringBuilder("ALTER TABLE ").append(table)
+                .append(" DROP PRIMARY KEY, ADD PRIMARY KEY (id, record_time)")
+                .append(" PARTITION BY RANGE COLUMNS(record_time) (");
+        for (YearMonth month = firstMonth; !month.isAfter(lastMonth); month = month.plusMonths(1)) {
+            sql.append(partitionDefinition(month)).append(", ");
+        }
+        sql.append("PARTITION ").append(MAX_PARTITION).append(" VALUES LESS THAN (MAXVALUE))");
+        jdbcTemplate.execute(sql.toString());
+    }
+
+    /**
+     * 从 pmax 中拆出一个月分区，pmax 中没有该月及以后的数据时只修改元数据
+     * @param table 表名
+     * @param month 月份，必须晚于已有的最后一个月分区
+     */
+    public void addMonthPartition(String table, YearMonth month) {
+        checkIdentifier(table);
+        jdbcTemplate.execute("ALTER TABLE " + table + " REORGANIZE PARTITION " + MAX_PARTITION + " INTO ("
+                + partitionDefinition(month) + ", PARTITION " + MAX_PARTITION + " VALUES LESS THAN (MAXVALUE))");
+    }
+
+    /**
+     * 删除一个月分区及其中的全部数据
+     * @param table 表名
+     * @param month 月份
+     */
+    public void dropMonthPartition(String table, YearMonth month) {
+        checkIdentifier(table);
+        jdbcTemplate.execute("ALTER TABLE " + table + " DROP PARTITION " + partitionName(month));
+    }
+
+    /**
+     * 统计月分区中不满足迁移条件的记录数：记录ID大于上限或时间早于下限
+     * @param table 表名
+     * @param month 月份
+     * @param since 时间下限（含）
+     * @param maxId 记录ID上限（含）
+     * @return 记录数
+     */
+    public long countRowsOutside(String table, YearMonth month, LocalDateTime since, long maxId) {
+        checkIdentifier(table);
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table + " PARTITION ("
+                + partitionName(month) + ") WHERE id > ? OR record_time < ?", Long.class, maxId, since);
+        return count != null ? count : 0L;
+    }
+
+    /**
+     * 查看查询计划中每个表访问的分区，用于确认分区裁剪
+     * @param sql 查询语句
+     * @param args 查询参数
+     * @return 查询计划每行的 partitions 列
+     */
+    public List<String> explainPartitions(String sql, Object... args) {
+        return jdbcTemplate.query("EXPLAIN " + sql, (rs, rowNum) -> {
+            ResultSetMetaData metaData = rs.getMetaData();
+            for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                if ("partitions".equalsIgnoreCase(metaData.getColumnLabel(i))) {
+                    return rs.getString(i);
+                }
+            }
+            return null;
+        }, args);
+    }
+
+    /**
+     * 月份对应的分区名
+     * @param month 月份
+     * @return 分区名，如 p202501
+     */
+    public static String partitionName(YearMonth month) {
+        return PARTITION_NAME.format(month);
+    }
+
+    /**
+     * 查询最早记录时间的语句
+     * @param table 表名
+     * @param partition 分区名，为null时查询整表
+     * @return 查询语句
+     */
+    static String minRecordTimeSql(String table, String partition) {
+        return "SELECT MIN(record_time) FROM " + table + (partition != null ? " PARTITION (" + partition + ")" : "");
+    }
+
+    private static YearMonth parseMonth(String partitionName) {
+        try {
+            return YearMonth.parse(partitionName, PARTITION_NAME);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+
+    private static String partitionDefinition(YearMonth month) {
+        return "PARTITION " + partitionName(month) + " VALUES LESS THAN ('" + month.plusMonths(1).atDay(1) + " 00:00:00')";
+    }
+
+    private static String checkIdentifier(String identifier) {
+        if (!IDENTIFIER.matcher(identifier).matches()) {
+            throw new IllegalArgumentException("非法的表名：" + identifier);
+        }
+        return identifier;
+    }
+
+    /**
+     * 月分区信息
+     */
+    @Getter
+    @ToString
+    @AllArgsConstructor
+    public static class MonthPartition {
+
+        /**
+         * 分区名
+         */
+        private final String name;
+
+        /**
+         * 分区月份
+         */
+        private final YearMonth month;
+
+        /**
+         * 估算行数
+         */
+        private final long estimatedRows;
+
+        /**
+         * 数据与索引字节数
+         */
+        private final long sizeInBytes;
+    }
+}
@@ -0,0 +1,77 @@
+package com.example.enshitrafficplatform.repository;
+
+import com.example.enshitrafficplatform.entity.TrafficFlowArchiveBlock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * 交通流量归档块数据访问接口
+ */
+@Repository
+public interface TrafficFlowArchiveBlockRepository extends JpaRepository<TrafficFlowArchiveBlock, Long> {
+
+    /**
+     * 查询监测点某天的归档块
+     * @param monitoringPointId 监测点ID
+     * @param blockDate 数据日期
+     * @return 归档块
+     */
+    Optional<TrafficFlowArchiveBlock> findByMonitoringPointIdAndBlockDate(Long monitoringPointId, LocalDate blockDate);
+
+    /**
+     * 查询监测点在日期范围内的归档块
+     * @param monitoringPointId 监测点ID
+     * @param startDate 开始日期（含）
+     * @param endDate 结束日期（含）
+     * @return 按日期升序的归档块
+     */
+    List<TrafficFlowArchiveBlock> findByMonitoringPointIdAndBlockDateBetweenOrderByBlockDateAsc(
+            Long monitoringPointId, LocalDate startDate, LocalDate endDate);
+
+    /**
+     * 某天是否已有归档块
+     * @param blockDate 数据日期
+     * @return 是否存在
+     */
+    boolean existsByBlockDate(LocalDate blockDate);
+
+    /**
+     * 删除某天的全部归档块
+     * @param blockDate 数据日期
+     * @return 删除数量
+     */
+    @Modifying
+    @Query("delete from TrafficFlowArchiveBlock b where b.blockDate = :blockDate")
+    int deleteByBlockDate(@Param("blockDate") LocalDate blockDate);
+
+    /**
+     * 查询日期范围内的全部归档块
+     * @param startDate 开始日期（含）
+     * @param endDate 结束日期（含）
+     * @return 归档块
+     */
+    List<TrafficFlowArchiveBlock> findByBlockDateBetween(LocalDate startDate, LocalDate endDate);
+
+    /**
+     * 查询最早的归档日期
+     * @return 最早归档日期，无归档块时为null
+     */
+    @Query("select min(b.blockDate) from TrafficFlowArchiveBlock b")
+    LocalDate findMinBlockDate();
+
+    /**
+     * 删除截止日期（含）之前的全部归档块
+     * @param blockDate 截止日期
+     * @return 删除数量
+     */
+    @Modifying
+    @Query("delete from TrafficFlowArchiveBlock b where b.blockDate <= :blockDate")
+    int deleteByBlockDateUpTo(@Param("blockDate") LocalDate blockDate);
+}
@@ -0,0 +1,52 @@
+package com.example.enshitrafficplatform.repository;
+
+import com.example.enshitrafficplatform.entity.TrafficFlowRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 交通流量记录数据访问接口
+ */
+@Repository
+public interface TrafficFlowRecordRepository extends JpaRepository<TrafficFlowRecord, Long> {
+
+    /**
+     * 查询监测点在时间范围内的流量记录
+     * @param monitoringPointId 监测点ID
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     * @return 按时间升序的流量记录
+     */
+    List<TrafficFlowRecord> findByMonitoringPointIdAndRecordTimeGreaterThanEqualAndRecordTimeLessThanOrderByRecordTimeAsc(
+            Long monitoringPointId, LocalDateTime startTime, LocalDateTime endTime);
+
+    /**
+     * 分批删除已迁移到冷存储的流量记录，每次删除有限行数以缩短锁持有时间
+     * @param startTime 记录时间下限（含）
+     * @param endTime 记录时间上限（不含）
+     * @param maxId 记录ID上限（含），之后写入的迟到记录不删除
+     * @param limit 本批最多删除的行数
+     * @return 删除数量
+     */
+    @Modifying
+    @Query(value = "DELETE FROM traffic_flow_records WHERE record_time >= :startTime "
+            + "AND record_time < :endTime AND id <= :maxId LIMIT :limit", nativeQuery = true)
+    int deleteMigratedBatch(@Param("startTime") LocalDateTime startTime, @Param("endTime") LocalDateTime endTime,
+                            @Param("maxId") long maxId, @Param("limit") int limit);
+
+    /**
+     * 统计时间范围内的流量记录数
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     * @return 记录数
+     */
+    @Query(value = "SELECT COUNT(*) FROM traffic_flow_records WHERE record_time >= :startTime AND record_time < :endTime",
+            nativeQuery = true)
+    long countByRecordTimeRange(@Param("startTime") LocalDateTime startTime, @Param("endTime") LocalDateTime endTime);
+}
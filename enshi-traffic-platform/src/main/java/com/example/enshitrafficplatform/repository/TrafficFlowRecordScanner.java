@@ -0,0 +1,257 @@
+package com.example.enshitrafficplatform.repository;
+
+import com.example.enshitrafficplatform.dictionary.CongestionLevel;
+import com.example.enshitrafficplatform.dictionary.DictionaryCode;
+import com.example.enshitrafficplatform.dictionary.Direction;
+import com.example.enshitrafficplatform.dto.FlowReading;
+import com.example.enshitrafficplatform.util.DateUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.function.Consumer;
+
+/**
+ * 交通流量记录流式扫描器
+ * 通过JDBC流式结果集逐行读取 traffic_flow_records，不加载实体，
+ * 每行填充到同一个 {@link FlowReading} 实例后交给回调处理。
+ * 扫描语句包内可见，用于在分区表上查看查询计划、确认按 record_time 的分区裁剪
+ */
+@Repository
+public class TrafficFlowRecordScanner {
+
+    /**
+     * MySQL驱动按行流式返回结果集所需的fetchSize
+     */
+    private static final int STREAMING_FETCH_SIZE = Integer.MIN_VALUE;
+
+    private static final String SELECT_COLUMNS =
+            "SELECT r.id, r.monitoring_point_id, COALESCE(r.road_section_id, p.road_section_id), "
+            + "TIMESTAMPDIFF(SECOND, " + DateUtils.SQL_EPOCH_ORIGIN + ", r.record_time), "
+            + "r.flow_rate, r.average_speed, r.occupancy_rate, "
+            + "r.large_vehicle_count, r.medium_vehicle_count, r.small_vehicle_count, "
+            + "r.headway, r.data_quality, r.weather_condition, r.direction_code, r.congestion_level_code "
+            + "FROM traffic_flow_records r JOIN monitoring_points p ON p.id = r.monitoring_point_id ";
+
+    static final String SCAN_SQL = SELECT_COLUMNS
+            + "WHERE r.record_time >= ? AND r.record_time < ? ORDER BY r.record_time";
+
+    static final String SCAN_ORDER_BY_POINT_SQL = SELECT_COLUMNS
+            + "WHERE r.record_time >= ? AND r.record_time < ? ORDER BY r.monitoring_point_id, r.record_time";
+
+    static final String SCAN_LATEST_SQL = SELECT_COLUMNS
+            + "WHERE r.monitoring_point_id = ? AND r.record_time >= ? ORDER BY r.record_time DESC, r.id DESC LIMIT 1";
+
+    static final String SCAN_BY_ID_RANGE_SQL = SELECT_COLUMNS + "WHERE r.id > ? AND r.id <= ? ORDER BY r.id";
+
+    static final String SCAN_BY_ID_RANGE_SINCE_SQL = SELECT_COLUMNS
+            + "WHERE r.id > ? AND r.id <= ? AND r.record_time >= ? ORDER BY r.id";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TrafficFlowRecordScanner(DataSource dataSource) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(STREAMING_FETCH_SIZE);
+    }
+
+    /**
+     * 按时间顺序扫描时间范围内的全部流量记录
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     * @param handler 读数回调，读数实例会被复用
+     * @return 扫描的记录数
+     */
+    public long scan(LocalDateTime startTime, LocalDateTime endTime, Consumer<FlowReading> handler) {
+        return query(SCAN_SQL, handler, Timestamp.valueOf(startTime), Timestamp.valueOf(endTime));
+    }
+
+    /**
+     * 扫描时间范围内的全部流量记录，按监测点、时间排序
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     * @param handler 读数回调，读数实例会被复用
+     * @return 扫描的记录数
+     */
+    public long scanOrderByPoint(LocalDateTime startTime, LocalDateTime endTime, Consumer<FlowReading> handler) {
+        return query(SCAN_ORDER_BY_POINT_SQL, handler, Timestamp.valueOf(startTime), Timestamp.valueOf(endTime));
+    }
+
+    /**
+     * 扫描指定监测点在时间范围内的流量记录，按监测点、时间排序
+     * @param monitoringPointIds 监测点ID集合
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     * @param handler 读数回调，读数实例会被复用
+     * @return 扫描的记录数
+     */
+    public long scanPoints(Collection<Long> monitoringPointIds, LocalDateTime startTime, LocalDateTime endTime,
+                           Consumer<FlowReading> handler) {
+        if (monitoringPointIds.isEmpty()) {
+            return 0L;
+        }
+        return query(scanPointsSql(monitoringPointIds.size()), handler,
+                pointTimeArgs(monitoringPointIds, startTime, endTime));
+    }
+
+    /**
+     * 读取监测点在某时间之后的最新一条流量记录
+     * @param monitoringPointId 监测点ID
+     * @param startTime 开始时间（含）
+     * @param handler 读数回调，无记录时不调用
+     * @return 读取的记录数（0或1）
+     */
+    public long scanLatest(Long monitoringPointId, LocalDateTime startTime, Consumer<FlowReading> handler) {
+        return query(SCAN_LATEST_SQL, handler, monitoringPointId, Timestamp.valueOf(startTime));
+    }
+
+    /**
+     * 按记录ID顺序扫描ID区间内的流量记录，用于内存结构的构建与补齐
+     * @param afterId 起始ID（不含）
+     * @param untilId 截止ID（含）
+     * @param since 只扫描该时间之后的记录，为null时不限制；不限制时分区表上会访问全部分区
+     * @param handler 读数回调，读数实例会被复用
+     * @return 扫描的记录数
+     */
+    public long scanByIdRange(long afterId, long untilId, LocalDateTime since, Consumer<FlowReading> handler) {
+        if (since == null) {
+            return query(SCAN_BY_ID_RANGE_SQL, handler, afterId, untilId);
+        }
+        return query(SCAN_BY_ID_RANGE_SINCE_SQL, handler, afterId, untilId, Timestamp.valueOf(since));
+    }
+
+    /**
+     * 扫描指定监测点在时间范围内的车型计数，只读取车型统计所需的列
+     * @param monitoringPointIds 监测点ID集合
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     * @param handler 车型计数回调
+     * @return 扫描的记录数
+     */
+    public long scanVehicleCounts(Collection<Long> monitoringPointIds, LocalDateTime startTime, LocalDateTime endTime,
+                                  VehicleCountHandler handler) {
+        if (monitoringPointIds.isEmpty()) {
+            return 0L;
+        }
+        long[] rows = new long[1];
+        String sql = scanVehicleCountsSql(monitoringPointIds.size());
+        jdbcTemplate.query(statementCreator(sql, pointTimeArgs(monitoringPointIds, startTime, endTime)), rs -> {
+            handler.accept(rs.getLong(1), rs.getLong(2), rs.getLong(3),
+                    getInt(rs, 4), getInt(rs, 5), getInt(rs, 6));
+            rows[0]++;
+        });
+        return rows[0];
+    }
+
+    /**
+     * 查询当前最大的流量记录ID
+     * @return 最大记录ID，无记录时为0
+     */
+    public long maxRecordId() {
+        Long maxId = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM traffic_flow_records", Long.class);
+        return maxId != null ? maxId : 0L;
+    }
+
+    static String scanPointsSql(int pointCount) {
+        return SELECT_COLUMNS + "WHERE r.monitoring_point_id IN (" + placeholders(pointCount) + ") "
+                + "AND r.record_time >= ? AND r.record_time < ? ORDER BY r.monitoring_point_id, r.record_time";
+    }
+
+    static String scanVehicleCountsSql(int pointCount) {
+        return "SELECT r.monitoring_point_id, COALESCE(r.road_section_id, p.road_section_id), "
+                + "TIMESTAMPDIFF(SECOND, " + DateUtils.SQL_EPOCH_ORIGIN + ", r.record_time), "
+                + "r.large_vehicle_count, r.medium_vehicle_count, r.small_vehicle_count "
+                + "FROM traffic_flow_records r JOIN monitoring_points p ON p.id = r.monitoring_point_id "
+                + "WHERE r.monitoring_point_id IN (" + placeholders(pointCount) + ") "
+                + "AND r.record_time >= ? AND r.record_time < ?";
+    }
+
+    private static String placeholders(int count) {
+        return String.join(",", Collections.nCopies(count, "?"));
+    }
+
+    private long query(String sql, Consumer<FlowReading> handler, Object... args) {
+        FlowReading reading = new FlowReading();
+        long[] rows = new long[1];
+        jdbcTemplate.query(statementCreator(sql, args), rs -> {
+            fill(rs, reading);
+            handler.accept(reading);
+            rows[0]++;
+        });
+        return rows[0];
+    }
+
+    private static Object[] pointTimeArgs(Collection<Long> monitoringPointIds, LocalDateTime startTime,
+                                          LocalDateTime endTime) {
+        Object[] args = new Object[monitoringPointIds.size() + 2];
+        int index = 0;
+        for (Long id : monitoringPointIds) {
+            args[index++] = id;
+        }
+        args[index++] = Timestamp.valueOf(startTime);
+        args[index] = Timestamp.valueOf(endTime);
+        return args;
+    }
+
+    private static PreparedStatementCreator statementCreator(String sql, Object... args) {
+        return connection -> {
+            PreparedStatement statement = connection.prepareStatement(
+                    sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            for (int i = 0; i < args.length; i++) {
+                statement.setObject(i + 1, args[i]);
+            }
+            return statement;
+        };
+    }
+
+    private static void fill(ResultSet rs, FlowReading reading) throws SQLException {
+        reading.reset();
+        reading.setRecordId(rs.getLong(1));
+        reading.setMonitoringPointId(rs.getLong(2));
+        reading.setRoadSectionId(rs.getLong(3));
+        reading.setEpochSecond(rs.getLong(4));
+        reading.setFlowRate(getInt(rs, 5));
+        reading.setAverageSpeed(getDouble(rs, 6));
+        reading.setOccupancyRate(getDouble(rs, 7));
+        reading.setLargeVehicleCount(getInt(rs, 8));
+        reading.setMediumVehicleCount(getInt(rs, 9));
+        reading.setSmallVehicleCount(getInt(rs, 10));
+        reading.setHeadway(getDouble(rs, 11));
+        reading.setDataQuality(getInt(rs, 12));
+        reading.setWeatherCondition(rs.getString(13));
+        reading.setDirectionCode(getCode(rs, 14, Direction.UNKNOWN));
+        reading.setCongestionLevelCode(getCode(rs, 15, CongestionLevel.UNKNOWN));
+    }
+
+    private static int getInt(ResultSet rs, int column) throws SQLException {
+        int value = rs.getInt(column);
+        return rs.wasNull() ? FlowReading.MISSING_INT : value;
+    }
+
+    private static byte getCode(ResultSet rs, int column, DictionaryCode unknown) throws SQLException {
+        byte value = rs.getByte(column);
+        return rs.wasNull() ? unknown.getCode() : value;
+    }
+
+    private static double getDouble(ResultSet rs, int column) throws SQLException {
+        double value = rs.getDouble(column);
+        return rs.wasNull() ? Double.NaN : value;
+    }
+
+    /**
+     * 车型计数回调，以基本类型传递每行数据，缺失的计数为 {@link FlowReading#MISSING_INT}
+     */
+    @FunctionalInterface
+    public interface VehicleCountHandler {
+
+        void accept(long monitoringPointId, long roadSectionId, long epochSecond,
+                    int largeVehicleCount, int mediumVehicleCount, int smallVehicleCount);
+    }
+}
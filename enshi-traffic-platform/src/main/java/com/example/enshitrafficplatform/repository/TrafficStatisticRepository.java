@@ -0,0 +1,126 @@
+package com.example.enshitrafficplatform.repository;
+
+import com.example.enshitrafficplatform.entity.TrafficStatistic;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 交通统计数据访问接口
+ */
+@Repository
+public interface TrafficStatisticRepository extends JpaRepository<TrafficStatistic, Long> {
+
+    /**
+     * 全天统计的时间类型
+     */
+    String FULL_DAY = "全天";
+
+    /**
+     * 查询某天已有对应全天统计的分时段统计ID，即可由全天统计替代、可以清理的记录
+     * @param statisticDate 统计日期
+     * @param limit 最多返回的数量
+     * @return 统计ID
+     */
+    @Query(value = "SELECT s.id FROM traffic_statistics s "
+            + "WHERE s.statistic_date = :statisticDate AND s.time_type <> '" + FULL_DAY + "' "
+            + "AND EXISTS (SELECT 1 FROM traffic_statistics d WHERE d.statistic_date = s.statistic_date "
+            + "AND d.statistic_type = s.statistic_type AND d.time_type = '" + FULL_DAY + "' "
+            + "AND d.road_section_id <=> s.road_section_id AND d.monitoring_point_id <=> s.monitoring_point_id) "
+            + "LIMIT :limit", nativeQuery = true)
+    List<Long> findDetailIdsCoveredByFullDay(@Param("statisticDate") LocalDate statisticDate,
+                                             @Param("limit") int limit);
+
+    /**
+     * 统计某天还没有对应全天统计的分时段统计数量
+     * @param statisticDate 统计日期
+     * @return 未被全天统计覆盖的记录数
+     */
+    @Query(value = "SELECT COUNT(*) FROM traffic_statistics s "
+            + "WHERE s.statistic_date = :statisticDate AND s.time_type <> '" + FULL_DAY + "' "
+            + "AND NOT EXISTS (SELECT 1 FROM traffic_statistics d WHERE d.statistic_date = s.statistic_date "
+            + "AND d.statistic_type = s.statistic_type AND d.time_type = '" + FULL_DAY + "' "
+            + "AND d.road_section_id <=> s.road_section_id AND d.monitoring_point_id <=> s.monitoring_point_id)",
+            nativeQuery = true)
+    long countDetailsNotCoveredByFullDay(@Param("statisticDate") LocalDate statisticDate);
+
+    /**
+     * 由某天的分时段统计汇总生成缺少的全天统计，已有全天统计的对象不受影响
+     * 平均值按样本数加权，事件数、拥堵时长、样本数相加，最值取各时段的最值
+     * @param statisticDate 统计日期
+     * @return 写入的全天统计数量
+     */
+    @Modifying
+    @Query(value = "INSERT INTO traffic_statistics (statistic_type, statistic_date, time_type, road_section_id, "
+            + "monitoring_point_id, average_flow_rate, average_speed, average_congestion_index, "
+            + "large_vehicle_percentage, medium_vehicle_percentage, small_vehicle_percentage, event_count, "
+            + "severe_event_count, max_flow_rate, min_flow_rate, max_speed, min_speed, max_congestion_index, "
+            + "peak_factor, congestion_duration, data_source, sample_count) "
+            + "SELECT g.statistic_type, g.statistic_date, '" + FULL_DAY + "', g.road_section_id, "
+            + "g.monitoring_point_id, g.average_flow_rate, g.average_speed, g.average_congestion_index, "
+            + "g.large_vehicle_percentage, g.medium_vehicle_percentage, g.small_vehicle_percentage, g.event_count, "
+            + "g.severe_event_count, g.max_flow_rate, g.min_flow_rate, g.max_speed, g.min_speed, "
+            + "g.max_congestion_index, g.max_flow_rate / NULLIF(g.average_flow_rate, 0), g.congestion_duration, "
+            + "'由分时段统计汇总', g.sample_count "
+            + "FROM (SELECT s.statistic_type, s.statistic_date, s.road_section_id, s.monitoring_point_id, "
+            + "SUM(s.average_flow_rate * COALESCE(s.sample_count, 1)) "
+            + "/ SUM(CASE WHEN s.average_flow_rate IS NOT NULL THEN COALESCE(s.sample_count, 1) END) "
+            + "AS average_flow_rate, "
+            + "SUM(s.average_speed * COALESCE(s.sample_count, 1)) "
+            + "/ SUM(CASE WHEN s.average_speed IS NOT NULL THEN COALESCE(s.sample_count, 1) END) AS average_speed, "
+            + "SUM(s.average_congestion_index * COALESCE(s.sample_count, 1)) "
+            + "/ SUM(CASE WHEN s.average_congestion_index IS NOT NULL THEN COALESCE(s.sample_count, 1) END) "
+            + "AS average_congestion_index, "
+            + "SUM(s.large_vehicle_percentage * COALESCE(s.sample_count, 1)) "
+            + "/ SUM(CASE WHEN s.large_vehicle_percentage IS NOT NULL THEN COALESCE(s.sample_count, 1) END) "
+            + "AS large_vehicle_percentage, "
+            + "SUM(s.medium_vehicle_percentage * COALESCE(s.sample_count, 1)) "
+            + "/ SUM(CASE WHEN s.medium_vehicle_percentage IS NOT NULL THEN COALESCE(s.sample_count, 1) END) "
+            + "AS medium_vehicle_percentage, "
+            + "SUM(s.small_vehicle_percentage * COALESCE(s.sample_count, 1)) "
+            + "/ SUM(CASE WHEN s.small_vehicle_percentage IS NOT NULL THEN COALESCE(s.sample_count, 1) END) "
+            + "AS small_vehicle_percentage, "
+            + "SUM(s.event_count) AS event_count, SUM(s.severe_event_count) AS severe_event_count, "
+            + "MAX(s.max_flow_rate) AS max_flow_rate, MIN(s.min_flow_rate) AS min_flow_rate, "
+            + "MAX(s.max_speed) AS max_speed, MIN(s.min_speed) AS min_speed, "
+            + "MAX(s.max_congestion_index) AS max_congestion_index, "
+            + "SUM(s.congestion_duration) AS congestion_duration, SUM(s.sample_count) AS sample_count "
+            + "FROM traffic_statistics s "
+            + "WHERE s.statistic_date = :statisticDate AND s.time_type <> '" + FULL_DAY + "' "
+            + "AND NOT EXISTS (SELECT 1 FROM traffic_statistics d WHERE d.statistic_date = s.statistic_date "
+            + "AND d.statistic_type = s.statistic_type AND d.time_type = '" + FULL_DAY + "' "
+            + "AND d.road_section_id <=> s.road_section_id AND d.monitoring_point_id <=> s.monitoring_point_id) "
+            + "GROUP BY s.statistic_type, s.statistic_date, s.road_section_id, s.monitoring_point_id) g",
+            nativeQuery = true)
+    int insertFullDayFromDetails(@Param("statisticDate") LocalDate statisticDate);
+
+    /**
+     * 查询最早的分时段统计日期
+     * @return 最早日期，无数据时为null
+     */
+    @Query("select min(s.statisticDate) from TrafficStatistic s where s.timeType <> '" + FULL_DAY + "'")
+    LocalDate findMinDetailDate();
+
+    /**
+     * 分批删除某天的全部统计记录
+     * @param statisticDate 统计日期
+     * @param limit 本批最多删除的行数
+     * @return 删除数量
+     */
+    @Modifying
+    @Query(value = "DELETE FROM traffic_statistics WHERE statistic_date = :statisticDate LIMIT :limit",
+            nativeQuery = true)
+    int deleteBatch(@Param("statisticDate") LocalDate statisticDate, @Param("limit") int limit);
+
+    /**
+     * 查询最早的统计日期
+     * @return 最早日期，无数据时为null
+     */
+    @Query("select min(s.statisticDate) from TrafficStatistic s")
+    LocalDate findMinStatisticDate();
+}
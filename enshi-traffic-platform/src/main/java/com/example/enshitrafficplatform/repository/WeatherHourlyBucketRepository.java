@@ -0,0 +1,99 @@
+package com.example.enshitrafficplatform.repository;
+
+import com.example.enshitrafficplatform.entity.WeatherHourlyBucket;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 区域小时天气桶数据访问接口
+ */
+@Repository
+public interface WeatherHourlyBucketRepository extends JpaRepository<WeatherHourlyBucket, Long> {
+
+    /**
+     * 查询区域在时间范围内的小时天气桶
+     * @param regionId 区域ID，未关联区域为0
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     * @return 按时间升序的小时天气桶
+     */
+    List<WeatherHourlyBucket> findByRegionIdAndBucketStartGreaterThanEqualAndBucketStartLessThanOrderByBucketStartAsc(
+            Long regionId, LocalDateTime startTime, LocalDateTime endTime);
+
+    /**
+     * 由原始天气记录重建时间范围内的小时天气桶，天气状况取该小时出现最多的一种
+     * @param startTime 开始时间（含，整点）
+     * @param endTime 结束时间（不含，整点）
+     * @return 写入行数
+     */
+    @Modifying
+    @Query(value = "INSERT INTO weather_hourly_buckets (region_id, bucket_start, record_count, weather_condition, "
+            + "temperature_avg, humidity_avg, precipitation_avg, precipitation_max, visibility_min, wind_speed_max, "
+            + "foggy_count, snow_ice_count, thunderstorm_count) "
+            + "SELECT g.region_id, g.hour_start, g.record_count, "
+            + "(SELECT c.weather_condition FROM weather_records c "
+            + "WHERE COALESCE(c.region_id, 0) = g.region_id "
+            + "AND c.record_time >= g.hour_start AND c.record_time < g.hour_start + INTERVAL 1 HOUR "
+            + "GROUP BY c.weather_condition ORDER BY COUNT(*) DESC, c.weather_condition LIMIT 1), "
+            + "g.temperature_avg, g.humidity_avg, g.precipitation_avg, g.precipitation_max, g.visibility_min, "
+            + "g.wind_speed_max, g.foggy_count, g.snow_ice_count, g.thunderstorm_count "
+            + "FROM (SELECT COALESCE(w.region_id, 0) AS region_id, "
+            + "TIMESTAMP(DATE_FORMAT(w.record_time, '%Y-%m-%d %H:00:00')) AS hour_start, COUNT(*) AS record_count, "
+            + "AVG(w.temperature) AS temperature_avg, AVG(w.humidity) AS humidity_avg, "
+            + "AVG(w.precipitation) AS precipitation_avg, MAX(w.precipitation) AS precipitation_max, "
+            + "MIN(w.visibility) AS visibility_min, MAX(w.wind_speed) AS wind_speed_max, "
+            + "SUM(w.is_foggy) AS foggy_count, SUM(w.is_snow_ice) AS snow_ice_count, "
+            + "SUM(w.has_thunderstorm) AS thunderstorm_count "
+            + "FROM weather_records w WHERE w.record_time >= :startTime AND w.record_time < :endTime "
+            + "GROUP BY COALESCE(w.region_id, 0), hour_start) g", nativeQuery = true)
+    int rebuildFromRecords(@Param("startTime") LocalDateTime startTime,
+                           @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * 删除时间范围内的小时天气桶
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     * @return 删除行数
+     */
+    @Modifying
+    @Query(value = "DELETE FROM weather_hourly_buckets WHERE bucket_start >= :startTime AND bucket_start < :endTime",
+            nativeQuery = true)
+    int deleteByBucketStartRange(@Param("startTime") LocalDateTime startTime,
+                                 @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * 分批删除时间范围内的小时天气桶
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     * @param limit 本批最多删除的行数
+     * @return 删除行数
+     */
+    @Modifying
+    @Query(value = "DELETE FROM weather_hourly_buckets WHERE bucket_start >= :startTime AND bucket_start < :endTime "
+            + "LIMIT :limit", nativeQuery = true)
+    int deleteBatch(@Param("startTime") LocalDateTime startTime, @Param("endTime") LocalDateTime endTime,
+                    @Param("limit") int limit);
+
+    /**
+     * 汇总时间范围内小时天气桶的原始记录数
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     * @return 原始记录数
+     */
+    @Query(value = "SELECT COALESCE(SUM(record_count), 0) FROM weather_hourly_buckets "
+            + "WHERE bucket_start >= :startTime AND bucket_start < :endTime", nativeQuery = true)
+    long sumRecordCount(@Param("startTime") LocalDateTime startTime, @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * 查询最早的小时天气桶起点
+     * @return 最早起点，无数据时为null
+     */
+    @Query("select min(b.bucketStart) from WeatherHourlyBucket b")
+    LocalDateTime findMinBucketStart();
+}
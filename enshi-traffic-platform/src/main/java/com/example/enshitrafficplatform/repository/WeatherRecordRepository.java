@@ -0,0 +1,86 @@
+package com.example.enshitrafficplatform.repository;
+
+import com.example.enshitrafficplatform.entity.WeatherRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 天气记录数据访问接口
+ */
+@Repository
+public interface WeatherRecordRepository extends JpaRepository<WeatherRecord, Long> {
+
+    /**
+     * 统计时间范围内的天气记录数
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     * @return 记录数
+     */
+    @Query(value = "SELECT COUNT(*) FROM weather_records WHERE record_time >= :startTime AND record_time < :endTime",
+            nativeQuery = true)
+    long countByRecordTimeRange(@Param("startTime") LocalDateTime startTime, @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * 分批删除时间范围内的天气记录
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     * @param limit 本批最多删除的行数
+     * @return 删除数量
+     */
+    @Modifying
+    @Query(value = "DELETE FROM weather_records WHERE record_time >= :startTime AND record_time < :endTime LIMIT :limit",
+            nativeQuery = true)
+    int deleteBatch(@Param("startTime") LocalDateTime startTime, @Param("endTime") LocalDateTime endTime,
+                    @Param("limit") int limit);
+
+    /**
+     * 查询某一时间之后有经纬度的天气记录，用于确定各观测站的当前观测
+     * @param since 开始时间（含）
+     * @return 天气记录
+     */
+    @Query("select w from WeatherRecord w where w.recordTime >= :since "
+            + "and w.longitude is not null and w.latitude is not null")
+    List<WeatherRecord> findLocatedSince(@Param("since") LocalDateTime since);
+
+    /**
+     * 按时间顺序查询时间范围内有经纬度的天气记录，用于分页回放天气
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     * @return 按记录时间、ID排序的天气记录
+     */
+    @Query("select w from WeatherRecord w where w.recordTime >= :startTime and w.recordTime < :endTime "
+            + "and w.longitude is not null and w.latitude is not null order by w.recordTime, w.id")
+    List<WeatherRecord> findLocatedBetween(@Param("startTime") LocalDateTime startTime,
+                                           @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * 查询时间范围内出现过的观测位置
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     * @return 每行为 [经度, 纬度]
+     */
+    @Query("select distinct w.longitude, w.latitude from WeatherRecord w "
+            + "where w.recordTime >= :startTime and w.recordTime < :endTime "
+            + "and w.longitude is not null and w.latitude is not null")
+    List<Object[]> findLocationsBetween(@Param("startTime") LocalDateTime startTime,
+                                        @Param("endTime") LocalDateTime endTime);
+
+    /**
+     * 查询某一数据来源下各区域在某一时间之后入库的最新观测时间
+     * 按时间下限只访问近期分区；该时间之后没有记录的区域不在结果中
+     * @param dataSource 数据来源
+     * @param since 开始时间（含）
+     * @return 每行为 [区域ID, 最新记录时间]
+     */
+    @Query("select w.region.id, max(w.recordTime) from WeatherRecord w "
+            + "where w.dataSource = :dataSource and w.recordTime >= :since and w.region is not null "
+            + "group by w.region.id")
+    List<Object[]> findLatestRecordTimesByRegion(@Param("dataSource") String dataSource,
+                                                 @Param("since") LocalDateTime since);
+}
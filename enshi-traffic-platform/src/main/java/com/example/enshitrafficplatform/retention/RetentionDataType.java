@@ -0,0 +1,54 @@
+package com.example.enshitrafficplatform.retention;
+
+import java.util.List;
+
+/**
+ * 受保留策略管理的数据类型及其层级，层级按降采样顺序排列
+ */
+public enum RetentionDataType {
+
+    /**
+     * 流量记录：原始记录 → 监测点5分钟桶 → 监测点小时桶
+     */
+    FLOW_RECORDS("流量记录", RetentionTier.RAW, RetentionTier.FIVE_MINUTE, RetentionTier.HOURLY),
+
+    /**
+     * 天气记录：原始记录 → 区域小时桶
+     */
+    WEATHER_RECORDS("天气记录", RetentionTier.RAW, RetentionTier.HOURLY),
+
+    /**
+     * 交通统计：分时段统计 → 全天统计
+     */
+    STATISTICS("交通统计", RetentionTier.RAW, RetentionTier.DAILY);
+
+    private final String label;
+
+    private final List<RetentionTier> tiers;
+
+    RetentionDataType(String label, RetentionTier... tiers) {
+        this.label = label;
+        this.tiers = List.of(tiers);
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    public List<RetentionTier> getTiers() {
+        return tiers;
+    }
+
+    /**
+     * 获取下一层级
+     * @param tier 当前层级
+     * @return 下一层级，已是最后一层时为null
+     */
+    public RetentionTier nextTier(RetentionTier tier) {
+        int index = tiers.indexOf(tier);
+        if (index < 0) {
+            throw new IllegalArgumentException(label + "没有层级：" + tier);
+        }
+        return index + 1 < tiers.size() ? tiers.get(index + 1) : null;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.enshitrafficplatform.retention;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * 一种数据的保留策略：每个层级保留的天数，0表示永久保留
+ */
+public final class RetentionPolicy {
+
+    private final RetentionDataType dataType;
+
+    private final Map<RetentionTier, Integer> retentionDays;
+
+    private RetentionPolicy(RetentionDataType dataType, Map<RetentionTier, Integer> retentionDays) {
+        this.dataType = dataType;
+        this.retentionDays = retentionDays;
+    }
+
+    /**
+     * 由配置创建保留策略，未配置的层级永久保留
+     * @param dataType 数据类型
+     * @param configured 层级保留天数
+     * @return 保留策略
+     * @throws IllegalArgumentException 配置了数据类型没有的层级或天数为负数
+     */
+    public static RetentionPolicy of(RetentionDataType dataType, Map<RetentionTier, Integer> configured) {
+        Map<RetentionTier, Integer> days = new EnumMap<>(RetentionTier.class);
+        for (RetentionTier tier : dataType.getTiers()) {
+            days.put(tier, 0);
+        }
+        if (configured != null) {
+            for (Map.Entry<RetentionTier, Integer> entry : configured.entrySet()) {
+                if (!days.containsKey(entry.getKey())) {
+                    throw new IllegalArgumentException(dataType.getLabel() + "没有层级：" + entry.getKey());
+                }
+                int value = entry.getValue() != null ? entry.getValue() : 0;
+                if (value < 0) {
+                    throw new IllegalArgumentException(dataType.getLabel() + "的保留天数不能为负数：" + entry.getKey());
+                }
+                days.put(entry.getKey(), value);
+            }
+        }
+        return new RetentionPolicy(dataType, Collections.unmodifiableMap(days));
+    }
+
+    public RetentionDataType getDataType() {
+        return dataType;
+    }
+
+    /**
+     * 获取层级的保留天数
+     * @param tier 层级
+     * @return 保留天数，0表示永久保留
+     */
+    public int getRetentionDays(RetentionTier tier) {
+        return retentionDays.getOrDefault(tier, 0);
+    }
+
+    public Map<RetentionTier, Integer> getRetentionDays() {
+        return retentionDays;
+    }
+}
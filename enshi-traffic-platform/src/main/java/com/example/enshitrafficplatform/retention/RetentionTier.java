@@ -0,0 +1,25 @@
+package com.example.enshitrafficplatform.retention;
+
+/**
+ * 数据保留层级，按时间粒度由细到粗排列
+ */
+public enum RetentionTier {
+
+    RAW("原始数据"),
+
+    FIVE_MINUTE("5分钟聚合"),
+
+    HOURLY("小时聚合"),
+
+    DAILY("日聚合");
+
+    private final String label;
+
+    RetentionTier(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
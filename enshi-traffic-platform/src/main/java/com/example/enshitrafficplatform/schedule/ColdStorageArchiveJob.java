@@ -0,0 +1,28 @@
+package com.example.enshitrafficplatform.schedule;
+
+import com.example.enshitrafficplatform.service.ColdStorageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 冷数据迁移任务
+ * 每天把超过保留期的流量记录迁移到段文件
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ColdStorageArchiveJob {
+
+    private final ColdStorageService coldStorageService;
+
+    @Scheduled(cron = "${app.cold-store.cron:0 0 4 * * *}")
+    public void archive() {
+        try {
+            coldStorageService.archiveAgedData();
+        } catch (RuntimeException e) {
+            log.error("冷数据迁移失败", e);
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.enshitrafficplatform.schedule;
+
+import com.example.enshitrafficplatform.service.FlowArchiveService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * 流量归档任务
+ * 每天凌晨把若干天前的流量记录压缩为归档块
+ */
+@Slf4j
+@Component
+public class FlowArchiveJob {
+
+    private final FlowArchiveService flowArchiveService;
+
+    private final int lagDays;
+
+    public FlowArchiveJob(FlowArchiveService flowArchiveService,
+                          @Value("${app.archive.lag-days:1}") int lagDays) {
+        this.flowArchiveService = flowArchiveService;
+        this.lagDays = lagDays;
+    }
+
+    @Scheduled(cron = "${app.archive.cron:0 30 2 * * *}")
+    public void archive() {
+        LocalDate date = LocalDate.now().minusDays(lagDays);
+        try {
+            flowArchiveService.archiveDay(date);
+        } catch (RuntimeException e) {
+            log.error("流量归档失败：{}", date, e);
+        }
+    }
+}
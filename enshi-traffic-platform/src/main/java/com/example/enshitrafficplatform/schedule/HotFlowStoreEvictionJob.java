@@ -0,0 +1,24 @@
+package com.example.enshitrafficplatform.schedule;
+
+import com.example.enshitrafficplatform.service.HotFlowStoreService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 热存储淘汰任务
+ * 定期淘汰时间窗口之外的流量数据段
+ */
+@Component
+@RequiredArgsConstructor
+public class HotFlowStoreEvictionJob {
+
+    private final HotFlowStoreService hotFlowStoreService;
+
+    @Scheduled(cron = "${app.hot-store.eviction-cron:0 5 * * * *}")
+    public void evictExpired() {
+        if (hotFlowStoreService.isReady()) {
+            hotFlowStoreService.evictExpired();
+        }
+    }
+}
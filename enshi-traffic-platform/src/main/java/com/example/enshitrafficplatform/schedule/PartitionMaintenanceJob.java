@@ -0,0 +1,22 @@
+package com.example.enshitrafficplatform.schedule;
+
+import com.example.enshitrafficplatform.service.PartitionMaintenanceService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 分区维护任务
+ * 每天预先创建未来月份的分区并删除过期分区
+ */
+@Component
+@RequiredArgsConstructor
+public class PartitionMaintenanceJob {
+
+    private final PartitionMaintenanceService partitionMaintenanceService;
+
+    @Scheduled(cron = "${app.partition.cron:0 0 3 * * *}")
+    public void maintain() {
+        partitionMaintenanceService.maintain();
+    }
+}
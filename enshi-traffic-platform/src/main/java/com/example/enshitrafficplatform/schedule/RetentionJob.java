@@ -0,0 +1,28 @@
+package com.example.enshitrafficplatform.schedule;
+
+import com.example.enshitrafficplatform.service.RetentionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 分层保留任务
+ * 每天在流量归档之后执行降采样与过期数据清理
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RetentionJob {
+
+    private final RetentionService retentionService;
+
+    @Scheduled(cron = "${app.retention.cron:0 30 3 * * *}")
+    public void run() {
+        try {
+            retentionService.run();
+        } catch (RuntimeException e) {
+            log.error("保留策略执行失败", e);
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.example.enshitrafficplatform.service;
+
+import com.example.enshitrafficplatform.dto.FlowReading;
+import com.example.enshitrafficplatform.storage.segment.ColdSegment;
+import com.example.enshitrafficplatform.storage.segment.SegmentBlockInfo;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * 冷数据存储服务
+ * 把超过保留期的流量记录迁出 traffic_flow_records，写入本地只读的内存映射段文件，
+ * 并提供按监测点、时间范围的冷数据读取
+ */
+public interface ColdStorageService {
+
+    /**
+     * 按时间顺序扫描监测点在时间范围内的冷数据
+     * @param monitoringPointId 监测点ID
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     * @param blockFilter 依据数据块区间统计的过滤条件，可为null
+     * @param handler 读数回调，读数实例会被复用；冷数据不含记录ID与路段ID
+     * @return 扫描的读数数量
+     */
+    long scan(Long monitoringPointId, LocalDateTime startTime, LocalDateTime endTime,
+              Predicate<SegmentBlockInfo> blockFilter, Consumer<FlowReading> handler);
+
+    /**
+     * 冷存储已覆盖的最后一天
+     * @return 最后一天，无冷数据时为null
+     */
+    LocalDate getCoveredUntil();
+
+    /**
+     * 已加载的段文件
+     * @return 按日期升序的段文件
+     */
+    List<ColdSegment> getSegments();
+
+    /**
+     * 把超过保留期的数据写入新的段文件，并删除已迁移的流量记录与归档块
+     * @return 新写入的段文件数量
+     */
+    int archiveAgedData();
+}
@@ -0,0 +1,15 @@
+package com.example.enshitrafficplatform.service;
+
+/**
+ * 字典编码服务
+ * 方向、拥堵级别、天气、事件类型/状态/严重程度在中文描述列之外另存单字节编码列，
+ * 新写入的记录由实体在写入前同步编码，历史记录由本服务回填
+ */
+public interface DictionaryCodeService {
+
+    /**
+     * 回填全部编码列中为NULL的历史记录
+     * @return 回填的行数
+     */
+    long backfill();
+}
@@ -0,0 +1,41 @@
+package com.example.enshitrafficplatform.service;
+
+import com.example.enshitrafficplatform.dto.FlowReading;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 近期流量分析服务
+ * 基于热存储计算异常检测、实时流量等近期指标，口径与实体类中的同名方法一致
+ */
+public interface FlowAnalyticsService {
+
+    /**
+     * 识别监测点最近7天内的交通异常，口径同 MonitoringPoint#detectTrafficAnomalies
+     * @param monitoringPointId 监测点ID
+     * @return 异常事件列表
+     */
+    List<Map<String, Object>> detectTrafficAnomalies(Long monitoringPointId);
+
+    /**
+     * 获取监测点热存储窗口内的最新读数
+     * @param monitoringPointId 监测点ID
+     * @return 最新读数，无数据时为null
+     */
+    FlowReading getLatestReading(Long monitoringPointId);
+
+    /**
+     * 获取路段实时交通流量，口径同 RoadSection#getCurrentTrafficFlow
+     * @param roadSectionId 路段ID
+     * @return 当前交通流量（辆/小时），无数据时为null
+     */
+    Integer getCurrentTrafficFlow(Long roadSectionId);
+
+    /**
+     * 获取路段实时平均速度，口径同 RoadSection#getCurrentAverageSpeed
+     * @param roadSectionId 路段ID
+     * @return 当前平均速度（公里/小时），无数据时为null
+     */
+    Double getCurrentAverageSpeed(Long roadSectionId);
+}
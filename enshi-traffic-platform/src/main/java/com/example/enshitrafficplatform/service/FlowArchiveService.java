@@ -0,0 +1,40 @@
+package com.example.enshitrafficplatform.service;
+
+import com.example.enshitrafficplatform.dto.FlowReading;
+import com.example.enshitrafficplatform.storage.codec.FlowBlock;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * 交通流量归档服务
+ * 将每个监测点一天的流量读数压缩为一个归档块保存，并提供归档数据的读取
+ */
+public interface FlowArchiveService {
+
+    /**
+     * 归档某一天的流量记录，已有的当天归档块会被替换
+     * @param date 数据日期
+     * @return 写入的归档块数量
+     */
+    int archiveDay(LocalDate date);
+
+    /**
+     * 读取监测点某天的归档块
+     * @param monitoringPointId 监测点ID
+     * @param date 数据日期
+     * @return 解码后的数据块，未归档时为null
+     */
+    FlowBlock readBlock(Long monitoringPointId, LocalDate date);
+
+    /**
+     * 按时间顺序扫描监测点在时间范围内的归档读数
+     * @param monitoringPointId 监测点ID
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     * @param handler 读数回调，读数实例会被复用；归档数据不含记录ID与路段ID
+     * @return 扫描的读数数量
+     */
+    long scan(Long monitoringPointId, LocalDateTime startTime, LocalDateTime endTime, Consumer<FlowReading> handler);
+}
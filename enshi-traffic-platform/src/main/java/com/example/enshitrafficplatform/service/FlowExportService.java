@@ -0,0 +1,26 @@
+package com.example.enshitrafficplatform.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * 流量历史批量导出服务
+ * 把流式扫描的读数直接写为列式二进制流（见 export 包），供离线分析批量拉取，不经过实体和JSON序列化
+ */
+public interface FlowExportService {
+
+    /**
+     * 导出监测点和路段在时间范围内的流量记录，按监测点、时间排序
+     * @param monitoringPointIds 监测点ID集合，可为空
+     * @param roadSectionIds 路段ID集合，展开为路段下的全部监测点，可为空
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     * @param out 输出流，调用方负责关闭
+     * @return 导出的行数
+     * @throws IOException 写入失败
+     */
+    long export(Collection<Long> monitoringPointIds, Collection<Long> roadSectionIds,
+                LocalDateTime startTime, LocalDateTime endTime, OutputStream out) throws IOException;
+}
@@ -0,0 +1,36 @@
+package com.example.enshitrafficplatform.service;
+
+import com.example.enshitrafficplatform.dto.FlowReading;
+import com.example.enshitrafficplatform.dto.request.FlowSeriesRequest;
+import com.example.enshitrafficplatform.dto.response.FlowSeriesResponse;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.function.Consumer;
+
+/**
+ * 流量时间序列读取服务
+ * 调用方无需关心数据所在的存储层级：按时间边界把请求拆分到热存储、原始记录、归档块和冷数据段文件，
+ * 各层级并行读取后按 监测点、时间 归并为一个有序序列，并去除层级边界上的重复读数
+ */
+public interface FlowSeriesService {
+
+    /**
+     * 查询时间序列
+     * @param request 查询请求
+     * @return 合并后的读数与各层级的读取情况
+     */
+    FlowSeriesResponse query(FlowSeriesRequest request);
+
+    /**
+     * 按 监测点、时间 顺序读取时间序列
+     * @param monitoringPointIds 监测点ID集合
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     * @param maxRows 最多输出的读数数量
+     * @param handler 读数回调，每条读数为独立实例
+     * @return 各层级的读取情况，不含读数
+     */
+    FlowSeriesResponse read(Collection<Long> monitoringPointIds, LocalDateTime startTime, LocalDateTime endTime,
+                            int maxRows, Consumer<FlowReading> handler);
+}
@@ -0,0 +1,35 @@
+package com.example.enshitrafficplatform.service;
+
+import com.example.enshitrafficplatform.dto.FlowReading;
+import com.example.enshitrafficplatform.weather.WeatherAsOfJoin;
+import com.example.enshitrafficplatform.weather.WeatherSample;
+
+import java.time.LocalDateTime;
+import java.util.function.BiConsumer;
+
+/**
+ * 流量读数天气对齐服务
+ * 以 as-of 方式把观测站天气对齐到分钟级的流量读数上：实时入库的读数取最新观测，
+ * 历史回放时按时间归并流式扫描读数与分页读取的天气，内存占用与时间范围无关
+ */
+public interface FlowWeatherService {
+
+    /**
+     * 对齐一条实时读数
+     * @param reading 流量读数
+     * @param out 输出的天气，实例会被覆盖
+     * @return 是否对齐成功
+     */
+    boolean alignLatest(FlowReading reading, WeatherSample out);
+
+    /**
+     * 回放时间范围内的流量读数并对齐天气
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     * @param mode 对齐方式
+     * @param handler 回调，读数与天气实例均会被复用；对齐失败时天气为null
+     * @return 扫描的读数数
+     */
+    long replay(LocalDateTime startTime, LocalDateTime endTime, WeatherAsOfJoin.Mode mode,
+                BiConsumer<FlowReading, WeatherSample> handler);
+}
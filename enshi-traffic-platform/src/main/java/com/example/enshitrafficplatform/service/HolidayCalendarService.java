@@ -0,0 +1,22 @@
+package com.example.enshitrafficplatform.service;
+
+import com.example.enshitrafficplatform.peak.HolidayCalendar;
+
+/**
+ * 节假日日历服务
+ * 从本地节假日文件加载法定节假日与调休安排，供高峰期判定和统计按日期类型分类
+ */
+public interface HolidayCalendarService {
+
+    /**
+     * 获取当前日历
+     * @return 日历，文件加载失败时为仅区分周末的日历
+     */
+    HolidayCalendar getCalendar();
+
+    /**
+     * 重新加载节假日文件，加载成功后替换全局默认日历
+     * @return 是否加载成功
+     */
+    boolean reload();
+}
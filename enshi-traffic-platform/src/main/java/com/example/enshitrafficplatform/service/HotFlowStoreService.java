@@ -0,0 +1,44 @@
+package com.example.enshitrafficplatform.service;
+
+import com.example.enshitrafficplatform.storage.FlowCursor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 近期流量热存储服务
+ * 在内存中以列式结构保存最近若干天的流量读数，供近期分析替代对流量表的实体加载
+ */
+public interface HotFlowStoreService {
+
+    /**
+     * 打开监测点在时间范围内的游标
+     * @param monitoringPointId 监测点ID
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     * @return 游标
+     */
+    FlowCursor cursor(Long monitoringPointId, LocalDateTime startTime, LocalDateTime endTime);
+
+    /**
+     * 热存储是否已完成预热
+     * @return 是否可查询
+     */
+    boolean isReady();
+
+    /**
+     * 热存储覆盖的时间窗口起点
+     * @return 窗口起点
+     */
+    LocalDateTime getWindowStart();
+
+    /**
+     * 淘汰时间窗口之外的数据
+     * @return 淘汰的行数
+     */
+    long evictExpired();
+
+    /**
+     * 立即保存热存储快照
+     */
+    void saveSnapshot();
+}
@@ -0,0 +1,29 @@
+package com.example.enshitrafficplatform.service;
+
+import com.example.enshitrafficplatform.weather.SectionLandslideRisk;
+
+/**
+ * 路段滑坡风险服务
+ * 按观测站与路段的24/72小时累计降水量，结合路段地质风险与坡度，随每条天气记录增量评估易发路段，
+ * 风险等级变化时发布 LandslideRiskChangedEvent
+ */
+public interface LandslideRiskService {
+
+    /**
+     * 获取路段当前的滑坡风险评估
+     * @param roadSectionId 路段ID
+     * @return 评估结果，路段不是易发路段或附近没有观测站时为null
+     */
+    SectionLandslideRisk getRisk(Long roadSectionId);
+
+    /**
+     * 累计降水窗口前移到当前整点，移出窗口的降水不再计入
+     */
+    void advance();
+
+    /**
+     * 是否已完成启动时的降水载入
+     * @return 是否可查询
+     */
+    boolean isReady();
+}
@@ -0,0 +1,50 @@
+package com.example.enshitrafficplatform.service;
+
+import com.example.enshitrafficplatform.repository.TablePartitionRepository.MonthPartition;
+
+import java.util.List;
+
+/**
+ * 分区维护服务
+ * 流量记录表与天气记录表按 record_time 按月分区：预先创建未来月份的分区，
+ * 按保留期整区删除旧分区；流量记录的旧分区在迁移到冷存储后由冷数据迁移整区删除
+ */
+public interface PartitionMaintenanceService {
+
+    /**
+     * 流量记录表
+     */
+    String TRAFFIC_FLOW_RECORDS = "traffic_flow_records";
+
+    /**
+     * 天气记录表
+     */
+    String WEATHER_RECORDS = "weather_records";
+
+    /**
+     * 维护全部分区表：补齐未来月份分区，删除超过保留期的分区；未分区的表只在开启自动转换时转换
+     */
+    void maintain();
+
+    /**
+     * 把未分区的表转换为按月分区，会删除表上的外键并重建整表，大表耗时较长
+     * @param table 表名，流量记录表或天气记录表
+     * @return 是否执行了转换，表已分区时为false
+     * @throws IllegalArgumentException 表不支持分区
+     */
+    boolean convertToMonthlyPartitions(String table);
+
+    /**
+     * 表是否已分区
+     * @param table 表名
+     * @return 是否已分区
+     */
+    boolean isPartitioned(String table);
+
+    /**
+     * 列出表的月分区
+     * @param table 表名
+     * @return 按月份升序的分区
+     */
+    List<MonthPartition> getPartitions(String table);
+}
@@ -0,0 +1,29 @@
+package com.example.enshitrafficplatform.service;
+
+import com.example.enshitrafficplatform.dto.response.PeakDiscoveryReport;
+
+import java.time.LocalDate;
+
+/**
+ * 高峰期时段发现服务
+ * 从小时流量桶汇总各路段每小时的车流量，按路段并行发现高峰时段，给出带置信度的规则建议，
+ * 并与路段现有的有效时间表比对
+ */
+public interface PeakDiscoveryService {
+
+    /**
+     * 分析日期范围内的历史流量
+     * @param startDate 开始日期（含）
+     * @param endDate 结束日期（不含）
+     * @param flowThreshold 车流量阈值（辆/小时），为null时使用路段现有规则的阈值，规则也未设置时按百分位计算
+     * @return 发现报告
+     * @throws IllegalArgumentException 日期范围无效
+     */
+    PeakDiscoveryReport discover(LocalDate startDate, LocalDate endDate, Integer flowThreshold);
+
+    /**
+     * 获取最近一次的发现报告
+     * @return 报告，尚未执行过时为null
+     */
+    PeakDiscoveryReport getLatestReport();
+}
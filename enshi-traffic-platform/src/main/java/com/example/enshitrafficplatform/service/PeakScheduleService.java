@@ -0,0 +1,57 @@
+package com.example.enshitrafficplatform.service;
+
+import com.example.enshitrafficplatform.peak.CompiledPeakRule;
+import com.example.enshitrafficplatform.peak.SectionPeakSchedule;
+
+import java.time.LocalDateTime;
+
+/**
+ * 路段有效高峰期时间表服务
+ * 汇总直接挂接、通过关联表挂接、从各级区域继承的规则以及全局规则，为每个路段预先编译按优先级排序的时间表；
+ * 只在规则、路段、道路或区域变更后重建
+ */
+public interface PeakScheduleService {
+
+    /**
+     * 获取路段的有效时间表
+     * @param roadSectionId 路段ID
+     * @return 时间表，路段没有有效规则时为空时间表
+     */
+    SectionPeakSchedule getSchedule(Long roadSectionId);
+
+    /**
+     * 判断路段在某一时刻是否处于高峰期
+     * @param roadSectionId 路段ID
+     * @param time 时间
+     * @return 是否处于高峰期
+     */
+    boolean isPeak(Long roadSectionId, LocalDateTime time);
+
+    /**
+     * 获取路段在某一时刻起主导作用的规则
+     * @param roadSectionId 路段ID
+     * @param time 时间
+     * @return 规则，不处于高峰期时为null
+     */
+    CompiledPeakRule getGoverningRule(Long roadSectionId, LocalDateTime time);
+
+    /**
+     * 统计路段在时间范围内处于高峰期的分钟数
+     * @param roadSectionId 路段ID
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     * @return 分钟数
+     */
+    long countPeakMinutes(Long roadSectionId, LocalDateTime startTime, LocalDateTime endTime);
+
+    /**
+     * 立即重建全部路段的时间表
+     */
+    void rebuild();
+
+    /**
+     * 时间表是否已完成首次构建
+     * @return 是否可用
+     */
+    boolean isReady();
+}
@@ -0,0 +1,18 @@
+package com.example.enshitrafficplatform.service;
+
+import java.time.LocalDateTime;
+
+/**
+ * 路段高峰期状态变化服务
+ * 在路段进入或离开高峰期的时刻发布 {@link com.example.enshitrafficplatform.event.PeakTransitionEvent}，
+ * 需要在高峰开始、结束时切换信号配时或看板模式的功能监听该事件即可，无需轮询规则
+ */
+public interface PeakTransitionService {
+
+    /**
+     * 获取路段的下一个状态变化时刻
+     * @param roadSectionId 路段ID
+     * @return 下一个进入或离开高峰期的时刻，一年内没有变化时为null
+     */
+    LocalDateTime getNextTransition(Long roadSectionId);
+}
@@ -0,0 +1,41 @@
+package com.example.enshitrafficplatform.service;
+
+import com.example.enshitrafficplatform.dto.FlowReading;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 监测点小时流量桶服务
+ * 维护 point_hourly_buckets 预聚合表，并基于小时桶计算监测点的日均流量与峰谷比
+ */
+public interface PointHourlyBucketService {
+
+    /**
+     * 将入库读数累加到小时桶，应在流量入库事务内调用
+     * @param readings 入库读数
+     */
+    void accumulate(List<FlowReading> readings);
+
+    /**
+     * 由原始流量记录重建时间范围内的小时桶，时间按整点对齐
+     * @param startTime 开始时间
+     * @param endTime 结束时间
+     * @return 重建的小时桶数量
+     */
+    int rebuild(LocalDateTime startTime, LocalDateTime endTime);
+
+    /**
+     * 计算监测点近30天的日均交通流量，口径同 MonitoringPoint#calculateAverageDailyTrafficFlow
+     * @param monitoringPointId 监测点ID
+     * @return 日均流量，无数据时为null
+     */
+    Integer getAverageDailyTrafficFlow(Long monitoringPointId);
+
+    /**
+     * 计算监测点近7天的峰谷比，口径同 MonitoringPoint#calculatePeakValleyRatio
+     * @param monitoringPointId 监测点ID
+     * @return 峰谷比，无数据或低谷流量为0时为null
+     */
+    Double getPeakValleyRatio(Long monitoringPointId);
+}
@@ -0,0 +1,31 @@
+package com.example.enshitrafficplatform.service;
+
+import com.example.enshitrafficplatform.dto.response.RetentionRunReport;
+import com.example.enshitrafficplatform.retention.RetentionPolicy;
+
+import java.util.List;
+
+/**
+ * 分层保留服务
+ * 按每种数据的保留策略，把各层级数据逐天降采样到下一层级，校验下一层级完整后分批清理超过保留期的数据
+ */
+public interface RetentionService {
+
+    /**
+     * 执行一次保留策略
+     * @return 执行报告
+     */
+    RetentionRunReport run();
+
+    /**
+     * 最近一次执行报告
+     * @return 执行报告，尚未执行时为null
+     */
+    RetentionRunReport getLastReport();
+
+    /**
+     * 当前生效的保留策略
+     * @return 保留策略
+     */
+    List<RetentionPolicy> getPolicies();
+}
@@ -0,0 +1,57 @@
+package com.example.enshitrafficplatform.service;
+
+import com.example.enshitrafficplatform.retention.RetentionDataType;
+import com.example.enshitrafficplatform.retention.RetentionTier;
+
+import java.time.LocalDate;
+
+/**
+ * 一种数据的分层操作，由保留策略引擎按天调用
+ * 降采样把某一层级一天的数据写入下一层级，必须可重复执行；清理每次只删除有限行数，由引擎在独立事务中调用
+ */
+public interface RetentionTierHandler {
+
+    /**
+     * 处理的数据类型
+     * @return 数据类型
+     */
+    RetentionDataType getDataType();
+
+    /**
+     * 层级数据所在的表，用于估算回收的空间
+     * @param tier 层级
+     * @return 表名
+     */
+    String getTableName(RetentionTier tier);
+
+    /**
+     * 层级中最早一条可清理数据的日期
+     * @param tier 层级
+     * @return 日期，无数据时为null
+     */
+    LocalDate findOldestDate(RetentionTier tier);
+
+    /**
+     * 下一层级是否完整覆盖该层级某天的数据，最后一层始终为true
+     * @param tier 层级
+     * @param date 日期
+     * @return 是否已覆盖
+     */
+    boolean isCovered(RetentionTier tier, LocalDate date);
+
+    /**
+     * 把该层级某天的数据降采样到下一层级，替换下一层级当天已有的数据
+     * @param tier 层级
+     * @param date 日期
+     */
+    void downsample(RetentionTier tier, LocalDate date);
+
+    /**
+     * 删除该层级某天的一批数据
+     * @param tier 层级
+     * @param date 日期
+     * @param batchSize 最多删除的行数
+     * @return 删除的行数
+     */
+    int purgeBatch(RetentionTier tier, LocalDate date, int batchSize);
+}
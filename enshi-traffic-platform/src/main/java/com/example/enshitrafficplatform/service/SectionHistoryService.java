@@ -0,0 +1,29 @@
+package com.example.enshitrafficplatform.service;
+
+import com.example.enshitrafficplatform.storage.SectionHistoryCursor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 路段历史服务
+ * 在堆外环形缓冲区中按路段保存最近若干小时的读数，供路段实时流量、车速等滑动窗口计算使用，
+ * 避免大量短生命周期对象造成的GC停顿
+ */
+public interface SectionHistoryService {
+
+    /**
+     * 定位路段在时间范围内的游标
+     * 返回当前线程复用的游标，在同一线程下一次调用前有效
+     * @param roadSectionId 路段ID
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     * @return 游标
+     */
+    SectionHistoryCursor cursor(Long roadSectionId, LocalDateTime startTime, LocalDateTime endTime);
+
+    /**
+     * 是否已完成预热
+     * @return 是否可查询
+     */
+    boolean isReady();
+}
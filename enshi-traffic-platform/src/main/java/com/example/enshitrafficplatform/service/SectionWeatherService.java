@@ -0,0 +1,27 @@
+package com.example.enshitrafficplatform.service;
+
+import com.example.enshitrafficplatform.weather.SectionWeatherJoin;
+
+/**
+ * 路段天气关联服务
+ * 在内存中维护路段中心点与最近若干个天气观测站的关联及反距离权重，只在有新天气记录或路段变更时刷新
+ */
+public interface SectionWeatherService {
+
+    /**
+     * 获取当前的空间关联
+     * @return 空间关联，尚未构建时为空关联
+     */
+    SectionWeatherJoin getJoin();
+
+    /**
+     * 立即从数据库重新构建空间关联
+     */
+    void refresh();
+
+    /**
+     * 是否已完成首次构建
+     * @return 是否可查询
+     */
+    boolean isReady();
+}
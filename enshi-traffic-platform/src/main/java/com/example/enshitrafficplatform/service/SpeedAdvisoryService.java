@@ -0,0 +1,27 @@
+package com.example.enshitrafficplatform.service;
+
+/**
+ * 路段天气建议车速服务
+ * 预先为每个路段在全部离散天气状态下算出建议车速，天气评分更新后按路段当前天气状态查表，
+ * 建议车速有变化的路段发布 SpeedAdvisoryChangedEvent
+ */
+public interface SpeedAdvisoryService {
+
+    /**
+     * 获取路段当前的建议车速
+     * @param roadSectionId 路段ID
+     * @return 建议车速（公里/小时），路段附近没有观测站或所属道路没有限速时为null
+     */
+    Integer getAdvisedSpeed(Long roadSectionId);
+
+    /**
+     * 重建建议车速矩阵并重新评估全部路段
+     */
+    void rebuild();
+
+    /**
+     * 是否已完成首次评估
+     * @return 是否可查询
+     */
+    boolean isReady();
+}
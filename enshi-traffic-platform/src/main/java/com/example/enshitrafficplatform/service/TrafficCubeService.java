@@ -0,0 +1,31 @@
+package com.example.enshitrafficplatform.service;
+
+import com.example.enshitrafficplatform.analytics.CubeQuery;
+import com.example.enshitrafficplatform.analytics.CubeRow;
+
+import java.util.List;
+
+/**
+ * 交通流量立方体服务
+ * 在内存中按 路段 × 周内小时 × 天气 × 车型 维护历史流量汇总，替代对流量表的临时分组查询
+ */
+public interface TrafficCubeService {
+
+    /**
+     * 执行切片、切块与上卷查询
+     * @param query 查询条件
+     * @return 结果行
+     */
+    List<CubeRow> query(CubeQuery query);
+
+    /**
+     * 立方体是否已完成加载
+     * @return 是否可查询
+     */
+    boolean isReady();
+
+    /**
+     * 立即保存立方体快照
+     */
+    void saveSnapshot();
+}
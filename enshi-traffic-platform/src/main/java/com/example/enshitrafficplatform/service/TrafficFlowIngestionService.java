@@ -0,0 +1,26 @@
+package com.example.enshitrafficplatform.service;
+
+import com.example.enshitrafficplatform.entity.TrafficFlowRecord;
+
+import java.util.List;
+
+/**
+ * 交通流量数据入库服务
+ * 负责持久化监测点上报的流量记录，并通知依赖流量数据的统计组件
+ */
+public interface TrafficFlowIngestionService {
+
+    /**
+     * 保存一条流量记录
+     * @param record 流量记录
+     * @return 保存后的流量记录
+     */
+    TrafficFlowRecord ingest(TrafficFlowRecord record);
+
+    /**
+     * 批量保存流量记录
+     * @param records 流量记录列表
+     * @return 保存后的流量记录列表
+     */
+    List<TrafficFlowRecord> ingestAll(List<TrafficFlowRecord> records);
+}
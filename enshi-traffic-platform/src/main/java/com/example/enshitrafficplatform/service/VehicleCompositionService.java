@@ -0,0 +1,45 @@
+package com.example.enshitrafficplatform.service;
+
+import com.example.enshitrafficplatform.analytics.VehicleComposition;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 车型构成统计服务
+ * 以流式扫描和基本类型累加批量统计车型总数、占比与重型车辆趋势
+ */
+public interface VehicleCompositionService {
+
+    /**
+     * 统计路段在时间范围内的车型构成
+     * @param roadSectionIds 路段ID集合
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     * @return 每个路段一行，按路段ID排序
+     */
+    List<VehicleComposition> getSectionComposition(Collection<Long> roadSectionIds,
+                                                   LocalDateTime startTime, LocalDateTime endTime);
+
+    /**
+     * 统计监测点在时间范围内的车型构成
+     * @param monitoringPointIds 监测点ID集合
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     * @return 每个监测点一行，按监测点ID排序
+     */
+    List<VehicleComposition> getPointComposition(Collection<Long> monitoringPointIds,
+                                                 LocalDateTime startTime, LocalDateTime endTime);
+
+    /**
+     * 统计路段重型车辆占比随时间的变化
+     * @param roadSectionId 路段ID
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     * @param bucketMinutes 时间桶长度（分钟）
+     * @return 每个时间桶一行，按时间排序
+     */
+    List<VehicleComposition> getHeavyVehicleTrend(Long roadSectionId, LocalDateTime startTime,
+                                                  LocalDateTime endTime, int bucketMinutes);
+}
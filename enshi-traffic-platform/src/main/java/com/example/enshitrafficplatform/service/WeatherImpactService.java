@@ -0,0 +1,22 @@
+package com.example.enshitrafficplatform.service;
+
+import com.example.enshitrafficplatform.weather.WeatherImpactTable;
+
+/**
+ * 路段天气影响评分服务
+ * 每次路段天气关联刷新后为全部路段批量评分，查询直接读取不可变的评分表
+ */
+public interface WeatherImpactService {
+
+    /**
+     * 获取当前的评分表
+     * @return 评分表，尚未计算时为空表
+     */
+    WeatherImpactTable getTable();
+
+    /**
+     * 是否已完成首次计算
+     * @return 是否可查询
+     */
+    boolean isReady();
+}
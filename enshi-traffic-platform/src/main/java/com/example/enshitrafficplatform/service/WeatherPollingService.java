@@ -0,0 +1,23 @@
+package com.example.enshitrafficplatform.service;
+
+import com.example.enshitrafficplatform.dto.response.WeatherPollReport;
+
+/**
+ * 天气API轮询服务
+ * 按 app.scheduler.weather-update-cron 并发查询各区域的当前天气，只把有新观测的区域批量入库；
+ * 入库的记录照常发布 WeatherRecordedEvent，路段天气关联与影响评分只在有区域变化时重算
+ */
+public interface WeatherPollingService {
+
+    /**
+     * 轮询一次全部有中心点坐标的区域
+     * @return 轮询报告
+     */
+    WeatherPollReport poll();
+
+    /**
+     * 获取最近一次轮询的报告
+     * @return 报告，尚未轮询时为null
+     */
+    WeatherPollReport getLastReport();
+}
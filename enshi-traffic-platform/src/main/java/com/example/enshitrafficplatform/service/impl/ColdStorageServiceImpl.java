@@ -0,0 +1,285 @@
+package com.example.enshitrafficplatform.service.impl;
+
+import com.example.enshitrafficplatform.dto.FlowReading;
+import com.example.enshitrafficplatform.entity.TrafficFlowArchiveBlock;
+import com.example.enshitrafficplatform.repository.TablePartitionRepository;
+import com.example.enshitrafficplatform.repository.TrafficFlowArchiveBlockRepository;
+import com.example.enshitrafficplatform.repository.TrafficFlowRecordRepository;
+import com.example.enshitrafficplatform.repository.TrafficFlowRecordScanner;
+import com.example.enshitrafficplatform.service.ColdStorageService;
+import com.example.enshitrafficplatform.service.PartitionMaintenanceService;
+import com.example.enshitrafficplatform.storage.codec.FlowBlock;
+import com.example.enshitrafficplatform.storage.segment.ColdSegment;
+import com.example.enshitrafficplatform.storage.segment.ColdSegmentStore;
+import com.example.enshitrafficplatform.storage.segment.ColdSegmentWriter;
+import com.example.enshitrafficplatform.storage.segment.SegmentBlockInfo;
+import com.example.enshitrafficplatform.util.DateUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.temporal.TemporalAdjusters;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * 冷数据存储服务实现
+ * 迁移按自然月顺序进行，整月超过保留期后写入一个段文件，与流量记录表的月分区对齐：先在事务外流式扫描原始记录并逐个监测点、逐天编码，
+ * 当天没有原始记录的监测点改用归档块；段文件写完并重新打开校验后才删除原始记录：
+ * 对应月分区中全部记录都已写入段文件时直接删除分区，否则分批删除段内记录ID以内的原始记录。
+ * 段文件生成后迟到写入的旧记录（ID更大）保留在流量表中
+ */
+@Slf4j
+@Service
+public class ColdStorageServiceImpl implements ColdStorageService {
+
+    private static final String SEGMENT_SUFFIX = ".seg";
+
+    private final TrafficFlowRecordScanner trafficFlowRecordScanner;
+
+    private final TrafficFlowRecordRepository trafficFlowRecordRepository;
+
+    private final TrafficFlowArchiveBlockRepository trafficFlowArchiveBlockRepository;
+
+    private final TablePartitionRepository tablePartitionRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Path directory;
+
+    private final int ageDays;
+
+    private final int deleteBatchSize;
+
+    private final ColdSegmentStore store = new ColdSegmentStore();
+
+    public ColdStorageServiceImpl(TrafficFlowRecordScanner trafficFlowRecordScanner,
+                                  TrafficFlowRecordRepository trafficFlowRecordRepository,
+                                  TrafficFlowArchiveBlockRepository trafficFlowArchiveBlockRepository,
+                                  TablePartitionRepository tablePartitionRepository,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${app.cold-store.directory:data/segments}") String directory,
+                                  @Value("${app.cold-store.age-days:365}") int ageDays,
+                                  @Value("${app.cold-store.delete-batch-size:5000}") int deleteBatchSize) {
+        this.trafficFlowRecordScanner = trafficFlowRecordScanner;
+        this.trafficFlowRecordRepository = trafficFlowRecordRepository;
+        this.trafficFlowArchiveBlockRepository = trafficFlowArchiveBlockRepository;
+        this.tablePartitionRepository = tablePartitionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.directory = Paths.get(directory);
+        this.ageDays = ageDays;
+        this.deleteBatchSize = deleteBatchSize;
+    }
+
+    /**
+     * 应用启动完成后打开目录中的全部段文件，并清理上次中断留下的临时文件
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void loadSegments() {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(SEGMENT_SUFFIX + ".tmp")) {
+                    Files.deleteIfExists(file);
+                } else if (name.endsWith(SEGMENT_SUFFIX)) {
+                    openSegment(file);
+                }
+            }
+        } catch (IOException e) {
+            log.error("冷数据段目录读取失败：{}", directory, e);
+        }
+        log.info("冷数据段加载完成：段文件{}个，读数{}条，{}字节",
+                store.getSegments().size(), store.getRowCount(), store.getSizeInBytes());
+    }
+
+    @Override
+    public long scan(Long monitoringPointId, LocalDateTime startTime, LocalDateTime endTime,
+                     Predicate<SegmentBlockInfo> blockFilter, Consumer<FlowReading> handler) {
+        return store.scan(monitoringPointId, DateUtils.toEpochSecond(startTime), DateUtils.toEpochSecond(endTime),
+                blockFilter, handler);
+    }
+
+    @Override
+    public LocalDate getCoveredUntil() {
+        long lastDay = store.getLastDay();
+        return lastDay == Long.MIN_VALUE ? null : LocalDate.ofEpochDay(lastDay);
+    }
+
+    @Override
+    public List<ColdSegment> getSegments() {
+        return store.getSegments();
+    }
+
+    @Override
+    public synchronized int archiveAgedData() {
+        // 先补完上次中断的删除
+        for (ColdSegment segment : store.getSegments()) {
+            purgeMigrated(segment);
+        }
+
+        LocalDate cutoff = LocalDate.now().minusDays(ageDays);
+        LocalDate next = earliestUnarchivedDate();
+        int written = 0;
+        while (next != null) {
+            LocalDate last = next.with(TemporalAdjusters.lastDayOfMonth());
+            if (!last.isBefore(cutoff)) {
+                break;
+            }
+            long startNanos = System.nanoTime();
+            ColdSegment segment;
+            try {
+                segment = writeSegment(next, last);
+            } catch (IOException | UncheckedIOException e) {
+                log.error("冷数据段写入失败：{} ~ {}", next, last, e);
+                break;
+            }
+            store.add(segment);
+            long deleted = purgeMigrated(segment);
+            written++;
+            log.info("冷数据迁移完成：{} ~ {}，读数{}条，段文件{}字节，删除原始记录{}条，耗时{}ms",
+                    next, last, segment.getRowCount(), segment.getSizeInBytes(), deleted,
+                    (System.nanoTime() - startNanos) / 1_000_000);
+            next = earliestUnarchivedDate();
+        }
+        return written;
+    }
+
+    /**
+     * 尚未迁移的最早日期：已覆盖日期之后，原始记录与归档块中最早的一天
+     */
+    private LocalDate earliestUnarchivedDate() {
+        LocalDateTime minRecordTime = tablePartitionRepository.findMinRecordTime(
+                PartitionMaintenanceService.TRAFFIC_FLOW_RECORDS);
+        LocalDate minBlockDate = trafficFlowArchiveBlockRepository.findMinBlockDate();
+        LocalDate earliest = minRecordTime != null ? minRecordTime.toLocalDate() : null;
+        if (minBlockDate != null && (earliest == null || minBlockDate.isBefore(earliest))) {
+            earliest = minBlockDate;
+        }
+        LocalDate coveredUntil = getCoveredUntil();
+        if (earliest != null && coveredUntil != null && !earliest.isAfter(coveredUntil)) {
+            // 迟到的旧记录留在流量表中，从已覆盖日期之后继续
+            earliest = coveredUntil.plusDays(1);
+        }
+        return earliest;
+    }
+
+    private ColdSegment writeSegment(LocalDate firstDate, LocalDate lastDate) throws IOException {
+        Path target = directory.resolve("segment-" + firstDate + "_" + lastDate + SEGMENT_SUFFIX);
+        long firstDay = firstDate.toEpochDay();
+        try (ColdSegmentWriter writer = new ColdSegmentWriter(target)) {
+            // 每个监测点已由原始记录写入的日期
+            Map<Long, BitSet> coveredDays = new HashMap<>();
+            FlowBlock block = new FlowBlock(512);
+            long[] current = {0L, 0L};
+            long[] maxRecordId = {0L};
+            trafficFlowRecordScanner.scanOrderByPoint(firstDate.atStartOfDay(), lastDate.plusDays(1).atStartOfDay(),
+                    reading -> {
+                        long day = DateUtils.localEpochDay(reading.getEpochSecond());
+                        if (reading.getMonitoringPointId() != current[0] || day != current[1]) {
+                            flushBlock(writer, current[0], block);
+                            current[0] = reading.getMonitoringPointId();
+                            current[1] = day;
+                            coveredDays.computeIfAbsent(current[0], id -> new BitSet()).set((int) (day - firstDay));
+                        }
+                        block.add(reading);
+                        maxRecordId[0] = Math.max(maxRecordId[0], reading.getRecordId());
+                    });
+            flushBlock(writer, current[0], block);
+
+            for (TrafficFlowArchiveBlock archived
+                    : trafficFlowArchiveBlockRepository.findByBlockDateBetween(firstDate, lastDate)) {
+                BitSet days = coveredDays.get(archived.getMonitoringPointId());
+                if (days == null || !days.get((int) (archived.getBlockDate().toEpochDay() - firstDay))) {
+                    writer.addEncodedBlock(archived.getMonitoringPointId(), archived.getPayload());
+                }
+            }
+            writer.setMaxRecordId(maxRecordId[0]);
+            long rows = writer.getRowCount();
+            ColdSegment segment = ColdSegment.open(writer.finish(firstDay, lastDate.toEpochDay()));
+            if (segment.getRowCount() != rows) {
+                throw new IOException("段文件校验失败：" + target);
+            }
+            return segment;
+        }
+    }
+
+    private static void flushBlock(ColdSegmentWriter writer, long monitoringPointId, FlowBlock block) {
+        if (block.isEmpty()) {
+            return;
+        }
+        try {
+            writer.addBlock(monitoringPointId, block);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        block.clear();
+    }
+
+    /**
+     * 删除已写入段文件的原始记录与归档块
+     * @return 删除的原始记录数
+     */
+    private long purgeMigrated(ColdSegment segment) {
+        LocalDateTime startTime = LocalDate.ofEpochDay(segment.getFirstDay()).atStartOfDay();
+        LocalDateTime endTime = LocalDate.ofEpochDay(segment.getLastDay() + 1).atStartOfDay();
+        long total = 0;
+        if (segment.getMaxRecordId() > 0 && !dropMigratedPartition(segment, startTime)) {
+            int deleted;
+            do {
+                deleted = transactionTemplate.execute(status -> trafficFlowRecordRepository.deleteMigratedBatch(
+                        startTime, endTime, segment.getMaxRecordId(), deleteBatchSize));
+                total += deleted;
+            } while (deleted >= deleteBatchSize);
+        }
+        transactionTemplate.executeWithoutResult(status ->
+                trafficFlowArchiveBlockRepository.deleteByBlockDateUpTo(LocalDate.ofEpochDay(segment.getLastDay())));
+        return total;
+    }
+
+    /**
+     * 段文件覆盖的月分区中不含段外记录时整区删除
+     * @return 是否已删除分区
+     */
+    private boolean dropMigratedPartition(ColdSegment segment, LocalDateTime startTime) {
+        YearMonth month = YearMonth.from(startTime);
+        if (LocalDate.ofEpochDay(segment.getLastDay()).isBefore(month.atEndOfMonth())) {
+            return false;
+        }
+        String table = PartitionMaintenanceService.TRAFFIC_FLOW_RECORDS;
+        boolean exists = tablePartitionRepository.listMonthPartitions(table).stream()
+                .anyMatch(partition -> partition.getMonth().equals(month));
+        if (!exists || tablePartitionRepository.countRowsOutside(table, month, startTime, segment.getMaxRecordId()) > 0) {
+            return false;
+        }
+        tablePartitionRepository.dropMonthPartition(table, month);
+        log.info("流量记录分区已随冷数据迁移删除：{}", TablePartitionRepository.partitionName(month));
+        return true;
+    }
+
+    private void openSegment(Path file) {
+        try {
+            store.add(ColdSegment.open(file));
+        } catch (IOException | IllegalArgumentException e) {
+            log.error("冷数据段文件无法打开，已跳过：{}", file, e);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.enshitrafficplatform.service.impl;
+
+import com.example.enshitrafficplatform.dictionary.CodeDictionary;
+import com.example.enshitrafficplatform.dictionary.CongestionLevel;
+import com.example.enshitrafficplatform.dictionary.Direction;
+import com.example.enshitrafficplatform.dictionary.EventSeverity;
+import com.example.enshitrafficplatform.dictionary.EventStatus;
+import com.example.enshitrafficplatform.dictionary.EventType;
+import com.example.enshitrafficplatform.dictionary.WeatherCondition;
+import com.example.enshitrafficplatform.repository.DictionaryCodeRepository;
+import com.example.enshitrafficplatform.service.DictionaryCodeService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * 字典编码服务实现
+ * 启动后在后台线程按主键区间分批回填，已回填的记录不再处理，重启后从第一条未回填的记录继续
+ */
+@Slf4j
+@Service
+public class DictionaryCodeServiceImpl implements DictionaryCodeService {
+
+    private static final List<CodeColumn> CODE_COLUMNS = List.of(
+            new CodeColumn("traffic_flow_records", "direction", "direction_code", Direction.dictionary()),
+            new CodeColumn("traffic_flow_records", "congestion_level", "congestion_level_code",
+                    CongestionLevel.dictionary()),
+            new CodeColumn("traffic_flow_records", "weather_condition", "weather_code", WeatherCondition.dictionary()),
+            new CodeColumn("weather_records", "weather_condition", "weather_code", WeatherCondition.dictionary()),
+            new CodeColumn("traffic_events", "event_type", "event_type_code", EventType.dictionary()),
+            new CodeColumn("traffic_events", "status", "status_code", EventStatus.dictionary()),
+            new CodeColumn("traffic_events", "severity", "severity_code", EventSeverity.dictionary()));
+
+    private final DictionaryCodeRepository dictionaryCodeRepository;
+
+    private final boolean backfillEnabled;
+
+    private final int batchSize;
+
+    public DictionaryCodeServiceImpl(DictionaryCodeRepository dictionaryCodeRepository,
+                                     @Value("${app.dictionary.backfill-enabled:true}") boolean backfillEnabled,
+                                     @Value("${app.dictionary.backfill-batch-size:5000}") int batchSize) {
+        this.dictionaryCodeRepository = dictionaryCodeRepository;
+        this.backfillEnabled = backfillEnabled;
+        this.batchSize = Math.max(batchSize, 1);
+    }
+
+    /**
+     * 应用启动完成后在后台线程回填编码列，避免阻塞启动
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (!backfillEnabled) {
+            return;
+        }
+        Thread worker = new Thread(this::backfill, "dictionary-code-backfill");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public synchronized long backfill() {
+        long total = 0;
+        for (CodeColumn column : CODE_COLUMNS) {
+            try {
+                total += backfill(column);
+            } catch (DataAccessException e) {
+                log.error("编码列回填失败：{}.{}", column.table(), column.codeColumn(), e);
+            }
+        }
+        return total;
+    }
+
+    private long backfill(CodeColumn column) {
+        Long firstId = dictionaryCodeRepository.findFirstUncodedId(column.table(), column.labelColumn(),
+                column.codeColumn());
+        if (firstId == null) {
+            return 0L;
+        }
+        long maxId = dictionaryCodeRepository.findMaxId(column.table());
+        long updated = 0;
+        for (long afterId = firstId - 1; afterId < maxId; afterId += batchSize) {
+            updated += dictionaryCodeRepository.backfill(column.table(), column.labelColumn(), column.codeColumn(),
+                    column.dictionary().labelCodes(), column.dictionary().getDefaultValue().getCode(),
+                    afterId, Math.min(afterId + batchSize, maxId));
+        }
+        log.info("编码列回填完成：{}.{}，{}行", column.table(), column.codeColumn(), updated);
+        return updated;
+    }
+
+    /**
+     * 描述列与对应的编码列
+     */
+    private record CodeColumn(String table, String labelColumn, String codeColumn, CodeDictionary<?> dictionary) {
+    }
+}
@@ -0,0 +1,236 @@
+package com.example.enshitrafficplatform.service.impl;
+
+import com.example.enshitrafficplatform.dto.FlowReading;
+import com.example.enshitrafficplatform.repository.MonitoringPointRepository;
+import com.example.enshitrafficplatform.repository.TrafficFlowRecordScanner;
+import com.example.enshitrafficplatform.service.FlowAnalyticsService;
+import com.example.enshitrafficplatform.service.HotFlowStoreService;
+import com.example.enshitrafficplatform.service.SectionHistoryService;
+import com.example.enshitrafficplatform.storage.FlowCursor;
+import com.example.enshitrafficplatform.storage.SectionLatestWindow;
+import com.example.enshitrafficplatform.util.DateUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 近期流量分析服务实现
+ * 通过游标直接读取热存储的列数组，不加载流量记录实体；
+ * 路段实时流量与车速优先在堆外的路段历史上计算，路段历史未预热时回退到按监测点读取热存储；
+ * 热存储也未预热时流式扫描数据库，预热期间接口照常可用
+ */
+@Service
+@RequiredArgsConstructor
+public class FlowAnalyticsServiceImpl implements FlowAnalyticsService {
+
+    /**
+     * 异常检测所需的最少读数
+     */
+    private static final int MIN_ANOMALY_SAMPLES = 10;
+
+    /**
+     * 从数据库扫描时的时间上限，对应热存储游标不设上限的 LocalDateTime.MAX
+     */
+    private static final LocalDateTime SCAN_END_TIME = LocalDateTime.of(9999, 12, 31, 0, 0);
+
+    private static final ThreadLocal<SectionLatestWindow> LATEST_WINDOWS =
+            ThreadLocal.withInitial(SectionLatestWindow::new);
+
+    private final HotFlowStoreService hotFlowStoreService;
+
+    private final MonitoringPointRepository monitoringPointRepository;
+
+    private final SectionHistoryService sectionHistoryService;
+
+    private final TrafficFlowRecordScanner trafficFlowRecordScanner;
+
+    @Override
+    public List<Map<String, Object>> detectTrafficAnomalies(Long monitoringPointId) {
+        LocalDateTime start = afterTime(LocalDateTime.now().minusDays(7));
+        AnomalyDetector detector = new AnomalyDetector();
+        if (hotFlowStoreService.isReady()) {
+            FlowCursor cursor = hotFlowStoreService.cursor(monitoringPointId, start, LocalDateTime.MAX);
+            while (cursor.next()) {
+                detector.accept(cursor.epochSecond(), cursor.flowRate(), cursor.averageSpeed());
+            }
+        } else {
+            trafficFlowRecordScanner.scanPoints(List.of(monitoringPointId), start, SCAN_END_TIME, reading ->
+                    detector.accept(reading.getEpochSecond(), reading.getFlowRate(), reading.getAverageSpeed()));
+        }
+        return detector.getAnomalies();
+    }
+
+    @Override
+    public FlowReading getLatestReading(Long monitoringPointId) {
+        LocalDateTime start = hotFlowStoreService.getWindowStart();
+        if (!hotFlowStoreService.isReady()) {
+            FlowReading[] latest = new FlowReading[1];
+            trafficFlowRecordScanner.scanLatest(monitoringPointId, start, reading -> latest[0] = reading.copy());
+            return latest[0];
+        }
+        FlowCursor cursor = hotFlowStoreService.cursor(monitoringPointId, start, LocalDateTime.MAX);
+        FlowReading latest = null;
+        while (cursor.next()) {
+            if (latest == null) {
+                latest = new FlowReading();
+                latest.setMonitoringPointId(monitoringPointId);
+            }
+            cursor.read(latest);
+        }
+        return latest;
+    }
+
+    @Override
+    public Integer getCurrentTrafficFlow(Long roadSectionId) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = afterTime(now.minusHours(1));
+        LocalDateTime end = beforeTime(now);
+        if (sectionHistoryService.isReady()) {
+            SectionLatestWindow window = latestWindow(roadSectionId, start, end);
+            return window.getPointCount() > 0 ? (int) window.getAverageFlowRate() : null;
+        }
+        Collection<FlowReading> latestReadings = latestPointReadings(roadSectionId, start, end);
+        if (latestReadings.isEmpty()) {
+            return null;
+        }
+        long flowSum = 0;
+        for (FlowReading reading : latestReadings) {
+            // 缺失流量按0计
+            flowSum += reading.getFlowRate() != FlowReading.MISSING_INT ? reading.getFlowRate() : 0;
+        }
+        return (int) ((double) flowSum / latestReadings.size());
+    }
+
+    @Override
+    public Double getCurrentAverageSpeed(Long roadSectionId) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = afterTime(now.minusHours(1));
+        LocalDateTime end = beforeTime(now);
+        if (sectionHistoryService.isReady()) {
+            SectionLatestWindow window = latestWindow(roadSectionId, start, end);
+            if (window.getPointCount() == 0) {
+                return null;
+            }
+            double averageSpeed = window.getAverageSpeed();
+            return Double.isNaN(averageSpeed) ? 0.0 : averageSpeed;
+        }
+        Collection<FlowReading> latestReadings = latestPointReadings(roadSectionId, start, end);
+        if (latestReadings.isEmpty()) {
+            return null;
+        }
+        double speedSum = 0;
+        int speedCount = 0;
+        for (FlowReading reading : latestReadings) {
+            if (!Double.isNaN(reading.getAverageSpeed())) {
+                speedSum += reading.getAverageSpeed();
+                speedCount++;
+            }
+        }
+        return speedCount > 0 ? speedSum / speedCount : 0.0;
+    }
+
+    /**
+     * 读取路段各监测点在时间范围内的最新读数，热存储未预热时从数据库扫描
+     * @return 每个有数据的监测点一条读数
+     */
+    private Collection<FlowReading> latestPointReadings(Long roadSectionId, LocalDateTime start, LocalDateTime end) {
+        List<Long> pointIds = monitoringPointRepository.findIdsByRoadSectionIds(List.of(roadSectionId));
+        Map<Long, FlowReading> latest = new HashMap<>();
+        if (!hotFlowStoreService.isReady()) {
+            trafficFlowRecordScanner.scanPoints(pointIds, start, end,
+                    reading -> latest.put(reading.getMonitoringPointId(), reading.copy()));
+            return latest.values();
+        }
+        for (Long pointId : pointIds) {
+            FlowCursor cursor = hotFlowStoreService.cursor(pointId, start, end);
+            while (cursor.next()) {
+                cursor.read(latest.computeIfAbsent(pointId, id -> new FlowReading()));
+            }
+        }
+        return latest.values();
+    }
+
+    /**
+     * 装载路段在时间范围内各监测点的最新读数，返回当前线程复用的实例
+     */
+    private SectionLatestWindow latestWindow(Long roadSectionId, LocalDateTime start, LocalDateTime end) {
+        return LATEST_WINDOWS.get().load(sectionHistoryService.cursor(roadSectionId, start, end));
+    }
+
+    /**
+     * 热存储以秒为精度，“晚于某时刻”换算为不早于其后第一个整秒
+     */
+    private static LocalDateTime afterTime(LocalDateTime time) {
+        return time.truncatedTo(ChronoUnit.SECONDS).plusSeconds(1);
+    }
+
+    /**
+     * “早于某时刻”换算为早于其后第一个整秒（该时刻本身为整秒时即为自身）
+     */
+    private static LocalDateTime beforeTime(LocalDateTime time) {
+        LocalDateTime truncated = time.truncatedTo(ChronoUnit.SECONDS);
+        return truncated.equals(time) ? truncated : truncated.plusSeconds(1);
+    }
+
+    /**
+     * 按时间顺序逐条检查相邻读数的流量与速度突变
+     */
+    private static final class AnomalyDetector {
+
+        private final List<Map<String, Object>> anomalies = new ArrayList<>();
+
+        private int samples;
+
+        private int prevFlow = FlowReading.MISSING_INT;
+
+        private double prevSpeed = Double.NaN;
+
+        void accept(long epochSecond, int currFlow, double currSpeed) {
+            samples++;
+            if (samples > 1) {
+                // 检查流量突增或突降，50%的变化视为异常
+                if (prevFlow != FlowReading.MISSING_INT && currFlow != FlowReading.MISSING_INT) {
+                    double changeRatio = prevFlow > 0 ? (double) (currFlow - prevFlow) / prevFlow : 0;
+                    if (Math.abs(changeRatio) > 0.5) {
+                        Map<String, Object> anomaly = new HashMap<>();
+                        anomaly.put("time", DateUtils.fromEpochSecond(epochSecond));
+                        anomaly.put("type", changeRatio > 0 ? "流量突增" : "流量突降");
+                        anomaly.put("changeRatio", String.format("%.2f%%", changeRatio * 100));
+                        anomaly.put("prevFlow", prevFlow);
+                        anomaly.put("currFlow", currFlow);
+                        anomalies.add(anomaly);
+                    }
+                }
+                // 检查速度突变，30%的变化视为异常
+                if (!Double.isNaN(prevSpeed) && !Double.isNaN(currSpeed)) {
+                    double speedChangeRatio = prevSpeed > 0 ? (currSpeed - prevSpeed) / prevSpeed : 0;
+                    if (Math.abs(speedChangeRatio) > 0.3) {
+                        Map<String, Object> anomaly = new HashMap<>();
+                        anomaly.put("time", DateUtils.fromEpochSecond(epochSecond));
+                        anomaly.put("type", speedChangeRatio < 0 ? "速度骤降" : "速度骤增");
+                        anomaly.put("changeRatio", String.format("%.2f%%", speedChangeRatio * 100));
+                        anomaly.put("prevSpeed", prevSpeed);
+                        anomaly.put("currSpeed", currSpeed);
+                        anomalies.add(anomaly);
+                    }
+                }
+            }
+            prevFlow = currFlow;
+            prevSpeed = currSpeed;
+        }
+
+        /**
+         * 数据点太少时无法分析，返回空列表
+         */
+        List<Map<String, Object>> getAnomalies() {
+            return samples < MIN_ANOMALY_SAMPLES ? List.of() : anomalies;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.enshitrafficplatform.service.impl;
+
+import com.example.enshitrafficplatform.export.FlowColumnarWriter;
+import com.example.enshitrafficplatform.repository.MonitoringPointRepository;
+import com.example.enshitrafficplatform.repository.TrafficFlowRecordScanner;
+import com.example.enshitrafficplatform.service.FlowExportService;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.TreeSet;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 流量历史批量导出服务实现
+ * 读取原始记录表，扫描器复用的读数实例逐行复制到写入器的列数组中，导出过程不为每行创建对象。
+ * 导出耗时记录到 traffic.flow.export 指标，导出行数累计到 traffic.flow.export.rows 计数器
+ */
+@Slf4j
+@Service
+public class FlowExportServiceImpl implements FlowExportService {
+
+    private static final String EXPORT_TIMER = "traffic.flow.export";
+
+    private static final String EXPORT_ROWS = "traffic.flow.export.rows";
+
+    private final TrafficFlowRecordScanner trafficFlowRecordScanner;
+
+    private final MonitoringPointRepository monitoringPointRepository;
+
+    private final MeterRegistry meterRegistry;
+
+    private final int batchRows;
+
+    public FlowExportServiceImpl(TrafficFlowRecordScanner trafficFlowRecordScanner,
+                                 MonitoringPointRepository monitoringPointRepository,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.export.batch-rows:8192}") int batchRows) {
+        this.trafficFlowRecordScanner = trafficFlowRecordScanner;
+        this.monitoringPointRepository = monitoringPointRepository;
+        this.meterRegistry = meterRegistry;
+        this.batchRows = batchRows;
+    }
+
+    @Override
+    public long export(Collection<Long> monitoringPointIds, Collection<Long> roadSectionIds,
+                       LocalDateTime startTime, LocalDateTime endTime, OutputStream out) throws IOException {
+        TreeSet<Long> pointIds = new TreeSet<>();
+        if (monitoringPointIds != null) {
+            pointIds.addAll(monitoringPointIds);
+        }
+        if (roadSectionIds != null && !roadSectionIds.isEmpty()) {
+            pointIds.addAll(monitoringPointRepository.findIdsByRoadSectionIds(roadSectionIds));
+        }
+
+        long startNanos = System.nanoTime();
+        FlowColumnarWriter writer = new FlowColumnarWriter(out, batchRows);
+        try {
+            trafficFlowRecordScanner.scanPoints(pointIds, startTime, endTime, writer);
+        } catch (UncheckedIOException e) {
+            // 客户端断开等写入失败由写入器包装后从扫描回调中抛出
+            throw e.getCause();
+        }
+        long rows = writer.finish();
+        long elapsedNanos = System.nanoTime() - startNanos;
+
+        meterRegistry.timer(EXPORT_TIMER).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        meterRegistry.counter(EXPORT_ROWS).increment(rows);
+        log.info("流量列式导出完成：监测点{}个，{}行，{}字节，耗时{}ms，{}行/秒",
+                pointIds.size(), rows, writer.getBytesWritten(), elapsedNanos / 1_000_000,
+                rowsPerSecond(rows, elapsedNanos));
+        return rows;
+    }
+
+    private static long rowsPerSecond(long rows, long elapsedNanos) {
+        return elapsedNanos > 0 ? rows * 1_000_000_000L / elapsedNanos : rows;
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.enshitrafficplatform.service.impl;
+
+import com.example.enshitrafficplatform.repository.PointFiveMinuteBucketRepository;
+import com.example.enshitrafficplatform.repository.PointHourlyBucketRepository;
+import com.example.enshitrafficplatform.repository.TablePartitionRepository;
+import com.example.enshitrafficplatform.repository.TrafficFlowArchiveBlockRepository;
+import com.example.enshitrafficplatform.repository.TrafficFlowRecordRepository;
+import com.example.enshitrafficplatform.retention.RetentionDataType;
+import com.example.enshitrafficplatform.retention.RetentionTier;
+import com.example.enshitrafficplatform.service.FlowArchiveService;
+import com.example.enshitrafficplatform.service.PartitionMaintenanceService;
+import com.example.enshitrafficplatform.service.RetentionTierHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 流量记录的分层操作：原始记录 → 5分钟桶 → 小时桶
+ * 原始记录被清理前还要求当天已生成归档块，冷存储之后从归档块迁移原始读数
+ */
+@Component
+@RequiredArgsConstructor
+public class FlowRecordRetentionHandler implements RetentionTierHandler {
+
+    private final TrafficFlowRecordRepository trafficFlowRecordRepository;
+
+    private final PointFiveMinuteBucketRepository pointFiveMinuteBucketRepository;
+
+    private final PointHourlyBucketRepository pointHourlyBucketRepository;
+
+    private final TrafficFlowArchiveBlockRepository trafficFlowArchiveBlockRepository;
+
+    private final TablePartitionRepository tablePartitionRepository;
+
+    private final FlowArchiveService flowArchiveService;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public RetentionDataType getDataType() {
+        return RetentionDataType.FLOW_RECORDS;
+    }
+
+    @Override
+    public String getTableName(RetentionTier tier) {
+        switch (tier) {
+            case RAW:
+                return PartitionMaintenanceService.TRAFFIC_FLOW_RECORDS;
+            case FIVE_MINUTE:
+                return "point_five_minute_buckets";
+            default:
+                return "point_hourly_buckets";
+        }
+    }
+
+    @Override
+    public LocalDate findOldestDate(RetentionTier tier) {
+        LocalDateTime oldest;
+        switch (tier) {
+            case RAW:
+                oldest = tablePartitionRepository.findMinRecordTime(
+                        PartitionMaintenanceService.TRAFFIC_FLOW_RECORDS);
+                break;
+            case FIVE_MINUTE:
+                oldest = pointFiveMinuteBucketRepository.findMinBucketStart();
+                break;
+            default:
+                oldest = pointHourlyBucketRepository.findMinBucketStart();
+        }
+        return oldest != null ? oldest.toLocalDate() : null;
+    }
+
+    @Override
+    public boolean isCovered(RetentionTier tier, LocalDate date) {
+        LocalDateTime start = date.atStartOfDay();
+        LocalDateTime end = start.plusDays(1);
+        switch (tier) {
+            case RAW:
+                long records = trafficFlowRecordRepository.countByRecordTimeRange(start, end);
+                return records == 0
+                        || (pointFiveMinuteBucketRepository.sumRecordCount(start, end) == records
+                            && trafficFlowArchiveBlockRepository.existsByBlockDate(date));
+            case FIVE_MINUTE:
+                return pointHourlyBucketRepository.sumFlowCount(start, end)
+                        == pointFiveMinuteBucketRepository.sumFlowCount(start, end);
+            default:
+                return true;
+        }
+    }
+
+    @Override
+    public void downsample(RetentionTier tier, LocalDate date) {
+        LocalDateTime start = date.atStartOfDay();
+        LocalDateTime end = start.plusDays(1);
+        if (tier == RetentionTier.RAW) {
+            transactionTemplate.executeWithoutResult(status -> {
+                pointFiveMinuteBucketRepository.deleteByBucketStartRange(start, end);
+                pointFiveMinuteBucketRepository.rebuildFromRecords(start, end);
+            });
+            // 归档在事务外流式扫描
+            if (!trafficFlowArchiveBlockRepository.existsByBlockDate(date)) {
+                flowArchiveService.archiveDay(date);
+            }
+        } else if (tier == RetentionTier.FIVE_MINUTE) {
+            transactionTemplate.executeWithoutResult(status -> {
+                pointHourlyBucketRepository.deleteByBucketStartRange(start, end);
+                pointHourlyBucketRepository.rebuildFromFiveMinuteBuckets(start, end);
+            });
+        }
+    }
+
+    @Override
+    public int purgeBatch(RetentionTier tier, LocalDate date, int batchSize) {
+        LocalDateTime start = date.atStartOfDay();
+        LocalDateTime end = start.plusDays(1);
+        switch (tier) {
+            case RAW:
+                return trafficFlowRecordRepository.deleteMigratedBatch(start, end, Long.MAX_VALUE, batchSize);
+            case FIVE_MINUTE:
+                return pointFiveMinuteBucketRepository.deleteBatch(start, end, batchSize);
+            default:
+                return pointHourlyBucketRepository.deleteBatch(start, end, batchSize);
+        }
+    }
+}
@@ -0,0 +1,374 @@
+package com.example.enshitrafficplatform.service.impl;
+
+import com.example.enshitrafficplatform.dto.FlowReading;
+import com.example.enshitrafficplatform.dto.request.FlowSeriesRequest;
+import com.example.enshitrafficplatform.dto.response.FlowSeriesResponse;
+import com.example.enshitrafficplatform.dto.response.FlowSeriesResponse.TierRead;
+import com.example.enshitrafficplatform.repository.MonitoringPointRepository;
+import com.example.enshitrafficplatform.repository.TablePartitionRepository;
+import com.example.enshitrafficplatform.repository.TrafficFlowRecordScanner;
+import com.example.enshitrafficplatform.service.ColdStorageService;
+import com.example.enshitrafficplatform.service.FlowArchiveService;
+import com.example.enshitrafficplatform.service.FlowSeriesService;
+import com.example.enshitrafficplatform.service.HotFlowStoreService;
+import com.example.enshitrafficplatform.service.PartitionMaintenanceService;
+import com.example.enshitrafficplatform.storage.FlowCursor;
+import com.example.enshitrafficplatform.storage.StorageTier;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * 流量时间序列读取服务实现
+ * 层级边界：冷数据段覆盖到最后一个已迁移的日期，原始记录从表中最早的记录时间开始，
+ * 热存储预热完成后覆盖其时间窗口；冷数据段与原始记录之间的空档由归档块补齐。
+ * 各层级读取的读数按 监测点、时间 有序，归并时同一监测点同一时刻出现在多个层级的读数只保留较新层级的，
+ * 用于消除迁移、淘汰进行中造成的边界重叠。各层级的读取耗时记录到 traffic.flow.series.tier 指标
+ */
+@Slf4j
+@Service
+public class FlowSeriesServiceImpl implements FlowSeriesService {
+
+    private static final String TIER_TIMER = "traffic.flow.series.tier";
+
+    private final HotFlowStoreService hotFlowStoreService;
+
+    private final TrafficFlowRecordScanner trafficFlowRecordScanner;
+
+    private final TablePartitionRepository tablePartitionRepository;
+
+    private final FlowArchiveService flowArchiveService;
+
+    private final ColdStorageService coldStorageService;
+
+    private final MonitoringPointRepository monitoringPointRepository;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ExecutorService executor;
+
+    private final int maxRows;
+
+    private final long tierTimeoutSeconds;
+
+    public FlowSeriesServiceImpl(HotFlowStoreService hotFlowStoreService,
+                                 TrafficFlowRecordScanner trafficFlowRecordScanner,
+                                 TablePartitionRepository tablePartitionRepository,
+                                 FlowArchiveService flowArchiveService,
+                                 ColdStorageService coldStorageService,
+                                 MonitoringPointRepository monitoringPointRepository,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${app.flow-series.threads:4}") int threads,
+                                 @Value("${app.flow-series.max-rows:100000}") int maxRows,
+                                 @Value("${app.flow-series.tier-timeout-seconds:30}") long tierTimeoutSeconds) {
+        this.hotFlowStoreService = hotFlowStoreService;
+        this.trafficFlowRecordScanner = trafficFlowRecordScanner;
+        this.tablePartitionRepository = tablePartitionRepository;
+        this.flowArchiveService = flowArchiveService;
+        this.coldStorageService = coldStorageService;
+        this.monitoringPointRepository = monitoringPointRepository;
+        this.meterRegistry = meterRegistry;
+        this.maxRows = Math.max(maxRows, 1);
+        this.tierTimeoutSeconds = tierTimeoutSeconds;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(threads, 1), runnable -> {
+            Thread thread = new Thread(runnable, "flow-series-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public FlowSeriesResponse query(FlowSeriesRequest request) {
+        TreeSet<Long> pointIds = new TreeSet<>();
+        if (request.getMonitoringPointIds() != null) {
+            pointIds.addAll(request.getMonitoringPointIds());
+        }
+        if (request.getRoadSectionIds() != null && !request.getRoadSectionIds().isEmpty()) {
+            pointIds.addAll(monitoringPointRepository.findIdsByRoadSectionIds(request.getRoadSectionIds()));
+        }
+        int limit = request.getMaxRows() != null ? Math.min(Math.max(request.getMaxRows(), 1), maxRows) : maxRows;
+        List<FlowReading> readings = new ArrayList<>();
+        FlowSeriesResponse response = read(pointIds, request.getStartTime(), request.getEndTime(), limit, readings::add);
+        response.setReadings(readings);
+        return response;
+    }
+
+    @Override
+    public FlowSeriesResponse read(Collection<Long> monitoringPointIds, LocalDateTime startTime, LocalDateTime endTime,
+                                   int maxRows, Consumer<FlowReading> handler) {
+        if (!startTime.isBefore(endTime)) {
+            throw new IllegalArgumentException("开始时间必须早于结束时间");
+        }
+        long startNanos = System.nanoTime();
+        List<Long> pointIds = new ArrayList<>(new TreeSet<>(monitoringPointIds));
+        if (pointIds.isEmpty()) {
+            return FlowSeriesResponse.builder().tiers(List.of()).build();
+        }
+
+        List<TierSlice> slices = plan(startTime, endTime);
+        List<Future<TierResult>> futures = new ArrayList<>(slices.size());
+        for (TierSlice slice : slices) {
+            // 每个层级多读一条，用于判断结果是否被截断
+            futures.add(executor.submit(() -> readTier(slice, pointIds, maxRows + 1)));
+        }
+        List<TierResult> results = new ArrayList<>(slices.size());
+        try {
+            for (int i = 0; i < futures.size(); i++) {
+                results.add(await(futures.get(i), slices.get(i).tier()));
+            }
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+
+        Map<Long, Long> roadSectionIds = findRoadSectionIds(pointIds);
+        MergeResult merged = merge(results, maxRows, roadSectionIds, handler);
+        List<TierRead> tiers = new ArrayList<>(results.size());
+        for (TierResult result : results) {
+            tiers.add(TierRead.builder()
+                    .tier(result.slice().tier())
+                    .startTime(result.slice().startTime())
+                    .endTime(result.slice().endTime())
+                    .rowCount(result.rowCount())
+                    .elapsedMillis(result.elapsedNanos() / 1_000_000.0)
+                    .build());
+        }
+        return FlowSeriesResponse.builder()
+                .rowCount(merged.rowCount())
+                .duplicateCount(merged.duplicateCount())
+                .truncated(merged.truncated())
+                .elapsedMillis((System.nanoTime() - startNanos) / 1_000_000.0)
+                .tiers(tiers)
+                .build();
+    }
+
+    /**
+     * 按层级边界把时间范围拆分为互不重叠的区间，按层级优先级排序
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     * @return 非空的层级区间
+     */
+    private List<TierSlice> plan(LocalDateTime startTime, LocalDateTime endTime) {
+        LocalDateTime hotFrom = hotFlowStoreService.isReady() ? hotFlowStoreService.getWindowStart() : endTime;
+        LocalDateTime rawStart = tablePartitionRepository.findMinRecordTime(
+                PartitionMaintenanceService.TRAFFIC_FLOW_RECORDS);
+        LocalDateTime rawFrom = rawStart != null && rawStart.isBefore(hotFrom) ? rawStart : hotFrom;
+        LocalDate coveredUntil = coldStorageService.getCoveredUntil();
+        LocalDateTime coldTo = coveredUntil != null ? coveredUntil.plusDays(1).atStartOfDay() : startTime;
+        if (coldTo.isAfter(rawFrom)) {
+            // 迁移未完成的月份同时存在于冷数据段与原始记录中，以原始记录为准
+            coldTo = rawFrom;
+        }
+
+        List<TierSlice> slices = new ArrayList<>(StorageTier.values().length);
+        addSlice(slices, StorageTier.HOT, hotFrom, endTime, startTime, endTime);
+        addSlice(slices, StorageTier.RAW, rawFrom, hotFrom, startTime, endTime);
+        addSlice(slices, StorageTier.ARCHIVE, coldTo, rawFrom, startTime, endTime);
+        addSlice(slices, StorageTier.COLD, startTime, coldTo, startTime, endTime);
+        return slices;
+    }
+
+    private static void addSlice(List<TierSlice> slices, StorageTier tier, LocalDateTime from, LocalDateTime to,
+                                 LocalDateTime startTime, LocalDateTime endTime) {
+        LocalDateTime sliceStart = from.isAfter(startTime) ? from : startTime;
+        LocalDateTime sliceEnd = to.isBefore(endTime) ? to : endTime;
+        if (sliceStart.isBefore(sliceEnd)) {
+            slices.add(new TierSlice(tier, sliceStart, sliceEnd));
+        }
+    }
+
+    private TierResult readTier(TierSlice slice, List<Long> pointIds, int limit) {
+        long startNanos = System.nanoTime();
+        TierCollector collector = new TierCollector(limit);
+        switch (slice.tier()) {
+            case HOT -> {
+                FlowReading reading = new FlowReading();
+                for (Long pointId : pointIds) {
+                    FlowCursor cursor = hotFlowStoreService.cursor(pointId, slice.startTime(), slice.endTime());
+                    while (cursor.next() && !collector.isFull()) {
+                        reading.reset();
+                        reading.setMonitoringPointId(pointId);
+                        cursor.read(reading);
+                        collector.accept(reading);
+                    }
+                }
+            }
+            case RAW -> trafficFlowRecordScanner.scanPoints(pointIds, slice.startTime(), slice.endTime(), collector);
+            case ARCHIVE -> {
+                for (Long pointId : pointIds) {
+                    if (collector.isFull()) {
+                        break;
+                    }
+                    flowArchiveService.scan(pointId, slice.startTime(), slice.endTime(), collector);
+                }
+            }
+            case COLD -> {
+                for (Long pointId : pointIds) {
+                    if (collector.isFull()) {
+                        break;
+                    }
+                    coldStorageService.scan(pointId, slice.startTime(), slice.endTime(), null, collector);
+                }
+            }
+        }
+        long elapsedNanos = System.nanoTime() - startNanos;
+        meterRegistry.timer(TIER_TIMER, "tier", slice.tier().getTag()).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        return new TierResult(slice, collector.readings, collector.rowCount, elapsedNanos);
+    }
+
+    private TierResult await(Future<TierResult> future, StorageTier tier) {
+        try {
+            return future.get(tierTimeoutSeconds, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            throw new IllegalStateException(tier.getLabel() + "读取超时", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(tier.getLabel() + "读取失败", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(tier.getLabel() + "读取被中断", e);
+        }
+    }
+
+    /**
+     * 按 监测点、时间 多路归并各层级的读数
+     * 同一监测点同一时刻的读数只输出优先级最高的层级中的，其余层级的计为重复
+     */
+    private static MergeResult merge(List<TierResult> results, int maxRows, Map<Long, Long> roadSectionIds,
+                                     Consumer<FlowReading> handler) {
+        int tierCount = results.size();
+        int[] positions = new int[tierCount];
+        long rowCount = 0;
+        long duplicateCount = 0;
+        boolean truncated = false;
+        while (true) {
+            int best = -1;
+            FlowReading head = null;
+            for (int i = 0; i < tierCount; i++) {
+                List<FlowReading> readings = results.get(i).readings();
+                if (positions[i] < readings.size()) {
+                    FlowReading candidate = readings.get(positions[i]);
+                    // 键相同时保留先遍历到的层级，results 已按优先级排序
+                    if (head == null || compareKey(candidate, head) < 0) {
+                        best = i;
+                        head = candidate;
+                    }
+                }
+            }
+            if (head == null) {
+                break;
+            }
+            long pointId = head.getMonitoringPointId();
+            long epochSecond = head.getEpochSecond();
+            List<FlowReading> bestReadings = results.get(best).readings();
+            while (positions[best] < bestReadings.size()
+                    && hasKey(bestReadings.get(positions[best]), pointId, epochSecond)) {
+                if (rowCount == maxRows) {
+                    truncated = true;
+                    break;
+                }
+                FlowReading reading = bestReadings.get(positions[best]++);
+                if (reading.getRoadSectionId() == 0L) {
+                    reading.setRoadSectionId(roadSectionIds.getOrDefault(pointId, 0L));
+                }
+                handler.accept(reading);
+                rowCount++;
+            }
+            if (truncated) {
+                break;
+            }
+            for (int i = 0; i < tierCount; i++) {
+                List<FlowReading> readings = results.get(i).readings();
+                while (i != best && positions[i] < readings.size()
+                        && hasKey(readings.get(positions[i]), pointId, epochSecond)) {
+                    positions[i]++;
+                    duplicateCount++;
+                }
+            }
+        }
+        for (TierResult result : results) {
+            // 层级读数超过上限时未保存的部分未参与归并
+            truncated |= result.rowCount() > result.readings().size();
+        }
+        return new MergeResult(rowCount, duplicateCount, truncated);
+    }
+
+    private static int compareKey(FlowReading a, FlowReading b) {
+        int byPoint = Long.compare(a.getMonitoringPointId(), b.getMonitoringPointId());
+        return byPoint != 0 ? byPoint : Long.compare(a.getEpochSecond(), b.getEpochSecond());
+    }
+
+    private static boolean hasKey(FlowReading reading, long pointId, long epochSecond) {
+        return reading.getMonitoringPointId() == pointId && reading.getEpochSecond() == epochSecond;
+    }
+
+    private Map<Long, Long> findRoadSectionIds(List<Long> pointIds) {
+        Map<Long, Long> roadSectionIds = new HashMap<>();
+        for (Object[] row : monitoringPointRepository.findRoadSectionIdsByIds(pointIds)) {
+            if (row[1] != null) {
+                roadSectionIds.put((Long) row[0], (Long) row[1]);
+            }
+        }
+        return roadSectionIds;
+    }
+
+    /**
+     * 收集单个层级的读数副本，超过上限后只计数不再保存
+     */
+    private static final class TierCollector implements Consumer<FlowReading> {
+
+        private final int limit;
+
+        private final List<FlowReading> readings = new ArrayList<>();
+
+        private long rowCount;
+
+        private TierCollector(int limit) {
+            this.limit = limit;
+        }
+
+        @Override
+        public void accept(FlowReading reading) {
+            rowCount++;
+            if (readings.size() < limit) {
+                readings.add(reading.copy());
+            }
+        }
+
+        private boolean isFull() {
+            return readings.size() >= limit;
+        }
+    }
+
+    private record TierSlice(StorageTier tier, LocalDateTime startTime, LocalDateTime endTime) {
+    }
+
+    private record TierResult(TierSlice slice, List<FlowReading> readings, long rowCount, long elapsedNanos) {
+    }
+
+    private record MergeResult(long rowCount, long duplicateCount, boolean truncated) {
+    }
+}
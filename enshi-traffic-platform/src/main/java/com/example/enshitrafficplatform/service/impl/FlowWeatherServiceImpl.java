@@ -0,0 +1,173 @@
+package com.example.enshitrafficplatform.service.impl;
+
+import com.example.enshitrafficplatform.dto.FlowReading;
+import com.example.enshitrafficplatform.entity.WeatherRecord;
+import com.example.enshitrafficplatform.event.FlowWeatherAlignedEvent;
+import com.example.enshitrafficplatform.event.SectionWeatherRefreshedEvent;
+import com.example.enshitrafficplatform.event.TrafficFlowIngestedEvent;
+import com.example.enshitrafficplatform.event.WeatherRecordedEvent;
+import com.example.enshitrafficplatform.repository.RoadSectionRepository;
+import com.example.enshitrafficplatform.repository.TrafficFlowRecordScanner;
+import com.example.enshitrafficplatform.repository.WeatherRecordRepository;
+import com.example.enshitrafficplatform.service.FlowWeatherService;
+import com.example.enshitrafficplatform.weather.SectionWeatherJoin;
+import com.example.enshitrafficplatform.weather.SectionWeatherJoin.SectionPoint;
+import com.example.enshitrafficplatform.weather.WeatherAsOfJoin;
+import com.example.enshitrafficplatform.weather.WeatherPageIterator;
+import com.example.enshitrafficplatform.weather.WeatherSample;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * 流量读数天气对齐服务实现
+ * 实时对齐使用当前的路段天气关联，关联刷新时以各观测站的当前观测重建算子，新天气记录入库后直接推入；
+ * 回放时以回放期间出现过的观测位置单独建立最近观测站关联，天气按时间分页读取，耗时记录到 traffic.weather.flow.replay 指标
+ */
+@Slf4j
+@Service
+public class FlowWeatherServiceImpl implements FlowWeatherService {
+
+    private static final String REPLAY_TIMER = "traffic.weather.flow.replay";
+
+    private final WeatherRecordRepository weatherRecordRepository;
+
+    private final RoadSectionRepository roadSectionRepository;
+
+    private final TrafficFlowRecordScanner trafficFlowRecordScanner;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final MeterRegistry meterRegistry;
+
+    private final long maxAgeSeconds;
+
+    private final long maxGapSeconds;
+
+    private final Duration pageSize;
+
+    private final double maxDistanceKm;
+
+    private WeatherAsOfJoin live;
+
+    public FlowWeatherServiceImpl(WeatherRecordRepository weatherRecordRepository,
+                                  RoadSectionRepository roadSectionRepository,
+                                  TrafficFlowRecordScanner trafficFlowRecordScanner,
+                                  ApplicationEventPublisher eventPublisher,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.flow-weather.max-age-minutes:180}") int maxAgeMinutes,
+                                  @Value("${app.flow-weather.max-gap-minutes:180}") int maxGapMinutes,
+                                  @Value("${app.flow-weather.page-hours:24}") int pageHours,
+                                  @Value("${app.section-weather.max-distance-km:50}") double maxDistanceKm) {
+        this.weatherRecordRepository = weatherRecordRepository;
+        this.roadSectionRepository = roadSectionRepository;
+        this.trafficFlowRecordScanner = trafficFlowRecordScanner;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+        this.maxAgeSeconds = maxAgeMinutes * 60L;
+        this.maxGapSeconds = maxGapMinutes * 60L;
+        this.pageSize = Duration.ofHours(pageHours);
+        this.maxDistanceKm = maxDistanceKm;
+        this.live = WeatherAsOfJoin.live(SectionWeatherJoin.empty(), maxAgeSeconds);
+    }
+
+    @Override
+    public synchronized boolean alignLatest(FlowReading reading, WeatherSample out) {
+        return live.align(reading, out);
+    }
+
+    /**
+     * 路段天气关联刷新后以新的观测站重建实时算子
+     * @param event 刷新事件
+     */
+    @EventListener
+    public synchronized void onSectionWeatherRefreshed(SectionWeatherRefreshedEvent event) {
+        live = WeatherAsOfJoin.live(event.getJoin(), maxAgeSeconds);
+    }
+
+    /**
+     * 天气记录写入事务提交后推入实时算子，不必等待关联刷新
+     * @param event 入库事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onWeatherRecorded(WeatherRecordedEvent event) {
+        live.offer(event.getRecord());
+    }
+
+    /**
+     * 流量记录写入事务提交后对齐天气，发布对齐成功的读数
+     * @param event 入库事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrafficFlowIngested(TrafficFlowIngestedEvent event) {
+        List<FlowReading> readings = new ArrayList<>();
+        List<WeatherSample> weather = new ArrayList<>();
+        synchronized (this) {
+            for (FlowReading reading : event.getReadings()) {
+                WeatherSample sample = new WeatherSample();
+                if (live.align(reading, sample)) {
+                    readings.add(reading);
+                    weather.add(sample);
+                }
+            }
+        }
+        if (!readings.isEmpty()) {
+            eventPublisher.publishEvent(new FlowWeatherAlignedEvent(readings, weather));
+        }
+    }
+
+    @Override
+    public long replay(LocalDateTime startTime, LocalDateTime endTime, WeatherAsOfJoin.Mode mode,
+                       BiConsumer<FlowReading, WeatherSample> handler) {
+        long startNanos = System.nanoTime();
+        LocalDateTime weatherStart = startTime.minusSeconds(maxAgeSeconds);
+        LocalDateTime weatherEnd = endTime.plusSeconds(maxGapSeconds);
+        List<WeatherRecord> locations = new ArrayList<>();
+        for (Object[] row : weatherRecordRepository.findLocationsBetween(weatherStart, weatherEnd)) {
+            WeatherRecord location = new WeatherRecord();
+            location.setLongitude((Double) row[0]);
+            location.setLatitude((Double) row[1]);
+            locations.add(location);
+        }
+        SectionWeatherJoin join = SectionWeatherJoin.build(locations, findSectionPoints(), 1, 2.0, maxDistanceKm);
+        WeatherAsOfJoin asOf = WeatherAsOfJoin.replay(join, mode, maxAgeSeconds, maxGapSeconds,
+                new WeatherPageIterator(weatherRecordRepository::findLocatedBetween, weatherStart, weatherEnd,
+                        pageSize));
+        WeatherSample sample = new WeatherSample();
+        long[] aligned = new long[1];
+        long scanned = trafficFlowRecordScanner.scan(startTime, endTime, reading -> {
+            if (asOf.align(reading, sample)) {
+                aligned[0]++;
+                handler.accept(reading, sample);
+            } else {
+                handler.accept(reading, null);
+            }
+        });
+        long elapsedNanos = System.nanoTime() - startNanos;
+        meterRegistry.timer(REPLAY_TIMER).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        log.info("流量读数天气回放完成：{} ~ {}，观测位置{}个，读数{}条，对齐{}条，耗时{}ms",
+                startTime, endTime, locations.size(), scanned, aligned[0], elapsedNanos / 1_000_000);
+        return scanned;
+    }
+
+    private List<SectionPoint> findSectionPoints() {
+        List<Object[]> rows = roadSectionRepository.findMidpoints();
+        List<SectionPoint> points = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            points.add(new SectionPoint((Long) row[0], ((Number) row[1]).doubleValue(),
+                    ((Number) row[2]).doubleValue()));
+        }
+        return points;
+    }
+}
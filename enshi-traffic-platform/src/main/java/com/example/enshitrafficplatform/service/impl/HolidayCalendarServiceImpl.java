@@ -0,0 +1,73 @@
+package com.example.enshitrafficplatform.service.impl;
+
+import com.example.enshitrafficplatform.event.HolidayCalendarReloadedEvent;
+import com.example.enshitrafficplatform.peak.HolidayCalendar;
+import com.example.enshitrafficplatform.service.HolidayCalendarService;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.io.Resource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 节假日日历服务实现
+ * 启动时加载节假日文件并安装为全局默认日历（实体对它的使用见 PeakScheduleTable）；
+ * 之后按计划重新加载，便于追加新一年的放假安排而无需重启，加载成功后发布 {@link HolidayCalendarReloadedEvent}。
+ * 加载失败时保留上一次的日历
+ */
+@Slf4j
+@Service
+public class HolidayCalendarServiceImpl implements HolidayCalendarService {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final Resource holidayFile;
+
+    private final int firstYear;
+
+    private final int lastYear;
+
+    public HolidayCalendarServiceImpl(
+            ApplicationEventPublisher eventPublisher,
+            @Value("${app.holiday.file:classpath:holidays/cn-holidays.txt}") Resource holidayFile,
+            @Value("${app.holiday.first-year:2020}") int firstYear,
+            @Value("${app.holiday.last-year:2035}") int lastYear) {
+        this.eventPublisher = eventPublisher;
+        this.holidayFile = holidayFile;
+        this.firstYear = firstYear;
+        this.lastYear = lastYear;
+    }
+
+    @PostConstruct
+    public void init() {
+        reload();
+    }
+
+    @Override
+    public HolidayCalendar getCalendar() {
+        return HolidayCalendar.getDefault();
+    }
+
+    @Override
+    @Scheduled(cron = "${app.holiday.reload-cron:0 0 3 * * *}")
+    public boolean reload() {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(holidayFile.getInputStream(), StandardCharsets.UTF_8))) {
+            HolidayCalendar calendar = HolidayCalendar.parse(reader, firstYear, lastYear);
+            HolidayCalendar.setDefault(calendar);
+            log.info("节假日日历加载完成：{}，{}-{}年", holidayFile.getDescription(), firstYear, lastYear);
+            eventPublisher.publishEvent(new HolidayCalendarReloadedEvent(calendar));
+            return true;
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("节假日日历加载失败，保留当前日历：{}", holidayFile.getDescription(), e);
+            return false;
+        }
+    }
+}
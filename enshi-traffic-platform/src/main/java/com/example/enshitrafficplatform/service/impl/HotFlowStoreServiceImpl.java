@@ -0,0 +1,181 @@
+package com.example.enshitrafficplatform.service.impl;
+
+import com.example.enshitrafficplatform.event.TrafficFlowIngestedEvent;
+import com.example.enshitrafficplatform.repository.TrafficFlowRecordScanner;
+import com.example.enshitrafficplatform.service.HotFlowStoreService;
+import com.example.enshitrafficplatform.storage.FlowCatchUp;
+import com.example.enshitrafficplatform.storage.FlowCursor;
+import com.example.enshitrafficplatform.storage.HotFlowStore;
+import com.example.enshitrafficplatform.storage.SnapshotFiles;
+import com.example.enshitrafficplatform.util.DateUtils;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+
+/**
+ * 近期流量热存储服务实现
+ * 启动时优先映射并加载快照，再按记录ID从数据库补齐快照之后的记录；无快照时按 监测点、时间 顺序
+ * 从数据库预热窗口内的数据，预热期间的入库读数由 {@link FlowCatchUp} 去重补入。
+ * 之后由入库事件增量追加，并定期及关闭前保存快照
+ */
+@Slf4j
+@Service
+public class HotFlowStoreServiceImpl implements HotFlowStoreService {
+
+    private final TrafficFlowRecordScanner trafficFlowRecordScanner;
+
+    private final Path snapshotPath;
+
+    private final int windowDays;
+
+    private final int segmentCapacity;
+
+    private volatile HotFlowStore store;
+
+    private final FlowCatchUp catchUp;
+
+    private volatile boolean ready;
+
+    public HotFlowStoreServiceImpl(TrafficFlowRecordScanner trafficFlowRecordScanner,
+                                   @Value("${app.hot-store.window-days:7}") int windowDays,
+                                   @Value("${app.hot-store.segment-capacity:1024}") int segmentCapacity,
+                                   @Value("${app.hot-store.snapshot-path:data/hot-store/hot-store.snap}")
+                                   String snapshotPath,
+                                   @Value("${app.catch-up.id-margin:100000}") long idMargin) {
+        this.trafficFlowRecordScanner = trafficFlowRecordScanner;
+        this.windowDays = windowDays;
+        this.segmentCapacity = segmentCapacity;
+        this.snapshotPath = Paths.get(snapshotPath);
+        this.store = new HotFlowStore(segmentCapacity);
+        this.catchUp = new FlowCatchUp(idMargin);
+    }
+
+    @Override
+    public FlowCursor cursor(Long monitoringPointId, LocalDateTime startTime, LocalDateTime endTime) {
+        return store.cursor(monitoringPointId, DateUtils.toEpochSecond(startTime), DateUtils.toEpochSecond(endTime));
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public LocalDateTime getWindowStart() {
+        return LocalDateTime.now().minusDays(windowDays);
+    }
+
+    @Override
+    public long evictExpired() {
+        long evicted = store.evictBefore(DateUtils.toEpochSecond(getWindowStart()));
+        log.debug("热存储淘汰{}行，剩余{}行，乱序丢弃累计{}条",
+                evicted, store.getRowCount(), store.getDroppedOutOfOrderCount());
+        return evicted;
+    }
+
+    /**
+     * 应用启动完成后在后台线程预热，避免阻塞启动
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpOnStartup() {
+        Thread loader = new Thread(this::warmUp, "hot-flow-store-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    private void warmUp() {
+        long startNanos = System.nanoTime();
+        HotFlowStore loaded = readSnapshot();
+        HotFlowStore target = loaded != null ? loaded : new HotFlowStore(segmentCapacity);
+        long untilId = trafficFlowRecordScanner.maxRecordId();
+        LocalDateTime windowStart = getWindowStart();
+        catchUp.begin(untilId);
+        long scanned;
+        if (loaded != null) {
+            // 只补齐快照之后入库的记录；按ID顺序补齐时同一监测点时间倒序的少量记录会作为乱序读数丢弃
+            loaded.evictBefore(DateUtils.toEpochSecond(windowStart));
+            scanned = trafficFlowRecordScanner.scanByIdRange(loaded.getMaxRecordId(), untilId, windowStart,
+                    reading -> {
+                        if (catchUp.scanned(reading.getRecordId())) {
+                            target.append(reading);
+                        }
+                    });
+        } else {
+            // 扫描期间新入库的记录由暂存读数补入，这里只取截止ID之前的记录
+            scanned = trafficFlowRecordScanner.scanOrderByPoint(windowStart, LocalDateTime.now().plusMinutes(1),
+                    reading -> {
+                        if (catchUp.scanned(reading.getRecordId())) {
+                            target.append(reading);
+                        }
+                    });
+        }
+
+        int replayed = catchUp.finish(target::append, () -> {
+            store = target;
+            ready = true;
+        });
+        log.info("热存储预热完成：快照恢复={}，扫描记录{}条，补入预热期间读数{}条，监测点{}个，保存{}行，耗时{}ms",
+                loaded != null, scanned, replayed, target.getPointCount(), target.getRowCount(),
+                (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    @Override
+    @Scheduled(cron = "${app.hot-store.snapshot-cron:0 */15 * * * *}")
+    public void saveSnapshot() {
+        if (!ready) {
+            return;
+        }
+        try {
+            long size = SnapshotFiles.write(snapshotPath, store::writeTo);
+            log.debug("热存储快照已保存：{}，{}字节", snapshotPath, size);
+        } catch (IOException e) {
+            log.warn("热存储快照保存失败：{}", snapshotPath, e);
+        }
+    }
+
+    /**
+     * 应用关闭前保存最新快照
+     */
+    @PreDestroy
+    public void saveSnapshotOnShutdown() {
+        saveSnapshot();
+    }
+
+    private HotFlowStore readSnapshot() {
+        if (!Files.isRegularFile(snapshotPath)) {
+            return null;
+        }
+        try (FileChannel channel = FileChannel.open(snapshotPath, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return HotFlowStore.readFrom(buffer, segmentCapacity);
+        } catch (IOException e) {
+            log.warn("热存储快照读取失败，将从数据库重新预热：{}", snapshotPath, e);
+            return null;
+        }
+    }
+
+    /**
+     * 事务提交后把新入库的读数追加到热存储
+     * @param event 入库事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrafficFlowIngested(TrafficFlowIngestedEvent event) {
+        if (!catchUp.offer(event.getReadings())) {
+            store.appendAll(event.getReadings());
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.example.enshitrafficplatform.service.impl;
+
+import com.example.enshitrafficplatform.entity.WeatherRecord;
+import com.example.enshitrafficplatform.event.LandslideRiskChangedEvent;
+import com.example.enshitrafficplatform.event.SectionWeatherRefreshedEvent;
+import com.example.enshitrafficplatform.event.WeatherRecordedEvent;
+import com.example.enshitrafficplatform.repository.RoadSectionRepository;
+import com.example.enshitrafficplatform.repository.WeatherRecordRepository;
+import com.example.enshitrafficplatform.service.LandslideRiskService;
+import com.example.enshitrafficplatform.weather.LandslideRisk;
+import com.example.enshitrafficplatform.weather.LandslideRiskTracker;
+import com.example.enshitrafficplatform.weather.RainfallWindow;
+import com.example.enshitrafficplatform.weather.SectionLandslideRisk;
+import com.example.enshitrafficplatform.weather.SectionTerrain;
+import com.example.enshitrafficplatform.weather.SectionWeatherJoin;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Supplier;
+
+/**
+ * 路段滑坡风险服务实现
+ * 全部跟踪状态只在单个后台线程上修改：启动完成后载入最近72小时的降水一次，之后只按入库事件逐条记录；
+ * 路段天气关联刷新且观测站集合或路段变化时重新建立易发路段，每个整点前移窗口。
+ * 同一观测位置同一小时的多条记录取最大降水量，重复载入同一条记录不会重复计入
+ */
+@Slf4j
+@Service
+public class LandslideRiskServiceImpl implements LandslideRiskService {
+
+    private final WeatherRecordRepository weatherRecordRepository;
+
+    private final RoadSectionRepository roadSectionRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ExecutorService executor;
+
+    private final LandslideRiskTracker tracker = new LandslideRiskTracker(RainfallWindow.hourOf(LocalDateTime.now()));
+
+    /**
+     * 路段属性，路段变更后置为null，下次关联时重新查询；只在后台线程上访问
+     */
+    private List<SectionTerrain> terrain;
+
+    private volatile boolean ready;
+
+    public LandslideRiskServiceImpl(WeatherRecordRepository weatherRecordRepository,
+                                    RoadSectionRepository roadSectionRepository,
+                                    ApplicationEventPublisher eventPublisher,
+                                    MeterRegistry meterRegistry) {
+        this.weatherRecordRepository = weatherRecordRepository;
+        this.roadSectionRepository = roadSectionRepository;
+        this.eventPublisher = eventPublisher;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "landslide-risk-tracker");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("traffic.weather.landslide.sections", this, LandslideRiskServiceImpl::sectionCount)
+                .register(meterRegistry);
+        Gauge.builder("traffic.weather.landslide.high", this, service -> service.countAtLeast(LandslideRisk.HIGH))
+                .register(meterRegistry);
+    }
+
+    @Override
+    public SectionLandslideRisk getRisk(Long roadSectionId) {
+        synchronized (tracker) {
+            return tracker.get(roadSectionId);
+        }
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 应用启动完成后在后台线程载入最近72小时的降水
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        submit(() -> {
+            LocalDateTime since = LocalDateTime.now().minusHours(RainfallWindow.HOURS);
+            List<WeatherRecord> records = weatherRecordRepository.findLocatedSince(since);
+            List<LandslideRiskTracker.Change> changes = new ArrayList<>();
+            for (WeatherRecord record : records) {
+                changes.addAll(observe(record));
+            }
+            ready = true;
+            log.info("滑坡风险跟踪载入完成：天气记录{}条，易发路段{}个", records.size(), sectionCount());
+            return changes;
+        });
+    }
+
+    /**
+     * 天气记录写入事务提交后计入降水
+     * @param event 入库事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWeatherRecorded(WeatherRecordedEvent event) {
+        WeatherRecord record = event.getRecord();
+        submit(() -> observe(record));
+    }
+
+    /**
+     * 路段天气关联刷新后，观测站集合或路段有变化时重新建立易发路段
+     * @param event 刷新事件
+     */
+    @EventListener
+    public void onSectionWeatherRefreshed(SectionWeatherRefreshedEvent event) {
+        SectionWeatherJoin join = event.getJoin();
+        boolean sectionsChanged = !event.isStationsChanged();
+        submit(() -> {
+            if (sectionsChanged) {
+                terrain = null;
+            }
+            boolean sameStations;
+            synchronized (tracker) {
+                sameStations = tracker.hasSameStations(join);
+            }
+            if (terrain != null && sameStations) {
+                return List.of();
+            }
+            if (terrain == null) {
+                terrain = findTerrain();
+            }
+            synchronized (tracker) {
+                return tracker.attach(join, terrain);
+            }
+        });
+    }
+
+    @Override
+    @Scheduled(cron = "${app.landslide-risk.advance-cron:0 0 * * * *}")
+    public void advance() {
+        long hour = RainfallWindow.hourOf(LocalDateTime.now());
+        submit(() -> {
+            synchronized (tracker) {
+                return tracker.advanceTo(hour);
+            }
+        });
+    }
+
+    private List<LandslideRiskTracker.Change> observe(WeatherRecord record) {
+        if (record.getLongitude() == null || record.getLatitude() == null || record.getRecordTime() == null
+                || record.getPrecipitation() == null) {
+            return List.of();
+        }
+        synchronized (tracker) {
+            return tracker.observe(record.getLongitude(), record.getLatitude(),
+                    RainfallWindow.hourOf(record.getRecordTime()), record.getPrecipitation());
+        }
+    }
+
+    private void submit(Supplier<List<LandslideRiskTracker.Change>> task) {
+        executor.execute(() -> {
+            try {
+                publish(task.get());
+            } catch (RuntimeException e) {
+                log.warn("滑坡风险跟踪更新失败", e);
+            }
+        });
+    }
+
+    private void publish(List<LandslideRiskTracker.Change> changes) {
+        for (LandslideRiskTracker.Change change : changes) {
+            LandslideRiskChangedEvent event = new LandslideRiskChangedEvent(change.roadSectionId(),
+                    change.previous(), change.current(), change.rainfall24h(), change.rainfall72h());
+            if (event.isRaised() && change.current().compareTo(LandslideRisk.HIGH) >= 0) {
+                log.warn("路段{}滑坡风险升至{}：24小时降水{}毫米，72小时降水{}毫米", change.roadSectionId(),
+                        change.current().getLabel(), Math.round(change.rainfall24h()),
+                        Math.round(change.rainfall72h()));
+            }
+            eventPublisher.publishEvent(event);
+        }
+    }
+
+    private List<SectionTerrain> findTerrain() {
+        List<Object[]> rows = roadSectionRepository.findTerrainProfiles();
+        List<SectionTerrain> sections = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            sections.add(new SectionTerrain((Long) row[0], (String) row[1], (Double) row[2], (Double) row[3]));
+        }
+        return sections;
+    }
+
+    private int sectionCount() {
+        synchronized (tracker) {
+            return tracker.getSectionCount();
+        }
+    }
+
+    private int countAtLeast(LandslideRisk level) {
+        synchronized (tracker) {
+            return tracker.countAtLeast(level);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.enshitrafficplatform.service.impl;
+
+import com.example.enshitrafficplatform.repository.TablePartitionRepository;
+import com.example.enshitrafficplatform.repository.TablePartitionRepository.MonthPartition;
+import com.example.enshitrafficplatform.service.PartitionMaintenanceService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 分区维护服务实现
+ * 分区的增删都是元数据操作，不逐行删除，不会长时间锁表；
+ * 未分区的表默认不自动转换，由运维显式调用转换接口；转换需要删除外键并重建整表，不可回退
+ */
+@Slf4j
+@Service
+public class PartitionMaintenanceServiceImpl implements PartitionMaintenanceService {
+
+    private final TablePartitionRepository tablePartitionRepository;
+
+    private final boolean autoConvert;
+
+    private final int monthsAhead;
+
+    /**
+     * 各表的保留月数，0表示不按保留期删除
+     */
+    private final Map<String, Integer> retentionMonths;
+
+    public PartitionMaintenanceServiceImpl(TablePartitionRepository tablePartitionRepository,
+                                           @Value("${app.partition.auto-convert:false}") boolean autoConvert,
+                                           @Value("${app.partition.months-ahead:3}") int monthsAhead,
+                                           @Value("${app.partition.weather-retention-months:0}") int weatherRetentionMonths) {
+        this.tablePartitionRepository = tablePartitionRepository;
+        this.autoConvert = autoConvert;
+        this.monthsAhead = Math.max(monthsAhead, 1);
+        this.retentionMonths = Map.of(TRAFFIC_FLOW_RECORDS, 0, WEATHER_RECORDS, weatherRetentionMonths);
+    }
+
+    /**
+     * 应用启动完成后在后台线程维护一次分区，避免转换大表时阻塞启动
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void maintainOnStartup() {
+        Thread worker = new Thread(this::maintain, "partition-maintenance");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @Override
+    public synchronized void maintain() {
+        for (String table : List.of(TRAFFIC_FLOW_RECORDS, WEATHER_RECORDS)) {
+            try {
+                maintainTable(table);
+            } catch (DataAccessException e) {
+                log.error("分区维护失败：{}", table, e);
+            }
+        }
+    }
+
+    @Override
+    public boolean isPartitioned(String table) {
+        return tablePartitionRepository.isPartitioned(table);
+    }
+
+    @Override
+    public List<MonthPartition> getPartitions(String table) {
+        return tablePartitionRepository.listMonthPartitions(table);
+    }
+
+    @Override
+    public synchronized boolean convertToMonthlyPartitions(String table) {
+        if (!TRAFFIC_FLOW_RECORDS.equals(table) && !WEATHER_RECORDS.equals(table)) {
+            throw new IllegalArgumentException("不支持分区的表：" + table);
+        }
+        if (tablePartitionRepository.isPartitioned(table)) {
+            return false;
+        }
+        convert(table);
+        return true;
+    }
+
+    private void maintainTable(String table) {
+        YearMonth current = YearMonth.now();
+        YearMonth lastMonth = current.plusMonths(monthsAhead);
+        if (!tablePartitionRepository.isPartitioned(table)) {
+            if (!autoConvert) {
+                log.warn("表{}未分区，且未开启自动转换，需调用转换接口转换", table);
+                return;
+            }
+            convert(table);
+            return;
+        }
+
+        List<MonthPartition> partitions = tablePartitionRepository.listMonthPartitions(table);
+        YearMonth next = partitions.isEmpty() ? current : partitions.get(partitions.size() - 1).getMonth().plusMonths(1);
+        for (; !next.isAfter(lastMonth); next = next.plusMonths(1)) {
+            tablePartitionRepository.addMonthPartition(table, next);
+            log.info("表{}新增分区：{}", table, TablePartitionRepository.partitionName(next));
+        }
+
+        int retention = retentionMonths.getOrDefault(table, 0);
+        if (retention <= 0) {
+            return;
+        }
+        YearMonth oldestKept = current.minusMonths(retention);
+        for (MonthPartition partition : partitions) {
+            if (partition.getMonth().isBefore(oldestKept)) {
+                tablePartitionRepository.dropMonthPartition(table, partition.getMonth());
+                log.info("表{}删除过期分区：{}，约{}行，{}字节", table, partition.getName(),
+                        partition.getEstimatedRows(), partition.getSizeInBytes());
+            }
+        }
+    }
+
+    private void convert(String table) {
+        YearMonth current = YearMonth.now();
+        YearMonth lastMonth = current.plusMonths(monthsAhead);
+        LocalDateTime minRecordTime = tablePartitionRepository.findMinRecordTime(table);
+        YearMonth firstMonth = minRecordTime != null ? YearMonth.from(minRecordTime) : current;
+        if (firstMonth.isAfter(current)) {
+            firstMonth = current;
+        }
+        long startNanos = System.nanoTime();
+        tablePartitionRepository.convertToMonthlyPartitions(table, firstMonth, lastMonth);
+        log.info("表{}已转换为按月分区：{} ~ {}，耗时{}ms", table, firstMonth, lastMonth,
+                (System.nanoTime() - startNanos) / 1_000_000);
+    }
+}
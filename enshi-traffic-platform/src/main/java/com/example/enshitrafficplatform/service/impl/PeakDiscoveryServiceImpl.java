@@ -0,0 +1,232 @@
+package com.example.enshitrafficplatform.service.impl;
+
+import com.example.enshitrafficplatform.dto.response.PeakDiscoveryReport;
+import com.example.enshitrafficplatform.entity.PeakPeriodRule;
+import com.example.enshitrafficplatform.peak.CompiledPeakRule;
+import com.example.enshitrafficplatform.peak.HolidayCalendar;
+import com.example.enshitrafficplatform.peak.PeakScheduleTable;
+import com.example.enshitrafficplatform.peak.PeakWindowDiscovery;
+import com.example.enshitrafficplatform.peak.SectionHourlyFlow;
+import com.example.enshitrafficplatform.peak.SectionPeakDiscovery;
+import com.example.enshitrafficplatform.peak.SectionPeakSchedule;
+import com.example.enshitrafficplatform.repository.PeakPeriodRuleRepository;
+import com.example.enshitrafficplatform.repository.SectionHourlyFlowScanner;
+import com.example.enshitrafficplatform.service.PeakDiscoveryService;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 高峰期时段发现服务实现
+ * 流式读取按 路段、时间 排序的小时流量，每读完一个路段就提交到线程池分析，读取与分析并行进行。
+ * 比对对象为 PeakScheduleTable 中路段的有效时间表（含区域继承与全局规则）；
+ * 未指定阈值时按路段时间表中优先级最高、设置了车流量阈值的规则取阈值。耗时记录到 traffic.peak.discovery 指标
+ */
+@Slf4j
+@Service
+public class PeakDiscoveryServiceImpl implements PeakDiscoveryService {
+
+    private static final String DISCOVERY_TIMER = "traffic.peak.discovery";
+
+    private static final String INACTIVE_STATUS = "非活跃";
+
+    private final SectionHourlyFlowScanner sectionHourlyFlowScanner;
+
+    private final PeakPeriodRuleRepository peakPeriodRuleRepository;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ExecutorService executor;
+
+    private final double percentile;
+
+    private final int minWindowHours;
+
+    private final int maxWindowHours;
+
+    private final int minDaysPerMonth;
+
+    private final double unchangedRatio;
+
+    private final int historyDays;
+
+    private volatile PeakDiscoveryReport latestReport;
+
+    public PeakDiscoveryServiceImpl(SectionHourlyFlowScanner sectionHourlyFlowScanner,
+                                    PeakPeriodRuleRepository peakPeriodRuleRepository,
+                                    MeterRegistry meterRegistry,
+                                    @Value("${app.peak-discovery.threads:4}") int threads,
+                                    @Value("${app.peak-discovery.percentile:0.8}") double percentile,
+                                    @Value("${app.peak-discovery.min-window-hours:1}") int minWindowHours,
+                                    @Value("${app.peak-discovery.max-window-hours:6}") int maxWindowHours,
+                                    @Value("${app.peak-discovery.min-days-per-month:4}") int minDaysPerMonth,
+                                    @Value("${app.peak-discovery.unchanged-ratio:0.8}") double unchangedRatio,
+                                    @Value("${app.peak-discovery.history-days:365}") int historyDays) {
+        this.sectionHourlyFlowScanner = sectionHourlyFlowScanner;
+        this.peakPeriodRuleRepository = peakPeriodRuleRepository;
+        this.meterRegistry = meterRegistry;
+        this.percentile = percentile;
+        this.minWindowHours = minWindowHours;
+        this.maxWindowHours = maxWindowHours;
+        this.minDaysPerMonth = minDaysPerMonth;
+        this.unchangedRatio = unchangedRatio;
+        this.historyDays = historyDays;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(threads, 1), runnable -> {
+            Thread thread = new Thread(runnable, "peak-discovery-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public PeakDiscoveryReport discover(LocalDate startDate, LocalDate endDate, Integer flowThreshold) {
+        if (!startDate.isBefore(endDate)) {
+            throw new IllegalArgumentException("开始日期必须早于结束日期");
+        }
+        long startNanos = System.nanoTime();
+        PeakWindowDiscovery discovery = new PeakWindowDiscovery(HolidayCalendar.getDefault(), percentile,
+                minWindowHours, maxWindowHours, minDaysPerMonth, unchangedRatio);
+        PeakScheduleTable schedules = PeakScheduleTable.getDefault();
+        Map<Long, Integer> ruleThresholds = findRuleThresholds();
+        long firstEpochDay = startDate.toEpochDay();
+        int dayCount = (int) ChronoUnit.DAYS.between(startDate, endDate);
+
+        List<Future<SectionPeakDiscovery>> futures = new ArrayList<>();
+        SectionHourlyFlow[] current = new SectionHourlyFlow[1];
+        long hourRows;
+        try {
+            hourRows = sectionHourlyFlowScanner.scan(startDate.atStartOfDay(), endDate.atStartOfDay(),
+                    (roadSectionId, hourStartEpochSecond, flowSum, flowCount) -> {
+                        if (current[0] == null || current[0].getRoadSectionId() != roadSectionId) {
+                            submit(futures, discovery, current[0], flowThreshold, schedules, ruleThresholds);
+                            current[0] = new SectionHourlyFlow(roadSectionId, firstEpochDay, dayCount);
+                        }
+                        current[0].set(hourStartEpochSecond, (double) flowSum / flowCount);
+                    });
+            submit(futures, discovery, current[0], flowThreshold, schedules, ruleThresholds);
+        } catch (RuntimeException e) {
+            futures.forEach(future -> future.cancel(true));
+            throw e;
+        }
+
+        List<SectionPeakDiscovery> sections = new ArrayList<>(futures.size());
+        try {
+            for (Future<SectionPeakDiscovery> future : futures) {
+                sections.add(await(future));
+            }
+        } finally {
+            futures.forEach(future -> future.cancel(true));
+        }
+        sections.sort(Comparator.comparingLong(SectionPeakDiscovery::getRoadSectionId));
+
+        long elapsedNanos = System.nanoTime() - startNanos;
+        meterRegistry.timer(DISCOVERY_TIMER).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        PeakDiscoveryReport report = PeakDiscoveryReport.builder()
+                .startDate(startDate)
+                .endDate(endDate)
+                .generatedAt(LocalDateTime.now())
+                .hourRows(hourRows)
+                .proposalCount(sections.stream().mapToInt(section -> section.getProposals().size()).sum())
+                .unsupportedRuleCount((int) sections.stream()
+                        .flatMap(section -> section.getRuleSupports().stream())
+                        .filter(SectionPeakDiscovery.RuleSupport::isUnsupported)
+                        .count())
+                .elapsedMillis(elapsedNanos / 1_000_000)
+                .sections(sections)
+                .build();
+        latestReport = report;
+        log.info("高峰期时段发现完成：路段{}个，小时数据{}行，建议{}条，缺乏支持的规则{}条，耗时{}ms",
+                sections.size(), hourRows, report.getProposalCount(), report.getUnsupportedRuleCount(),
+                report.getElapsedMillis());
+        return report;
+    }
+
+    @Override
+    public PeakDiscoveryReport getLatestReport() {
+        return latestReport;
+    }
+
+    /**
+     * 定期分析最近一段时间的历史流量，结果作为最近一次的报告
+     */
+    @Scheduled(cron = "${app.peak-discovery.cron:0 30 4 * * MON}")
+    public void discoverScheduled() {
+        LocalDate today = LocalDate.now();
+        try {
+            discover(today.minusDays(historyDays), today, null);
+        } catch (RuntimeException e) {
+            log.warn("定期高峰期时段发现失败", e);
+        }
+    }
+
+    private void submit(List<Future<SectionPeakDiscovery>> futures, PeakWindowDiscovery discovery,
+                        SectionHourlyFlow flow, Integer flowThreshold, PeakScheduleTable schedules,
+                        Map<Long, Integer> ruleThresholds) {
+        if (flow == null) {
+            return;
+        }
+        SectionPeakSchedule active = schedules.get(flow.getRoadSectionId());
+        Double threshold = flowThreshold != null
+                ? Double.valueOf(flowThreshold) : ruleThreshold(active, ruleThresholds);
+        futures.add(executor.submit(() -> discovery.discover(flow, threshold, active)));
+    }
+
+    /**
+     * 取路段时间表中优先级最高、设置了车流量阈值的规则的阈值
+     * @return 阈值，没有规则设置阈值时为null
+     */
+    private static Double ruleThreshold(SectionPeakSchedule active, Map<Long, Integer> ruleThresholds) {
+        for (CompiledPeakRule rule : active.getRules()) {
+            Integer threshold = ruleThresholds.get(rule.getRuleId());
+            if (threshold != null) {
+                return threshold.doubleValue();
+            }
+        }
+        return null;
+    }
+
+    private Map<Long, Integer> findRuleThresholds() {
+        Map<Long, Integer> thresholds = new HashMap<>();
+        for (PeakPeriodRule rule : peakPeriodRuleRepository.findAll()) {
+            if (rule.getFlowThreshold() != null && !INACTIVE_STATUS.equals(rule.getStatus())) {
+                thresholds.put(rule.getId(), rule.getFlowThreshold());
+            }
+        }
+        return thresholds;
+    }
+
+    private static SectionPeakDiscovery await(Future<SectionPeakDiscovery> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("路段高峰期时段分析失败", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("高峰期时段发现被中断", e);
+        }
+    }
+}
@@ -0,0 +1,179 @@
+package com.example.enshitrafficplatform.service.impl;
+
+import com.example.enshitrafficplatform.entity.PeakPeriodRule;
+import com.example.enshitrafficplatform.event.PeakRulesChangedEvent;
+import com.example.enshitrafficplatform.event.PeakScheduleRebuiltEvent;
+import com.example.enshitrafficplatform.peak.CompiledPeakRule;
+import com.example.enshitrafficplatform.peak.PeakScheduleResolver;
+import com.example.enshitrafficplatform.peak.PeakScheduleResolver.RuleBinding;
+import com.example.enshitrafficplatform.peak.PeakScheduleTable;
+import com.example.enshitrafficplatform.peak.SectionPeakSchedule;
+import com.example.enshitrafficplatform.repository.PeakPeriodRuleRepository;
+import com.example.enshitrafficplatform.repository.RegionRepository;
+import com.example.enshitrafficplatform.repository.RoadSectionRepository;
+import com.example.enshitrafficplatform.service.PeakScheduleService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 路段有效高峰期时间表服务实现
+ * 启动完成后构建一次；之后收到变更事件时在单个后台线程上重建，连续的多次变更合并为一次重建。
+ * 非活跃规则不参与。构建结果安装为全局 {@link PeakScheduleTable}，供 RoadSection#isCurrentlyPeakPeriod 使用，
+ * 规则未变的路段沿用原时间表实例；安装后发布 {@link PeakScheduleRebuiltEvent}
+ */
+@Slf4j
+@Service
+public class PeakScheduleServiceImpl implements PeakScheduleService {
+
+    private static final String INACTIVE_STATUS = "非活跃";
+
+    private final PeakPeriodRuleRepository peakPeriodRuleRepository;
+
+    private final RoadSectionRepository roadSectionRepository;
+
+    private final RegionRepository regionRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final ExecutorService executor;
+
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+
+    private volatile boolean ready;
+
+    public PeakScheduleServiceImpl(PeakPeriodRuleRepository peakPeriodRuleRepository,
+                                   RoadSectionRepository roadSectionRepository,
+                                   RegionRepository regionRepository,
+                                   ApplicationEventPublisher eventPublisher) {
+        this.peakPeriodRuleRepository = peakPeriodRuleRepository;
+        this.roadSectionRepository = roadSectionRepository;
+        this.regionRepository = regionRepository;
+        this.eventPublisher = eventPublisher;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "peak-schedule-builder");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @Override
+    public SectionPeakSchedule getSchedule(Long roadSectionId) {
+        return PeakScheduleTable.getDefault().get(roadSectionId);
+    }
+
+    @Override
+    public boolean isPeak(Long roadSectionId, LocalDateTime time) {
+        return getSchedule(roadSectionId).isPeak(time);
+    }
+
+    @Override
+    public CompiledPeakRule getGoverningRule(Long roadSectionId, LocalDateTime time) {
+        return getSchedule(roadSectionId).governingRule(time);
+    }
+
+    @Override
+    public long countPeakMinutes(Long roadSectionId, LocalDateTime startTime, LocalDateTime endTime) {
+        return getSchedule(roadSectionId).countPeakMinutes(startTime, endTime);
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 应用启动完成后在后台线程构建时间表
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        requestRebuild();
+    }
+
+    /**
+     * 规则、路段、道路或区域的写入事务提交后请求重建
+     * @param event 变更事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onPeakRulesChanged(PeakRulesChangedEvent event) {
+        log.debug("{}已变更，重建路段高峰期时间表", event.getEntityType().getSimpleName());
+        requestRebuild();
+    }
+
+    private void requestRebuild() {
+        if (rebuildPending.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                rebuildPending.set(false);
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    log.warn("路段高峰期时间表重建失败，保留当前时间表", e);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void rebuild() {
+        long startNanos = System.nanoTime();
+        Map<Long, Long> ruleRegions = new HashMap<>();
+        Map<Long, Set<Long>> ruleSections = new HashMap<>();
+        for (Object[] row : peakPeriodRuleRepository.findOwnerIds()) {
+            Long ruleId = (Long) row[0];
+            ruleRegions.put(ruleId, (Long) row[1]);
+            Set<Long> sections = ruleSections.computeIfAbsent(ruleId, id -> new HashSet<>());
+            if (row[2] != null) {
+                sections.add((Long) row[2]);
+            }
+        }
+        for (Object[] row : peakPeriodRuleRepository.findLinkedRoadSectionIds()) {
+            ruleSections.computeIfAbsent((Long) row[0], id -> new HashSet<>()).add((Long) row[1]);
+        }
+
+        List<RuleBinding> bindings = new ArrayList<>();
+        for (PeakPeriodRule rule : peakPeriodRuleRepository.findAll()) {
+            if (INACTIVE_STATUS.equals(rule.getStatus())) {
+                continue;
+            }
+            bindings.add(new RuleBinding(rule.compile(), ruleRegions.get(rule.getId()),
+                    ruleSections.getOrDefault(rule.getId(), Set.of())));
+        }
+
+        Map<Long, SectionPeakSchedule> schedules = PeakScheduleResolver.resolve(bindings,
+                toMap(roadSectionRepository.findRegionIds()), toMap(regionRepository.findParentIds()));
+        PeakScheduleTable table = PeakScheduleTable.getDefault().withSchedules(schedules);
+        PeakScheduleTable.setDefault(table);
+        ready = true;
+        eventPublisher.publishEvent(new PeakScheduleRebuiltEvent(table));
+        log.info("路段高峰期时间表构建完成：规则{}条，路段{}个，耗时{}ms",
+                bindings.size(), schedules.size(), (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    private static Map<Long, Long> toMap(List<Object[]> rows) {
+        Map<Long, Long> map = new HashMap<>(rows.size() * 2);
+        for (Object[] row : rows) {
+            map.put((Long) row[0], (Long) row[1]);
+        }
+        return map;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
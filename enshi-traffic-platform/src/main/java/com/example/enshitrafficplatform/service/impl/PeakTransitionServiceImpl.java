@@ -0,0 +1,66 @@
+package com.example.enshitrafficplatform.service.impl;
+
+import com.example.enshitrafficplatform.event.HolidayCalendarReloadedEvent;
+import com.example.enshitrafficplatform.event.PeakScheduleRebuiltEvent;
+import com.example.enshitrafficplatform.peak.PeakTransitionScheduler;
+import com.example.enshitrafficplatform.service.PeakTransitionService;
+import com.example.enshitrafficplatform.util.DateUtils;
+import jakarta.annotation.PreDestroy;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+/**
+ * 路段高峰期状态变化服务实现
+ * 每次路段有效时间表重建后把新表交给调度器，调度器只为时间表发生变化的路段重新安排；
+ * 节假日日历重新加载后为含日期类型规则的路段重新安排
+ */
+@Service
+public class PeakTransitionServiceImpl implements PeakTransitionService {
+
+    private final PeakTransitionScheduler scheduler;
+
+    public PeakTransitionServiceImpl(ApplicationEventPublisher eventPublisher) {
+        this.scheduler = new PeakTransitionScheduler(System::currentTimeMillis, eventPublisher::publishEvent);
+    }
+
+    /**
+     * 应用启动完成后启动定时线程；在此之前收到的时间表已入队，启动后立即处理到期项
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        scheduler.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.stop();
+    }
+
+    /**
+     * 时间表重建后更新调度
+     * @param event 重建事件
+     */
+    @EventListener
+    public void onPeakScheduleRebuilt(PeakScheduleRebuiltEvent event) {
+        scheduler.update(event.getTable());
+    }
+
+    /**
+     * 节假日日历重新加载后按新日历重新安排
+     * @param event 重新加载事件
+     */
+    @EventListener
+    public void onHolidayCalendarReloaded(HolidayCalendarReloadedEvent event) {
+        scheduler.replanDayTypeSections();
+    }
+
+    @Override
+    public LocalDateTime getNextTransition(Long roadSectionId) {
+        long next = scheduler.nextTransition(roadSectionId);
+        return next >= 0 ? DateUtils.fromEpochSecond(next) : null;
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.enshitrafficplatform.service.impl;
+
+import com.example.enshitrafficplatform.dto.FlowReading;
+import com.example.enshitrafficplatform.repository.PointHourlyBucketRepository;
+import com.example.enshitrafficplatform.service.PointHourlyBucketService;
+import com.example.enshitrafficplatform.util.DateUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 监测点小时流量桶服务实现
+ * 入库时先在批次内按 监测点 × 小时 合并，再逐桶执行一次累加写入
+ */
+@Slf4j
+@Service
+public class PointHourlyBucketServiceImpl implements PointHourlyBucketService {
+
+    private final PointHourlyBucketRepository pointHourlyBucketRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int backfillDays;
+
+    public PointHourlyBucketServiceImpl(PointHourlyBucketRepository pointHourlyBucketRepository,
+                                        TransactionTemplate transactionTemplate,
+                                        @Value("${app.hourly-bucket.backfill-days:30}") int backfillDays) {
+        this.pointHourlyBucketRepository = pointHourlyBucketRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.backfillDays = backfillDays;
+    }
+
+    @Override
+    @Transactional
+    public void accumulate(List<FlowReading> readings) {
+        Map<BucketKey, BucketDelta> deltas = new LinkedHashMap<>();
+        for (FlowReading reading : readings) {
+            if (reading.getMonitoringPointId() == 0L || reading.getFlowRate() == FlowReading.MISSING_INT) {
+                continue;
+            }
+            BucketKey key = new BucketKey(reading.getMonitoringPointId(),
+                    DateUtils.truncateToHour(reading.getEpochSecond()));
+            deltas.computeIfAbsent(key, k -> new BucketDelta()).add(reading.getFlowRate());
+        }
+        for (Map.Entry<BucketKey, BucketDelta> entry : deltas.entrySet()) {
+            BucketKey key = entry.getKey();
+            BucketDelta delta = entry.getValue();
+            pointHourlyBucketRepository.accumulate(key.monitoringPointId(),
+                    DateUtils.fromEpochSecond(key.hourStart()), delta.sum, delta.count, delta.max);
+        }
+    }
+
+    @Override
+    public int rebuild(LocalDateTime startTime, LocalDateTime endTime) {
+        LocalDateTime start = startTime.truncatedTo(ChronoUnit.HOURS);
+        LocalDateTime end = endTime.truncatedTo(ChronoUnit.HOURS);
+        if (end.isBefore(endTime)) {
+            end = end.plusHours(1);
+        }
+        if (!start.isBefore(end)) {
+            return 0;
+        }
+        LocalDateTime rangeStart = start;
+        LocalDateTime rangeEnd = end;
+        Integer rows = transactionTemplate.execute(status -> {
+            pointHourlyBucketRepository.deleteByBucketStartRange(rangeStart, rangeEnd);
+            return pointHourlyBucketRepository.rebuildFromRecords(rangeStart, rangeEnd);
+        });
+        log.info("小时流量桶重建完成，范围：{} ~ {}，桶数量：{}", rangeStart, rangeEnd, rows);
+        return rows != null ? rows : 0;
+    }
+
+    /**
+     * 小时桶表为空时（首次部署）在后台由原始记录回填近期数据
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (backfillDays <= 0) {
+            return;
+        }
+        Thread backfill = new Thread(() -> {
+            try {
+                if (pointHourlyBucketRepository.count() > 0) {
+                    return;
+                }
+                LocalDateTime now = LocalDateTime.now();
+                rebuild(now.minusDays(backfillDays), now);
+            } catch (RuntimeException e) {
+                log.error("小时流量桶回填失败", e);
+            }
+        }, "hourly-bucket-backfill");
+        backfill.setDaemon(true);
+        backfill.start();
+    }
+
+    /**
+     * 窗口起点按整点对齐，跨越起点的不完整小时不计入，当前小时计入
+     */
+    @Override
+    public Integer getAverageDailyTrafficFlow(Long monitoringPointId) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> days = pointHourlyBucketRepository.sumByDate(
+                monitoringPointId, hourCeiling(now.minusDays(30)), now);
+        long dailyAverageSum = 0;
+        int dayCount = 0;
+        for (Object[] day : days) {
+            long flowSum = ((Number) day[1]).longValue();
+            long flowCount = ((Number) day[2]).longValue();
+            if (flowCount > 0) {
+                // 与逐条记录计算时一致，日均值先截断为整数
+                dailyAverageSum += (int) ((double) flowSum / flowCount);
+                dayCount++;
+            }
+        }
+        if (dayCount == 0) {
+            return null;
+        }
+        return (int) ((double) dailyAverageSum / dayCount);
+    }
+
+    @Override
+    public Double getPeakValleyRatio(Long monitoringPointId) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> hours = pointHourlyBucketRepository.sumByHourOfDay(
+                monitoringPointId, hourCeiling(now.minusDays(7)), now);
+        double maxFlow = Double.NEGATIVE_INFINITY;
+        double minFlow = Double.POSITIVE_INFINITY;
+        for (Object[] hour : hours) {
+            long flowSum = ((Number) hour[1]).longValue();
+            long flowCount = ((Number) hour[2]).longValue();
+            if (flowCount == 0) {
+                continue;
+            }
+            double average = (double) flowSum / flowCount;
+            maxFlow = Math.max(maxFlow, average);
+            minFlow = Math.min(minFlow, average);
+        }
+        if (minFlow == Double.POSITIVE_INFINITY || minFlow == 0) {
+            return null;
+        }
+        return maxFlow / minFlow;
+    }
+
+    private static LocalDateTime hourCeiling(LocalDateTime time) {
+        LocalDateTime truncated = time.truncatedTo(ChronoUnit.HOURS);
+        return truncated.equals(time) ? truncated : truncated.plusHours(1);
+    }
+
+    private record BucketKey(long monitoringPointId, long hourStart) {
+    }
+
+    private static final class BucketDelta {
+
+        private long sum;
+
+        private int count;
+
+        private int max = Integer.MIN_VALUE;
+
+        void add(int flowRate) {
+            sum += flowRate;
+            count++;
+            max = Math.max(max, flowRate);
+        }
+    }
+}
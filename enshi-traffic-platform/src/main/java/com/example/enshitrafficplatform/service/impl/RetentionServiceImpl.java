@@ -0,0 +1,162 @@
+package com.example.enshitrafficplatform.service.impl;
+
+import com.example.enshitrafficplatform.config.RetentionProperties;
+import com.example.enshitrafficplatform.dto.response.RetentionRunReport;
+import com.example.enshitrafficplatform.dto.response.RetentionRunReport.TierResult;
+import com.example.enshitrafficplatform.repository.TablePartitionRepository;
+import com.example.enshitrafficplatform.retention.RetentionDataType;
+import com.example.enshitrafficplatform.retention.RetentionPolicy;
+import com.example.enshitrafficplatform.retention.RetentionTier;
+import com.example.enshitrafficplatform.service.RetentionService;
+import com.example.enshitrafficplatform.service.RetentionTierHandler;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 分层保留服务实现
+ * 每个层级依次执行：对最近几天增量降采样；对超过保留期的每一天先确认下一层级已完整覆盖（不完整时重新降采样），
+ * 再以独立的小事务分批删除，任何一天校验失败即停止该层级的清理，保证不会删除尚未进入下一层级的数据
+ */
+@Slf4j
+@Service
+public class RetentionServiceImpl implements RetentionService {
+
+    private final Map<RetentionDataType, RetentionTierHandler> handlers = new EnumMap<>(RetentionDataType.class);
+
+    private final List<RetentionPolicy> policies = new ArrayList<>();
+
+    private final TablePartitionRepository tablePartitionRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final int batchSize;
+
+    private final int maxDaysPerRun;
+
+    private final int downsampleLookbackDays;
+
+    private volatile RetentionRunReport lastReport;
+
+    public RetentionServiceImpl(List<RetentionTierHandler> handlers,
+                                RetentionProperties retentionProperties,
+                                TablePartitionRepository tablePartitionRepository,
+                                TransactionTemplate transactionTemplate) {
+        for (RetentionTierHandler handler : handlers) {
+            this.handlers.put(handler.getDataType(), handler);
+        }
+        for (RetentionDataType dataType : RetentionDataType.values()) {
+            policies.add(RetentionPolicy.of(dataType, retentionProperties.getPolicies().get(dataType)));
+        }
+        this.tablePartitionRepository = tablePartitionRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = Math.max(retentionProperties.getBatchSize(), 1);
+        this.maxDaysPerRun = Math.max(retentionProperties.getMaxDaysPerRun(), 1);
+        this.downsampleLookbackDays = Math.max(retentionProperties.getDownsampleLookbackDays(), 0);
+    }
+
+    @Override
+    public synchronized RetentionRunReport run() {
+        LocalDateTime startTime = LocalDateTime.now();
+        LocalDate today = startTime.toLocalDate();
+        List<TierResult> results = new ArrayList<>();
+        for (RetentionPolicy policy : policies) {
+            RetentionTierHandler handler = handlers.get(policy.getDataType());
+            if (handler == null) {
+                continue;
+            }
+            for (RetentionTier tier : policy.getDataType().getTiers()) {
+                TierResult result = TierResult.builder()
+                        .dataType(policy.getDataType())
+                        .tier(tier)
+                        .retentionDays(policy.getRetentionDays(tier))
+                        .build();
+                try {
+                    processTier(handler, tier, today, result);
+                } catch (DataAccessException e) {
+                    log.error("保留策略执行失败：{} {}", policy.getDataType().getLabel(), tier.getLabel(), e);
+                    result.setError(e.getMostSpecificCause().getMessage());
+                }
+                results.add(result);
+            }
+        }
+        RetentionRunReport report = RetentionRunReport.builder()
+                .startTime(startTime)
+                .endTime(LocalDateTime.now())
+                .tiers(results)
+                .bytesReclaimed(results.stream().mapToLong(TierResult::getBytesReclaimed).sum())
+                .build();
+        lastReport = report;
+        log.info("保留策略执行完成：删除{}行，估算回收{}字节",
+                results.stream().mapToLong(TierResult::getPurgedRows).sum(), report.getBytesReclaimed());
+        return report;
+    }
+
+    @Override
+    public RetentionRunReport getLastReport() {
+        return lastReport;
+    }
+
+    @Override
+    public List<RetentionPolicy> getPolicies() {
+        return List.copyOf(policies);
+    }
+
+    private void processTier(RetentionTierHandler handler, RetentionTier tier, LocalDate today, TierResult result) {
+        RetentionDataType dataType = handler.getDataType();
+        boolean hasNextTier = dataType.nextTier(tier) != null;
+        if (hasNextTier) {
+            for (LocalDate date = today.minusDays(downsampleLookbackDays); date.isBefore(today); date = date.plusDays(1)) {
+                if (!handler.isCovered(tier, date)) {
+                    handler.downsample(tier, date);
+                    result.setDownsampledDays(result.getDownsampledDays() + 1);
+                }
+            }
+        }
+
+        int retentionDays = result.getRetentionDays();
+        if (retentionDays <= 0) {
+            return;
+        }
+        LocalDate cutoff = today.minusDays(retentionDays);
+        LocalDate date = handler.findOldestDate(tier);
+        long purgedRows = 0;
+        for (int days = 0; date != null && date.isBefore(cutoff) && days < maxDaysPerRun; days++, date = date.plusDays(1)) {
+            if (hasNextTier && !handler.isCovered(tier, date)) {
+                handler.downsample(tier, date);
+                result.setDownsampledDays(result.getDownsampledDays() + 1);
+                if (!handler.isCovered(tier, date)) {
+                    log.warn("{}{}降采样后校验未通过，停止清理：{}", dataType.getLabel(), tier.getLabel(), date);
+                    result.setBlockedDate(date);
+                    break;
+                }
+            }
+            purgedRows += purgeDay(handler, tier, date);
+        }
+        result.setPurgedRows(purgedRows);
+        if (purgedRows > 0) {
+            result.setBytesReclaimed(purgedRows * tablePartitionRepository.estimateRowBytes(handler.getTableName(tier)));
+            log.info("{}{}清理完成：删除{}行，估算回收{}字节",
+                    dataType.getLabel(), tier.getLabel(), purgedRows, result.getBytesReclaimed());
+        }
+    }
+
+    private long purgeDay(RetentionTierHandler handler, RetentionTier tier, LocalDate date) {
+        long total = 0;
+        int deleted;
+        do {
+            Integer rows = transactionTemplate.execute(status -> handler.purgeBatch(tier, date, batchSize));
+            deleted = rows != null ? rows : 0;
+            total += deleted;
+        } while (deleted >= batchSize);
+        return total;
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.enshitrafficplatform.service.impl;
+
+import com.example.enshitrafficplatform.dto.FlowReading;
+import com.example.enshitrafficplatform.event.TrafficFlowIngestedEvent;
+import com.example.enshitrafficplatform.repository.TrafficFlowRecordScanner;
+import com.example.enshitrafficplatform.service.SectionHistoryService;
+import com.example.enshitrafficplatform.storage.SectionHistoryCursor;
+import com.example.enshitrafficplatform.storage.SectionHistoryStore;
+import com.example.enshitrafficplatform.util.DateUtils;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 路段历史服务实现
+ * 启动后按时间顺序从数据库装载最近若干小时的读数，之后由入库事件增量追加；
+ * 直接内存的分配量、预算与被拒绝的读数数量通过 traffic.section.history.* 指标暴露
+ */
+@Slf4j
+@Service
+public class SectionHistoryServiceImpl implements SectionHistoryService {
+
+    private static final ThreadLocal<SectionHistoryCursor> CURSORS =
+            ThreadLocal.withInitial(SectionHistoryCursor::new);
+
+    private final TrafficFlowRecordScanner trafficFlowRecordScanner;
+
+    private final SectionHistoryStore store;
+
+    private final int warmUpHours;
+
+    /**
+     * 预热完成前收到的入库读数，预热结束后统一补入
+     */
+    private final List<FlowReading> pendingReadings = new ArrayList<>();
+
+    private volatile boolean ready;
+
+    public SectionHistoryServiceImpl(TrafficFlowRecordScanner trafficFlowRecordScanner,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.section-history.capacity-per-section:4096}")
+                                     int capacityPerSection,
+                                     @Value("${app.section-history.max-bytes:134217728}") long maxBytes,
+                                     @Value("${app.section-history.warm-up-hours:6}") int warmUpHours) {
+        this.trafficFlowRecordScanner = trafficFlowRecordScanner;
+        this.store = new SectionHistoryStore(capacityPerSection, maxBytes);
+        this.warmUpHours = warmUpHours;
+        Gauge.builder("traffic.section.history.allocated.bytes", store, SectionHistoryStore::getAllocatedBytes)
+                .register(meterRegistry);
+        Gauge.builder("traffic.section.history.max.bytes", store, SectionHistoryStore::getMaxBytes)
+                .register(meterRegistry);
+        Gauge.builder("traffic.section.history.sections", store, SectionHistoryStore::getSectionCount)
+                .register(meterRegistry);
+        Gauge.builder("traffic.section.history.rejected", store, SectionHistoryStore::getRejectedCount)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public SectionHistoryCursor cursor(Long roadSectionId, LocalDateTime startTime, LocalDateTime endTime) {
+        return store.cursor(roadSectionId, DateUtils.toEpochSecond(startTime), DateUtils.toEpochSecond(endTime),
+                CURSORS.get());
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 应用启动完成后在后台线程预热，避免阻塞启动
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUpOnStartup() {
+        Thread loader = new Thread(this::warmUp, "section-history-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    private void warmUp() {
+        long startNanos = System.nanoTime();
+        long untilId = trafficFlowRecordScanner.maxRecordId();
+        LocalDateTime now = LocalDateTime.now();
+        // 扫描期间新入库的记录由待补读数负责，这里只取截止ID之前的记录
+        long scanned = trafficFlowRecordScanner.scan(now.minusHours(warmUpHours), now.plusMinutes(1), reading -> {
+            if (reading.getRecordId() <= untilId) {
+                store.append(reading);
+            }
+        });
+
+        synchronized (pendingReadings) {
+            for (FlowReading reading : pendingReadings) {
+                if (reading.getRecordId() > untilId) {
+                    store.append(reading);
+                }
+            }
+            pendingReadings.clear();
+            ready = true;
+        }
+        log.info("路段历史预热完成：扫描记录{}条，路段{}个，保存{}条，直接内存{}/{}字节，耗时{}ms",
+                scanned, store.getSectionCount(), store.getRecordCount(), store.getAllocatedBytes(),
+                store.getMaxBytes(), (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    /**
+     * 事务提交后把新入库的读数追加到路段历史
+     * @param event 入库事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrafficFlowIngested(TrafficFlowIngestedEvent event) {
+        if (!ready) {
+            synchronized (pendingReadings) {
+                if (!ready) {
+                    pendingReadings.addAll(event.getReadings());
+                    return;
+                }
+            }
+        }
+        for (FlowReading reading : event.getReadings()) {
+            store.append(reading);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.enshitrafficplatform.service.impl;
+
+import com.example.enshitrafficplatform.entity.RoadSection;
+import com.example.enshitrafficplatform.entity.WeatherRecord;
+import com.example.enshitrafficplatform.event.RoadNetworkChangedEvent;
+import com.example.enshitrafficplatform.event.SectionWeatherRefreshedEvent;
+import com.example.enshitrafficplatform.event.WeatherRecordedEvent;
+import com.example.enshitrafficplatform.repository.RoadSectionRepository;
+import com.example.enshitrafficplatform.repository.WeatherRecordRepository;
+import com.example.enshitrafficplatform.service.SectionWeatherService;
+import com.example.enshitrafficplatform.weather.SectionWeatherJoin;
+import com.example.enshitrafficplatform.weather.SectionWeatherJoin.SectionPoint;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 路段天气关联服务实现
+ * 启动完成后构建一次；之后新天气记录入库时重建观测站与关联，路段写入时只重新计算路段的关联，
+ * 均在单个后台线程上执行，连续的多次变更合并为一次。观测站为最近若干小时内有记录的观测位置。
+ * 构建结果安装后发布 {@link SectionWeatherRefreshedEvent}，耗时记录到 traffic.weather.join.refresh 指标
+ */
+@Slf4j
+@Service
+public class SectionWeatherServiceImpl implements SectionWeatherService {
+
+    private static final String REFRESH_TIMER = "traffic.weather.join.refresh";
+
+    private final WeatherRecordRepository weatherRecordRepository;
+
+    private final RoadSectionRepository roadSectionRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ExecutorService executor;
+
+    private final int neighbors;
+
+    private final double power;
+
+    private final double maxDistanceKm;
+
+    private final int stationMaxAgeHours;
+
+    private final AtomicBoolean refreshPending = new AtomicBoolean();
+
+    private final AtomicBoolean stationsDirty = new AtomicBoolean();
+
+    private final AtomicBoolean sectionsDirty = new AtomicBoolean();
+
+    private volatile SectionWeatherJoin join = SectionWeatherJoin.empty();
+
+    private volatile boolean ready;
+
+    public SectionWeatherServiceImpl(WeatherRecordRepository weatherRecordRepository,
+                                     RoadSectionRepository roadSectionRepository,
+                                     ApplicationEventPublisher eventPublisher,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.section-weather.neighbors:3}") int neighbors,
+                                     @Value("${app.section-weather.power:2}") double power,
+                                     @Value("${app.section-weather.max-distance-km:50}") double maxDistanceKm,
+                                     @Value("${app.section-weather.station-max-age-hours:6}") int stationMaxAgeHours) {
+        this.weatherRecordRepository = weatherRecordRepository;
+        this.roadSectionRepository = roadSectionRepository;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+        this.neighbors = neighbors;
+        this.power = power;
+        this.maxDistanceKm = maxDistanceKm;
+        this.stationMaxAgeHours = stationMaxAgeHours;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "section-weather-builder");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("traffic.weather.join.stations", this, service -> service.join.getStationCount())
+                .register(meterRegistry);
+        Gauge.builder("traffic.weather.join.sections", this, service -> service.join.getSectionCount())
+                .register(meterRegistry);
+    }
+
+    @Override
+    public SectionWeatherJoin getJoin() {
+        return join;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 应用启动完成后在后台线程构建
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        stationsDirty.set(true);
+        requestRefresh();
+    }
+
+    /**
+     * 天气记录写入事务提交后请求重建观测站
+     * @param event 入库事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onWeatherRecorded(WeatherRecordedEvent event) {
+        stationsDirty.set(true);
+        requestRefresh();
+    }
+
+    /**
+     * 路段写入事务提交后请求重新计算路段关联，区域和道路的变更不影响关联
+     * @param event 变更事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSectionsChanged(RoadNetworkChangedEvent event) {
+        if (event.getEntityType() == RoadSection.class) {
+            sectionsDirty.set(true);
+            requestRefresh();
+        }
+    }
+
+    private void requestRefresh() {
+        if (refreshPending.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                refreshPending.set(false);
+                boolean stations = stationsDirty.getAndSet(false);
+                boolean sections = sectionsDirty.getAndSet(false);
+                try {
+                    if (stations || !ready) {
+                        refresh();
+                    } else if (sections) {
+                        install(join.withSections(findSectionPoints()), false, System.nanoTime());
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("路段天气关联刷新失败，保留当前关联", e);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void refresh() {
+        long startNanos = System.nanoTime();
+        List<WeatherRecord> stations = SectionWeatherJoin.latestByLocation(
+                weatherRecordRepository.findLocatedSince(LocalDateTime.now().minusHours(stationMaxAgeHours)));
+        install(SectionWeatherJoin.build(stations, findSectionPoints(), neighbors, power, maxDistanceKm),
+                true, startNanos);
+    }
+
+    private void install(SectionWeatherJoin built, boolean stationsChanged, long startNanos) {
+        join = built;
+        ready = true;
+        long elapsedNanos = System.nanoTime() - startNanos;
+        meterRegistry.timer(REFRESH_TIMER).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        eventPublisher.publishEvent(new SectionWeatherRefreshedEvent(built, stationsChanged));
+        log.info("路段天气关联刷新完成：观测站{}个，关联路段{}个，耗时{}ms",
+                built.getStationCount(), built.getSectionCount(), elapsedNanos / 1_000_000);
+    }
+
+    private List<SectionPoint> findSectionPoints() {
+        List<Object[]> rows = roadSectionRepository.findMidpoints();
+        List<SectionPoint> points = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            points.add(new SectionPoint((Long) row[0], ((Number) row[1]).doubleValue(),
+                    ((Number) row[2]).doubleValue()));
+        }
+        return points;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,218 @@
+package com.example.enshitrafficplatform.service.impl;
+
+import com.example.enshitrafficplatform.entity.Road;
+import com.example.enshitrafficplatform.entity.RoadSection;
+import com.example.enshitrafficplatform.event.RoadNetworkChangedEvent;
+import com.example.enshitrafficplatform.event.SpeedAdvisoryChangedEvent;
+import com.example.enshitrafficplatform.event.WeatherImpactUpdatedEvent;
+import com.example.enshitrafficplatform.repository.RoadSectionRepository;
+import com.example.enshitrafficplatform.service.SpeedAdvisoryService;
+import com.example.enshitrafficplatform.service.WeatherImpactService;
+import com.example.enshitrafficplatform.weather.SpeedAdvisoryMatrix;
+import com.example.enshitrafficplatform.weather.SpeedAdvisoryMatrix.SectionProfile;
+import com.example.enshitrafficplatform.weather.WeatherColumns;
+import com.example.enshitrafficplatform.weather.WeatherImpactTable;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 路段天气建议车速服务实现
+ * 启动完成后以及道路、路段写入后在单个后台线程上重建 {@link SpeedAdvisoryMatrix}，连续的多次变更合并为一次；
+ * 每次天气评分表更新后，按各路段的插值天气计算离散状态并查表，与上一次的结果逐路段比较，
+ * 只为建议车速变化的路段发布 {@link SpeedAdvisoryChangedEvent}。
+ * 矩阵构建耗时记录到 traffic.weather.advisory.build 指标
+ */
+@Slf4j
+@Service
+public class SpeedAdvisoryServiceImpl implements SpeedAdvisoryService {
+
+    private static final String BUILD_TIMER = "traffic.weather.advisory.build";
+
+    private final RoadSectionRepository roadSectionRepository;
+
+    private final WeatherImpactService weatherImpactService;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final MeterRegistry meterRegistry;
+
+    private final ExecutorService executor;
+
+    private final AtomicBoolean rebuildPending = new AtomicBoolean();
+
+    private volatile SpeedAdvisoryMatrix matrix;
+
+    private volatile Advisories advisories = new Advisories(new long[0], new int[0]);
+
+    private volatile boolean ready;
+
+    public SpeedAdvisoryServiceImpl(RoadSectionRepository roadSectionRepository,
+                                    WeatherImpactService weatherImpactService,
+                                    ApplicationEventPublisher eventPublisher,
+                                    MeterRegistry meterRegistry) {
+        this.roadSectionRepository = roadSectionRepository;
+        this.weatherImpactService = weatherImpactService;
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "speed-advisory-builder");
+            thread.setDaemon(true);
+            return thread;
+        });
+        Gauge.builder("traffic.weather.advisory.profiles", this,
+                        service -> service.matrix != null ? service.matrix.getProfileCount() : 0)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public Integer getAdvisedSpeed(Long roadSectionId) {
+        Advisories current = advisories;
+        int row = Arrays.binarySearch(current.roadSectionIds(), roadSectionId);
+        return row >= 0 ? toSpeed(current.speeds()[row]) : null;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 应用启动完成后在后台线程构建
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        requestRebuild();
+    }
+
+    /**
+     * 道路或路段写入事务提交后请求重建矩阵，限速、坡度、曲率都可能变化
+     * @param event 变更事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onRoadsChanged(RoadNetworkChangedEvent event) {
+        if (event.getEntityType() == RoadSection.class || event.getEntityType() == Road.class) {
+            requestRebuild();
+        }
+    }
+
+    /**
+     * 天气评分表更新后重新评估全部路段
+     * @param event 更新事件
+     */
+    @EventListener
+    public void onWeatherImpactUpdated(WeatherImpactUpdatedEvent event) {
+        evaluate(event.getTable());
+    }
+
+    private void requestRebuild() {
+        if (rebuildPending.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                rebuildPending.set(false);
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    log.warn("建议车速矩阵重建失败，保留当前矩阵", e);
+                }
+            });
+        }
+    }
+
+    @Override
+    public void rebuild() {
+        long startNanos = System.nanoTime();
+        List<Object[]> rows = roadSectionRepository.findSpeedProfiles();
+        List<SectionProfile> profiles = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            profiles.add(new SectionProfile((Long) row[0], (Integer) row[1], (Double) row[2], (Double) row[3]));
+        }
+        SpeedAdvisoryMatrix built = SpeedAdvisoryMatrix.build(profiles);
+        matrix = built;
+        long elapsedNanos = System.nanoTime() - startNanos;
+        meterRegistry.timer(BUILD_TIMER).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        log.info("建议车速矩阵构建完成：路段{}个，限速特征{}种，耗时{}ms",
+                built.getSectionCount(), built.getProfileCount(), elapsedNanos / 1_000_000);
+        if (weatherImpactService.isReady()) {
+            evaluate(weatherImpactService.getTable());
+        }
+    }
+
+    /**
+     * 按评分表中各路段的天气查表，与上一次的结果按路段ID归并比较后发布变化；
+     * 评分线程与重建线程都会调用，串行执行以保证变化按顺序发布
+     */
+    private synchronized void evaluate(WeatherImpactTable table) {
+        SpeedAdvisoryMatrix current = matrix;
+        if (current == null) {
+            return;
+        }
+        WeatherColumns columns = table.getColumns();
+        long[] ids = new long[table.size()];
+        int[] speeds = new int[table.size()];
+        for (int row = 0; row < table.size(); row++) {
+            ids[row] = table.getRoadSectionId(row);
+            speeds[row] = current.advisedSpeed(ids[row], columns.advisoryState(row));
+        }
+        Advisories previous = advisories;
+        advisories = new Advisories(ids, speeds);
+        ready = true;
+
+        long[] previousIds = previous.roadSectionIds();
+        int[] previousSpeeds = previous.speeds();
+        int changed = 0;
+        int i = 0;
+        int j = 0;
+        while (i < previousIds.length || j < ids.length) {
+            long id;
+            int before;
+            int after;
+            if (j == ids.length || (i < previousIds.length && previousIds[i] < ids[j])) {
+                id = previousIds[i];
+                before = previousSpeeds[i++];
+                after = SpeedAdvisoryMatrix.NO_ADVISORY;
+            } else if (i == previousIds.length || ids[j] < previousIds[i]) {
+                id = ids[j];
+                before = SpeedAdvisoryMatrix.NO_ADVISORY;
+                after = speeds[j++];
+            } else {
+                id = ids[j];
+                before = previousSpeeds[i++];
+                after = speeds[j++];
+            }
+            if (before != after) {
+                changed++;
+                eventPublisher.publishEvent(new SpeedAdvisoryChangedEvent(id, toSpeed(before), toSpeed(after)));
+            }
+        }
+        log.debug("路段建议车速评估完成：路段{}个，变化{}个", ids.length, changed);
+    }
+
+    private static Integer toSpeed(int speed) {
+        return speed != SpeedAdvisoryMatrix.NO_ADVISORY ? speed : null;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 一次评估的结果，路段ID升序，建议车速与之一一对应
+     */
+    private record Advisories(long[] roadSectionIds, int[] speeds) {
+    }
+}
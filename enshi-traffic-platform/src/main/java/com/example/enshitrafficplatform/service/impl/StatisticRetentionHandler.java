@@ -0,0 +1,68 @@
+package com.example.enshitrafficplatform.service.impl;
+
+import com.example.enshitrafficplatform.repository.TrafficStatisticRepository;
+import com.example.enshitrafficplatform.retention.RetentionDataType;
+import com.example.enshitrafficplatform.retention.RetentionTier;
+import com.example.enshitrafficplatform.service.RetentionTierHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * 交通统计的分层操作：分时段统计（早高峰、晚高峰、平峰期等）→ 全天统计
+ * 降采样为缺少全天统计的对象由当天的分时段统计汇总生成全天统计，统计任务已生成的全天统计保持不变；
+ * 分时段统计只有在同一对象、同一统计类型的全天统计存在时才会被清理
+ */
+@Component
+@RequiredArgsConstructor
+public class StatisticRetentionHandler implements RetentionTierHandler {
+
+    private final TrafficStatisticRepository trafficStatisticRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public RetentionDataType getDataType() {
+        return RetentionDataType.STATISTICS;
+    }
+
+    @Override
+    public String getTableName(RetentionTier tier) {
+        return "traffic_statistics";
+    }
+
+    @Override
+    public LocalDate findOldestDate(RetentionTier tier) {
+        return tier == RetentionTier.RAW
+                ? trafficStatisticRepository.findMinDetailDate()
+                : trafficStatisticRepository.findMinStatisticDate();
+    }
+
+    @Override
+    public boolean isCovered(RetentionTier tier, LocalDate date) {
+        return tier != RetentionTier.RAW || trafficStatisticRepository.countDetailsNotCoveredByFullDay(date) == 0;
+    }
+
+    @Override
+    public void downsample(RetentionTier tier, LocalDate date) {
+        if (tier == RetentionTier.RAW) {
+            transactionTemplate.executeWithoutResult(
+                    status -> trafficStatisticRepository.insertFullDayFromDetails(date));
+        }
+    }
+
+    @Override
+    public int purgeBatch(RetentionTier tier, LocalDate date, int batchSize) {
+        if (tier != RetentionTier.RAW) {
+            return trafficStatisticRepository.deleteBatch(date, batchSize);
+        }
+        List<Long> ids = trafficStatisticRepository.findDetailIdsCoveredByFullDay(date, batchSize);
+        if (!ids.isEmpty()) {
+            trafficStatisticRepository.deleteAllByIdInBatch(ids);
+        }
+        return ids.size();
+    }
+}
@@ -0,0 +1,153 @@
+package com.example.enshitrafficplatform.service.impl;
+
+import com.example.enshitrafficplatform.analytics.CubeQuery;
+import com.example.enshitrafficplatform.analytics.CubeRow;
+import com.example.enshitrafficplatform.analytics.TrafficCube;
+import com.example.enshitrafficplatform.event.TrafficFlowIngestedEvent;
+import com.example.enshitrafficplatform.repository.TrafficFlowRecordScanner;
+import com.example.enshitrafficplatform.service.TrafficCubeService;
+import com.example.enshitrafficplatform.storage.FlowCatchUp;
+import com.example.enshitrafficplatform.storage.SnapshotFiles;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * 交通流量立方体服务实现
+ * 启动后优先从快照恢复，再按记录ID从数据库补齐，加载期间的入库读数由 {@link FlowCatchUp} 去重补入；
+ * 之后由入库事件增量更新
+ */
+@Slf4j
+@Service
+public class TrafficCubeServiceImpl implements TrafficCubeService {
+
+    private final TrafficFlowRecordScanner trafficFlowRecordScanner;
+
+    private final Path snapshotPath;
+
+    private final int historyDays;
+
+    private volatile TrafficCube cube = new TrafficCube();
+
+    private final FlowCatchUp catchUp;
+
+    private volatile boolean ready;
+
+    public TrafficCubeServiceImpl(TrafficFlowRecordScanner trafficFlowRecordScanner,
+                                  @Value("${app.cube.snapshot-path:data/cube/traffic-cube.snap}") String snapshotPath,
+                                  @Value("${app.cube.history-days:365}") int historyDays,
+                                  @Value("${app.catch-up.id-margin:100000}") long idMargin) {
+        this.trafficFlowRecordScanner = trafficFlowRecordScanner;
+        this.snapshotPath = Paths.get(snapshotPath);
+        this.historyDays = historyDays;
+        this.catchUp = new FlowCatchUp(idMargin);
+    }
+
+    @Override
+    public List<CubeRow> query(CubeQuery query) {
+        return cube.query(query);
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 应用启动完成后在后台线程加载立方体，避免阻塞启动
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOnStartup() {
+        Thread loader = new Thread(this::load, "traffic-cube-loader");
+        loader.setDaemon(true);
+        loader.start();
+    }
+
+    private void load() {
+        long startNanos = System.nanoTime();
+        TrafficCube loaded = readSnapshot();
+        // 始终带时间下限，使分区表只扫描历史窗口内的分区
+        LocalDateTime since = historyDays > 0 ? LocalDateTime.now().minusDays(historyDays) : null;
+        TrafficCube target = loaded != null ? loaded : new TrafficCube();
+
+        long untilId = trafficFlowRecordScanner.maxRecordId();
+        catchUp.begin(untilId);
+        long scanned = trafficFlowRecordScanner.scanByIdRange(target.getMaxRecordId(), untilId, since, reading -> {
+            if (catchUp.scanned(reading.getRecordId())) {
+                target.add(reading);
+            }
+        });
+
+        int replayed = catchUp.finish(target::add, () -> {
+            cube = target;
+            ready = true;
+        });
+        log.info("交通立方体加载完成：快照恢复={}，补齐记录{}条，补入加载期间读数{}条，路段{}个，耗时{}ms", loaded != null,
+                scanned, replayed, target.getSectionCount(), (System.nanoTime() - startNanos) / 1_000_000);
+    }
+
+    /**
+     * 事务提交后把新入库的读数累加到立方体
+     * @param event 入库事件
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTrafficFlowIngested(TrafficFlowIngestedEvent event) {
+        if (!catchUp.offer(event.getReadings())) {
+            cube.addAll(event.getReadings());
+        }
+    }
+
+    @Override
+    @Scheduled(cron = "${app.cube.snapshot-cron:0 */15 * * * *}")
+    public void saveSnapshot() {
+        if (!ready) {
+            return;
+        }
+        try {
+            long size = SnapshotFiles.write(snapshotPath, out -> {
+                try (DeflaterOutputStream deflater = new DeflaterOutputStream(out)) {
+                    cube.writeTo(deflater);
+                }
+            });
+            log.debug("交通立方体快照已保存：{}，{}字节", snapshotPath, size);
+        } catch (IOException e) {
+            log.warn("交通立方体快照保存失败：{}", snapshotPath, e);
+        }
+    }
+
+    /**
+     * 应用关闭前保存最新快照
+     */
+    @PreDestroy
+    public void saveSnapshotOnShutdown() {
+        saveSnapshot();
+    }
+
+    private TrafficCube readSnapshot() {
+        if (!Files.isRegularFile(snapshotPath)) {
+            return null;
+        }
+        try (InputStream in = new InflaterInputStream(new BufferedInputStream(Files.newInputStream(snapshotPath)))) {
+            return TrafficCube.readFrom(in);
+        } catch (IOException e) {
+            log.warn("交通立方体快照读取失败，将从数据库重新构建：{}", snapshotPath, e);
+            return null;
+        }
+    }
+}
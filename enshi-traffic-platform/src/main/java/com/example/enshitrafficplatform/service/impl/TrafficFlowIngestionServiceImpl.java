@@ -0,0 +1,66 @@
+package com.example.enshitrafficplatform.service.impl;
+
+import com.example.enshitrafficplatform.dto.FlowReading;
+import com.example.enshitrafficplatform.entity.RoadSection;
+import com.example.enshitrafficplatform.entity.TrafficFlowRecord;
+import com.example.enshitrafficplatform.event.TrafficFlowIngestedEvent;
+import com.example.enshitrafficplatform.repository.TrafficFlowRecordRepository;
+import com.example.enshitrafficplatform.service.PointHourlyBucketService;
+import com.example.enshitrafficplatform.service.TrafficFlowIngestionService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 交通流量数据入库服务实现
+ * 持久化的预聚合表在入库事务内同步更新；入库事件在事务内发布，内存统计组件应在事务提交后处理
+ */
+@Service
+@RequiredArgsConstructor
+public class TrafficFlowIngestionServiceImpl implements TrafficFlowIngestionService {
+
+    private final TrafficFlowRecordRepository trafficFlowRecordRepository;
+
+    private final PointHourlyBucketService pointHourlyBucketService;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Override
+    @Transactional
+    public TrafficFlowRecord ingest(TrafficFlowRecord record) {
+        return ingestAll(List.of(record)).get(0);
+    }
+
+    @Override
+    @Transactional
+    public List<TrafficFlowRecord> ingestAll(List<TrafficFlowRecord> records) {
+        if (records.isEmpty()) {
+            return List.of();
+        }
+
+        for (TrafficFlowRecord record : records) {
+            // 未指定路段时沿用监测点所属路段
+            if (record.getRoadSection() == null && record.getMonitoringPoint() != null) {
+                record.setRoadSection(record.getMonitoringPoint().getRoadSection());
+            }
+            if (record.getCongestionLevel() == null) {
+                record.updateCongestionLevel();
+            }
+        }
+
+        List<TrafficFlowRecord> saved = trafficFlowRecordRepository.saveAll(records);
+
+        List<FlowReading> readings = new ArrayList<>(saved.size());
+        for (TrafficFlowRecord record : saved) {
+            RoadSection section = record.getRoadSection();
+            readings.add(FlowReading.of(record, section != null && section.getId() != null ? section.getId() : 0L));
+        }
+        pointHourlyBucketService.accumulate(readings);
+        eventPublisher.publishEvent(new TrafficFlowIngestedEvent(readings));
+        return saved;
+    }
+}
@@ -0,0 +1,180 @@
+package com.example.enshitrafficplatform.service.impl;
+
+import com.example.enshitrafficplatform.analytics.VehicleComposition;
+import com.example.enshitrafficplatform.analytics.VehicleCompositionAccumulator;
+import com.example.enshitrafficplatform.repository.MonitoringPointRepository;
+import com.example.enshitrafficplatform.repository.TrafficFlowRecordScanner;
+import com.example.enshitrafficplatform.service.HotFlowStoreService;
+import com.example.enshitrafficplatform.service.VehicleCompositionService;
+import com.example.enshitrafficplatform.util.DateUtils;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * 车型构成统计服务实现
+ * 统计对象ID排序后以二分查找定位槽位，逐行累加时不产生装箱和临时对象。
+ * 时间范围落在热存储窗口内时，按数据段把热存储的车型计数列整段累加，不再查询流量表；
+ * 此时路段按监测点当前所属路段归集
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class VehicleCompositionServiceImpl implements VehicleCompositionService {
+
+    /**
+     * 趋势统计允许的最大时间桶数量
+     */
+    private static final int MAX_TREND_BUCKETS = 100_000;
+
+    private final TrafficFlowRecordScanner trafficFlowRecordScanner;
+
+    private final MonitoringPointRepository monitoringPointRepository;
+
+    private final HotFlowStoreService hotFlowStoreService;
+
+    @Override
+    public List<VehicleComposition> getSectionComposition(Collection<Long> roadSectionIds,
+                                                          LocalDateTime startTime, LocalDateTime endTime) {
+        validateRange(startTime, endTime);
+        long[] sectionIds = sortedIds(roadSectionIds);
+        if (sectionIds.length == 0) {
+            return List.of();
+        }
+        VehicleCompositionAccumulator accumulator = new VehicleCompositionAccumulator(sectionIds.length);
+        List<Long> pointIds = monitoringPointRepository.findIdsByRoadSectionIds(roadSectionIds);
+        if (inHotWindow(startTime)) {
+            long rows = 0;
+            List<Object[]> pointSections = pointIds.isEmpty()
+                    ? List.of() : monitoringPointRepository.findRoadSectionIdsByIds(pointIds);
+            for (Object[] row : pointSections) {
+                int slot = row[1] != null ? Arrays.binarySearch(sectionIds, (Long) row[1]) : -1;
+                if (slot >= 0) {
+                    rows += addHotColumns(accumulator, slot, (Long) row[0], startTime, endTime);
+                }
+            }
+            log.debug("路段车型构成统计完成（热存储），路段数：{}，读数：{}", sectionIds.length, rows);
+            return toCompositions(accumulator, sectionIds);
+        }
+        long rows = trafficFlowRecordScanner.scanVehicleCounts(pointIds, startTime, endTime,
+                (pointId, sectionId, epochSecond, large, medium, small) -> {
+                    int slot = Arrays.binarySearch(sectionIds, sectionId);
+                    if (slot >= 0) {
+                        accumulator.add(slot, large, medium, small);
+                    }
+                });
+        log.debug("路段车型构成统计完成，路段数：{}，扫描记录数：{}", sectionIds.length, rows);
+        return toCompositions(accumulator, sectionIds);
+    }
+
+    @Override
+    public List<VehicleComposition> getPointComposition(Collection<Long> monitoringPointIds,
+                                                        LocalDateTime startTime, LocalDateTime endTime) {
+        validateRange(startTime, endTime);
+        long[] pointIds = sortedIds(monitoringPointIds);
+        if (pointIds.length == 0) {
+            return List.of();
+        }
+        VehicleCompositionAccumulator accumulator = new VehicleCompositionAccumulator(pointIds.length);
+        if (inHotWindow(startTime)) {
+            long rows = 0;
+            for (int slot = 0; slot < pointIds.length; slot++) {
+                rows += addHotColumns(accumulator, slot, pointIds[slot], startTime, endTime);
+            }
+            log.debug("监测点车型构成统计完成（热存储），监测点数：{}，读数：{}", pointIds.length, rows);
+            return toCompositions(accumulator, pointIds);
+        }
+        List<Long> scanIds = Arrays.stream(pointIds).boxed().toList();
+        long rows = trafficFlowRecordScanner.scanVehicleCounts(scanIds, startTime, endTime,
+                (pointId, sectionId, epochSecond, large, medium, small) -> {
+                    int slot = Arrays.binarySearch(pointIds, pointId);
+                    if (slot >= 0) {
+                        accumulator.add(slot, large, medium, small);
+                    }
+                });
+        log.debug("监测点车型构成统计完成，监测点数：{}，扫描记录数：{}", pointIds.length, rows);
+        return toCompositions(accumulator, pointIds);
+    }
+
+    @Override
+    public List<VehicleComposition> getHeavyVehicleTrend(Long roadSectionId, LocalDateTime startTime,
+                                                         LocalDateTime endTime, int bucketMinutes) {
+        validateRange(startTime, endTime);
+        if (bucketMinutes <= 0) {
+            throw new IllegalArgumentException("时间桶长度必须大于0");
+        }
+        long bucketSeconds = bucketMinutes * 60L;
+        long startEpoch = DateUtils.toEpochSecond(startTime);
+        long endEpoch = DateUtils.toEpochSecond(endTime);
+        long bucketCount = (endEpoch - startEpoch + bucketSeconds - 1) / bucketSeconds;
+        if (bucketCount > MAX_TREND_BUCKETS) {
+            throw new IllegalArgumentException("时间桶数量超过上限：" + MAX_TREND_BUCKETS);
+        }
+        VehicleCompositionAccumulator accumulator = new VehicleCompositionAccumulator((int) bucketCount);
+        long targetSectionId = roadSectionId;
+        List<Long> pointIds = monitoringPointRepository.findIdsByRoadSectionIds(List.of(roadSectionId));
+        trafficFlowRecordScanner.scanVehicleCounts(pointIds, startTime, endTime,
+                (pointId, sectionId, epochSecond, large, medium, small) -> {
+                    if (sectionId == targetSectionId) {
+                        accumulator.add((int) ((epochSecond - startEpoch) / bucketSeconds), large, medium, small);
+                    }
+                });
+
+        List<VehicleComposition> trend = new ArrayList<>((int) bucketCount);
+        for (int i = 0; i < bucketCount; i++) {
+            LocalDateTime bucketStart = DateUtils.fromEpochSecond(startEpoch + i * bucketSeconds);
+            trend.add(VehicleComposition.of(accumulator, i, roadSectionId, bucketStart));
+        }
+        return trend;
+    }
+
+    /**
+     * 热存储已就绪且开始时间不早于其窗口起点
+     */
+    private boolean inHotWindow(LocalDateTime startTime) {
+        return hotFlowStoreService.isReady() && !startTime.isBefore(hotFlowStoreService.getWindowStart());
+    }
+
+    /**
+     * 把监测点在热存储中的车型计数按数据段整段累加到槽位
+     * @return 累加的读数行数
+     */
+    private long addHotColumns(VehicleCompositionAccumulator accumulator, int slot, long pointId,
+                               LocalDateTime startTime, LocalDateTime endTime) {
+        return hotFlowStoreService.cursor(pointId, startTime, endTime).forEachVehicleCountRun(
+                (large, medium, small, from, to) -> accumulator.addColumns(slot, large, medium, small, from, to));
+    }
+
+    private static void validateRange(LocalDateTime startTime, LocalDateTime endTime) {
+        if (startTime == null || endTime == null || !startTime.isBefore(endTime)) {
+            throw new IllegalArgumentException("开始时间必须早于结束时间");
+        }
+    }
+
+    private static long[] sortedIds(Collection<Long> ids) {
+        if (ids == null) {
+            return new long[0];
+        }
+        return ids.stream()
+                .filter(Objects::nonNull)
+                .mapToLong(Long::longValue)
+                .distinct()
+                .sorted()
+                .toArray();
+    }
+
+    private static List<VehicleComposition> toCompositions(VehicleCompositionAccumulator accumulator, long[] ids) {
+        List<VehicleComposition> compositions = new ArrayList<>(ids.length);
+        for (int slot = 0; slot < ids.length; slot++) {
+            compositions.add(VehicleComposition.of(accumulator, slot, ids[slot], null));
+        }
+        return compositions;
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.enshitrafficplatform.service.impl;
+
+import com.example.enshitrafficplatform.event.SectionWeatherRefreshedEvent;
+import com.example.enshitrafficplatform.event.WeatherImpactUpdatedEvent;
+import com.example.enshitrafficplatform.service.WeatherImpactService;
+import com.example.enshitrafficplatform.weather.WeatherImpactTable;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 路段天气影响评分服务实现
+ * 在路段天气关联的刷新线程上同步重算评分表，安装后发布 {@link WeatherImpactUpdatedEvent}；
+ * 耗时记录到 traffic.weather.impact.score 指标
+ */
+@Slf4j
+@Service
+public class WeatherImpactServiceImpl implements WeatherImpactService {
+
+    private static final String SCORE_TIMER = "traffic.weather.impact.score";
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final MeterRegistry meterRegistry;
+
+    private volatile WeatherImpactTable table = WeatherImpactTable.empty();
+
+    private volatile boolean ready;
+
+    public WeatherImpactServiceImpl(ApplicationEventPublisher eventPublisher, MeterRegistry meterRegistry) {
+        this.eventPublisher = eventPublisher;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public WeatherImpactTable getTable() {
+        return table;
+    }
+
+    @Override
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 路段天气关联刷新后重算全部路段的评分
+     * @param event 刷新事件
+     */
+    @EventListener
+    public void onSectionWeatherRefreshed(SectionWeatherRefreshedEvent event) {
+        long startNanos = System.nanoTime();
+        WeatherImpactTable scored = WeatherImpactTable.compute(event.getJoin());
+        table = scored;
+        ready = true;
+        long elapsedNanos = System.nanoTime() - startNanos;
+        meterRegistry.timer(SCORE_TIMER).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        eventPublisher.publishEvent(new WeatherImpactUpdatedEvent(scored));
+        log.debug("路段天气影响评分完成：路段{}个，耗时{}ms", scored.size(), elapsedNanos / 1_000_000);
+    }
+}
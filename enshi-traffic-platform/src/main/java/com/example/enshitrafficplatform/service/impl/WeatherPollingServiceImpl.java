@@ -0,0 +1,158 @@
+package com.example.enshitrafficplatform.service.impl;
+
+import com.example.enshitrafficplatform.dto.response.WeatherPollReport;
+import com.example.enshitrafficplatform.entity.WeatherRecord;
+import com.example.enshitrafficplatform.repository.RegionRepository;
+import com.example.enshitrafficplatform.repository.WeatherRecordRepository;
+import com.example.enshitrafficplatform.service.WeatherPollingService;
+import com.example.enshitrafficplatform.weather.WeatherApiClient;
+import com.example.enshitrafficplatform.weather.WeatherApiClient.Fetch;
+import com.example.enshitrafficplatform.weather.WeatherApiClient.Target;
+import com.example.enshitrafficplatform.weather.WeatherApiParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 天气API轮询服务实现
+ * 首次轮询前以库中各区域近期（观测站最大时长内）的最新观测时间初始化客户端缓存，重启后不会重复写入同一条观测；
+ * 近期没有记录的区域不初始化，首次轮询按新观测写入。
+ * 变化的记录先逐条校验，不合法的跳过，其余在一个事务内批量写入；写入成功后才确认客户端缓存，
+ * 失败时下次轮询重新取回。耗时记录到 traffic.weather.api.poll 指标
+ */
+@Slf4j
+@Service
+public class WeatherPollingServiceImpl implements WeatherPollingService {
+
+    private static final String POLL_TIMER = "traffic.weather.api.poll";
+
+    private final RegionRepository regionRepository;
+
+    private final WeatherRecordRepository weatherRecordRepository;
+
+    private final Validator validator;
+
+    private final MeterRegistry meterRegistry;
+
+    private final WeatherApiClient client;
+
+    private final int stationMaxAgeHours;
+
+    private boolean seeded;
+
+    private volatile WeatherPollReport lastReport;
+
+    public WeatherPollingServiceImpl(RegionRepository regionRepository,
+                                     WeatherRecordRepository weatherRecordRepository,
+                                     Validator validator,
+                                     ObjectMapper objectMapper,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${app.weather.api-url}") String apiUrl,
+                                     @Value("${app.weather.api-key:}") String apiKey,
+                                     @Value("${app.weather.poll-concurrency:4}") int concurrency,
+                                     @Value("${app.weather.request-timeout-seconds:10}") int timeoutSeconds,
+                                     @Value("${app.section-weather.station-max-age-hours:6}") int stationMaxAgeHours) {
+        this.regionRepository = regionRepository;
+        this.weatherRecordRepository = weatherRecordRepository;
+        this.validator = validator;
+        this.meterRegistry = meterRegistry;
+        this.client = new WeatherApiClient(apiUrl, apiKey, concurrency, Duration.ofSeconds(timeoutSeconds),
+                new WeatherApiParser(objectMapper));
+        this.stationMaxAgeHours = stationMaxAgeHours;
+    }
+
+    @Override
+    @Scheduled(cron = "${app.scheduler.weather-update-cron:0 0 */1 * * *}")
+    public synchronized WeatherPollReport poll() {
+        long startNanos = System.nanoTime();
+        LocalDateTime startTime = LocalDateTime.now();
+        if (!seeded) {
+            LocalDateTime since = startTime.minusHours(stationMaxAgeHours);
+            for (Object[] row : weatherRecordRepository.findLatestRecordTimesByRegion(WeatherApiParser.DATA_SOURCE,
+                    since)) {
+                client.seed((Long) row[0], (LocalDateTime) row[1]);
+            }
+            seeded = true;
+        }
+
+        List<Target> targets = new ArrayList<>();
+        for (Object[] row : regionRepository.findLocated()) {
+            targets.add(new Target((Long) row[0], (Double) row[1], (Double) row[2]));
+        }
+        List<Fetch> fetches = client.fetchAll(targets);
+
+        WeatherPollReport report = WeatherPollReport.builder()
+                .startTime(startTime)
+                .regions(targets.size())
+                .build();
+        List<Fetch> changed = new ArrayList<>();
+        List<WeatherRecord> records = new ArrayList<>();
+        for (Fetch fetch : fetches) {
+            switch (fetch.status()) {
+                case CHANGED -> {
+                    WeatherRecord record = fetch.record();
+                    record.setRegion(regionRepository.getReferenceById(fetch.target().regionId()));
+                    Set<ConstraintViolation<WeatherRecord>> violations = validator.validate(record);
+                    if (violations.isEmpty()) {
+                        changed.add(fetch);
+                        records.add(record);
+                    } else {
+                        report.setFailed(report.getFailed() + 1);
+                        log.warn("区域{}的天气记录校验未通过，跳过：{}", fetch.target().regionId(),
+                                violations.iterator().next().getMessage());
+                    }
+                }
+                case UNCHANGED -> report.setUnchanged(report.getUnchanged() + 1);
+                case NOT_MODIFIED -> report.setNotModified(report.getNotModified() + 1);
+                case FAILED -> {
+                    report.setFailed(report.getFailed() + 1);
+                    log.warn("区域{}的天气查询失败：{}", fetch.target().regionId(), fetch.error());
+                }
+            }
+        }
+
+        if (!records.isEmpty()) {
+            try {
+                weatherRecordRepository.saveAll(records);
+                changed.forEach(client::commit);
+                report.setChanged(records.size());
+            } catch (DataAccessException e) {
+                log.error("天气记录批量写入失败，下次轮询重新取回", e);
+                report.setFailed(report.getFailed() + records.size());
+            }
+        }
+
+        long elapsedNanos = System.nanoTime() - startNanos;
+        meterRegistry.timer(POLL_TIMER).record(elapsedNanos, TimeUnit.NANOSECONDS);
+        report.setElapsedMillis(elapsedNanos / 1_000_000);
+        lastReport = report;
+        log.info("天气API轮询完成：区域{}个，新观测{}个，未变化{}个，未修改{}个，失败{}个，耗时{}ms",
+                report.getRegions(), report.getChanged(), report.getUnchanged(), report.getNotModified(),
+                report.getFailed(), report.getElapsedMillis());
+        return report;
+    }
+
+    @Override
+    public WeatherPollReport getLastReport() {
+        return lastReport;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        client.close();
+    }
+}
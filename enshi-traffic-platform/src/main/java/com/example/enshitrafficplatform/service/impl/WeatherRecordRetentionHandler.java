@@ -0,0 +1,82 @@
+package com.example.enshitrafficplatform.service.impl;
+
+import com.example.enshitrafficplatform.repository.TablePartitionRepository;
+import com.example.enshitrafficplatform.repository.WeatherHourlyBucketRepository;
+import com.example.enshitrafficplatform.repository.WeatherRecordRepository;
+import com.example.enshitrafficplatform.retention.RetentionDataType;
+import com.example.enshitrafficplatform.retention.RetentionTier;
+import com.example.enshitrafficplatform.service.PartitionMaintenanceService;
+import com.example.enshitrafficplatform.service.RetentionTierHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 天气记录的分层操作：原始记录 → 区域小时天气桶
+ */
+@Component
+@RequiredArgsConstructor
+public class WeatherRecordRetentionHandler implements RetentionTierHandler {
+
+    private final WeatherRecordRepository weatherRecordRepository;
+
+    private final WeatherHourlyBucketRepository weatherHourlyBucketRepository;
+
+    private final TablePartitionRepository tablePartitionRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    @Override
+    public RetentionDataType getDataType() {
+        return RetentionDataType.WEATHER_RECORDS;
+    }
+
+    @Override
+    public String getTableName(RetentionTier tier) {
+        return tier == RetentionTier.RAW ? PartitionMaintenanceService.WEATHER_RECORDS : "weather_hourly_buckets";
+    }
+
+    @Override
+    public LocalDate findOldestDate(RetentionTier tier) {
+        LocalDateTime oldest = tier == RetentionTier.RAW
+                ? tablePartitionRepository.findMinRecordTime(PartitionMaintenanceService.WEATHER_RECORDS)
+                : weatherHourlyBucketRepository.findMinBucketStart();
+        return oldest != null ? oldest.toLocalDate() : null;
+    }
+
+    @Override
+    public boolean isCovered(RetentionTier tier, LocalDate date) {
+        if (tier != RetentionTier.RAW) {
+            return true;
+        }
+        LocalDateTime start = date.atStartOfDay();
+        LocalDateTime end = start.plusDays(1);
+        return weatherHourlyBucketRepository.sumRecordCount(start, end)
+                == weatherRecordRepository.countByRecordTimeRange(start, end);
+    }
+
+    @Override
+    public void downsample(RetentionTier tier, LocalDate date) {
+        if (tier != RetentionTier.RAW) {
+            return;
+        }
+        LocalDateTime start = date.atStartOfDay();
+        LocalDateTime end = start.plusDays(1);
+        transactionTemplate.executeWithoutResult(status -> {
+            weatherHourlyBucketRepository.deleteByBucketStartRange(start, end);
+            weatherHourlyBucketRepository.rebuildFromRecords(start, end);
+        });
+    }
+
+    @Override
+    public int purgeBatch(RetentionTier tier, LocalDate date, int batchSize) {
+        LocalDateTime start = date.atStartOfDay();
+        LocalDateTime end = start.plusDays(1);
+        return tier == RetentionTier.RAW
+                ? weatherRecordRepository.deleteBatch(start, end, batchSize)
+                : weatherHourlyBucketRepository.deleteBatch(start, end, batchSize);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.enshitrafficplatform.storage;
+
+import com.example.enshitrafficplatform.dto.FlowReading;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * 内存流量结构启动加载期间的入库读数暂存与去重补入
+ * 加载线程先读取截止ID再扫描数据库，扫描期间入库事件照常到达并暂存。ID不大于截止ID的事务可能在
+ * 扫描的一致性读视图之后才提交，既不在扫描结果中，也不能按截止ID直接丢弃：
+ * 扫描时记住 (截止ID - 余量, 截止ID] 内见到的记录ID，补入时只跳过扫描已见到的读数。
+ * 更早的ID只可能来自长时间未提交的事务，以开始扫描前是否已暂存区分：之前暂存的已提交、在扫描中，之后的补入。
+ * 扫描回调与 {@link #finish} 须在同一个加载线程上调用
+ */
+public final class FlowCatchUp {
+
+    /**
+     * 默认的截止ID余量
+     */
+    public static final long DEFAULT_ID_MARGIN = 100_000;
+
+    private final long idMargin;
+
+    private final List<FlowReading> pending = new ArrayList<>();
+
+    private final Set<Long> seenIds = new HashSet<>();
+
+    private long untilId = Long.MAX_VALUE;
+
+    private long floorId = Long.MAX_VALUE;
+
+    /**
+     * 开始扫描时已暂存的读数数
+     */
+    private int pendingAtBegin;
+
+    private volatile boolean live;
+
+    public FlowCatchUp(long idMargin) {
+        if (idMargin < 0) {
+            throw new IllegalArgumentException("截止ID余量不能为负");
+        }
+        this.idMargin = idMargin;
+    }
+
+    /**
+     * 开始扫描，截止ID须在调用前从数据库读取
+     * @param untilId 扫描的截止ID（含）
+     */
+    public void begin(long untilId) {
+        this.untilId = untilId;
+        this.floorId = untilId - idMargin;
+        synchronized (pending) {
+            pendingAtBegin = pending.size();
+        }
+    }
+
+    /**
+     * 扫描到一条记录时调用
+     * @param recordId 记录ID
+     * @return 是否应加载该记录，ID大于截止ID的记录由暂存读数补入
+     */
+    public boolean scanned(long recordId) {
+        if (recordId > untilId) {
+            return false;
+        }
+        if (recordId > floorId) {
+            seenIds.add(recordId);
+        }
+        return true;
+    }
+
+    /**
+     * 暂存入库读数
+     * @param readings 入库读数
+     * @return 是否已暂存；加载已完成时返回false，调用方应直接写入
+     */
+    public boolean offer(List<FlowReading> readings) {
+        if (live) {
+            return false;
+        }
+        synchronized (pending) {
+            if (live) {
+                return false;
+            }
+            pending.addAll(readings);
+            return true;
+        }
+    }
+
+    /**
+     * 补入扫描未见到的暂存读数，再安装加载结果；期间到达的入库读数等待安装后直接写入
+     * @param target 补入目标
+     * @param install 安装加载结果
+     * @return 补入的读数数
+     */
+    public int finish(Consumer<FlowReading> target, Runnable install) {
+        synchronized (pending) {
+            int replayed = 0;
+            for (int i = 0; i < pending.size(); i++) {
+                FlowReading reading = pending.get(i);
+                long recordId = reading.getRecordId();
+                boolean seen = recordId > floorId ? seenIds.contains(recordId) : i < pendingAtBegin;
+                if (recordId > untilId || !seen) {
+                    target.accept(reading);
+                    replayed++;
+                }
+            }
+            pending.clear();
+            seenIds.clear();
+            install.run();
+            live = true;
+            return replayed;
+        }
+    }
+
+    /**
+     * 加载是否已完成
+     * @return 是否已完成
+     */
+    public boolean isLive() {
+        return live;
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.enshitrafficplatform.storage;
+
+import com.example.enshitrafficplatform.dto.FlowReading;
+
+/**
+ * 流量序列范围游标
+ * 按时间顺序遍历单个监测点在 [开始, 结束) 内的读数，访问器直接读取列数组，遍历过程不创建对象。
+ * 游标建立时取得数据段快照，此后追加或淘汰不影响已建立的游标。
+ * 用法：{@code while (cursor.next()) { cursor.flowRate(); ... }}
+ */
+public final class FlowCursor {
+
+    private final FlowSegment[] segments;
+
+    private final long endEpochSecond;
+
+    private int segmentIndex;
+
+    private FlowSegment segment;
+
+    private int row;
+
+    private int limit;
+
+    FlowCursor(FlowSegment[] segments, long startEpochSecond, long endEpochSecond) {
+        this.segments = segments;
+        this.endEpochSecond = endEpochSecond;
+        for (segmentIndex = 0; segmentIndex < segments.length; segmentIndex++) {
+            FlowSegment candidate = segments[segmentIndex];
+            int size = candidate.size();
+            if (size > 0 && candidate.epochSeconds[size - 1] >= startEpochSecond) {
+                segment = candidate;
+                limit = size;
+                row = candidate.lowerBound(startEpochSecond, size) - 1;
+                return;
+            }
+        }
+    }
+
+    /**
+     * 空游标
+     * @return 不含任何读数的游标
+     */
+    static FlowCursor empty() {
+        return new FlowCursor(new FlowSegment[0], 0L, 0L);
+    }
+
+    /**
+     * 移动到下一条读数
+     * @return 是否还有读数
+     */
+    public boolean next() {
+        if (segment == null) {
+            return false;
+        }
+        row++;
+        if (row >= limit) {
+            segmentIndex++;
+            if (segmentIndex >= segments.length) {
+                segment = null;
+                return false;
+            }
+            segment = segments[segmentIndex];
+            limit = segment.size();
+            row = 0;
+            if (limit == 0) {
+                segment = null;
+                return false;
+            }
+        }
+        if (segment.epochSeconds[row] >= endEpochSecond) {
+            segment = null;
+            return false;
+        }
+        return true;
+    }
+
+    public long epochSecond() {
+        return segment.epochSeconds[row];
+    }
+
+    /**
+     * @return 车流量，缺失时为 {@link FlowReading#MISSING_INT}
+     */
+    public int flowRate() {
+        return segment.flowRates[row];
+    }
+
+    /**
+     * @return 平均车速，缺失时为NaN
+     */
+    public double averageSpeed() {
+        return segment.averageSpeeds[row];
+    }
+
+    /**
+     * @return 道路占有率，缺失时为NaN
+     */
+    public double occupancyRate() {
+        return segment.occupancyRates[row];
+    }
+
+    public int largeVehicleCount() {
+        return segment.largeVehicleCounts[row];
+    }
+
+    public int mediumVehicleCount() {
+        return segment.mediumVehicleCounts[row];
+    }
+
+    public int smallVehicleCount() {
+        return segment.smallVehicleCounts[row];
+    }
+
+    /**
+     * @return 车辆间距，缺失时为NaN
+     */
+    public double headway() {
+        return segment.headways[row];
+    }
+
+    public int dataQuality() {
+        return segment.dataQualities[row];
+    }
+
+    /**
+     * 将当前读数填充到目标实例，记录ID、监测点与路段字段保持不变
+     * @param target 目标读数
+     */
+    public void read(FlowReading target) {
+        segment.read(row, target);
+    }
+
+    /**
+     * 按数据段批量访问剩余读数的车型计数列，每个数据段回调一次连续的行区间，不逐行移动游标。
+     * 调用后游标结束
+     * @param handler 列区间回调
+     * @return 访问的行数
+     */
+    public long forEachVehicleCountRun(VehicleCountRunHandler handler) {
+        long rows = 0;
+        while (segment != null) {
+            int from = row + 1;
+            int to = segment.lowerBound(endEpochSecond, limit);
+            if (from < to) {
+                handler.accept(segment.largeVehicleCounts, segment.mediumVehicleCounts, segment.smallVehicleCounts,
+                        from, to);
+                rows += to - from;
+            }
+            segmentIndex++;
+            if (to < limit || segmentIndex >= segments.length) {
+                segment = null;
+                break;
+            }
+            segment = segments[segmentIndex];
+            limit = segment.size();
+            row = -1;
+            if (limit == 0) {
+                segment = null;
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * 车型计数列区间回调，列数组属于热存储，只能在回调内读取 [from, to) 区间
+     */
+    @FunctionalInterface
+    public interface VehicleCountRunHandler {
+
+        void accept(int[] largeVehicleCounts, int[] mediumVehicleCounts, int[] smallVehicleCounts, int from, int to);
+    }
+}
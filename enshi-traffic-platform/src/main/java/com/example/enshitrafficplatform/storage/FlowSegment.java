@@ -0,0 +1,107 @@
+package com.example.enshitrafficplatform.storage;
+
+import com.example.enshitrafficplatform.dto.FlowReading;
+
+/**
+ * 流量列式数据段
+ * 固定容量、只追加的一组基本类型列，同一监测点内按时间有序。
+ * 写入由所属序列串行完成，先写各列再更新volatile的行数，读取方按行数快照无锁读取
+ */
+final class FlowSegment {
+
+    final long[] epochSeconds;
+
+    final int[] flowRates;
+
+    final double[] averageSpeeds;
+
+    final double[] occupancyRates;
+
+    final int[] largeVehicleCounts;
+
+    final int[] mediumVehicleCounts;
+
+    final int[] smallVehicleCounts;
+
+    final double[] headways;
+
+    final byte[] dataQualities;
+
+    private volatile int size;
+
+    FlowSegment(int capacity) {
+        this.epochSeconds = new long[capacity];
+        this.flowRates = new int[capacity];
+        this.averageSpeeds = new double[capacity];
+        this.occupancyRates = new double[capacity];
+        this.largeVehicleCounts = new int[capacity];
+        this.mediumVehicleCounts = new int[capacity];
+        this.smallVehicleCounts = new int[capacity];
+        this.headways = new double[capacity];
+        this.dataQualities = new byte[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isFull() {
+        return size == epochSeconds.length;
+    }
+
+    /**
+     * 追加一行，调用方需保证串行写入且段未满
+     * @param reading 读数
+     */
+    void append(FlowReading reading) {
+        int row = size;
+        epochSeconds[row] = reading.getEpochSecond();
+        flowRates[row] = reading.getFlowRate();
+        averageSpeeds[row] = reading.getAverageSpeed();
+        occupancyRates[row] = reading.getOccupancyRate();
+        largeVehicleCounts[row] = reading.getLargeVehicleCount();
+        mediumVehicleCounts[row] = reading.getMediumVehicleCount();
+        smallVehicleCounts[row] = reading.getSmallVehicleCount();
+        headways[row] = reading.getHeadway();
+        dataQualities[row] = (byte) Math.min(reading.getDataQuality(), Byte.MAX_VALUE);
+        // volatile写，发布本行
+        size = row + 1;
+    }
+
+    /**
+     * 查找行数快照内第一条时间不早于给定时间的行
+     * @param epochSecond 纪元秒
+     * @param limit 行数快照
+     * @return 行号，全部早于给定时间时返回limit
+     */
+    int lowerBound(long epochSecond, int limit) {
+        int low = 0;
+        int high = limit;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (epochSeconds[mid] < epochSecond) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * 将一行读回读数
+     * @param row 行号
+     * @param target 目标读数
+     */
+    void read(int row, FlowReading target) {
+        target.setEpochSecond(epochSeconds[row]);
+        target.setFlowRate(flowRates[row]);
+        target.setAverageSpeed(averageSpeeds[row]);
+        target.setOccupancyRate(occupancyRates[row]);
+        target.setLargeVehicleCount(largeVehicleCounts[row]);
+        target.setMediumVehicleCount(mediumVehicleCounts[row]);
+        target.setSmallVehicleCount(smallVehicleCounts[row]);
+        target.setHeadway(headways[row]);
+        target.setDataQuality(dataQualities[row]);
+    }
+}
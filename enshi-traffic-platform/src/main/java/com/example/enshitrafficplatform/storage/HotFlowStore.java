@@ -0,0 +1,275 @@
+package com.example.enshitrafficplatform.storage;
+
+import com.example.enshitrafficplatform.dto.FlowReading;
+import com.example.enshitrafficplatform.storage.codec.FlowBlock;
+import com.example.enshitrafficplatform.storage.codec.FlowBlockCodec;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * 近期流量热存储
+ * 按监测点保存时间有序的列式数据（纪元秒、流量、速度、占有率、车型计数、车间距、数据质量），
+ * 每个监测点由若干定长只追加数据段组成，按时间窗口整段淘汰。
+ * 同一监测点的写入串行执行，读取通过 {@link FlowCursor} 无锁进行；
+ * 早于该监测点已写入最新时间的乱序读数被丢弃并计数。
+ * 可写出为二进制快照：每个数据段按 {@link FlowBlockCodec} 压缩为一个块，连同最大记录ID一起保存，
+ * 恢复后只需从数据库补齐该ID之后的记录
+ */
+public class HotFlowStore {
+
+    /**
+     * 默认数据段容量（行），5分钟一条时约覆盖3.5天
+     */
+    public static final int DEFAULT_SEGMENT_CAPACITY = 1024;
+
+    private static final int SNAPSHOT_MAGIC = 0x45544853;
+
+    private static final int SNAPSHOT_VERSION = 1;
+
+    private final ConcurrentHashMap<Long, PointFlowSeries> series = new ConcurrentHashMap<>();
+
+    private final int segmentCapacity;
+
+    private final LongAdder rowCount = new LongAdder();
+
+    private final LongAdder droppedOutOfOrder = new LongAdder();
+
+    private final AtomicLong maxRecordId = new AtomicLong();
+
+    /**
+     * 追加时持有读锁，写快照时短暂持有写锁，使快照中的数据与最大记录ID一致
+     */
+    private final ReentrantReadWriteLock snapshotLock = new ReentrantReadWriteLock();
+
+    public HotFlowStore() {
+        this(DEFAULT_SEGMENT_CAPACITY);
+    }
+
+    public HotFlowStore(int segmentCapacity) {
+        if (segmentCapacity <= 0) {
+            throw new IllegalArgumentException("数据段容量必须大于0");
+        }
+        this.segmentCapacity = segmentCapacity;
+    }
+
+    /**
+     * 追加一条读数
+     * @param reading 读数，方法返回后可被调用方复用
+     * @return 是否写入，监测点未知或乱序时返回false
+     */
+    public boolean append(FlowReading reading) {
+        if (reading.getMonitoringPointId() == 0L) {
+            return false;
+        }
+        PointFlowSeries target = series.computeIfAbsent(reading.getMonitoringPointId(),
+                id -> new PointFlowSeries(id, segmentCapacity));
+        snapshotLock.readLock().lock();
+        try {
+            if (!target.append(reading)) {
+                droppedOutOfOrder.increment();
+                return false;
+            }
+            rowCount.increment();
+            maxRecordId.accumulateAndGet(reading.getRecordId(), Math::max);
+            return true;
+        } finally {
+            snapshotLock.readLock().unlock();
+        }
+    }
+
+    /**
+     * 批量追加读数
+     * @param readings 读数列表
+     */
+    public void appendAll(List<FlowReading> readings) {
+        for (FlowReading reading : readings) {
+            append(reading);
+        }
+    }
+
+    /**
+     * 打开监测点在时间范围内的游标
+     * @param monitoringPointId 监测点ID
+     * @param startEpochSecond 开始时间（含）
+     * @param endEpochSecond 结束时间（不含）
+     * @return 游标，无数据时为空游标
+     */
+    public FlowCursor cursor(long monitoringPointId, long startEpochSecond, long endEpochSecond) {
+        PointFlowSeries target = series.get(monitoringPointId);
+        if (target == null) {
+            return FlowCursor.empty();
+        }
+        return new FlowCursor(target.segments(), startEpochSecond, endEpochSecond);
+    }
+
+    /**
+     * 淘汰早于截止时间的数据段
+     * @param cutoffEpochSecond 截止时间（纪元秒）
+     * @return 淘汰的行数
+     */
+    public long evictBefore(long cutoffEpochSecond) {
+        long evicted = 0;
+        for (PointFlowSeries pointSeries : series.values()) {
+            evicted += pointSeries.evictBefore(cutoffEpochSecond);
+        }
+        rowCount.add(-evicted);
+        return evicted;
+    }
+
+    /**
+     * 获取监测点最近一条读数所属的路段ID
+     * @param monitoringPointId 监测点ID
+     * @return 路段ID，未知时为0
+     */
+    public long getRoadSectionId(long monitoringPointId) {
+        PointFlowSeries target = series.get(monitoringPointId);
+        return target != null ? target.getRoadSectionId() : 0L;
+    }
+
+    public Set<Long> getMonitoringPointIds() {
+        return series.keySet();
+    }
+
+    public int getPointCount() {
+        return series.size();
+    }
+
+    public long getRowCount() {
+        return rowCount.sum();
+    }
+
+    public long getDroppedOutOfOrderCount() {
+        return droppedOutOfOrder.sum();
+    }
+
+    public long getMaxRecordId() {
+        return maxRecordId.get();
+    }
+
+    /**
+     * 将热存储写出为二进制快照
+     * 写锁内只记录各数据段的行数，编码在锁外进行；之后追加的行不在快照内，由最大记录ID之后的补齐负责
+     * @param output 输出流，调用方负责关闭
+     * @throws IOException 写入失败
+     */
+    public void writeTo(OutputStream output) throws IOException {
+        List<FrozenSeries> frozen = new ArrayList<>(series.size());
+        long frozenMaxRecordId;
+        snapshotLock.writeLock().lock();
+        try {
+            frozenMaxRecordId = maxRecordId.get();
+            for (PointFlowSeries pointSeries : series.values()) {
+                FlowSegment[] segments = pointSeries.segments();
+                int[] sizes = new int[segments.length];
+                for (int i = 0; i < segments.length; i++) {
+                    sizes[i] = segments[i].size();
+                }
+                frozen.add(new FrozenSeries(pointSeries.getMonitoringPointId(), pointSeries.getRoadSectionId(),
+                        segments, sizes));
+            }
+        } finally {
+            snapshotLock.writeLock().unlock();
+        }
+
+        DataOutputStream out = new DataOutputStream(output);
+        out.writeInt(SNAPSHOT_MAGIC);
+        out.writeShort(SNAPSHOT_VERSION);
+        out.writeLong(frozenMaxRecordId);
+        out.writeInt(frozen.size());
+        FlowBlock block = new FlowBlock(segmentCapacity);
+        FlowReading reading = new FlowReading();
+        for (FrozenSeries pointSeries : frozen) {
+            out.writeLong(pointSeries.monitoringPointId());
+            out.writeLong(pointSeries.roadSectionId());
+            int blockCount = 0;
+            for (int size : pointSeries.sizes()) {
+                if (size > 0) {
+                    blockCount++;
+                }
+            }
+            out.writeInt(blockCount);
+            for (int i = 0; i < pointSeries.segments().length; i++) {
+                int size = pointSeries.sizes()[i];
+                if (size == 0) {
+                    continue;
+                }
+                FlowSegment segment = pointSeries.segments()[i];
+                block.clear();
+                for (int row = 0; row < size; row++) {
+                    reading.reset();
+                    segment.read(row, reading);
+                    block.add(reading);
+                }
+                byte[] encoded = FlowBlockCodec.encode(block);
+                out.writeInt(encoded.length);
+                out.write(encoded);
+            }
+        }
+        out.flush();
+    }
+
+    /**
+     * 从二进制快照恢复热存储，数据块直接从缓冲区解码，适合配合内存映射文件使用
+     * @param buffer 快照内容，从当前位置开始读取
+     * @param segmentCapacity 数据段容量
+     * @return 恢复的热存储
+     * @throws IOException 快照格式不兼容或内容不完整
+     */
+    public static HotFlowStore readFrom(ByteBuffer buffer, int segmentCapacity) throws IOException {
+        try {
+            if (buffer.getInt() != SNAPSHOT_MAGIC) {
+                throw new IOException("不是热存储快照文件");
+            }
+            if (buffer.getShort() != SNAPSHOT_VERSION) {
+                throw new IOException("热存储快照版本不兼容");
+            }
+            HotFlowStore store = new HotFlowStore(segmentCapacity);
+            long snapshotMaxRecordId = buffer.getLong();
+            int pointCount = buffer.getInt();
+            FlowBlock block = new FlowBlock(segmentCapacity);
+            FlowReading reading = new FlowReading();
+            for (int point = 0; point < pointCount; point++) {
+                long monitoringPointId = buffer.getLong();
+                long roadSectionId = buffer.getLong();
+                int blockCount = buffer.getInt();
+                for (int i = 0; i < blockCount; i++) {
+                    int length = buffer.getInt();
+                    int offset = buffer.position();
+                    if (length < 0 || length > buffer.remaining()) {
+                        throw new IOException("热存储快照数据块长度越界");
+                    }
+                    FlowBlockCodec.decode(buffer, offset, length, block);
+                    buffer.position(offset + length);
+                    for (int row = 0; row < block.size(); row++) {
+                        reading.reset();
+                        reading.setMonitoringPointId(monitoringPointId);
+                        reading.setRoadSectionId(roadSectionId);
+                        block.read(row, reading);
+                        store.append(reading);
+                    }
+                }
+            }
+            store.maxRecordId.set(snapshotMaxRecordId);
+            return store;
+        } catch (BufferUnderflowException | IndexOutOfBoundsException | IllegalArgumentException e) {
+            throw new IOException("热存储快照内容不完整", e);
+        }
+    }
+
+    /**
+     * 写快照时冻结的序列：数据段数组与各段当时的行数
+     */
+    private record FrozenSeries(long monitoringPointId, long roadSectionId, FlowSegment[] segments, int[] sizes) {
+    }
+}
@@ -0,0 +1,102 @@
+package com.example.enshitrafficplatform.storage;
+
+import com.example.enshitrafficplatform.dto.FlowReading;
+
+import java.util.Arrays;
+
+/**
+ * 单个监测点的流量时间序列
+ * 由若干只追加的数据段组成，写入与淘汰在序列上加锁，
+ * 段数组整体替换后以volatile发布，读取方取得快照后无需加锁
+ */
+final class PointFlowSeries {
+
+    private static final FlowSegment[] EMPTY = new FlowSegment[0];
+
+    private final long monitoringPointId;
+
+    private final int segmentCapacity;
+
+    private volatile long roadSectionId;
+
+    private volatile FlowSegment[] segments = EMPTY;
+
+    /**
+     * 已写入的最新时间，淘汰后仍保留，用于拒绝乱序读数
+     */
+    private long lastEpochSecond = Long.MIN_VALUE;
+
+    PointFlowSeries(long monitoringPointId, int segmentCapacity) {
+        this.monitoringPointId = monitoringPointId;
+        this.segmentCapacity = segmentCapacity;
+    }
+
+    long getMonitoringPointId() {
+        return monitoringPointId;
+    }
+
+    long getRoadSectionId() {
+        return roadSectionId;
+    }
+
+    FlowSegment[] segments() {
+        return segments;
+    }
+
+    /**
+     * 追加读数
+     * @param reading 读数
+     * @return 读数早于已写入的最新时间时返回false并丢弃
+     */
+    synchronized boolean append(FlowReading reading) {
+        if (reading.getEpochSecond() < lastEpochSecond) {
+            return false;
+        }
+        FlowSegment[] current = segments;
+        FlowSegment tail = current.length > 0 ? current[current.length - 1] : null;
+        if (tail == null || tail.isFull()) {
+            tail = new FlowSegment(segmentCapacity);
+            FlowSegment[] grown = Arrays.copyOf(current, current.length + 1);
+            grown[current.length] = tail;
+            segments = grown;
+        }
+        tail.append(reading);
+        lastEpochSecond = reading.getEpochSecond();
+        if (reading.getRoadSectionId() != 0L) {
+            roadSectionId = reading.getRoadSectionId();
+        }
+        return true;
+    }
+
+    /**
+     * 淘汰全部数据早于截止时间的数据段
+     * @param cutoffEpochSecond 截止时间（纪元秒）
+     * @return 淘汰的行数
+     */
+    synchronized int evictBefore(long cutoffEpochSecond) {
+        FlowSegment[] current = segments;
+        int dropCount = 0;
+        int evictedRows = 0;
+        while (dropCount < current.length) {
+            FlowSegment segment = current[dropCount];
+            int size = segment.size();
+            if (size > 0 && segment.epochSeconds[size - 1] >= cutoffEpochSecond) {
+                break;
+            }
+            evictedRows += size;
+            dropCount++;
+        }
+        if (dropCount > 0) {
+            segments = dropCount == current.length ? EMPTY : Arrays.copyOfRange(current, dropCount, current.length);
+        }
+        return evictedRows;
+    }
+
+    int rowCount() {
+        int rows = 0;
+        for (FlowSegment segment : segments) {
+            rows += segment.size();
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.enshitrafficplatform.storage;
+
+import com.example.enshitrafficplatform.dto.FlowReading;
+
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * 单个路段的堆外历史环形缓冲区
+ * 按到达顺序保存该路段各监测点的读数，每条读数为定长记录，保存在直接内存中，写满后覆盖最旧的记录。
+ * 写入在缓冲区上串行执行；读取无锁，读完一条记录后检查其槽位是否已被覆盖写入，被覆盖的记录直接跳过
+ */
+public final class SectionHistoryBuffer {
+
+    /**
+     * 每条记录的字节数：纪元秒、监测点ID、流量、平均车速、占有率、数据质量
+     */
+    public static final int RECORD_BYTES = 40;
+
+    private static final int EPOCH_SECOND = 0;
+
+    private static final int MONITORING_POINT_ID = 8;
+
+    private static final int FLOW_RATE = 16;
+
+    private static final int AVERAGE_SPEED = 20;
+
+    private static final int OCCUPANCY_RATE = 28;
+
+    private static final int DATA_QUALITY = 36;
+
+    private final long roadSectionId;
+
+    private final int capacity;
+
+    private final ByteBuffer buffer;
+
+    /**
+     * 已开始写入的记录数，写入前递增，读取方据此判断槽位是否正被覆盖
+     */
+    private volatile long claimedCount;
+
+    /**
+     * 已写入完成的记录数，写入后递增，读取方据此确定可读范围
+     */
+    private volatile long writtenCount;
+
+    /**
+     * @param roadSectionId 路段ID
+     * @param capacity 可保存的记录数
+     */
+    public SectionHistoryBuffer(long roadSectionId, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("环形缓冲区容量必须大于0");
+        }
+        this.roadSectionId = roadSectionId;
+        this.capacity = capacity;
+        this.buffer = ByteBuffer.allocateDirect(capacity * RECORD_BYTES).order(ByteOrder.nativeOrder());
+    }
+
+    /**
+     * 追加一条读数，缓冲区已满时覆盖最旧的记录
+     * @param reading 读数，方法返回后可被调用方复用
+     */
+    public synchronized void append(FlowReading reading) {
+        long index = writtenCount;
+        claimedCount = index + 1;
+        // volatile写之后的普通写可能被重排到它之前，先发布占用再覆盖槽位，读取方才能识别被覆盖的记录
+        VarHandle.storeStoreFence();
+        int base = offset(index);
+        buffer.putLong(base + EPOCH_SECOND, reading.getEpochSecond());
+        buffer.putLong(base + MONITORING_POINT_ID, reading.getMonitoringPointId());
+        buffer.putInt(base + FLOW_RATE, reading.getFlowRate());
+        buffer.putDouble(base + AVERAGE_SPEED, reading.getAverageSpeed());
+        buffer.putDouble(base + OCCUPANCY_RATE, reading.getOccupancyRate());
+        buffer.putInt(base + DATA_QUALITY, reading.getDataQuality());
+        // volatile写，发布本条记录
+        writtenCount = index + 1;
+    }
+
+    /**
+     * 将第index条记录读入游标
+     * @param index 记录序号
+     * @param cursor 目标游标
+     * @return 记录读取期间未被覆盖时返回true
+     */
+    boolean read(long index, SectionHistoryCursor cursor) {
+        int base = offset(index);
+        cursor.epochSecond = buffer.getLong(base + EPOCH_SECOND);
+        cursor.monitoringPointId = buffer.getLong(base + MONITORING_POINT_ID);
+        cursor.flowRate = buffer.getInt(base + FLOW_RATE);
+        cursor.averageSpeed = buffer.getDouble(base + AVERAGE_SPEED);
+        cursor.occupancyRate = buffer.getDouble(base + OCCUPANCY_RATE);
+        cursor.dataQuality = buffer.getInt(base + DATA_QUALITY);
+        // 保证上面的读取先于下面对写入进度的检查完成
+        VarHandle.acquireFence();
+        return index >= claimedCount - capacity;
+    }
+
+    /**
+     * 当前仍可读取的最旧记录序号
+     * @return 记录序号
+     */
+    long oldestIndex() {
+        return Math.max(0L, claimedCount - capacity);
+    }
+
+    long writtenCount() {
+        return writtenCount;
+    }
+
+    private int offset(long index) {
+        return (int) (index % capacity) * RECORD_BYTES;
+    }
+
+    public long getRoadSectionId() {
+        return roadSectionId;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * 当前保存的记录数
+     * @return 记录数，不超过容量
+     */
+    public int size() {
+        return (int) Math.min(writtenCount, capacity);
+    }
+
+    /**
+     * 占用的直接内存字节数
+     * @return 字节数
+     */
+    public long getSizeInBytes() {
+        return (long) capacity * RECORD_BYTES;
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.enshitrafficplatform.storage;
+
+/**
+ * 路段历史游标
+ * 按写入顺序遍历路段环形缓冲区中时间位于 [开始, 结束) 内的记录，访问器直接返回基本类型字段。
+ * 游标可通过 {@link #reset(SectionHistoryBuffer, long, long)} 反复使用，遍历过程不创建对象；
+ * 非线程安全，每个线程使用独立实例。
+ * 用法：{@code while (cursor.next()) { cursor.flowRate(); ... }}
+ */
+public final class SectionHistoryCursor {
+
+    private SectionHistoryBuffer buffer;
+
+    private long startEpochSecond;
+
+    private long endEpochSecond;
+
+    private long nextIndex;
+
+    private long endIndex;
+
+    long epochSecond;
+
+    long monitoringPointId;
+
+    int flowRate;
+
+    double averageSpeed;
+
+    double occupancyRate;
+
+    int dataQuality;
+
+    /**
+     * 重新定位游标，可读范围取调用时已写入的记录
+     * @param buffer 环形缓冲区，为null时游标为空
+     * @param startEpochSecond 开始时间（含）
+     * @param endEpochSecond 结束时间（不含）
+     * @return 当前游标
+     */
+    public SectionHistoryCursor reset(SectionHistoryBuffer buffer, long startEpochSecond, long endEpochSecond) {
+        this.buffer = buffer;
+        this.startEpochSecond = startEpochSecond;
+        this.endEpochSecond = endEpochSecond;
+        if (buffer == null) {
+            nextIndex = 0L;
+            endIndex = 0L;
+        } else {
+            endIndex = buffer.writtenCount();
+            nextIndex = buffer.oldestIndex();
+        }
+        return this;
+    }
+
+    /**
+     * 移动到下一条时间范围内的记录
+     * @return 是否还有记录
+     */
+    public boolean next() {
+        while (nextIndex < endIndex) {
+            long index = nextIndex++;
+            if (!buffer.read(index, this)) {
+                // 读取期间已被覆盖，跳到仍可读取的最旧记录
+                nextIndex = Math.max(nextIndex, buffer.oldestIndex());
+                continue;
+            }
+            if (epochSecond >= startEpochSecond && epochSecond < endEpochSecond) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long epochSecond() {
+        return epochSecond;
+    }
+
+    public long monitoringPointId() {
+        return monitoringPointId;
+    }
+
+    /**
+     * @return 车流量，缺失时为 FlowReading.MISSING_INT
+     */
+    public int flowRate() {
+        return flowRate;
+    }
+
+    /**
+     * @return 平均车速，缺失时为NaN
+     */
+    public double averageSpeed() {
+        return averageSpeed;
+    }
+
+    /**
+     * @return 占有率，缺失时为NaN
+     */
+    public double occupancyRate() {
+        return occupancyRate;
+    }
+
+    public int dataQuality() {
+        return dataQuality;
+    }
+}
@@ -0,0 +1,126 @@
+package com.example.enshitrafficplatform.storage;
+
+import com.example.enshitrafficplatform.dto.FlowReading;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 路段历史存储
+ * 每个路段一个堆外环形缓冲区，缓冲区在路段首次写入时按固定容量分配；
+ * 分配总量受直接内存预算限制，超出预算的路段不再分配，其读数被拒绝并计数
+ */
+public class SectionHistoryStore {
+
+    private final ConcurrentHashMap<Long, SectionHistoryBuffer> buffers = new ConcurrentHashMap<>();
+
+    private final int capacityPerSection;
+
+    private final long maxBytes;
+
+    private long allocatedBytes;
+
+    private final LongAdder rejected = new LongAdder();
+
+    /**
+     * @param capacityPerSection 每个路段保存的记录数
+     * @param maxBytes 直接内存预算（字节）
+     */
+    public SectionHistoryStore(int capacityPerSection, long maxBytes) {
+        if (capacityPerSection <= 0) {
+            throw new IllegalArgumentException("每个路段的记录数必须大于0");
+        }
+        this.capacityPerSection = capacityPerSection;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * 追加一条读数
+     * @param reading 读数，方法返回后可被调用方复用
+     * @return 是否写入，路段未知或超出内存预算时返回false
+     */
+    public boolean append(FlowReading reading) {
+        long roadSectionId = reading.getRoadSectionId();
+        if (roadSectionId == 0L) {
+            return false;
+        }
+        SectionHistoryBuffer buffer = buffers.get(roadSectionId);
+        if (buffer == null) {
+            buffer = allocate(roadSectionId);
+            if (buffer == null) {
+                rejected.increment();
+                return false;
+            }
+        }
+        buffer.append(reading);
+        return true;
+    }
+
+    /**
+     * 定位路段在时间范围内的游标
+     * @param roadSectionId 路段ID
+     * @param startEpochSecond 开始时间（含）
+     * @param endEpochSecond 结束时间（不含）
+     * @param cursor 复用的游标
+     * @return 传入的游标，路段无数据时为空游标
+     */
+    public SectionHistoryCursor cursor(long roadSectionId, long startEpochSecond, long endEpochSecond,
+                                       SectionHistoryCursor cursor) {
+        return cursor.reset(buffers.get(roadSectionId), startEpochSecond, endEpochSecond);
+    }
+
+    private synchronized SectionHistoryBuffer allocate(long roadSectionId) {
+        SectionHistoryBuffer existing = buffers.get(roadSectionId);
+        if (existing != null) {
+            return existing;
+        }
+        long bytes = (long) capacityPerSection * SectionHistoryBuffer.RECORD_BYTES;
+        if (allocatedBytes + bytes > maxBytes) {
+            return null;
+        }
+        SectionHistoryBuffer buffer = new SectionHistoryBuffer(roadSectionId, capacityPerSection);
+        allocatedBytes += bytes;
+        buffers.put(roadSectionId, buffer);
+        return buffer;
+    }
+
+    public int getSectionCount() {
+        return buffers.size();
+    }
+
+    public int getCapacityPerSection() {
+        return capacityPerSection;
+    }
+
+    /**
+     * 已分配的直接内存字节数
+     * @return 字节数
+     */
+    public synchronized long getAllocatedBytes() {
+        return allocatedBytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * 当前保存的记录总数
+     * @return 记录数
+     */
+    public long getRecordCount() {
+        long records = 0;
+        for (SectionHistoryBuffer buffer : buffers.values()) {
+            records += buffer.size();
+        }
+        return records;
+    }
+
+    /**
+     * 因超出内存预算被拒绝的读数数量
+     * @return 读数数量
+     */
+    public long getRejectedCount() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.enshitrafficplatform.storage;
+
+import com.example.enshitrafficplatform.dto.FlowReading;
+
+import java.util.Arrays;
+
+/**
+ * 路段滑动窗口内各监测点的最新读数
+ * 从路段历史游标中取每个监测点时间最晚的流量与车速，用于计算路段实时流量与平均车速。
+ * 以基本类型数组保存，实例可反复装载，装载过程不创建对象；非线程安全
+ */
+public final class SectionLatestWindow {
+
+    private long[] pointIds = new long[16];
+
+    private long[] epochSeconds = new long[16];
+
+    private int[] flowRates = new int[16];
+
+    private double[] averageSpeeds = new double[16];
+
+    private int size;
+
+    /**
+     * 装载游标中的全部记录，覆盖上一次装载的结果
+     * @param cursor 已定位到路段与时间范围的游标
+     * @return 当前实例
+     */
+    public SectionLatestWindow load(SectionHistoryCursor cursor) {
+        size = 0;
+        while (cursor.next()) {
+            int index = indexOf(cursor.monitoringPointId());
+            if (index < 0) {
+                index = add(cursor.monitoringPointId());
+            } else if (cursor.epochSecond() < epochSeconds[index]) {
+                continue;
+            }
+            epochSeconds[index] = cursor.epochSecond();
+            flowRates[index] = cursor.flowRate();
+            averageSpeeds[index] = cursor.averageSpeed();
+        }
+        return this;
+    }
+
+    /**
+     * 窗口内有读数的监测点数量
+     * @return 监测点数量
+     */
+    public int getPointCount() {
+        return size;
+    }
+
+    /**
+     * 各监测点最新流量的平均值，缺失流量按0计
+     * @return 平均流量，无监测点时为0
+     */
+    public double getAverageFlowRate() {
+        if (size == 0) {
+            return 0.0;
+        }
+        long sum = 0;
+        for (int i = 0; i < size; i++) {
+            sum += flowRates[i] != FlowReading.MISSING_INT ? flowRates[i] : 0;
+        }
+        return (double) sum / size;
+    }
+
+    /**
+     * 各监测点最新车速的平均值，忽略缺失车速
+     * @return 平均车速，全部缺失或无监测点时为NaN
+     */
+    public double getAverageSpeed() {
+        double sum = 0;
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (!Double.isNaN(averageSpeeds[i])) {
+                sum += averageSpeeds[i];
+                count++;
+            }
+        }
+        return count > 0 ? sum / count : Double.NaN;
+    }
+
+    private int indexOf(long pointId) {
+        // 单个路段的监测点很少，线性查找即可
+        for (int i = 0; i < size; i++) {
+            if (pointIds[i] == pointId) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int add(long pointId) {
+        if (size == pointIds.length) {
+            int capacity = size * 2;
+            pointIds = Arrays.copyOf(pointIds, capacity);
+            epochSeconds = Arrays.copyOf(epochSeconds, capacity);
+            flowRates = Arrays.copyOf(flowRates, capacity);
+            averageSpeeds = Arrays.copyOf(averageSpeeds, capacity);
+        }
+        pointIds[size] = pointId;
+        return size++;
+    }
+}
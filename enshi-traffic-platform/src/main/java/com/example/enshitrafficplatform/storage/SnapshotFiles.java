@@ -0,0 +1,47 @@
+package com.example.enshitrafficplatform.storage;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * 内存结构快照文件的写出
+ * 先写入同目录下的临时文件，完成后原子替换正式文件，写出中途失败或进程退出时不会留下不完整的快照
+ */
+public final class SnapshotFiles {
+
+    private SnapshotFiles() {
+    }
+
+    /**
+     * 原子地写出快照文件
+     * @param path 快照文件路径
+     * @param writer 写出快照内容，输出流由本方法关闭
+     * @return 快照文件大小（字节）
+     * @throws IOException 写入或替换失败
+     */
+    public static long write(Path path, SnapshotWriter writer) throws IOException {
+        Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path tempFile = path.resolveSibling(path.getFileName() + ".tmp");
+        try (OutputStream out = new BufferedOutputStream(Files.newOutputStream(tempFile))) {
+            writer.writeTo(out);
+        }
+        Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return Files.size(path);
+    }
+
+    /**
+     * 快照内容的写出
+     */
+    @FunctionalInterface
+    public interface SnapshotWriter {
+
+        void writeTo(OutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,38 @@
+package com.example.enshitrafficplatform.storage;
+
+/**
+ * 流量数据的存储层级
+ * 按数据新旧依次为：内存热存储、MySQL原始记录、MySQL压缩归档块、本地冷数据段文件。
+ * 同一读数出现在多个层级时以序号较小（数据较新、字段较全）的层级为准
+ */
+public enum StorageTier {
+
+    HOT("hot", "内存热存储"),
+
+    RAW("raw", "原始记录"),
+
+    ARCHIVE("archive", "压缩归档块"),
+
+    COLD("cold", "冷数据段文件");
+
+    private final String tag;
+
+    private final String label;
+
+    StorageTier(String tag, String label) {
+        this.tag = tag;
+        this.label = label;
+    }
+
+    /**
+     * 指标标签值
+     * @return 标签值
+     */
+    public String getTag() {
+        return tag;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
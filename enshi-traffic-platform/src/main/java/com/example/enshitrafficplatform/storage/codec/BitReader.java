@@ -0,0 +1,110 @@
+package com.example.enshitrafficplatform.storage.codec;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * 位输入流
+ * 以绝对下标读取 {@link ByteBuffer}，不改变缓冲区的位置，可直接读取堆内数组或内存映射文件
+ */
+public final class BitReader {
+
+    private final ByteBuffer buffer;
+
+    private final int limit;
+
+    private final boolean bigEndian;
+
+    private int position;
+
+    /**
+     * 已读入但尚未消费的位，低 bitCount 位有效
+     */
+    private long pending;
+
+    private int bitCount;
+
+    /**
+     * @param buffer 数据缓冲区
+     * @param offset 起始下标
+     * @param length 字节数
+     */
+    public BitReader(ByteBuffer buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.position = offset;
+        this.limit = offset + length;
+        this.bigEndian = buffer.order() == ByteOrder.BIG_ENDIAN;
+    }
+
+    public BitReader(byte[] data) {
+        this(ByteBuffer.wrap(data), 0, data.length);
+    }
+
+    /**
+     * 读取一位
+     * @return 是否为1
+     */
+    public boolean readBit() {
+        if (bitCount == 0) {
+            fill();
+        }
+        bitCount--;
+        return ((pending >>> bitCount) & 1L) != 0;
+    }
+
+    /**
+     * 读取若干位
+     * @param bits 位数（0-64）
+     * @return 无符号值
+     */
+    public long readBits(int bits) {
+        if (bits > 32) {
+            long high = readBits(bits - 32);
+            return (high << 32) | readBits(32);
+        }
+        if (bits == 0) {
+            return 0L;
+        }
+        while (bitCount < bits) {
+            fill();
+        }
+        bitCount -= bits;
+        return (pending >>> bitCount) & ((1L << bits) - 1);
+    }
+
+    /**
+     * 连续读取1位直到遇到0或达到上限，用于解析前缀码
+     * @param max 最多读取的1的个数
+     * @return 读到的1的个数
+     */
+    public int readUnary(int max) {
+        int ones = 0;
+        while (ones < max && readBit()) {
+            ones++;
+        }
+        return ones;
+    }
+
+    /**
+     * 尚未读取的位数
+     * @return 位数
+     */
+    public long remainingBits() {
+        return (long) (limit - position) * 8 + bitCount;
+    }
+
+    private void fill() {
+        // 缓冲中不足32位时，一次补入尽量多的字节
+        if (bigEndian && position + 4 <= limit && bitCount <= 32) {
+            pending = (pending << 32) | (buffer.getInt(position) & 0xFFFFFFFFL);
+            position += 4;
+            bitCount += 32;
+            return;
+        }
+        if (position >= limit) {
+            throw new IllegalArgumentException("压缩数据不完整，读取越界");
+        }
+        pending = (pending << 8) | (buffer.get(position++) & 0xFF);
+        bitCount += 8;
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.enshitrafficplatform.storage.codec;
+
+import java.util.Arrays;
+
+/**
+ * 位输出流
+ * 按高位在前的顺序把任意位数的值写入可扩容的字节数组
+ */
+public final class BitWriter {
+
+    private byte[] buffer;
+
+    private int position;
+
+    /**
+     * 尚未写出的位，低 bitCount 位有效
+     */
+    private long pending;
+
+    private int bitCount;
+
+    public BitWriter(int initialCapacity) {
+        this.buffer = new byte[Math.max(initialCapacity, 16)];
+    }
+
+    /**
+     * 写入一位
+     * @param bit 是否为1
+     */
+    public void writeBit(boolean bit) {
+        writeBits(bit ? 1L : 0L, 1);
+    }
+
+    /**
+     * 写入值的低若干位
+     * @param value 值
+     * @param bits 位数（0-64）
+     */
+    public void writeBits(long value, int bits) {
+        if (bits > 32) {
+            writeBits(value >>> 32, bits - 32);
+            writeBits(value, 32);
+            return;
+        }
+        if (bits == 0) {
+            return;
+        }
+        pending = (pending << bits) | (value & ((1L << bits) - 1));
+        bitCount += bits;
+        while (bitCount >= 8) {
+            bitCount -= 8;
+            putByte((byte) (pending >>> bitCount));
+        }
+    }
+
+    /**
+     * 补齐最后一个字节并返回已写入的内容
+     * @return 字节数组
+     */
+    public byte[] toByteArray() {
+        if (bitCount > 0) {
+            putByte((byte) (pending << (8 - bitCount)));
+            bitCount = 0;
+        }
+        return Arrays.copyOf(buffer, position);
+    }
+
+    /**
+     * 已写入的位数
+     * @return 位数
+     */
+    public long bitLength() {
+        return (long) position * 8 + bitCount;
+    }
+
+    private void putByte(byte b) {
+        if (position == buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+        }
+        buffer[position++] = b;
+    }
+}
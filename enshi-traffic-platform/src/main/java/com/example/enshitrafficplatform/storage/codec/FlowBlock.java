@@ -0,0 +1,174 @@
+package com.example.enshitrafficplatform.storage.codec;
+
+import com.example.enshitrafficplatform.dto.FlowReading;
+
+import java.util.Arrays;
+
+/**
+ * 流量数据块
+ * 单个监测点一段时间（通常为一天）内按时间排序的读数，以列数组保存，是压缩编码的单位
+ */
+public class FlowBlock {
+
+    private int size;
+
+    long[] epochSeconds;
+
+    int[] flowRates;
+
+    double[] averageSpeeds;
+
+    double[] occupancyRates;
+
+    int[] largeVehicleCounts;
+
+    int[] mediumVehicleCounts;
+
+    int[] smallVehicleCounts;
+
+    double[] headways;
+
+    int[] dataQualities;
+
+    String[] weatherConditions;
+
+    public FlowBlock() {
+        this(64);
+    }
+
+    public FlowBlock(int capacity) {
+        allocate(Math.max(capacity, 1));
+    }
+
+    /**
+     * 追加一条读数，读数需按时间顺序追加
+     * @param reading 读数，方法返回后可被调用方复用
+     */
+    public void add(FlowReading reading) {
+        if (size == epochSeconds.length) {
+            grow(size * 2);
+        }
+        int row = size++;
+        epochSeconds[row] = reading.getEpochSecond();
+        flowRates[row] = reading.getFlowRate();
+        averageSpeeds[row] = reading.getAverageSpeed();
+        occupancyRates[row] = reading.getOccupancyRate();
+        largeVehicleCounts[row] = reading.getLargeVehicleCount();
+        mediumVehicleCounts[row] = reading.getMediumVehicleCount();
+        smallVehicleCounts[row] = reading.getSmallVehicleCount();
+        headways[row] = reading.getHeadway();
+        dataQualities[row] = reading.getDataQuality();
+        weatherConditions[row] = reading.getWeatherCondition();
+    }
+
+    /**
+     * 将一行读回读数，记录ID、监测点与路段字段保持不变
+     * @param row 行号
+     * @param target 目标读数
+     */
+    public void read(int row, FlowReading target) {
+        target.setEpochSecond(epochSeconds[row]);
+        target.setFlowRate(flowRates[row]);
+        target.setAverageSpeed(averageSpeeds[row]);
+        target.setOccupancyRate(occupancyRates[row]);
+        target.setLargeVehicleCount(largeVehicleCounts[row]);
+        target.setMediumVehicleCount(mediumVehicleCounts[row]);
+        target.setSmallVehicleCount(smallVehicleCounts[row]);
+        target.setHeadway(headways[row]);
+        target.setDataQuality(dataQualities[row]);
+        target.setWeatherCondition(weatherConditions[row]);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * 清空数据块以便复用
+     */
+    public void clear() {
+        Arrays.fill(weatherConditions, 0, size, null);
+        size = 0;
+    }
+
+    public long getEpochSecond(int row) {
+        return epochSeconds[row];
+    }
+
+    public int getFlowRate(int row) {
+        return flowRates[row];
+    }
+
+    public double getAverageSpeed(int row) {
+        return averageSpeeds[row];
+    }
+
+    public double getOccupancyRate(int row) {
+        return occupancyRates[row];
+    }
+
+    public int getLargeVehicleCount(int row) {
+        return largeVehicleCounts[row];
+    }
+
+    public int getMediumVehicleCount(int row) {
+        return mediumVehicleCounts[row];
+    }
+
+    public int getSmallVehicleCount(int row) {
+        return smallVehicleCounts[row];
+    }
+
+    public double getHeadway(int row) {
+        return headways[row];
+    }
+
+    public int getDataQuality(int row) {
+        return dataQualities[row];
+    }
+
+    public String getWeatherCondition(int row) {
+        return weatherConditions[row];
+    }
+
+    /**
+     * 解码前按行数准备列数组
+     * @param rows 行数
+     */
+    void resize(int rows) {
+        if (rows > epochSeconds.length) {
+            allocate(rows);
+        }
+        size = rows;
+    }
+
+    private void allocate(int capacity) {
+        epochSeconds = new long[capacity];
+        flowRates = new int[capacity];
+        averageSpeeds = new double[capacity];
+        occupancyRates = new double[capacity];
+        largeVehicleCounts = new int[capacity];
+        mediumVehicleCounts = new int[capacity];
+        smallVehicleCounts = new int[capacity];
+        headways = new double[capacity];
+        dataQualities = new int[capacity];
+        weatherConditions = new String[capacity];
+    }
+
+    private void grow(int capacity) {
+        epochSeconds = Arrays.copyOf(epochSeconds, capacity);
+        flowRates = Arrays.copyOf(flowRates, capacity);
+        averageSpeeds = Arrays.copyOf(averageSpeeds, capacity);
+        occupancyRates = Arrays.copyOf(occupancyRates, capacity);
+        largeVehicleCounts = Arrays.copyOf(largeVehicleCounts, capacity);
+        mediumVehicleCounts = Arrays.copyOf(mediumVehicleCounts, capacity);
+        smallVehicleCounts = Arrays.copyOf(smallVehicleCounts, capacity);
+        headways = Arrays.copyOf(headways, capacity);
+        dataQualities = Arrays.copyOf(dataQualities, capacity);
+        weatherConditions = Arrays.copyOf(weatherConditions, capacity);
+    }
+}
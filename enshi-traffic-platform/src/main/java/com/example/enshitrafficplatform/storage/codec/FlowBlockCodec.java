@@ -0,0 +1,422 @@
+package com.example.enshitrafficplatform.storage.codec;
+
+import com.example.enshitrafficplatform.util.VarIntUtils;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 流量数据块压缩编码
+ * 参考 Gorilla 时序压缩，按列依次写入同一位流：
+ * <ul>
+ *     <li>时间戳：首个值原样写入，之后写入二阶差分（delta-of-delta），等间隔采样时每行仅占1位</li>
+ *     <li>整数列（流量、车型计数、数据质量）：与前一行的差值做ZigZag编码后按长度分档写入</li>
+ *     <li>浮点列（速度、占有率、车间距）：若整列都是至多4位小数的十进制数，则放大为整数按差值编码；
+ *     否则与前一个值异或，只写入有效位</li>
+ *     <li>天气：块内字典加游程编码</li>
+ * </ul>
+ * 编码无损，缺失值（-1 与 NaN）原样保留
+ */
+public final class FlowBlockCodec {
+
+    /**
+     * 数据块标识 "FB"
+     */
+    private static final int MAGIC = 0x4642;
+
+    public static final int VERSION = 1;
+
+    /**
+     * 未压缩时一行读数的列数据字节数，用于计算压缩率与解码吞吐
+     */
+    public static final int RAW_ROW_BYTES = 8 + 4 + 8 + 8 + 4 * 3 + 8 + 4;
+
+    /**
+     * 首个时间戳之外，每行在9个数值列中至少各占1位，用于在分配列数组前按数据长度校验行数
+     */
+    private static final int MIN_ROW_BITS = 9;
+
+    private static final int MAX_SCALE = 4;
+
+    private static final int XOR_MODE = 7;
+
+    private static final double[] POWERS_OF_TEN = {1, 10, 100, 1_000, 10_000};
+
+    /**
+     * 放大为整数编码时允许的最大绝对值，保证放大后仍可被double精确表示
+     */
+    private static final double MAX_SCALED_MAGNITUDE = 1e11;
+
+    private FlowBlockCodec() {
+    }
+
+    /**
+     * 编码数据块
+     * @param block 数据块
+     * @return 压缩后的字节
+     */
+    public static byte[] encode(FlowBlock block) {
+        int rows = block.size();
+        BitWriter out = new BitWriter(rows * 12 + 64);
+        out.writeBits(MAGIC, 16);
+        out.writeBits(VERSION, 8);
+        out.writeBits(rows, 32);
+        if (rows == 0) {
+            return out.toByteArray();
+        }
+        writeTimestamps(out, block.epochSeconds, rows);
+        writeInts(out, block.flowRates, rows);
+        writeDoubles(out, block.averageSpeeds, rows);
+        writeDoubles(out, block.occupancyRates, rows);
+        writeInts(out, block.largeVehicleCounts, rows);
+        writeInts(out, block.mediumVehicleCounts, rows);
+        writeInts(out, block.smallVehicleCounts, rows);
+        writeDoubles(out, block.headways, rows);
+        writeInts(out, block.dataQualities, rows);
+        writeStrings(out, block.weatherConditions, rows);
+        return out.toByteArray();
+    }
+
+    /**
+     * 解码数据块
+     * @param data 压缩后的字节
+     * @return 数据块
+     */
+    public static FlowBlock decode(byte[] data) {
+        FlowBlock block = new FlowBlock(1);
+        decode(ByteBuffer.wrap(data), 0, data.length, block);
+        return block;
+    }
+
+    /**
+     * 解码数据块到已有实例，便于批量解码时复用列数组
+     * @param buffer 数据缓冲区
+     * @param offset 起始下标
+     * @param length 字节数
+     * @param target 目标数据块
+     */
+    public static void decode(ByteBuffer buffer, int offset, int length, FlowBlock target) {
+        BitReader in = new BitReader(buffer, offset, length);
+        if (in.readBits(16) != MAGIC) {
+            throw new IllegalArgumentException("不是流量数据块");
+        }
+        int version = (int) in.readBits(8);
+        if (version != VERSION) {
+            throw new IllegalArgumentException("不支持的数据块版本：" + version);
+        }
+        long rows = in.readBits(32);
+        if (rows > Integer.MAX_VALUE - 8 || rows > 0 && 64 + (rows - 1) * MIN_ROW_BITS > in.remainingBits()) {
+            throw new IllegalArgumentException("数据块行数与数据长度不符：" + rows);
+        }
+        target.clear();
+        target.resize((int) rows);
+        if (rows == 0) {
+            return;
+        }
+        int n = (int) rows;
+        readTimestamps(in, target.epochSeconds, n);
+        readInts(in, target.flowRates, n);
+        readDoubles(in, target.averageSpeeds, n);
+        readDoubles(in, target.occupancyRates, n);
+        readInts(in, target.largeVehicleCounts, n);
+        readInts(in, target.mediumVehicleCounts, n);
+        readInts(in, target.smallVehicleCounts, n);
+        readDoubles(in, target.headways, n);
+        readInts(in, target.dataQualities, n);
+        readStrings(in, target.weatherConditions, n);
+    }
+
+    // ---------------------------------------------------------------- 变长无符号整数
+
+    /**
+     * 按长度分档写入无符号整数：0 → "0"，&lt;2^6 → "10"+6位，&lt;2^13 → "110"+13位，
+     * &lt;2^20 → "1110"+20位，其余 → "1111"+64位
+     */
+    static void writeUnsigned(BitWriter out, long value) {
+        if (value == 0) {
+            out.writeBits(0, 1);
+        } else if (value >>> 6 == 0) {
+            out.writeBits((0b10L << 6) | value, 8);
+        } else if (value >>> 13 == 0) {
+            out.writeBits((0b110L << 13) | value, 16);
+        } else if (value >>> 20 == 0) {
+            out.writeBits((0b1110L << 20) | value, 24);
+        } else {
+            out.writeBits(0b1111, 4);
+            out.writeBits(value, 64);
+        }
+    }
+
+    static long readUnsigned(BitReader in) {
+        switch (in.readUnary(4)) {
+            case 0:
+                return 0L;
+            case 1:
+                return in.readBits(6);
+            case 2:
+                return in.readBits(13);
+            case 3:
+                return in.readBits(20);
+            default:
+                return in.readBits(64);
+        }
+    }
+
+    // ---------------------------------------------------------------- 时间戳
+
+    private static void writeTimestamps(BitWriter out, long[] values, int rows) {
+        out.writeBits(values[0], 64);
+        long previousDelta = 0;
+        for (int i = 1; i < rows; i++) {
+            long delta = values[i] - values[i - 1];
+            writeUnsigned(out, VarIntUtils.zigZagEncode(delta - previousDelta));
+            previousDelta = delta;
+        }
+    }
+
+    private static void readTimestamps(BitReader in, long[] values, int rows) {
+        long previous = in.readBits(64);
+        values[0] = previous;
+        long delta = 0;
+        for (int i = 1; i < rows; i++) {
+            delta += VarIntUtils.zigZagDecode(readUnsigned(in));
+            previous += delta;
+            values[i] = previous;
+        }
+    }
+
+    // ---------------------------------------------------------------- 整数列
+
+    private static void writeInts(BitWriter out, int[] values, int rows) {
+        long previous = 0;
+        for (int i = 0; i < rows; i++) {
+            writeUnsigned(out, VarIntUtils.zigZagEncode(values[i] - previous));
+            previous = values[i];
+        }
+    }
+
+    private static void readInts(BitReader in, int[] values, int rows) {
+        long previous = 0;
+        for (int i = 0; i < rows; i++) {
+            previous += VarIntUtils.zigZagDecode(readUnsigned(in));
+            values[i] = (int) previous;
+        }
+    }
+
+    // ---------------------------------------------------------------- 浮点列
+
+    private static void writeDoubles(BitWriter out, double[] values, int rows) {
+        int scale = detectScale(values, rows);
+        if (scale < 0) {
+            out.writeBits(XOR_MODE, 3);
+            writeXorDoubles(out, values, rows);
+            return;
+        }
+        out.writeBits(scale, 3);
+        boolean hasNaN = false;
+        for (int i = 0; i < rows; i++) {
+            if (Double.isNaN(values[i])) {
+                hasNaN = true;
+                break;
+            }
+        }
+        out.writeBit(hasNaN);
+        double power = POWERS_OF_TEN[scale];
+        long previous = 0;
+        for (int i = 0; i < rows; i++) {
+            double value = values[i];
+            if (hasNaN) {
+                boolean missing = Double.isNaN(value);
+                out.writeBit(missing);
+                if (missing) {
+                    continue;
+                }
+            }
+            long scaled = Math.round(value * power);
+            writeUnsigned(out, VarIntUtils.zigZagEncode(scaled - previous));
+            previous = scaled;
+        }
+    }
+
+    private static void readDoubles(BitReader in, double[] values, int rows) {
+        int mode = (int) in.readBits(3);
+        if (mode == XOR_MODE) {
+            readXorDoubles(in, values, rows);
+            return;
+        }
+        if (mode > MAX_SCALE) {
+            throw new IllegalArgumentException("浮点列编码方式异常：" + mode);
+        }
+        boolean hasNaN = in.readBit();
+        double power = POWERS_OF_TEN[mode];
+        long previous = 0;
+        for (int i = 0; i < rows; i++) {
+            if (hasNaN && in.readBit()) {
+                values[i] = Double.NaN;
+                continue;
+            }
+            previous += VarIntUtils.zigZagDecode(readUnsigned(in));
+            values[i] = previous / power;
+        }
+    }
+
+    /**
+     * 找出能无损表示整列数值的最小小数位数
+     * @return 小数位数，无法用至多4位小数表示时返回-1
+     */
+    private static int detectScale(double[] values, int rows) {
+        for (int scale = 0; scale <= MAX_SCALE; scale++) {
+            if (fitsScale(values, rows, POWERS_OF_TEN[scale])) {
+                return scale;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean fitsScale(double[] values, int rows, double power) {
+        for (int i = 0; i < rows; i++) {
+            double value = values[i];
+            if (Double.isNaN(value)) {
+                continue;
+            }
+            if (!(Math.abs(value) < MAX_SCALED_MAGNITUDE)) {
+                return false;
+            }
+            double restored = Math.round(value * power) / power;
+            // 按位比较，-0.0 等无法还原的值走异或编码
+            if (Double.doubleToRawLongBits(restored) != Double.doubleToRawLongBits(value)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeXorDoubles(BitWriter out, double[] values, int rows) {
+        long previous = Double.doubleToRawLongBits(values[0]);
+        out.writeBits(previous, 64);
+        int previousLeading = -1;
+        int previousTrailing = 0;
+        for (int i = 1; i < rows; i++) {
+            long bits = Double.doubleToRawLongBits(values[i]);
+            long xor = bits ^ previous;
+            previous = bits;
+            if (xor == 0) {
+                out.writeBits(0, 1);
+                continue;
+            }
+            int leading = Math.min(Long.numberOfLeadingZeros(xor), 31);
+            int trailing = Long.numberOfTrailingZeros(xor);
+            if (previousLeading >= 0 && leading >= previousLeading && trailing >= previousTrailing) {
+                // 有效位落在上一个窗口内，沿用窗口
+                out.writeBits(0b10, 2);
+                out.writeBits(xor >>> previousTrailing, 64 - previousLeading - previousTrailing);
+            } else {
+                int meaningful = 64 - leading - trailing;
+                out.writeBits(0b11, 2);
+                out.writeBits(leading, 5);
+                out.writeBits(meaningful - 1, 6);
+                out.writeBits(xor >>> trailing, meaningful);
+                previousLeading = leading;
+                previousTrailing = trailing;
+            }
+        }
+    }
+
+    private static void readXorDoubles(BitReader in, double[] values, int rows) {
+        long previous = in.readBits(64);
+        values[0] = Double.longBitsToDouble(previous);
+        int leading = 0;
+        int trailing = 0;
+        for (int i = 1; i < rows; i++) {
+            if (in.readBit()) {
+                if (in.readBit()) {
+                    leading = (int) in.readBits(5);
+                    int meaningful = (int) in.readBits(6) + 1;
+                    trailing = 64 - leading - meaningful;
+                }
+                long xor = in.readBits(64 - leading - trailing) << trailing;
+                previous ^= xor;
+            }
+            values[i] = Double.longBitsToDouble(previous);
+        }
+    }
+
+    // ---------------------------------------------------------------- 字符串列
+
+    private static void writeStrings(BitWriter out, String[] values, int rows) {
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<String> entries = new ArrayList<>();
+        int[] codes = new int[rows];
+        for (int i = 0; i < rows; i++) {
+            String value = values[i];
+            if (value == null) {
+                continue;
+            }
+            Integer code = dictionary.get(value);
+            if (code == null) {
+                entries.add(value);
+                code = entries.size();
+                dictionary.put(value, code);
+            }
+            codes[i] = code;
+        }
+        writeUnsigned(out, entries.size());
+        for (String entry : entries) {
+            byte[] bytes = entry.getBytes(StandardCharsets.UTF_8);
+            writeUnsigned(out, bytes.length);
+            for (byte b : bytes) {
+                out.writeBits(b, 8);
+            }
+        }
+        // 游程编码：代码、游程长度-1，0表示null
+        int i = 0;
+        while (i < rows) {
+            int code = codes[i];
+            int runEnd = i + 1;
+            while (runEnd < rows && codes[runEnd] == code) {
+                runEnd++;
+            }
+            writeUnsigned(out, code);
+            writeUnsigned(out, runEnd - i - 1);
+            i = runEnd;
+        }
+    }
+
+    private static void readStrings(BitReader in, String[] values, int rows) {
+        long declaredEntries = readUnsigned(in);
+        // 每个字典项至少占1位（长度），每个字节占8位
+        if (declaredEntries > in.remainingBits()) {
+            throw new IllegalArgumentException("天气列数据异常");
+        }
+        int entryCount = (int) declaredEntries;
+        String[] entries = new String[entryCount + 1];
+        for (int e = 1; e <= entryCount; e++) {
+            long declaredLength = readUnsigned(in);
+            if (declaredLength * 8 > in.remainingBits()) {
+                throw new IllegalArgumentException("天气列数据异常");
+            }
+            int length = (int) declaredLength;
+            byte[] bytes = new byte[length];
+            for (int b = 0; b < length; b++) {
+                bytes[b] = (byte) in.readBits(8);
+            }
+            entries[e] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        int i = 0;
+        while (i < rows) {
+            int code = (int) readUnsigned(in);
+            int runLength = (int) readUnsigned(in) + 1;
+            if (code > entryCount || runLength > rows - i) {
+                throw new IllegalArgumentException("天气列数据异常");
+            }
+            String value = entries[code];
+            for (int end = i + runLength; i < end; i++) {
+                values[i] = value;
+            }
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.enshitrafficplatform.storage.segment;
+
+import com.example.enshitrafficplatform.dto.FlowReading;
+import com.example.enshitrafficplatform.storage.codec.FlowBlock;
+import com.example.enshitrafficplatform.storage.codec.FlowBlockCodec;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * 只读的冷数据段文件
+ * 打开时整体以只读方式映射到内存，仅把监测点表和索引读入堆内；
+ * 查询时直接从映射页解码数据块，不复制到堆内字节数组。映射区可被多个线程同时读取
+ */
+public final class ColdSegment {
+
+    private final Path path;
+
+    private final MappedByteBuffer buffer;
+
+    private final long firstDay;
+
+    private final long lastDay;
+
+    private final long maxRecordId;
+
+    private final long rowCount;
+
+    private final long[] pointIds;
+
+    /**
+     * 槽位 i 的索引项位于 entries[slotStart[i], slotStart[i+1])，按日期升序
+     */
+    private final int[] slotStart;
+
+    private final SegmentBlockInfo[] entries;
+
+    private ColdSegment(Path path, MappedByteBuffer buffer, long firstDay, long lastDay, long maxRecordId,
+                        long rowCount, long[] pointIds, int[] slotStart, SegmentBlockInfo[] entries) {
+        this.path = path;
+        this.buffer = buffer;
+        this.firstDay = firstDay;
+        this.lastDay = lastDay;
+        this.maxRecordId = maxRecordId;
+        this.rowCount = rowCount;
+        this.pointIds = pointIds;
+        this.slotStart = slotStart;
+        this.entries = entries;
+    }
+
+    /**
+     * 打开段文件
+     * @param path 段文件路径
+     * @return 段文件
+     * @throws IOException 读取失败或文件格式错误
+     */
+    public static ColdSegment open(Path path) throws IOException {
+        MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < ColdSegmentWriter.HEADER_BYTES + ColdSegmentWriter.FOOTER_BYTES
+                    || size > ColdSegmentWriter.MAX_SEGMENT_BYTES) {
+                throw new IOException("段文件大小异常：" + path);
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+        }
+        int size = buffer.capacity();
+        if (buffer.getInt(0) != ColdSegmentWriter.MAGIC || buffer.getInt(size - 4) != ColdSegmentWriter.MAGIC) {
+            throw new IOException("不是段文件或文件不完整：" + path);
+        }
+        int version = buffer.getInt(4);
+        if (version != ColdSegmentWriter.VERSION) {
+            throw new IOException("不支持的段文件版本：" + version);
+        }
+
+        int footer = size - ColdSegmentWriter.FOOTER_BYTES;
+        long firstDay = buffer.getInt(footer);
+        long lastDay = buffer.getInt(footer + 4);
+        long maxRecordId = buffer.getLong(footer + 8);
+        long rowCount = buffer.getLong(footer + 16);
+        long pointTableOffset = buffer.getLong(footer + 24);
+        int pointCount = buffer.getInt(footer + 32);
+        long indexOffset = buffer.getLong(footer + 36);
+        int entryCount = buffer.getInt(footer + 44);
+        // 数据块、监测点表、索引、文件尾首尾相接，任何一段越界都说明文件尾已损坏
+        if (pointTableOffset < ColdSegmentWriter.HEADER_BYTES || pointCount < 0 || entryCount < 0
+                || indexOffset != pointTableOffset + (long) pointCount * Long.BYTES
+                || indexOffset + (long) entryCount * ColdSegmentWriter.INDEX_ENTRY_BYTES != footer) {
+            throw new IOException("段文件尾损坏：" + path);
+        }
+
+        long[] pointIds = new long[pointCount];
+        for (int i = 0; i < pointCount; i++) {
+            pointIds[i] = buffer.getLong((int) pointTableOffset + i * Long.BYTES);
+            if (i > 0 && pointIds[i] <= pointIds[i - 1]) {
+                throw new IOException("段文件监测点表损坏：" + path);
+            }
+        }
+        int[] slotStart = new int[pointCount + 1];
+        SegmentBlockInfo[] entries = new SegmentBlockInfo[entryCount];
+        int previousSlot = -1;
+        for (int i = 0; i < entryCount; i++) {
+            int at = (int) indexOffset + i * ColdSegmentWriter.INDEX_ENTRY_BYTES;
+            int slot = buffer.getInt(at);
+            long offset = buffer.getLong(at + 8);
+            int length = buffer.getInt(at + 16);
+            if (slot < 0 || slot < previousSlot || slot >= pointCount
+                    || offset < ColdSegmentWriter.HEADER_BYTES || length < 0 || offset + length > pointTableOffset) {
+                throw new IOException("段文件索引损坏：" + path);
+            }
+            for (int s = previousSlot + 1; s <= slot; s++) {
+                slotStart[s] = i;
+            }
+            previousSlot = slot;
+            entries[i] = new SegmentBlockInfo(pointIds[slot], buffer.getInt(at + 4), offset, length,
+                    buffer.getInt(at + 20), buffer.getLong(at + 24), buffer.getLong(at + 32),
+                    buffer.getInt(at + 40), buffer.getInt(at + 44), buffer.getDouble(at + 48), buffer.getDouble(at + 56));
+        }
+        for (int s = previousSlot + 1; s <= pointCount; s++) {
+            slotStart[s] = entryCount;
+        }
+        return new ColdSegment(path, buffer, firstDay, lastDay, maxRecordId, rowCount, pointIds, slotStart, entries);
+    }
+
+    /**
+     * 获取监测点在本段内的全部数据块索引项，可只依据区间统计回答查询而不解码
+     * @param monitoringPointId 监测点ID
+     * @return 按日期升序的索引项
+     */
+    public List<SegmentBlockInfo> blocks(long monitoringPointId) {
+        int slot = Arrays.binarySearch(pointIds, monitoringPointId);
+        if (slot < 0) {
+            return List.of();
+        }
+        return Arrays.asList(entries).subList(slotStart[slot], slotStart[slot + 1]);
+    }
+
+    /**
+     * 按时间顺序扫描监测点在 [开始, 结束) 内的读数
+     * @param monitoringPointId 监测点ID
+     * @param startEpochSecond 开始时间（含）
+     * @param endEpochSecond 结束时间（不含）
+     * @param blockFilter 数据块过滤条件，依据区间统计跳过不可能命中的数据块，可为null
+     * @param handler 读数回调，读数实例会被复用
+     * @return 回调的读数数量
+     */
+    public long scan(long monitoringPointId, long startEpochSecond, long endEpochSecond,
+                     Predicate<SegmentBlockInfo> blockFilter, Consumer<FlowReading> handler) {
+        int slot = Arrays.binarySearch(pointIds, monitoringPointId);
+        if (slot < 0) {
+            return 0L;
+        }
+        FlowBlock block = null;
+        FlowReading reading = null;
+        long count = 0;
+        for (int i = slotStart[slot]; i < slotStart[slot + 1]; i++) {
+            SegmentBlockInfo entry = entries[i];
+            if (!entry.overlaps(startEpochSecond, endEpochSecond)
+                    || (blockFilter != null && !blockFilter.test(entry))) {
+                continue;
+            }
+            if (block == null) {
+                block = new FlowBlock(entry.getRowCount());
+                reading = new FlowReading();
+            }
+            FlowBlockCodec.decode(buffer, (int) entry.getOffset(), entry.getLength(), block);
+            for (int row = 0; row < block.size(); row++) {
+                long epochSecond = block.getEpochSecond(row);
+                if (epochSecond < startEpochSecond || epochSecond >= endEpochSecond) {
+                    continue;
+                }
+                reading.reset();
+                reading.setMonitoringPointId(monitoringPointId);
+                block.read(row, reading);
+                handler.accept(reading);
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 列出段内全部数据块索引项
+     * @return 按监测点、日期排序的索引项
+     */
+    public List<SegmentBlockInfo> allBlocks() {
+        return new ArrayList<>(Arrays.asList(entries));
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public long getFirstDay() {
+        return firstDay;
+    }
+
+    public long getLastDay() {
+        return lastDay;
+    }
+
+    public long getMaxRecordId() {
+        return maxRecordId;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public int getPointCount() {
+        return pointIds.length;
+    }
+
+    public long getSizeInBytes() {
+        return buffer.capacity();
+    }
+}
@@ -0,0 +1,82 @@
+package com.example.enshitrafficplatform.storage.segment;
+
+import com.example.enshitrafficplatform.dto.FlowReading;
+import com.example.enshitrafficplatform.util.DateUtils;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * 冷数据段文件集合
+ * 段按覆盖日期升序排列且互不重叠；新增段时复制列表后整体替换，查询无需加锁
+ */
+public class ColdSegmentStore {
+
+    private volatile List<ColdSegment> segments = List.of();
+
+    /**
+     * 加入一个段文件
+     * @param segment 段文件，覆盖日期不能与已有段重叠
+     */
+    public synchronized void add(ColdSegment segment) {
+        for (ColdSegment existing : segments) {
+            if (segment.getFirstDay() <= existing.getLastDay() && existing.getFirstDay() <= segment.getLastDay()) {
+                throw new IllegalArgumentException("段文件覆盖日期重叠：" + segment.getPath() + "，" + existing.getPath());
+            }
+        }
+        List<ColdSegment> updated = new ArrayList<>(segments);
+        updated.add(segment);
+        updated.sort(Comparator.comparingLong(ColdSegment::getFirstDay));
+        segments = List.copyOf(updated);
+    }
+
+    public List<ColdSegment> getSegments() {
+        return segments;
+    }
+
+    /**
+     * 已覆盖的最后一天（本地日期序号）
+     * @return 最后一天，无段文件时为 {@link Long#MIN_VALUE}
+     */
+    public long getLastDay() {
+        List<ColdSegment> current = segments;
+        return current.isEmpty() ? Long.MIN_VALUE : current.get(current.size() - 1).getLastDay();
+    }
+
+    /**
+     * 按时间顺序扫描监测点在 [开始, 结束) 内的冷数据
+     * @param monitoringPointId 监测点ID
+     * @param startEpochSecond 开始时间（含）
+     * @param endEpochSecond 结束时间（不含）
+     * @param blockFilter 数据块过滤条件，可为null
+     * @param handler 读数回调，读数实例会被复用
+     * @return 回调的读数数量
+     */
+    public long scan(long monitoringPointId, long startEpochSecond, long endEpochSecond,
+                     Predicate<SegmentBlockInfo> blockFilter, Consumer<FlowReading> handler) {
+        if (startEpochSecond >= endEpochSecond) {
+            return 0L;
+        }
+        long firstDay = DateUtils.localEpochDay(startEpochSecond);
+        long lastDay = DateUtils.localEpochDay(endEpochSecond - 1);
+        long count = 0;
+        for (ColdSegment segment : segments) {
+            if (segment.getLastDay() < firstDay || segment.getFirstDay() > lastDay) {
+                continue;
+            }
+            count += segment.scan(monitoringPointId, startEpochSecond, endEpochSecond, blockFilter, handler);
+        }
+        return count;
+    }
+
+    public long getRowCount() {
+        return segments.stream().mapToLong(ColdSegment::getRowCount).sum();
+    }
+
+    public long getSizeInBytes() {
+        return segments.stream().mapToLong(ColdSegment::getSizeInBytes).sum();
+    }
+}
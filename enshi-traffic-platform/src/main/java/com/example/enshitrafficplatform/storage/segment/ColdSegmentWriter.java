@@ -0,0 +1,188 @@
+package com.example.enshitrafficplatform.storage.segment;
+
+import com.example.enshitrafficplatform.storage.codec.FlowBlock;
+import com.example.enshitrafficplatform.storage.codec.FlowBlockCodec;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 冷数据段文件写入器
+ * 依次写入压缩数据块，结束时写入监测点表、按 (监测点槽位, 日期) 排序的稀疏索引与文件尾。
+ * 先写入临时文件并刷盘，完成后原子重命名为目标文件，段文件一经生成不再修改。
+ * <pre>
+ * 文件头   magic(int) version(int)
+ * 数据块   FlowBlockCodec 编码的字节，依次排列
+ * 监测点表 pointId(long) × pointCount，升序，下标即槽位
+ * 索引     slot(int) epochDay(int) offset(long) length(int) rowCount(int)
+ *          minEpoch(long) maxEpoch(long) minFlow(int) maxFlow(int) minSpeed(double) maxSpeed(double)
+ * 文件尾   firstDay(int) lastDay(int) maxRecordId(long) rowCount(long)
+ *          pointTableOffset(long) pointCount(int) indexOffset(long) entryCount(int) magic(int)
+ * </pre>
+ */
+public class ColdSegmentWriter implements Closeable {
+
+    static final int MAGIC = 0x45545347;
+
+    static final int VERSION = 1;
+
+    static final int HEADER_BYTES = 8;
+
+    static final int INDEX_ENTRY_BYTES = 64;
+
+    static final int FOOTER_BYTES = 52;
+
+    /**
+     * 段文件整体映射到内存，大小不能超过单个映射区的上限
+     */
+    static final long MAX_SEGMENT_BYTES = Integer.MAX_VALUE;
+
+    private final Path target;
+
+    private final Path tempFile;
+
+    private final FileOutputStream fileOut;
+
+    private final DataOutputStream out;
+
+    private final List<SegmentBlockInfo> entries = new ArrayList<>();
+
+    private long position;
+
+    private long rowCount;
+
+    private long maxRecordId;
+
+    private boolean finished;
+
+    public ColdSegmentWriter(Path target) throws IOException {
+        this.target = target;
+        this.tempFile = target.resolveSibling(target.getFileName() + ".tmp");
+        Files.createDirectories(target.toAbsolutePath().getParent());
+        this.fileOut = new FileOutputStream(tempFile.toFile());
+        this.out = new DataOutputStream(new BufferedOutputStream(fileOut, 1 << 16));
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        position = HEADER_BYTES;
+    }
+
+    /**
+     * 编码并写入一个数据块
+     * @param monitoringPointId 监测点ID
+     * @param block 数据块，为空时忽略
+     * @throws IOException 写入失败
+     */
+    public void addBlock(long monitoringPointId, FlowBlock block) throws IOException {
+        if (block.isEmpty()) {
+            return;
+        }
+        writeBlock(monitoringPointId, block, FlowBlockCodec.encode(block));
+    }
+
+    /**
+     * 写入已编码的数据块，例如从归档表迁移的数据块
+     * @param monitoringPointId 监测点ID
+     * @param payload 编码后的数据块
+     * @throws IOException 写入失败
+     */
+    public void addEncodedBlock(long monitoringPointId, byte[] payload) throws IOException {
+        FlowBlock block = FlowBlockCodec.decode(payload);
+        if (block.isEmpty()) {
+            return;
+        }
+        writeBlock(monitoringPointId, block, payload);
+    }
+
+    /**
+     * 记录段内数据对应的最大原始记录ID，用于清理已迁移的原始记录
+     * @param maxRecordId 最大记录ID
+     */
+    public void setMaxRecordId(long maxRecordId) {
+        this.maxRecordId = maxRecordId;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * 写入索引与文件尾，刷盘后重命名为目标文件
+     * @param firstDay 段覆盖的首日（本地日期序号）
+     * @param lastDay 段覆盖的末日（本地日期序号）
+     * @return 目标文件路径
+     * @throws IOException 写入失败
+     */
+    public Path finish(long firstDay, long lastDay) throws IOException {
+        long[] pointIds = entries.stream().mapToLong(SegmentBlockInfo::getMonitoringPointId).distinct().sorted().toArray();
+        entries.sort(Comparator.comparingLong(SegmentBlockInfo::getMonitoringPointId)
+                .thenComparingLong(SegmentBlockInfo::getEpochDay));
+        long pointTableOffset = position;
+        for (long pointId : pointIds) {
+            out.writeLong(pointId);
+        }
+        long indexOffset = pointTableOffset + (long) pointIds.length * Long.BYTES;
+        for (SegmentBlockInfo entry : entries) {
+            out.writeInt(Arrays.binarySearch(pointIds, entry.getMonitoringPointId()));
+            out.writeInt((int) entry.getEpochDay());
+            out.writeLong(entry.getOffset());
+            out.writeInt(entry.getLength());
+            out.writeInt(entry.getRowCount());
+            out.writeLong(entry.getMinEpochSecond());
+            out.writeLong(entry.getMaxEpochSecond());
+            out.writeInt(entry.getMinFlowRate());
+            out.writeInt(entry.getMaxFlowRate());
+            out.writeDouble(entry.getMinAverageSpeed());
+            out.writeDouble(entry.getMaxAverageSpeed());
+        }
+        long fileBytes = indexOffset + (long) entries.size() * INDEX_ENTRY_BYTES + FOOTER_BYTES;
+        if (fileBytes > MAX_SEGMENT_BYTES) {
+            throw new IOException("段文件超过单个映射区上限：" + fileBytes + "字节");
+        }
+        out.writeInt((int) firstDay);
+        out.writeInt((int) lastDay);
+        out.writeLong(maxRecordId);
+        out.writeLong(rowCount);
+        out.writeLong(pointTableOffset);
+        out.writeInt(pointIds.length);
+        out.writeLong(indexOffset);
+        out.writeInt(entries.size());
+        out.writeInt(MAGIC);
+        out.flush();
+        fileOut.getChannel().force(true);
+        out.close();
+        finished = true;
+        Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return target;
+    }
+
+    /**
+     * 未完成时关闭会删除临时文件
+     */
+    @Override
+    public void close() throws IOException {
+        if (!finished) {
+            out.close();
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    private void writeBlock(long monitoringPointId, FlowBlock block, byte[] payload) throws IOException {
+        if (position + payload.length > MAX_SEGMENT_BYTES) {
+            throw new IOException("段文件超过单个映射区上限");
+        }
+        entries.add(SegmentBlockInfo.of(monitoringPointId, block, position, payload.length));
+        out.write(payload);
+        position += payload.length;
+        rowCount += block.size();
+    }
+}
@@ -0,0 +1,145 @@
+package com.example.enshitrafficplatform.storage.segment;
+
+import com.example.enshitrafficplatform.storage.codec.FlowBlock;
+import com.example.enshitrafficplatform.util.DateUtils;
+
+/**
+ * 段文件中一个数据块的索引项与区间统计（zone map）
+ * 查询时先按区间统计判断数据块是否可能命中，不命中的数据块无需解码
+ */
+public final class SegmentBlockInfo {
+
+    private final long monitoringPointId;
+
+    private final long epochDay;
+
+    private final long offset;
+
+    private final int length;
+
+    private final int rowCount;
+
+    private final long minEpochSecond;
+
+    private final long maxEpochSecond;
+
+    private final int minFlowRate;
+
+    private final int maxFlowRate;
+
+    private final double minAverageSpeed;
+
+    private final double maxAverageSpeed;
+
+    SegmentBlockInfo(long monitoringPointId, long epochDay, long offset, int length, int rowCount,
+                     long minEpochSecond, long maxEpochSecond, int minFlowRate, int maxFlowRate,
+                     double minAverageSpeed, double maxAverageSpeed) {
+        this.monitoringPointId = monitoringPointId;
+        this.epochDay = epochDay;
+        this.offset = offset;
+        this.length = length;
+        this.rowCount = rowCount;
+        this.minEpochSecond = minEpochSecond;
+        this.maxEpochSecond = maxEpochSecond;
+        this.minFlowRate = minFlowRate;
+        this.maxFlowRate = maxFlowRate;
+        this.minAverageSpeed = minAverageSpeed;
+        this.maxAverageSpeed = maxAverageSpeed;
+    }
+
+    /**
+     * 由数据块计算区间统计，缺失值不参与统计
+     * @param monitoringPointId 监测点ID
+     * @param block 数据块，不能为空
+     * @param offset 数据块在段文件中的偏移
+     * @param length 数据块字节数
+     * @return 索引项
+     */
+    static SegmentBlockInfo of(long monitoringPointId, FlowBlock block, long offset, int length) {
+        int minFlow = Integer.MAX_VALUE;
+        int maxFlow = Integer.MIN_VALUE;
+        double minSpeed = Double.NaN;
+        double maxSpeed = Double.NaN;
+        for (int row = 0; row < block.size(); row++) {
+            int flow = block.getFlowRate(row);
+            if (flow >= 0) {
+                minFlow = Math.min(minFlow, flow);
+                maxFlow = Math.max(maxFlow, flow);
+            }
+            double speed = block.getAverageSpeed(row);
+            if (!Double.isNaN(speed)) {
+                minSpeed = Double.isNaN(minSpeed) ? speed : Math.min(minSpeed, speed);
+                maxSpeed = Double.isNaN(maxSpeed) ? speed : Math.max(maxSpeed, speed);
+            }
+        }
+        long first = block.getEpochSecond(0);
+        return new SegmentBlockInfo(monitoringPointId, DateUtils.localEpochDay(first), offset, length, block.size(),
+                first, block.getEpochSecond(block.size() - 1), minFlow, maxFlow, minSpeed, maxSpeed);
+    }
+
+    public long getMonitoringPointId() {
+        return monitoringPointId;
+    }
+
+    public long getEpochDay() {
+        return epochDay;
+    }
+
+    public long getOffset() {
+        return offset;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public long getMinEpochSecond() {
+        return minEpochSecond;
+    }
+
+    public long getMaxEpochSecond() {
+        return maxEpochSecond;
+    }
+
+    /**
+     * @return 最小车流量，无有效流量时为 Integer.MAX_VALUE
+     */
+    public int getMinFlowRate() {
+        return minFlowRate;
+    }
+
+    /**
+     * @return 最大车流量，无有效流量时为 Integer.MIN_VALUE
+     */
+    public int getMaxFlowRate() {
+        return maxFlowRate;
+    }
+
+    /**
+     * @return 最低平均车速，无有效速度时为NaN
+     */
+    public double getMinAverageSpeed() {
+        return minAverageSpeed;
+    }
+
+    /**
+     * @return 最高平均车速，无有效速度时为NaN
+     */
+    public double getMaxAverageSpeed() {
+        return maxAverageSpeed;
+    }
+
+    /**
+     * 数据块时间范围是否与 [开始, 结束) 相交
+     * @param startEpochSecond 开始时间（含）
+     * @param endEpochSecond 结束时间（不含）
+     * @return 是否相交
+     */
+    public boolean overlaps(long startEpochSecond, long endEpochSecond) {
+        return maxEpochSecond >= startEpochSecond && minEpochSecond < endEpochSecond;
+    }
+}
@@ -0,0 +1,141 @@
+package com.example.enshitrafficplatform.util;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * 日期时间工具类
+ * 平台统一使用东八区（恩施所在时区，无夏令时）的本地时间与纪元秒之间互相换算，
+ * 供内存统计结构以基本类型保存时间戳
+ */
+public final class DateUtils {
+
+    /**
+     * 平台时区偏移（UTC+8）
+     */
+    public static final ZoneOffset ZONE_OFFSET = ZoneOffset.ofHours(8);
+
+    /**
+     * 时区偏移秒数
+     */
+    public static final int ZONE_OFFSET_SECONDS = 8 * 3600;
+
+    public static final int SECONDS_PER_DAY = 86400;
+
+    public static final int HOURS_PER_WEEK = 168;
+
+    public static final int MINUTES_PER_WEEK = 7 * 24 * 60;
+
+    /**
+     * SQL中把DATETIME列换算为平台纪元秒的表达式前缀，
+     * 用法：TIMESTAMPDIFF(SECOND, '1970-01-01 08:00:00', record_time)
+     */
+    public static final String SQL_EPOCH_ORIGIN = "'1970-01-01 08:00:00'";
+
+    private DateUtils() {
+    }
+
+    /**
+     * 本地时间转换为纪元秒
+     * @param dateTime 本地时间
+     * @return 纪元秒
+     */
+    public static long toEpochSecond(LocalDateTime dateTime) {
+        return dateTime.toEpochSecond(ZONE_OFFSET);
+    }
+
+    /**
+     * 纪元秒转换为本地时间
+     * @param epochSecond 纪元秒
+     * @return 本地时间
+     */
+    public static LocalDateTime fromEpochSecond(long epochSecond) {
+        return LocalDateTime.ofEpochSecond(epochSecond, 0, ZONE_OFFSET);
+    }
+
+    /**
+     * 获取纪元秒所在的本地日期序号（自1970-01-01起的天数）
+     * @param epochSecond 纪元秒
+     * @return 本地日期序号
+     */
+    public static long localEpochDay(long epochSecond) {
+        return Math.floorDiv(epochSecond + ZONE_OFFSET_SECONDS, SECONDS_PER_DAY);
+    }
+
+    /**
+     * 本地日期序号转换为当天零点的纪元秒
+     * @param epochDay 本地日期序号
+     * @return 当天零点的纪元秒
+     */
+    public static long startOfEpochDay(long epochDay) {
+        return epochDay * SECONDS_PER_DAY - ZONE_OFFSET_SECONDS;
+    }
+
+    /**
+     * 获取日期当天零点的纪元秒
+     * @param date 日期
+     * @return 零点纪元秒
+     */
+    public static long startOfDay(LocalDate date) {
+        return startOfEpochDay(date.toEpochDay());
+    }
+
+    /**
+     * 获取纪元秒对应的星期几（0-6，0表示周一）
+     * @param epochSecond 纪元秒
+     * @return 星期序号
+     */
+    public static int dayOfWeekIndex(long epochSecond) {
+        // 1970-01-01为周四
+        return (int) Math.floorMod(localEpochDay(epochSecond) + 3, 7);
+    }
+
+    /**
+     * 获取纪元秒对应的小时（0-23）
+     * @param epochSecond 纪元秒
+     * @return 小时
+     */
+    public static int hourOfDay(long epochSecond) {
+        return (int) (Math.floorMod(epochSecond + ZONE_OFFSET_SECONDS, SECONDS_PER_DAY) / 3600);
+    }
+
+    /**
+     * 获取纪元秒在一周内的小时序号（0-167，0表示周一0点）
+     * @param epochSecond 纪元秒
+     * @return 周内小时序号
+     */
+    public static int hourOfWeek(long epochSecond) {
+        return dayOfWeekIndex(epochSecond) * 24 + hourOfDay(epochSecond);
+    }
+
+    /**
+     * 获取本地时间在一周内的分钟序号（0-10079，0表示周一0点0分）
+     * @param dateTime 本地时间
+     * @return 周内分钟序号
+     */
+    public static int minuteOfWeek(LocalDateTime dateTime) {
+        return (dateTime.getDayOfWeek().getValue() - 1) * 1440
+                + dateTime.getHour() * 60
+                + dateTime.getMinute();
+    }
+
+    /**
+     * 获取纪元秒在一周内的分钟序号（0-10079，0表示周一0点0分）
+     * @param epochSecond 纪元秒
+     * @return 周内分钟序号
+     */
+    public static int minuteOfWeek(long epochSecond) {
+        return dayOfWeekIndex(epochSecond) * 1440
+                + (int) (Math.floorMod(epochSecond + ZONE_OFFSET_SECONDS, SECONDS_PER_DAY) / 60);
+    }
+
+    /**
+     * 将纪元秒向下取整到小时
+     * @param epochSecond 纪元秒
+     * @return 所在小时起点的纪元秒
+     */
+    public static long truncateToHour(long epochSecond) {
+        return Math.floorDiv(epochSecond, 3600) * 3600;
+    }
+}
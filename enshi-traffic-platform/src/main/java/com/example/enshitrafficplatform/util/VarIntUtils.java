@@ -0,0 +1,85 @@
+package com.example.enshitrafficplatform.util;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * 变长整数编码工具类
+ * 采用每字节7位有效数据、最高位为续位标志的编码，负数先做ZigZag变换
+ */
+public final class VarIntUtils {
+
+    private VarIntUtils() {
+    }
+
+    /**
+     * 写入无符号变长整数
+     * @param out 输出
+     * @param value 非负整数
+     * @throws IOException 写入失败
+     */
+    public static void writeUnsignedVarLong(DataOutput out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    /**
+     * 读取无符号变长整数
+     * @param in 输入
+     * @return 整数值
+     * @throws IOException 读取失败或数据格式错误
+     */
+    public static long readUnsignedVarLong(DataInput in) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("变长整数超出64位");
+    }
+
+    /**
+     * 写入有符号变长整数
+     * @param out 输出
+     * @param value 整数
+     * @throws IOException 写入失败
+     */
+    public static void writeVarLong(DataOutput out, long value) throws IOException {
+        writeUnsignedVarLong(out, zigZagEncode(value));
+    }
+
+    /**
+     * 读取有符号变长整数
+     * @param in 输入
+     * @return 整数值
+     * @throws IOException 读取失败或数据格式错误
+     */
+    public static long readVarLong(DataInput in) throws IOException {
+        return zigZagDecode(readUnsignedVarLong(in));
+    }
+
+    /**
+     * ZigZag编码，把绝对值小的负数映射为小的非负数
+     * @param value 有符号整数
+     * @return 编码结果
+     */
+    public static long zigZagEncode(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    /**
+     * ZigZag解码
+     * @param value 编码结果
+     * @return 有符号整数
+     */
+    public static long zigZagDecode(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.enshitrafficplatform.weather;
+
+/**
+ * 平面点集上的静态二维KD树
+ * 构建时按层交替以 x、y 坐标的中位数划分，节点按隐式平衡树存放在数组中（区间 [lo, hi) 的根为中点），
+ * 不分配节点对象。查询k个最近点时用有界数组保存当前候选，只在分割面距离小于当前第k近距离时进入另一侧
+ */
+public final class KdTree {
+
+    private final double[] xs;
+
+    private final double[] ys;
+
+    /**
+     * 树中位置对应的原始点序号
+     */
+    private final int[] indices;
+
+    private KdTree(double[] xs, double[] ys, int[] indices) {
+        this.xs = xs;
+        this.ys = ys;
+        this.indices = indices;
+    }
+
+    /**
+     * 构建KD树
+     * @param x 各点的 x 坐标
+     * @param y 各点的 y 坐标，长度与 x 相同
+     * @return KD树
+     */
+    public static KdTree build(double[] x, double[] y) {
+        if (x.length != y.length) {
+            throw new IllegalArgumentException("坐标数组长度不一致");
+        }
+        int n = x.length;
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        split(x, y, order, 0, n, 0);
+        double[] xs = new double[n];
+        double[] ys = new double[n];
+        for (int i = 0; i < n; i++) {
+            xs[i] = x[order[i]];
+            ys[i] = y[order[i]];
+        }
+        return new KdTree(xs, ys, order);
+    }
+
+    /**
+     * 点数
+     * @return 点数
+     */
+    public int size() {
+        return indices.length;
+    }
+
+    /**
+     * 查询距离 (x, y) 最近的至多k个点，按距离从近到远写入输出数组
+     * @param x 查询点 x 坐标
+     * @param y 查询点 y 坐标
+     * @param k 最多返回的点数
+     * @param maxDistance 最大距离，超出的点不返回
+     * @param outIndices 输出的原始点序号，长度不小于k
+     * @param outDistances 输出的距离，长度不小于k
+     * @return 返回的点数
+     */
+    public int nearest(double x, double y, int k, double maxDistance, int[] outIndices, double[] outDistances) {
+        if (k <= 0 || indices.length == 0) {
+            return 0;
+        }
+        Search search = new Search(x, y, k, maxDistance * maxDistance, outIndices, outDistances);
+        search(search, 0, indices.length, 0);
+        for (int i = 0; i < search.count; i++) {
+            outDistances[i] = Math.sqrt(outDistances[i]);
+        }
+        return search.count;
+    }
+
+    private void search(Search search, int lo, int hi, int depth) {
+        if (lo >= hi) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        double dx = search.x - xs[mid];
+        double dy = search.y - ys[mid];
+        search.offer(indices[mid], dx * dx + dy * dy);
+        double diff = (depth & 1) == 0 ? dx : dy;
+        if (diff < 0) {
+            search(search, lo, mid, depth + 1);
+            if (diff * diff <= search.bound()) {
+                search(search, mid + 1, hi, depth + 1);
+            }
+        } else {
+            search(search, mid + 1, hi, depth + 1);
+            if (diff * diff <= search.bound()) {
+                search(search, lo, mid, depth + 1);
+            }
+        }
+    }
+
+    /**
+     * 在 order[lo, hi) 上按当前层的坐标选出中位数放到中点，左侧不大于、右侧不小于中位数，再递归划分两侧
+     */
+    private static void split(double[] x, double[] y, int[] order, int lo, int hi, int depth) {
+        if (hi - lo <= 1) {
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        double[] axis = (depth & 1) == 0 ? x : y;
+        select(axis, order, lo, hi - 1, mid);
+        split(x, y, order, lo, mid, depth + 1);
+        split(x, y, order, mid + 1, hi, depth + 1);
+    }
+
+    /**
+     * 快速选择：重排 order[left, right] 使第 nth 位为按 axis 排序后的该位元素
+     */
+    private static void select(double[] axis, int[] order, int left, int right, int nth) {
+        while (left < right) {
+            double pivot = axis[order[(left + right) >>> 1]];
+            int i = left;
+            int j = right;
+            while (i <= j) {
+                while (axis[order[i]] < pivot) {
+                    i++;
+                }
+                while (axis[order[j]] > pivot) {
+                    j--;
+                }
+                if (i <= j) {
+                    int tmp = order[i];
+                    order[i] = order[j];
+                    order[j] = tmp;
+                    i++;
+                    j--;
+                }
+            }
+            if (nth <= j) {
+                right = j;
+            } else if (nth >= i) {
+                left = i;
+            } else {
+                return;
+            }
+        }
+    }
+
+    /**
+     * 一次查询的状态，候选按距离平方升序保存在输出数组中
+     */
+    private static final class Search {
+
+        private final double x;
+
+        private final double y;
+
+        private final int k;
+
+        private final double maxDistanceSquared;
+
+        private final int[] indices;
+
+        private final double[] distances;
+
+        private int count;
+
+        private Search(double x, double y, int k, double maxDistanceSquared, int[] indices, double[] distances) {
+            this.x = x;
+            this.y = y;
+            this.k = k;
+            this.maxDistanceSquared = maxDistanceSquared;
+            this.indices = indices;
+            this.distances = distances;
+        }
+
+        /**
+         * 当前需要进入的分割面距离平方上限
+         */
+        private double bound() {
+            return count < k ? maxDistanceSquared : distances[count - 1];
+        }
+
+        private void offer(int index, double distanceSquared) {
+            if (distanceSquared > maxDistanceSquared || (count == k && distanceSquared >= distances[count - 1])) {
+                return;
+            }
+            int i = count < k ? count++ : count - 1;
+            while (i > 0 && distances[i - 1] > distanceSquared) {
+                distances[i] = distances[i - 1];
+                indices[i] = indices[i - 1];
+                i--;
+            }
+            distances[i] = distanceSquared;
+            indices[i] = index;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.example.enshitrafficplatform.weather;
+
+/**
+ * 路段滑坡风险等级，描述与 WeatherRecord#evaluateLandslideRisk 一致
+ * 由前24小时、72小时累计降水量与路段的地质、坡度易发程度综合判定
+ */
+public enum LandslideRisk {
+
+    NONE("无风险"),
+
+    LOW("低风险"),
+
+    MODERATE("中风险"),
+
+    HIGH("高风险"),
+
+    EXTREME("极高风险");
+
+    /**
+     * 24小时累计降水量（毫米）超过各值时的降水等级 1-4
+     */
+    static final double[] RAINFALL_24H_THRESHOLDS = {25, 50, 100, 150};
+
+    /**
+     * 72小时累计降水量（毫米）超过各值时的降水等级 1-4
+     */
+    static final double[] RAINFALL_72H_THRESHOLDS = {50, 100, 150, 250};
+
+    /**
+     * 易发程度为该值时风险等级等于降水等级，每高一级风险上升一级，每低一级风险下降一级
+     */
+    static final int BASELINE_SUSCEPTIBILITY = 2;
+
+    private static final LandslideRisk[] VALUES = values();
+
+    private final String label;
+
+    LandslideRisk(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * 判定风险等级
+     * @param rainfall24h 前24小时累计降水量（毫米）
+     * @param rainfall72h 前72小时累计降水量（毫米）
+     * @param susceptibility 路段易发程度，见 {@link SectionTerrain#susceptibility()}
+     * @return 风险等级，没有达到降水等级时为 {@link #NONE}
+     */
+    public static LandslideRisk of(double rainfall24h, double rainfall72h, int susceptibility) {
+        int rainfallLevel = Math.max(level(rainfall24h, RAINFALL_24H_THRESHOLDS),
+                level(rainfall72h, RAINFALL_72H_THRESHOLDS));
+        if (rainfallLevel == 0) {
+            return NONE;
+        }
+        int level = rainfallLevel + susceptibility - BASELINE_SUSCEPTIBILITY;
+        return VALUES[Math.max(0, Math.min(EXTREME.ordinal(), level))];
+    }
+
+    private static int level(double rainfall, double[] thresholds) {
+        int level = 0;
+        while (level < thresholds.length && rainfall > thresholds[level]) {
+            level++;
+        }
+        return level;
+    }
+}
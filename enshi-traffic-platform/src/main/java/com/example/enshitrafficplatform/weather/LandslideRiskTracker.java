@@ -0,0 +1,225 @@
+package com.example.enshitrafficplatform.weather;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按累计降水量增量评估易发路段的滑坡风险（非线程安全，由调用方串行访问）
+ * 每个观测位置维护一个 {@link RainfallWindow}；每个易发路段也维护一个，其槽位为关联观测站槽位的反距离加权和。
+ * 观测站某小时的降水量变大时，只把加权后的增量写入引用该观测站的路段并重新判定这些路段；
+ * 窗口随整点前移时各路段的累计值随之减少，风险相应下降或解除。全程不回查天气记录
+ */
+public final class LandslideRiskTracker {
+
+    private final Map<List<Double>, RainfallWindow> stations = new HashMap<>();
+
+    private long currentHour;
+
+    private List<List<Double>> stationKeys = List.of();
+
+    /**
+     * 观测位置到引用它的路段（行号与权重）
+     */
+    private Map<List<Double>, List<Link>> links = Map.of();
+
+    private long[] sectionIds = new long[0];
+
+    private int[] susceptibility = new int[0];
+
+    private RainfallWindow[] sectionRain = new RainfallWindow[0];
+
+    private LandslideRisk[] levels = new LandslideRisk[0];
+
+    public LandslideRiskTracker(long currentHour) {
+        this.currentHour = currentHour;
+    }
+
+    /**
+     * 记录一条降水观测
+     * @param longitude 观测位置经度
+     * @param latitude 观测位置纬度
+     * @param hour 观测所在的纪元小时数
+     * @param precipitation 降水量（毫米）
+     * @return 风险等级变化的路段
+     */
+    public List<Change> observe(double longitude, double latitude, long hour, double precipitation) {
+        List<Change> changes = new ArrayList<>();
+        if (hour > currentHour) {
+            changes.addAll(advanceTo(hour));
+        }
+        List<Double> key = List.of(longitude, latitude);
+        double delta = stations.computeIfAbsent(key, k -> new RainfallWindow(currentHour))
+                .raise(hour, precipitation);
+        if (delta > 0) {
+            for (Link link : links.getOrDefault(key, List.of())) {
+                sectionRain[link.section()].add(hour, delta * link.weight());
+                rescore(link.section(), changes);
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * 全部窗口前移到某小时，移出窗口的降水不再计入
+     * @param hour 纪元小时数
+     * @return 风险等级变化的路段
+     */
+    public List<Change> advanceTo(long hour) {
+        if (hour <= currentHour) {
+            return List.of();
+        }
+        currentHour = hour;
+        for (RainfallWindow window : stations.values()) {
+            window.advanceTo(hour);
+        }
+        List<Change> changes = new ArrayList<>();
+        for (int i = 0; i < sectionIds.length; i++) {
+            if (sectionRain[i].advanceTo(hour)) {
+                rescore(i, changes);
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * 观测站集合是否与当前关联的相同，相同时无需重新关联
+     * @param join 路段天气关联
+     * @return 是否相同
+     */
+    public boolean hasSameStations(SectionWeatherJoin join) {
+        return stationKeys.equals(keysOf(join));
+    }
+
+    /**
+     * 按新的空间关联与路段属性重新建立易发路段，路段的累计值由观测站窗口加权汇总
+     * @param join 路段天气关联
+     * @param terrain 路段属性，易发程度为0或没有关联观测站的路段不跟踪
+     * @return 风险等级变化的路段，包括不再跟踪且此前有风险的路段
+     */
+    public List<Change> attach(SectionWeatherJoin join, List<SectionTerrain> terrain) {
+        List<SectionTerrain> tracked = new ArrayList<>();
+        for (SectionTerrain section : terrain) {
+            if (section.susceptibility() > 0 && join.neighbors(section.roadSectionId()) != null) {
+                tracked.add(section);
+            }
+        }
+        tracked.sort((a, b) -> Long.compare(a.roadSectionId(), b.roadSectionId()));
+
+        List<List<Double>> keys = keysOf(join);
+        Map<List<Double>, List<Link>> newLinks = new HashMap<>();
+        long[] ids = new long[tracked.size()];
+        int[] points = new int[tracked.size()];
+        RainfallWindow[] rain = new RainfallWindow[tracked.size()];
+        LandslideRisk[] newLevels = new LandslideRisk[tracked.size()];
+        for (int i = 0; i < tracked.size(); i++) {
+            SectionTerrain section = tracked.get(i);
+            ids[i] = section.roadSectionId();
+            points[i] = section.susceptibility();
+            rain[i] = new RainfallWindow(currentHour);
+            SectionWeatherJoin.Neighbors neighbors = join.neighbors(section.roadSectionId());
+            for (int n = 0; n < neighbors.stations().length; n++) {
+                List<Double> key = keys.get(neighbors.stations()[n]);
+                double weight = neighbors.weights()[n];
+                RainfallWindow station = stations.computeIfAbsent(key, k -> new RainfallWindow(currentHour));
+                rain[i].addScaled(station, weight);
+                newLinks.computeIfAbsent(key, k -> new ArrayList<>()).add(new Link(i, weight));
+            }
+            int previous = Arrays.binarySearch(sectionIds, ids[i]);
+            newLevels[i] = previous >= 0 ? levels[previous] : LandslideRisk.NONE;
+        }
+
+        List<Change> changes = new ArrayList<>();
+        for (int i = 0; i < sectionIds.length; i++) {
+            if (levels[i] != LandslideRisk.NONE && Arrays.binarySearch(ids, sectionIds[i]) < 0) {
+                changes.add(new Change(sectionIds[i], levels[i], LandslideRisk.NONE, 0, 0));
+            }
+        }
+        stationKeys = keys;
+        links = newLinks;
+        sectionIds = ids;
+        susceptibility = points;
+        sectionRain = rain;
+        levels = newLevels;
+        stations.entrySet().removeIf(e -> e.getValue().getSum72() == 0 && !newLinks.containsKey(e.getKey()));
+        for (int i = 0; i < ids.length; i++) {
+            rescore(i, changes);
+        }
+        return changes;
+    }
+
+    /**
+     * 获取路段当前的风险评估
+     * @param roadSectionId 路段ID
+     * @return 评估结果，路段不是易发路段或附近没有观测站时为null
+     */
+    public SectionLandslideRisk get(long roadSectionId) {
+        int row = Arrays.binarySearch(sectionIds, roadSectionId);
+        if (row < 0) {
+            return null;
+        }
+        return new SectionLandslideRisk(roadSectionId, levels[row], susceptibility[row],
+                sectionRain[row].getSum24(), sectionRain[row].getSum72());
+    }
+
+    /**
+     * 跟踪中的易发路段数
+     * @return 路段数
+     */
+    public int getSectionCount() {
+        return sectionIds.length;
+    }
+
+    /**
+     * 风险等级不低于某一级的路段数
+     * @param level 风险等级
+     * @return 路段数
+     */
+    public int countAtLeast(LandslideRisk level) {
+        int count = 0;
+        for (LandslideRisk current : levels) {
+            if (current.compareTo(level) >= 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    public long getCurrentHour() {
+        return currentHour;
+    }
+
+    private void rescore(int section, List<Change> changes) {
+        RainfallWindow rain = sectionRain[section];
+        LandslideRisk level = LandslideRisk.of(rain.getSum24(), rain.getSum72(), susceptibility[section]);
+        if (level != levels[section]) {
+            changes.add(new Change(sectionIds[section], levels[section], level, rain.getSum24(), rain.getSum72()));
+            levels[section] = level;
+        }
+    }
+
+    private static List<List<Double>> keysOf(SectionWeatherJoin join) {
+        List<List<Double>> keys = new ArrayList<>(join.getStationCount());
+        for (int i = 0; i < join.getStationCount(); i++) {
+            keys.add(List.of(join.getStation(i).getLongitude(), join.getStation(i).getLatitude()));
+        }
+        return keys;
+    }
+
+    private record Link(int section, double weight) {
+    }
+
+    /**
+     * 路段风险等级的一次变化
+     * @param roadSectionId 路段ID
+     * @param previous 变化前的等级
+     * @param current 变化后的等级
+     * @param rainfall24h 变化时的24小时累计降水量（毫米）
+     * @param rainfall72h 变化时的72小时累计降水量（毫米）
+     */
+    public record Change(long roadSectionId, LandslideRisk previous, LandslideRisk current,
+                         double rainfall24h, double rainfall72h) {
+    }
+}
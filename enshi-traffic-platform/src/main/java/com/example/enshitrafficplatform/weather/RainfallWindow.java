@@ -0,0 +1,152 @@
+package com.example.enshitrafficplatform.weather;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * 逐小时降水量的72小时环形缓冲区
+ * 第 h 小时（纪元小时数）存放在 h mod 72 号槽位，窗口随最新小时前移时清空移出的槽位，
+ * 同时维护最近24小时与72小时的累计值，写入与前移都只改动涉及的槽位，不重新求和
+ */
+public final class RainfallWindow {
+
+    /**
+     * 窗口长度（小时）
+     */
+    public static final int HOURS = 72;
+
+    /**
+     * 短期累计的长度（小时）
+     */
+    public static final int SHORT_HOURS = 24;
+
+    private final double[] slots = new double[HOURS];
+
+    /**
+     * 窗口中最新的小时，窗口覆盖 (latestHour - 72, latestHour]
+     */
+    private long latestHour;
+
+    private double sum24;
+
+    private double sum72;
+
+    public RainfallWindow(long latestHour) {
+        this.latestHour = latestHour;
+    }
+
+    /**
+     * 时间所在的纪元小时数，按本地时间的整点划分
+     * @param time 时间
+     * @return 纪元小时数
+     */
+    public static long hourOf(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 3600L);
+    }
+
+    /**
+     * 记录某小时的降水量，同一小时已有更大的值时不变
+     * @param hour 纪元小时数，晚于窗口时窗口先前移
+     * @param precipitation 降水量（毫米）
+     * @return 该小时降水量的增量，早于窗口或没有变大时为0
+     */
+    public double raise(long hour, double precipitation) {
+        advanceTo(hour);
+        if (hour <= latestHour - HOURS) {
+            return 0;
+        }
+        double delta = precipitation - slots[slot(hour)];
+        if (!(delta > 0)) {
+            return 0;
+        }
+        add(hour, delta);
+        return delta;
+    }
+
+    /**
+     * 在某小时上累加降水量，用于按权重汇总观测站的增量
+     * @param hour 纪元小时数，晚于窗口时窗口先前移
+     * @param delta 增量（毫米）
+     */
+    public void add(long hour, double delta) {
+        advanceTo(hour);
+        if (hour <= latestHour - HOURS) {
+            return;
+        }
+        slots[slot(hour)] += delta;
+        sum72 += delta;
+        if (hour > latestHour - SHORT_HOURS) {
+            sum24 += delta;
+        }
+    }
+
+    /**
+     * 按权重累加另一窗口的全部槽位，两个窗口先前移到同一小时
+     * @param other 另一窗口
+     * @param weight 权重
+     */
+    public void addScaled(RainfallWindow other, double weight) {
+        long hour = Math.max(latestHour, other.latestHour);
+        advanceTo(hour);
+        other.advanceTo(hour);
+        for (int i = 0; i < HOURS; i++) {
+            slots[i] += other.slots[i] * weight;
+        }
+        sum24 += other.sum24 * weight;
+        sum72 += other.sum72 * weight;
+    }
+
+    /**
+     * 窗口前移到某小时，移出的小时从累计值中扣除
+     * @param hour 纪元小时数，不晚于当前最新小时时不变
+     * @return 累计值是否变化
+     */
+    public boolean advanceTo(long hour) {
+        if (hour <= latestHour) {
+            return false;
+        }
+        if (hour - latestHour >= HOURS) {
+            boolean changed = sum72 != 0;
+            Arrays.fill(slots, 0);
+            sum24 = 0;
+            sum72 = 0;
+            latestHour = hour;
+            return changed;
+        }
+        double before24 = sum24;
+        double before72 = sum72;
+        for (long h = latestHour + 1; h <= hour; h++) {
+            sum24 -= slots[slot(h - SHORT_HOURS)];
+            int expired = slot(h);
+            sum72 -= slots[expired];
+            slots[expired] = 0;
+        }
+        latestHour = hour;
+        return sum24 != before24 || sum72 != before72;
+    }
+
+    /**
+     * 最近24小时累计降水量
+     * @return 毫米
+     */
+    public double getSum24() {
+        return sum24 > 0 ? sum24 : 0;
+    }
+
+    /**
+     * 最近72小时累计降水量
+     * @return 毫米
+     */
+    public double getSum72() {
+        return sum72 > 0 ? sum72 : 0;
+    }
+
+    public long getLatestHour() {
+        return latestHour;
+    }
+
+    private static int slot(long hour) {
+        return (int) Math.floorMod(hour, (long) HOURS);
+    }
+}
@@ -0,0 +1,34 @@
+package com.example.enshitrafficplatform.weather;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 单个易发路段的滑坡风险评估
+ */
+@Getter
+@AllArgsConstructor
+public class SectionLandslideRisk {
+
+    private final Long roadSectionId;
+
+    /**
+     * 风险等级
+     */
+    private final LandslideRisk level;
+
+    /**
+     * 易发程度（1-3），见 {@link SectionTerrain#susceptibility()}
+     */
+    private final int susceptibility;
+
+    /**
+     * 前24小时累计降水量（毫米），为关联观测站的反距离加权值
+     */
+    private final double rainfall24h;
+
+    /**
+     * 前72小时累计降水量（毫米）
+     */
+    private final double rainfall72h;
+}
@@ -0,0 +1,33 @@
+package com.example.enshitrafficplatform.weather;
+
+/**
+ * 路段影响滑坡易发程度的属性
+ * @param roadSectionId 路段ID
+ * @param geologicalRisk 地质风险描述
+ * @param averageSlope 平均坡度
+ * @param maxSlope 最大坡度
+ */
+public record SectionTerrain(Long roadSectionId, String geologicalRisk, Double averageSlope, Double maxSlope) {
+
+    /**
+     * 易发程度：地质风险描述含滑坡、泥石流或高风险记2，含中风险记1；
+     * 陡坡路段（平均坡度大于8或最大坡度大于15）再加1。为0的路段不视为易发路段
+     * 地质风险的判断与 RoadSection#calculateRiskIndex 相同
+     * @return 易发程度（0-3）
+     */
+    public int susceptibility() {
+        int points = 0;
+        if (geologicalRisk != null && !geologicalRisk.isEmpty()) {
+            if (geologicalRisk.contains("滑坡") || geologicalRisk.contains("泥石流")
+                    || geologicalRisk.contains("高风险")) {
+                points += 2;
+            } else if (geologicalRisk.contains("中风险")) {
+                points += 1;
+            }
+        }
+        if ((averageSlope != null && averageSlope > 8.0) || (maxSlope != null && maxSlope > 15.0)) {
+            points += 1;
+        }
+        return points;
+    }
+}
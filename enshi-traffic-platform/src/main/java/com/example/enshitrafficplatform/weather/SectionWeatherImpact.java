@@ -0,0 +1,39 @@
+package com.example.enshitrafficplatform.weather;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 单个路段的天气影响评分，各项含义同 WeatherRecord 中的同名计算
+ */
+@Getter
+@AllArgsConstructor
+public class SectionWeatherImpact {
+
+    private final Long roadSectionId;
+
+    /**
+     * 交通影响程度（0-10）
+     */
+    private final int trafficImpactLevel;
+
+    /**
+     * 恩施山区天气交通影响指数（0-10）
+     */
+    private final double enshiImpactIndex;
+
+    /**
+     * 路面湿滑指数（0-5）
+     */
+    private final int slipperyIndex;
+
+    /**
+     * 山区地形放大系数（1.0-2.0）
+     */
+    private final double terrainFactor;
+
+    /**
+     * 是否为山区复杂天气
+     */
+    private final boolean mountainComplex;
+}
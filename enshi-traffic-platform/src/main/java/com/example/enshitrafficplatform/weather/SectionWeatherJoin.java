@@ -0,0 +1,264 @@
+package com.example.enshitrafficplatform.weather;
+
+import com.example.enshitrafficplatform.entity.WeatherRecord;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 路段与天气观测站的空间关联（不可变）
+ * 观测站为有经纬度的天气记录所在位置，每个位置取最新一条记录作为当前观测。
+ * 经纬度按观测站平均纬度做等距圆柱投影换算为公里坐标后建KD树，恩施州范围内的距离误差可忽略；
+ * 构建时为每个路段中心点预先算出最近的k个观测站及反距离权重，查询时不再做空间计算
+ */
+public final class SectionWeatherJoin {
+
+    /**
+     * 每纬度对应的公里数
+     */
+    static final double KM_PER_DEGREE = 111.195;
+
+    /**
+     * 计算反距离权重时的最小距离（公里），避免观测站与路段中心重合时权重无穷大
+     */
+    static final double MIN_DISTANCE_KM = 0.01;
+
+    private static final SectionWeatherJoin EMPTY = build(List.of(), List.of(), 1, 2.0, 0.0);
+
+    private final List<WeatherRecord> stations;
+
+    private final double lonScale;
+
+    private final KdTree tree;
+
+    private final int neighborCount;
+
+    private final double power;
+
+    private final double maxDistanceKm;
+
+    private final Map<Long, Neighbors> sections;
+
+    private SectionWeatherJoin(List<WeatherRecord> stations, double lonScale, KdTree tree, int neighborCount,
+                               double power, double maxDistanceKm, Map<Long, Neighbors> sections) {
+        this.stations = stations;
+        this.lonScale = lonScale;
+        this.tree = tree;
+        this.neighborCount = neighborCount;
+        this.power = power;
+        this.maxDistanceKm = maxDistanceKm;
+        this.sections = sections;
+    }
+
+    /**
+     * 尚未构建时使用的空关联
+     * @return 没有观测站和路段的关联
+     */
+    public static SectionWeatherJoin empty() {
+        return EMPTY;
+    }
+
+    /**
+     * 构建空间关联
+     * @param stations 各观测站的当前观测，经纬度均不为null
+     * @param sectionPoints 路段中心点
+     * @param neighborCount 每个路段关联的观测站数k
+     * @param power 反距离权重的幂次
+     * @param maxDistanceKm 最大关联距离（公里），超出的观测站不参与
+     * @return 空间关联
+     */
+    public static SectionWeatherJoin build(List<WeatherRecord> stations, Collection<SectionPoint> sectionPoints,
+                                           int neighborCount, double power, double maxDistanceKm) {
+        List<WeatherRecord> copy = List.copyOf(stations);
+        double latitudeSum = 0;
+        for (WeatherRecord station : copy) {
+            latitudeSum += station.getLatitude();
+        }
+        double referenceLatitude = copy.isEmpty() ? 0 : latitudeSum / copy.size();
+        double lonScale = KM_PER_DEGREE * Math.cos(Math.toRadians(referenceLatitude));
+        double[] x = new double[copy.size()];
+        double[] y = new double[copy.size()];
+        for (int i = 0; i < copy.size(); i++) {
+            x[i] = copy.get(i).getLongitude() * lonScale;
+            y[i] = copy.get(i).getLatitude() * KM_PER_DEGREE;
+        }
+        SectionWeatherJoin join = new SectionWeatherJoin(copy, lonScale, KdTree.build(x, y),
+                Math.max(neighborCount, 1), power, maxDistanceKm, Map.of());
+        return join.withSections(sectionPoints);
+    }
+
+    /**
+     * 沿用观测站与KD树，重新计算路段的关联，用于路段新增或坐标变更
+     * @param sectionPoints 路段中心点
+     * @return 新的空间关联
+     */
+    public SectionWeatherJoin withSections(Collection<SectionPoint> sectionPoints) {
+        Map<Long, Neighbors> located = new HashMap<>(sectionPoints.size() * 2);
+        for (SectionPoint point : sectionPoints) {
+            Neighbors neighbors = locate(point.longitude(), point.latitude());
+            if (neighbors != null) {
+                located.put(point.roadSectionId(), neighbors);
+            }
+        }
+        return new SectionWeatherJoin(stations, lonScale, tree, neighborCount, power, maxDistanceKm, located);
+    }
+
+    /**
+     * 从天气记录中取出各观测位置的最新一条，经纬度缺失的记录不参与
+     * 时间相同的按ID取较大者
+     * @param records 天气记录
+     * @return 各观测站的当前观测
+     */
+    public static List<WeatherRecord> latestByLocation(Collection<WeatherRecord> records) {
+        Comparator<WeatherRecord> order = Comparator.comparing(WeatherRecord::getRecordTime)
+                .thenComparing(WeatherRecord::getId, Comparator.nullsFirst(Comparator.naturalOrder()));
+        Map<List<Double>, WeatherRecord> latest = new LinkedHashMap<>();
+        for (WeatherRecord record : records) {
+            if (record.getLongitude() == null || record.getLatitude() == null || record.getRecordTime() == null) {
+                continue;
+            }
+            latest.merge(List.of(record.getLongitude(), record.getLatitude()), record,
+                    (current, candidate) -> order.compare(candidate, current) > 0 ? candidate : current);
+        }
+        return new ArrayList<>(latest.values());
+    }
+
+    /**
+     * 计算任意位置（如监测点）最近的观测站及权重
+     * @param longitude 经度
+     * @param latitude 纬度
+     * @return 关联结果，最大距离内没有观测站时为null
+     */
+    public Neighbors locate(double longitude, double latitude) {
+        int[] indices = new int[neighborCount];
+        double[] distances = new double[neighborCount];
+        int count = tree.nearest(longitude * lonScale, latitude * KM_PER_DEGREE, neighborCount, maxDistanceKm,
+                indices, distances);
+        if (count == 0) {
+            return null;
+        }
+        double[] weights = new double[count];
+        double total = 0;
+        for (int i = 0; i < count; i++) {
+            weights[i] = 1.0 / Math.pow(Math.max(distances[i], MIN_DISTANCE_KM), power);
+            total += weights[i];
+        }
+        for (int i = 0; i < count; i++) {
+            weights[i] /= total;
+        }
+        return new Neighbors(copyOf(indices, count), copyOf(distances, count), weights);
+    }
+
+    /**
+     * 获取路段关联的观测站
+     * @param roadSectionId 路段ID
+     * @return 关联结果，路段没有坐标或附近没有观测站时为null
+     */
+    public Neighbors neighbors(Long roadSectionId) {
+        return sections.get(roadSectionId);
+    }
+
+    /**
+     * 获取路段最近的观测站的当前观测，用于天气状况等不能插值的属性
+     * @param roadSectionId 路段ID
+     * @return 当前观测，没有关联的观测站时为null
+     */
+    public WeatherRecord nearest(Long roadSectionId) {
+        Neighbors neighbors = sections.get(roadSectionId);
+        return neighbors != null ? stations.get(neighbors.stations()[0]) : null;
+    }
+
+    /**
+     * 按反距离权重插值路段的某项观测值
+     * 观测值为NaN的观测站不参与，其余观测站的权重重新归一
+     * @param roadSectionId 路段ID
+     * @param value 从观测中取值，缺失时返回NaN
+     * @return 插值结果，没有可用的观测值时为NaN
+     */
+    public double interpolate(Long roadSectionId, ToDoubleFunction<WeatherRecord> value) {
+        Neighbors neighbors = sections.get(roadSectionId);
+        return neighbors != null ? interpolate(neighbors, value) : Double.NaN;
+    }
+
+    /**
+     * 按反距离权重插值某项观测值
+     * @param neighbors 关联结果
+     * @param value 从观测中取值，缺失时返回NaN
+     * @return 插值结果，没有可用的观测值时为NaN
+     */
+    public double interpolate(Neighbors neighbors, ToDoubleFunction<WeatherRecord> value) {
+        double sum = 0;
+        double weightSum = 0;
+        for (int i = 0; i < neighbors.stations().length; i++) {
+            double v = value.applyAsDouble(stations.get(neighbors.stations()[i]));
+            if (!Double.isNaN(v)) {
+                sum += v * neighbors.weights()[i];
+                weightSum += neighbors.weights()[i];
+            }
+        }
+        return weightSum > 0 ? sum / weightSum : Double.NaN;
+    }
+
+    /**
+     * 获取观测站的当前观测
+     * @param index 观测站序号
+     * @return 当前观测
+     */
+    public WeatherRecord getStation(int index) {
+        return stations.get(index);
+    }
+
+    public List<WeatherRecord> getStations() {
+        return stations;
+    }
+
+    public int getStationCount() {
+        return stations.size();
+    }
+
+    public int getSectionCount() {
+        return sections.size();
+    }
+
+    /**
+     * 有关联观测站的路段
+     * @return 路段ID集合
+     */
+    public Set<Long> getSectionIds() {
+        return sections.keySet();
+    }
+
+    private static int[] copyOf(int[] array, int length) {
+        return length == array.length ? array : Arrays.copyOf(array, length);
+    }
+
+    private static double[] copyOf(double[] array, int length) {
+        return length == array.length ? array : Arrays.copyOf(array, length);
+    }
+
+    /**
+     * 路段中心点
+     * @param roadSectionId 路段ID
+     * @param longitude 经度
+     * @param latitude 纬度
+     */
+    public record SectionPoint(Long roadSectionId, double longitude, double latitude) {
+    }
+
+    /**
+     * 关联结果，按距离从近到远排列
+     * @param stations 观测站序号，见 {@link #getStation}
+     * @param distancesKm 距离（公里）
+     * @param weights 归一化的反距离权重
+     */
+    public record Neighbors(int[] stations, double[] distancesKm, double[] weights) {
+    }
+}
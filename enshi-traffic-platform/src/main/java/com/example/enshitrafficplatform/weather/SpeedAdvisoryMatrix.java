@@ -0,0 +1,274 @@
+package com.example.enshitrafficplatform.weather;
+
+import com.example.enshitrafficplatform.dictionary.WeatherCondition;
+import com.example.enshitrafficplatform.entity.Road;
+import com.example.enshitrafficplatform.entity.RoadSection;
+import com.example.enshitrafficplatform.entity.WeatherRecord;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 路段 × 离散天气状态的建议车速矩阵（不可变）
+ * 天气状态由天气状况、能见度档、降水档、温度档、风速档组成，各档的边界取自现有公式的全部阈值，
+ * 同一档内现有公式的结果不变，因此每档取一个代表值计算一次即可代表整档。
+ * 建议车速取 RoadSection#calculateWeatherAdjustedSpeedLimit 与 WeatherRecord#getSuggestedSpeedLimit 中较低者，
+ * 两者都直接调用实体上的原公式计算。
+ * 路段只通过道路限速、是否陡坡、是否急弯影响结果，相同组合的路段共用矩阵中的一行；查询为一次数组读取
+ */
+public final class SpeedAdvisoryMatrix {
+
+    /**
+     * 路段没有道路限速、无法给出建议车速
+     */
+    public static final int NO_ADVISORY = -1;
+
+    /**
+     * 字典之外、现有限速公式能识别的两种天气描述
+     */
+    static final String SNOW_LABEL = "雪";
+
+    static final String ICE_SNOW_LABEL = "冰雪";
+
+    static final int CONDITIONS = WeatherCondition.values().length + 2;
+
+    static final double[] VISIBILITY_BOUNDS = {50, 100, 200, 500, 1000, 2000};
+
+    static final int VISIBILITY_BANDS = VISIBILITY_BOUNDS.length + 1;
+
+    static final int PRECIPITATION_BANDS = 9;
+
+    static final int TEMPERATURE_BANDS = 6;
+
+    static final int WIND_BANDS = 9;
+
+    static final int STATES = CONDITIONS * VISIBILITY_BANDS * PRECIPITATION_BANDS * TEMPERATURE_BANDS * WIND_BANDS;
+
+    /**
+     * 各档的代表值，null表示缺失；最后一档与缺失对现有公式的作用相同
+     */
+    private static final Double[] VISIBILITY_VALUES = {25.0, 75.0, 150.0, 300.0, 750.0, 1500.0, null};
+
+    private static final Double[] PRECIPITATION_VALUES = {null, 0.05, 5.0, 10.0, 15.0, 30.0, 75.0, 150.0, 300.0};
+
+    private static final Double[] TEMPERATURE_VALUES = {-15.0, -7.0, -2.0, 1.0, 3.0, null};
+
+    private static final Double[] WIND_VALUES = {null, 9.0, 12.0, 15.0, 19.0, 22.0, 26.0, 30.0, 35.0};
+
+    private static final double[] WIND_BOUNDS = {10.8, 13.9, 17.2, 20.8, 24.5, 28.5, 32.7};
+
+    private final long[] roadSectionIds;
+
+    private final int[] profileOfSection;
+
+    private final short[] speeds;
+
+    private SpeedAdvisoryMatrix(long[] roadSectionIds, int[] profileOfSection, short[] speeds) {
+        this.roadSectionIds = roadSectionIds;
+        this.profileOfSection = profileOfSection;
+        this.speeds = speeds;
+    }
+
+    /**
+     * 为路段构建矩阵
+     * @param sections 路段的限速特征
+     * @return 建议车速矩阵
+     */
+    public static SpeedAdvisoryMatrix build(List<SectionProfile> sections) {
+        List<SectionProfile> sorted = new ArrayList<>(sections);
+        sorted.sort(Comparator.comparing(SectionProfile::roadSectionId));
+        long[] ids = new long[sorted.size()];
+        int[] profileOfSection = new int[sorted.size()];
+        Map<List<Object>, Integer> profileIndex = new HashMap<>();
+        List<RoadSection> profiles = new ArrayList<>();
+        for (int i = 0; i < sorted.size(); i++) {
+            RoadSection section = sorted.get(i).toRoadSection();
+            ids[i] = sorted.get(i).roadSectionId();
+            List<Object> key = Arrays.asList(section.getRoad().getSpeedLimit(), section.isSteepSlope(),
+                    section.isSharpCurve());
+            profileOfSection[i] = profileIndex.computeIfAbsent(key, k -> {
+                profiles.add(section);
+                return profiles.size() - 1;
+            });
+        }
+
+        short[] speeds = new short[profiles.size() * STATES];
+        WeatherRecord weather = new WeatherRecord();
+        int state = 0;
+        for (int condition = 0; condition < CONDITIONS; condition++) {
+            String label = conditionLabel(condition);
+            weather.setWeatherCondition(label);
+            for (int visibility = 0; visibility < VISIBILITY_BANDS; visibility++) {
+                weather.setVisibility(VISIBILITY_VALUES[visibility]);
+                Integer sectionVisibility = VISIBILITY_VALUES[visibility] != null
+                        ? VISIBILITY_VALUES[visibility].intValue() : null;
+                for (int precipitation = 0; precipitation < PRECIPITATION_BANDS; precipitation++) {
+                    weather.setPrecipitation(PRECIPITATION_VALUES[precipitation]);
+                    for (int temperature = 0; temperature < TEMPERATURE_BANDS; temperature++) {
+                        weather.setTemperature(TEMPERATURE_VALUES[temperature]);
+                        for (int wind = 0; wind < WIND_BANDS; wind++, state++) {
+                            weather.setWindSpeed(WIND_VALUES[wind]);
+                            for (int p = 0; p < profiles.size(); p++) {
+                                speeds[p * STATES + state] = (short) advisedSpeed(profiles.get(p), weather,
+                                        label, sectionVisibility);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        return new SpeedAdvisoryMatrix(ids, profileOfSection, speeds);
+    }
+
+    private static int advisedSpeed(RoadSection section, WeatherRecord weather, String label,
+                                    Integer visibility) {
+        Integer speedLimit = section.getRoad().getSpeedLimit();
+        if (speedLimit == null) {
+            return NO_ADVISORY;
+        }
+        return Math.min(section.calculateWeatherAdjustedSpeedLimit(label, visibility),
+                weather.getSuggestedSpeedLimit(speedLimit));
+    }
+
+    /**
+     * 获取路段在某一天气状态下的建议车速
+     * @param roadSectionId 路段ID
+     * @param state 天气状态，见 {@link #state}
+     * @return 建议车速（公里/小时），路段不在矩阵中或没有道路限速时为 {@link #NO_ADVISORY}
+     */
+    public int advisedSpeed(long roadSectionId, int state) {
+        int row = Arrays.binarySearch(roadSectionIds, roadSectionId);
+        return row >= 0 ? speeds[profileOfSection[row] * STATES + state] : NO_ADVISORY;
+    }
+
+    /**
+     * 离散化天气状态
+     * @param condition 天气状况序号，见 {@link #conditionIndex}
+     * @param visibility 能见度（米），缺失为NaN
+     * @param precipitation 降水量（毫米），缺失为NaN
+     * @param temperature 温度（摄氏度），缺失为NaN
+     * @param windSpeed 风速（米/秒），缺失为NaN
+     * @return 天气状态
+     */
+    public static int state(int condition, double visibility, double precipitation, double temperature,
+                            double windSpeed) {
+        return (((condition * VISIBILITY_BANDS + visibilityBand(visibility)) * PRECIPITATION_BANDS
+                + precipitationBand(precipitation)) * TEMPERATURE_BANDS
+                + temperatureBand(temperature)) * WIND_BANDS + windBand(windSpeed);
+    }
+
+    /**
+     * 天气描述在状态中的序号：字典内的描述取字典编码，“雪”“冰雪”另占两个序号，
+     * 其余字典之外的描述按 {@link WeatherCondition#OTHER} 处理
+     * @param weatherCondition 天气描述
+     * @return 序号
+     */
+    public static int conditionIndex(String weatherCondition) {
+        if (SNOW_LABEL.equals(weatherCondition)) {
+            return CONDITIONS - 2;
+        }
+        if (ICE_SNOW_LABEL.equals(weatherCondition)) {
+            return CONDITIONS - 1;
+        }
+        return WeatherCondition.fromLabel(weatherCondition).getCode();
+    }
+
+    static String conditionLabel(int condition) {
+        if (condition == CONDITIONS - 2) {
+            return SNOW_LABEL;
+        }
+        if (condition == CONDITIONS - 1) {
+            return ICE_SNOW_LABEL;
+        }
+        return WeatherCondition.fromCode(condition).getLabel();
+    }
+
+    /**
+     * 能见度按整数米比较，与 calculateWeatherAdjustedSpeedLimit 的整数参数一致
+     */
+    static int visibilityBand(double visibility) {
+        if (visibility != visibility) {
+            return VISIBILITY_BANDS - 1;
+        }
+        double meters = (int) visibility;
+        int band = 0;
+        while (band < VISIBILITY_BOUNDS.length && meters >= VISIBILITY_BOUNDS[band]) {
+            band++;
+        }
+        return band;
+    }
+
+    static int precipitationBand(double precipitation) {
+        if (!(precipitation > 0)) {
+            return 0;
+        }
+        if (precipitation < 0.1) {
+            return 1;
+        }
+        if (precipitation < 10) {
+            return 2;
+        }
+        if (precipitation == 10) {
+            return 3;
+        }
+        if (precipitation < 25) {
+            return 4;
+        }
+        return precipitation < 50 ? 5 : precipitation < 100 ? 6 : precipitation < 250 ? 7 : 8;
+    }
+
+    static int temperatureBand(double temperature) {
+        if (temperature != temperature || temperature >= 5) {
+            return 5;
+        }
+        return temperature <= -10 ? 0 : temperature <= -5 ? 1 : temperature <= 0 ? 2 : temperature <= 2 ? 3 : 4;
+    }
+
+    static int windBand(double windSpeed) {
+        if (!(windSpeed > 8.0)) {
+            return 0;
+        }
+        int band = 1;
+        while (band <= WIND_BOUNDS.length && windSpeed >= WIND_BOUNDS[band - 1]) {
+            band++;
+        }
+        return band;
+    }
+
+    public int getSectionCount() {
+        return roadSectionIds.length;
+    }
+
+    /**
+     * 矩阵中不同的限速特征组合数
+     * @return 行数
+     */
+    public int getProfileCount() {
+        return speeds.length / STATES;
+    }
+
+    /**
+     * 路段的限速特征
+     * @param roadSectionId 路段ID
+     * @param speedLimit 所属道路的限速，为null时不给出建议车速
+     * @param averageSlope 平均坡度
+     * @param averageCurvature 平均曲率
+     */
+    public record SectionProfile(Long roadSectionId, Integer speedLimit, Double averageSlope,
+                                 Double averageCurvature) {
+
+        RoadSection toRoadSection() {
+            Road road = new Road();
+            road.setSpeedLimit(speedLimit);
+            RoadSection section = new RoadSection();
+            section.setRoad(road);
+            section.setAverageSlope(averageSlope);
+            section.setAverageCurvature(averageCurvature);
+            return section;
+        }
+    }
+}
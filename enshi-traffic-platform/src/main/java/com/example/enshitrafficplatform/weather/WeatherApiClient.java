@@ -0,0 +1,237 @@
+package com.example.enshitrafficplatform.weather;
+
+import com.example.enshitrafficplatform.entity.WeatherRecord;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * 天气API客户端
+ * 按区域并发查询当前天气，并发数由固定大小的线程池限定。每个区域缓存上次响应的 ETag、Last-Modified
+ * 和已入库观测的时间：再次查询时发送 If-None-Match / If-Modified-Since，304 时不再解析；
+ * 200 但观测时间不晚于已入库观测的视为未变化。变化的结果须在入库后调用 {@link #commit}，
+ * 入库失败时缓存保持不变，下次查询重新取回
+ */
+public final class WeatherApiClient implements AutoCloseable {
+
+    /**
+     * 单个区域的查询结果
+     */
+    public enum Status {
+
+        /**
+         * 有新的观测，需要入库
+         */
+        CHANGED,
+
+        /**
+         * 返回了响应，但观测时间不晚于已入库的观测
+         */
+        UNCHANGED,
+
+        /**
+         * 服务端返回304
+         */
+        NOT_MODIFIED,
+
+        /**
+         * 请求或解析失败
+         */
+        FAILED
+    }
+
+    private final HttpClient httpClient;
+
+    private final ExecutorService executor;
+
+    private final String baseUrl;
+
+    private final String apiKey;
+
+    private final Duration timeout;
+
+    private final Function<String, WeatherRecord> parser;
+
+    private final Map<Long, Validators> cache = new ConcurrentHashMap<>();
+
+    /**
+     * 已取回、尚未确认入库的变化结果的缓存信息
+     */
+    private final Map<Long, Validators> pending = new ConcurrentHashMap<>();
+
+    /**
+     * @param baseUrl API地址，查询 {baseUrl}/current.json
+     * @param apiKey API密钥
+     * @param concurrency 最大并发请求数
+     * @param timeout 连接与请求超时
+     * @param parser 响应体解析，观测时间不能为空，解析失败时抛出运行时异常
+     */
+    public WeatherApiClient(String baseUrl, String apiKey, int concurrency, Duration timeout,
+                            Function<String, WeatherRecord> parser) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, concurrency), runnable -> {
+            Thread thread = new Thread(runnable, "weather-api-poller-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.httpClient = HttpClient.newBuilder().connectTimeout(timeout).build();
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl.substring(0, baseUrl.length() - 1) : baseUrl;
+        this.apiKey = apiKey;
+        this.timeout = timeout;
+        this.parser = parser;
+    }
+
+    /**
+     * 以已入库的最新观测时间初始化区域的缓存，不晚于该时间的观测视为未变化
+     * @param regionId 区域ID
+     * @param observedAt 已入库的最新观测时间
+     */
+    public void seed(long regionId, LocalDateTime observedAt) {
+        cache.merge(regionId, new Validators(null, null, observedAt), (current, seeded) ->
+                current.observedAt() != null && !current.observedAt().isBefore(observedAt) ? current : seeded);
+    }
+
+    /**
+     * 并发查询全部区域，等待全部完成后返回
+     * @param targets 查询的区域
+     * @return 与区域顺序一致的查询结果
+     */
+    public List<Fetch> fetchAll(List<Target> targets) {
+        List<Callable<Fetch>> tasks = new ArrayList<>(targets.size());
+        for (Target target : targets) {
+            tasks.add(() -> fetch(target));
+        }
+        List<Fetch> fetches = new ArrayList<>(targets.size());
+        try {
+            List<Future<Fetch>> futures = executor.invokeAll(tasks);
+            for (int i = 0; i < futures.size(); i++) {
+                try {
+                    fetches.add(futures.get(i).get());
+                } catch (ExecutionException e) {
+                    fetches.add(Fetch.failed(targets.get(i), String.valueOf(e.getCause())));
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            for (int i = fetches.size(); i < targets.size(); i++) {
+                fetches.add(Fetch.failed(targets.get(i), "查询被中断"));
+            }
+        }
+        return fetches;
+    }
+
+    /**
+     * 确认变化的结果已入库，更新区域的缓存
+     * @param fetch 状态为 {@link Status#CHANGED} 的查询结果
+     */
+    public void commit(Fetch fetch) {
+        Validators validators = pending.remove(fetch.target().regionId());
+        if (validators != null) {
+            cache.put(fetch.target().regionId(), validators);
+        }
+    }
+
+    private Fetch fetch(Target target) {
+        Validators cached = cache.get(target.regionId());
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri(target))
+                .timeout(timeout)
+                .header("Accept", "application/json")
+                .GET();
+        if (cached != null && cached.etag() != null) {
+            request.header("If-None-Match", cached.etag());
+        }
+        if (cached != null && cached.lastModified() != null) {
+            request.header("If-Modified-Since", cached.lastModified());
+        }
+
+        HttpResponse<String> response;
+        try {
+            response = httpClient.send(request.build(), HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            return Fetch.failed(target, e.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Fetch.failed(target, "查询被中断");
+        }
+        if (response.statusCode() == 304) {
+            return new Fetch(target, Status.NOT_MODIFIED, null, null);
+        }
+        if (response.statusCode() != 200) {
+            return Fetch.failed(target, "HTTP " + response.statusCode());
+        }
+
+        WeatherRecord record;
+        try {
+            record = parser.apply(response.body());
+        } catch (RuntimeException e) {
+            return Fetch.failed(target, "响应解析失败：" + e.getMessage());
+        }
+        if (record == null || record.getRecordTime() == null) {
+            return Fetch.failed(target, "响应缺少观测时间");
+        }
+        String etag = response.headers().firstValue("ETag").orElse(null);
+        String lastModified = response.headers().firstValue("Last-Modified").orElse(null);
+        if (cached != null && cached.observedAt() != null && !record.getRecordTime().isAfter(cached.observedAt())) {
+            cache.put(target.regionId(), new Validators(etag, lastModified, cached.observedAt()));
+            return new Fetch(target, Status.UNCHANGED, null, null);
+        }
+        record.setLongitude(target.longitude());
+        record.setLatitude(target.latitude());
+        pending.put(target.regionId(), new Validators(etag, lastModified, record.getRecordTime()));
+        return new Fetch(target, Status.CHANGED, record, null);
+    }
+
+    private URI uri(Target target) {
+        return URI.create(baseUrl + "/current.json?key=" + URLEncoder.encode(apiKey, StandardCharsets.UTF_8)
+                + "&q=" + target.latitude() + "," + target.longitude() + "&lang=zh");
+    }
+
+    @Override
+    public void close() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 查询的区域，以区域中心点查询
+     * @param regionId 区域ID
+     * @param longitude 中心点经度
+     * @param latitude 中心点纬度
+     */
+    public record Target(long regionId, double longitude, double latitude) {
+    }
+
+    /**
+     * 单个区域的查询结果
+     * @param target 查询的区域
+     * @param status 结果状态
+     * @param record 变化时的天气记录，经纬度已设为区域中心点，其他状态为null
+     * @param error 失败原因，其他状态为null
+     */
+    public record Fetch(Target target, Status status, WeatherRecord record, String error) {
+
+        private static Fetch failed(Target target, String error) {
+            return new Fetch(target, Status.FAILED, null, error);
+        }
+    }
+
+    private record Validators(String etag, String lastModified, LocalDateTime observedAt) {
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.enshitrafficplatform.weather;
+
+import com.example.enshitrafficplatform.dictionary.WeatherCondition;
+import com.example.enshitrafficplatform.entity.WeatherRecord;
+import com.example.enshitrafficplatform.util.DateUtils;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.util.function.Function;
+
+/**
+ * 天气API当前天气响应的解析
+ * 读取 current 节点：观测时间取 last_updated_epoch，风速由公里/小时换算为米/秒，能见度由公里换算为米，
+ * 天气描述按中文返回（请求带 lang=zh）；缺失的数值保留为null
+ */
+public final class WeatherApiParser implements Function<String, WeatherRecord> {
+
+    /**
+     * 写入天气记录的数据来源
+     */
+    public static final String DATA_SOURCE = "天气API";
+
+    private final ObjectMapper objectMapper;
+
+    public WeatherApiParser(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public WeatherRecord apply(String body) {
+        JsonNode current;
+        try {
+            current = objectMapper.readTree(body).path("current");
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("响应不是有效的JSON", e);
+        }
+        if (!current.hasNonNull("last_updated_epoch")) {
+            throw new IllegalArgumentException("响应缺少 current.last_updated_epoch");
+        }
+
+        WeatherRecord record = new WeatherRecord();
+        record.setRecordTime(DateUtils.fromEpochSecond(current.get("last_updated_epoch").asLong()));
+        String condition = current.path("condition").path("text").asText("").trim();
+        record.setWeatherCondition(condition.isEmpty() ? WeatherCondition.UNKNOWN.getLabel() : condition);
+        record.setTemperature(number(current, "temp_c"));
+        record.setHumidity(number(current, "humidity"));
+        record.setWindDirection(current.hasNonNull("wind_degree") ? current.get("wind_degree").asInt() : null);
+        record.setWindDirectionDesc(current.hasNonNull("wind_dir") ? current.get("wind_dir").asText() : null);
+        Double windKph = number(current, "wind_kph");
+        record.setWindSpeed(windKph != null ? windKph / 3.6 : null);
+        record.setWindForce(windKph != null ? record.getWindForce() : null);
+        record.setPressure(number(current, "pressure_mb"));
+        record.setPrecipitation(number(current, "precip_mm"));
+        Double visibilityKm = number(current, "vis_km");
+        record.setVisibility(visibilityKm != null ? visibilityKm * 1000 : null);
+        record.setCloudCover(current.hasNonNull("cloud") ? current.get("cloud").asInt() : null);
+        record.setDataSource(DATA_SOURCE);
+        return record;
+    }
+
+    private static Double number(JsonNode node, String field) {
+        return node.hasNonNull(field) ? node.get(field).asDouble() : null;
+    }
+}
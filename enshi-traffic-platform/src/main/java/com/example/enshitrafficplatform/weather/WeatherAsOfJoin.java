@@ -0,0 +1,278 @@
+package com.example.enshitrafficplatform.weather;
+
+import com.example.enshitrafficplatform.dto.FlowReading;
+import com.example.enshitrafficplatform.entity.WeatherRecord;
+import com.example.enshitrafficplatform.util.DateUtils;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * 天气对流量读数的 as-of 关联（非线程安全）
+ * 每个读数取其路段最近观测站在读数时间及之前的最新观测，或在前后两条观测之间线性插值。
+ * 回放历史时读数须按时间非递减到达，天气从按时间排序的迭代器中以归并方式拉取：
+ * 只拉到读数时间（插值时再加最大间隔）为止，每个观测站只保留最新两条观测和前方最大间隔内的观测，
+ * 内存与数据总量无关。实时使用时天气由 {@link #offer} 推入，只取最新观测，晚于已对齐读数的观测等到读数时间到达后才生效
+ */
+public final class WeatherAsOfJoin {
+
+    /**
+     * 对齐方式
+     */
+    public enum Mode {
+
+        /**
+         * 取读数时间及之前的最新观测
+         */
+        LATEST,
+
+        /**
+         * 在读数时间前后两条观测之间线性插值，没有后一条时取最新观测
+         */
+        INTERPOLATE
+    }
+
+    private static final int NO_STATION = -1;
+
+    private final SectionWeatherJoin join;
+
+    private final Mode mode;
+
+    private final long maxAgeSeconds;
+
+    private final long maxGapSeconds;
+
+    private final Iterator<WeatherRecord> source;
+
+    private final Map<List<Double>, Integer> stationIndex;
+
+    private final Map<Long, Integer> sectionStation = new HashMap<>();
+
+    private final StationCursor[] stations;
+
+    /**
+     * 已对齐的最大读数时间，不晚于它的观测直接生效，更晚的按时间暂存在前方队列中，读数时间到达后再生效
+     */
+    private long watermark = Long.MIN_VALUE;
+
+    private WeatherAsOfJoin(SectionWeatherJoin join, Mode mode, long maxAgeSeconds, long maxGapSeconds,
+                            Iterator<WeatherRecord> source) {
+        this.join = join;
+        this.mode = mode;
+        this.maxAgeSeconds = maxAgeSeconds;
+        this.maxGapSeconds = maxGapSeconds;
+        this.source = source;
+        this.stationIndex = new HashMap<>(join.getStationCount() * 2);
+        this.stations = new StationCursor[join.getStationCount()];
+        for (int i = 0; i < join.getStationCount(); i++) {
+            WeatherRecord station = join.getStation(i);
+            stationIndex.put(List.of(station.getLongitude(), station.getLatitude()), i);
+            stations[i] = new StationCursor();
+        }
+    }
+
+    /**
+     * 实时关联：以各观测站的当前观测为初始状态，之后由 {@link #offer} 推入新观测
+     * @param join 路段天气关联，读数取路段最近的观测站
+     * @param maxAgeSeconds 观测的最大时长（秒），更早的观测不用于对齐
+     * @return 关联算子
+     */
+    public static WeatherAsOfJoin live(SectionWeatherJoin join, long maxAgeSeconds) {
+        WeatherAsOfJoin asOf = new WeatherAsOfJoin(join, Mode.LATEST, maxAgeSeconds, 0, null);
+        join.getStations().stream()
+                .sorted(Comparator.comparing(WeatherRecord::getRecordTime))
+                .forEach(asOf::offer);
+        return asOf;
+    }
+
+    /**
+     * 历史回放：天气从迭代器中按需拉取
+     * @param join 路段天气关联，观测站应覆盖回放期间出现过的观测位置
+     * @param mode 对齐方式
+     * @param maxAgeSeconds 观测的最大时长（秒）
+     * @param maxGapSeconds 插值时前后两条观测的最大间隔（秒），超过时取较早的一条
+     * @param weather 按记录时间排序的天气记录
+     * @return 关联算子
+     */
+    public static WeatherAsOfJoin replay(SectionWeatherJoin join, Mode mode, long maxAgeSeconds,
+                                         long maxGapSeconds, Iterator<WeatherRecord> weather) {
+        return new WeatherAsOfJoin(join, mode, maxAgeSeconds, maxGapSeconds, weather);
+    }
+
+    /**
+     * 推入一条观测，观测位置不在关联的观测站中时忽略
+     * @param record 天气记录
+     */
+    public void offer(WeatherRecord record) {
+        if (record.getLongitude() == null || record.getLatitude() == null || record.getRecordTime() == null) {
+            return;
+        }
+        Integer station = stationIndex.get(List.of(record.getLongitude(), record.getLatitude()));
+        if (station == null) {
+            return;
+        }
+        Observation observation = Observation.of(record);
+        StationCursor cursor = stations[station];
+        if (observation.epochSecond() > watermark) {
+            cursor.settleUntil(watermark);
+            cursor.ahead.add(observation);
+        } else {
+            cursor.settle(observation);
+        }
+    }
+
+    /**
+     * 对齐一条读数
+     * @param reading 流量读数，路段ID为0时不对齐
+     * @param out 输出的天气，实例会被覆盖
+     * @return 是否对齐成功，路段没有关联观测站或最大时长内没有观测时为false
+     */
+    public boolean align(FlowReading reading, WeatherSample out) {
+        return align(reading.getRoadSectionId(), reading.getEpochSecond(), out);
+    }
+
+    /**
+     * 对齐路段在某一时刻的天气
+     * @param roadSectionId 路段ID
+     * @param epochSecond 时刻（平台纪元秒）
+     * @param out 输出的天气，实例会被覆盖
+     * @return 是否对齐成功
+     */
+    public boolean align(long roadSectionId, long epochSecond, WeatherSample out) {
+        watermark = Math.max(watermark, epochSecond);
+        if (source != null) {
+            long horizon = mode == Mode.INTERPOLATE ? epochSecond + maxGapSeconds : epochSecond;
+            pull(horizon);
+        }
+        int station = stationOf(roadSectionId);
+        if (station == NO_STATION) {
+            return false;
+        }
+        StationCursor cursor = stations[station];
+        cursor.settleUntil(epochSecond);
+        Observation previous = cursor.at(epochSecond);
+        if (previous == null || epochSecond - previous.epochSecond() > maxAgeSeconds) {
+            return false;
+        }
+        Observation next = mode == Mode.INTERPOLATE && previous == cursor.latest ? cursor.ahead.peek() : null;
+        out.stationIndex = station;
+        out.observedEpochSecond = previous.epochSecond();
+        out.ageSeconds = epochSecond - previous.epochSecond();
+        out.weatherCondition = previous.weatherCondition();
+        if (next != null && next.epochSecond() - previous.epochSecond() <= maxGapSeconds) {
+            double fraction = (double) (epochSecond - previous.epochSecond())
+                    / (next.epochSecond() - previous.epochSecond());
+            out.interpolated = true;
+            out.temperature = lerp(previous.temperature(), next.temperature(), fraction);
+            out.precipitation = lerp(previous.precipitation(), next.precipitation(), fraction);
+            out.visibility = lerp(previous.visibility(), next.visibility(), fraction);
+            out.windSpeed = lerp(previous.windSpeed(), next.windSpeed(), fraction);
+            out.humidity = lerp(previous.humidity(), next.humidity(), fraction);
+        } else {
+            out.interpolated = false;
+            out.temperature = previous.temperature();
+            out.precipitation = previous.precipitation();
+            out.visibility = previous.visibility();
+            out.windSpeed = previous.windSpeed();
+            out.humidity = previous.humidity();
+        }
+        return true;
+    }
+
+    public SectionWeatherJoin getJoin() {
+        return join;
+    }
+
+    /**
+     * 从迭代器拉取天气直到下一条晚于给定时刻，超出的一条暂存在对应观测站的前方队列中
+     */
+    private void pull(long horizon) {
+        while (source.hasNext()) {
+            WeatherRecord record = source.next();
+            offer(record);
+            if (record.getRecordTime() != null && DateUtils.toEpochSecond(record.getRecordTime()) > horizon) {
+                return;
+            }
+        }
+    }
+
+    private int stationOf(long roadSectionId) {
+        Integer station = sectionStation.get(roadSectionId);
+        if (station == null) {
+            SectionWeatherJoin.Neighbors neighbors = join.neighbors(roadSectionId);
+            station = neighbors != null ? neighbors.stations()[0] : NO_STATION;
+            sectionStation.put(roadSectionId, station);
+        }
+        return station;
+    }
+
+    /**
+     * 一端缺失时取另一端，两端都缺失时为NaN
+     */
+    private static double lerp(double from, double to, double fraction) {
+        if (Double.isNaN(from)) {
+            return to;
+        }
+        if (Double.isNaN(to)) {
+            return from;
+        }
+        return from + (to - from) * fraction;
+    }
+
+    /**
+     * 单个观测站的游标：已生效的最新两条观测，以及晚于水位线、等待生效的观测
+     */
+    private static final class StationCursor {
+
+        private Observation latest;
+
+        private Observation older;
+
+        private final PriorityQueue<Observation> ahead =
+                new PriorityQueue<>(Comparator.comparingLong(Observation::epochSecond));
+
+        private void settle(Observation observation) {
+            if (latest == null || observation.epochSecond() >= latest.epochSecond()) {
+                older = latest;
+                latest = observation;
+            } else if (older == null || observation.epochSecond() > older.epochSecond()) {
+                // 实时推入的乱序观测只用于更早的读数
+                older = observation;
+            }
+        }
+
+        private void settleUntil(long epochSecond) {
+            while (!ahead.isEmpty() && ahead.peek().epochSecond() <= epochSecond) {
+                settle(ahead.poll());
+            }
+        }
+
+        /**
+         * 不晚于给定时刻的最新观测，乱序到达的读数可退回到较早的一条
+         */
+        private Observation at(long epochSecond) {
+            if (latest != null && latest.epochSecond() <= epochSecond) {
+                return latest;
+            }
+            return older != null && older.epochSecond() <= epochSecond ? older : null;
+        }
+    }
+
+    private record Observation(long epochSecond, double temperature, double precipitation, double visibility,
+                               double windSpeed, double humidity, String weatherCondition) {
+
+        private static Observation of(WeatherRecord record) {
+            return new Observation(DateUtils.toEpochSecond(record.getRecordTime()), toDouble(record.getTemperature()),
+                    toDouble(record.getPrecipitation()), toDouble(record.getVisibility()),
+                    toDouble(record.getWindSpeed()), toDouble(record.getHumidity()), record.getWeatherCondition());
+        }
+
+        private static double toDouble(Number value) {
+            return value != null ? value.doubleValue() : Double.NaN;
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.enshitrafficplatform.weather;
+
+import com.example.enshitrafficplatform.entity.WeatherRecord;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按列存放的天气观测，供 {@link WeatherImpactEngine} 在基本类型数组上批量计算
+ * 缺失的数值为NaN，缺失的整数为 {@link #MISSING_INT}；天气描述在构建时按描述去重，
+ * 每种描述只做一次子串判断，结果存为 {@link ConditionTraits} 位标志
+ */
+public final class WeatherColumns {
+
+    /**
+     * 整数列的缺失值
+     */
+    public static final int MISSING_INT = Integer.MIN_VALUE;
+
+    static final int FOGGY = 1;
+
+    static final int SNOW_ICE = 1 << 1;
+
+    static final int THUNDERSTORM = 1 << 2;
+
+    static final int WARNING = 1 << 3;
+
+    static final int CONDITION_RAIN = 1 << 4;
+
+    static final int CONDITION_THUNDER = 1 << 5;
+
+    final int size;
+
+    final double[] precipitation;
+
+    final double[] visibility;
+
+    final double[] windSpeed;
+
+    final double[] temperature;
+
+    final double[] humidity;
+
+    final double[] cloudCover;
+
+    final int[] windDirection;
+
+    final int[] windForce;
+
+    /**
+     * 天气描述对应的 getTrafficImpactLevel 加分
+     */
+    final byte[] conditionImpact;
+
+    /**
+     * FOGGY、SNOW_ICE 等位标志
+     */
+    final int[] flags;
+
+    /**
+     * 天气描述在建议车速矩阵中的序号，见 {@link SpeedAdvisoryMatrix#conditionIndex}
+     */
+    final byte[] advisoryCondition;
+
+    private WeatherColumns(int size) {
+        this.size = size;
+        this.precipitation = new double[size];
+        this.visibility = new double[size];
+        this.windSpeed = new double[size];
+        this.temperature = new double[size];
+        this.humidity = new double[size];
+        this.cloudCover = new double[size];
+        this.windDirection = new int[size];
+        this.windForce = new int[size];
+        this.conditionImpact = new byte[size];
+        this.flags = new int[size];
+        this.advisoryCondition = new byte[size];
+    }
+
+    /**
+     * 每条天气记录一行
+     * @param records 天气记录
+     * @return 列式观测
+     */
+    public static WeatherColumns ofRecords(List<WeatherRecord> records) {
+        WeatherColumns columns = new WeatherColumns(records.size());
+        Map<String, ConditionTraits> traits = new HashMap<>();
+        for (int i = 0; i < records.size(); i++) {
+            WeatherRecord record = records.get(i);
+            columns.precipitation[i] = toDouble(record.getPrecipitation());
+            columns.visibility[i] = toDouble(record.getVisibility());
+            columns.windSpeed[i] = toDouble(record.getWindSpeed());
+            columns.temperature[i] = toDouble(record.getTemperature());
+            columns.humidity[i] = toDouble(record.getHumidity());
+            columns.cloudCover[i] = toDouble(record.getCloudCover());
+            columns.setCategorical(i, record, traits);
+        }
+        return columns;
+    }
+
+    /**
+     * 每个路段一行，数值按关联观测站的反距离权重插值，天气描述、风向、风力与各标志取最近的观测站
+     * @param join 路段天气关联
+     * @param roadSectionIds 路段ID，均须在关联中
+     * @return 列式观测
+     */
+    public static WeatherColumns ofSections(SectionWeatherJoin join, long[] roadSectionIds) {
+        WeatherColumns columns = new WeatherColumns(roadSectionIds.length);
+        Map<String, ConditionTraits> traits = new HashMap<>();
+        for (int i = 0; i < roadSectionIds.length; i++) {
+            SectionWeatherJoin.Neighbors neighbors = join.neighbors(roadSectionIds[i]);
+            columns.precipitation[i] = join.interpolate(neighbors, r -> toDouble(r.getPrecipitation()));
+            columns.visibility[i] = join.interpolate(neighbors, r -> toDouble(r.getVisibility()));
+            columns.windSpeed[i] = join.interpolate(neighbors, r -> toDouble(r.getWindSpeed()));
+            columns.temperature[i] = join.interpolate(neighbors, r -> toDouble(r.getTemperature()));
+            columns.humidity[i] = join.interpolate(neighbors, r -> toDouble(r.getHumidity()));
+            columns.cloudCover[i] = join.interpolate(neighbors, r -> toDouble(r.getCloudCover()));
+            columns.setCategorical(i, join.getStation(neighbors.stations()[0]), traits);
+        }
+        return columns;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 获取某行在建议车速矩阵中的离散天气状态
+     * @param row 行号
+     * @return 天气状态
+     */
+    public int advisoryState(int row) {
+        return SpeedAdvisoryMatrix.state(advisoryCondition[row], visibility[row], precipitation[row],
+                temperature[row], windSpeed[row]);
+    }
+
+    private void setCategorical(int i, WeatherRecord record, Map<String, ConditionTraits> traits) {
+        windDirection[i] = record.getWindDirection() != null ? record.getWindDirection() : MISSING_INT;
+        windForce[i] = record.getRecordedWindForce() != null ? record.getRecordedWindForce() : MISSING_INT;
+        ConditionTraits condition = record.getWeatherCondition() != null
+                ? traits.computeIfAbsent(record.getWeatherCondition(), ConditionTraits::of)
+                : ConditionTraits.NONE;
+        conditionImpact[i] = condition.trafficImpact();
+        advisoryCondition[i] = condition.advisoryCondition();
+        int bits = condition.flags();
+        if (Boolean.TRUE.equals(record.getIsFoggy())) {
+            bits |= FOGGY;
+        }
+        if (Boolean.TRUE.equals(record.getIsSnowIce())) {
+            bits |= SNOW_ICE;
+        }
+        if (Boolean.TRUE.equals(record.getHasThunderstorm())) {
+            bits |= THUNDERSTORM;
+        }
+        if (record.getWarningInfo() != null && !record.getWarningInfo().isEmpty()) {
+            bits |= WARNING;
+        }
+        flags[i] = bits;
+    }
+
+    private static double toDouble(Number value) {
+        return value != null ? value.doubleValue() : Double.NaN;
+    }
+
+    /**
+     * 天气描述的预判结果
+     * @param trafficImpact getTrafficImpactLevel 中天气描述一项的加分
+     * @param flags CONDITION_RAIN、CONDITION_THUNDER 位标志
+     * @param advisoryCondition 在建议车速矩阵中的序号
+     */
+    record ConditionTraits(byte trafficImpact, int flags, byte advisoryCondition) {
+
+        static final ConditionTraits NONE = new ConditionTraits((byte) 0, 0,
+                (byte) SpeedAdvisoryMatrix.conditionIndex(null));
+
+        static ConditionTraits of(String condition) {
+            int impact;
+            if (condition.contains("暴雪") || condition.contains("冰雹")) impact = 8;
+            else if (condition.contains("大雪")) impact = 7;
+            else if (condition.contains("中雪")) impact = 5;
+            else if (condition.contains("小雪")) impact = 3;
+            else if (condition.contains("冰")) impact = 6;
+            else if (condition.contains("霜")) impact = 3;
+            else if (condition.contains("雷")) impact = 2;
+            else impact = 0;
+            int flags = 0;
+            if (condition.contains("雨")) {
+                flags |= CONDITION_RAIN;
+            }
+            if (condition.contains("雷")) {
+                flags |= CONDITION_THUNDER;
+            }
+            return new ConditionTraits((byte) impact, flags, (byte) SpeedAdvisoryMatrix.conditionIndex(condition));
+        }
+    }
+}
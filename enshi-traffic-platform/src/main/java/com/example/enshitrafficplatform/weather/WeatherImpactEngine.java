@@ -0,0 +1,172 @@
+package com.example.enshitrafficplatform.weather;
+
+import static com.example.enshitrafficplatform.weather.WeatherColumns.CONDITION_RAIN;
+import static com.example.enshitrafficplatform.weather.WeatherColumns.CONDITION_THUNDER;
+import static com.example.enshitrafficplatform.weather.WeatherColumns.FOGGY;
+import static com.example.enshitrafficplatform.weather.WeatherColumns.SNOW_ICE;
+import static com.example.enshitrafficplatform.weather.WeatherColumns.THUNDERSTORM;
+import static com.example.enshitrafficplatform.weather.WeatherColumns.WARNING;
+
+/**
+ * 天气影响批量评分
+ * 与 WeatherRecord 的 getTrafficImpactLevel、calculateEnshiWeatherImpactIndex、calculateRoadSlipperyIndex、
+ * getMountainTerrainFactor、isMountainComplexWeather 结果一致，但按列逐项计算：
+ * 每个指标在基本类型数组上单独循环一遍，阈值阶梯改写为逐级累加的比较（NaN参与比较均为false，等同于缺失），
+ * 循环体内没有对象访问与字符串判断。浮点累加顺序与原公式相同，结果逐位相等
+ */
+public final class WeatherImpactEngine {
+
+    private WeatherImpactEngine() {
+    }
+
+    /**
+     * 计算全部指标
+     * @param columns 列式观测
+     * @return 各行的评分
+     */
+    public static Scores score(WeatherColumns columns) {
+        Scores scores = new Scores(columns.size);
+        trafficImpactLevels(columns, scores.trafficImpactLevel);
+        enshiImpactIndexes(columns, scores.enshiImpactIndex);
+        slipperyIndexes(columns, scores.slipperyIndex);
+        terrainFactors(columns, scores.terrainFactor);
+        mountainComplex(columns, scores.mountainComplex);
+        return scores;
+    }
+
+    /**
+     * 同 WeatherRecord#getTrafficImpactLevel
+     */
+    static void trafficImpactLevels(WeatherColumns c, byte[] out) {
+        for (int i = 0; i < c.size; i++) {
+            double p = c.precipitation[i];
+            double v = c.visibility[i];
+            double w = c.windSpeed[i];
+            double t = c.temperature[i];
+            int impact = (p >= 0.1 ? 1 : 0) + (p >= 10.0 ? 1 : 0) + (p >= 25.0 ? 2 : 0)
+                    + (p >= 50.0 ? 2 : 0) + (p >= 100.0 ? 2 : 0) + (p >= 250.0 ? 2 : 0);
+            impact += (v < 2000 ? 2 : 0) + (v < 1000 ? 2 : 0) + (v < 500 ? 2 : 0)
+                    + (v < 200 ? 2 : 0) + (v < 50 ? 2 : 0);
+            impact += (w >= 10.8 ? 2 : 0) + (w >= 13.9 ? 1 : 0) + (w >= 17.2 ? 1 : 0) + (w >= 20.8 ? 1 : 0)
+                    + (w >= 24.5 ? 1 : 0) + (w >= 28.5 ? 2 : 0) + (w >= 32.7 ? 2 : 0);
+            impact += t <= 0 ? 3 + (t <= -5 ? 1 : 0) + (t <= -10 ? 1 : 0) : (t <= 2 && p > 0 ? 4 : 0);
+            impact += c.conditionImpact[i];
+            out[i] = (byte) Math.min(10, impact);
+        }
+    }
+
+    /**
+     * 同 WeatherRecord#calculateEnshiWeatherImpactIndex
+     */
+    static void enshiImpactIndexes(WeatherColumns c, double[] out) {
+        for (int i = 0; i < c.size; i++) {
+            double p = c.precipitation[i];
+            double v = c.visibility[i];
+            double t = c.temperature[i];
+            int force = c.windForce[i];
+            int flags = c.flags[i];
+            double index = 0.0;
+            index += p != 0 && p == p
+                    ? 2.0 + (p >= 5 ? 2.0 : 0) + (p >= 15 ? 2.0 : 0) + (p >= 30 ? 2.0 : 0) + (p >= 50 ? 2.0 : 0)
+                    : 0;
+            index += (v <= 1000 ? 1.0 : 0) + (v <= 500 ? 1.5 : 0) + (v <= 200 ? 1.5 : 0) + (v <= 100 ? 1.0 : 0);
+            index += (flags & FOGGY) != 0 ? 3.0 : 0;
+            index += (flags & SNOW_ICE) != 0 ? 5.0 : 0;
+            index += force == WeatherColumns.MISSING_INT ? 0 : force >= 8 ? 3.0 : force >= 6 ? 1.5 : 0;
+            index += t < 0 ? 2.0 + (p > 0 ? 3.0 : 0) : t < 3 ? 1.0 : 0;
+            index += (flags & WARNING) != 0 ? 2.0 : 0;
+            index += (flags & THUNDERSTORM) != 0 ? 2.0 : 0;
+            out[i] = Math.min(10.0, index);
+        }
+    }
+
+    /**
+     * 同 WeatherRecord#calculateRoadSlipperyIndex
+     */
+    static void slipperyIndexes(WeatherColumns c, byte[] out) {
+        for (int i = 0; i < c.size; i++) {
+            double p = c.precipitation[i];
+            double h = c.humidity[i];
+            double t = c.temperature[i];
+            int index = (p > 5 ? 1 : 0) + (p > 15 ? 1 : 0) + (p > 30 ? 1 : 0)
+                    + (h > 85 ? 1 : 0) + (h > 95 ? 1 : 0)
+                    + (t < 4 ? 2 : 0) + (t < 0 ? 1 : 0)
+                    + ((c.flags[i] & FOGGY) != 0 ? 1 : 0);
+            out[i] = (byte) Math.min(5, index);
+        }
+    }
+
+    /**
+     * 同 WeatherRecord#getMountainTerrainFactor
+     */
+    static void terrainFactors(WeatherColumns c, double[] out) {
+        for (int i = 0; i < c.size; i++) {
+            double factor = 1.0;
+            factor += c.precipitation[i] > 10 ? 0.3 : 0.0;
+            factor += c.visibility[i] < 1000 ? 0.3 : 0.0;
+            factor += c.windSpeed[i] > 8.0 ? 0.2 : 0.0;
+            factor += c.temperature[i] < 5 ? 0.2 : 0.0;
+            out[i] = Math.min(2.0, factor);
+        }
+    }
+
+    /**
+     * 同 WeatherRecord#isMountainComplexWeather
+     */
+    static void mountainComplex(WeatherColumns c, boolean[] out) {
+        for (int i = 0; i < c.size; i++) {
+            int flags = c.flags[i];
+            int direction = c.windDirection[i];
+            boolean rainAndFog = (flags & CONDITION_RAIN) != 0 && c.visibility[i] < 1000;
+            boolean mountainStrongWind = c.windSpeed[i] >= 8.0
+                    && direction != WeatherColumns.MISSING_INT && direction > 200 && direction < 340;
+            boolean lowClouds = c.cloudCover[i] > 80;
+            boolean suddenHeavyRain = c.precipitation[i] > 20 && (flags & CONDITION_THUNDER) != 0;
+            out[i] = rainAndFog || mountainStrongWind || lowClouds || suddenHeavyRain;
+        }
+    }
+
+    /**
+     * 评分结果，与输入的行一一对应
+     */
+    public static final class Scores {
+
+        final byte[] trafficImpactLevel;
+
+        final double[] enshiImpactIndex;
+
+        final byte[] slipperyIndex;
+
+        final double[] terrainFactor;
+
+        final boolean[] mountainComplex;
+
+        private Scores(int size) {
+            this.trafficImpactLevel = new byte[size];
+            this.enshiImpactIndex = new double[size];
+            this.slipperyIndex = new byte[size];
+            this.terrainFactor = new double[size];
+            this.mountainComplex = new boolean[size];
+        }
+
+        public int getTrafficImpactLevel(int row) {
+            return trafficImpactLevel[row];
+        }
+
+        public double getEnshiImpactIndex(int row) {
+            return enshiImpactIndex[row];
+        }
+
+        public int getSlipperyIndex(int row) {
+            return slipperyIndex[row];
+        }
+
+        public double getTerrainFactor(int row) {
+            return terrainFactor[row];
+        }
+
+        public boolean isMountainComplex(int row) {
+            return mountainComplex[row];
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.enshitrafficplatform.weather;
+
+import java.util.Arrays;
+
+/**
+ * 全部路段的天气影响评分表（不可变）
+ * 路段ID按升序存放，行号即评分数组的下标；每次路段天气关联刷新后整体重算并替换
+ */
+public final class WeatherImpactTable {
+
+    private static final WeatherImpactTable EMPTY = compute(SectionWeatherJoin.empty());
+
+    private final long[] roadSectionIds;
+
+    private final WeatherColumns columns;
+
+    private final WeatherImpactEngine.Scores scores;
+
+    private WeatherImpactTable(long[] roadSectionIds, WeatherColumns columns, WeatherImpactEngine.Scores scores) {
+        this.roadSectionIds = roadSectionIds;
+        this.columns = columns;
+        this.scores = scores;
+    }
+
+    /**
+     * 尚未计算时使用的空表
+     * @return 没有路段的评分表
+     */
+    public static WeatherImpactTable empty() {
+        return EMPTY;
+    }
+
+    /**
+     * 为关联中的全部路段按插值后的天气计算评分
+     * @param join 路段天气关联
+     * @return 评分表
+     */
+    public static WeatherImpactTable compute(SectionWeatherJoin join) {
+        long[] ids = join.getSectionIds().stream().mapToLong(Long::longValue).sorted().toArray();
+        WeatherColumns columns = WeatherColumns.ofSections(join, ids);
+        return new WeatherImpactTable(ids, columns, WeatherImpactEngine.score(columns));
+    }
+
+    /**
+     * 获取路段所在的行
+     * @param roadSectionId 路段ID
+     * @return 行号，路段不在表中时为负数
+     */
+    public int indexOf(long roadSectionId) {
+        return Arrays.binarySearch(roadSectionIds, roadSectionId);
+    }
+
+    /**
+     * 获取路段的评分
+     * @param roadSectionId 路段ID
+     * @return 评分，路段附近没有观测站时为null
+     */
+    public SectionWeatherImpact get(Long roadSectionId) {
+        int row = indexOf(roadSectionId);
+        if (row < 0) {
+            return null;
+        }
+        return new SectionWeatherImpact(roadSectionId, scores.getTrafficImpactLevel(row),
+                scores.getEnshiImpactIndex(row), scores.getSlipperyIndex(row), scores.getTerrainFactor(row),
+                scores.isMountainComplex(row));
+    }
+
+    public long getRoadSectionId(int row) {
+        return roadSectionIds[row];
+    }
+
+    /**
+     * 评分所用的路段插值天气，行号与评分相同
+     * @return 列式观测
+     */
+    public WeatherColumns getColumns() {
+        return columns;
+    }
+
+    public WeatherImpactEngine.Scores getScores() {
+        return scores;
+    }
+
+    public int size() {
+        return roadSectionIds.length;
+    }
+}
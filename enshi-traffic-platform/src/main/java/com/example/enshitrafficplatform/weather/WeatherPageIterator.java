@@ -0,0 +1,65 @@
+package com.example.enshitrafficplatform.weather;
+
+import com.example.enshitrafficplatform.entity.WeatherRecord;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.BiFunction;
+
+/**
+ * 按时间分页读取天气记录的迭代器
+ * 每次只持有一页（一个时间段）的记录，读完后再查询下一段，供 {@link WeatherAsOfJoin} 回放长时间范围的天气
+ */
+public final class WeatherPageIterator implements Iterator<WeatherRecord> {
+
+    private final BiFunction<LocalDateTime, LocalDateTime, List<WeatherRecord>> pageLoader;
+
+    private final LocalDateTime endTime;
+
+    private final Duration pageSize;
+
+    private LocalDateTime nextPageStart;
+
+    private Iterator<WeatherRecord> page = List.<WeatherRecord>of().iterator();
+
+    /**
+     * @param pageLoader 查询 [开始, 结束) 内按时间排序的天气记录
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     * @param pageSize 每页的时间跨度
+     */
+    public WeatherPageIterator(BiFunction<LocalDateTime, LocalDateTime, List<WeatherRecord>> pageLoader,
+                               LocalDateTime startTime, LocalDateTime endTime, Duration pageSize) {
+        if (pageSize.isZero() || pageSize.isNegative()) {
+            throw new IllegalArgumentException("分页时间跨度必须为正");
+        }
+        this.pageLoader = pageLoader;
+        this.endTime = endTime;
+        this.pageSize = pageSize;
+        this.nextPageStart = startTime;
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!page.hasNext() && nextPageStart.isBefore(endTime)) {
+            LocalDateTime pageEnd = nextPageStart.plus(pageSize);
+            if (pageEnd.isAfter(endTime)) {
+                pageEnd = endTime;
+            }
+            page = pageLoader.apply(nextPageStart, pageEnd).iterator();
+            nextPageStart = pageEnd;
+        }
+        return page.hasNext();
+    }
+
+    @Override
+    public WeatherRecord next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        return page.next();
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.enshitrafficplatform.weather;
+
+import lombok.Getter;
+
+/**
+ * 与一条流量读数对齐的观测站天气
+ * 缺失的数值为NaN。对齐时同一实例会被重复填充，需要保留时请调用 {@link #copy()}
+ */
+@Getter
+public class WeatherSample {
+
+    /**
+     * 观测站序号，见 {@link SectionWeatherJoin#getStation}
+     */
+    int stationIndex;
+
+    /**
+     * 所用观测的时间（平台纪元秒），插值时为较早的一条
+     */
+    long observedEpochSecond;
+
+    /**
+     * 读数时间与所用观测的间隔（秒）
+     */
+    long ageSeconds;
+
+    /**
+     * 是否在前后两条观测之间线性插值
+     */
+    boolean interpolated;
+
+    double temperature;
+
+    double precipitation;
+
+    double visibility;
+
+    double windSpeed;
+
+    double humidity;
+
+    /**
+     * 所用观测的天气描述，插值时取较早的一条
+     */
+    String weatherCondition;
+
+    /**
+     * 复制当前天气
+     * @return 新的实例
+     */
+    public WeatherSample copy() {
+        WeatherSample copy = new WeatherSample();
+        copy.stationIndex = stationIndex;
+        copy.observedEpochSecond = observedEpochSecond;
+        copy.ageSeconds = ageSeconds;
+        copy.interpolated = interpolated;
+        copy.temperature = temperature;
+        copy.precipitation = precipitation;
+        copy.visibility = visibility;
+        copy.windSpeed = windSpeed;
+        copy.humidity = humidity;
+        copy.weatherCondition = weatherCondition;
+        return copy;
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.enshitrafficplatform.analytics;
+
+import com.example.enshitrafficplatform.dto.FlowReading;
+import com.example.enshitrafficplatform.util.DateUtils;
+import com.example.enshitrafficplatform.util.VarIntUtils;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class TrafficCubeTest {
+
+    /**
+     * 2024-05-06 00:00 (UTC+8)，周一
+     */
+    private static final long WEEK_START = 1714924800L;
+
+    private static final String[] CONDITIONS = {"晴", "多云", "小雨", "大雪", "大雾", "未知"};
+
+    @Test
+    void fullGroupingKeepsEveryCellApart() {
+        List<FlowReading> readings = readings(300, 20_000, 26);
+        TrafficCube cube = new TrafficCube();
+        assertThat(cube.addAll(readings)).isEqualTo(readings.size() - zeroSectionCount(readings));
+
+        List<CubeRow> rows = cube.query(CubeQuery.builder()
+                .groupBy(List.of(CubeDimension.ROAD_SECTION, CubeDimension.HOUR_OF_WEEK, CubeDimension.WEATHER,
+                        CubeDimension.VEHICLE_CLASS))
+                .build());
+
+        // 路段 × 周内小时 × 天气 × 车型 的每个组合各成一行，分组键不冲突
+        Map<String, long[]> expected = new TreeMap<>();
+        for (FlowReading reading : readings) {
+            if (reading.getRoadSectionId() <= 0) {
+                continue;
+            }
+            String cell = reading.getRoadSectionId() + "/" + DateUtils.hourOfWeek(reading.getEpochSecond()) + "/"
+                    + reading.getWeatherCategory();
+            long[] totals = expected.computeIfAbsent(cell, k -> new long[4]);
+            totals[0]++;
+            totals[1] += Math.max(reading.getLargeVehicleCount(), 0);
+            totals[2] += Math.max(reading.getMediumVehicleCount(), 0);
+            totals[3] += Math.max(reading.getSmallVehicleCount(), 0);
+        }
+        assertThat(rows).hasSize(expected.size() * VehicleClass.values().length);
+        for (CubeRow row : rows) {
+            long[] totals = expected.get(row.getRoadSectionId() + "/" + row.getHourOfWeek() + "/" + row.getWeather());
+            assertThat(totals).isNotNull();
+            assertThat(row.getSampleCount()).isEqualTo(totals[0]);
+            assertThat(row.getVehicleCount()).isEqualTo(totals[row.getVehicleClass().ordinal() + 1]);
+        }
+    }
+
+    @Test
+    void rollUpMatchesBruteForce() {
+        List<FlowReading> readings = readings(40, 5_000, 27);
+        TrafficCube cube = new TrafficCube();
+        cube.addAll(readings);
+
+        List<CubeRow> rows = cube.query(CubeQuery.builder()
+                .roadSectionIds(Set.of(3L, 7L, 999L))
+                .daysOfWeek(Set.of(1, 6))
+                .weatherCategories(Set.of(WeatherCategory.RAIN, WeatherCategory.SUNNY))
+                .groupBy(List.of(CubeDimension.DAY_OF_WEEK, CubeDimension.WEATHER))
+                .build());
+
+        Map<String, double[]> expected = new TreeMap<>();
+        for (FlowReading reading : readings) {
+            int hour = DateUtils.hourOfWeek(reading.getEpochSecond());
+            long section = reading.getRoadSectionId();
+            WeatherCategory weather = reading.getWeatherCategory();
+            int day = hour / 24 + 1;
+            if ((section != 3 && section != 7) || (day != 1 && day != 6)
+                    || (weather != WeatherCategory.RAIN && weather != WeatherCategory.SUNNY)) {
+                continue;
+            }
+            double[] totals = expected.computeIfAbsent(day + "/" + weather, k -> new double[5]);
+            totals[0]++;
+            if (reading.getFlowRate() != FlowReading.MISSING_INT) {
+                totals[1] += reading.getFlowRate();
+                totals[2]++;
+            }
+            if (!Double.isNaN(reading.getAverageSpeed())) {
+                totals[3] += reading.getAverageSpeed();
+                totals[4]++;
+            }
+        }
+        assertThat(rows).hasSize(expected.size());
+        for (CubeRow row : rows) {
+            assertThat(row.getRoadSectionId()).isNull();
+            assertThat(row.getHourOfDay()).isNull();
+            double[] totals = expected.get(row.getDayOfWeek() + "/" + row.getWeather());
+            assertThat(row.getSampleCount()).isEqualTo((long) totals[0]);
+            assertThat(row.getAverageFlowRate()).isCloseTo(totals[1] / totals[2], within(1e-9));
+            assertThat(row.getAverageSpeed()).isCloseTo(totals[3] / totals[4], within(1e-9));
+        }
+    }
+
+    @Test
+    void snapshotRoundTripsEveryCell() throws IOException {
+        List<FlowReading> readings = readings(120, 10_000, 28);
+        TrafficCube cube = new TrafficCube();
+        cube.addAll(readings);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        cube.writeTo(out);
+        TrafficCube restored = TrafficCube.readFrom(new ByteArrayInputStream(out.toByteArray()));
+
+        assertThat(restored.getMaxRecordId()).isEqualTo(cube.getMaxRecordId());
+        assertThat(restored.getSectionCount()).isEqualTo(cube.getSectionCount());
+        assertThat(restored.getTotalSamples()).isEqualTo(cube.getTotalSamples());
+        CubeQuery all = CubeQuery.builder()
+                .groupBy(List.of(CubeDimension.ROAD_SECTION, CubeDimension.HOUR_OF_WEEK, CubeDimension.WEATHER,
+                        CubeDimension.VEHICLE_CLASS))
+                .build();
+        assertThat(restored.query(all)).isEqualTo(cube.query(all));
+
+        // 恢复后继续累加与原立方体一致
+        FlowReading extra = readings(1, 1, 29).get(0);
+        extra.setRoadSectionId(500L);
+        cube.add(extra);
+        restored.add(extra);
+        assertThat(restored.query(all)).isEqualTo(cube.query(all));
+
+        byte[] corrupt = out.toByteArray();
+        corrupt[0] ^= 1;
+        assertThatThrownBy(() -> TrafficCube.readFrom(new ByteArrayInputStream(corrupt)))
+                .isInstanceOf(IOException.class);
+    }
+
+    @Test
+    void snapshotRejectsCellDeltasOutsideTheCube() throws IOException {
+        TrafficCube cube = new TrafficCube();
+        cube.addAll(readings(1, 1, 30));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        cube.writeTo(out);
+        // 文件头、最大记录ID、一个路段ID与非空单元格数之后即为第一个单元格的下标增量
+        byte[] prefix = Arrays.copyOf(out.toByteArray(), 36);
+
+        // 截断为 int 后分别为 -1、0、1 的增量，以及为0或超出单元格总数的增量
+        for (long delta : new long[]{0xFFFFFFFFL, 1L << 32, (1L << 32) + 1, 0L, 1L << 20}) {
+            ByteArrayOutputStream corrupt = new ByteArrayOutputStream();
+            DataOutputStream data = new DataOutputStream(corrupt);
+            data.write(prefix);
+            VarIntUtils.writeUnsignedVarLong(data, delta);
+            data.write(new byte[64]);
+            assertThatThrownBy(() -> TrafficCube.readFrom(new ByteArrayInputStream(corrupt.toByteArray())))
+                    .isInstanceOf(IOException.class).hasMessageContaining("越界");
+        }
+    }
+
+    private static List<FlowReading> readings(int sections, int count, long seed) {
+        Random random = new Random(seed);
+        List<FlowReading> readings = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            FlowReading reading = new FlowReading();
+            reading.setRecordId(i + 1L);
+            reading.setRoadSectionId(random.nextInt(50) == 0 ? 0 : 1 + random.nextInt(sections));
+            reading.setEpochSecond(WEEK_START + random.nextInt(7 * 24 * 3600));
+            reading.setWeatherCondition(CONDITIONS[random.nextInt(CONDITIONS.length)]);
+            reading.setFlowRate(random.nextInt(10) == 0 ? FlowReading.MISSING_INT : random.nextInt(2000));
+            reading.setAverageSpeed(random.nextInt(10) == 0 ? Double.NaN : 20 + random.nextDouble() * 80);
+            reading.setLargeVehicleCount(random.nextInt(8) - 1);
+            reading.setMediumVehicleCount(random.nextInt(15) - 1);
+            reading.setSmallVehicleCount(random.nextInt(120) - 1);
+            readings.add(reading);
+        }
+        return readings;
+    }
+
+    private static int zeroSectionCount(List<FlowReading> readings) {
+        int count = 0;
+        for (FlowReading reading : readings) {
+            if (reading.getRoadSectionId() <= 0) {
+                count++;
+            }
+        }
+        return count;
+    }
+}
@@ -0,0 +1,110 @@
+package com.example.enshitrafficplatform.analytics;
+
+import com.example.enshitrafficplatform.entity.TrafficFlowRecord;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class VehicleCompositionAccumulatorTest {
+
+    private static final int ROWS = 100_000;
+
+    @Test
+    void percentagesMatchTrafficFlowRecord() {
+        TrafficFlowRecord record = TrafficFlowRecord.builder()
+                .largeVehicleCount(12)
+                .mediumVehicleCount(null)
+                .smallVehicleCount(45)
+                .build();
+        VehicleCompositionAccumulator accumulator = new VehicleCompositionAccumulator(1);
+        accumulator.add(0, 12, -1, 45);
+
+        assertThat(accumulator.getTotalCount(0)).isEqualTo(record.getTotalVehicleCount().longValue());
+        assertThat(accumulator.getPercentage(0, VehicleClass.LARGE))
+                .isCloseTo(record.getLargeVehiclePercentage(), within(1e-9));
+        assertThat(accumulator.getPercentage(0, VehicleClass.MEDIUM))
+                .isCloseTo(record.getMediumVehiclePercentage(), within(1e-9));
+        assertThat(accumulator.getPercentage(0, VehicleClass.SMALL))
+                .isCloseTo(record.getSmallVehiclePercentage(), within(1e-9));
+        assertThat(accumulator.getHeavyVehiclePercentage(0)).isCloseTo(12.0 / 57 * 100, within(1e-9));
+    }
+
+    @Test
+    void recordsWithoutVehicleCountsAreSkipped() {
+        VehicleCompositionAccumulator accumulator = new VehicleCompositionAccumulator(2);
+        accumulator.add(0, -1, -1, -1);
+        accumulator.addColumns(1, new int[]{-1, 0, 3}, new int[]{-1, -1, 2}, new int[]{-1, 5, 1}, 0, 3);
+
+        assertThat(accumulator.getRecordCount(0)).isZero();
+        assertThat(accumulator.getPercentage(0, VehicleClass.LARGE)).isZero();
+        assertThat(accumulator.getRecordCount(1)).isEqualTo(2);
+        assertThat(accumulator.getTotalCount(1)).isEqualTo(11);
+    }
+
+    @Test
+    void columnsAndRowsProduceSameTotals() {
+        int[][] columns = randomColumns();
+        VehicleCompositionAccumulator byRow = new VehicleCompositionAccumulator(1);
+        VehicleCompositionAccumulator byColumn = new VehicleCompositionAccumulator(1);
+        for (int i = 0; i < ROWS; i++) {
+            byRow.add(0, columns[0][i], columns[1][i], columns[2][i]);
+        }
+        byColumn.addColumns(0, columns[0], columns[1], columns[2], 0, ROWS);
+
+        for (VehicleClass vehicleClass : VehicleClass.values()) {
+            assertThat(byColumn.getCount(0, vehicleClass)).isEqualTo(byRow.getCount(0, vehicleClass));
+        }
+        assertThat(byColumn.getRecordCount(0)).isEqualTo(byRow.getRecordCount(0));
+    }
+
+    /**
+     * 热循环不允许分配对象：以线程分配字节计数代替JMH的 gc.alloc.rate.norm 指标
+     */
+    @Test
+    void hotLoopDoesNotAllocate() {
+        java.lang.management.ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        Assumptions.assumeTrue(bean instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean threadBean = (com.sun.management.ThreadMXBean) bean;
+        Assumptions.assumeTrue(threadBean.isThreadAllocatedMemorySupported());
+        threadBean.setThreadAllocatedMemoryEnabled(true);
+
+        int[][] columns = randomColumns();
+        VehicleCompositionAccumulator accumulator = new VehicleCompositionAccumulator(64);
+        long threadId = Thread.currentThread().getId();
+        // 预热，使JIT完成编译
+        runHotLoop(accumulator, columns);
+        runHotLoop(accumulator, columns);
+
+        long before = threadBean.getThreadAllocatedBytes(threadId);
+        runHotLoop(accumulator, columns);
+        long allocated = threadBean.getThreadAllocatedBytes(threadId) - before;
+
+        // 一千万次累加若逐行装箱会分配上百MB，这里仅允许计数接口自身的少量开销
+        assertThat(allocated).isLessThan(1024);
+    }
+
+    private static void runHotLoop(VehicleCompositionAccumulator accumulator, int[][] columns) {
+        for (int round = 0; round < 50; round++) {
+            for (int i = 0; i < ROWS; i++) {
+                accumulator.add(i & 63, columns[0][i], columns[1][i], columns[2][i]);
+            }
+            accumulator.addColumns(round & 63, columns[0], columns[1], columns[2], 0, ROWS);
+        }
+    }
+
+    private static int[][] randomColumns() {
+        Random random = new Random(42);
+        int[][] columns = new int[3][ROWS];
+        for (int i = 0; i < ROWS; i++) {
+            for (int c = 0; c < 3; c++) {
+                columns[c][i] = random.nextInt(20) == 0 ? -1 : random.nextInt(200);
+            }
+        }
+        return columns;
+    }
+}
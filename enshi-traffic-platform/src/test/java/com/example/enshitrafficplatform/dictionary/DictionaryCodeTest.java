@@ -0,0 +1,63 @@
+package com.example.enshitrafficplatform.dictionary;
+
+import com.example.enshitrafficplatform.analytics.WeatherCategory;
+import com.example.enshitrafficplatform.dto.FlowReading;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DictionaryCodeTest {
+
+    @Test
+    void codesAndLabelsRoundTrip() {
+        List<CodeDictionary<?>> dictionaries = List.of(Direction.dictionary(), CongestionLevel.dictionary(),
+                EventSeverity.dictionary(), EventStatus.dictionary(), EventType.dictionary(),
+                WeatherCondition.dictionary());
+        for (CodeDictionary<?> dictionary : dictionaries) {
+            dictionary.labelCodes().forEach((label, code) -> {
+                assertThat(dictionary.fromLabel(label).getCode()).isEqualTo(code);
+                assertThat(dictionary.fromCode(code).getLabel()).isEqualTo(label);
+            });
+        }
+    }
+
+    @Test
+    void unknownValuesFallBackToDefault() {
+        assertThat(CongestionLevel.fromLabel("拥堵")).isEqualTo(CongestionLevel.UNKNOWN);
+        assertThat(EventSeverity.fromLabel(null).getCode()).isZero();
+        assertThat(EventType.fromCode(99)).isEqualTo(EventType.OTHER);
+        assertThat(WeatherCondition.fromLabel("")).isEqualTo(WeatherCondition.UNKNOWN);
+        assertThat(WeatherCondition.fromLabel("小到中雨")).isEqualTo(WeatherCondition.OTHER);
+    }
+
+    @Test
+    void weatherCategoriesMatchClassification() {
+        for (WeatherCondition condition : WeatherCondition.values()) {
+            if (condition != WeatherCondition.UNKNOWN) {
+                assertThat(condition.getCategory()).isEqualTo(WeatherCategory.classify(condition.getLabel()));
+            }
+        }
+    }
+
+    @Test
+    void flowReadingKeepsOnlyUnknownWeatherLabels() {
+        FlowReading reading = new FlowReading();
+        reading.setWeatherCondition("大雾");
+        assertThat(reading.getWeatherCode()).isEqualTo(WeatherCondition.DENSE_FOG.getCode());
+        assertThat(reading.getWeatherCondition()).isSameAs(WeatherCondition.DENSE_FOG.getLabel());
+        assertThat(reading.getWeatherCategory()).isEqualTo(WeatherCategory.FOG);
+
+        reading.setWeatherCondition("小到中雨");
+        assertThat(reading.getWeatherCode()).isEqualTo(WeatherCondition.OTHER.getCode());
+        assertThat(reading.getWeatherCondition()).isEqualTo("小到中雨");
+        assertThat(reading.getWeatherCategory()).isEqualTo(WeatherCategory.RAIN);
+
+        FlowReading copy = reading.copy();
+        reading.reset();
+        assertThat(reading.getWeatherCondition()).isNull();
+        assertThat(reading.getWeatherCategory()).isEqualTo(WeatherCategory.UNKNOWN);
+        assertThat(copy.getWeatherCondition()).isEqualTo("小到中雨");
+    }
+}
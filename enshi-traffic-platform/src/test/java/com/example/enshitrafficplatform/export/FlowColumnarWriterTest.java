@@ -0,0 +1,95 @@
+package com.example.enshitrafficplatform.export;
+
+import com.example.enshitrafficplatform.dictionary.CongestionLevel;
+import com.example.enshitrafficplatform.dictionary.Direction;
+import com.example.enshitrafficplatform.dictionary.WeatherCondition;
+import com.example.enshitrafficplatform.dto.FlowReading;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FlowColumnarWriterTest {
+
+    /**
+     * 2024-05-01 00:00 (UTC+8)
+     */
+    private static final long DAY_START = 1714492800L;
+
+    @Test
+    void roundTripsAllColumnsAcrossBatches() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        FlowColumnarWriter writer = new FlowColumnarWriter(out, 100);
+        FlowReading reading = new FlowReading();
+        for (int i = 0; i < 250; i++) {
+            fill(reading, i);
+            writer.accept(reading);
+        }
+        assertThat(writer.finish()).isEqualTo(250);
+        assertThat(writer.getBytesWritten()).isEqualTo(out.size());
+
+        FlowColumnarReader reader = new FlowColumnarReader(new ByteArrayInputStream(out.toByteArray()));
+        assertThat(reader.getDictionary(FlowColumn.WEATHER_CODE).get(WeatherCondition.fromLabel("小雨").getCode()))
+                .isEqualTo("小雨");
+        assertThat(reader.getDictionary(FlowColumn.DIRECTION_CODE)).containsEntry(Direction.DOWN.getCode(), "下行");
+        assertThat(reader.getDictionary(FlowColumn.CONGESTION_LEVEL_CODE))
+                .hasSize(CongestionLevel.values().length)
+                .containsEntry(CongestionLevel.SEVERE.getCode(), CongestionLevel.SEVERE.getLabel());
+
+        FlowReading expected = new FlowReading();
+        FlowReading actual = new FlowReading();
+        int row = 0;
+        int batch;
+        while ((batch = reader.nextBatch()) >= 0) {
+            assertThat(batch).isLessThanOrEqualTo(100);
+            for (int i = 0; i < batch; i++, row++) {
+                fill(expected, row);
+                reader.read(i, actual);
+                assertThat(actual.getRecordId()).isEqualTo(expected.getRecordId());
+                assertThat(actual.getMonitoringPointId()).isEqualTo(expected.getMonitoringPointId());
+                assertThat(actual.getRoadSectionId()).isEqualTo(expected.getRoadSectionId());
+                assertThat(actual.getEpochSecond()).isEqualTo(expected.getEpochSecond());
+                assertThat(actual.getFlowRate()).isEqualTo(expected.getFlowRate());
+                assertThat(Double.doubleToLongBits(actual.getAverageSpeed()))
+                        .isEqualTo(Double.doubleToLongBits(expected.getAverageSpeed()));
+                assertThat(actual.getOccupancyRate()).isEqualTo(expected.getOccupancyRate());
+                assertThat(actual.getLargeVehicleCount()).isEqualTo(expected.getLargeVehicleCount());
+                assertThat(actual.getSmallVehicleCount()).isEqualTo(expected.getSmallVehicleCount());
+                assertThat(actual.getDataQuality()).isEqualTo(expected.getDataQuality());
+                assertThat(actual.getWeatherCondition()).isEqualTo(expected.getWeatherCondition());
+                assertThat(actual.getDirectionCode()).isEqualTo(expected.getDirectionCode());
+                assertThat(actual.getCongestionLevelCode()).isEqualTo(expected.getCongestionLevelCode());
+            }
+        }
+        assertThat(row).isEqualTo(250);
+        assertThat(reader.getTotalRows()).isEqualTo(250);
+    }
+
+    @Test
+    void rejectsStreamWithoutMagic() {
+        byte[] bytes = new byte[16];
+        assertThatThrownBy(() -> new FlowColumnarReader(new ByteArrayInputStream(bytes)))
+                .isInstanceOf(IOException.class);
+    }
+
+    private static void fill(FlowReading reading, int i) {
+        reading.reset();
+        reading.setRecordId(1000L + i);
+        reading.setMonitoringPointId(1 + i % 4);
+        reading.setRoadSectionId(10 + i % 2);
+        reading.setEpochSecond(DAY_START + i * 300L);
+        reading.setFlowRate(i % 9 == 0 ? FlowReading.MISSING_INT : 200 + i);
+        reading.setAverageSpeed(i % 5 == 0 ? Double.NaN : 30.5 + i % 17);
+        reading.setOccupancyRate(8.75);
+        reading.setLargeVehicleCount(i % 3);
+        reading.setSmallVehicleCount(40 + i % 11);
+        reading.setDataQuality(90);
+        reading.setWeatherCondition(i % 2 == 0 ? "小雨" : "晴");
+        reading.setDirectionCode(Direction.values()[i % Direction.values().length].getCode());
+        reading.setCongestionLevelCode(CongestionLevel.values()[i % CongestionLevel.values().length].getCode());
+    }
+}
@@ -0,0 +1,109 @@
+package com.example.enshitrafficplatform.peak;
+
+import com.example.enshitrafficplatform.dictionary.DayType;
+import com.example.enshitrafficplatform.entity.PeakPeriodRule;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HolidayCalendarTest {
+
+    private static final String HOLIDAYS = String.join("\n",
+            "# 测试用安排",
+            "2025-01-26,调休上班,春节调休",
+            "2025-01-28~2025-02-04,节假日,春节",
+            "2025-02-08,MAKEUP_WORKDAY,春节调休",
+            "",
+            "2025-10-01~2025-10-08,节假日,国庆节、中秋节");
+
+    @AfterEach
+    void restoreDefault() {
+        HolidayCalendar.setDefault(null);
+    }
+
+    @Test
+    void classifiesHolidaysMakeUpDaysAndWeekends() throws IOException {
+        HolidayCalendar calendar = parse();
+
+        assertThat(calendar.dayType(LocalDate.of(2025, 1, 26))).isEqualTo(DayType.MAKEUP_WORKDAY);
+        assertThat(calendar.dayType(LocalDate.of(2025, 1, 29))).isEqualTo(DayType.HOLIDAY);
+        assertThat(calendar.dayType(LocalDate.of(2025, 2, 8))).isEqualTo(DayType.MAKEUP_WORKDAY);
+        assertThat(calendar.dayType(LocalDate.of(2025, 2, 9))).isEqualTo(DayType.WEEKEND);
+        assertThat(calendar.dayType(LocalDate.of(2025, 2, 10))).isEqualTo(DayType.WORKDAY);
+        assertThat(calendar.getHolidayName(LocalDate.of(2025, 10, 6))).isEqualTo("国庆节、中秋节");
+        // 表外日期按星期区分
+        assertThat(calendar.dayType(LocalDate.of(2030, 10, 1))).isEqualTo(DayType.WORKDAY);
+        assertThat(calendar.dayType(LocalDate.of(2030, 10, 5))).isEqualTo(DayType.WEEKEND);
+        assertThat(calendar.isWorkingDay(LocalDate.of(2025, 1, 26))).isTrue();
+        assertThat(calendar.isWorkingDay(LocalDate.of(2025, 1, 28))).isFalse();
+    }
+
+    @Test
+    void countsDaysByTypeInsideAndOutsideTable() throws IOException {
+        HolidayCalendar calendar = parse();
+        Random random = new Random(3);
+        for (int i = 0; i < 500; i++) {
+            long from = LocalDate.of(2023, 6, 1).toEpochDay() + random.nextInt(1200);
+            long to = from + random.nextInt(400);
+            int mask = random.nextInt(16);
+            long expected = 0;
+            for (long day = from; day < to; day++) {
+                if ((mask & calendar.dayType(day).mask()) != 0) {
+                    expected++;
+                }
+            }
+            assertThat(calendar.countDays(from, to, mask)).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void rejectsMalformedLines() {
+        assertThatThrownBy(() -> HolidayCalendar.parse(
+                new BufferedReader(new StringReader("2025-13-01,节假日,错误")), 2025, 2025))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> HolidayCalendar.parse(
+                new BufferedReader(new StringReader("2025-01-01,假期,元旦")), 2025, 2025))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void dayTypeRulesFollowCalendarInScheduleAndOverlapCount() throws IOException {
+        HolidayCalendar.setDefault(parse());
+        Random random = new Random(5);
+        for (int r = 0; r < 100; r++) {
+            PeakPeriodRule rule = PeakWeekBitmapTest.randomRule(random);
+            rule.setEffectiveFrom(null);
+            rule.setEffectiveTo(random.nextBoolean() ? null : LocalDate.of(2025, 9, 1).plusDays(random.nextInt(60)));
+            rule.setDayTypes(1 + random.nextInt(15));
+            SectionPeakSchedule schedule = SectionPeakSchedule.compile(List.of(rule));
+            LocalDateTime from = LocalDateTime.of(2025, 1, 1, 0, 0).plusMinutes(random.nextInt(300 * 1440))
+                    .plusSeconds(random.nextInt(60));
+            LocalDateTime to = from.plusMinutes(random.nextInt(30 * 1440));
+            long expected = 0;
+            for (LocalDateTime t = from; !t.isAfter(to); t = t.plusMinutes(1)) {
+                boolean peak = rule.isInPeakPeriod(t);
+                if (peak) {
+                    expected++;
+                }
+                if (t.getSecond() == 0) {
+                    assertThat(schedule.isPeak(t)).isEqualTo(peak);
+                }
+            }
+            assertThat(rule.calculateOverlappingPeakPeriodMinutes(from, to)).isEqualTo(expected);
+        }
+    }
+
+    private static HolidayCalendar parse() throws IOException {
+        return HolidayCalendar.parse(new BufferedReader(new StringReader(HOLIDAYS)), 2024, 2026);
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.enshitrafficplatform.peak;
+
+import com.example.enshitrafficplatform.entity.PeakPeriodRule;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PeakOverlapMinutesTest {
+
+    private static final LocalDateTime ORIGIN = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Test
+    void matchesMinuteSteppingForRandomRulesAndRanges() {
+        Random random = new Random(2024);
+        for (int i = 0; i < 300; i++) {
+            PeakPeriodRule rule = PeakWeekBitmapTest.randomRule(random);
+            LocalDateTime from = ORIGIN.plusMinutes(random.nextInt(400 * 1440))
+                    .plusSeconds(random.nextInt(3) == 0 ? random.nextInt(60) : 0)
+                    .plusNanos(random.nextInt(5) == 0 ? random.nextInt(1_000_000_000) : 0);
+            LocalDateTime to = from.plusMinutes(random.nextInt(40 * 1440)).plusSeconds(random.nextInt(60));
+            assertThat(rule.calculateOverlappingPeakPeriodMinutes(from, to)).isEqualTo(stepping(rule, from, to));
+        }
+    }
+
+    @Test
+    void matchesMinuteSteppingOverOneYear() {
+        Random random = new Random(11);
+        for (int i = 0; i < 5; i++) {
+            PeakPeriodRule rule = PeakWeekBitmapTest.randomRule(random);
+            LocalDateTime from = ORIGIN.minusDays(30).plusMinutes(random.nextInt(1440));
+            LocalDateTime to = from.plusYears(1);
+            assertThat(rule.calculateOverlappingPeakPeriodMinutes(from, to)).isEqualTo(stepping(rule, from, to));
+        }
+    }
+
+    @Test
+    void handlesBoundaryMinutesAndEmptyRanges() {
+        PeakPeriodRule rule = new PeakPeriodRule();
+        rule.setName("早高峰");
+        rule.setStartTime(LocalTime.of(7, 0));
+        rule.setEndTime(LocalTime.of(9, 0));
+
+        LocalDateTime day = ORIGIN.plusDays(2);
+        // 同日时段开始、结束分钟均包含
+        assertThat(rule.calculateOverlappingPeakPeriodMinutes(day, day.plusDays(1))).isEqualTo(121);
+        assertThat(rule.calculateOverlappingPeakPeriodMinutes(day.withHour(9), day.withHour(9))).isEqualTo(1);
+        assertThat(rule.calculateOverlappingPeakPeriodMinutes(day.withHour(10), day.withHour(9))).isEqualTo(0);
+        assertThat(rule.calculateOverlappingPeakPeriodMinutes(null, day)).isEqualTo(0);
+    }
+
+    /**
+     * 原逐分钟步进实现，作为对照
+     */
+    private static long stepping(PeakPeriodRule rule, LocalDateTime from, LocalDateTime to) {
+        long totalMinutes = 0;
+        LocalDateTime current = from;
+        while (!current.isAfter(to)) {
+            if (rule.isInPeakPeriod(current)) {
+                totalMinutes++;
+            }
+            current = current.plusMinutes(1);
+        }
+        return totalMinutes;
+    }
+}
@@ -0,0 +1,78 @@
+package com.example.enshitrafficplatform.peak;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PeakScheduleResolverTest {
+
+    private static final int ALL_DAYS = 0b1111111;
+
+    /**
+     * 2024-01-01 是周一
+     */
+    private static final LocalDateTime MONDAY_0800 = LocalDateTime.of(2024, 1, 1, 8, 0);
+
+    @Test
+    void sectionsInheritRulesFromRegionAncestorsAndGlobalRules() {
+        CompiledPeakRule city = rule(1L, 0, 7, 9);
+        CompiledPeakRule county = rule(2L, 0, 17, 19);
+        CompiledPeakRule global = rule(3L, 0, 12, 13);
+        CompiledPeakRule direct = rule(4L, 0, 22, 23);
+        Map<Long, SectionPeakSchedule> schedules = PeakScheduleResolver.resolve(List.of(
+                        new PeakScheduleResolver.RuleBinding(city, 100L, Set.of()),
+                        new PeakScheduleResolver.RuleBinding(county, 200L, Set.of()),
+                        new PeakScheduleResolver.RuleBinding(global, null, Set.of()),
+                        new PeakScheduleResolver.RuleBinding(direct, null, Set.of(11L))),
+                Map.of(10L, 200L, 11L, 100L),
+                Map.of(200L, 100L));
+
+        assertThat(schedules.get(10L).getRules()).containsExactly(county, city, global);
+        assertThat(schedules.get(11L).getRules()).containsExactly(direct, city, global);
+        assertThat(schedules.get(10L).isPeak(MONDAY_0800)).isTrue();
+        assertThat(schedules.get(10L).isPeak(MONDAY_0800.withHour(22))).isFalse();
+        assertThat(schedules.get(11L).isPeak(MONDAY_0800.withHour(22))).isTrue();
+    }
+
+    @Test
+    void governingRuleFollowsPriorityThenScope() {
+        CompiledPeakRule regionHigh = rule(1L, 5, 7, 9);
+        CompiledPeakRule sectionLow = rule(2L, 1, 7, 10);
+        CompiledPeakRule regionLow = rule(3L, 1, 7, 9);
+        Map<Long, SectionPeakSchedule> schedules = PeakScheduleResolver.resolve(List.of(
+                        new PeakScheduleResolver.RuleBinding(regionLow, 100L, Set.of()),
+                        new PeakScheduleResolver.RuleBinding(sectionLow, null, Set.of(10L)),
+                        new PeakScheduleResolver.RuleBinding(regionHigh, 100L, Set.of())),
+                Map.of(10L, 100L),
+                Map.of());
+
+        SectionPeakSchedule schedule = schedules.get(10L);
+        assertThat(schedule.getRules()).containsExactly(regionHigh, sectionLow, regionLow);
+        assertThat(schedule.governingRule(MONDAY_0800)).isSameAs(regionHigh);
+        assertThat(schedule.governingRule(MONDAY_0800.withHour(9).withMinute(30))).isSameAs(sectionLow);
+        assertThat(schedule.governingRule(MONDAY_0800.withHour(11))).isNull();
+    }
+
+    @Test
+    void regionCyclesDoNotLoop() {
+        CompiledPeakRule rule = rule(1L, 0, 7, 9);
+        Map<Long, SectionPeakSchedule> schedules = PeakScheduleResolver.resolve(List.of(
+                        new PeakScheduleResolver.RuleBinding(rule, 200L, Set.of())),
+                Map.of(10L, 100L, 20L, 300L),
+                Map.of(100L, 200L, 200L, 100L));
+
+        assertThat(schedules.get(10L).getRules()).containsExactly(rule);
+        assertThat(schedules.containsKey(20L)).isFalse();
+    }
+
+    private static CompiledPeakRule rule(Long id, int priority, int startHour, int endHour) {
+        return new CompiledPeakRule(id, priority, null, null, CompiledPeakRule.ALL_DAY_TYPES,
+                PeakWeekBitmap.compile(LocalTime.of(startHour, 0), LocalTime.of(endHour, 0), ALL_DAYS));
+    }
+}
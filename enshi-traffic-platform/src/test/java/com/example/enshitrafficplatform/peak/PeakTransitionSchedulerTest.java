@@ -0,0 +1,135 @@
+package com.example.enshitrafficplatform.peak;
+
+import com.example.enshitrafficplatform.dictionary.DayType;
+import com.example.enshitrafficplatform.event.PeakTransitionEvent;
+import com.example.enshitrafficplatform.util.DateUtils;
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PeakTransitionSchedulerTest {
+
+    /**
+     * 2024-01-01 是周一
+     */
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Test
+    void nextTransitionMatchesMinuteStepping() {
+        Random random = new Random(44);
+        for (int i = 0; i < 200; i++) {
+            SectionPeakSchedule schedule = SectionPeakSchedule.compile(List.of(
+                    PeakWeekBitmapTest.randomRule(random), PeakWeekBitmapTest.randomRule(random)));
+            long from = DateUtils.toEpochSecond(MONDAY.plusMinutes(random.nextInt(300 * 1440)))
+                    + random.nextInt(60);
+            assertThat(schedule.nextTransition(from, 8)).isEqualTo(stepping(schedule, from, 8));
+        }
+    }
+
+    @Test
+    void firesStartAndEndInOrder() {
+        PeakTransitionScheduler scheduler = new PeakTransitionScheduler(() -> 0L, event -> { });
+        PeakScheduleTable table = PeakScheduleTable.of(Map.of(10L, schedule(1L, 7, 9)));
+
+        assertThat(scheduler.update(table, at(MONDAY.withHour(6)))).isEmpty();
+        assertThat(scheduler.nextTransition(10L)).isEqualTo(at(MONDAY.withHour(7)));
+        assertThat(scheduler.fireDue(at(MONDAY.withHour(7)) - 1)).isEmpty();
+
+        List<PeakTransitionEvent> events = scheduler.fireDue(at(MONDAY.withHour(12)));
+        assertThat(events).hasSize(2);
+        assertThat(events.get(0).isPeak()).isTrue();
+        assertThat(events.get(0).getTime()).isEqualTo(MONDAY.withHour(7));
+        assertThat(events.get(0).getRuleId()).isEqualTo(1L);
+        assertThat(events.get(1).isPeak()).isFalse();
+        assertThat(events.get(1).getTime()).isEqualTo(MONDAY.withHour(9).withMinute(1));
+        assertThat(scheduler.nextTransition(10L)).isEqualTo(at(MONDAY.plusDays(1).withHour(7)));
+    }
+
+    @Test
+    void updateReschedulesOnlyChangedSections() {
+        PeakTransitionScheduler scheduler = new PeakTransitionScheduler(() -> 0L, event -> { });
+        PeakScheduleTable table = PeakScheduleTable.of(Map.of(
+                10L, schedule(1L, 7, 9),
+                20L, schedule(2L, 17, 19)));
+        scheduler.update(table, at(MONDAY.withHour(6)));
+
+        PeakScheduleTable edited = table.withSchedules(Map.of(
+                10L, schedule(1L, 7, 9),
+                20L, schedule(2L, 5, 19)));
+        assertThat(edited.get(10L)).isSameAs(table.get(10L));
+        List<PeakTransitionEvent> events = scheduler.update(edited, at(MONDAY.withHour(6)));
+
+        assertThat(events).hasSize(1);
+        assertThat(events.get(0).getRoadSectionId()).isEqualTo(20L);
+        assertThat(events.get(0).isPeak()).isTrue();
+        assertThat(scheduler.nextTransition(10L)).isEqualTo(at(MONDAY.withHour(7)));
+        assertThat(scheduler.nextTransition(20L)).isEqualTo(at(MONDAY.withHour(19).withMinute(1)));
+
+        List<PeakTransitionEvent> removed = scheduler.update(PeakScheduleTable.of(Map.of(10L, table.get(10L))),
+                at(MONDAY.withHour(6)));
+        assertThat(removed).hasSize(1);
+        assertThat(removed.get(0).isPeak()).isFalse();
+        assertThat(scheduler.nextTransition(20L)).isEqualTo(-1L);
+        assertThat(scheduler.getScheduledCount()).isEqualTo(1);
+    }
+
+    @Test
+    void calendarReloadReplansDayTypeSections() throws IOException {
+        PeakTransitionScheduler scheduler = new PeakTransitionScheduler(() -> 0L, event -> { });
+        SectionPeakSchedule workdays = SectionPeakSchedule.of(List.of(new CompiledPeakRule(1L, 0, null, null,
+                DayType.WORKDAY.mask() | DayType.MAKEUP_WORKDAY.mask(),
+                PeakWeekBitmap.compile(LocalTime.of(7, 0), LocalTime.of(9, 0), null))));
+        PeakScheduleTable table = PeakScheduleTable.of(Map.of(10L, workdays, 20L, schedule(2L, 7, 9)));
+        LocalDateTime friday = MONDAY.plusDays(4).withHour(12);
+        try {
+            HolidayCalendar.setDefault(null);
+            scheduler.update(table, at(friday));
+            assertThat(scheduler.nextTransition(10L)).isEqualTo(at(MONDAY.plusDays(7).withHour(7)));
+
+            // 新增周六调休上班，时间表实例不变
+            HolidayCalendar.setDefault(HolidayCalendar.parse(
+                    new BufferedReader(new StringReader("2024-01-06,调休上班,测试调休")), 2024, 2024));
+            assertThat(scheduler.replanDayTypeSections(at(friday))).isEmpty();
+            assertThat(scheduler.nextTransition(10L)).isEqualTo(at(MONDAY.plusDays(5).withHour(7)));
+            assertThat(scheduler.nextTransition(20L)).isEqualTo(at(MONDAY.plusDays(5).withHour(7)));
+
+            List<PeakTransitionEvent> events = scheduler.fireDue(at(MONDAY.plusDays(5).withHour(8)));
+            assertThat(events).extracting(PeakTransitionEvent::getRoadSectionId).containsExactlyInAnyOrder(10L, 20L);
+            assertThat(events).allMatch(PeakTransitionEvent::isPeak);
+        } finally {
+            HolidayCalendar.setDefault(null);
+        }
+    }
+
+    private static long stepping(SectionPeakSchedule schedule, long from, int maxDays) {
+        boolean peak = schedule.isPeak(from);
+        long minute = Math.floorDiv(from, 60L) * 60L + 60L;
+        long last = DateUtils.startOfEpochDay(DateUtils.localEpochDay(from) + maxDays + 1);
+        for (; minute < last; minute += 60L) {
+            if (schedule.isPeak(minute) != peak) {
+                return minute;
+            }
+        }
+        return -1L;
+    }
+
+    private static SectionPeakSchedule schedule(Long ruleId, int startHour, int endHour) {
+        return SectionPeakSchedule.of(List.of(new CompiledPeakRule(ruleId, 0, null, null,
+                CompiledPeakRule.ALL_DAY_TYPES,
+                PeakWeekBitmap.compile(LocalTime.of(startHour, 0), LocalTime.of(endHour, 0), null))));
+    }
+
+    private static long at(LocalDateTime time) {
+        return DateUtils.toEpochSecond(time);
+    }
+}
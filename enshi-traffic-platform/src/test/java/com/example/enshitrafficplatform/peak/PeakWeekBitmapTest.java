@@ -0,0 +1,124 @@
+package com.example.enshitrafficplatform.peak;
+
+import com.example.enshitrafficplatform.entity.PeakPeriodRule;
+import com.example.enshitrafficplatform.entity.RoadSection;
+import com.example.enshitrafficplatform.util.DateUtils;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PeakWeekBitmapTest {
+
+    private static final LocalDateTime ORIGIN = LocalDateTime.of(2024, 1, 1, 0, 0);
+
+    @Test
+    void compiledRuleMatchesRuleForRandomRulesAndMinutes() {
+        Random random = new Random(42);
+        for (int r = 0; r < 200; r++) {
+            PeakPeriodRule rule = randomRule(random);
+            CompiledPeakRule compiled = rule.compile();
+            for (int i = 0; i < 500; i++) {
+                LocalDateTime time = ORIGIN.plusMinutes(random.nextInt(366 * 1440));
+                boolean expected = rule.isInPeakPeriod(time);
+                assertThat(compiled.isPeak(time)).isEqualTo(expected);
+                assertThat(compiled.isPeak(DateUtils.toEpochSecond(time))).isEqualTo(expected);
+                assertThat(compiled.getBitmap().get(DateUtils.minuteOfWeek(time))).isEqualTo(
+                        rule.appliesTo(time.getDayOfWeek().getValue(), time.getHour(), time.getMinute()));
+            }
+        }
+    }
+
+    @Test
+    void crossMidnightRuleExcludesEndMinuteAndUsesDayOfEachMinute() {
+        PeakPeriodRule rule = new PeakPeriodRule();
+        rule.setName("夜间");
+        rule.setStartTime(LocalTime.of(22, 0));
+        rule.setEndTime(LocalTime.of(2, 0));
+        rule.setApplicableDaysOfWeek(Set.of(5));
+        CompiledPeakRule compiled = rule.compile();
+
+        // 2024-01-05 为周五
+        assertThat(compiled.isPeak(LocalDateTime.of(2024, 1, 5, 22, 0))).isTrue();
+        assertThat(compiled.isPeak(LocalDateTime.of(2024, 1, 5, 1, 59))).isTrue();
+        assertThat(compiled.isPeak(LocalDateTime.of(2024, 1, 5, 2, 0))).isFalse();
+        assertThat(compiled.isPeak(LocalDateTime.of(2024, 1, 6, 1, 0))).isFalse();
+        assertThat(compiled.getBitmap().cardinality()).isEqualTo(240);
+    }
+
+    @Test
+    void sectionScheduleMatchesAnyRuleAcrossEffectiveRanges() {
+        Random random = new Random(7);
+        for (int s = 0; s < 50; s++) {
+            List<PeakPeriodRule> rules = new ArrayList<>();
+            for (int i = 0; i < 1 + random.nextInt(5); i++) {
+                rules.add(randomRule(random));
+            }
+            SectionPeakSchedule schedule = SectionPeakSchedule.compile(rules);
+            for (int i = 0; i < 2000; i++) {
+                LocalDateTime time = ORIGIN.plusMinutes(random.nextInt(366 * 1440));
+                boolean expected = false;
+                for (PeakPeriodRule rule : rules) {
+                    expected |= rule.isInPeakPeriod(time);
+                }
+                assertThat(schedule.isPeak(time)).isEqualTo(expected);
+            }
+        }
+    }
+
+    @Test
+    void countsMinutesInWeekRange() {
+        PeakWeekBitmap bitmap = new PeakWeekBitmap();
+        for (int minute = 60; minute < 200; minute++) {
+            bitmap.set(minute);
+        }
+        bitmap.set(DateUtils.MINUTES_PER_WEEK - 1);
+        assertThat(bitmap.count(0, DateUtils.MINUTES_PER_WEEK)).isEqualTo(141);
+        assertThat(bitmap.count(64, 128)).isEqualTo(64);
+        assertThat(bitmap.count(100, 101)).isEqualTo(1);
+        assertThat(bitmap.count(150, 150)).isEqualTo(0);
+        assertThat(bitmap.count(DateUtils.MINUTES_PER_WEEK - 1, DateUtils.MINUTES_PER_WEEK)).isEqualTo(1);
+    }
+
+    @Test
+    void sectionScheduleFollowsRuleEditsBeforeTableIsLoaded() {
+        PeakScheduleTable.setDefault(null);
+        RoadSection section = new RoadSection();
+        section.setId(1L);
+        PeakPeriodRule rule = new PeakPeriodRule();
+        rule.setName("早高峰");
+        rule.setStartTime(LocalTime.of(7, 0));
+        rule.setEndTime(LocalTime.of(9, 0));
+        // 不经 addPeakPeriodRule 建立双向关联，避免 @Data 生成的 hashCode 在两个实体间递归
+        section.getPeakPeriodRules().add(rule);
+        LocalDateTime morning = LocalDateTime.of(2024, 1, 2, 8, 30);
+
+        assertThat(section.peakSchedule().isPeak(morning)).isTrue();
+        rule.setEndTime(LocalTime.of(8, 0));
+        assertThat(section.peakSchedule().isPeak(morning)).isFalse();
+        section.getPeakPeriodRules().clear();
+        assertThat(section.peakSchedule().isPeak(LocalDateTime.of(2024, 1, 2, 7, 30))).isFalse();
+    }
+
+    static PeakPeriodRule randomRule(Random random) {
+        LocalDate from = random.nextInt(3) == 0 ? null : ORIGIN.toLocalDate().plusDays(random.nextInt(200));
+        LocalDate to = random.nextInt(3) == 0 ? null
+                : ORIGIN.toLocalDate().plusDays(150 + random.nextInt(250));
+        PeakPeriodRule rule = new PeakPeriodRule();
+        rule.setName("规则");
+        rule.setStartTime(LocalTime.of(random.nextInt(24), random.nextInt(4) * 15));
+        rule.setEndTime(LocalTime.of(random.nextInt(24), random.nextInt(4) * 15));
+        rule.setApplicableDays(random.nextInt(4) == 0 ? null : random.nextInt(128));
+        rule.setEffectiveFrom(from);
+        rule.setEffectiveTo(to);
+        rule.setPriority(random.nextInt(10));
+        return rule;
+    }
+}
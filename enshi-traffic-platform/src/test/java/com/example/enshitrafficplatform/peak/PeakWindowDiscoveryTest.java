@@ -0,0 +1,107 @@
+package com.example.enshitrafficplatform.peak;
+
+import com.example.enshitrafficplatform.util.DateUtils;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PeakWindowDiscoveryTest {
+
+    private static final LocalDate FIRST_DAY = LocalDate.of(2024, 1, 1);
+
+    private static final int DAYS = 366;
+
+    private final PeakWindowDiscovery discovery =
+            new PeakWindowDiscovery(HolidayCalendar.weekendsOnly(), 0.8, 1, 8, 4, 0.8);
+
+    @Test
+    void findsWorkdayPeaksAndSeasonalRestDayPeaks() {
+        SectionPeakSchedule active = SectionPeakSchedule.of(List.of(
+                rule(1L, 7, 9, 0b0011111),
+                rule(2L, 18, 20, 0b1111111)));
+
+        SectionPeakDiscovery result = discovery.discover(sampleFlow(), null, active);
+
+        assertThat(result.getProposals()).hasSize(2);
+        PeakWindowProposal workday = result.getProposals().get(0);
+        assertThat(workday.getDayTypes()).isEqualTo(PeakWindowDiscovery.WORKING_DAYS);
+        assertThat(workday.getStartTime()).isEqualTo(LocalTime.of(7, 0));
+        assertThat(workday.getEndTime()).isEqualTo(LocalTime.of(9, 0));
+        assertThat(workday.getEffectiveFrom()).isNull();
+        assertThat(workday.getEffectiveTo()).isNull();
+        assertThat(workday.getConfidence()).isEqualTo(1.0);
+        assertThat(workday.getChange()).isEqualTo(PeakWindowProposal.Change.UNCHANGED);
+        assertThat(workday.getOverlappingRuleIds()).containsExactly(1L);
+
+        PeakWindowProposal summer = result.getProposals().get(1);
+        assertThat(summer.getDayTypes()).isEqualTo(PeakWindowDiscovery.REST_DAYS);
+        assertThat(summer.getStartTime()).isEqualTo(LocalTime.of(10, 0));
+        assertThat(summer.getEndTime()).isEqualTo(LocalTime.of(16, 0));
+        assertThat(summer.getEffectiveFrom()).isEqualTo(LocalDate.of(2024, 7, 1));
+        assertThat(summer.getEffectiveTo()).isEqualTo(LocalDate.of(2024, 8, 31));
+        assertThat(summer.getChange()).isEqualTo(PeakWindowProposal.Change.NEW);
+
+        assertThat(result.getRuleSupports()).hasSize(2);
+        assertThat(result.getRuleSupports().get(0).isUnsupported()).isFalse();
+        assertThat(result.getRuleSupports().get(1).isUnsupported()).isTrue();
+    }
+
+    @Test
+    void explicitThresholdReplacesPercentile() {
+        SectionPeakDiscovery result = discovery.discover(sampleFlow(), 550.0, SectionPeakSchedule.empty());
+
+        assertThat(result.getProposals()).hasSize(1);
+        assertThat(result.getProposals().get(0).getStartTime()).isEqualTo(LocalTime.of(10, 0));
+        assertThat(result.getProposals().get(0).getFlowThreshold()).isEqualTo(550.0);
+    }
+
+    @Test
+    void windowsWrapAroundMidnightAndRespectLengthLimits() {
+        boolean[] above = new boolean[24];
+        for (int hour : new int[] {22, 23, 0, 1, 5}) {
+            above[hour] = true;
+        }
+        for (int hour = 8; hour <= 17; hour++) {
+            above[hour] = true;
+        }
+
+        List<PeakWindowDiscovery.Window> windows = new PeakWindowDiscovery(
+                HolidayCalendar.weekendsOnly(), 0.8, 2, 8, 4, 0.8).windows(above);
+
+        assertThat(windows).containsExactly(new PeakWindowDiscovery.Window(22, 4));
+        assertThat(windows.get(0).contains(1)).isTrue();
+        assertThat(windows.get(0).contains(2)).isFalse();
+    }
+
+    /**
+     * 基础流量100；工作日7-9点500；7、8月的周末10-16点600
+     */
+    private static SectionHourlyFlow sampleFlow() {
+        SectionHourlyFlow flow = new SectionHourlyFlow(10L, FIRST_DAY.toEpochDay(), DAYS);
+        for (int day = 0; day < DAYS; day++) {
+            LocalDate date = FIRST_DAY.plusDays(day);
+            boolean weekend = date.getDayOfWeek() == DayOfWeek.SATURDAY || date.getDayOfWeek() == DayOfWeek.SUNDAY;
+            boolean summer = date.getMonthValue() == 7 || date.getMonthValue() == 8;
+            for (int hour = 0; hour < 24; hour++) {
+                double value = 100;
+                if (!weekend && (hour == 7 || hour == 8)) {
+                    value = 500;
+                } else if (weekend && summer && hour >= 10 && hour < 16) {
+                    value = 600;
+                }
+                flow.set(DateUtils.startOfEpochDay(date.toEpochDay()) + hour * 3600L, value);
+            }
+        }
+        return flow;
+    }
+
+    private static CompiledPeakRule rule(Long id, int startHour, int endHour, int applicableDays) {
+        return new CompiledPeakRule(id, 0, null, null, CompiledPeakRule.ALL_DAY_TYPES,
+                PeakWeekBitmap.compile(LocalTime.of(startHour, 0), LocalTime.of(endHour, 0), applicableDays));
+    }
+}
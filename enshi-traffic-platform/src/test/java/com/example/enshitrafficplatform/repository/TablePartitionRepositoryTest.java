@@ -0,0 +1,218 @@
+package com.example.enshitrafficplatform.repository;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.lang.reflect.Method;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 在独立的探测库中按实际表结构建立分区的 traffic_flow_records、weather_records，
+ * 查看扫描器与仓库实际执行的语句的查询计划。
+ * 需要可连接的MySQL，连接参数可通过 test.mysql.url / username / password 系统属性指定，连接不上时跳过
+ */
+class TablePartitionRepositoryTest {
+
+    private static final String PROBE_SCHEMA = "enshistraffic_partition_probe";
+
+    private static final String FLOW_TABLE = "traffic_flow_records";
+
+    private static final String WEATHER_TABLE = "weather_records";
+
+    private static final YearMonth FIRST_MONTH = YearMonth.of(2025, 1);
+
+    private static final LocalDateTime FEB_START = LocalDateTime.of(2025, 2, 3, 0, 0);
+
+    private static final LocalDateTime FEB_END = LocalDateTime.of(2025, 2, 20, 0, 0);
+
+    private static final Pattern NAMED_PARAMETER = Pattern.compile(":(\\w+)");
+
+    private SingleConnectionDataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TablePartitionRepository repository;
+
+    @AfterEach
+    void tearDown() {
+        if (jdbcTemplate != null) {
+            jdbcTemplate.execute("DROP DATABASE IF EXISTS " + PROBE_SCHEMA);
+            dataSource.destroy();
+        }
+    }
+
+    @Test
+    void scannerQueriesArePrunedToTheQueriedMonths() {
+        connect();
+        repository.convertToMonthlyPartitions(FLOW_TABLE, FIRST_MONTH, FIRST_MONTH.plusMonths(3));
+
+        assertThat(flowPartitions(TrafficFlowRecordScanner.SCAN_SQL, FEB_START, FEB_END)).isEqualTo("p202502");
+        assertThat(flowPartitions(TrafficFlowRecordScanner.SCAN_ORDER_BY_POINT_SQL, FEB_START, FEB_END))
+                .isEqualTo("p202502");
+        assertThat(flowPartitions(TrafficFlowRecordScanner.scanPointsSql(2), 1L, 2L, FEB_START, FEB_END))
+                .isEqualTo("p202502");
+        assertThat(flowPartitions(TrafficFlowRecordScanner.scanVehicleCountsSql(2), 1L, 2L,
+                LocalDateTime.of(2025, 1, 31, 0, 0), LocalDateTime.of(2025, 3, 1, 0, 0)))
+                .isEqualTo("p202501,p202502");
+        // 只有时间下限的语句访问该月及之后的分区
+        assertThat(flowPartitions(TrafficFlowRecordScanner.SCAN_LATEST_SQL, 1L, FEB_START))
+                .isEqualTo("p202502,p202503,p202504,pmax");
+        assertThat(flowPartitions(TrafficFlowRecordScanner.SCAN_BY_ID_RANGE_SINCE_SQL, 0L, 100L,
+                LocalDateTime.of(2025, 3, 5, 0, 0))).isEqualTo("p202503,p202504,pmax");
+        // 不带时间条件的ID区间扫描访问全部分区
+        assertThat(flowPartitions(TrafficFlowRecordScanner.SCAN_BY_ID_RANGE_SQL, 0L, 100L).split(",")).hasSize(5);
+    }
+
+    @Test
+    void repositoryNativeQueriesArePrunedToTheQueriedMonths() {
+        connect();
+        repository.convertToMonthlyPartitions(FLOW_TABLE, FIRST_MONTH, FIRST_MONTH.plusMonths(3));
+        repository.convertToMonthlyPartitions(WEATHER_TABLE, FIRST_MONTH, FIRST_MONTH.plusMonths(3));
+        Map<String, Object> arguments = Map.of(
+                "startTime", FEB_START, "endTime", FEB_END, "maxId", Long.MAX_VALUE, "limit", 1000);
+
+        int explained = 0;
+        for (Class<?> repositoryType : List.of(TrafficFlowRecordRepository.class, WeatherRecordRepository.class)) {
+            for (Method method : repositoryType.getDeclaredMethods()) {
+                Query query = method.getAnnotation(Query.class);
+                if (query == null || !query.nativeQuery()) {
+                    continue;
+                }
+                List<Object> args = new ArrayList<>();
+                Matcher matcher = NAMED_PARAMETER.matcher(query.value());
+                while (matcher.find()) {
+                    args.add(Objects.requireNonNull(arguments.get(matcher.group(1)), matcher.group(1)));
+                }
+                String sql = NAMED_PARAMETER.matcher(query.value()).replaceAll("?");
+                assertThat(repository.explainPartitions(sql, args.toArray())).as(method.getName())
+                        .containsExactly("p202502");
+                explained++;
+            }
+        }
+        assertThat(explained).isEqualTo(4);
+    }
+
+    @Test
+    void jpqlQueriesOnPartitionedTablesAreBoundedByRecordTime() {
+        for (Class<?> repositoryType : List.of(TrafficFlowRecordRepository.class, WeatherRecordRepository.class)) {
+            for (Method method : repositoryType.getDeclaredMethods()) {
+                Query query = method.getAnnotation(Query.class);
+                if (query == null) {
+                    // 派生查询按方法名带上时间下限
+                    assertThat(method.getName()).as(method.getName()).contains("RecordTimeGreaterThanEqual");
+                } else if (!query.nativeQuery()) {
+                    assertThat(query.value()).as(method.getName()).containsPattern("\\.recordTime >= :\\w+");
+                }
+            }
+        }
+    }
+
+    @Test
+    void minRecordTimeStopsAtTheFirstNonEmptyPartition() {
+        connect();
+        assertThat(repository.findMinRecordTime(FLOW_TABLE)).isEqualTo(FIRST_MONTH.atDay(10).atTime(8, 0));
+
+        repository.convertToMonthlyPartitions(FLOW_TABLE, FIRST_MONTH.minusMonths(1), FIRST_MONTH.plusMonths(3));
+        assertThat(repository.findMinRecordTime(FLOW_TABLE)).isEqualTo(FIRST_MONTH.atDay(10).atTime(8, 0));
+
+        repository.dropMonthPartition(FLOW_TABLE, FIRST_MONTH);
+        jdbcTemplate.update("DELETE FROM " + FLOW_TABLE + " WHERE record_time < ?", FIRST_MONTH.plusMonths(2).atDay(1));
+        assertThat(repository.findMinRecordTime(FLOW_TABLE))
+                .isEqualTo(FIRST_MONTH.plusMonths(2).atDay(10).atTime(8, 0));
+
+        jdbcTemplate.update("DELETE FROM " + FLOW_TABLE);
+        assertThat(repository.findMinRecordTime(FLOW_TABLE)).isNull();
+        assertThat(TablePartitionRepository.minRecordTimeSql(FLOW_TABLE, "p202503"))
+                .isEqualTo("SELECT MIN(record_time) FROM traffic_flow_records PARTITION (p202503)");
+    }
+
+    @Test
+    void partitionsAreAddedAndDroppedWithoutTouchingOtherMonths() {
+        connect();
+        repository.convertToMonthlyPartitions(FLOW_TABLE, FIRST_MONTH, FIRST_MONTH.plusMonths(2));
+        assertThat(repository.isPartitioned(FLOW_TABLE)).isTrue();
+        repository.addMonthPartition(FLOW_TABLE, FIRST_MONTH.plusMonths(3));
+        assertThat(repository.listMonthPartitions(FLOW_TABLE))
+                .extracting(TablePartitionRepository.MonthPartition::getName)
+                .containsExactly("p202501", "p202502", "p202503", "p202504");
+
+        LocalDateTime monthStart = FIRST_MONTH.atDay(1).atStartOfDay();
+        assertThat(repository.countRowsOutside(FLOW_TABLE, FIRST_MONTH, monthStart, 1L)).isZero();
+        assertThat(repository.countRowsOutside(FLOW_TABLE, FIRST_MONTH, monthStart, 0L)).isEqualTo(1L);
+
+        repository.dropMonthPartition(FLOW_TABLE, FIRST_MONTH);
+        assertThat(repository.listMonthPartitions(FLOW_TABLE))
+                .extracting(TablePartitionRepository.MonthPartition::getMonth)
+                .containsExactly(FIRST_MONTH.plusMonths(1), FIRST_MONTH.plusMonths(2), FIRST_MONTH.plusMonths(3));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + FLOW_TABLE, Long.class)).isEqualTo(2L);
+    }
+
+    /**
+     * 连接MySQL并在探测库中建表，每个月写入一条流量记录和一条天气记录
+     */
+    private void connect() {
+        SingleConnectionDataSource candidate = new SingleConnectionDataSource(
+                System.getProperty("test.mysql.url", "jdbc:mysql://localhost:3308/enshistraffic"
+                        + "?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC&characterEncoding=utf8"),
+                System.getProperty("test.mysql.username", "root"),
+                System.getProperty("test.mysql.password", "123456"), true);
+        try (Connection ignored = candidate.getConnection()) {
+            // 仅检查连接
+        } catch (SQLException e) {
+            Assumptions.abort("MySQL不可用：" + e.getMessage());
+        }
+        dataSource = candidate;
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP DATABASE IF EXISTS " + PROBE_SCHEMA);
+        jdbcTemplate.execute("CREATE DATABASE " + PROBE_SCHEMA);
+        // 单连接数据源，切换后仓库的 DATABASE() 也指向探测库
+        jdbcTemplate.execute("USE " + PROBE_SCHEMA);
+        repository = new TablePartitionRepository(dataSource);
+
+        jdbcTemplate.execute("CREATE TABLE monitoring_points (id BIGINT NOT NULL, road_section_id BIGINT, "
+                + "PRIMARY KEY (id))");
+        jdbcTemplate.execute("CREATE TABLE " + FLOW_TABLE + " (id BIGINT NOT NULL AUTO_INCREMENT, "
+                + "monitoring_point_id BIGINT NOT NULL, road_section_id BIGINT, record_time DATETIME(6) NOT NULL, "
+                + "flow_rate INT, average_speed DOUBLE, occupancy_rate DOUBLE, large_vehicle_count INT, "
+                + "medium_vehicle_count INT, small_vehicle_count INT, headway DOUBLE, data_quality INT, "
+                + "weather_condition VARCHAR(50), direction_code TINYINT, congestion_level_code TINYINT, "
+                + "PRIMARY KEY (id), "
+                + "KEY idx_traffic_flow_record_time (record_time), "
+                + "CONSTRAINT fk_probe_point FOREIGN KEY (monitoring_point_id) REFERENCES monitoring_points (id))");
+        jdbcTemplate.execute("CREATE TABLE " + WEATHER_TABLE + " (id BIGINT NOT NULL AUTO_INCREMENT, "
+                + "record_time DATETIME(6) NOT NULL, data_source VARCHAR(50), region_id BIGINT, "
+                + "longitude DOUBLE, latitude DOUBLE, PRIMARY KEY (id), KEY idx_weather_record_time (record_time))");
+        jdbcTemplate.update("INSERT INTO monitoring_points (id, road_section_id) VALUES (1, 10), (2, NULL)");
+        for (int month = 0; month < 3; month++) {
+            LocalDateTime recordTime = FIRST_MONTH.plusMonths(month).atDay(10).atTime(8, 0);
+            jdbcTemplate.update("INSERT INTO " + FLOW_TABLE + " (monitoring_point_id, record_time, flow_rate) "
+                    + "VALUES (?, ?, ?)", 1L + month % 2, recordTime, 100 + month);
+            jdbcTemplate.update("INSERT INTO " + WEATHER_TABLE + " (record_time, data_source, region_id) "
+                    + "VALUES (?, 'probe', 1)", recordTime);
+        }
+    }
+
+    /**
+     * 查询计划中流量表访问的分区，联接的监测点表未分区，其 partitions 列为空
+     */
+    private String flowPartitions(String sql, Object... args) {
+        List<String> partitions = repository.explainPartitions(sql, args).stream().filter(Objects::nonNull).toList();
+        assertThat(partitions).hasSize(1);
+        return partitions.get(0);
+    }
+}
@@ -0,0 +1,107 @@
+package com.example.enshitrafficplatform.service.impl;
+
+import com.example.enshitrafficplatform.repository.PointFiveMinuteBucketRepository;
+import com.example.enshitrafficplatform.repository.PointHourlyBucketRepository;
+import com.example.enshitrafficplatform.repository.TablePartitionRepository;
+import com.example.enshitrafficplatform.repository.TrafficFlowArchiveBlockRepository;
+import com.example.enshitrafficplatform.repository.TrafficFlowRecordRepository;
+import com.example.enshitrafficplatform.retention.RetentionTier;
+import com.example.enshitrafficplatform.service.FlowArchiveService;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FlowRecordRetentionHandlerTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+
+    private static final LocalDateTime START = DAY.atStartOfDay();
+
+    private static final LocalDateTime END = START.plusDays(1);
+
+    private final TrafficFlowRecordRepository recordRepository = mock(TrafficFlowRecordRepository.class);
+
+    private final PointFiveMinuteBucketRepository fiveMinuteRepository = mock(PointFiveMinuteBucketRepository.class);
+
+    private final PointHourlyBucketRepository hourlyRepository = mock(PointHourlyBucketRepository.class);
+
+    private final TrafficFlowArchiveBlockRepository archiveBlockRepository =
+            mock(TrafficFlowArchiveBlockRepository.class);
+
+    private final FlowArchiveService archiveService = mock(FlowArchiveService.class);
+
+    private final FlowRecordRetentionHandler handler = new FlowRecordRetentionHandler(recordRepository,
+            fiveMinuteRepository, hourlyRepository, archiveBlockRepository, mock(TablePartitionRepository.class),
+            archiveService, new TransactionTemplate(mock(PlatformTransactionManager.class)));
+
+    @Test
+    void rawDayIsCoveredOnlyWhenEveryRecordIsBucketedAndArchived() {
+        when(recordRepository.countByRecordTimeRange(START, END)).thenReturn(120L);
+        when(fiveMinuteRepository.sumRecordCount(START, END)).thenReturn(119L);
+        when(archiveBlockRepository.existsByBlockDate(DAY)).thenReturn(true);
+        assertThat(handler.isCovered(RetentionTier.RAW, DAY)).isFalse();
+
+        when(fiveMinuteRepository.sumRecordCount(START, END)).thenReturn(120L);
+        when(archiveBlockRepository.existsByBlockDate(DAY)).thenReturn(false);
+        assertThat(handler.isCovered(RetentionTier.RAW, DAY)).isFalse();
+
+        when(archiveBlockRepository.existsByBlockDate(DAY)).thenReturn(true);
+        assertThat(handler.isCovered(RetentionTier.RAW, DAY)).isTrue();
+
+        // 没有记录的日期无需覆盖
+        when(recordRepository.countByRecordTimeRange(START, END)).thenReturn(0L);
+        when(archiveBlockRepository.existsByBlockDate(DAY)).thenReturn(false);
+        assertThat(handler.isCovered(RetentionTier.RAW, DAY)).isTrue();
+    }
+
+    @Test
+    void fiveMinuteDayIsCoveredWhenHourlyBucketsHoldTheSameSamples() {
+        when(fiveMinuteRepository.sumFlowCount(START, END)).thenReturn(300L);
+        when(hourlyRepository.sumFlowCount(START, END)).thenReturn(288L);
+        assertThat(handler.isCovered(RetentionTier.FIVE_MINUTE, DAY)).isFalse();
+
+        when(hourlyRepository.sumFlowCount(START, END)).thenReturn(300L);
+        assertThat(handler.isCovered(RetentionTier.FIVE_MINUTE, DAY)).isTrue();
+        assertThat(handler.isCovered(RetentionTier.HOURLY, DAY)).isTrue();
+    }
+
+    @Test
+    void downsampleRebuildsTheNextTierAndArchivesMissingDays() {
+        when(archiveBlockRepository.existsByBlockDate(DAY)).thenReturn(false);
+        handler.downsample(RetentionTier.RAW, DAY);
+        verify(fiveMinuteRepository).deleteByBucketStartRange(START, END);
+        verify(fiveMinuteRepository).rebuildFromRecords(START, END);
+        verify(archiveService).archiveDay(DAY);
+
+        handler.downsample(RetentionTier.FIVE_MINUTE, DAY);
+        verify(hourlyRepository).deleteByBucketStartRange(START, END);
+        verify(hourlyRepository).rebuildFromFiveMinuteBuckets(START, END);
+
+        when(archiveBlockRepository.existsByBlockDate(DAY.plusDays(1))).thenReturn(true);
+        handler.downsample(RetentionTier.RAW, DAY.plusDays(1));
+        verify(archiveService, never()).archiveDay(DAY.plusDays(1));
+        handler.downsample(RetentionTier.HOURLY, DAY);
+        verify(hourlyRepository, never()).rebuildFromRecords(any(), any());
+    }
+
+    @Test
+    void purgeDeletesOneBoundedBatchFromTheTierTable() {
+        when(recordRepository.deleteMigratedBatch(START, END, Long.MAX_VALUE, 500)).thenReturn(500);
+        when(fiveMinuteRepository.deleteBatch(START, END, 500)).thenReturn(42);
+        when(hourlyRepository.deleteBatch(START, END, 500)).thenReturn(7);
+
+        assertThat(handler.purgeBatch(RetentionTier.RAW, DAY, 500)).isEqualTo(500);
+        assertThat(handler.purgeBatch(RetentionTier.FIVE_MINUTE, DAY, 500)).isEqualTo(42);
+        assertThat(handler.purgeBatch(RetentionTier.HOURLY, DAY, 500)).isEqualTo(7);
+    }
+}
@@ -0,0 +1,225 @@
+package com.example.enshitrafficplatform.service.impl;
+
+import com.example.enshitrafficplatform.dto.FlowReading;
+import com.example.enshitrafficplatform.dto.response.FlowSeriesResponse;
+import com.example.enshitrafficplatform.dto.response.FlowSeriesResponse.TierRead;
+import com.example.enshitrafficplatform.repository.MonitoringPointRepository;
+import com.example.enshitrafficplatform.repository.TablePartitionRepository;
+import com.example.enshitrafficplatform.repository.TrafficFlowRecordScanner;
+import com.example.enshitrafficplatform.service.ColdStorageService;
+import com.example.enshitrafficplatform.service.FlowArchiveService;
+import com.example.enshitrafficplatform.service.HotFlowStoreService;
+import com.example.enshitrafficplatform.service.PartitionMaintenanceService;
+import com.example.enshitrafficplatform.storage.HotFlowStore;
+import com.example.enshitrafficplatform.storage.StorageTier;
+import com.example.enshitrafficplatform.util.DateUtils;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class FlowSeriesServiceImplTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2024, 6, 1, 0, 0);
+
+    private static final LocalDateTime END = LocalDateTime.of(2024, 6, 10, 0, 0);
+
+    /**
+     * 冷数据段覆盖到 6月2日，原始记录从 6月5日开始，热存储窗口从 6月8日开始
+     */
+    private static final LocalDate COVERED_UNTIL = LocalDate.of(2024, 6, 2);
+
+    private static final LocalDateTime RAW_START = LocalDateTime.of(2024, 6, 5, 0, 0);
+
+    private static final LocalDateTime HOT_START = LocalDateTime.of(2024, 6, 8, 0, 0);
+
+    private final HotFlowStoreService hotFlowStoreService = mock(HotFlowStoreService.class);
+
+    private final TrafficFlowRecordScanner scanner = mock(TrafficFlowRecordScanner.class);
+
+    private final TablePartitionRepository partitionRepository = mock(TablePartitionRepository.class);
+
+    private final FlowArchiveService archiveService = mock(FlowArchiveService.class);
+
+    private final ColdStorageService coldStorageService = mock(ColdStorageService.class);
+
+    private final MonitoringPointRepository pointRepository = mock(MonitoringPointRepository.class);
+
+    private final HotFlowStore hotStore = new HotFlowStore(4);
+
+    private final List<FlowReading> rawReadings = new ArrayList<>();
+
+    private final List<FlowReading> archiveReadings = new ArrayList<>();
+
+    private final List<FlowReading> coldReadings = new ArrayList<>();
+
+    /**
+     * 模拟边界移动：归档块返回其区间之外的读数
+     */
+    private boolean archiveIgnoresRange;
+
+    private FlowSeriesServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        when(hotFlowStoreService.isReady()).thenReturn(true);
+        when(hotFlowStoreService.getWindowStart()).thenReturn(HOT_START);
+        when(hotFlowStoreService.cursor(anyLong(), any(), any())).thenAnswer(invocation -> hotStore.cursor(
+                invocation.getArgument(0), DateUtils.toEpochSecond(invocation.getArgument(1)),
+                DateUtils.toEpochSecond(invocation.getArgument(2))));
+        when(partitionRepository.findMinRecordTime(PartitionMaintenanceService.TRAFFIC_FLOW_RECORDS))
+                .thenReturn(RAW_START);
+        when(coldStorageService.getCoveredUntil()).thenReturn(COVERED_UNTIL);
+        when(scanner.scanPoints(anyCollection(), any(), any(), any())).thenAnswer(invocation -> {
+            Collection<Long> pointIds = invocation.getArgument(0);
+            Consumer<FlowReading> handler = invocation.getArgument(3);
+            return emit(rawReadings, pointIds, invocation.getArgument(1), invocation.getArgument(2), handler);
+        });
+        when(archiveService.scan(anyLong(), any(), any(), any())).thenAnswer(invocation -> emit(archiveReadings,
+                List.of((Long) invocation.getArgument(0)), archiveIgnoresRange ? START : invocation.getArgument(1),
+                archiveIgnoresRange ? END : invocation.getArgument(2), invocation.getArgument(3)));
+        when(coldStorageService.scan(anyLong(), any(), any(), isNull(), any())).thenAnswer(invocation -> emit(
+                coldReadings, List.of((Long) invocation.getArgument(0)), invocation.getArgument(1),
+                invocation.getArgument(2), invocation.getArgument(4)));
+        List<Object[]> sections = new ArrayList<>();
+        sections.add(new Object[]{1L, 10L});
+        sections.add(new Object[]{2L, null});
+        when(pointRepository.findRoadSectionIdsByIds(anyCollection())).thenReturn(sections);
+
+        service = new FlowSeriesServiceImpl(hotFlowStoreService, scanner, partitionRepository, archiveService,
+                coldStorageService, pointRepository, new SimpleMeterRegistry(), 2, 1000, 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void rangeIsSplitAtTierBoundaries() {
+        FlowSeriesResponse response = service.read(List.of(1L), START, END, 100, reading -> { });
+
+        assertThat(response.getTiers()).extracting(TierRead::getTier).containsExactly(
+                StorageTier.HOT, StorageTier.RAW, StorageTier.ARCHIVE, StorageTier.COLD);
+        assertThat(response.getTiers()).extracting(TierRead::getStartTime).containsExactly(
+                HOT_START, RAW_START, COVERED_UNTIL.plusDays(1).atStartOfDay(), START);
+        assertThat(response.getTiers()).extracting(TierRead::getEndTime).containsExactly(
+                END, HOT_START, RAW_START, COVERED_UNTIL.plusDays(1).atStartOfDay());
+
+        // 冷数据覆盖到原始记录之后时（迁移进行中）以原始记录为准，不再读取归档块
+        when(coldStorageService.getCoveredUntil()).thenReturn(RAW_START.toLocalDate().plusDays(1));
+        assertThat(service.read(List.of(1L), START, END, 100, reading -> { }).getTiers())
+                .extracting(TierRead::getTier).containsExactly(StorageTier.HOT, StorageTier.RAW, StorageTier.COLD);
+
+        // 完全落在热存储窗口内的查询只读热存储
+        assertThat(service.read(List.of(1L), HOT_START.plusHours(1), END, 100, reading -> { }).getTiers())
+                .extracting(TierRead::getTier).containsExactly(StorageTier.HOT);
+    }
+
+    @Test
+    void mergesByPointAndTimeKeepingTheNewerTierOnOverlap() {
+        coldReadings.add(reading(1L, START.plusHours(10), 1));
+        archiveReadings.add(reading(1L, LocalDateTime.of(2024, 6, 4, 10, 0), 2));
+        rawReadings.add(reading(1L, LocalDateTime.of(2024, 6, 6, 10, 0), 3));
+        rawReadings.add(reading(2L, LocalDateTime.of(2024, 6, 6, 10, 0), 4));
+        hotStore.append(reading(1L, LocalDateTime.of(2024, 6, 9, 10, 0), 5));
+        // 迁移与淘汰进行中，较旧层级仍返回较新层级已有的读数
+        archiveIgnoresRange = true;
+        archiveReadings.add(reading(1L, LocalDateTime.of(2024, 6, 6, 10, 0), 98));
+        archiveReadings.add(reading(1L, LocalDateTime.of(2024, 6, 9, 10, 0), 99));
+
+        List<FlowReading> merged = new ArrayList<>();
+        FlowSeriesResponse response = service.read(List.of(2L, 1L), START, END, 100, merged::add);
+
+        assertThat(merged).extracting(FlowReading::getFlowRate).containsExactly(1, 2, 3, 5, 4);
+        assertThat(merged).extracting(FlowReading::getMonitoringPointId).containsExactly(1L, 1L, 1L, 1L, 2L);
+        assertThat(merged).extracting(FlowReading::getRoadSectionId).containsExactly(10L, 10L, 10L, 10L, 0L);
+        assertThat(response.getRowCount()).isEqualTo(5);
+        assertThat(response.getDuplicateCount()).isEqualTo(2);
+        assertThat(response.isTruncated()).isFalse();
+    }
+
+    @Test
+    void truncatesAtMaxRowsAndReadsOneExtraRowPerTier() {
+        for (int i = 0; i < 10; i++) {
+            hotStore.append(reading(1L, HOT_START.plusMinutes(i), i));
+        }
+        rawReadings.add(reading(1L, RAW_START, 100));
+
+        List<FlowReading> merged = new ArrayList<>();
+        FlowSeriesResponse response = service.read(List.of(1L), START, END, 3, merged::add);
+
+        assertThat(merged).extracting(FlowReading::getFlowRate).containsExactly(100, 0, 1);
+        assertThat(response.getRowCount()).isEqualTo(3);
+        assertThat(response.isTruncated()).isTrue();
+        // 热存储游标读到上限加一条即停止
+        assertThat(response.getTiers().get(0).getTier()).isEqualTo(StorageTier.HOT);
+        assertThat(response.getTiers().get(0).getRowCount()).isEqualTo(4);
+
+        // 恰好读完全部行时不算截断
+        FlowSeriesResponse exact = service.read(List.of(1L), START, END, 11, reading -> { });
+        assertThat(exact.getRowCount()).isEqualTo(11);
+        assertThat(exact.isTruncated()).isFalse();
+        // 只有一个层级多出一行时也能发现截断
+        assertThat(service.read(List.of(1L), HOT_START, END, 9, reading -> { }).isTruncated()).isTrue();
+    }
+
+    @Test
+    void rawRecordsCoverTheHotWindowUntilTheHotStoreIsReady() {
+        when(hotFlowStoreService.isReady()).thenReturn(false);
+        rawReadings.add(reading(1L, HOT_START.plusHours(1), 7));
+
+        List<FlowReading> merged = new ArrayList<>();
+        FlowSeriesResponse response = service.read(List.of(1L), START, END, 100, merged::add);
+
+        assertThat(response.getTiers()).extracting(TierRead::getTier).containsExactly(
+                StorageTier.RAW, StorageTier.ARCHIVE, StorageTier.COLD);
+        assertThat(response.getTiers().get(0).getStartTime()).isEqualTo(RAW_START);
+        assertThat(response.getTiers().get(0).getEndTime()).isEqualTo(END);
+        assertThat(merged).extracting(FlowReading::getFlowRate).containsExactly(7);
+        verify(hotFlowStoreService, never()).cursor(anyLong(), any(), any());
+    }
+
+    private static long emit(List<FlowReading> readings, Collection<Long> pointIds, LocalDateTime startTime,
+                             LocalDateTime endTime, Consumer<FlowReading> handler) {
+        long start = DateUtils.toEpochSecond(startTime);
+        long end = DateUtils.toEpochSecond(endTime);
+        long count = 0;
+        // 与真实层级一致，按 监测点、时间 顺序回调
+        for (Long pointId : pointIds.stream().sorted().toList()) {
+            for (FlowReading reading : readings) {
+                if (reading.getMonitoringPointId() == pointId && reading.getEpochSecond() >= start
+                        && reading.getEpochSecond() < end) {
+                    handler.accept(reading);
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    private static FlowReading reading(long pointId, LocalDateTime time, int flowRate) {
+        FlowReading reading = new FlowReading();
+        reading.setMonitoringPointId(pointId);
+        reading.setEpochSecond(DateUtils.toEpochSecond(time));
+        reading.setFlowRate(flowRate);
+        return reading;
+    }
+}
@@ -0,0 +1,47 @@
+package com.example.enshitrafficplatform.service.impl;
+
+import com.example.enshitrafficplatform.repository.TablePartitionRepository;
+import com.example.enshitrafficplatform.service.PartitionMaintenanceService;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class PartitionMaintenanceServiceImplTest {
+
+    private final TablePartitionRepository repository = mock(TablePartitionRepository.class);
+
+    @Test
+    void maintenanceLeavesUnpartitionedTablesAloneUnlessAutoConvertIsEnabled() {
+        when(repository.isPartitioned(anyString())).thenReturn(false);
+
+        new PartitionMaintenanceServiceImpl(repository, false, 3, 0).maintain();
+
+        verify(repository, never()).convertToMonthlyPartitions(anyString(), any(), any());
+        verify(repository, never()).addMonthPartition(anyString(), any());
+    }
+
+    @Test
+    void explicitConversionStartsAtTheOldestRecordMonthAndSkipsPartitionedTables() {
+        String table = PartitionMaintenanceService.TRAFFIC_FLOW_RECORDS;
+        PartitionMaintenanceServiceImpl service = new PartitionMaintenanceServiceImpl(repository, false, 3, 0);
+        when(repository.findMinRecordTime(table)).thenReturn(LocalDateTime.of(2023, 5, 17, 8, 0));
+
+        assertThat(service.convertToMonthlyPartitions(table)).isTrue();
+        verify(repository).convertToMonthlyPartitions(table, YearMonth.of(2023, 5), YearMonth.now().plusMonths(3));
+
+        when(repository.isPartitioned(table)).thenReturn(true);
+        assertThat(service.convertToMonthlyPartitions(table)).isFalse();
+        assertThatThrownBy(() -> service.convertToMonthlyPartitions("monitoring_points"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}
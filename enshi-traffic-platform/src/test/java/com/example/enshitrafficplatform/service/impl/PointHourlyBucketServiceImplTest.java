@@ -0,0 +1,224 @@
+package com.example.enshitrafficplatform.service.impl;
+
+import com.example.enshitrafficplatform.dto.FlowReading;
+import com.example.enshitrafficplatform.repository.PointHourlyBucketRepository;
+import com.example.enshitrafficplatform.util.DateUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Parameter;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.RETURNS_DEFAULTS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 确认分批 ON DUPLICATE KEY 累加的小时桶与由原始记录聚合的结果一致。
+ * 执行真实语句的用例需要可连接的MySQL，连接参数可通过 test.mysql.url / username / password 系统属性指定，连接不上时跳过
+ */
+class PointHourlyBucketServiceImplTest {
+
+    private static final String PROBE_SCHEMA = "enshistraffic_hourly_bucket_probe";
+
+    private static final LocalDateTime DAY = LocalDateTime.of(2025, 3, 10, 0, 0);
+
+    private SingleConnectionDataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private final List<FlowReading> ingested = new ArrayList<>();
+
+    @AfterEach
+    void tearDown() {
+        if (jdbcTemplate != null) {
+            jdbcTemplate.execute("DROP DATABASE IF EXISTS " + PROBE_SCHEMA);
+            dataSource.destroy();
+        }
+    }
+
+    @Test
+    void upsertMergesRepeatedAndLateReadingsLikeAggregatingTheRecords() {
+        connect();
+        PointHourlyBucketServiceImpl service = new PointHourlyBucketServiceImpl(repository(),
+                new TransactionTemplate(new DataSourceTransactionManager(dataSource)), 0);
+
+        ingest(service);
+
+        Map<String, String> expected = expectedBuckets();
+        assertThat(expected).hasSize(5);
+        assertThat(buckets()).isEqualTo(expected);
+
+        // 由原始记录重建得到相同的小时桶
+        assertThat(service.rebuild(DAY.plusHours(8), DAY.plusHours(11))).isEqualTo(5);
+        assertThat(buckets()).isEqualTo(expected);
+    }
+
+    @Test
+    void batchDeltasMergedWithUpsertSemanticsMatchAggregatingTheReadings() {
+        Map<String, String> buckets = new TreeMap<>();
+        PointHourlyBucketRepository repository = mock(PointHourlyBucketRepository.class);
+        // 与累加语句的 ON DUPLICATE KEY UPDATE 子句一致：总和、样本数相加，最大值取 GREATEST
+        when(repository.accumulate(anyLong(), any(), anyLong(), anyInt(), anyInt())).thenAnswer(invocation -> {
+            long[] delta = {invocation.<Long>getArgument(2), invocation.<Integer>getArgument(3),
+                    invocation.<Integer>getArgument(4)};
+            buckets.merge(invocation.getArgument(0) + "@" + invocation.getArgument(1), format(delta),
+                    (current, added) -> {
+                        long[] merged = parse(current);
+                        merged[0] += delta[0];
+                        merged[1] += delta[1];
+                        merged[2] = Math.max(merged[2], delta[2]);
+                        return format(merged);
+                    });
+            return 1;
+        });
+
+        ingest(new PointHourlyBucketServiceImpl(repository, null, 0));
+
+        assertThat(buckets).isEqualTo(expectedBuckets());
+    }
+
+    /**
+     * 分三批写入读数，覆盖批次内重复的小时桶、跨批次累加和迟到读数
+     */
+    private void ingest(PointHourlyBucketServiceImpl service) {
+        // 同一批次内同一小时的多条读数，以及缺失车流量和无监测点的读数
+        service.accumulate(batch(reading(1L, 8, 5, 120), reading(1L, 8, 10, 80), reading(2L, 8, 5, 40),
+                reading(1L, 9, 0, 200), reading(1L, 9, 5, FlowReading.MISSING_INT), reading(0L, 9, 5, 70)));
+        // 后续批次写入已有的小时桶
+        service.accumulate(batch(reading(1L, 9, 10, 260), reading(1L, 9, 15, 150), reading(2L, 10, 0, 30)));
+        // 迟到的早先小时读数，包括比桶内已有最大值更大和更小的车流量
+        service.accumulate(batch(reading(1L, 8, 55, 300), reading(2L, 8, 50, 10), reading(1L, 10, 5, 0)));
+    }
+
+    /**
+     * 在内存中按 监测点 × 小时 聚合全部有车流量的读数
+     */
+    private Map<String, String> expectedBuckets() {
+        Map<String, long[]> sums = new TreeMap<>();
+        for (FlowReading reading : ingested) {
+            if (reading.getMonitoringPointId() == 0L || reading.getFlowRate() == FlowReading.MISSING_INT) {
+                continue;
+            }
+            String key = reading.getMonitoringPointId() + "@"
+                    + DateUtils.fromEpochSecond(DateUtils.truncateToHour(reading.getEpochSecond()));
+            long[] sum = sums.computeIfAbsent(key, k -> new long[]{0, 0, Long.MIN_VALUE});
+            sum[0] += reading.getFlowRate();
+            sum[1]++;
+            sum[2] = Math.max(sum[2], reading.getFlowRate());
+        }
+        Map<String, String> expected = new TreeMap<>();
+        sums.forEach((key, sum) -> expected.put(key, format(sum)));
+        return expected;
+    }
+
+    private Map<String, String> buckets() {
+        Map<String, String> buckets = new TreeMap<>();
+        jdbcTemplate.query("SELECT monitoring_point_id, bucket_start, flow_sum, flow_count, flow_max "
+                + "FROM point_hourly_buckets", rs -> {
+            buckets.put(rs.getLong(1) + "@" + rs.getObject(2, LocalDateTime.class),
+                    rs.getLong(3) + "/" + rs.getInt(4) + "/" + rs.getInt(5));
+        });
+        return buckets;
+    }
+
+    private static String format(long[] bucket) {
+        return bucket[0] + "/" + bucket[1] + "/" + bucket[2];
+    }
+
+    private static long[] parse(String bucket) {
+        return Arrays.stream(bucket.split("/")).mapToLong(Long::parseLong).toArray();
+    }
+
+    /**
+     * 记录一批读数：连接了MySQL时每条读数同时写入原始记录表，供重建时聚合
+     */
+    private List<FlowReading> batch(FlowReading... readings) {
+        for (FlowReading reading : readings) {
+            ingested.add(reading);
+            if (jdbcTemplate == null || reading.getMonitoringPointId() == 0L) {
+                continue;
+            }
+            jdbcTemplate.update("INSERT INTO traffic_flow_records (monitoring_point_id, record_time, flow_rate) "
+                    + "VALUES (?, ?, ?)", reading.getMonitoringPointId(),
+                    DateUtils.fromEpochSecond(reading.getEpochSecond()),
+                    reading.getFlowRate() == FlowReading.MISSING_INT ? null : reading.getFlowRate());
+        }
+        return List.of(readings);
+    }
+
+    private static FlowReading reading(long pointId, int hour, int minute, int flowRate) {
+        FlowReading reading = new FlowReading();
+        reading.setMonitoringPointId(pointId);
+        reading.setEpochSecond(DateUtils.toEpochSecond(DAY.plusHours(hour).plusMinutes(minute)));
+        reading.setFlowRate(flowRate);
+        return reading;
+    }
+
+    /**
+     * 以仓库方法上的原生语句直接执行的仓库替身
+     */
+    private PointHourlyBucketRepository repository() {
+        NamedParameterJdbcTemplate namedTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        return mock(PointHourlyBucketRepository.class, invocation -> {
+            Method method = invocation.getMethod();
+            Query query = method.getAnnotation(Query.class);
+            if (query == null || !query.nativeQuery() || method.getAnnotation(Modifying.class) == null) {
+                return RETURNS_DEFAULTS.answer(invocation);
+            }
+            MapSqlParameterSource parameters = new MapSqlParameterSource();
+            Parameter[] declared = method.getParameters();
+            for (int i = 0; i < declared.length; i++) {
+                parameters.addValue(declared[i].getAnnotation(Param.class).value(), invocation.getArgument(i));
+            }
+            return namedTemplate.update(query.value(), parameters);
+        });
+    }
+
+    private void connect() {
+        SingleConnectionDataSource candidate = new SingleConnectionDataSource(
+                System.getProperty("test.mysql.url", "jdbc:mysql://localhost:3308/enshistraffic"
+                        + "?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC&characterEncoding=utf8"),
+                System.getProperty("test.mysql.username", "root"),
+                System.getProperty("test.mysql.password", "123456"), true);
+        try (Connection ignored = candidate.getConnection()) {
+            // 仅检查连接
+        } catch (SQLException e) {
+            Assumptions.abort("MySQL不可用：" + e.getMessage());
+        }
+        dataSource = candidate;
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP DATABASE IF EXISTS " + PROBE_SCHEMA);
+        jdbcTemplate.execute("CREATE DATABASE " + PROBE_SCHEMA);
+        jdbcTemplate.execute("USE " + PROBE_SCHEMA);
+        jdbcTemplate.execute("CREATE TABLE point_hourly_buckets (id BIGINT NOT NULL AUTO_INCREMENT, "
+                + "monitoring_point_id BIGINT NOT NULL, bucket_start DATETIME(6) NOT NULL, flow_sum BIGINT NOT NULL, "
+                + "flow_count INT NOT NULL, flow_max INT NOT NULL, PRIMARY KEY (id), "
+                + "UNIQUE KEY uk_point_hourly_bucket (monitoring_point_id, bucket_start))");
+        jdbcTemplate.execute("CREATE TABLE traffic_flow_records (id BIGINT NOT NULL AUTO_INCREMENT, "
+                + "monitoring_point_id BIGINT NOT NULL, record_time DATETIME(6) NOT NULL, flow_rate INT, "
+                + "PRIMARY KEY (id))");
+    }
+}
@@ -0,0 +1,230 @@
+package com.example.enshitrafficplatform.service.impl;
+
+import com.example.enshitrafficplatform.config.RetentionProperties;
+import com.example.enshitrafficplatform.dto.response.RetentionRunReport;
+import com.example.enshitrafficplatform.dto.response.RetentionRunReport.TierResult;
+import com.example.enshitrafficplatform.repository.TablePartitionRepository;
+import com.example.enshitrafficplatform.retention.RetentionDataType;
+import com.example.enshitrafficplatform.retention.RetentionTier;
+import com.example.enshitrafficplatform.service.RetentionTierHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RetentionServiceImplTest {
+
+    private static final LocalDate TODAY = LocalDate.now();
+
+    private final TablePartitionRepository partitionRepository = mock(TablePartitionRepository.class);
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    private final RetentionProperties properties = new RetentionProperties();
+
+    private final List<String> calls = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        when(partitionRepository.estimateRowBytes(anyString())).thenReturn(100L);
+        properties.setDownsampleLookbackDays(2);
+    }
+
+    @Test
+    void processesTiersInDownsamplingOrderAndNeverDownsamplesTheLastTier() {
+        FakeHandler flow = new FakeHandler(RetentionDataType.FLOW_RECORDS);
+        FakeHandler statistics = new FakeHandler(RetentionDataType.STATISTICS);
+        flow.add(RetentionTier.RAW, TODAY.minusDays(31), 10);
+        flow.add(RetentionTier.FIVE_MINUTE, TODAY.minusDays(366), 10);
+        flow.add(RetentionTier.HOURLY, TODAY.minusDays(1000), 10);
+        properties.getPolicies().get(RetentionDataType.FLOW_RECORDS).put(RetentionTier.HOURLY, 900);
+
+        RetentionRunReport report = service(statistics, flow).run();
+
+        // 按数据类型声明顺序、层级降采样顺序处理，未注册处理器的天气记录被跳过
+        assertThat(report.getTiers()).extracting(TierResult::getDataType).containsExactly(
+                RetentionDataType.FLOW_RECORDS, RetentionDataType.FLOW_RECORDS, RetentionDataType.FLOW_RECORDS,
+                RetentionDataType.STATISTICS, RetentionDataType.STATISTICS);
+        assertThat(report.getTiers()).extracting(TierResult::getTier).containsExactly(
+                RetentionTier.RAW, RetentionTier.FIVE_MINUTE, RetentionTier.HOURLY,
+                RetentionTier.RAW, RetentionTier.DAILY);
+        assertThat(flow.tierSequence()).containsExactly(RetentionTier.RAW, RetentionTier.FIVE_MINUTE,
+                RetentionTier.HOURLY);
+        // 增量降采样覆盖回看的每一天，最后一层不校验覆盖、不降采样，直接清理
+        assertThat(flow.calls(RetentionTier.RAW)).containsExactly(
+                "isCovered RAW " + TODAY.minusDays(2), "downsample RAW " + TODAY.minusDays(2),
+                "isCovered RAW " + TODAY.minusDays(1), "downsample RAW " + TODAY.minusDays(1),
+                "isCovered RAW " + TODAY.minusDays(31), "downsample RAW " + TODAY.minusDays(31),
+                "isCovered RAW " + TODAY.minusDays(31), "purge RAW " + TODAY.minusDays(31));
+        assertThat(flow.calls(RetentionTier.HOURLY)).startsWith("purge HOURLY " + TODAY.minusDays(1000))
+                .allMatch(call -> call.startsWith("purge "));
+        assertThat(flow.remaining(RetentionTier.HOURLY)).isZero();
+        assertThat(report.getTiers().get(0).getDownsampledDays()).isEqualTo(3);
+        assertThat(report.getTiers().get(0).getPurgedRows()).isEqualTo(10);
+        assertThat(report.getTiers().get(1).getPurgedRows()).isEqualTo(10);
+        assertThat(report.getBytesReclaimed()).isEqualTo(3000);
+    }
+
+    @Test
+    void uncoveredDayBlocksItsPurgeAndEveryLaterDay() {
+        FakeHandler flow = new FakeHandler(RetentionDataType.FLOW_RECORDS);
+        flow.add(RetentionTier.RAW, TODAY.minusDays(40), 5);
+        flow.add(RetentionTier.RAW, TODAY.minusDays(39), 7);
+        flow.add(RetentionTier.RAW, TODAY.minusDays(38), 9);
+        flow.covered.add(RetentionTier.RAW + " " + TODAY.minusDays(38));
+        // 降采样后仍校验不通过，例如归档失败
+        flow.uncoverable.add(RetentionTier.RAW + " " + TODAY.minusDays(39));
+
+        TierResult raw = service(flow).run().getTiers().get(0);
+
+        assertThat(raw.getBlockedDate()).isEqualTo(TODAY.minusDays(39));
+        assertThat(raw.getPurgedRows()).isEqualTo(5);
+        assertThat(flow.rows.get(RetentionTier.RAW)).containsEntry(TODAY.minusDays(39), 7)
+                .containsEntry(TODAY.minusDays(38), 9).doesNotContainKey(TODAY.minusDays(40));
+        assertThat(flow.calls(RetentionTier.RAW)).doesNotContain("purge RAW " + TODAY.minusDays(39),
+                "purge RAW " + TODAY.minusDays(38));
+    }
+
+    @Test
+    void purgesInBoundedBatchesEachInItsOwnTransaction() {
+        properties.setBatchSize(100);
+        properties.setMaxDaysPerRun(2);
+        properties.setDownsampleLookbackDays(0);
+        FakeHandler flow = new FakeHandler(RetentionDataType.FLOW_RECORDS);
+        for (int days = 33; days >= 31; days--) {
+            flow.add(RetentionTier.RAW, TODAY.minusDays(days), 250);
+            flow.covered.add(RetentionTier.RAW + " " + TODAY.minusDays(days));
+        }
+
+        TierResult raw = service(flow).run().getTiers().get(0);
+
+        // 每次运行最多处理两天，每天分三批：100、100、50
+        assertThat(raw.getPurgedRows()).isEqualTo(500);
+        assertThat(flow.batchSizes).hasSize(6).containsOnly(100);
+        assertThat(flow.rows.get(RetentionTier.RAW)).containsOnlyKeys(TODAY.minusDays(31));
+        verify(transactionManager, times(6)).commit(any());
+        assertThat(raw.getBytesReclaimed()).isEqualTo(50000);
+    }
+
+    private RetentionServiceImpl service(RetentionTierHandler... handlers) {
+        return new RetentionServiceImpl(List.of(handlers), properties, partitionRepository,
+                new TransactionTemplate(transactionManager));
+    }
+
+    /**
+     * 以内存中按 层级 → 日期 → 行数 保存数据的处理器，记录引擎的调用顺序
+     */
+    private final class FakeHandler implements RetentionTierHandler {
+
+        private final RetentionDataType dataType;
+
+        private final Map<RetentionTier, TreeMap<LocalDate, Integer>> rows = new EnumMap<>(RetentionTier.class);
+
+        private final Set<String> covered = new HashSet<>();
+
+        private final Set<String> uncoverable = new HashSet<>();
+
+        private final List<Integer> batchSizes = new ArrayList<>();
+
+        private FakeHandler(RetentionDataType dataType) {
+            this.dataType = dataType;
+            for (RetentionTier tier : dataType.getTiers()) {
+                rows.put(tier, new TreeMap<>());
+            }
+        }
+
+        void add(RetentionTier tier, LocalDate date, int count) {
+            rows.get(tier).put(date, count);
+        }
+
+        int remaining(RetentionTier tier) {
+            return rows.get(tier).values().stream().mapToInt(Integer::intValue).sum();
+        }
+
+        List<String> calls(RetentionTier tier) {
+            String prefix = dataType + " ";
+            return calls.stream().filter(call -> call.startsWith(prefix))
+                    .map(call -> call.substring(prefix.length()))
+                    .filter(call -> call.contains(" " + tier + " ")).toList();
+        }
+
+        /**
+         * 按调用顺序列出被调用的层级，相邻重复的只保留一个
+         */
+        List<RetentionTier> tierSequence() {
+            List<RetentionTier> sequence = new ArrayList<>();
+            for (String call : calls) {
+                String[] parts = call.split(" ");
+                if (!parts[0].equals(dataType.name())) {
+                    continue;
+                }
+                RetentionTier tier = RetentionTier.valueOf(parts[2]);
+                if (sequence.isEmpty() || sequence.get(sequence.size() - 1) != tier) {
+                    sequence.add(tier);
+                }
+            }
+            return sequence;
+        }
+
+        @Override
+        public RetentionDataType getDataType() {
+            return dataType;
+        }
+
+        @Override
+        public String getTableName(RetentionTier tier) {
+            return tier.name();
+        }
+
+        @Override
+        public LocalDate findOldestDate(RetentionTier tier) {
+            TreeMap<LocalDate, Integer> days = rows.get(tier);
+            return days.isEmpty() ? null : days.firstKey();
+        }
+
+        @Override
+        public boolean isCovered(RetentionTier tier, LocalDate date) {
+            calls.add(dataType + " isCovered " + tier + " " + date);
+            return covered.contains(tier + " " + date);
+        }
+
+        @Override
+        public void downsample(RetentionTier tier, LocalDate date) {
+            calls.add(dataType + " downsample " + tier + " " + date);
+            if (!uncoverable.contains(tier + " " + date)) {
+                covered.add(tier + " " + date);
+            }
+        }
+
+        @Override
+        public int purgeBatch(RetentionTier tier, LocalDate date, int batchSize) {
+            calls.add(dataType + " purge " + tier + " " + date);
+            batchSizes.add(batchSize);
+            int remaining = rows.get(tier).getOrDefault(date, 0);
+            int deleted = Math.min(remaining, batchSize);
+            if (remaining - deleted > 0) {
+                rows.get(tier).put(date, remaining - deleted);
+            } else {
+                rows.get(tier).remove(date);
+            }
+            return deleted;
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.example.enshitrafficplatform.service.impl;
+
+import com.example.enshitrafficplatform.config.RetentionProperties;
+import com.example.enshitrafficplatform.dto.response.RetentionRunReport.TierResult;
+import com.example.enshitrafficplatform.repository.TablePartitionRepository;
+import com.example.enshitrafficplatform.repository.TrafficStatisticRepository;
+import com.example.enshitrafficplatform.retention.RetentionTier;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assumptions;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 交通统计分层操作的覆盖校验、全天统计汇总与分批清理。
+ * 汇总语句的用例需要可连接的MySQL，连接参数可通过 test.mysql.url / username / password 系统属性指定，连接不上时跳过
+ */
+class StatisticRetentionHandlerTest {
+
+    private static final String PROBE_SCHEMA = "enshistraffic_statistic_probe";
+
+    private static final LocalDate OLD_DAY = LocalDate.now().minusDays(400);
+
+    private final TrafficStatisticRepository repository = mock(TrafficStatisticRepository.class);
+
+    private final StatisticRetentionHandler handler = new StatisticRetentionHandler(repository,
+            new TransactionTemplate(mock(PlatformTransactionManager.class)));
+
+    private SingleConnectionDataSource dataSource;
+
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        if (jdbcTemplate != null) {
+            jdbcTemplate.getJdbcTemplate().execute("DROP DATABASE IF EXISTS " + PROBE_SCHEMA);
+            dataSource.destroy();
+        }
+    }
+
+    @Test
+    void detailsAreCoveredOnlyWhenEveryObjectHasAFullDayStatistic() {
+        when(repository.countDetailsNotCoveredByFullDay(OLD_DAY)).thenReturn(2L);
+        assertThat(handler.isCovered(RetentionTier.RAW, OLD_DAY)).isFalse();
+
+        when(repository.countDetailsNotCoveredByFullDay(OLD_DAY)).thenReturn(0L);
+        assertThat(handler.isCovered(RetentionTier.RAW, OLD_DAY)).isTrue();
+        // 全天统计是最后一层
+        assertThat(handler.isCovered(RetentionTier.DAILY, OLD_DAY)).isTrue();
+
+        handler.downsample(RetentionTier.DAILY, OLD_DAY);
+        verify(repository, never()).insertFullDayFromDetails(any());
+        handler.downsample(RetentionTier.RAW, OLD_DAY);
+        verify(repository).insertFullDayFromDetails(OLD_DAY);
+    }
+
+    @Test
+    void engineDoesNotPurgeDetailsWhoseRollupLeavesThemUncovered() {
+        when(repository.findMinDetailDate()).thenReturn(OLD_DAY);
+        when(repository.countDetailsNotCoveredByFullDay(any())).thenReturn(3L);
+
+        TierResult raw = new RetentionServiceImpl(List.of(handler), new RetentionProperties(),
+                mock(TablePartitionRepository.class), new TransactionTemplate(mock(PlatformTransactionManager.class)))
+                .run().getTiers().stream().filter(result -> result.getTier() == RetentionTier.RAW).findFirst()
+                .orElseThrow();
+
+        assertThat(raw.getBlockedDate()).isEqualTo(OLD_DAY);
+        assertThat(raw.getPurgedRows()).isZero();
+        verify(repository).insertFullDayFromDetails(OLD_DAY);
+        verify(repository, never()).findDetailIdsCoveredByFullDay(any(), anyInt());
+        verify(repository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    void purgeDeletesAtMostOneBatchOfCoveredDetails() {
+        when(repository.findDetailIdsCoveredByFullDay(OLD_DAY, 2)).thenReturn(List.of(7L, 8L));
+        when(repository.findDetailIdsCoveredByFullDay(OLD_DAY, 5)).thenReturn(List.of());
+        when(repository.deleteBatch(OLD_DAY, 2)).thenReturn(2);
+
+        assertThat(handler.purgeBatch(RetentionTier.RAW, OLD_DAY, 2)).isEqualTo(2);
+        verify(repository).deleteAllByIdInBatch(List.of(7L, 8L));
+        assertThat(handler.purgeBatch(RetentionTier.RAW, OLD_DAY, 5)).isZero();
+        assertThat(handler.purgeBatch(RetentionTier.DAILY, OLD_DAY, 2)).isEqualTo(2);
+    }
+
+    @Test
+    void rollupInsertsMissingFullDayStatisticsWeightedBySampleCount() throws Exception {
+        connect();
+        // 路段1：早高峰与平峰期；路段2：已有统计任务生成的全天统计
+        insert("早高峰", 1L, 100.0, 40.0, 3, 1, 160, 60, 120, 100);
+        insert("平峰期", 1L, 50.0, 60.0, 1, 0, 80, 20, 0, 300);
+        insert("早高峰", 2L, 90.0, 30.0, 2, 2, 100, 70, 30, 50);
+        insert(TrafficStatisticRepository.FULL_DAY, 2L, 70.0, 50.0, 5, 2, 100, 10, 30, 500);
+        assertThat(count("countDetailsNotCoveredByFullDay")).isEqualTo(2);
+
+        assertThat(update("insertFullDayFromDetails")).isEqualTo(1);
+        // 重复执行不再写入
+        assertThat(update("insertFullDayFromDetails")).isZero();
+
+        assertThat(count("countDetailsNotCoveredByFullDay")).isZero();
+        Map<String, Object> fullDay = jdbcTemplate.getJdbcTemplate().queryForMap("SELECT * FROM traffic_statistics "
+                + "WHERE road_section_id = 1 AND time_type = ?", TrafficStatisticRepository.FULL_DAY);
+        assertThat(((Number) fullDay.get("average_flow_rate")).doubleValue()).isCloseTo(62.5, within(1e-9));
+        assertThat(((Number) fullDay.get("average_speed")).doubleValue()).isCloseTo(55.0, within(1e-9));
+        assertThat(((Number) fullDay.get("peak_factor")).doubleValue()).isCloseTo(160 / 62.5, within(1e-9));
+        assertThat(fullDay).containsEntry("event_count", 4).containsEntry("severe_event_count", 1)
+                .containsEntry("max_flow_rate", 160).containsEntry("min_flow_rate", 20)
+                .containsEntry("congestion_duration", 120).containsEntry("sample_count", 400);
+        // 统计任务生成的全天统计不变
+        assertThat(jdbcTemplate.getJdbcTemplate().queryForObject("SELECT average_flow_rate FROM traffic_statistics "
+                + "WHERE road_section_id = 2 AND time_type = ?", Double.class, TrafficStatisticRepository.FULL_DAY))
+                .isEqualTo(70.0);
+        assertThat(jdbcTemplate.queryForList(query("findDetailIdsCoveredByFullDay"),
+                parameters().addValue("limit", 10), Long.class)).hasSize(3);
+    }
+
+    private void insert(String timeType, long roadSectionId, double averageFlowRate, double averageSpeed,
+                        int eventCount, int severeEventCount, int maxFlowRate, int minFlowRate,
+                        int congestionDuration, int sampleCount) {
+        jdbcTemplate.getJdbcTemplate().update("INSERT INTO traffic_statistics (statistic_type, statistic_date, "
+                + "time_type, road_section_id, average_flow_rate, average_speed, event_count, severe_event_count, "
+                + "max_flow_rate, min_flow_rate, congestion_duration, sample_count) "
+                + "VALUES ('daily', ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)", OLD_DAY, timeType, roadSectionId,
+                averageFlowRate, averageSpeed, eventCount, severeEventCount, maxFlowRate, minFlowRate,
+                congestionDuration, sampleCount);
+    }
+
+    private long count(String method) throws NoSuchMethodException {
+        return jdbcTemplate.queryForObject(query(method), parameters(), Long.class);
+    }
+
+    private int update(String method) throws NoSuchMethodException {
+        return jdbcTemplate.update(query(method), parameters());
+    }
+
+    private MapSqlParameterSource parameters() {
+        return new MapSqlParameterSource("statisticDate", OLD_DAY);
+    }
+
+    private static String query(String method) throws NoSuchMethodException {
+        Class<?>[] types = method.equals("findDetailIdsCoveredByFullDay")
+                ? new Class<?>[]{LocalDate.class, int.class} : new Class<?>[]{LocalDate.class};
+        return TrafficStatisticRepository.class.getMethod(method, types).getAnnotation(Query.class).value();
+    }
+
+    private void connect() {
+        SingleConnectionDataSource candidate = new SingleConnectionDataSource(
+                System.getProperty("test.mysql.url", "jdbc:mysql://localhost:3308/enshistraffic"
+                        + "?useSSL=false&allowPublicKeyRetrieval=true&serverTimezone=UTC&characterEncoding=utf8"),
+                System.getProperty("test.mysql.username", "root"),
+                System.getProperty("test.mysql.password", "123456"), true);
+        try (Connection ignored = candidate.getConnection()) {
+            // 仅检查连接
+        } catch (SQLException e) {
+            Assumptions.abort("MySQL不可用：" + e.getMessage());
+        }
+        dataSource = candidate;
+        JdbcTemplate template = new JdbcTemplate(dataSource);
+        template.execute("DROP DATABASE IF EXISTS " + PROBE_SCHEMA);
+        template.execute("CREATE DATABASE " + PROBE_SCHEMA + " DEFAULT CHARACTER SET utf8mb4");
+        template.execute("USE " + PROBE_SCHEMA);
+        template.execute("CREATE TABLE traffic_statistics (id BIGINT NOT NULL AUTO_INCREMENT, "
+                + "statistic_type VARCHAR(50) NOT NULL, statistic_date DATE NOT NULL, time_type VARCHAR(50) NOT NULL, "
+                + "time_range_start DATETIME(6), time_range_end DATETIME(6), average_flow_rate DOUBLE, "
+                + "average_speed DOUBLE, average_congestion_index DOUBLE, large_vehicle_percentage DOUBLE, "
+                + "medium_vehicle_percentage DOUBLE, small_vehicle_percentage DOUBLE, event_count INT, "
+                + "severe_event_count INT, max_flow_rate INT, min_flow_rate INT, max_speed DOUBLE, min_speed DOUBLE, "
+                + "max_congestion_index DOUBLE, peak_factor DOUBLE, congestion_duration INT, data_source TEXT, "
+                + "sample_count INT, extra_info TEXT, road_section_id BIGINT, monitoring_point_id BIGINT, "
+                + "PRIMARY KEY (id))");
+        jdbcTemplate = new NamedParameterJdbcTemplate(template);
+    }
+}
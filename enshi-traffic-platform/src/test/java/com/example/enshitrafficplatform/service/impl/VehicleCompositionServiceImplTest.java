@@ -0,0 +1,127 @@
+package com.example.enshitrafficplatform.service.impl;
+
+import com.example.enshitrafficplatform.analytics.VehicleComposition;
+import com.example.enshitrafficplatform.dto.FlowReading;
+import com.example.enshitrafficplatform.repository.MonitoringPointRepository;
+import com.example.enshitrafficplatform.repository.TrafficFlowRecordScanner;
+import com.example.enshitrafficplatform.repository.TrafficFlowRecordScanner.VehicleCountHandler;
+import com.example.enshitrafficplatform.service.HotFlowStoreService;
+import com.example.enshitrafficplatform.storage.HotFlowStore;
+import com.example.enshitrafficplatform.util.DateUtils;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class VehicleCompositionServiceImplTest {
+
+    private static final LocalDateTime WINDOW_START = LocalDateTime.of(2024, 6, 1, 0, 0);
+
+    private final TrafficFlowRecordScanner scanner = mock(TrafficFlowRecordScanner.class);
+
+    private final MonitoringPointRepository pointRepository = mock(MonitoringPointRepository.class);
+
+    private final HotFlowStoreService hotFlowStoreService = mock(HotFlowStoreService.class);
+
+    /**
+     * 小容量数据段，使查询范围跨越多个数据段
+     */
+    private final HotFlowStore hotStore = new HotFlowStore(7);
+
+    private final List<FlowReading> readings = new ArrayList<>();
+
+    private VehicleCompositionServiceImpl service;
+
+    @BeforeEach
+    void setUp() {
+        Random random = new Random(11);
+        for (long pointId = 1; pointId <= 3; pointId++) {
+            for (int i = 0; i < 60; i++) {
+                FlowReading reading = new FlowReading();
+                reading.setMonitoringPointId(pointId);
+                reading.setRoadSectionId(pointId == 3 ? 20L : 10L);
+                reading.setEpochSecond(DateUtils.toEpochSecond(WINDOW_START.plusMinutes(5L * i)));
+                // 部分车型缺失，部分记录三种车型全部缺失
+                reading.setLargeVehicleCount(i % 13 == 0 ? FlowReading.MISSING_INT : random.nextInt(5));
+                reading.setMediumVehicleCount(i % 13 == 0 || i % 4 == 0 ? FlowReading.MISSING_INT : random.nextInt(9));
+                reading.setSmallVehicleCount(i % 13 == 0 ? FlowReading.MISSING_INT : random.nextInt(40));
+                readings.add(reading);
+                hotStore.append(reading);
+            }
+        }
+        when(hotFlowStoreService.getWindowStart()).thenReturn(WINDOW_START);
+        when(hotFlowStoreService.cursor(anyLong(), any(), any())).thenAnswer(invocation -> hotStore.cursor(
+                invocation.getArgument(0), DateUtils.toEpochSecond(invocation.getArgument(1)),
+                DateUtils.toEpochSecond(invocation.getArgument(2))));
+        when(scanner.scanVehicleCounts(anyCollection(), any(), any(), any())).thenAnswer(invocation -> {
+            Collection<Long> pointIds = invocation.getArgument(0);
+            long start = DateUtils.toEpochSecond(invocation.getArgument(1));
+            long end = DateUtils.toEpochSecond(invocation.getArgument(2));
+            VehicleCountHandler handler = invocation.getArgument(3);
+            long rows = 0;
+            for (FlowReading reading : readings) {
+                if (pointIds.contains(reading.getMonitoringPointId()) && reading.getEpochSecond() >= start
+                        && reading.getEpochSecond() < end) {
+                    handler.accept(reading.getMonitoringPointId(), reading.getRoadSectionId(),
+                            reading.getEpochSecond(), reading.getLargeVehicleCount(),
+                            reading.getMediumVehicleCount(), reading.getSmallVehicleCount());
+                    rows++;
+                }
+            }
+            return rows;
+        });
+        when(pointRepository.findIdsByRoadSectionIds(anyCollection())).thenReturn(List.of(1L, 2L, 3L));
+        List<Object[]> pointSections = new ArrayList<>();
+        pointSections.add(new Object[]{1L, 10L});
+        pointSections.add(new Object[]{2L, 10L});
+        pointSections.add(new Object[]{3L, 20L});
+        when(pointRepository.findRoadSectionIdsByIds(anyCollection())).thenReturn(pointSections);
+
+        service = new VehicleCompositionServiceImpl(scanner, pointRepository, hotFlowStoreService);
+    }
+
+    @Test
+    void hotStoreColumnsGiveTheSameCompositionAsTheRecordScan() {
+        // 起止时间落在数据段中间
+        LocalDateTime start = WINDOW_START.plusMinutes(12);
+        LocalDateTime end = WINDOW_START.plusMinutes(5L * 47 + 1);
+
+        when(hotFlowStoreService.isReady()).thenReturn(false);
+        List<VehicleComposition> scannedPoints = service.getPointComposition(List.of(3L, 1L, 2L), start, end);
+        List<VehicleComposition> scannedSections = service.getSectionComposition(List.of(10L, 20L), start, end);
+
+        when(hotFlowStoreService.isReady()).thenReturn(true);
+        List<VehicleComposition> hotPoints = service.getPointComposition(List.of(3L, 1L, 2L), start, end);
+        List<VehicleComposition> hotSections = service.getSectionComposition(List.of(10L, 20L), start, end);
+
+        assertThat(hotPoints).isEqualTo(scannedPoints);
+        assertThat(hotSections).isEqualTo(scannedSections);
+        assertThat(hotPoints).extracting(VehicleComposition::getRecordCount).allMatch(count -> count > 0);
+        assertThat(hotSections.get(0).getRecordCount())
+                .isEqualTo(hotPoints.get(0).getRecordCount() + hotPoints.get(1).getRecordCount());
+    }
+
+    @Test
+    void rangesStartingBeforeTheHotWindowScanRecords() {
+        when(hotFlowStoreService.isReady()).thenReturn(true);
+
+        List<VehicleComposition> compositions = service.getPointComposition(List.of(1L),
+                WINDOW_START.minusHours(1), WINDOW_START.plusHours(1));
+
+        assertThat(compositions.get(0).getRecordCount()).isPositive();
+        verify(hotFlowStoreService, never()).cursor(anyLong(), any(), any());
+    }
+}
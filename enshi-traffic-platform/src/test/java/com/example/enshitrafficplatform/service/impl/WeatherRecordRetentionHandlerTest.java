@@ -0,0 +1,60 @@
+package com.example.enshitrafficplatform.service.impl;
+
+import com.example.enshitrafficplatform.repository.TablePartitionRepository;
+import com.example.enshitrafficplatform.repository.WeatherHourlyBucketRepository;
+import com.example.enshitrafficplatform.repository.WeatherRecordRepository;
+import com.example.enshitrafficplatform.retention.RetentionTier;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class WeatherRecordRetentionHandlerTest {
+
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 1);
+
+    private static final LocalDateTime START = DAY.atStartOfDay();
+
+    private static final LocalDateTime END = START.plusDays(1);
+
+    private final WeatherRecordRepository recordRepository = mock(WeatherRecordRepository.class);
+
+    private final WeatherHourlyBucketRepository bucketRepository = mock(WeatherHourlyBucketRepository.class);
+
+    private final WeatherRecordRetentionHandler handler = new WeatherRecordRetentionHandler(recordRepository,
+            bucketRepository, mock(TablePartitionRepository.class),
+            new TransactionTemplate(mock(PlatformTransactionManager.class)));
+
+    @Test
+    void rawDayIsCoveredWhenHourlyBucketsCountEveryRecord() {
+        when(recordRepository.countByRecordTimeRange(START, END)).thenReturn(48L);
+        when(bucketRepository.sumRecordCount(START, END)).thenReturn(47L);
+        assertThat(handler.isCovered(RetentionTier.RAW, DAY)).isFalse();
+
+        when(bucketRepository.sumRecordCount(START, END)).thenReturn(48L);
+        assertThat(handler.isCovered(RetentionTier.RAW, DAY)).isTrue();
+        assertThat(handler.isCovered(RetentionTier.HOURLY, DAY)).isTrue();
+    }
+
+    @Test
+    void downsampleReplacesTheDaysHourlyBucketsAndPurgeIsBounded() {
+        handler.downsample(RetentionTier.RAW, DAY);
+        verify(bucketRepository).deleteByBucketStartRange(START, END);
+        verify(bucketRepository).rebuildFromRecords(START, END);
+        handler.downsample(RetentionTier.HOURLY, DAY.plusDays(1));
+        verify(bucketRepository, never()).rebuildFromRecords(START.plusDays(1), END.plusDays(1));
+
+        when(recordRepository.deleteBatch(START, END, 100)).thenReturn(100);
+        when(bucketRepository.deleteBatch(START, END, 100)).thenReturn(24);
+        assertThat(handler.purgeBatch(RetentionTier.RAW, DAY, 100)).isEqualTo(100);
+        assertThat(handler.purgeBatch(RetentionTier.HOURLY, DAY, 100)).isEqualTo(24);
+    }
+}
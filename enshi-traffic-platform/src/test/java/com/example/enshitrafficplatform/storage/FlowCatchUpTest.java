@@ -0,0 +1,60 @@
+package com.example.enshitrafficplatform.storage;
+
+import com.example.enshitrafficplatform.dto.FlowReading;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FlowCatchUpTest {
+
+    @Test
+    void lateCommittedReadingsBelowUntilIdAreReplayed() {
+        FlowCatchUp catchUp = new FlowCatchUp(100);
+        List<Long> loaded = new ArrayList<>();
+
+        // 开始扫描前已提交并暂存的读数在扫描结果中
+        assertThat(catchUp.offer(readings(10L))).isTrue();
+        catchUp.begin(200);
+        // 扫描视图中缺少 150（尚未提交）和 50（长事务），201 超过截止ID
+        for (long id : new long[]{10, 120, 180, 200, 201}) {
+            if (catchUp.scanned(id)) {
+                loaded.add(id);
+            }
+        }
+        assertThat(catchUp.offer(readings(120L, 150L, 50L, 201L, 202L))).isTrue();
+
+        List<Long> replayed = new ArrayList<>();
+        int count = catchUp.finish(reading -> replayed.add(reading.getRecordId()), () -> loaded.add(-1L));
+
+        assertThat(loaded).containsExactly(10L, 120L, 180L, 200L, -1L);
+        assertThat(replayed).containsExactly(150L, 50L, 201L, 202L);
+        assertThat(count).isEqualTo(4);
+        assertThat(catchUp.isLive()).isTrue();
+        assertThat(catchUp.offer(readings(203L))).isFalse();
+    }
+
+    @Test
+    void emptyScanReplaysEverythingPending() {
+        FlowCatchUp catchUp = new FlowCatchUp(FlowCatchUp.DEFAULT_ID_MARGIN);
+        catchUp.begin(0);
+        catchUp.offer(readings(1L, 2L));
+
+        List<Long> replayed = new ArrayList<>();
+        assertThat(catchUp.finish(reading -> replayed.add(reading.getRecordId()), () -> { })).isEqualTo(2);
+        assertThat(replayed).containsExactly(1L, 2L);
+    }
+
+    private static List<FlowReading> readings(Long... recordIds) {
+        List<FlowReading> readings = new ArrayList<>();
+        for (Long recordId : recordIds) {
+            FlowReading reading = new FlowReading();
+            reading.setRecordId(recordId);
+            reading.setRoadSectionId(1L);
+            readings.add(reading);
+        }
+        return readings;
+    }
+}
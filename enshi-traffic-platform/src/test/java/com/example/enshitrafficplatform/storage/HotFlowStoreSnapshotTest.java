@@ -0,0 +1,84 @@
+package com.example.enshitrafficplatform.storage;
+
+import com.example.enshitrafficplatform.dto.FlowReading;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HotFlowStoreSnapshotTest {
+
+    /**
+     * 2024-05-01 00:00 (UTC+8)
+     */
+    private static final long DAY_START = 1714492800L;
+
+    @Test
+    void snapshotRestoresAllRowsAndMaxRecordId() throws IOException {
+        HotFlowStore store = new HotFlowStore(64);
+        long recordId = 0;
+        for (int minute = 0; minute < 1440; minute += 5) {
+            for (long pointId = 1; pointId <= 3; pointId++) {
+                FlowReading reading = new FlowReading();
+                reading.setRecordId(++recordId);
+                reading.setMonitoringPointId(pointId);
+                reading.setRoadSectionId(pointId * 10);
+                reading.setEpochSecond(DAY_START + minute * 60L);
+                reading.setFlowRate(minute % 7 == 0 ? FlowReading.MISSING_INT : 300 + minute);
+                reading.setAverageSpeed(pointId == 2 ? Double.NaN : 40.5 + minute % 13);
+                reading.setOccupancyRate(12.25);
+                reading.setLargeVehicleCount(minute % 3);
+                reading.setDataQuality(95);
+                store.append(reading);
+            }
+        }
+
+        HotFlowStore restored = HotFlowStore.readFrom(ByteBuffer.wrap(snapshot(store)), 64);
+
+        assertThat(restored.getMaxRecordId()).isEqualTo(store.getMaxRecordId());
+        assertThat(restored.getRowCount()).isEqualTo(store.getRowCount());
+        for (long pointId = 1; pointId <= 3; pointId++) {
+            assertThat(restored.getRoadSectionId(pointId)).isEqualTo(pointId * 10);
+            assertThat(rows(restored, pointId)).isEqualTo(rows(store, pointId));
+        }
+    }
+
+    @Test
+    void rejectsTruncatedSnapshot() throws IOException {
+        HotFlowStore store = new HotFlowStore(16);
+        FlowReading reading = new FlowReading();
+        for (int i = 0; i < 40; i++) {
+            reading.setMonitoringPointId(1L);
+            reading.setEpochSecond(DAY_START + i * 300L);
+            reading.setFlowRate(i);
+            store.append(reading);
+        }
+        byte[] data = snapshot(store);
+        ByteBuffer truncated = ByteBuffer.wrap(Arrays.copyOf(data, data.length - 10));
+
+        assertThatThrownBy(() -> HotFlowStore.readFrom(truncated, 16)).isInstanceOf(IOException.class);
+    }
+
+    private static byte[] snapshot(HotFlowStore store) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        store.writeTo(out);
+        return out.toByteArray();
+    }
+
+    private static String rows(HotFlowStore store, long pointId) {
+        StringBuilder rows = new StringBuilder();
+        FlowCursor cursor = store.cursor(pointId, Long.MIN_VALUE, Long.MAX_VALUE);
+        while (cursor.next()) {
+            rows.append(cursor.epochSecond()).append(',').append(cursor.flowRate()).append(',')
+                    .append(cursor.averageSpeed()).append(',').append(cursor.occupancyRate()).append(',')
+                    .append(cursor.largeVehicleCount()).append(',').append(cursor.mediumVehicleCount()).append(',')
+                    .append(cursor.headway()).append(',').append(cursor.dataQuality()).append('\n');
+        }
+        return rows.toString();
+    }
+}
@@ -0,0 +1,171 @@
+package com.example.enshitrafficplatform.storage;
+
+import com.example.enshitrafficplatform.dto.FlowReading;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SectionHistoryBufferTest {
+
+    /**
+     * 2024-05-01 00:00 (UTC+8)
+     */
+    private static final long DAY_START = 1714492800L;
+
+    @Test
+    void keepsNewestRecordsAfterWrapAround() {
+        SectionHistoryBuffer buffer = new SectionHistoryBuffer(7L, 8);
+        for (int i = 0; i < 20; i++) {
+            buffer.append(reading(1L, DAY_START + i * 60L, i));
+        }
+
+        SectionHistoryCursor cursor = new SectionHistoryCursor().reset(buffer, Long.MIN_VALUE, Long.MAX_VALUE);
+        int expected = 12;
+        while (cursor.next()) {
+            assertThat(cursor.flowRate()).isEqualTo(expected);
+            assertThat(cursor.epochSecond()).isEqualTo(DAY_START + expected * 60L);
+            expected++;
+        }
+        assertThat(expected).isEqualTo(20);
+        assertThat(buffer.size()).isEqualTo(8);
+    }
+
+    @Test
+    void cursorFiltersByTimeRange() {
+        SectionHistoryBuffer buffer = new SectionHistoryBuffer(7L, 64);
+        for (int i = 0; i < 30; i++) {
+            buffer.append(reading(1L, DAY_START + i * 60L, i));
+        }
+
+        SectionHistoryCursor cursor = new SectionHistoryCursor()
+                .reset(buffer, DAY_START + 10 * 60L, DAY_START + 15 * 60L);
+        int rows = 0;
+        while (cursor.next()) {
+            assertThat(cursor.flowRate()).isBetween(10, 14);
+            rows++;
+        }
+        assertThat(rows).isEqualTo(5);
+        assertThat(new SectionHistoryCursor().reset(null, 0L, Long.MAX_VALUE).next()).isFalse();
+    }
+
+    @Test
+    void latestWindowAveragesNewestReadingPerPoint() {
+        SectionHistoryStore store = new SectionHistoryStore(64, 1 << 20);
+        store.append(reading(1L, DAY_START, 100));
+        store.append(reading(2L, DAY_START + 60, 300));
+        store.append(reading(1L, DAY_START + 120, 200));
+        FlowReading missing = reading(3L, DAY_START + 180, FlowReading.MISSING_INT);
+        missing.setAverageSpeed(Double.NaN);
+        store.append(missing);
+
+        SectionLatestWindow window = new SectionLatestWindow()
+                .load(store.cursor(7L, DAY_START, DAY_START + 3600, new SectionHistoryCursor()));
+
+        assertThat(window.getPointCount()).isEqualTo(3);
+        assertThat(window.getAverageFlowRate()).isCloseTo((200 + 300 + 0) / 3.0, within(1e-9));
+        assertThat(window.getAverageSpeed()).isCloseTo(40.0, within(1e-9));
+    }
+
+    @Test
+    void rejectsSectionsBeyondMemoryBudget() {
+        SectionHistoryStore store = new SectionHistoryStore(16, 2L * 16 * SectionHistoryBuffer.RECORD_BYTES);
+        for (long section = 1; section <= 3; section++) {
+            FlowReading reading = reading(section, DAY_START, 1);
+            reading.setRoadSectionId(section);
+            store.append(reading);
+        }
+
+        assertThat(store.getSectionCount()).isEqualTo(2);
+        assertThat(store.getAllocatedBytes()).isEqualTo(store.getMaxBytes());
+        assertThat(store.getRejectedCount()).isEqualTo(1);
+    }
+
+    @Test
+    void concurrentReadersNeverSeeTornRecords() throws InterruptedException {
+        SectionHistoryBuffer buffer = new SectionHistoryBuffer(7L, 32);
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong torn = new AtomicLong();
+        Thread reader = new Thread(() -> {
+            SectionHistoryCursor cursor = new SectionHistoryCursor();
+            while (running.get()) {
+                cursor.reset(buffer, Long.MIN_VALUE, Long.MAX_VALUE);
+                while (cursor.next()) {
+                    if (cursor.epochSecond() - DAY_START != cursor.flowRate()) {
+                        torn.incrementAndGet();
+                    }
+                }
+            }
+        });
+        reader.start();
+        for (int i = 0; i < 2_000_000; i++) {
+            buffer.append(reading(1L, DAY_START + i, i));
+        }
+        running.set(false);
+        reader.join();
+
+        assertThat(torn.get()).isZero();
+    }
+
+    @Test
+    void concurrentReadersSeeWholeRecordsInOrderWhileWriterWraps() throws InterruptedException {
+        SectionHistoryBuffer buffer = new SectionHistoryBuffer(7L, 16);
+        AtomicBoolean running = new AtomicBoolean(true);
+        AtomicLong inconsistent = new AtomicLong();
+        AtomicLong recordsRead = new AtomicLong();
+        Thread[] readers = new Thread[3];
+        for (int r = 0; r < readers.length; r++) {
+            readers[r] = new Thread(() -> {
+                SectionHistoryCursor cursor = new SectionHistoryCursor();
+                long rows = 0;
+                while (running.get()) {
+                    cursor.reset(buffer, Long.MIN_VALUE, Long.MAX_VALUE);
+                    long previous = -1;
+                    while (cursor.next()) {
+                        long i = cursor.epochSecond() - DAY_START;
+                        // 每个字段都由同一个序号推出，任何字段来自另一次写入都说明读到了撕裂的记录
+                        if (i <= previous || cursor.monitoringPointId() != i % 97 || cursor.flowRate() != (int) i
+                                || cursor.averageSpeed() != i * 0.5 || cursor.occupancyRate() != i * 0.25
+                                || cursor.dataQuality() != (int) (i % 101)) {
+                            inconsistent.incrementAndGet();
+                        }
+                        previous = i;
+                        rows++;
+                    }
+                }
+                recordsRead.addAndGet(rows);
+            });
+            readers[r].start();
+        }
+        FlowReading reading = new FlowReading();
+        for (int i = 0; i < 3_000_000; i++) {
+            reading.setMonitoringPointId(i % 97);
+            reading.setEpochSecond(DAY_START + i);
+            reading.setFlowRate(i);
+            reading.setAverageSpeed(i * 0.5);
+            reading.setOccupancyRate(i * 0.25);
+            reading.setDataQuality(i % 101);
+            buffer.append(reading);
+        }
+        running.set(false);
+        for (Thread reader : readers) {
+            reader.join();
+        }
+
+        assertThat(inconsistent.get()).isZero();
+        assertThat(recordsRead.get()).isGreaterThan(0L);
+    }
+
+    private static FlowReading reading(long pointId, long epochSecond, int flowRate) {
+        FlowReading reading = new FlowReading();
+        reading.setMonitoringPointId(pointId);
+        reading.setRoadSectionId(7L);
+        reading.setEpochSecond(epochSecond);
+        reading.setFlowRate(flowRate);
+        reading.setAverageSpeed(40.0);
+        return reading;
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.enshitrafficplatform.storage.codec;
+
+import com.example.enshitrafficplatform.dto.FlowReading;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FlowBlockCodecTest {
+
+    /**
+     * traffic_flow_records 每行含索引约占用的字节数
+     */
+    private static final int DATABASE_ROW_BYTES = 150;
+
+    /**
+     * 2024-05-01 00:00 (UTC+8)
+     */
+    private static final long DAY_START = 1714492800L;
+
+    @Test
+    void roundTripsRealisticDay() {
+        FlowBlock block = realisticDay(new Random(1), 288);
+        assertRoundTrip(block);
+    }
+
+    @Test
+    void roundTripsIrregularAndMissingValues() {
+        Random random = new Random(2);
+        FlowBlock block = new FlowBlock();
+        FlowReading reading = new FlowReading();
+        long time = DAY_START;
+        for (int i = 0; i < 500; i++) {
+            reading.reset();
+            time += random.nextInt(3) == 0 ? random.nextInt(100_000) : 300;
+            reading.setEpochSecond(time);
+            if (random.nextInt(10) > 0) {
+                reading.setFlowRate(random.nextInt(Integer.MAX_VALUE) * (random.nextBoolean() ? 1 : -1));
+            }
+            if (random.nextInt(10) > 0) {
+                // 任意精度的浮点数走异或编码
+                reading.setAverageSpeed(random.nextDouble() * 120);
+            }
+            reading.setOccupancyRate(random.nextInt(5) == 0 ? -0.0 : random.nextInt(1000) / 10.0);
+            reading.setLargeVehicleCount(random.nextInt(5) == 0 ? FlowReading.MISSING_INT : random.nextInt(50));
+            reading.setHeadway(i % 7 == 0 ? Double.POSITIVE_INFINITY : Double.NaN);
+            reading.setDataQuality(Integer.MIN_VALUE + random.nextInt(3));
+            reading.setWeatherCondition(random.nextInt(4) == 0 ? null : "天气" + random.nextInt(3));
+            block.add(reading);
+        }
+        assertRoundTrip(block);
+    }
+
+    @Test
+    void roundTripsEmptyAndSingleRowBlocks() {
+        assertRoundTrip(new FlowBlock());
+        assertRoundTrip(realisticDay(new Random(3), 1));
+        assertRoundTrip(realisticDay(new Random(4), 2));
+    }
+
+    @Test
+    void rejectsCorruptData() {
+        byte[] data = FlowBlockCodec.encode(realisticDay(new Random(5), 288));
+        data[0] ^= 0x7F;
+        assertThatThrownBy(() -> FlowBlockCodec.decode(data)).isInstanceOf(IllegalArgumentException.class);
+
+        byte[] truncated = Arrays.copyOf(FlowBlockCodec.encode(realisticDay(new Random(6), 288)), 40);
+        assertThatThrownBy(() -> FlowBlockCodec.decode(truncated)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsHeaderRowCountLargerThanPayloadBeforeAllocating() {
+        byte[] valid = FlowBlockCodec.encode(realisticDay(new Random(7), 288));
+        FlowBlock target = new FlowBlock(16);
+        FlowBlockCodec.decode(ByteBuffer.wrap(valid), 0, valid.length, target);
+
+        // 行数位于魔数与版本之后的第4~7字节，改为接近int上限：不能按该行数分配约数十GB的列数组
+        byte[] huge = valid.clone();
+        ByteBuffer.wrap(huge).putInt(3, Integer.MAX_VALUE - 16);
+        assertThatThrownBy(() -> FlowBlockCodec.decode(ByteBuffer.wrap(huge), 0, huge.length, target))
+                .isInstanceOf(IllegalArgumentException.class).hasMessageContaining("行数");
+        assertThat(target.size()).isEqualTo(288);
+
+        // 超出数据长度可容纳的最大行数
+        byte[] inflated = valid.clone();
+        ByteBuffer.wrap(inflated).putInt(3, valid.length * 8 / 9 + 8);
+        assertThatThrownBy(() -> FlowBlockCodec.decode(inflated)).isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("行数");
+
+        // 通过长度校验但与编码内容不符的行数在读取列数据时失败
+        byte[] mismatched = valid.clone();
+        ByteBuffer.wrap(mismatched).putInt(3, 300);
+        assertThatThrownBy(() -> FlowBlockCodec.decode(mismatched)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void compressesRealisticDayMoreThanTenTimes() {
+        Random random = new Random(7);
+        long encodedBytes = 0;
+        long rows = 0;
+        for (int point = 0; point < 100; point++) {
+            FlowBlock block = realisticDay(random, 288);
+            encodedBytes += FlowBlockCodec.encode(block).length;
+            rows += block.size();
+        }
+        double ratio = (double) rows * DATABASE_ROW_BYTES / encodedBytes;
+        assertThat(ratio).isGreaterThan(10.0);
+    }
+
+    @Test
+    void decodesAtHundredsOfMegabytesPerSecond() {
+        Random random = new Random(8);
+        byte[][] encoded = new byte[200][];
+        for (int i = 0; i < encoded.length; i++) {
+            encoded[i] = FlowBlockCodec.encode(realisticDay(random, 288));
+        }
+        FlowBlock target = new FlowBlock(288);
+        ByteBuffer[] buffers = new ByteBuffer[encoded.length];
+        for (int i = 0; i < encoded.length; i++) {
+            buffers[i] = ByteBuffer.wrap(encoded[i]);
+        }
+        // 预热
+        for (int round = 0; round < 20; round++) {
+            decodeAll(buffers, target);
+        }
+        long best = Long.MAX_VALUE;
+        for (int round = 0; round < 10; round++) {
+            long start = System.nanoTime();
+            decodeAll(buffers, target);
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        double rawBytes = (double) encoded.length * 288 * FlowBlockCodec.RAW_ROW_BYTES;
+        double megabytesPerSecond = rawBytes / (1024 * 1024) / (best / 1e9);
+        // 取下限以兼容较慢的构建机器，开发机上通常在数百MB/s
+        assertThat(megabytesPerSecond).isGreaterThan(100.0);
+    }
+
+    private static void decodeAll(ByteBuffer[] buffers, FlowBlock target) {
+        for (ByteBuffer buffer : buffers) {
+            FlowBlockCodec.decode(buffer, 0, buffer.capacity(), target);
+        }
+    }
+
+    /**
+     * 模拟监测点一天的5分钟间隔读数：速度、占有率保留1位小数，偶有缺测和天气变化
+     */
+    private static FlowBlock realisticDay(Random random, int rows) {
+        FlowBlock block = new FlowBlock(rows);
+        FlowReading reading = new FlowReading();
+        int flow = 400 + random.nextInt(200);
+        double speed = 50 + random.nextInt(20);
+        for (int i = 0; i < rows; i++) {
+            reading.reset();
+            reading.setEpochSecond(DAY_START + i * 300L + (random.nextInt(50) == 0 ? 1 : 0));
+            flow = Math.max(0, flow + random.nextInt(41) - 20);
+            speed = Math.max(5, Math.min(90, speed + (random.nextInt(21) - 10) / 10.0));
+            if (random.nextInt(100) > 0) {
+                reading.setFlowRate(flow);
+                reading.setAverageSpeed(Math.round(speed * 10) / 10.0);
+                reading.setOccupancyRate(Math.round(flow / 15.0 * 10) / 10.0);
+                reading.setLargeVehicleCount(flow / 20 + random.nextInt(3));
+                reading.setMediumVehicleCount(flow / 10 + random.nextInt(5));
+                reading.setSmallVehicleCount(flow - flow / 20 - flow / 10);
+                reading.setHeadway(Math.round(3600.0 / Math.max(flow, 1) * speed / 3.6) / 1.0);
+                reading.setDataQuality(95 + random.nextInt(2));
+            }
+            reading.setWeatherCondition(i < rows / 2 ? "多云" : "小雨");
+            block.add(reading);
+        }
+        return block;
+    }
+
+    private static void assertRoundTrip(FlowBlock block) {
+        FlowBlock decoded = FlowBlockCodec.decode(FlowBlockCodec.encode(block));
+        assertThat(decoded.size()).isEqualTo(block.size());
+        for (int row = 0; row < block.size(); row++) {
+            assertThat(decoded.getEpochSecond(row)).isEqualTo(block.getEpochSecond(row));
+            assertThat(decoded.getFlowRate(row)).isEqualTo(block.getFlowRate(row));
+            assertSameBits(decoded.getAverageSpeed(row), block.getAverageSpeed(row));
+            assertSameBits(decoded.getOccupancyRate(row), block.getOccupancyRate(row));
+            assertThat(decoded.getLargeVehicleCount(row)).isEqualTo(block.getLargeVehicleCount(row));
+            assertThat(decoded.getMediumVehicleCount(row)).isEqualTo(block.getMediumVehicleCount(row));
+            assertThat(decoded.getSmallVehicleCount(row)).isEqualTo(block.getSmallVehicleCount(row));
+            assertSameBits(decoded.getHeadway(row), block.getHeadway(row));
+            assertThat(decoded.getDataQuality(row)).isEqualTo(block.getDataQuality(row));
+            assertThat(decoded.getWeatherCondition(row)).isEqualTo(block.getWeatherCondition(row));
+        }
+    }
+
+    private static void assertSameBits(double actual, double expected) {
+        assertThat(Double.doubleToRawLongBits(actual)).isEqualTo(Double.doubleToRawLongBits(expected));
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.enshitrafficplatform.storage.segment;
+
+import com.example.enshitrafficplatform.util.DateUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ColdSegmentStoreTest {
+
+    /**
+     * 2024-05-01 00:00 (UTC+8)
+     */
+    private static final long DAY = DateUtils.localEpochDay(1714492800L);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void keepsSegmentsSortedAndRejectsOverlappingDayRanges() throws IOException {
+        ColdSegmentStore store = new ColdSegmentStore();
+        assertThat(store.getLastDay()).isEqualTo(Long.MIN_VALUE);
+        ColdSegment later = open("later.dat", DAY + 3, DAY + 5);
+        ColdSegment earlier = open("earlier.dat", DAY, DAY + 2);
+        store.add(later);
+        store.add(earlier);
+        assertThat(store.getSegments()).containsExactly(earlier, later);
+        assertThat(store.getLastDay()).isEqualTo(DAY + 5);
+
+        // 与已有段共用首日、末日或完全包含已有段都算重叠
+        for (long[] range : new long[][]{{DAY + 2, DAY + 2}, {DAY + 5, DAY + 9}, {DAY - 1, DAY + 6}}) {
+            ColdSegment overlapping = open("overlap-" + range[0] + "-" + range[1] + ".dat", range[0], range[1]);
+            assertThatThrownBy(() -> store.add(overlapping)).isInstanceOf(IllegalArgumentException.class);
+        }
+        assertThat(store.getSegments()).containsExactly(earlier, later);
+
+        ColdSegment adjacent = open("adjacent.dat", DAY + 6, DAY + 8);
+        store.add(adjacent);
+        assertThat(store.getSegments()).containsExactly(earlier, later, adjacent);
+    }
+
+    @Test
+    void scansOnlySegmentsCoveringTheRequestedDays() throws IOException {
+        ColdSegmentStore store = new ColdSegmentStore();
+        store.add(open("first.dat", DAY, DAY + 2));
+        store.add(open("second.dat", DAY + 3, DAY + 5));
+
+        List<Integer> flows = new ArrayList<>();
+        long start = DateUtils.startOfEpochDay(DAY + 3);
+        long count = store.scan(3L, start, start + 3 * 86400L, null, reading -> flows.add(reading.getFlowRate()));
+
+        // 每个段中监测点3只有段首日次日的数据，查询范围只覆盖第二个段
+        assertThat(count).isEqualTo(flows.size()).isEqualTo(12);
+        assertThat(flows).allMatch(flow -> flow >= 100 && flow < 112);
+        assertThat(store.scan(3L, start, start, null, reading -> { })).isZero();
+    }
+
+    private ColdSegment open(String name, long firstDay, long lastDay) throws IOException {
+        return ColdSegment.open(ColdSegmentTest.writeSegment(dir.resolve(name), firstDay, lastDay));
+    }
+}
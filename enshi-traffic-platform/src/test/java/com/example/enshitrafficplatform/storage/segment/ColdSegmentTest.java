@@ -0,0 +1,169 @@
+package com.example.enshitrafficplatform.storage.segment;
+
+import com.example.enshitrafficplatform.dto.FlowReading;
+import com.example.enshitrafficplatform.storage.codec.FlowBlock;
+import com.example.enshitrafficplatform.util.DateUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ColdSegmentTest {
+
+    /**
+     * 2024-05-01 00:00 (UTC+8)
+     */
+    private static final long DAY_START = 1714492800L;
+
+    private static final long FIRST_DAY = DateUtils.localEpochDay(DAY_START);
+
+    private static final int READINGS_PER_DAY = 12;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void reopensWrittenSegmentAndScansPerPointAndTimeRange() throws IOException {
+        ColdSegment segment = ColdSegment.open(writeSegment(dir.resolve("seg.dat")));
+
+        assertThat(segment.getFirstDay()).isEqualTo(FIRST_DAY);
+        assertThat(segment.getLastDay()).isEqualTo(FIRST_DAY + 2);
+        assertThat(segment.getMaxRecordId()).isEqualTo(4242L);
+        assertThat(segment.getRowCount()).isEqualTo(4L * READINGS_PER_DAY);
+        assertThat(segment.getPointCount()).isEqualTo(2);
+        // 写入顺序与索引顺序无关，索引按监测点、日期排序
+        assertThat(segment.blocks(1L)).extracting(SegmentBlockInfo::getEpochDay)
+                .containsExactly(FIRST_DAY, FIRST_DAY + 1, FIRST_DAY + 2);
+        assertThat(segment.blocks(3L)).extracting(SegmentBlockInfo::getEpochDay).containsExactly(FIRST_DAY + 1);
+        assertThat(segment.blocks(1L).get(1).getMinFlowRate()).isEqualTo(100);
+        assertThat(segment.blocks(1L).get(1).getMaxFlowRate()).isEqualTo(100 + READINGS_PER_DAY - 1);
+        assertThat(segment.allBlocks()).extracting(SegmentBlockInfo::getMonitoringPointId)
+                .containsExactly(1L, 1L, 1L, 3L);
+
+        // 段内没有的监测点，包括介于已有监测点之间和超出两端的
+        for (long missing : new long[]{0L, 2L, 4L}) {
+            assertThat(segment.blocks(missing)).isEmpty();
+            assertThat(segment.scan(missing, DAY_START, DAY_START + 3 * 86400L, null, reading -> { })).isZero();
+        }
+
+        // 跨越第一天末尾到第二天中午，只返回时间范围内的读数
+        List<Integer> flows = new ArrayList<>();
+        long start = DAY_START + 20 * 3600L;
+        long end = DAY_START + 86400L + 12 * 3600L;
+        long count = segment.scan(1L, start, end, null, collect(flows));
+        assertThat(count).isEqualTo(flows.size());
+        assertThat(flows).containsExactly(10, 11, 100, 101, 102, 103, 104, 105);
+
+        // 区间统计过滤掉的数据块不参与扫描
+        flows.clear();
+        segment.scan(1L, start, end, block -> block.getMaxFlowRate() >= 100, collect(flows));
+        assertThat(flows).containsExactly(100, 101, 102, 103, 104, 105);
+
+        flows.clear();
+        assertThat(segment.scan(3L, DAY_START, DAY_START + 86400L, null, collect(flows))).isZero();
+        assertThat(segment.scan(3L, DAY_START, DAY_START + 3 * 86400L, null, collect(flows)))
+                .isEqualTo(READINGS_PER_DAY);
+        assertThat(segment.scan(1L, end, start, null, collect(flows))).isZero();
+    }
+
+    @Test
+    void rejectsTruncatedFileAndCorruptFooter() throws IOException {
+        Path path = writeSegment(dir.resolve("seg.dat"));
+        byte[] valid = Files.readAllBytes(path);
+
+        assertOpenFails(Arrays.copyOf(valid, valid.length - 10), "不是段文件或文件不完整");
+        assertOpenFails(Arrays.copyOf(valid, 20), "段文件大小异常");
+
+        byte[] badMagic = valid.clone();
+        badMagic[badMagic.length - 1] ^= 0x01;
+        assertOpenFails(badMagic, "不是段文件或文件不完整");
+
+        int footer = valid.length - ColdSegmentWriter.FOOTER_BYTES;
+        byte[] badPointTable = valid.clone();
+        ByteBuffer.wrap(badPointTable).putLong(footer + 24, valid.length * 2L);
+        assertOpenFails(badPointTable, "段文件尾损坏");
+
+        byte[] badIndex = valid.clone();
+        ByteBuffer.wrap(badIndex).putLong(footer + 36, 2L);
+        assertOpenFails(badIndex, "段文件尾损坏");
+
+        byte[] badEntryCount = valid.clone();
+        ByteBuffer.wrap(badEntryCount).putInt(footer + 44, Integer.MAX_VALUE);
+        assertOpenFails(badEntryCount, "段文件尾损坏");
+    }
+
+    @Test
+    void rejectsCorruptIndex() throws IOException {
+        Path path = writeSegment(dir.resolve("seg.dat"));
+        byte[] valid = Files.readAllBytes(path);
+        int footer = valid.length - ColdSegmentWriter.FOOTER_BYTES;
+        int indexOffset = (int) ByteBuffer.wrap(valid).getLong(footer + 36);
+
+        // 第一个索引项指向监测点3的槽位，后续监测点1的索引项槽位倒退
+        byte[] badSlotOrder = valid.clone();
+        ByteBuffer.wrap(badSlotOrder).putInt(indexOffset, 1);
+        assertOpenFails(badSlotOrder, "段文件索引损坏");
+
+        byte[] negativeSlot = valid.clone();
+        ByteBuffer.wrap(negativeSlot).putInt(indexOffset, -1);
+        assertOpenFails(negativeSlot, "段文件索引损坏");
+
+        byte[] blockOutOfRange = valid.clone();
+        ByteBuffer.wrap(blockOutOfRange).putInt(indexOffset + 16, valid.length);
+        assertOpenFails(blockOutOfRange, "段文件索引损坏");
+    }
+
+    /**
+     * 监测点1写入三天、监测点3写入第二天，每天 {@value #READINGS_PER_DAY} 条、间隔两小时，
+     * 车流量为 日序号 × 100 + 当天序号
+     */
+    static Path writeSegment(Path target) throws IOException {
+        return writeSegment(target, FIRST_DAY, FIRST_DAY + 2);
+    }
+
+    static Path writeSegment(Path target, long firstDay, long lastDay) throws IOException {
+        try (ColdSegmentWriter writer = new ColdSegmentWriter(target)) {
+            writer.addBlock(3L, day(DateUtils.startOfEpochDay(firstDay) + 86400L, 1));
+            for (int day = 0; day < 3; day++) {
+                writer.addBlock(1L, day(DateUtils.startOfEpochDay(firstDay) + day * 86400L, day));
+            }
+            writer.addBlock(2L, new FlowBlock());
+            writer.setMaxRecordId(4242L);
+            return writer.finish(firstDay, lastDay);
+        }
+    }
+
+    private static FlowBlock day(long dayStart, int dayIndex) {
+        FlowBlock block = new FlowBlock(READINGS_PER_DAY);
+        FlowReading reading = new FlowReading();
+        for (int i = 0; i < READINGS_PER_DAY; i++) {
+            reading.reset();
+            reading.setEpochSecond(dayStart + i * 7200L);
+            reading.setFlowRate(dayIndex * 100 + i);
+            reading.setAverageSpeed(40.0 + i);
+            block.add(reading);
+        }
+        return block;
+    }
+
+    private static Consumer<FlowReading> collect(List<Integer> flows) {
+        return reading -> flows.add(reading.getFlowRate());
+    }
+
+    private void assertOpenFails(byte[] content, String message) throws IOException {
+        Path corrupt = Files.createTempFile(dir, "corrupt", ".dat");
+        Files.write(corrupt, content);
+        assertThatThrownBy(() -> ColdSegment.open(corrupt)).isInstanceOf(IOException.class)
+                .hasMessageContaining(message);
+    }
+}
@@ -0,0 +1,105 @@
+package com.example.enshitrafficplatform.weather;
+
+import com.example.enshitrafficplatform.entity.WeatherRecord;
+import com.example.enshitrafficplatform.weather.SectionWeatherJoin.SectionPoint;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class LandslideRiskTrackerTest {
+
+    private static final long START_HOUR = 480_000;
+
+    @Test
+    void windowSumsMatchBruteForce() {
+        Random random = new Random(48);
+        RainfallWindow window = new RainfallWindow(START_HOUR);
+        Map<Long, Double> hourly = new HashMap<>();
+        long now = START_HOUR;
+        for (int i = 0; i < 20_000; i++) {
+            if (random.nextInt(8) == 0) {
+                now += random.nextInt(30) == 0 ? 100 : random.nextInt(4);
+                window.advanceTo(now);
+            }
+            long hour = now - random.nextInt(80) + 2;
+            double precipitation = random.nextInt(4) == 0 ? 0 : random.nextDouble() * 20;
+            window.raise(hour, precipitation);
+            now = Math.max(now, hour);
+            if (hour > now - RainfallWindow.HOURS) {
+                hourly.merge(hour, precipitation, Math::max);
+            }
+            double sum24 = 0;
+            double sum72 = 0;
+            for (Map.Entry<Long, Double> entry : hourly.entrySet()) {
+                if (entry.getKey() > now - RainfallWindow.SHORT_HOURS) {
+                    sum24 += entry.getValue();
+                }
+                if (entry.getKey() > now - RainfallWindow.HOURS) {
+                    sum72 += entry.getValue();
+                }
+            }
+            assertThat(window.getSum24()).isCloseTo(sum24, within(1e-6));
+            assertThat(window.getSum72()).isCloseTo(sum72, within(1e-6));
+        }
+    }
+
+    @Test
+    void risksAreRaisedByCumulativeRainAndClearedAsItExpires() {
+        SectionWeatherJoin join = SectionWeatherJoin.build(List.of(station(109.40, 30.27), station(109.60, 30.27)),
+                List.of(new SectionPoint(1L, 109.40, 30.27), new SectionPoint(2L, 109.40, 30.27),
+                        new SectionPoint(3L, 109.60, 30.27), new SectionPoint(4L, 109.40, 30.27)), 1, 2.0, 50);
+        LandslideRiskTracker tracker = new LandslideRiskTracker(START_HOUR);
+        List<LandslideRiskTracker.Change> attached = tracker.attach(join, List.of(
+                new SectionTerrain(1L, "滑坡隐患点", 12.0, 20.0),
+                new SectionTerrain(2L, "中风险", 3.0, null),
+                new SectionTerrain(3L, "泥石流", null, null),
+                new SectionTerrain(4L, null, 2.0, 4.0)));
+        assertThat(attached).isEmpty();
+        assertThat(tracker.getSectionCount()).isEqualTo(3);
+        assertThat(tracker.get(4L)).isNull();
+
+        // 西侧观测站连续6小时每小时10毫米：24小时累计60毫米
+        for (int h = 0; h < 6; h++) {
+            tracker.observe(109.40, 30.27, START_HOUR + h, 10);
+        }
+        // 同一小时的重复记录不重复计入
+        tracker.observe(109.40, 30.27, START_HOUR + 5, 10);
+        assertThat(tracker.get(1L).getRainfall24h()).isCloseTo(60, within(1e-9));
+        assertThat(tracker.get(1L).getLevel()).isEqualTo(LandslideRisk.HIGH);
+        assertThat(tracker.get(2L).getLevel()).isEqualTo(LandslideRisk.LOW);
+        assertThat(tracker.get(3L).getLevel()).isEqualTo(LandslideRisk.NONE);
+
+        // 24小时后只剩72小时累计，降水等级降为1，易发程度低的路段解除
+        List<LandslideRiskTracker.Change> lowered = tracker.advanceTo(START_HOUR + 30);
+        assertThat(lowered).extracting(LandslideRiskTracker.Change::roadSectionId).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(tracker.get(1L).getLevel()).isEqualTo(LandslideRisk.MODERATE);
+        assertThat(tracker.get(2L).getLevel()).isEqualTo(LandslideRisk.NONE);
+
+        List<LandslideRiskTracker.Change> cleared = tracker.advanceTo(START_HOUR + 80);
+        assertThat(cleared).hasSize(1);
+        assertThat(cleared).extracting(LandslideRiskTracker.Change::current).containsOnly(LandslideRisk.NONE);
+        assertThat(tracker.countAtLeast(LandslideRisk.LOW)).isZero();
+
+        // 重新关联时路段沿用观测站窗口中的降水
+        tracker.observe(109.60, 30.27, START_HOUR + 80, 120);
+        List<LandslideRiskTracker.Change> reattached = tracker.attach(join.withSections(
+                List.of(new SectionPoint(3L, 109.60, 30.27))), List.of(new SectionTerrain(3L, "泥石流", null, null)));
+        assertThat(reattached).isEmpty();
+        assertThat(tracker.get(3L).getLevel()).isEqualTo(LandslideRisk.HIGH);
+    }
+
+    private static WeatherRecord station(double longitude, double latitude) {
+        WeatherRecord record = new WeatherRecord();
+        record.setLongitude(longitude);
+        record.setLatitude(latitude);
+        record.setRecordTime(LocalDateTime.of(2024, 6, 1, 0, 0));
+        return record;
+    }
+}
@@ -0,0 +1,121 @@
+package com.example.enshitrafficplatform.weather;
+
+import com.example.enshitrafficplatform.entity.WeatherRecord;
+import com.example.enshitrafficplatform.weather.SectionWeatherJoin.Neighbors;
+import com.example.enshitrafficplatform.weather.SectionWeatherJoin.SectionPoint;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class SectionWeatherJoinTest {
+
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 7, 1, 12, 0);
+
+    @Test
+    void kdTreeMatchesBruteForce() {
+        Random random = new Random(45);
+        for (int round = 0; round < 50; round++) {
+            int n = 1 + random.nextInt(300);
+            double[] x = new double[n];
+            double[] y = new double[n];
+            for (int i = 0; i < n; i++) {
+                // 取整制造重复坐标，覆盖划分时的相等情况
+                x[i] = random.nextInt(40);
+                y[i] = random.nextInt(40);
+            }
+            KdTree tree = KdTree.build(x, y);
+            for (int q = 0; q < 20; q++) {
+                double qx = random.nextDouble() * 50 - 5;
+                double qy = random.nextDouble() * 50 - 5;
+                int k = 1 + random.nextInt(6);
+                double maxDistance = random.nextBoolean() ? Double.MAX_VALUE : random.nextDouble() * 15;
+                int[] indices = new int[k];
+                double[] distances = new double[k];
+                int count = tree.nearest(qx, qy, k, maxDistance, indices, distances);
+
+                double[] expected = IntStream.range(0, n)
+                        .mapToDouble(i -> Math.hypot(x[i] - qx, y[i] - qy))
+                        .filter(d -> d <= maxDistance)
+                        .sorted()
+                        .limit(k)
+                        .toArray();
+                assertThat(count).isEqualTo(expected.length);
+                for (int i = 0; i < count; i++) {
+                    assertThat(distances[i]).isCloseTo(expected[i], within(1e-9));
+                    assertThat(Math.hypot(x[indices[i]] - qx, y[indices[i]] - qy))
+                            .isCloseTo(distances[i], within(1e-9));
+                }
+            }
+        }
+    }
+
+    @Test
+    void sectionsUseInverseDistanceWeightsOfNearestStations() {
+        List<WeatherRecord> stations = List.of(
+                station(1L, 109.48, 30.27, 20.0, null),
+                station(2L, 109.58, 30.27, 30.0, 800.0),
+                station(3L, 110.48, 30.27, 40.0, 200.0));
+        SectionWeatherJoin join = SectionWeatherJoin.build(stations, List.of(
+                new SectionPoint(10L, 109.50, 30.27),
+                new SectionPoint(20L, 112.00, 30.27)), 2, 2.0, 50);
+
+        Neighbors neighbors = join.neighbors(10L);
+        assertThat(Arrays.stream(neighbors.stations()).mapToObj(i -> join.getStation(i).getId()))
+                .containsExactly(1L, 2L);
+        assertThat(neighbors.weights()[0] + neighbors.weights()[1]).isCloseTo(1.0, within(1e-12));
+        // 距离之比约为 1:4，权重之比为 16:1
+        assertThat(neighbors.weights()[0] / neighbors.weights()[1]).isCloseTo(16.0, within(0.01));
+        assertThat(join.interpolate(10L, WeatherRecord::getTemperature))
+                .isCloseTo((20.0 * 16 + 30.0) / 17, within(0.01));
+        // 最近的观测站缺失能见度，只用其余观测站
+        assertThat(join.interpolate(10L, record -> record.getVisibility() != null
+                ? record.getVisibility() : Double.NaN)).isEqualTo(800.0);
+        assertThat(join.nearest(10L).getId()).isEqualTo(1L);
+
+        // 最大关联距离内没有观测站
+        assertThat(join.neighbors(20L)).isNull();
+        assertThat(join.interpolate(20L, WeatherRecord::getTemperature)).isNaN();
+        assertThat(join.getSectionIds()).containsExactly(10L);
+
+        SectionWeatherJoin moved = join.withSections(List.of(new SectionPoint(10L, 110.47, 30.27)));
+        assertThat(moved.nearest(10L).getId()).isEqualTo(3L);
+        assertThat(moved.getStations()).isSameAs(join.getStations());
+    }
+
+    @Test
+    void latestRecordPerLocationIsTheStationObservation() {
+        List<WeatherRecord> records = new ArrayList<>(List.of(
+                station(1L, 109.48, 30.27, 20.0, null),
+                station(2L, 109.58, 30.27, 30.0, null),
+                station(3L, 109.48, 30.27, 21.0, null),
+                station(4L, null, 30.27, 22.0, null)));
+        records.get(0).setRecordTime(NOW.plusHours(1));
+        records.get(2).setRecordTime(NOW);
+        records.add(station(5L, 109.58, 30.27, 31.0, null));
+
+        List<WeatherRecord> latest = SectionWeatherJoin.latestByLocation(records);
+        latest.sort(Comparator.comparing(WeatherRecord::getId));
+        assertThat(latest).extracting(WeatherRecord::getId).containsExactly(1L, 5L);
+    }
+
+    private static WeatherRecord station(Long id, Double longitude, Double latitude, Double temperature,
+                                         Double visibility) {
+        WeatherRecord record = new WeatherRecord();
+        record.setId(id);
+        record.setRecordTime(NOW);
+        record.setLongitude(longitude);
+        record.setLatitude(latitude);
+        record.setTemperature(temperature);
+        record.setVisibility(visibility);
+        return record;
+    }
+}
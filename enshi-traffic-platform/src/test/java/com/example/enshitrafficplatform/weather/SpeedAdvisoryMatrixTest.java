@@ -0,0 +1,112 @@
+package com.example.enshitrafficplatform.weather;
+
+import com.example.enshitrafficplatform.dictionary.WeatherCondition;
+import com.example.enshitrafficplatform.entity.RoadSection;
+import com.example.enshitrafficplatform.entity.WeatherRecord;
+import com.example.enshitrafficplatform.weather.SpeedAdvisoryMatrix.SectionProfile;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SpeedAdvisoryMatrixTest {
+
+    private static final double[] PRECIPITATION = {0, 0.05, 0.1, 9.99, 10, 10.01, 24.99, 25, 49.99, 50, 99.99,
+            100, 249.99, 250, 300};
+
+    private static final double[] VISIBILITY = {0, 49.99, 50, 99.99, 100, 199.99, 200, 499.99, 500, 999.99, 1000,
+            1999.99, 2000, 10000};
+
+    private static final double[] WIND_SPEED = {0, 8, 8.01, 10.79, 10.8, 13.9, 17.2, 20.8, 24.5, 28.5, 32.69,
+            32.7, 40};
+
+    private static final double[] TEMPERATURE = {-20, -10.01, -10, -5.01, -5, -0.01, 0, 0.01, 2, 2.01, 4.99, 5, 30};
+
+    private static final Integer[] SPEED_LIMITS = {null, 30, 40, 60, 80};
+
+    private static final Double[] SLOPES = {null, 3.0, 8.0, 8.5, 12.0};
+
+    private static final Double[] CURVATURES = {null, 0.05, 0.1, 0.11, 0.3};
+
+    @Test
+    void lookupsEqualEntityFormulas() {
+        Random random = new Random(47);
+        List<SectionProfile> sections = new ArrayList<>();
+        for (long id = 1; id <= 60; id++) {
+            sections.add(new SectionProfile(id * 7 % 61, SPEED_LIMITS[random.nextInt(SPEED_LIMITS.length)],
+                    SLOPES[random.nextInt(SLOPES.length)], CURVATURES[random.nextInt(CURVATURES.length)]));
+        }
+        SpeedAdvisoryMatrix matrix = SpeedAdvisoryMatrix.build(sections);
+        assertThat(matrix.getSectionCount()).isEqualTo(60);
+        assertThat(matrix.getProfileCount()).isLessThan(60);
+
+        List<WeatherRecord> records = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            records.add(randomRecord(random));
+        }
+        WeatherColumns columns = WeatherColumns.ofRecords(records);
+        for (int i = 0; i < records.size(); i++) {
+            WeatherRecord record = records.get(i);
+            int state = columns.advisoryState(i);
+            for (SectionProfile section : sections) {
+                assertThat(matrix.advisedSpeed(section.roadSectionId(), state))
+                        .isEqualTo(expectedSpeed(section, record));
+            }
+        }
+    }
+
+    @Test
+    void sectionsWithoutSpeedLimitHaveNoAdvisory() {
+        SpeedAdvisoryMatrix matrix = SpeedAdvisoryMatrix.build(List.of(
+                new SectionProfile(1L, null, 10.0, 0.2),
+                new SectionProfile(2L, 60, 10.0, 0.2),
+                new SectionProfile(3L, 60, 9.0, 0.5)));
+        int clear = SpeedAdvisoryMatrix.state(SpeedAdvisoryMatrix.conditionIndex("晴"), 10000, 0, 20, 2);
+        assertThat(matrix.getProfileCount()).isEqualTo(2);
+        assertThat(matrix.advisedSpeed(1L, clear)).isEqualTo(SpeedAdvisoryMatrix.NO_ADVISORY);
+        assertThat(matrix.advisedSpeed(4L, clear)).isEqualTo(SpeedAdvisoryMatrix.NO_ADVISORY);
+        // 陡坡急弯：60 × 0.8 × 0.7
+        assertThat(matrix.advisedSpeed(3L, clear)).isEqualTo(33);
+        int fog = SpeedAdvisoryMatrix.state(SpeedAdvisoryMatrix.conditionIndex("大雾"), 40, 0, 20, 2);
+        assertThat(matrix.advisedSpeed(2L, fog)).isLessThan(matrix.advisedSpeed(2L, clear));
+    }
+
+    private static int expectedSpeed(SectionProfile profile, WeatherRecord record) {
+        RoadSection section = profile.toRoadSection();
+        if (profile.speedLimit() == null) {
+            return SpeedAdvisoryMatrix.NO_ADVISORY;
+        }
+        String condition = record.getWeatherCondition() != null ? record.getWeatherCondition() : "";
+        Integer visibility = record.getVisibility() != null ? record.getVisibility().intValue() : null;
+        return Math.min(section.calculateWeatherAdjustedSpeedLimit(condition, visibility),
+                record.getSuggestedSpeedLimit(profile.speedLimit()));
+    }
+
+    private static WeatherRecord randomRecord(Random random) {
+        WeatherRecord record = new WeatherRecord();
+        record.setPrecipitation(pick(random, PRECIPITATION));
+        record.setVisibility(pick(random, VISIBILITY));
+        record.setWindSpeed(pick(random, WIND_SPEED));
+        record.setTemperature(pick(random, TEMPERATURE));
+        WeatherCondition[] conditions = WeatherCondition.values();
+        int choice = random.nextInt(conditions.length + 3);
+        record.setWeatherCondition(choice < conditions.length ? conditions[choice].getLabel()
+                : choice == conditions.length ? SpeedAdvisoryMatrix.SNOW_LABEL
+                : choice == conditions.length + 1 ? SpeedAdvisoryMatrix.ICE_SNOW_LABEL : null);
+        return record;
+    }
+
+    private static Double pick(Random random, double[] values) {
+        int choice = random.nextInt(10);
+        if (choice == 0) {
+            return null;
+        }
+        if (choice == 1) {
+            return values[values.length - 1] * random.nextDouble();
+        }
+        return values[random.nextInt(values.length)];
+    }
+}
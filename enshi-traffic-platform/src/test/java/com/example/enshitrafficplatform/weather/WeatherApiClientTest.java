@@ -0,0 +1,172 @@
+package com.example.enshitrafficplatform.weather;
+
+import com.example.enshitrafficplatform.entity.WeatherRecord;
+import com.example.enshitrafficplatform.util.DateUtils;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WeatherApiClientTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 6, 1, 8, 0);
+
+    private static final int CONCURRENCY = 3;
+
+    /**
+     * 查询坐标到观测分钟数，缺失的坐标返回500
+     */
+    private final Map<String, Integer> observations = new ConcurrentHashMap<>();
+
+    private final Map<String, Integer> conditionalRequests = new ConcurrentHashMap<>();
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    private volatile boolean honourValidators = true;
+
+    private HttpServer server;
+
+    private WeatherApiClient client;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/api/current.json", this::handle);
+        server.start();
+        client = new WeatherApiClient("http://127.0.0.1:" + server.getAddress().getPort() + "/api/", "key",
+                CONCURRENCY, Duration.ofSeconds(5), WeatherApiClientTest::parse);
+    }
+
+    @AfterEach
+    void stopServer() {
+        client.close();
+        server.stop(0);
+    }
+
+    @Test
+    void regionsAreFetchedConcurrentlyAndRevalidated() {
+        List<WeatherApiClient.Target> targets = targets(8);
+
+        List<WeatherApiClient.Fetch> first = client.fetchAll(targets);
+        assertThat(first).extracting(WeatherApiClient.Fetch::status).containsOnly(WeatherApiClient.Status.CHANGED);
+        assertThat(first.get(3).record().getTemperature()).isEqualTo(3.0);
+        assertThat(first.get(3).record().getLongitude()).isEqualTo(targets.get(3).longitude());
+        assertThat(maxInFlight.get()).isGreaterThan(1);
+        assertThat(maxInFlight.get()).isLessThanOrEqualTo(CONCURRENCY);
+
+        // 未确认入库的结果不更新缓存，再次查询重新取回
+        assertThat(client.fetchAll(targets)).extracting(WeatherApiClient.Fetch::status)
+                .containsOnly(WeatherApiClient.Status.CHANGED);
+        assertThat(conditionalRequests).isEmpty();
+
+        client.fetchAll(targets).forEach(client::commit);
+        assertThat(client.fetchAll(targets)).extracting(WeatherApiClient.Fetch::status)
+                .containsOnly(WeatherApiClient.Status.NOT_MODIFIED);
+        assertThat(conditionalRequests).hasSize(8);
+
+        observations.put(query(targets.get(5)), 60);
+        List<WeatherApiClient.Fetch> updated = client.fetchAll(targets);
+        assertThat(updated.get(5).status()).isEqualTo(WeatherApiClient.Status.CHANGED);
+        assertThat(updated.get(5).record().getRecordTime()).isEqualTo(T0.plusMinutes(60));
+        assertThat(updated.stream().filter(fetch -> fetch.status() == WeatherApiClient.Status.NOT_MODIFIED))
+                .hasSize(7);
+    }
+
+    @Test
+    void unchangedObservationsAreSkippedWithoutValidators() {
+        honourValidators = false;
+        List<WeatherApiClient.Target> targets = targets(4);
+        client.seed(targets.get(0).regionId(), T0);
+        observations.remove(query(targets.get(3)));
+
+        List<WeatherApiClient.Fetch> first = client.fetchAll(targets);
+        assertThat(first).extracting(WeatherApiClient.Fetch::status).containsExactly(
+                WeatherApiClient.Status.UNCHANGED, WeatherApiClient.Status.CHANGED,
+                WeatherApiClient.Status.CHANGED, WeatherApiClient.Status.FAILED);
+        assertThat(first.get(3).error()).isEqualTo("HTTP 500");
+        first.forEach(client::commit);
+
+        observations.put(query(targets.get(2)), 30);
+        assertThat(client.fetchAll(targets)).extracting(WeatherApiClient.Fetch::status).containsExactly(
+                WeatherApiClient.Status.UNCHANGED, WeatherApiClient.Status.UNCHANGED,
+                WeatherApiClient.Status.CHANGED, WeatherApiClient.Status.FAILED);
+    }
+
+    private List<WeatherApiClient.Target> targets(int count) {
+        List<WeatherApiClient.Target> targets = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            WeatherApiClient.Target target = new WeatherApiClient.Target(i + 1L, 109.0 + i / 100.0, 30.27);
+            targets.add(target);
+            observations.put(query(target), 0);
+        }
+        return targets;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        int running = inFlight.incrementAndGet();
+        maxInFlight.accumulateAndGet(running, Math::max);
+        try {
+            Thread.sleep(50);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        inFlight.decrementAndGet();
+
+        String rawQuery = exchange.getRequestURI().getRawQuery();
+        String query = rawQuery.substring(rawQuery.indexOf("q=") + 2, rawQuery.indexOf("&lang="));
+        Integer minute = observations.get(query);
+        if (minute == null) {
+            exchange.sendResponseHeaders(500, -1);
+            exchange.close();
+            return;
+        }
+        String etag = "\"" + query + "@" + minute + "\"";
+        String ifNoneMatch = exchange.getRequestHeaders().getFirst("If-None-Match");
+        if (ifNoneMatch != null) {
+            conditionalRequests.merge(query, 1, Integer::sum);
+        }
+        if (honourValidators && etag.equals(ifNoneMatch)) {
+            exchange.sendResponseHeaders(304, -1);
+            exchange.close();
+            return;
+        }
+        int index = (int) Math.round((Double.parseDouble(query.substring(query.indexOf(',') + 1)) - 109.0) * 100);
+        byte[] body = (DateUtils.toEpochSecond(T0.plusMinutes(minute)) + "," + index).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("ETag", etag);
+        exchange.sendResponseHeaders(200, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static String query(WeatherApiClient.Target target) {
+        return target.latitude() + "," + target.longitude();
+    }
+
+    private static WeatherRecord parse(String body) {
+        String[] fields = body.split(",");
+        WeatherRecord record = new WeatherRecord();
+        record.setRecordTime(DateUtils.fromEpochSecond(Long.parseLong(fields[0])));
+        record.setTemperature(Double.parseDouble(fields[1]));
+        return record;
+    }
+}
@@ -0,0 +1,177 @@
+package com.example.enshitrafficplatform.weather;
+
+import com.example.enshitrafficplatform.dto.FlowReading;
+import com.example.enshitrafficplatform.entity.WeatherRecord;
+import com.example.enshitrafficplatform.util.DateUtils;
+import com.example.enshitrafficplatform.weather.SectionWeatherJoin.SectionPoint;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class WeatherAsOfJoinTest {
+
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 6, 1, 8, 0);
+
+    private static final long MAX_AGE = 120 * 60;
+
+    private static final long MAX_GAP = 90 * 60;
+
+    @Test
+    void readingsTakeLatestObservationOrInterpolate() {
+        List<WeatherRecord> weather = List.of(record(109.40, 30.27, 0, 10), record(109.40, 30.27, 60, 20),
+                record(109.40, 30.27, 300, 50));
+        SectionWeatherJoin join = SectionWeatherJoin.build(List.of(weather.get(0)),
+                List.of(new SectionPoint(1L, 109.41, 30.27)), 1, 2.0, 50);
+
+        WeatherAsOfJoin interpolate = WeatherAsOfJoin.replay(join, WeatherAsOfJoin.Mode.INTERPOLATE, MAX_AGE, MAX_GAP,
+                weather.iterator());
+        WeatherSample sample = new WeatherSample();
+        assertThat(interpolate.align(1L, epoch(-1), sample)).isFalse();
+        assertThat(interpolate.align(1L, epoch(30), sample)).isTrue();
+        assertThat(sample.isInterpolated()).isTrue();
+        assertThat(sample.getTemperature()).isCloseTo(15, within(1e-9));
+        assertThat(sample.getAgeSeconds()).isEqualTo(30 * 60);
+        // 后一条观测超出最大间隔时取前一条
+        assertThat(interpolate.align(1L, epoch(120), sample)).isTrue();
+        assertThat(sample.isInterpolated()).isFalse();
+        assertThat(sample.getTemperature()).isCloseTo(20, within(1e-9));
+        // 前一条观测超出最大时长
+        assertThat(interpolate.align(1L, epoch(200), sample)).isFalse();
+        assertThat(interpolate.align(1L, epoch(300), sample)).isTrue();
+        assertThat(sample.getTemperature()).isCloseTo(50, within(1e-9));
+        assertThat(interpolate.align(2L, epoch(300), sample)).isFalse();
+
+        WeatherAsOfJoin latest = WeatherAsOfJoin.replay(join, WeatherAsOfJoin.Mode.LATEST, MAX_AGE, MAX_GAP,
+                weather.iterator());
+        assertThat(latest.align(1L, epoch(59), sample)).isTrue();
+        assertThat(sample.isInterpolated()).isFalse();
+        assertThat(sample.getTemperature()).isCloseTo(10, within(1e-9));
+    }
+
+    @Test
+    void liveObservationsTakeEffectAtTheirOwnTime() {
+        SectionWeatherJoin join = SectionWeatherJoin.build(List.of(record(109.40, 30.27, 0, 10)),
+                List.of(new SectionPoint(1L, 109.41, 30.27)), 1, 2.0, 50);
+        WeatherAsOfJoin live = WeatherAsOfJoin.live(join, MAX_AGE);
+        WeatherSample sample = new WeatherSample();
+        assertThat(live.align(1L, epoch(10), sample)).isTrue();
+        assertThat(sample.getTemperature()).isCloseTo(10, within(1e-9));
+
+        live.offer(record(109.40, 30.27, 20, 20));
+        live.offer(record(109.50, 30.27, 20, 99));
+        assertThat(live.align(1L, epoch(15), sample)).isTrue();
+        assertThat(sample.getTemperature()).isCloseTo(10, within(1e-9));
+        assertThat(live.align(1L, epoch(25), sample)).isTrue();
+        assertThat(sample.getTemperature()).isCloseTo(20, within(1e-9));
+        // 乱序到达的读数退回到较早的一条
+        assertThat(live.align(1L, epoch(12), sample)).isTrue();
+        assertThat(sample.getTemperature()).isCloseTo(10, within(1e-9));
+    }
+
+    @Test
+    void pagedReplayMatchesBruteForce() {
+        Random random = new Random(49);
+        double[][] locations = {{109.40, 30.27}, {109.90, 30.60}, {110.30, 29.90}};
+        List<WeatherRecord> weather = new ArrayList<>();
+        List<SectionPoint> sections = new ArrayList<>();
+        for (int s = 0; s < locations.length; s++) {
+            int minute = -random.nextInt(200);
+            while (minute < 3 * 24 * 60) {
+                weather.add(record(locations[s][0], locations[s][1], minute, random.nextDouble() * 30));
+                minute += 1 + random.nextInt(random.nextInt(10) == 0 ? 400 : 60);
+            }
+            sections.add(new SectionPoint(s * 2 + 1L, locations[s][0] + 0.01, locations[s][1]));
+            sections.add(new SectionPoint(s * 2 + 2L, locations[s][0], locations[s][1] - 0.01));
+        }
+        weather.sort(Comparator.comparing(WeatherRecord::getRecordTime));
+        SectionWeatherJoin join = SectionWeatherJoin.build(stations(locations), sections, 1, 2.0, 50);
+
+        for (WeatherAsOfJoin.Mode mode : WeatherAsOfJoin.Mode.values()) {
+            WeatherAsOfJoin asOf = WeatherAsOfJoin.replay(join, mode, MAX_AGE, MAX_GAP, new WeatherPageIterator(
+                    (start, end) -> weather.stream()
+                            .filter(r -> !r.getRecordTime().isBefore(start) && r.getRecordTime().isBefore(end))
+                            .toList(),
+                    T0.minusHours(6), T0.plusDays(4), Duration.ofHours(5)));
+            FlowReading reading = new FlowReading();
+            WeatherSample sample = new WeatherSample();
+            int aligned = 0;
+            for (int minute = 0; minute < 3 * 24 * 60; minute += random.nextInt(3)) {
+                reading.setRoadSectionId(random.nextInt(7));
+                reading.setEpochSecond(epoch(minute));
+                Double expected = bruteForce(weather, join, mode, reading);
+                assertThat(asOf.align(reading, sample)).isEqualTo(expected != null);
+                if (expected != null) {
+                    assertThat(sample.getTemperature()).isCloseTo(expected, within(1e-9));
+                    aligned++;
+                }
+            }
+            assertThat(aligned).isGreaterThan(1000);
+        }
+    }
+
+    private static Double bruteForce(List<WeatherRecord> weather, SectionWeatherJoin join, WeatherAsOfJoin.Mode mode,
+                                     FlowReading reading) {
+        SectionWeatherJoin.Neighbors neighbors = join.neighbors(reading.getRoadSectionId());
+        if (neighbors == null) {
+            return null;
+        }
+        WeatherRecord station = join.getStation(neighbors.stations()[0]);
+        WeatherRecord previous = null;
+        WeatherRecord next = null;
+        for (WeatherRecord record : weather) {
+            if (!record.getLongitude().equals(station.getLongitude())
+                    || !record.getLatitude().equals(station.getLatitude())) {
+                continue;
+            }
+            long time = DateUtils.toEpochSecond(record.getRecordTime());
+            if (time <= reading.getEpochSecond()) {
+                previous = record;
+            } else if (next == null) {
+                next = record;
+            }
+        }
+        if (previous == null) {
+            return null;
+        }
+        long previousTime = DateUtils.toEpochSecond(previous.getRecordTime());
+        if (reading.getEpochSecond() - previousTime > MAX_AGE) {
+            return null;
+        }
+        if (mode == WeatherAsOfJoin.Mode.LATEST || next == null
+                || DateUtils.toEpochSecond(next.getRecordTime()) - previousTime > MAX_GAP) {
+            return previous.getTemperature();
+        }
+        long nextTime = DateUtils.toEpochSecond(next.getRecordTime());
+        double fraction = (double) (reading.getEpochSecond() - previousTime) / (nextTime - previousTime);
+        return previous.getTemperature() + (next.getTemperature() - previous.getTemperature()) * fraction;
+    }
+
+    private static List<WeatherRecord> stations(double[][] locations) {
+        List<WeatherRecord> stations = new ArrayList<>();
+        for (double[] location : locations) {
+            stations.add(record(location[0], location[1], 0, 0));
+        }
+        return stations;
+    }
+
+    private static WeatherRecord record(double longitude, double latitude, int minute, double temperature) {
+        WeatherRecord record = new WeatherRecord();
+        record.setLongitude(longitude);
+        record.setLatitude(latitude);
+        record.setRecordTime(T0.plusMinutes(minute));
+        record.setTemperature(temperature);
+        return record;
+    }
+
+    private static long epoch(int minute) {
+        return DateUtils.toEpochSecond(T0.plusMinutes(minute));
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.enshitrafficplatform.weather;
+
+import com.example.enshitrafficplatform.dictionary.WeatherCondition;
+import com.example.enshitrafficplatform.entity.WeatherRecord;
+import com.example.enshitrafficplatform.weather.SectionWeatherJoin.SectionPoint;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class WeatherImpactEngineTest {
+
+    private static final double[] PRECIPITATION = {0, 0.05, 0.1, 4.99, 5, 9.99, 10, 10.01, 14.99, 15, 15.01, 20,
+            20.01, 24.99, 25, 29.99, 30, 30.01, 49.99, 50, 50.01, 99.99, 100, 249.99, 250, 300};
+
+    private static final double[] VISIBILITY = {0, 49.99, 50, 99.99, 100, 100.01, 199.99, 200, 200.01, 499.99,
+            500, 500.01, 999.99, 1000, 1000.01, 1999.99, 2000, 10000};
+
+    private static final double[] WIND_SPEED = {0, 7.99, 8, 8.01, 10.79, 10.8, 13.9, 17.2, 20.8, 24.5, 28.5,
+            32.69, 32.7, 40};
+
+    private static final double[] TEMPERATURE = {-20, -10.01, -10, -5.01, -5, -0.01, 0, 0.01, 1.99, 2, 2.01,
+            2.99, 3, 3.99, 4, 4.99, 5, 30};
+
+    private static final double[] HUMIDITY = {40, 85, 85.01, 95, 95.01, 100};
+
+    private static final String[] FREE_CONDITIONS = {"持续小雨", "连续暴雪", "雷暴", "冰冻", "霜冻", "雷阵雨转中雪", ""};
+
+    @Test
+    void columnScoresEqualRecordFormulas() {
+        Random random = new Random(46);
+        List<WeatherRecord> records = new ArrayList<>();
+        for (int i = 0; i < 20_000; i++) {
+            records.add(randomRecord(random));
+        }
+        WeatherImpactEngine.Scores scores = WeatherImpactEngine.score(WeatherColumns.ofRecords(records));
+        for (int i = 0; i < records.size(); i++) {
+            WeatherRecord record = records.get(i);
+            assertThat(scores.getTrafficImpactLevel(i)).isEqualTo(record.getTrafficImpactLevel());
+            assertThat(scores.getEnshiImpactIndex(i)).isEqualTo(record.calculateEnshiWeatherImpactIndex());
+            assertThat(scores.getSlipperyIndex(i)).isEqualTo(record.calculateRoadSlipperyIndex());
+            assertThat(scores.getTerrainFactor(i)).isEqualTo(record.getMountainTerrainFactor());
+            assertThat(scores.isMountainComplex(i)).isEqualTo(record.isMountainComplexWeather());
+        }
+    }
+
+    @Test
+    void sectionsAreScoredAgainstInterpolatedWeather() {
+        Random random = new Random(146);
+        WeatherRecord west = randomRecord(random);
+        west.setLongitude(109.40);
+        west.setLatitude(30.27);
+        WeatherRecord east = randomRecord(random);
+        east.setLongitude(109.60);
+        east.setLatitude(30.27);
+        east.setPrecipitation(40.0);
+        west.setPrecipitation(0.0);
+
+        SectionWeatherJoin nearestOnly = SectionWeatherJoin.build(List.of(west, east), List.of(
+                new SectionPoint(30L, 109.59, 30.27),
+                new SectionPoint(10L, 109.41, 30.27),
+                new SectionPoint(20L, 115.00, 30.27)), 1, 2.0, 50);
+        WeatherImpactTable table = WeatherImpactTable.compute(nearestOnly);
+        assertThat(table.size()).isEqualTo(2);
+        assertThat(table.getRoadSectionId(0)).isEqualTo(10L);
+        assertThat(table.get(20L)).isNull();
+        SectionWeatherImpact impact = table.get(10L);
+        assertThat(impact.getTrafficImpactLevel()).isEqualTo(west.getTrafficImpactLevel());
+        assertThat(impact.getEnshiImpactIndex()).isEqualTo(west.calculateEnshiWeatherImpactIndex());
+        assertThat(table.get(30L).getSlipperyIndex()).isEqualTo(east.calculateRoadSlipperyIndex());
+
+        // 两个观测站等距时降水量取平均
+        SectionWeatherJoin midpoint = SectionWeatherJoin.build(List.of(west, east),
+                List.of(new SectionPoint(10L, 109.50, 30.27)), 2, 2.0, 50);
+        WeatherColumns columns = WeatherColumns.ofSections(midpoint, new long[] {10L});
+        assertThat(columns.precipitation[0]).isEqualTo(20.0);
+    }
+
+    private static WeatherRecord randomRecord(Random random) {
+        WeatherRecord record = new WeatherRecord();
+        record.setRecordTime(LocalDateTime.of(2024, 1, 1, 0, 0));
+        record.setPrecipitation(pick(random, PRECIPITATION));
+        record.setVisibility(pick(random, VISIBILITY));
+        record.setWindSpeed(pick(random, WIND_SPEED));
+        record.setTemperature(pick(random, TEMPERATURE));
+        record.setHumidity(pick(random, HUMIDITY));
+        record.setCloudCover(random.nextInt(5) == 0 ? null : random.nextInt(101));
+        record.setWindDirection(random.nextInt(5) == 0 ? null : random.nextInt(360));
+        record.setWindForce(random.nextInt(5) == 0 ? null : random.nextInt(13));
+        record.setIsFoggy(random.nextBoolean());
+        record.setIsSnowIce(random.nextInt(4) == 0);
+        record.setHasThunderstorm(random.nextInt(4) == 0);
+        record.setWarningInfo(random.nextInt(3) == 0 ? null : random.nextBoolean() ? "" : "暴雨黄色预警");
+        WeatherCondition[] conditions = WeatherCondition.values();
+        record.setWeatherCondition(random.nextInt(4) == 0
+                ? FREE_CONDITIONS[random.nextInt(FREE_CONDITIONS.length)]
+                : conditions[random.nextInt(conditions.length)].getLabel());
+        return record;
+    }
+
+    private static Double pick(Random random, double[] values) {
+        int choice = random.nextInt(10);
+        if (choice == 0) {
+            return null;
+        }
+        if (choice == 1) {
+            return values[values.length - 1] * random.nextDouble();
+        }
+        return values[random.nextInt(values.length)];
+    }
+}